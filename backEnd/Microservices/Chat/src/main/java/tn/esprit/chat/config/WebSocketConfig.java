@@ -1,6 +1,7 @@
 package tn.esprit.chat.config;
 
 import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.messaging.simp.config.ChannelRegistration;
 import org.springframework.messaging.simp.config.MessageBrokerRegistry;
@@ -8,6 +9,14 @@ import org.springframework.web.socket.config.annotation.EnableWebSocketMessageBr
 import org.springframework.web.socket.config.annotation.StompEndpointRegistry;
 import org.springframework.web.socket.config.annotation.WebSocketMessageBrokerConfigurer;
 
+/**
+ * STOMP over SockJS on {@code /ws}.
+ * <p>
+ * {@code chat.broker.mode=simple} (default) keeps the in-memory broker: one instance only. {@code relay} forwards
+ * {@code /topic} and {@code /queue} to an external STOMP broker (e.g. RabbitMQ with the STOMP plugin) shared by all
+ * instances; user destinations of users connected elsewhere are broadcast through the broker and resolved by the
+ * instance holding the session. Pair it with {@code chat.presence.store=database}.
+ */
 @Configuration
 @EnableWebSocketMessageBroker
 @RequiredArgsConstructor
@@ -15,9 +24,36 @@ public class WebSocketConfig implements WebSocketMessageBrokerConfigurer {
 
     private final WebSocketAuthInterceptor webSocketAuthInterceptor;
 
+    @Value("${chat.broker.mode:simple}")
+    private String brokerMode;
+
+    @Value("${chat.broker.relay.host:localhost}")
+    private String relayHost;
+
+    @Value("${chat.broker.relay.port:61613}")
+    private int relayPort;
+
+    @Value("${chat.broker.relay.login:guest}")
+    private String relayLogin;
+
+    @Value("${chat.broker.relay.passcode:guest}")
+    private String relayPasscode;
+
     @Override
     public void configureMessageBroker(MessageBrokerRegistry registry) {
-        registry.enableSimpleBroker("/topic", "/queue");
+        if ("relay".equalsIgnoreCase(brokerMode)) {
+            registry.enableStompBrokerRelay("/topic", "/queue")
+                    .setRelayHost(relayHost)
+                    .setRelayPort(relayPort)
+                    .setClientLogin(relayLogin)
+                    .setClientPasscode(relayPasscode)
+                    .setSystemLogin(relayLogin)
+                    .setSystemPasscode(relayPasscode)
+                    .setUserDestinationBroadcast("/topic/unresolved-user")
+                    .setUserRegistryBroadcast("/topic/simp-user-registry");
+        } else {
+            registry.enableSimpleBroker("/topic", "/queue");
+        }
         registry.setApplicationDestinationPrefixes("/app");
         registry.setUserDestinationPrefix("/user");
     }
@@ -9,6 +9,7 @@ import tn.esprit.chat.dto.ChatMessageDTO;
 import tn.esprit.chat.dto.SendMessageRequest;
 import tn.esprit.chat.dto.TypingEvent;
 import tn.esprit.chat.service.IChatService;
+import tn.esprit.chat.service.ReadReceiptBatcher;
 
 import java.security.Principal;
 import java.util.Map;
@@ -20,29 +21,17 @@ public class ChatController {
 
     private final IChatService chatService;
     private final SimpMessagingTemplate messagingTemplate;
+    private final ReadReceiptBatcher readReceiptBatcher;
 
+    /** Queues the message; it reaches both users on {@code /queue/messages} once its row is committed. */
     @MessageMapping("/chat")
     public void handleMessage(SendMessageRequest request, Principal principal) {
         Long senderId = Long.parseLong(principal.getName());
         request.setSenderId(senderId);
 
-        ChatMessageDTO saved = chatService.sendMessage(request);
+        ChatMessageDTO queued = chatService.sendMessage(request);
 
-        // Deliver to receiver
-        messagingTemplate.convertAndSendToUser(
-                request.getReceiverId().toString(),
-                "/queue/messages",
-                saved
-        );
-
-        // Echo back to sender
-        messagingTemplate.convertAndSendToUser(
-                senderId.toString(),
-                "/queue/messages",
-                saved
-        );
-
-        log.debug("Message routed: id={} from {} to {}", saved.getId(), senderId, request.getReceiverId());
+        log.debug("Message accepted: id={} from {} to {}", queued.getId(), senderId, request.getReceiverId());
     }
 
     @MessageMapping("/typing")
@@ -74,4 +63,17 @@ public class ChatController {
                 updated
         );
     }
+
+    /** High-water-mark receipt: {@code {senderId, upToMessageId}}, debounced and applied as one update. */
+    @MessageMapping("/seen-up-to")
+    public void handleSeenUpTo(Map<String, Long> payload, Principal principal) {
+        Long senderId = payload.get("senderId");
+        Long upToMessageId = payload.get("upToMessageId");
+        if (senderId == null || upToMessageId == null) {
+            log.warn("Received /seen-up-to without senderId or upToMessageId in payload");
+            return;
+        }
+
+        readReceiptBatcher.submit(Long.parseLong(principal.getName()), senderId, upToMessageId);
+    }
 }
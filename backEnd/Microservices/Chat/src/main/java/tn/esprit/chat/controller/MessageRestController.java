@@ -6,6 +6,7 @@ import org.springframework.data.domain.Page;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 import tn.esprit.chat.dto.ChatMessageDTO;
+import tn.esprit.chat.dto.ConversationSlice;
 import tn.esprit.chat.dto.ConversationSummary;
 import tn.esprit.chat.dto.TranslationRequest;
 import tn.esprit.chat.dto.TranslationResponse;
@@ -41,6 +42,17 @@ public class MessageRestController {
         return ResponseEntity.ok(chatService.getConversation(user1, user2, page, size));
     }
 
+    /** Keyset pagination: newest {@code size} messages, or those older than {@code before}; stable while new messages arrive. */
+    @GetMapping("/conversation/{user1}/{user2}/history")
+    public ResponseEntity<ConversationSlice> getConversationHistory(
+            @PathVariable Long user1,
+            @PathVariable Long user2,
+            @RequestParam(required = false) Long before,
+            @RequestParam(defaultValue = "20") int size) {
+        int limit = Math.min(Math.max(size, 1), 100);
+        return ResponseEntity.ok(chatService.getConversationBefore(user1, user2, before, limit));
+    }
+
     @GetMapping("/unread/{userId}")
     public ResponseEntity<List<ChatMessageDTO>> getUnreadMessages(@PathVariable Long userId) {
         return ResponseEntity.ok(chatService.getUnreadMessages(userId));
@@ -0,0 +1,18 @@
+package tn.esprit.chat.dto;
+
+import lombok.*;
+
+import java.util.List;
+
+/** One keyset page of a conversation: messages oldest first, plus the cursor for the next (older) page. */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class ConversationSlice {
+
+    private List<ChatMessageDTO> messages;
+    /** Pass as {@code before} to load older messages; null when there are none. */
+    private Long nextBefore;
+    private boolean hasMore;
+}
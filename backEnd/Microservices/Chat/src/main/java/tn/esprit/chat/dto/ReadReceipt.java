@@ -0,0 +1,23 @@
+package tn.esprit.chat.dto;
+
+import lombok.*;
+
+import java.time.LocalDateTime;
+
+/**
+ * Pushed on {@code /user/queue/read-receipts} to the sender: the reader has seen every message of the conversation
+ * up to {@code upToMessageId}.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class ReadReceipt {
+
+    private Long readerId;
+    private Long senderId;
+    private Long upToMessageId;
+    /** Messages that moved to SEEN with this receipt. */
+    private int count;
+    private LocalDateTime seenAt;
+}
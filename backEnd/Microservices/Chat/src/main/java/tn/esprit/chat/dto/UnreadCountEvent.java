@@ -0,0 +1,16 @@
+package tn.esprit.chat.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/** Pushed on {@code /user/queue/unread} whenever the user's unread count for a conversation changes. */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class UnreadCountEvent {
+
+    private Long partnerId;
+    private long unreadCount;
+    private long totalUnread;
+}
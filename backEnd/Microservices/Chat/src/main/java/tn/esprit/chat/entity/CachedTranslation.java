@@ -0,0 +1,26 @@
+package tn.esprit.chat.entity;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+/** Persistent tier of {@link tn.esprit.chat.service.TranslationCache}. */
+@Entity
+@Table(name = "translation_cache")
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class CachedTranslation {
+
+    /** {@code sha256(normalized text):source:target}. */
+    @Id
+    @Column(length = 120)
+    private String id;
+
+    @Column(columnDefinition = "TEXT", nullable = false)
+    private String translated;
+
+    /** Epoch milliseconds. */
+    @Column(nullable = false)
+    private long createdAt;
+}
@@ -7,15 +7,18 @@ import tn.esprit.chat.entity.enums.MessageStatus;
 import java.time.LocalDateTime;
 
 @Entity
-@Table(name = "chat_messages")
+@Table(name = "chat_messages", indexes = {
+        @Index(name = "idx_chat_conversation", columnList = "user_low, user_high, id"),
+        @Index(name = "idx_chat_receiver_status", columnList = "receiverId, status, senderId")
+})
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
 @Builder
 public class ChatMessage {
 
+    /** Assigned by {@link tn.esprit.chat.service.MessageIdGenerator} before the write-behind insert; time-ordered. */
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
     private Long id;
 
     @Column(nullable = false)
@@ -33,4 +36,20 @@ public class ChatMessage {
     @Enumerated(EnumType.STRING)
     @Column(nullable = false)
     private MessageStatus status;
+
+    /** Canonical conversation key: min(senderId, receiverId). */
+    @Column(name = "user_low")
+    private Long userLow;
+
+    /** Canonical conversation key: max(senderId, receiverId). */
+    @Column(name = "user_high")
+    private Long userHigh;
+
+    @PrePersist
+    void fillConversationKey() {
+        if (userLow == null && senderId != null && receiverId != null) {
+            userLow = Math.min(senderId, receiverId);
+            userHigh = Math.max(senderId, receiverId);
+        }
+    }
 }
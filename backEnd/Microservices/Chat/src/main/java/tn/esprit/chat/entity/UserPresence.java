@@ -0,0 +1,37 @@
+package tn.esprit.chat.entity;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+/** One user connected to one chat instance, refreshed by that instance's presence heartbeat. */
+@Entity
+@Table(name = "chat_presence", indexes = {
+        @Index(name = "idx_chat_presence_user", columnList = "userId, lastSeen"),
+        @Index(name = "idx_chat_presence_instance", columnList = "instanceId"),
+        @Index(name = "idx_chat_presence_last_seen", columnList = "lastSeen")
+})
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class UserPresence {
+
+    /** {@code userId@instanceId}. */
+    @Id
+    @Column(length = 100)
+    private String id;
+
+    @Column(nullable = false)
+    private Long userId;
+
+    @Column(nullable = false, length = 64)
+    private String instanceId;
+
+    /** Epoch milliseconds of the last heartbeat. */
+    @Column(nullable = false)
+    private long lastSeen;
+
+    public static String key(Long userId, String instanceId) {
+        return userId + "@" + instanceId;
+    }
+}
@@ -0,0 +1,9 @@
+package tn.esprit.chat.repository;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+import tn.esprit.chat.entity.CachedTranslation;
+
+@Repository
+public interface CachedTranslationRepository extends JpaRepository<CachedTranslation, String> {
+}
@@ -3,6 +3,7 @@ package tn.esprit.chat.repository;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
@@ -14,13 +15,35 @@ import java.util.List;
 @Repository
 public interface ChatMessageRepository extends JpaRepository<ChatMessage, Long> {
 
-    @Query("SELECT m FROM ChatMessage m WHERE (m.senderId = :user1 AND m.receiverId = :user2) OR (m.senderId = :user2 AND m.receiverId = :user1) ORDER BY m.timestamp ASC")
-    Page<ChatMessage> findConversation(@Param("user1") Long user1, @Param("user2") Long user2, Pageable pageable);
+    /** Offset pages over one conversation, oldest first; {@code low}/{@code high} is the canonical key. */
+    @Query(value = "SELECT m FROM ChatMessage m WHERE m.userLow = :low AND m.userHigh = :high ORDER BY m.id ASC",
+            countQuery = "SELECT COUNT(m) FROM ChatMessage m WHERE m.userLow = :low AND m.userHigh = :high")
+    Page<ChatMessage> findConversation(@Param("low") Long low, @Param("high") Long high, Pageable pageable);
+
+    /** Keyset page: the newest messages of the conversation, newest first. */
+    List<ChatMessage> findByUserLowAndUserHighOrderByIdDesc(Long userLow, Long userHigh, Pageable pageable);
+
+    /** Keyset page: messages older than {@code beforeId}, newest first. */
+    List<ChatMessage> findByUserLowAndUserHighAndIdLessThanOrderByIdDesc(Long userLow, Long userHigh, Long beforeId, Pageable pageable);
+
+    @Modifying
+    @Query(value = "UPDATE chat_messages SET user_low = LEAST(sender_id, receiver_id), user_high = GREATEST(sender_id, receiver_id) WHERE user_low IS NULL", nativeQuery = true)
+    int backfillConversationKeys();
 
     List<ChatMessage> findByReceiverIdAndStatusNot(Long receiverId, MessageStatus status);
 
     long countByReceiverIdAndSenderIdAndStatusNot(Long receiverId, Long senderId, MessageStatus status);
 
+    /** Rows of [senderId, id] of the receiver's messages not in {@code status}. */
+    @Query("SELECT m.senderId, m.id FROM ChatMessage m WHERE m.receiverId = :receiverId AND m.status <> :status")
+    List<Object[]> findUnreadIdsBySender(@Param("receiverId") Long receiverId, @Param("status") MessageStatus status);
+
+    /** High-water-mark read receipt: every message from {@code senderId} to {@code receiverId} up to {@code upToId}. */
+    @Modifying
+    @Query("UPDATE ChatMessage m SET m.status = :seen WHERE m.receiverId = :receiverId AND m.senderId = :senderId AND m.id <= :upToId AND m.status <> :seen")
+    int markSeenUpTo(@Param("receiverId") Long receiverId, @Param("senderId") Long senderId,
+                     @Param("upToId") Long upToId, @Param("seen") MessageStatus seen);
+
     @Query("SELECT DISTINCT CASE WHEN m.senderId = :userId THEN m.receiverId ELSE m.senderId END FROM ChatMessage m WHERE m.senderId = :userId OR m.receiverId = :userId")
     List<Long> findConversationPartners(@Param("userId") Long userId);
 
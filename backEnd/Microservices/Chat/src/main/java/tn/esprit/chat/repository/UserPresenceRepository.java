@@ -0,0 +1,34 @@
+package tn.esprit.chat.repository;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import tn.esprit.chat.entity.UserPresence;
+
+import java.util.Collection;
+import java.util.List;
+
+@Repository
+public interface UserPresenceRepository extends JpaRepository<UserPresence, String> {
+
+    /** Heartbeat of every user connected to the instance, in one statement. */
+    @Modifying
+    @Query("UPDATE UserPresence p SET p.lastSeen = :now WHERE p.instanceId = :instanceId")
+    int touchInstance(@Param("instanceId") String instanceId, @Param("now") long now);
+
+    @Query("SELECT p.userId FROM UserPresence p WHERE p.instanceId = :instanceId")
+    List<Long> findUserIdsByInstanceId(@Param("instanceId") String instanceId);
+
+    @Query("SELECT DISTINCT p.userId FROM UserPresence p WHERE p.lastSeen >= :since")
+    List<Long> findOnlineUserIds(@Param("since") long since);
+
+    boolean existsByUserIdAndLastSeenGreaterThanEqual(Long userId, long since);
+
+    List<UserPresence> findByLastSeenLessThan(long cutoff);
+
+    @Modifying
+    @Query("DELETE FROM UserPresence p WHERE p.id IN :ids")
+    int deleteByIds(@Param("ids") Collection<String> ids);
+}
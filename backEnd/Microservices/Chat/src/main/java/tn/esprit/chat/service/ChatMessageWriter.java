@@ -0,0 +1,48 @@
+package tn.esprit.chat.service;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+import tn.esprit.chat.entity.ChatMessage;
+import tn.esprit.chat.repository.ChatMessageRepository;
+
+import java.util.List;
+
+/**
+ * Inserts chat messages in one transaction per batch. Ids are pre-assigned, so Hibernate groups the inserts into
+ * JDBC batches ({@code hibernate.jdbc.batch_size}).
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class ChatMessageWriter {
+
+    private final ChatMessageRepository chatMessageRepository;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Transactional
+    public void insertAll(List<ChatMessage> messages) {
+        for (ChatMessage message : messages) {
+            entityManager.persist(message);
+        }
+        entityManager.flush();
+        entityManager.clear();
+    }
+
+    /** Fills the canonical conversation key on rows written before it existed. */
+    @Transactional
+    @EventListener(ApplicationReadyEvent.class)
+    public void backfillConversationKeys() {
+        int updated = chatMessageRepository.backfillConversationKeys();
+        if (updated > 0) {
+            log.info("Backfilled conversation key on {} chat message(s)", updated);
+        }
+    }
+}
@@ -2,18 +2,26 @@ package tn.esprit.chat.service;
 
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
+import org.springframework.messaging.simp.SimpMessagingTemplate;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 import tn.esprit.chat.dto.ChatMessageDTO;
+import tn.esprit.chat.dto.ConversationSlice;
 import tn.esprit.chat.dto.ConversationSummary;
+import tn.esprit.chat.dto.ReadReceipt;
 import tn.esprit.chat.dto.SendMessageRequest;
 import tn.esprit.chat.entity.ChatMessage;
 import tn.esprit.chat.entity.enums.MessageStatus;
 import tn.esprit.chat.repository.ChatMessageRepository;
 
 import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collections;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
@@ -27,30 +35,81 @@ public class ChatService implements IChatService {
 
     private final ChatMessageRepository chatMessageRepository;
     private final UserStatusService userStatusService;
-
+    private final MessageIngestQueue messageIngestQueue;
+    private final MessageIdGenerator messageIdGenerator;
+    private final InboxCache inboxCache;
+    private final SimpMessagingTemplate messagingTemplate;
+    private final TransactionTemplate transactionTemplate;
+
+    @Value("${chat.ingest.seen-wait-ms:2000}")
+    private long seenWaitMs;
+
+    /**
+     * Assigns the id and hands the message to the write-behind queue; the insert happens in batches. Only once the row
+     * is committed is the message delivered to the receiver and echoed to the sender on {@code /user/queue/messages}
+     * and the inboxes updated, so nobody sees a message that a crash could still lose. If the insert is finally given
+     * up on, both users get it on {@code /user/queue/message-failed} instead.
+     */
     @Override
     public ChatMessageDTO sendMessage(SendMessageRequest request) {
         ChatMessage message = ChatMessage.builder()
+                .id(messageIdGenerator.nextId())
                 .senderId(request.getSenderId())
                 .receiverId(request.getReceiverId())
+                .userLow(Math.min(request.getSenderId(), request.getReceiverId()))
+                .userHigh(Math.max(request.getSenderId(), request.getReceiverId()))
                 .content(request.getContent())
                 .timestamp(LocalDateTime.now())
                 .status(MessageStatus.SENT)
                 .build();
 
-        ChatMessage saved = chatMessageRepository.save(message);
-        log.debug("Message saved with id={} from {} to {}", saved.getId(), saved.getSenderId(), saved.getReceiverId());
-        return toDTO(saved);
+        messageIngestQueue.enqueue(message).whenComplete((ok, failure) -> {
+            if (failure == null) {
+                inboxCache.recordSent(message);
+                sendToBoth(message, "/queue/messages");
+            } else {
+                sendToBoth(message, "/queue/message-failed");
+            }
+        });
+        log.debug("Message queued with id={} from {} to {}", message.getId(), message.getSenderId(), message.getReceiverId());
+        return toDTO(message);
+    }
+
+    private void sendToBoth(ChatMessage message, String destination) {
+        ChatMessageDTO dto = toDTO(message);
+        messagingTemplate.convertAndSendToUser(message.getReceiverId().toString(), destination, dto);
+        messagingTemplate.convertAndSendToUser(message.getSenderId().toString(), destination, dto);
     }
 
     @Override
     @Transactional(readOnly = true)
     public Page<ChatMessageDTO> getConversation(Long user1, Long user2, int page, int size) {
         return chatMessageRepository
-                .findConversation(user1, user2, PageRequest.of(page, size))
+                .findConversation(Math.min(user1, user2), Math.max(user1, user2), PageRequest.of(page, size))
                 .map(this::toDTO);
     }
 
+    @Override
+    @Transactional(readOnly = true)
+    public ConversationSlice getConversationBefore(Long user1, Long user2, Long beforeId, int size) {
+        Long low = Math.min(user1, user2);
+        Long high = Math.max(user1, user2);
+        // one extra row tells whether an older page exists
+        PageRequest limit = PageRequest.of(0, size + 1);
+        List<ChatMessage> newestFirst = beforeId == null
+                ? chatMessageRepository.findByUserLowAndUserHighOrderByIdDesc(low, high, limit)
+                : chatMessageRepository.findByUserLowAndUserHighAndIdLessThanOrderByIdDesc(low, high, beforeId, limit);
+        boolean hasMore = newestFirst.size() > size;
+        List<ChatMessageDTO> messages = new ArrayList<>(newestFirst.subList(0, Math.min(size, newestFirst.size()))
+                .stream().map(this::toDTO).toList());
+        Collections.reverse(messages);
+        return ConversationSlice.builder()
+                .messages(messages)
+                .nextBefore(hasMore ? messages.get(0).getId() : null)
+                .hasMore(hasMore)
+                .build();
+    }
+
     @Override
     @Transactional(readOnly = true)
     public List<ChatMessageDTO> getUnreadMessages(Long userId) {
@@ -64,47 +123,75 @@ public class ChatService implements IChatService {
     @Override
     @Transactional(readOnly = true)
     public Map<String, Long> getUnreadCount(Long userId) {
-        List<ChatMessage> unread = chatMessageRepository.findByReceiverIdAndStatusNot(userId, MessageStatus.SEEN);
+        Map<Long, Long> perSender = inboxCache.unreadBySender(userId);
 
         Map<String, Long> result = new HashMap<>();
-        result.put("total", (long) unread.size());
-
-        Map<Long, Long> perSender = unread.stream()
-                .collect(Collectors.groupingBy(ChatMessage::getSenderId, Collectors.counting()));
+        result.put("total", perSender.values().stream().mapToLong(Long::longValue).sum());
 
         perSender.forEach((senderId, count) -> result.put("sender_" + senderId, count));
 
         return result;
     }
 
+    /** Waits for a still-queued insert outside any transaction, then updates the row in a short one. */
     @Override
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
     public ChatMessageDTO markAsSeen(Long messageId) {
-        ChatMessage message = chatMessageRepository.findById(messageId)
-                .orElseThrow(() -> new RuntimeException("Message not found with id: " + messageId));
-        message.setStatus(MessageStatus.SEEN);
-        ChatMessage saved = chatMessageRepository.save(message);
+        // the receiver can see a message before its batch is inserted
+        if (messageIngestQueue.isPending(messageId)) {
+            messageIngestQueue.awaitPersisted(messageId, seenWaitMs);
+        }
+        ChatMessage saved = transactionTemplate.execute(status -> {
+            ChatMessage message = chatMessageRepository.findById(messageId)
+                    .orElseThrow(() -> new RuntimeException("Message not found with id: " + messageId));
+            message.setStatus(MessageStatus.SEEN);
+            return chatMessageRepository.save(message);
+        });
+        inboxCache.recordSeen(saved);
         return toDTO(saved);
     }
 
+    /**
+     * One set-based update for every message of the conversation the reader has now seen. Retries and the synchronous
+     * fallback insert out of id order, so older messages of the sender may still be pending: the mark stops just below
+     * the first one still missing after the wait, and the receipt reports that bound.
+     */
+    @Override
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public ReadReceipt markConversationSeen(Long readerId, Long senderId, Long upToMessageId) {
+        // the wait happens before the transaction so it does not hold a connection
+        long persistedUpTo = messageIngestQueue.awaitPersistedUpTo(senderId, readerId, upToMessageId, seenWaitMs);
+        if (persistedUpTo < upToMessageId) {
+            log.debug("Seen mark from {} on {} held at {} (message {} still pending)",
+                    readerId, senderId, persistedUpTo, persistedUpTo + 1);
+        }
+        Integer updatedRows = transactionTemplate.execute(status ->
+                chatMessageRepository.markSeenUpTo(readerId, senderId, persistedUpTo, MessageStatus.SEEN));
+        int updated = updatedRows != null ? updatedRows : 0;
+        if (updated > 0) {
+            inboxCache.recordSeenUpTo(readerId, senderId, persistedUpTo);
+        }
+        return ReadReceipt.builder()
+                .readerId(readerId)
+                .senderId(senderId)
+                .upToMessageId(persistedUpTo)
+                .count(updated)
+                .seenAt(LocalDateTime.now())
+                .build();
+    }
+
     @Override
     @Transactional(readOnly = true)
     public List<ConversationSummary> getConversations(Long userId) {
-        List<ChatMessage> latestMessages = chatMessageRepository.findLatestMessagesPerConversation(userId);
-
-        return latestMessages.stream().map(msg -> {
-            Long partnerId = msg.getSenderId().equals(userId) ? msg.getReceiverId() : msg.getSenderId();
-            long unreadCount = chatMessageRepository.countByReceiverIdAndSenderIdAndStatusNot(
-                    userId, partnerId, MessageStatus.SEEN);
-
-            return ConversationSummary.builder()
-                    .partnerId(partnerId)
-                    .lastMessage(msg.getContent())
-                    .lastMessageTime(msg.getTimestamp())
-                    .lastMessageStatus(msg.getStatus().name())
-                    .unreadCount(unreadCount)
-                    .isOnline(userStatusService.isOnline(partnerId))
-                    .build();
-        }).collect(Collectors.toList());
+        return inboxCache.conversations(userId).stream().map(c -> ConversationSummary.builder()
+                .partnerId(c.partnerId())
+                .lastMessage(c.lastMessage())
+                .lastMessageTime(c.lastMessageTime())
+                .lastMessageStatus(c.lastMessageStatus())
+                .unreadCount(c.unreadCount())
+                .isOnline(userStatusService.isOnline(c.partnerId()))
+                .build()
+        ).collect(Collectors.toList());
     }
 
     private ChatMessageDTO toDTO(ChatMessage message) {
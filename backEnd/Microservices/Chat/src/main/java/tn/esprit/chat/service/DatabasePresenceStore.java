@@ -0,0 +1,75 @@
+package tn.esprit.chat.service;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+import tn.esprit.chat.entity.UserPresence;
+import tn.esprit.chat.repository.UserPresenceRepository;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+/** Presence shared by every chat instance through the {@code chat_presence} table. */
+@Component
+@ConditionalOnProperty(name = "chat.presence.store", havingValue = "database")
+@RequiredArgsConstructor
+@Transactional
+public class DatabasePresenceStore implements PresenceStore {
+
+    private final UserPresenceRepository userPresenceRepository;
+
+    @Override
+    public void connected(Long userId, String instanceId, long now) {
+        userPresenceRepository.save(new UserPresence(UserPresence.key(userId, instanceId), userId, instanceId, now));
+    }
+
+    @Override
+    public void disconnected(Long userId, String instanceId) {
+        userPresenceRepository.deleteById(UserPresence.key(userId, instanceId));
+    }
+
+    @Override
+    public void heartbeat(Collection<Long> userIds, String instanceId, long now) {
+        int touched = userPresenceRepository.touchInstance(instanceId, now);
+        if (touched >= userIds.size()) {
+            return;
+        }
+        // some rows were expired by another instance (e.g. after a long pause): put them back
+        Set<Long> present = new HashSet<>(userPresenceRepository.findUserIdsByInstanceId(instanceId));
+        List<UserPresence> missing = new ArrayList<>();
+        for (Long userId : userIds) {
+            if (!present.contains(userId)) {
+                missing.add(new UserPresence(UserPresence.key(userId, instanceId), userId, instanceId, now));
+            }
+        }
+        userPresenceRepository.saveAll(missing);
+    }
+
+    @Override
+    public Set<Long> expire(long cutoff) {
+        List<UserPresence> stale = userPresenceRepository.findByLastSeenLessThan(cutoff);
+        if (stale.isEmpty()) {
+            return Set.of();
+        }
+        userPresenceRepository.deleteByIds(stale.stream().map(UserPresence::getId).toList());
+        Set<Long> expired = new HashSet<>();
+        stale.forEach(p -> expired.add(p.getUserId()));
+        return expired;
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public boolean isOnline(Long userId, long since) {
+        return userPresenceRepository.existsByUserIdAndLastSeenGreaterThanEqual(userId, since);
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public Set<Long> onlineUsers(long since) {
+        return new HashSet<>(userPresenceRepository.findOnlineUserIds(since));
+    }
+}
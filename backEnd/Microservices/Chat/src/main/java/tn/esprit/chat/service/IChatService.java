@@ -2,7 +2,9 @@ package tn.esprit.chat.service;
 
 import org.springframework.data.domain.Page;
 import tn.esprit.chat.dto.ChatMessageDTO;
+import tn.esprit.chat.dto.ConversationSlice;
 import tn.esprit.chat.dto.ConversationSummary;
+import tn.esprit.chat.dto.ReadReceipt;
 import tn.esprit.chat.dto.SendMessageRequest;
 
 import java.util.List;
@@ -14,11 +16,15 @@ public interface IChatService {
 
     Page<ChatMessageDTO> getConversation(Long user1, Long user2, int page, int size);
 
+    ConversationSlice getConversationBefore(Long user1, Long user2, Long beforeId, int size);
+
     List<ChatMessageDTO> getUnreadMessages(Long userId);
 
     Map<String, Long> getUnreadCount(Long userId);
 
     ChatMessageDTO markAsSeen(Long messageId);
 
+    ReadReceipt markConversationSeen(Long readerId, Long senderId, Long upToMessageId);
+
     List<ConversationSummary> getConversations(Long userId);
 }
@@ -0,0 +1,69 @@
+package tn.esprit.chat.service;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+import tn.esprit.chat.entity.UserPresence;
+
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/** Presence for a single instance (dev, tests): same contract as the database store, kept in this JVM. */
+@Component
+@ConditionalOnProperty(name = "chat.presence.store", havingValue = "memory", matchIfMissing = true)
+public class InMemoryPresenceStore implements PresenceStore {
+
+    private record Entry(Long userId, String instanceId, long lastSeen) {
+    }
+
+    private final Map<String, Entry> entries = new ConcurrentHashMap<>();
+
+    @Override
+    public void connected(Long userId, String instanceId, long now) {
+        entries.put(UserPresence.key(userId, instanceId), new Entry(userId, instanceId, now));
+    }
+
+    @Override
+    public void disconnected(Long userId, String instanceId) {
+        entries.remove(UserPresence.key(userId, instanceId));
+    }
+
+    @Override
+    public void heartbeat(Collection<Long> userIds, String instanceId, long now) {
+        for (Long userId : userIds) {
+            connected(userId, instanceId, now);
+        }
+    }
+
+    @Override
+    public Set<Long> expire(long cutoff) {
+        Set<Long> expired = new HashSet<>();
+        for (Iterator<Entry> it = entries.values().iterator(); it.hasNext(); ) {
+            Entry e = it.next();
+            if (e.lastSeen() < cutoff) {
+                it.remove();
+                expired.add(e.userId());
+            }
+        }
+        return expired;
+    }
+
+    @Override
+    public boolean isOnline(Long userId, long since) {
+        return entries.values().stream().anyMatch(e -> e.userId().equals(userId) && e.lastSeen() >= since);
+    }
+
+    @Override
+    public Set<Long> onlineUsers(long since) {
+        Set<Long> online = new HashSet<>();
+        entries.values().forEach(e -> {
+            if (e.lastSeen() >= since) {
+                online.add(e.userId());
+            }
+        });
+        return online;
+    }
+}
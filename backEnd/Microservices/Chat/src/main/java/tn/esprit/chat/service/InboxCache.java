@@ -0,0 +1,253 @@
+package tn.esprit.chat.service;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.messaging.simp.SimpMessagingTemplate;
+import org.springframework.stereotype.Service;
+import tn.esprit.chat.dto.UnreadCountEvent;
+import tn.esprit.chat.entity.ChatMessage;
+import tn.esprit.chat.entity.enums.MessageStatus;
+import tn.esprit.chat.repository.ChatMessageRepository;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableSet;
+import java.util.TreeSet;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Consumer;
+
+/**
+ * Per-user inbox kept in memory: unread count per sender and the last message of each conversation.
+ * <p>
+ * A user's inbox is loaded from the database on first access (unread message ids, one latest-message query) and
+ * reloaded after {@code chat.inbox.ttl-ms}, which also heals drift. Sends (once the row is committed) and seen
+ * receipts update loaded inboxes in place and push the change to the users involved: {@code /user/queue/unread}
+ * ({@link UnreadCountEvent}) and {@code /user/queue/conversations} (the updated conversation), so clients do not need
+ * to poll.
+ * <p>
+ * Unread messages are kept by id rather than as counts, so applying a send or a seen receipt twice (once by the load,
+ * once as a delta, or by two concurrent receipts) changes nothing. A load runs inside {@link ConcurrentHashMap#compute}
+ * and deltas use {@code computeIfPresent}, so a delta arriving during the load is applied to the new inbox.
+ */
+@Service
+@Slf4j
+public class InboxCache {
+
+    /** One conversation as seen from a user's inbox. */
+    public record Conversation(Long partnerId, Long lastMessageId, String lastMessage, LocalDateTime lastMessageTime,
+                               String lastMessageStatus, long unreadCount) {
+    }
+
+    private final ChatMessageRepository chatMessageRepository;
+    private final SimpMessagingTemplate messagingTemplate;
+    private final long ttlMs;
+    private final int maxUsers;
+
+    private final Map<Long, UserInbox> inboxes = new ConcurrentHashMap<>();
+
+    public InboxCache(ChatMessageRepository chatMessageRepository,
+                      SimpMessagingTemplate messagingTemplate,
+                      @Value("${chat.inbox.ttl-ms:600000}") long ttlMs,
+                      @Value("${chat.inbox.max-users:50000}") int maxUsers) {
+        this.chatMessageRepository = chatMessageRepository;
+        this.messagingTemplate = messagingTemplate;
+        this.ttlMs = ttlMs;
+        this.maxUsers = maxUsers;
+    }
+
+    /** Unread counts by sender for the user (only senders with at least one unread message). */
+    public Map<Long, Long> unreadBySender(Long userId) {
+        UserInbox inbox = inbox(userId);
+        Map<Long, Long> result = new HashMap<>();
+        synchronized (inbox) {
+            inbox.unread.forEach((senderId, ids) -> result.put(senderId, (long) ids.size()));
+        }
+        return result;
+    }
+
+    /** The user's conversations, most recent first. */
+    public List<Conversation> conversations(Long userId) {
+        UserInbox inbox = inbox(userId);
+        List<Conversation> result = new ArrayList<>();
+        synchronized (inbox) {
+            inbox.last.forEach((partnerId, m) -> result.add(new Conversation(partnerId, m.getId(), m.getContent(),
+                    m.getTimestamp(), m.getStatus().name(), inbox.unreadCount(partnerId))));
+        }
+        result.sort(Comparator.comparing(Conversation::lastMessageTime, Comparator.nullsLast(Comparator.reverseOrder())));
+        return result;
+    }
+
+    /** A new message, once its row is committed: last message for both users, one more unread for the receiver. */
+    public void recordSent(ChatMessage message) {
+        Long sender = message.getSenderId();
+        Long receiver = message.getReceiverId();
+        UserInbox receiverInbox = apply(receiver, inbox -> {
+            inbox.offerLast(sender, message);
+            inbox.unread.computeIfAbsent(sender, k -> new TreeSet<>()).add(message.getId());
+        });
+        if (receiverInbox != null) {
+            push(receiver, receiverInbox, sender);
+        }
+        UserInbox senderInbox = apply(sender, inbox -> inbox.offerLast(receiver, message));
+        if (senderInbox != null) {
+            pushConversation(sender, senderInbox, receiver);
+        }
+    }
+
+    /**
+     * A message moved to SEEN (call after commit): no longer unread for the receiver, and the last-message status of
+     * both inboxes when it is that conversation's last message.
+     */
+    public void recordSeen(ChatMessage message) {
+        seen(message.getReceiverId(), message.getSenderId(), ids -> ids.remove(message.getId()), message.getId());
+    }
+
+    /**
+     * The reader has seen the sender's messages up to {@code upToId} (call after commit): those leave the reader's
+     * unread set, and the last-message status of both inboxes follows when it is covered.
+     */
+    public void recordSeenUpTo(Long readerId, Long senderId, Long upToId) {
+        seen(readerId, senderId, ids -> ids.headSet(upToId, true).clear(), upToId);
+    }
+
+    private void seen(Long readerId, Long senderId, Consumer<NavigableSet<Long>> removeSeen, Long upToId) {
+        UserInbox readerInbox = apply(readerId, inbox -> {
+            NavigableSet<Long> ids = inbox.unread.get(senderId);
+            if (ids != null) {
+                removeSeen.accept(ids);
+                if (ids.isEmpty()) {
+                    inbox.unread.remove(senderId);
+                }
+            }
+            inbox.markSeenUpTo(senderId, senderId, upToId);
+        });
+        if (readerInbox != null) {
+            push(readerId, readerInbox, senderId);
+        }
+        boolean[] covered = new boolean[1];
+        UserInbox senderInbox = apply(senderId, inbox -> covered[0] = inbox.markSeenUpTo(readerId, senderId, upToId));
+        if (senderInbox != null && covered[0]) {
+            pushConversation(senderId, senderInbox, readerId);
+        }
+    }
+
+    /** Drops the user's inbox so the next read reloads it from the database. */
+    public void invalidate(Long userId) {
+        inboxes.remove(userId);
+    }
+
+    /**
+     * Applies {@code change} under the inbox's monitor when the user's inbox is loaded. A load in progress for the same
+     * user finishes first, so the change lands on the new inbox instead of being overwritten by it.
+     */
+    private UserInbox apply(Long userId, Consumer<UserInbox> change) {
+        return inboxes.computeIfPresent(userId, (id, inbox) -> {
+            synchronized (inbox) {
+                change.accept(inbox);
+            }
+            return inbox;
+        });
+    }
+
+    private void push(Long userId, UserInbox inbox, Long partnerId) {
+        Conversation conversation;
+        long total;
+        synchronized (inbox) {
+            conversation = inbox.conversation(partnerId);
+            total = inbox.totalUnread();
+        }
+        messagingTemplate.convertAndSendToUser(userId.toString(), "/queue/unread",
+                new UnreadCountEvent(partnerId, conversation.unreadCount(), total));
+        messagingTemplate.convertAndSendToUser(userId.toString(), "/queue/conversations", conversation);
+    }
+
+    private void pushConversation(Long userId, UserInbox inbox, Long partnerId) {
+        Conversation conversation;
+        synchronized (inbox) {
+            conversation = inbox.conversation(partnerId);
+        }
+        messagingTemplate.convertAndSendToUser(userId.toString(), "/queue/conversations", conversation);
+    }
+
+    private UserInbox inbox(Long userId) {
+        long now = System.currentTimeMillis();
+        UserInbox cached = inboxes.get(userId);
+        if (cached != null && now - cached.loadedAt < ttlMs) {
+            return cached;
+        }
+        if (inboxes.size() >= maxUsers) {
+            inboxes.values().removeIf(i -> now - i.loadedAt >= ttlMs);
+            if (inboxes.size() >= maxUsers) {
+                inboxes.clear();
+            }
+        }
+        return inboxes.compute(userId, (id, current) ->
+                current != null && now - current.loadedAt < ttlMs ? current : load(id, now));
+    }
+
+    private UserInbox load(Long userId, long now) {
+        UserInbox inbox = new UserInbox(now);
+        for (Object[] row : chatMessageRepository.findUnreadIdsBySender(userId, MessageStatus.SEEN)) {
+            inbox.unread.computeIfAbsent((Long) row[0], k -> new TreeSet<>()).add((Long) row[1]);
+        }
+        for (ChatMessage m : chatMessageRepository.findLatestMessagesPerConversation(userId)) {
+            Long partnerId = m.getSenderId().equals(userId) ? m.getReceiverId() : m.getSenderId();
+            inbox.last.put(partnerId, m);
+        }
+        log.debug("Loaded inbox of user {}: {} conversation(s)", userId, inbox.last.size());
+        return inbox;
+    }
+
+    /** Guarded by its own monitor. */
+    private static final class UserInbox {
+        final long loadedAt;
+        /** Unread message ids by sender; senders without unread messages are absent. */
+        final Map<Long, NavigableSet<Long>> unread = new HashMap<>();
+        final Map<Long, ChatMessage> last = new HashMap<>();
+
+        UserInbox(long loadedAt) {
+            this.loadedAt = loadedAt;
+        }
+
+        long unreadCount(Long senderId) {
+            NavigableSet<Long> ids = unread.get(senderId);
+            return ids != null ? ids.size() : 0L;
+        }
+
+        long totalUnread() {
+            return unread.values().stream().mapToLong(NavigableSet::size).sum();
+        }
+
+        /** Keeps the newer of the current last message and {@code m}: a late or repeated delta cannot move it back. */
+        void offerLast(Long partnerId, ChatMessage m) {
+            ChatMessage current = last.get(partnerId);
+            if (current == null || current.getId() < m.getId()) {
+                last.put(partnerId, m);
+            }
+        }
+
+        Conversation conversation(Long partnerId) {
+            ChatMessage m = last.get(partnerId);
+            return new Conversation(partnerId, m != null ? m.getId() : null, m != null ? m.getContent() : null,
+                    m != null ? m.getTimestamp() : null, m != null ? m.getStatus().name() : null,
+                    unreadCount(partnerId));
+        }
+
+        /** Marks the conversation's last message SEEN when it was sent by {@code senderId} and is covered by {@code upToId}. */
+        boolean markSeenUpTo(Long partnerId, Long senderId, Long upToId) {
+            ChatMessage m = last.get(partnerId);
+            if (m == null || !m.getSenderId().equals(senderId) || m.getId() > upToId
+                    || m.getStatus() == MessageStatus.SEEN) {
+                return false;
+            }
+            last.put(partnerId, ChatMessage.builder().id(m.getId()).senderId(m.getSenderId())
+                    .receiverId(m.getReceiverId()).content(m.getContent()).timestamp(m.getTimestamp())
+                    .status(MessageStatus.SEEN).build());
+            return true;
+        }
+    }
+}
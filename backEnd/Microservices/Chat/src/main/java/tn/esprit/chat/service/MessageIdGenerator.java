@@ -0,0 +1,57 @@
+package tn.esprit.chat.service;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Time-ordered message ids, assigned before the write-behind insert so the sender gets its id immediately.
+ * <p>
+ * Layout (53 bits, exact as a JavaScript number): 41 bits of milliseconds since 2024-01-01, 4 bits of worker id,
+ * 8 bits of per-millisecond sequence (256k ids/s per instance). Ids sort in send order per instance, which keyset
+ * pagination relies on, and are far above the auto-increment ids of older rows. Each instance needs its own
+ * {@code chat.message-id.worker-id} (0-15) in a multi-instance deployment; when it is not set a random worker id is
+ * picked and logged, which is only safe for a single instance.
+ */
+@Component
+@Slf4j
+public class MessageIdGenerator {
+
+    static final long EPOCH_MILLIS = 1_704_067_200_000L;
+    private static final int WORKER_BITS = 4;
+    private static final int SEQUENCE_BITS = 8;
+    private static final long MAX_SEQUENCE = (1L << SEQUENCE_BITS) - 1;
+    private static final int UNSET = -1;
+
+    private final long workerId;
+    private long lastMillis = -1L;
+    private long sequence;
+
+    public MessageIdGenerator(@Value("${chat.message-id.worker-id:" + UNSET + "}") int workerId) {
+        if (workerId == UNSET) {
+            workerId = ThreadLocalRandom.current().nextInt(1 << WORKER_BITS);
+            log.warn("chat.message-id.worker-id is not set, using random worker id {}; set a distinct id per instance "
+                    + "when several chat instances share the database", workerId);
+        } else if (workerId < 0 || workerId >= (1 << WORKER_BITS)) {
+            throw new IllegalArgumentException("chat.message-id.worker-id must be between 0 and 15");
+        }
+        this.workerId = workerId;
+    }
+
+    public synchronized long nextId() {
+        long now = Math.max(System.currentTimeMillis(), lastMillis);
+        if (now == lastMillis) {
+            sequence = (sequence + 1) & MAX_SEQUENCE;
+            if (sequence == 0) {
+                // sequence exhausted (or clock went back): borrow the next millisecond instead of spinning
+                now = lastMillis + 1;
+            }
+        } else {
+            sequence = 0;
+        }
+        lastMillis = now;
+        return ((now - EPOCH_MILLIS) << (WORKER_BITS + SEQUENCE_BITS)) | (workerId << SEQUENCE_BITS) | sequence;
+    }
+}
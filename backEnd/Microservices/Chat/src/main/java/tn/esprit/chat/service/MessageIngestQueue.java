@@ -0,0 +1,295 @@
+package tn.esprit.chat.service;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import tn.esprit.chat.entity.ChatMessage;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableSet;
+import java.util.Queue;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ConcurrentSkipListSet;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Write-behind path for chat messages: {@link #enqueue} hands the message to a bounded queue and returns, and a
+ * single writer thread drains it in batches of up to {@code chat.ingest.batch-size} through {@link ChatMessageWriter}.
+ * <p>
+ * When the queue stays full for {@code chat.ingest.offer-timeout-ms} the caller inserts synchronously instead, so a
+ * slow database throttles senders rather than dropping messages. Failed batches are retried with backoff, then row
+ * by row so one bad row cannot sink its batch. A row that still fails goes to a dead-letter list retried every
+ * {@code chat.ingest.dead-letter-retry-ms}; after {@code chat.ingest.dead-letter-retries} more failures its future
+ * completes exceptionally so both users can be told. On shutdown the queue is drained before the writer stops.
+ * <p>
+ * Retries and the synchronous fallback insert out of id order, so a committed message does not imply that older ones
+ * of the same conversation are in: {@link #awaitPersistedUpTo} tells how far a conversation is actually persisted.
+ */
+@Component
+@Slf4j
+public class MessageIngestQueue {
+
+    private final ChatMessageWriter writer;
+    private final MeterRegistry meterRegistry;
+    private final BlockingQueue<ChatMessage> queue;
+    private final int batchSize;
+    private final long offerTimeoutMs;
+    private final int maxRetries;
+    private final int deadLetterRetries;
+
+    /** Queued, in-flight or dead-lettered messages by id, completed once the row is committed (or given up on). */
+    private final Map<Long, CompletableFuture<Void>> pending = new ConcurrentHashMap<>();
+
+    /** Ids of {@link #pending} by sender and receiver; a pair leaves the map with its last pending message. */
+    private final Map<Pair, NavigableSet<Long>> pendingByPair = new ConcurrentHashMap<>();
+
+    /** Rows that failed on their own; retried by {@link #retryDeadLetters}. */
+    private final Queue<DeadLetter> deadLetters = new ConcurrentLinkedQueue<>();
+
+    private volatile boolean running;
+    private Thread worker;
+    private Timer batchTimer;
+
+    public MessageIngestQueue(ChatMessageWriter writer,
+                              MeterRegistry meterRegistry,
+                              @Value("${chat.ingest.queue-capacity:50000}") int capacity,
+                              @Value("${chat.ingest.batch-size:500}") int batchSize,
+                              @Value("${chat.ingest.offer-timeout-ms:50}") long offerTimeoutMs,
+                              @Value("${chat.ingest.max-retries:5}") int maxRetries,
+                              @Value("${chat.ingest.dead-letter-retries:3}") int deadLetterRetries) {
+        this.writer = writer;
+        this.meterRegistry = meterRegistry;
+        this.queue = new ArrayBlockingQueue<>(capacity);
+        this.batchSize = batchSize;
+        this.offerTimeoutMs = offerTimeoutMs;
+        this.maxRetries = maxRetries;
+        this.deadLetterRetries = deadLetterRetries;
+    }
+
+    @PostConstruct
+    void start() {
+        Gauge.builder("chat.ingest.queue.size", queue, BlockingQueue::size)
+                .description("Chat messages accepted but not yet inserted")
+                .register(meterRegistry);
+        Gauge.builder("chat.ingest.dead-letter.size", deadLetters, Queue::size)
+                .description("Chat messages whose insert failed and is being retried")
+                .register(meterRegistry);
+        batchTimer = Timer.builder("chat.ingest.batch")
+                .description("Chat message batch insert")
+                .publishPercentiles(0.5, 0.99)
+                .register(meterRegistry);
+        running = true;
+        worker = new Thread(this::drainLoop, "chat-ingest");
+        worker.setDaemon(true);
+        worker.start();
+    }
+
+    @PreDestroy
+    void stop() throws InterruptedException {
+        running = false;
+        worker.join(TimeUnit.SECONDS.toMillis(10));
+        if (!queue.isEmpty() || !deadLetters.isEmpty()) {
+            log.warn("Chat ingest stopped with {} message(s) not inserted", queue.size() + deadLetters.size());
+        }
+    }
+
+    /**
+     * Accepts the message for insertion; falls back to a synchronous insert when the queue stays full.
+     *
+     * @return completes once the row is committed, or exceptionally when the insert was given up on
+     */
+    public CompletableFuture<Void> enqueue(ChatMessage message) {
+        CompletableFuture<Void> future = new CompletableFuture<>();
+        pending.put(message.getId(), future);
+        pendingByPair.compute(Pair.of(message), (k, ids) -> {
+            NavigableSet<Long> set = ids != null ? ids : new ConcurrentSkipListSet<>();
+            set.add(message.getId());
+            return set;
+        });
+        boolean queued;
+        try {
+            queued = running && queue.offer(message, offerTimeoutMs, TimeUnit.MILLISECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            queued = false;
+        }
+        if (!queued) {
+            log.warn("Chat ingest queue full; inserting message {} synchronously", message.getId());
+            try {
+                writer.insertAll(List.of(message));
+            } catch (RuntimeException e) {
+                fail(message, e);
+                throw e;
+            }
+            complete(message);
+        }
+        return future;
+    }
+
+    /** Whether the message was accepted but its insert has not completed yet. */
+    public boolean isPending(Long messageId) {
+        return messageId != null && pending.containsKey(messageId);
+    }
+
+    /** Waits until the message's insert has completed (or been given up on); returns false on timeout. */
+    public boolean awaitPersisted(Long messageId, long timeoutMs) {
+        CompletableFuture<Void> future = messageId != null ? pending.get(messageId) : null;
+        if (future == null) {
+            return true;
+        }
+        try {
+            future.get(timeoutMs, TimeUnit.MILLISECONDS);
+            return true;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        } catch (Exception e) {
+            return false;
+        }
+    }
+
+    /**
+     * Waits, at most {@code timeoutMs} in total, for the messages from {@code senderId} to {@code receiverId} with an id
+     * up to {@code upToId} that are still queued, in flight or dead-lettered.
+     *
+     * @return {@code upToId} when all of them are persisted (or given up on), otherwise the id just below the first
+     * one still missing
+     */
+    public long awaitPersistedUpTo(Long senderId, Long receiverId, long upToId, long timeoutMs) {
+        NavigableSet<Long> ids = pendingByPair.get(new Pair(senderId, receiverId));
+        if (ids == null) {
+            return upToId;
+        }
+        long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(timeoutMs);
+        for (Long id : ids.headSet(upToId, true)) {
+            awaitPersisted(id, Math.max(0L, TimeUnit.NANOSECONDS.toMillis(deadline - System.nanoTime())));
+            if (isPending(id)) {
+                return id - 1;
+            }
+        }
+        return upToId;
+    }
+
+    public int size() {
+        return queue.size();
+    }
+
+    private void drainLoop() {
+        while (running || !queue.isEmpty()) {
+            try {
+                ChatMessage first = queue.poll(100, TimeUnit.MILLISECONDS);
+                if (first == null) {
+                    continue;
+                }
+                List<ChatMessage> batch = new ArrayList<>(batchSize);
+                batch.add(first);
+                queue.drainTo(batch, batchSize - 1);
+                write(batch);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            } catch (Exception e) {
+                log.error("Chat ingest loop error: {}", e.getMessage(), e);
+            }
+        }
+    }
+
+    void write(List<ChatMessage> batch) throws InterruptedException {
+        for (int attempt = 0; ; attempt++) {
+            try {
+                batchTimer.record(() -> writer.insertAll(batch));
+                batch.forEach(this::complete);
+                return;
+            } catch (Exception e) {
+                if (attempt >= maxRetries) {
+                    log.error("Chat batch of {} failed after {} retries, inserting row by row: {}",
+                            batch.size(), maxRetries, e.getMessage());
+                    break;
+                }
+                Thread.sleep(100L << attempt);
+            }
+        }
+        for (ChatMessage message : batch) {
+            try {
+                writer.insertAll(List.of(message));
+                complete(message);
+            } catch (Exception e) {
+                log.warn("Chat message {} from {} to {} failed, dead-lettered for retry: {}",
+                        message.getId(), message.getSenderId(), message.getReceiverId(), e.getMessage());
+                deadLetters.add(new DeadLetter(message, 0));
+            }
+        }
+    }
+
+    /** Retries each dead-lettered row once; gives up on rows that failed {@code chat.ingest.dead-letter-retries} times. */
+    @Scheduled(fixedDelayString = "${chat.ingest.dead-letter-retry-ms:30000}")
+    void retryDeadLetters() {
+        for (int n = deadLetters.size(); n > 0; n--) {
+            DeadLetter letter = deadLetters.poll();
+            if (letter == null) {
+                return;
+            }
+            try {
+                writer.insertAll(List.of(letter.message()));
+                complete(letter.message());
+            } catch (Exception e) {
+                if (letter.attempts() + 1 < deadLetterRetries) {
+                    deadLetters.add(new DeadLetter(letter.message(), letter.attempts() + 1));
+                } else {
+                    ChatMessage m = letter.message();
+                    log.error("Giving up on chat message {} from {} to {} after {} dead-letter retries: {}",
+                            m.getId(), m.getSenderId(), m.getReceiverId(), deadLetterRetries, e.getMessage());
+                    fail(m, e);
+                }
+            }
+        }
+    }
+
+    int deadLetterCount() {
+        return deadLetters.size();
+    }
+
+    private void complete(ChatMessage message) {
+        CompletableFuture<Void> future = release(message);
+        if (future != null) {
+            future.complete(null);
+        }
+    }
+
+    private void fail(ChatMessage message, Exception cause) {
+        CompletableFuture<Void> future = release(message);
+        if (future != null) {
+            future.completeExceptionally(cause);
+        }
+    }
+
+    private CompletableFuture<Void> release(ChatMessage message) {
+        pendingByPair.computeIfPresent(Pair.of(message), (k, ids) -> {
+            ids.remove(message.getId());
+            return ids.isEmpty() ? null : ids;
+        });
+        return pending.remove(message.getId());
+    }
+
+    private record DeadLetter(ChatMessage message, int attempts) {
+    }
+
+    private record Pair(Long senderId, Long receiverId) {
+
+        static Pair of(ChatMessage message) {
+            return new Pair(message.getSenderId(), message.getReceiverId());
+        }
+    }
+}
@@ -0,0 +1,27 @@
+package tn.esprit.chat.service;
+
+import java.util.Collection;
+import java.util.Set;
+
+/**
+ * Where chat instances record which users they hold a STOMP session for. Entries are kept alive by each instance's
+ * heartbeat and expire when it stops, so a crashed instance does not leave its users online.
+ * <p>
+ * {@code chat.presence.store=memory} (default, single instance, tests) or {@code database} (shared by all instances).
+ */
+public interface PresenceStore {
+
+    void connected(Long userId, String instanceId, long now);
+
+    void disconnected(Long userId, String instanceId);
+
+    /** Refreshes the instance's entries and re-registers any of {@code userIds} that expired meanwhile. */
+    void heartbeat(Collection<Long> userIds, String instanceId, long now);
+
+    /** Removes entries not refreshed since {@code cutoff}; returns their user ids. */
+    Set<Long> expire(long cutoff);
+
+    boolean isOnline(Long userId, long since);
+
+    Set<Long> onlineUsers(long since);
+}
@@ -0,0 +1,90 @@
+package tn.esprit.chat.service;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.messaging.simp.SimpMessagingTemplate;
+import org.springframework.stereotype.Component;
+import tn.esprit.chat.dto.ReadReceipt;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Debounces "seen up to" receipts per conversation: receipts arriving within {@code chat.seen.debounce-ms} collapse
+ * into the highest message id, which is applied with one update and answered with one {@link ReadReceipt} on the
+ * sender's {@code /user/queue/read-receipts}.
+ */
+@Component
+@Slf4j
+public class ReadReceiptBatcher {
+
+    private record Key(Long readerId, Long senderId) {
+    }
+
+    private final IChatService chatService;
+    private final SimpMessagingTemplate messagingTemplate;
+    private final long debounceMs;
+
+    private final Map<Key, Long> pending = new ConcurrentHashMap<>();
+    private ScheduledExecutorService scheduler;
+
+    public ReadReceiptBatcher(IChatService chatService,
+                              SimpMessagingTemplate messagingTemplate,
+                              @Value("${chat.seen.debounce-ms:300}") long debounceMs) {
+        this.chatService = chatService;
+        this.messagingTemplate = messagingTemplate;
+        this.debounceMs = debounceMs;
+    }
+
+    @PostConstruct
+    void start() {
+        scheduler = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread t = new Thread(r, "chat-read-receipts");
+            t.setDaemon(true);
+            return t;
+        });
+    }
+
+    @PreDestroy
+    void stop() {
+        scheduler.shutdownNow();
+        pending.keySet().forEach(this::flush);
+    }
+
+    /** Records that {@code readerId} has seen {@code senderId}'s messages up to {@code upToMessageId}. */
+    public void submit(Long readerId, Long senderId, Long upToMessageId) {
+        Key key = new Key(readerId, senderId);
+        boolean[] first = new boolean[1];
+        pending.compute(key, (k, current) -> {
+            if (current == null) {
+                first[0] = true;
+                return upToMessageId;
+            }
+            return Math.max(current, upToMessageId);
+        });
+        if (first[0]) {
+            scheduler.schedule(() -> flush(key), debounceMs, TimeUnit.MILLISECONDS);
+        }
+    }
+
+    private void flush(Key key) {
+        Long upTo = pending.remove(key);
+        if (upTo == null) {
+            return;
+        }
+        try {
+            ReadReceipt receipt = chatService.markConversationSeen(key.readerId(), key.senderId(), upTo);
+            if (receipt.getCount() > 0) {
+                messagingTemplate.convertAndSendToUser(key.senderId().toString(), "/queue/read-receipts", receipt);
+            }
+        } catch (Exception e) {
+            log.error("Read receipt of user {} for {} up to {} failed: {}",
+                    key.readerId(), key.senderId(), upTo, e.getMessage(), e);
+        }
+    }
+}
@@ -0,0 +1,262 @@
+package tn.esprit.chat.service;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import tn.esprit.chat.entity.CachedTranslation;
+import tn.esprit.chat.repository.CachedTranslationRepository;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.HexFormat;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Function;
+
+/**
+ * Translation results keyed by (hash of the whitespace-normalized text, source, target).
+ * <p>
+ * Lookups go to a bounded in-memory LRU tier ({@code chat.translation.cache.max-entries}, entries expire after
+ * {@code chat.translation.cache.ttl-ms}), then to the {@code translation_cache} table when
+ * {@code chat.translation.cache.persistent} is on. Misses are sent upstream in one call per request, and a text
+ * already being translated for another request is awaited instead of translated twice. Results equal to the input
+ * are not cached: that is what the providers' fallback returns on failure.
+ */
+@Component
+@Slf4j
+public class TranslationCache {
+
+    record Key(String hash, String source, String target) {
+        String id() {
+            return hash + ":" + source + ":" + target;
+        }
+    }
+
+    private record Entry(String translated, long expiresAt) {
+    }
+
+    private final CachedTranslationRepository repository;
+    private final int maxEntries;
+    private final long ttlMs;
+    private final boolean persistent;
+    private final long persistentTtlMs;
+
+    private final Map<Key, Entry> memory;
+    private final Map<Key, CompletableFuture<String>> inFlight = new ConcurrentHashMap<>();
+
+    private final Counter memoryHits;
+    private final Counter storeHits;
+    private final Counter misses;
+    private final Counter coalesced;
+    private final Timer upstream;
+
+    public TranslationCache(MeterRegistry meterRegistry,
+                            CachedTranslationRepository repository,
+                            @Value("${chat.translation.cache.max-entries:10000}") int maxEntries,
+                            @Value("${chat.translation.cache.ttl-ms:86400000}") long ttlMs,
+                            @Value("${chat.translation.cache.persistent:false}") boolean persistent,
+                            @Value("${chat.translation.cache.persistent-ttl-ms:2592000000}") long persistentTtlMs) {
+        this.repository = repository;
+        this.maxEntries = maxEntries;
+        this.ttlMs = ttlMs;
+        this.persistent = persistent;
+        this.persistentTtlMs = persistentTtlMs;
+        this.memory = new LinkedHashMap<>(256, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Key, Entry> eldest) {
+                return size() > TranslationCache.this.maxEntries;
+            }
+        };
+        memoryHits = Counter.builder("translation.cache.requests").tag("result", "hit").tag("tier", "memory")
+                .register(meterRegistry);
+        storeHits = Counter.builder("translation.cache.requests").tag("result", "hit").tag("tier", "store")
+                .register(meterRegistry);
+        misses = Counter.builder("translation.cache.requests").tag("result", "miss").tag("tier", "none")
+                .register(meterRegistry);
+        coalesced = Counter.builder("translation.cache.coalesced")
+                .description("Misses that waited for an identical in-flight translation")
+                .register(meterRegistry);
+        upstream = Timer.builder("translation.upstream")
+                .description("Calls to the external translation providers")
+                .publishPercentiles(0.5, 0.99)
+                .register(meterRegistry);
+        Gauge.builder("translation.cache.size", this, TranslationCache::size).register(meterRegistry);
+    }
+
+    /** Single text; {@code translator} is only called on a miss. */
+    public String translate(String text, String source, String target, Function<String, String> translator) {
+        return translateAll(List.of(text), source, target,
+                texts -> texts.stream().map(translator).toList()).get(0);
+    }
+
+    /**
+     * Several texts, same order as given. Blank texts are returned as is; the misses go to {@code translator} in
+     * one call, which must return their translations in the same order.
+     */
+    public List<String> translateAll(List<String> texts, String source, String target,
+                                     Function<List<String>, List<String>> translator) {
+        String[] result = new String[texts.size()];
+        Map<Key, List<Integer>> missing = new LinkedHashMap<>();
+        Map<Key, String> missingText = new HashMap<>();
+        for (int i = 0; i < texts.size(); i++) {
+            String text = texts.get(i);
+            if (text == null || text.isBlank()) {
+                result[i] = text;
+                continue;
+            }
+            Key key = key(text, source, target);
+            String cached = fromMemory(key);
+            if (cached != null) {
+                result[i] = cached;
+            } else {
+                missing.computeIfAbsent(key, k -> new ArrayList<>()).add(i);
+                missingText.putIfAbsent(key, text);
+            }
+        }
+        if (missing.isEmpty()) {
+            return Arrays.asList(result);
+        }
+        loadFromStore(missing, missingText, result);
+
+        Map<Key, CompletableFuture<String>> owned = new LinkedHashMap<>();
+        Map<Key, CompletableFuture<String>> awaited = new HashMap<>();
+        for (Key key : missing.keySet()) {
+            CompletableFuture<String> mine = new CompletableFuture<>();
+            CompletableFuture<String> other = inFlight.putIfAbsent(key, mine);
+            if (other == null) {
+                owned.put(key, mine);
+            } else {
+                awaited.put(key, other);
+                coalesced.increment();
+            }
+        }
+        if (!owned.isEmpty()) {
+            callUpstream(owned, missingText, source, target, translator);
+        }
+        for (Map.Entry<Key, List<Integer>> e : missing.entrySet()) {
+            CompletableFuture<String> future = owned.containsKey(e.getKey()) ? owned.get(e.getKey()) : awaited.get(e.getKey());
+            String translated = join(future);
+            e.getValue().forEach(i -> result[i] = translated);
+        }
+        return Arrays.asList(result);
+    }
+
+    public int size() {
+        synchronized (memory) {
+            return memory.size();
+        }
+    }
+
+    private void callUpstream(Map<Key, CompletableFuture<String>> owned, Map<Key, String> missingText,
+                              String source, String target, Function<List<String>, List<String>> translator) {
+        List<Key> keys = new ArrayList<>(owned.keySet());
+        List<String> originals = keys.stream().map(missingText::get).toList();
+        misses.increment(keys.size());
+        try {
+            List<String> translated = upstream.record(() -> translator.apply(originals));
+            for (int j = 0; j < keys.size(); j++) {
+                String original = originals.get(j);
+                String t = translated != null && j < translated.size() && translated.get(j) != null
+                        ? translated.get(j) : original;
+                if (!t.equals(original)) {
+                    put(keys.get(j), t);
+                }
+                owned.get(keys.get(j)).complete(t);
+            }
+        } catch (RuntimeException e) {
+            owned.values().forEach(f -> f.completeExceptionally(e));
+            throw e;
+        } finally {
+            owned.forEach(inFlight::remove);
+        }
+    }
+
+    private String fromMemory(Key key) {
+        synchronized (memory) {
+            Entry entry = memory.get(key);
+            if (entry == null) {
+                return null;
+            }
+            if (entry.expiresAt() < System.currentTimeMillis()) {
+                memory.remove(key);
+                return null;
+            }
+            memoryHits.increment();
+            return entry.translated();
+        }
+    }
+
+    /** Fills {@code result} from the persistent tier and removes what was found from {@code missing}. */
+    private void loadFromStore(Map<Key, List<Integer>> missing, Map<Key, String> missingText, String[] result) {
+        if (!persistent) {
+            return;
+        }
+        Map<String, Key> byId = new HashMap<>();
+        missing.keySet().forEach(k -> byId.put(k.id(), k));
+        long freshAfter = System.currentTimeMillis() - persistentTtlMs;
+        try {
+            for (CachedTranslation row : repository.findAllById(byId.keySet())) {
+                Key key = byId.get(row.getId());
+                if (key == null || row.getCreatedAt() < freshAfter) {
+                    continue;
+                }
+                storeHits.increment();
+                remember(key, row.getTranslated());
+                missing.remove(key).forEach(i -> result[i] = row.getTranslated());
+                missingText.remove(key);
+            }
+        } catch (Exception e) {
+            log.warn("Translation cache store lookup failed: {}", e.getMessage());
+        }
+    }
+
+    private void put(Key key, String translated) {
+        remember(key, translated);
+        if (persistent) {
+            try {
+                repository.save(new CachedTranslation(key.id(), translated, System.currentTimeMillis()));
+            } catch (Exception e) {
+                log.warn("Translation cache store write failed: {}", e.getMessage());
+            }
+        }
+    }
+
+    private void remember(Key key, String translated) {
+        synchronized (memory) {
+            memory.put(key, new Entry(translated, System.currentTimeMillis() + ttlMs));
+        }
+    }
+
+    private static String join(CompletableFuture<String> future) {
+        try {
+            return future.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw e;
+        }
+    }
+
+    static Key key(String text, String source, String target) {
+        String normalized = text.strip().replaceAll("\\s+", " ");
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256").digest(normalized.getBytes(StandardCharsets.UTF_8));
+            return new Key(HexFormat.of().formatHex(digest), source, target);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
@@ -19,6 +19,7 @@ import java.util.Map;
 /**
  * Chat translation via free APIs (no keys). MyMemory + Lingva fallback.
  * MyMemory often returns error prose inside {@code translatedText}; we detect that and never show it in the UI.
+ * Results go through {@link TranslationCache}, so a repeated phrase is only translated once.
  */
 @Service
 @Slf4j
@@ -41,6 +42,7 @@ public class TranslationService {
     );
 
     private final ObjectMapper objectMapper;
+    private final TranslationCache translationCache;
     private final RestTemplate restTemplate = new RestTemplate();
 
     public String translate(String text, String targetLang, String sourceLang) {
@@ -49,6 +51,11 @@ public class TranslationService {
         }
 
         String targetNorm = normalizeUiLangCode(targetLang);
+        String sourceNorm = sourceLang == null || sourceLang.isBlank() ? "auto" : sourceLang.trim().toLowerCase(Locale.ROOT);
+        return translationCache.translate(text, sourceNorm, targetNorm, t -> translateUncached(t, targetNorm, sourceLang));
+    }
+
+    private String translateUncached(String text, String targetNorm, String sourceLang) {
         String mySrc = mapMyMemorySource(sourceLang);
         String myTgt = mapMyMemoryTarget(targetNorm);
 
@@ -1,63 +1,148 @@
 package tn.esprit.chat.service;
 
-import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.event.EventListener;
 import org.springframework.messaging.simp.SimpMessagingTemplate;
 import org.springframework.messaging.simp.stomp.StompHeaderAccessor;
+import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Service;
 import org.springframework.web.socket.messaging.SessionConnectEvent;
 import org.springframework.web.socket.messaging.SessionDisconnectEvent;
 import tn.esprit.chat.dto.UserStatusEvent;
 
+import java.util.ArrayList;
 import java.util.Collections;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
 import java.util.Set;
 import java.util.concurrent.ConcurrentHashMap;
 
+/**
+ * Online presence across chat instances.
+ * <p>
+ * Each instance counts its own STOMP sessions per user and registers the user in the {@link PresenceStore} on the
+ * first one. A heartbeat every {@code chat.presence.heartbeat-ms} refreshes those entries and expires entries older
+ * than {@code chat.presence.ttl-ms}, so users of an instance that died go offline without a disconnect event.
+ * Status changes are coalesced per user and broadcast on {@code /topic/user-status} as one list every
+ * {@code chat.presence.broadcast-ms}, which keeps a reconnect storm from flooding every client.
+ */
 @Service
-@RequiredArgsConstructor
 @Slf4j
 public class UserStatusService {
 
+    private static final String ONLINE = "ONLINE";
+    private static final String OFFLINE = "OFFLINE";
+
     private final SimpMessagingTemplate messagingTemplate;
+    private final PresenceStore presenceStore;
+    private final String instanceId;
+    private final long ttlMs;
+
+    /** Open sessions on this instance per user (several tabs / devices). */
+    private final Map<Long, Integer> localSessions = new ConcurrentHashMap<>();
+    /** Users online on any instance, as of the last heartbeat plus local changes since. */
+    private volatile Set<Long> clusterOnline = ConcurrentHashMap.newKeySet();
+    /** Latest status per user not broadcast yet. */
+    private final Map<Long, String> pendingStatus = Collections.synchronizedMap(new LinkedHashMap<>());
 
-    private final Set<Long> onlineUsers = ConcurrentHashMap.newKeySet();
+    public UserStatusService(SimpMessagingTemplate messagingTemplate,
+                             PresenceStore presenceStore,
+                             @Value("${chat.instance-id:${random.uuid}}") String instanceId,
+                             @Value("${chat.presence.ttl-ms:30000}") long ttlMs) {
+        this.messagingTemplate = messagingTemplate;
+        this.presenceStore = presenceStore;
+        this.instanceId = instanceId;
+        this.ttlMs = ttlMs;
+    }
 
     @EventListener
     public void handleSessionConnect(SessionConnectEvent event) {
-        StompHeaderAccessor accessor = StompHeaderAccessor.wrap(event.getMessage());
-        try {
-            if (accessor.getUser() != null) {
-                Long userId = Long.parseLong(accessor.getUser().getName());
-                onlineUsers.add(userId);
-                log.debug("User {} connected", userId);
-                messagingTemplate.convertAndSend("/topic/user-status", new UserStatusEvent(userId, "ONLINE"));
+        Long userId = userId(StompHeaderAccessor.wrap(event.getMessage()), "connect");
+        if (userId == null) {
+            return;
+        }
+        if (localSessions.merge(userId, 1, Integer::sum) == 1) {
+            presenceStore.connected(userId, instanceId, System.currentTimeMillis());
+            if (clusterOnline.add(userId)) {
+                queueStatus(userId, ONLINE);
             }
-        } catch (NumberFormatException e) {
-            log.warn("Could not parse userId from principal during connect: {}", e.getMessage());
         }
+        log.debug("User {} connected", userId);
     }
 
     @EventListener
     public void handleSessionDisconnect(SessionDisconnectEvent event) {
-        StompHeaderAccessor accessor = StompHeaderAccessor.wrap(event.getMessage());
-        try {
-            if (accessor.getUser() != null) {
-                Long userId = Long.parseLong(accessor.getUser().getName());
-                onlineUsers.remove(userId);
-                log.debug("User {} disconnected", userId);
-                messagingTemplate.convertAndSend("/topic/user-status", new UserStatusEvent(userId, "OFFLINE"));
+        Long userId = userId(StompHeaderAccessor.wrap(event.getMessage()), "disconnect");
+        if (userId == null) {
+            return;
+        }
+        if (localSessions.computeIfPresent(userId, (k, n) -> n > 1 ? n - 1 : null) == null) {
+            presenceStore.disconnected(userId, instanceId);
+            // still connected to another instance?
+            if (!presenceStore.isOnline(userId, System.currentTimeMillis() - ttlMs)) {
+                clusterOnline.remove(userId);
+                queueStatus(userId, OFFLINE);
+            }
+        }
+        log.debug("User {} disconnected", userId);
+    }
+
+    @Scheduled(fixedDelayString = "${chat.presence.heartbeat-ms:10000}")
+    public void heartbeat() {
+        long now = System.currentTimeMillis();
+        presenceStore.heartbeat(localSessions.keySet(), instanceId, now);
+        Set<Long> expired = presenceStore.expire(now - ttlMs);
+        Set<Long> online = ConcurrentHashMap.newKeySet();
+        online.addAll(presenceStore.onlineUsers(now - ttlMs));
+        online.addAll(localSessions.keySet());
+        for (Long userId : expired) {
+            if (!online.contains(userId)) {
+                queueStatus(userId, OFFLINE);
             }
-        } catch (NumberFormatException e) {
-            log.warn("Could not parse userId from principal during disconnect: {}", e.getMessage());
         }
+        clusterOnline = online;
+    }
+
+    @Scheduled(fixedDelayString = "${chat.presence.broadcast-ms:1000}")
+    public void flushStatusChanges() {
+        List<UserStatusEvent> batch;
+        synchronized (pendingStatus) {
+            if (pendingStatus.isEmpty()) {
+                return;
+            }
+            batch = new ArrayList<>(pendingStatus.size());
+            pendingStatus.forEach((userId, status) -> batch.add(new UserStatusEvent(userId, status)));
+            pendingStatus.clear();
+        }
+        messagingTemplate.convertAndSend("/topic/user-status", batch);
     }
 
     public boolean isOnline(Long userId) {
-        return onlineUsers.contains(userId);
+        return localSessions.containsKey(userId) || clusterOnline.contains(userId);
     }
 
     public Set<Long> getOnlineUsers() {
-        return Collections.unmodifiableSet(onlineUsers);
+        Set<Long> online = new HashSet<>(clusterOnline);
+        online.addAll(localSessions.keySet());
+        return Collections.unmodifiableSet(online);
+    }
+
+    private void queueStatus(Long userId, String status) {
+        pendingStatus.put(userId, status);
+    }
+
+    private Long userId(StompHeaderAccessor accessor, String phase) {
+        if (accessor.getUser() == null) {
+            return null;
+        }
+        try {
+            return Long.parseLong(accessor.getUser().getName());
+        } catch (NumberFormatException e) {
+            log.warn("Could not parse userId from principal during {}: {}", phase, e.getMessage());
+            return null;
+        }
     }
 }
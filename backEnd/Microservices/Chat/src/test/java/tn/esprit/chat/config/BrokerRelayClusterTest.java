@@ -0,0 +1,172 @@
+package tn.esprit.chat.config;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.autoconfigure.ImportAutoConfiguration;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.boot.tomcat.autoconfigure.servlet.TomcatServletWebServerAutoConfiguration;
+import org.springframework.boot.web.server.context.WebServerApplicationContext;
+import org.springframework.boot.webmvc.autoconfigure.DispatcherServletAutoConfiguration;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Import;
+import org.springframework.messaging.simp.SimpMessagingTemplate;
+import org.springframework.messaging.simp.stomp.StompFrameHandler;
+import org.springframework.messaging.simp.stomp.StompHeaders;
+import org.springframework.messaging.simp.stomp.StompSession;
+import org.springframework.messaging.simp.stomp.StompSessionHandlerAdapter;
+import org.springframework.web.socket.WebSocketHttpHeaders;
+import org.springframework.web.socket.client.standard.StandardWebSocketClient;
+import org.springframework.web.socket.messaging.WebSocketStompClient;
+import tn.esprit.chat.service.InMemoryPresenceStore;
+import tn.esprit.chat.service.PresenceStore;
+import tn.esprit.chat.service.UserStatusService;
+
+import java.lang.reflect.Type;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.function.BooleanSupplier;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Two chat instances in relay mode on embedded Tomcat, both relaying to one {@link StompBrokerStandIn} and sharing
+ * one presence store the way the database store is shared: a user destination sent on one instance must reach the
+ * session held by the other, and both must agree on who is online.
+ */
+class BrokerRelayClusterTest {
+
+    private StompBrokerStandIn broker;
+    private PresenceStore sharedPresence;
+    private ConfigurableApplicationContext instanceA;
+    private ConfigurableApplicationContext instanceB;
+    private final List<StompSession> sessions = new ArrayList<>();
+
+    @BeforeEach
+    void startCluster() throws Exception {
+        broker = new StompBrokerStandIn();
+        sharedPresence = new InMemoryPresenceStore();
+        instanceA = startInstance("a");
+        instanceB = startInstance("b");
+        // each relay's system session subscribes to the unresolved-user broadcast once it is connected
+        awaitTrue(() -> broker.subscriptionCount("/topic/unresolved-user"::equals) == 2);
+    }
+
+    @AfterEach
+    void stopCluster() throws Exception {
+        sessions.forEach(StompSession::disconnect);
+        for (ConfigurableApplicationContext instance : new ConfigurableApplicationContext[]{instanceA, instanceB}) {
+            if (instance != null) {
+                instance.close();
+            }
+        }
+        broker.close();
+    }
+
+    @Test
+    void userDestinationSentOnOneInstanceReachesTheSessionOnTheOther() throws Exception {
+        StompSession bob = connect(instanceB, 42L);
+        BlockingQueue<String> inbox = subscribe(bob, "/user/queue/messages");
+        awaitTrue(() -> broker.subscriptionCount(d -> d.startsWith("/queue/messages-user")) == 1);
+
+        instanceA.getBean(SimpMessagingTemplate.class)
+                .convertAndSendToUser("42", "/queue/messages", Map.of("content", "hello from a"));
+
+        assertThat(inbox.poll(10, TimeUnit.SECONDS)).contains("hello from a");
+    }
+
+    @Test
+    void presenceAgreesAcrossInstances() throws Exception {
+        StompSession alice = connect(instanceA, 7L);
+        BlockingQueue<String> statusFeed = subscribe(alice, "/topic/user-status");
+        awaitTrue(() -> broker.subscriptionCount("/topic/user-status"::equals) == 1);
+        UserStatusService statusA = instanceA.getBean(UserStatusService.class);
+        UserStatusService statusB = instanceB.getBean(UserStatusService.class);
+
+        StompSession bob = connect(instanceB, 42L);
+        awaitTrue(() -> statusB.isOnline(42L));
+        statusA.heartbeat();
+        statusB.heartbeat();
+
+        assertThat(statusA.isOnline(42L)).isTrue();
+        assertThat(statusA.getOnlineUsers()).containsExactlyInAnyOrder(7L, 42L)
+                .isEqualTo(statusB.getOnlineUsers());
+        // b's status batch goes through the broker to the client connected to a
+        statusB.flushStatusChanges();
+        assertThat(statusFeed.poll(10, TimeUnit.SECONDS)).contains("42").contains("ONLINE");
+
+        sessions.remove(bob);
+        bob.disconnect();
+        awaitTrue(() -> !statusB.isOnline(42L));
+        statusA.heartbeat();
+
+        assertThat(statusA.isOnline(42L)).isFalse();
+        assertThat(statusA.getOnlineUsers()).containsExactly(7L).isEqualTo(statusB.getOnlineUsers());
+    }
+
+    private ConfigurableApplicationContext startInstance(String instanceId) {
+        return new SpringApplicationBuilder(ChatInstance.class)
+                .web(WebApplicationType.SERVLET)
+                .initializers(context -> context.getBeanFactory().registerSingleton("presenceStore", sharedPresence))
+                .profiles("test")
+                .run("--server.port=0",
+                        "--spring.main.banner-mode=off",
+                        "--spring.cloud.config.enabled=false",
+                        "--chat.instance-id=" + instanceId,
+                        "--chat.broker.mode=relay",
+                        "--chat.broker.relay.host=127.0.0.1",
+                        "--chat.broker.relay.port=" + broker.port());
+    }
+
+    private StompSession connect(ConfigurableApplicationContext instance, Long userId) throws Exception {
+        int port = ((WebServerApplicationContext) instance).getWebServer().getPort();
+        WebSocketStompClient client = new WebSocketStompClient(new StandardWebSocketClient());
+        client.setDefaultHeartbeat(new long[]{0, 0});
+        StompHeaders connectHeaders = new StompHeaders();
+        connectHeaders.add("X-User-Id", String.valueOf(userId));
+        StompSession session = client.connectAsync("ws://127.0.0.1:" + port + "/ws/websocket",
+                        new WebSocketHttpHeaders(), connectHeaders, new StompSessionHandlerAdapter() {
+                        })
+                .get(10, TimeUnit.SECONDS);
+        sessions.add(session);
+        return session;
+    }
+
+    private static BlockingQueue<String> subscribe(StompSession session, String destination) {
+        BlockingQueue<String> received = new LinkedBlockingQueue<>();
+        session.subscribe(destination, new StompFrameHandler() {
+            @Override
+            public Type getPayloadType(StompHeaders headers) {
+                return byte[].class;
+            }
+
+            @Override
+            public void handleFrame(StompHeaders headers, Object payload) {
+                received.add(new String((byte[]) payload, StandardCharsets.UTF_8));
+            }
+        });
+        return received;
+    }
+
+    private static void awaitTrue(BooleanSupplier condition) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + 10_000;
+        while (!condition.getAsBoolean()) {
+            assertThat(System.currentTimeMillis()).as("condition not met within 10s").isLessThan(deadline);
+            Thread.sleep(20);
+        }
+    }
+
+    /** One chat node: the STOMP endpoint, broker relay and presence, nothing else. */
+    @Configuration(proxyBeanMethods = false)
+    @ImportAutoConfiguration({TomcatServletWebServerAutoConfiguration.class, DispatcherServletAutoConfiguration.class})
+    @Import({WebSocketConfig.class, WebSocketAuthInterceptor.class, UserStatusService.class})
+    static class ChatInstance {
+    }
+}
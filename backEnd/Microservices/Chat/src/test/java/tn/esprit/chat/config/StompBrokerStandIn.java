@@ -0,0 +1,221 @@
+package tn.esprit.chat.config;
+
+import java.io.BufferedInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.InetAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.nio.charset.StandardCharsets;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Predicate;
+
+/**
+ * Just enough of a STOMP 1.2 broker to stand in for RabbitMQ in relay tests: CONNECT, SUBSCRIBE, UNSUBSCRIBE, SEND
+ * (fanned out to every subscription of the destination, extra headers passed through), DISCONNECT and receipts.
+ * Heart-beats are declined; acknowledgements and transactions are not supported.
+ */
+final class StompBrokerStandIn implements AutoCloseable {
+
+    private static final Set<String> NOT_FORWARDED = Set.of("destination", "content-length", "receipt", "transaction");
+
+    private final ServerSocket server;
+    private final List<Connection> connections = new CopyOnWriteArrayList<>();
+    private final List<Subscription> subscriptions = new CopyOnWriteArrayList<>();
+    private final AtomicLong messageIds = new AtomicLong();
+
+    StompBrokerStandIn() throws IOException {
+        server = new ServerSocket(0, 50, InetAddress.getLoopbackAddress());
+        Thread acceptor = new Thread(this::acceptLoop, "stomp-stand-in");
+        acceptor.setDaemon(true);
+        acceptor.start();
+    }
+
+    int port() {
+        return server.getLocalPort();
+    }
+
+    /** Subscriptions, over all connections, whose destination matches. */
+    long subscriptionCount(Predicate<String> destination) {
+        return subscriptions.stream().filter(s -> destination.test(s.destination())).count();
+    }
+
+    @Override
+    public void close() throws IOException {
+        server.close();
+        for (Connection connection : connections) {
+            connection.close();
+        }
+    }
+
+    private void acceptLoop() {
+        while (!server.isClosed()) {
+            try {
+                Connection connection = new Connection(server.accept());
+                connections.add(connection);
+                Thread reader = new Thread(connection::readLoop, "stomp-stand-in-connection");
+                reader.setDaemon(true);
+                reader.start();
+            } catch (IOException e) {
+                return;
+            }
+        }
+    }
+
+    private record Frame(String command, Map<String, String> headers, byte[] body) {
+    }
+
+    private record Subscription(Connection connection, String id, String destination) {
+    }
+
+    private final class Connection {
+
+        private final Socket socket;
+        private final InputStream in;
+        private final OutputStream out;
+
+        Connection(Socket socket) throws IOException {
+            this.socket = socket;
+            this.in = new BufferedInputStream(socket.getInputStream());
+            this.out = socket.getOutputStream();
+        }
+
+        void readLoop() {
+            try {
+                Frame frame;
+                while ((frame = read()) != null) {
+                    if (!handle(frame)) {
+                        break;
+                    }
+                }
+            } catch (IOException e) {
+                // connection dropped
+            } finally {
+                close();
+            }
+        }
+
+        /** @return false once the client disconnected */
+        private boolean handle(Frame frame) throws IOException {
+            Map<String, String> headers = frame.headers();
+            switch (frame.command()) {
+                case "CONNECT", "STOMP" -> write("CONNECTED", Map.of("version", "1.2", "heart-beat", "0,0"), new byte[0]);
+                case "SUBSCRIBE" -> subscriptions.add(new Subscription(this, headers.get("id"), headers.get("destination")));
+                case "UNSUBSCRIBE" -> subscriptions.removeIf(s -> s.connection() == this && s.id().equals(headers.get("id")));
+                case "SEND" -> publish(frame);
+                case "DISCONNECT" -> {
+                    receipt(headers);
+                    return false;
+                }
+                default -> {
+                    // ACK, NACK and transactions are not needed by the relay tests
+                }
+            }
+            receipt(headers);
+            return true;
+        }
+
+        private void receipt(Map<String, String> headers) throws IOException {
+            String receipt = headers.get("receipt");
+            if (receipt != null) {
+                write("RECEIPT", Map.of("receipt-id", receipt), new byte[0]);
+            }
+        }
+
+        private void publish(Frame send) {
+            String destination = send.headers().get("destination");
+            for (Subscription subscription : subscriptions) {
+                if (!subscription.destination().equals(destination)) {
+                    continue;
+                }
+                Map<String, String> headers = new LinkedHashMap<>();
+                headers.put("subscription", subscription.id());
+                headers.put("message-id", String.valueOf(messageIds.incrementAndGet()));
+                headers.put("destination", destination);
+                send.headers().forEach((name, value) -> {
+                    if (!NOT_FORWARDED.contains(name)) {
+                        headers.putIfAbsent(name, value);
+                    }
+                });
+                try {
+                    subscription.connection().write("MESSAGE", headers, send.body());
+                } catch (IOException e) {
+                    subscription.connection().close();
+                }
+            }
+        }
+
+        private Frame read() throws IOException {
+            String command;
+            do {
+                command = readLine();
+                if (command == null) {
+                    return null;
+                }
+            } while (command.isEmpty()); // heart-beat EOLs between frames
+            Map<String, String> headers = new LinkedHashMap<>();
+            String line;
+            while ((line = readLine()) != null && !line.isEmpty()) {
+                int colon = line.indexOf(':');
+                // values stay escaped: they are only compared or passed through
+                headers.putIfAbsent(line.substring(0, colon), line.substring(colon + 1));
+            }
+            byte[] body;
+            String length = headers.get("content-length");
+            if (length != null) {
+                body = in.readNBytes(Integer.parseInt(length));
+                in.read(); // NUL
+            } else {
+                ByteArrayOutputStream buffer = new ByteArrayOutputStream();
+                int b;
+                while ((b = in.read()) > 0) {
+                    buffer.write(b);
+                }
+                body = buffer.toByteArray();
+            }
+            return new Frame(command, headers, body);
+        }
+
+        private String readLine() throws IOException {
+            ByteArrayOutputStream buffer = new ByteArrayOutputStream();
+            int b;
+            while ((b = in.read()) != '\n') {
+                if (b < 0) {
+                    return null;
+                }
+                buffer.write(b);
+            }
+            String line = buffer.toString(StandardCharsets.UTF_8);
+            return line.endsWith("\r") ? line.substring(0, line.length() - 1) : line;
+        }
+
+        private void write(String command, Map<String, String> headers, byte[] body) throws IOException {
+            StringBuilder frame = new StringBuilder(command).append('\n');
+            headers.forEach((name, value) -> frame.append(name).append(':').append(value).append('\n'));
+            frame.append("content-length:").append(body.length).append("\n\n");
+            synchronized (out) {
+                out.write(frame.toString().getBytes(StandardCharsets.UTF_8));
+                out.write(body);
+                out.write(0);
+                out.flush();
+            }
+        }
+
+        void close() {
+            subscriptions.removeIf(s -> s.connection() == this);
+            connections.remove(this);
+            try {
+                socket.close();
+            } catch (IOException e) {
+                // already closed
+            }
+        }
+    }
+}
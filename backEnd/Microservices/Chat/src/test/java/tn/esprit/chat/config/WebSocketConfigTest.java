@@ -0,0 +1,50 @@
+package tn.esprit.chat.config;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.messaging.simp.config.MessageBrokerRegistry;
+import org.springframework.messaging.simp.config.StompBrokerRelayRegistration;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import static org.mockito.Answers.RETURNS_SELF;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class WebSocketConfigTest {
+
+    private final WebSocketConfig config = new WebSocketConfig(new WebSocketAuthInterceptor());
+    private final MessageBrokerRegistry registry = mock(MessageBrokerRegistry.class);
+
+    @Test
+    void relayModeRoutesTopicsAndUserDestinationsThroughTheSharedBroker() {
+        ReflectionTestUtils.setField(config, "brokerMode", "relay");
+        ReflectionTestUtils.setField(config, "relayHost", "rabbit");
+        ReflectionTestUtils.setField(config, "relayPort", 61613);
+        ReflectionTestUtils.setField(config, "relayLogin", "chat");
+        ReflectionTestUtils.setField(config, "relayPasscode", "secret");
+        StompBrokerRelayRegistration relay = mock(StompBrokerRelayRegistration.class, RETURNS_SELF);
+        when(registry.enableStompBrokerRelay("/topic", "/queue")).thenReturn(relay);
+
+        config.configureMessageBroker(registry);
+
+        // /topic/user-status goes to the shared broker, so every instance's clients get each batch once
+        verify(registry).enableStompBrokerRelay("/topic", "/queue");
+        verify(relay).setRelayHost("rabbit");
+        verify(relay).setUserDestinationBroadcast("/topic/unresolved-user");
+        verify(relay).setUserRegistryBroadcast("/topic/simp-user-registry");
+        verify(registry, never()).enableSimpleBroker(any(String[].class));
+    }
+
+    @Test
+    void simpleModeKeepsTheInMemoryBroker() {
+        ReflectionTestUtils.setField(config, "brokerMode", "simple");
+
+        config.configureMessageBroker(registry);
+
+        verify(registry).enableSimpleBroker("/topic", "/queue");
+        verify(registry, never()).enableStompBrokerRelay(any(String[].class));
+        verify(registry).setUserDestinationPrefix("/user");
+    }
+}
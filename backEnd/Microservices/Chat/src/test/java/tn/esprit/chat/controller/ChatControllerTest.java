@@ -11,6 +11,7 @@ import tn.esprit.chat.dto.ChatMessageDTO;
 import tn.esprit.chat.dto.SendMessageRequest;
 import tn.esprit.chat.dto.TypingEvent;
 import tn.esprit.chat.service.IChatService;
+import tn.esprit.chat.service.ReadReceiptBatcher;
 
 import java.security.Principal;
 import java.util.Map;
@@ -18,6 +19,7 @@ import java.util.Map;
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
 import static org.mockito.Mockito.when;
 
 @ExtendWith(MockitoExtension.class)
@@ -29,26 +31,28 @@ class ChatControllerTest {
     @Mock
     private SimpMessagingTemplate messagingTemplate;
 
+    @Mock
+    private ReadReceiptBatcher readReceiptBatcher;
+
     @InjectMocks
     private ChatController chatController;
 
     @Test
-    void handleMessage_setsSenderAndRoutesToBothUsers() {
+    void handleMessage_setsSenderAndLeavesDeliveryToTheCommit() {
         Principal principal = () -> "7";
         SendMessageRequest request = new SendMessageRequest(null, 9L, "hello");
-        ChatMessageDTO saved = new ChatMessageDTO();
-        saved.setId(100L);
-        saved.setSenderId(7L);
-        saved.setReceiverId(9L);
-        when(chatService.sendMessage(request)).thenReturn(saved);
+        ChatMessageDTO queued = new ChatMessageDTO();
+        queued.setId(100L);
+        queued.setSenderId(7L);
+        queued.setReceiverId(9L);
+        when(chatService.sendMessage(request)).thenReturn(queued);
 
         chatController.handleMessage(request, principal);
 
         assertThat(request.getSenderId()).isEqualTo(7L);
-        verify(messagingTemplate, times(2)).convertAndSendToUser(
-                org.mockito.ArgumentMatchers.anyString(),
-                org.mockito.ArgumentMatchers.eq("/queue/messages"),
-                org.mockito.ArgumentMatchers.eq(saved));
+        verify(chatService).sendMessage(request);
+        // ChatService delivers to both users once the row is committed
+        verifyNoInteractions(messagingTemplate);
     }
 
     @Test
@@ -72,4 +76,14 @@ class ChatControllerTest {
                 org.mockito.ArgumentMatchers.eq(updated));
         assertThat(userCaptor.getValue()).isEqualTo("8");
     }
+
+    @Test
+    void handleSeenUpTo_submitsForTheAuthenticatedReader() {
+        Principal principal = () -> "3";
+
+        chatController.handleSeenUpTo(Map.of("senderId", 8L), principal);
+        chatController.handleSeenUpTo(Map.of("senderId", 8L, "upToMessageId", 120L), principal);
+
+        verify(readReceiptBatcher, times(1)).submit(3L, 8L, 120L);
+    }
 }
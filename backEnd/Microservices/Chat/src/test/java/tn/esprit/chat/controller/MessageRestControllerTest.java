@@ -8,6 +8,7 @@ import org.mockito.junit.jupiter.MockitoExtension;
 import org.springframework.data.domain.PageImpl;
 import org.springframework.http.ResponseEntity;
 import tn.esprit.chat.dto.ChatMessageDTO;
+import tn.esprit.chat.dto.ConversationSlice;
 import tn.esprit.chat.dto.ConversationSummary;
 import tn.esprit.chat.dto.TranslationRequest;
 import tn.esprit.chat.dto.TranslationResponse;
@@ -64,4 +65,12 @@ class MessageRestControllerTest {
         assertThat(controller.getConversations(2L).getBody()).hasSize(1);
         verify(chatService).getConversations(2L);
     }
+
+    @Test
+    void conversationHistory_clampsSizeAndDelegatesToService() {
+        ConversationSlice slice = ConversationSlice.builder().messages(List.of()).hasMore(false).build();
+        when(chatService.getConversationBefore(1L, 2L, 500L, 100)).thenReturn(slice);
+
+        assertThat(controller.getConversationHistory(1L, 2L, 500L, 1000).getBody()).isSameAs(slice);
+    }
 }
@@ -1,5 +1,6 @@
 package tn.esprit.chat.service;
 
+import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Nested;
 import org.junit.jupiter.api.Test;
@@ -10,8 +11,13 @@ import org.mockito.junit.jupiter.MockitoExtension;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.PageRequest;
+import org.springframework.messaging.simp.SimpMessagingTemplate;
+import org.springframework.transaction.support.TransactionCallback;
+import org.springframework.transaction.support.TransactionTemplate;
 import tn.esprit.chat.dto.ChatMessageDTO;
+import tn.esprit.chat.dto.ConversationSlice;
 import tn.esprit.chat.dto.ConversationSummary;
+import tn.esprit.chat.dto.ReadReceipt;
 import tn.esprit.chat.dto.SendMessageRequest;
 import tn.esprit.chat.entity.ChatMessage;
 import tn.esprit.chat.entity.enums.MessageStatus;
@@ -21,6 +27,7 @@ import java.time.LocalDateTime;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
 
 import static org.assertj.core.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.*;
@@ -38,10 +45,21 @@ class ChatServiceTest {
 
     @Mock private ChatMessageRepository chatMessageRepository;
     @Mock private UserStatusService     userStatusService;
+    @Mock private MessageIngestQueue    messageIngestQueue;
+    @Mock private MessageIdGenerator    messageIdGenerator;
+    @Mock private InboxCache            inboxCache;
+    @Mock private SimpMessagingTemplate messagingTemplate;
+    @Mock private TransactionTemplate   transactionTemplate;
 
     @InjectMocks
     private ChatService chatService;
 
+    @BeforeEach
+    void runTransactionCallbacksInline() {
+        lenient().when(transactionTemplate.execute(any()))
+                .thenAnswer(inv -> inv.<TransactionCallback<?>>getArgument(0).doInTransaction(null));
+    }
+
     // ── Shared fixtures ───────────────────────────────────────────────────────
 
     private static final Long SENDER_ID   = 1L;
@@ -68,36 +86,46 @@ class ChatServiceTest {
     class SendMessageTests {
 
         @Test
-        @DisplayName("should persist message with SENT status and return DTO")
-        void validRequest_persistsAndReturnsDto() {
-            // Arrange
-            SendMessageRequest req = new SendMessageRequest(SENDER_ID, RECEIVER_ID, "Hello!");
-            ChatMessage saved = buildMessage(1L, SENDER_ID, RECEIVER_ID, "Hello!", MessageStatus.SENT);
-            when(chatMessageRepository.save(any(ChatMessage.class))).thenReturn(saved);
+        @DisplayName("should enqueue message with SENT status, assigned id and conversation key, and return DTO")
+        void validRequest_enqueuesAndReturnsDto() {
+            // Arrange – receiver id lower than sender id to check the canonical key
+            SendMessageRequest req = new SendMessageRequest(RECEIVER_ID, SENDER_ID, "Hello!");
+            when(messageIdGenerator.nextId()).thenReturn(42L);
+            CompletableFuture<Void> persisted = new CompletableFuture<>();
+            when(messageIngestQueue.enqueue(any())).thenReturn(persisted);
 
             // Act
             ChatMessageDTO result = chatService.sendMessage(req);
 
             // Assert
-            assertThat(result.getId()).isEqualTo(1L);
-            assertThat(result.getSenderId()).isEqualTo(SENDER_ID);
-            assertThat(result.getReceiverId()).isEqualTo(RECEIVER_ID);
+            assertThat(result.getId()).isEqualTo(42L);
+            assertThat(result.getSenderId()).isEqualTo(RECEIVER_ID);
+            assertThat(result.getReceiverId()).isEqualTo(SENDER_ID);
             assertThat(result.getContent()).isEqualTo("Hello!");
             assertThat(result.getStatus()).isEqualTo("SENT");
-            verify(chatMessageRepository).save(argThat(m ->
-                    m.getStatus() == MessageStatus.SENT
-                    && m.getSenderId().equals(SENDER_ID)
-                    && m.getReceiverId().equals(RECEIVER_ID)
+            verify(messageIngestQueue).enqueue(argThat(m ->
+                    m.getId().equals(42L)
+                    && m.getStatus() == MessageStatus.SENT
+                    && m.getUserLow().equals(SENDER_ID)
+                    && m.getUserHigh().equals(RECEIVER_ID)
             ));
+            verify(chatMessageRepository, never()).save(any());
+            // nobody sees the message, and the inbox does not count it, until its row is committed
+            verifyNoInteractions(inboxCache, messagingTemplate);
+            persisted.complete(null);
+            verify(inboxCache).recordSent(argThat(m -> m.getId().equals(42L)));
+            verify(messagingTemplate).convertAndSendToUser(eq(SENDER_ID.toString()), eq("/queue/messages"),
+                    argThat((ChatMessageDTO dto) -> dto.getId().equals(42L)));
+            verify(messagingTemplate).convertAndSendToUser(eq(RECEIVER_ID.toString()), eq("/queue/messages"),
+                    argThat((ChatMessageDTO dto) -> dto.getId().equals(42L)));
         }
 
         @Test
-        @DisplayName("should set timestamp on the persisted message")
+        @DisplayName("should set timestamp on the queued message")
         void validRequest_setsTimestamp() {
             // Arrange
             SendMessageRequest req = new SendMessageRequest(SENDER_ID, RECEIVER_ID, "Hi");
-            ChatMessage saved = buildMessage(1L, SENDER_ID, RECEIVER_ID, "Hi", MessageStatus.SENT);
-            when(chatMessageRepository.save(any())).thenReturn(saved);
+            when(messageIngestQueue.enqueue(any())).thenReturn(new CompletableFuture<>());
 
             // Act
             ChatMessageDTO result = chatService.sendMessage(req);
@@ -105,6 +133,28 @@ class ChatServiceTest {
             // Assert
             assertThat(result.getTimestamp()).isNotNull();
         }
+
+        @Test
+        @DisplayName("should tell both users, and deliver nothing, when the insert is given up on")
+        void insertGivenUp_notifiesBothUsers() {
+            // Arrange
+            SendMessageRequest req = new SendMessageRequest(SENDER_ID, RECEIVER_ID, "Hi");
+            when(messageIdGenerator.nextId()).thenReturn(43L);
+            CompletableFuture<Void> persisted = new CompletableFuture<>();
+            when(messageIngestQueue.enqueue(any())).thenReturn(persisted);
+            chatService.sendMessage(req);
+
+            // Act
+            persisted.completeExceptionally(new IllegalStateException("constraint violation"));
+
+            // Assert
+            verify(messagingTemplate).convertAndSendToUser(eq(SENDER_ID.toString()), eq("/queue/message-failed"),
+                    argThat((ChatMessageDTO dto) -> dto.getId().equals(43L)));
+            verify(messagingTemplate).convertAndSendToUser(eq(RECEIVER_ID.toString()), eq("/queue/message-failed"),
+                    argThat((ChatMessageDTO dto) -> dto.getId().equals(43L)));
+            verify(messagingTemplate, never()).convertAndSendToUser(anyString(), eq("/queue/messages"), any());
+            verify(inboxCache, never()).recordSent(any());
+        }
     }
 
     // ═════════════════════════════════════════════════════════════════════════
@@ -150,6 +200,53 @@ class ChatServiceTest {
         }
     }
 
+    // ═════════════════════════════════════════════════════════════════════════
+    // getConversationBefore()
+    // ═════════════════════════════════════════════════════════════════════════
+
+    @Nested
+    @DisplayName("getConversationBefore()")
+    class GetConversationBeforeTests {
+
+        @Test
+        @DisplayName("should return the newest page oldest-first with a cursor when older messages exist")
+        void firstPage_returnsOldestFirstWithCursor() {
+            // Arrange – size 2, repository returns size + 1 rows newest first
+            List<ChatMessage> newestFirst = List.of(
+                    buildMessage(30L, SENDER_ID, RECEIVER_ID, "c", MessageStatus.SENT),
+                    buildMessage(20L, RECEIVER_ID, SENDER_ID, "b", MessageStatus.SEEN),
+                    buildMessage(10L, SENDER_ID, RECEIVER_ID, "a", MessageStatus.SEEN)
+            );
+            when(chatMessageRepository.findByUserLowAndUserHighOrderByIdDesc(eq(SENDER_ID), eq(RECEIVER_ID), any(PageRequest.class)))
+                    .thenReturn(newestFirst);
+
+            // Act – user ids in either order address the same conversation
+            ConversationSlice slice = chatService.getConversationBefore(RECEIVER_ID, SENDER_ID, null, 2);
+
+            // Assert
+            assertThat(slice.getMessages()).extracting(ChatMessageDTO::getId).containsExactly(20L, 30L);
+            assertThat(slice.isHasMore()).isTrue();
+            assertThat(slice.getNextBefore()).isEqualTo(20L);
+        }
+
+        @Test
+        @DisplayName("should return no cursor on the last page")
+        void lastPage_hasNoCursor() {
+            // Arrange
+            when(chatMessageRepository.findByUserLowAndUserHighAndIdLessThanOrderByIdDesc(
+                    eq(SENDER_ID), eq(RECEIVER_ID), eq(20L), any(PageRequest.class)))
+                    .thenReturn(List.of(buildMessage(10L, SENDER_ID, RECEIVER_ID, "a", MessageStatus.SEEN)));
+
+            // Act
+            ConversationSlice slice = chatService.getConversationBefore(SENDER_ID, RECEIVER_ID, 20L, 2);
+
+            // Assert
+            assertThat(slice.getMessages()).extracting(ChatMessageDTO::getId).containsExactly(10L);
+            assertThat(slice.isHasMore()).isFalse();
+            assertThat(slice.getNextBefore()).isNull();
+        }
+    }
+
     // ═════════════════════════════════════════════════════════════════════════
     // getUnreadMessages()
     // ═════════════════════════════════════════════════════════════════════════
@@ -201,16 +298,10 @@ class ChatServiceTest {
     class GetUnreadCountTests {
 
         @Test
-        @DisplayName("should return total count and per-sender breakdown")
+        @DisplayName("should return total count and per-sender breakdown from the inbox cache")
         void withUnread_returnsTotalAndPerSenderMap() {
             // Arrange – 2 unread from sender 1, 1 unread from sender 3
-            List<ChatMessage> unread = List.of(
-                    buildMessage(1L, 1L, RECEIVER_ID, "A", MessageStatus.SENT),
-                    buildMessage(2L, 1L, RECEIVER_ID, "B", MessageStatus.DELIVERED),
-                    buildMessage(3L, 3L, RECEIVER_ID, "C", MessageStatus.SENT)
-            );
-            when(chatMessageRepository.findByReceiverIdAndStatusNot(RECEIVER_ID, MessageStatus.SEEN))
-                    .thenReturn(unread);
+            when(inboxCache.unreadBySender(RECEIVER_ID)).thenReturn(Map.of(1L, 2L, 3L, 1L));
 
             // Act
             Map<String, Long> result = chatService.getUnreadCount(RECEIVER_ID);
@@ -219,14 +310,14 @@ class ChatServiceTest {
             assertThat(result.get("total")).isEqualTo(3L);
             assertThat(result.get("sender_1")).isEqualTo(2L);
             assertThat(result.get("sender_3")).isEqualTo(1L);
+            verifyNoInteractions(chatMessageRepository);
         }
 
         @Test
         @DisplayName("should return total=0 when no unread messages exist")
         void noUnread_returnsTotalZero() {
             // Arrange
-            when(chatMessageRepository.findByReceiverIdAndStatusNot(RECEIVER_ID, MessageStatus.SEEN))
-                    .thenReturn(List.of());
+            when(inboxCache.unreadBySender(RECEIVER_ID)).thenReturn(Map.of());
 
             // Act
             Map<String, Long> result = chatService.getUnreadCount(RECEIVER_ID);
@@ -257,9 +348,28 @@ class ChatServiceTest {
 
             // Assert
             verify(chatMessageRepository).save(argThat(m -> m.getStatus() == MessageStatus.SEEN));
+            verify(inboxCache).recordSeen(existing);
             assertThat(result.getStatus()).isEqualTo("SEEN");
         }
 
+        @Test
+        @DisplayName("should wait for a still-queued message to be inserted before updating it")
+        void pendingMessage_waitsForInsert() {
+            // Arrange
+            ChatMessage existing = buildMessage(7L, SENDER_ID, RECEIVER_ID, "Hi!", MessageStatus.SENT);
+            when(messageIngestQueue.isPending(7L)).thenReturn(true);
+            when(chatMessageRepository.findById(7L)).thenReturn(Optional.of(existing));
+            when(chatMessageRepository.save(any())).thenReturn(existing);
+
+            // Act
+            chatService.markAsSeen(7L);
+
+            // Assert – the wait happens before the transaction is opened
+            var order = inOrder(messageIngestQueue, transactionTemplate);
+            order.verify(messageIngestQueue).awaitPersisted(eq(7L), anyLong());
+            order.verify(transactionTemplate).execute(any());
+        }
+
         @Test
         @DisplayName("should throw RuntimeException when message does not exist")
         void unknownMessageId_throwsRuntimeException() {
@@ -275,6 +385,64 @@ class ChatServiceTest {
         }
     }
 
+    // ═════════════════════════════════════════════════════════════════════════
+    // markConversationSeen()
+    // ═════════════════════════════════════════════════════════════════════════
+
+    @Nested
+    @DisplayName("markConversationSeen()")
+    class MarkConversationSeenTests {
+
+        @Test
+        @DisplayName("should mark everything up to the message in one update and update the inbox")
+        void unreadMessages_singleUpdateAndInboxDelta() {
+            // Arrange
+            when(messageIngestQueue.awaitPersistedUpTo(eq(SENDER_ID), eq(RECEIVER_ID), eq(50L), anyLong())).thenReturn(50L);
+            when(chatMessageRepository.markSeenUpTo(RECEIVER_ID, SENDER_ID, 50L, MessageStatus.SEEN)).thenReturn(12);
+
+            // Act
+            ReadReceipt receipt = chatService.markConversationSeen(RECEIVER_ID, SENDER_ID, 50L);
+
+            // Assert
+            assertThat(receipt.getCount()).isEqualTo(12);
+            assertThat(receipt.getUpToMessageId()).isEqualTo(50L);
+            verify(inboxCache).recordSeenUpTo(RECEIVER_ID, SENDER_ID, 50L);
+            verify(chatMessageRepository, never()).save(any());
+        }
+
+        @Test
+        @DisplayName("should stop below an older message still pending and report that bound")
+        void olderMessagePending_marksOnlyUpToIt() {
+            // Arrange – message 45 of the sender is still dead-lettered after the wait
+            when(messageIngestQueue.awaitPersistedUpTo(eq(SENDER_ID), eq(RECEIVER_ID), eq(50L), anyLong())).thenReturn(44L);
+            when(chatMessageRepository.markSeenUpTo(RECEIVER_ID, SENDER_ID, 44L, MessageStatus.SEEN)).thenReturn(3);
+
+            // Act
+            ReadReceipt receipt = chatService.markConversationSeen(RECEIVER_ID, SENDER_ID, 50L);
+
+            // Assert
+            verify(chatMessageRepository, never()).markSeenUpTo(RECEIVER_ID, SENDER_ID, 50L, MessageStatus.SEEN);
+            verify(inboxCache).recordSeenUpTo(RECEIVER_ID, SENDER_ID, 44L);
+            assertThat(receipt.getUpToMessageId()).isEqualTo(44L);
+            assertThat(receipt.getCount()).isEqualTo(3);
+        }
+
+        @Test
+        @DisplayName("should skip the inbox when nothing changed")
+        void nothingUnread_skipsInbox() {
+            // Arrange
+            when(messageIngestQueue.awaitPersistedUpTo(eq(SENDER_ID), eq(RECEIVER_ID), eq(50L), anyLong())).thenReturn(50L);
+            when(chatMessageRepository.markSeenUpTo(RECEIVER_ID, SENDER_ID, 50L, MessageStatus.SEEN)).thenReturn(0);
+
+            // Act
+            ReadReceipt receipt = chatService.markConversationSeen(RECEIVER_ID, SENDER_ID, 50L);
+
+            // Assert
+            verifyNoInteractions(inboxCache);
+            assertThat(receipt.getCount()).isZero();
+        }
+    }
+
     // ═════════════════════════════════════════════════════════════════════════
     // getConversations()
     // ═════════════════════════════════════════════════════════════════════════
@@ -284,14 +452,12 @@ class ChatServiceTest {
     class GetConversationsTests {
 
         @Test
-        @DisplayName("should return one ConversationSummary per unique conversation partner")
-        void withMessages_returnsConversationSummaries() {
-            // Arrange – latest message from user 1 ↔ user 2
-            ChatMessage latestMsg = buildMessage(5L, SENDER_ID, RECEIVER_ID, "Latest!", MessageStatus.SENT);
-            when(chatMessageRepository.findLatestMessagesPerConversation(RECEIVER_ID))
-                    .thenReturn(List.of(latestMsg));
-            when(chatMessageRepository.countByReceiverIdAndSenderIdAndStatusNot(
-                    RECEIVER_ID, SENDER_ID, MessageStatus.SEEN)).thenReturn(2L);
+        @DisplayName("should return one ConversationSummary per cached conversation with online status")
+        void withConversations_returnsConversationSummaries() {
+            // Arrange – latest message from user 1 ↔ user 2, 2 unread
+            LocalDateTime at = LocalDateTime.now();
+            when(inboxCache.conversations(RECEIVER_ID)).thenReturn(List.of(
+                    new InboxCache.Conversation(SENDER_ID, 5L, "Latest!", at, "SENT", 2L)));
             when(userStatusService.isOnline(SENDER_ID)).thenReturn(true);
 
             // Act
@@ -302,16 +468,17 @@ class ChatServiceTest {
             ConversationSummary summary = result.get(0);
             assertThat(summary.getPartnerId()).isEqualTo(SENDER_ID);
             assertThat(summary.getLastMessage()).isEqualTo("Latest!");
+            assertThat(summary.getLastMessageTime()).isEqualTo(at);
             assertThat(summary.getUnreadCount()).isEqualTo(2L);
             assertThat(summary.isOnline()).isTrue();
+            verifyNoInteractions(chatMessageRepository);
         }
 
         @Test
-        @DisplayName("should return empty list when user has no messages")
-        void noMessages_returnsEmptyList() {
+        @DisplayName("should return empty list when user has no conversations")
+        void noConversations_returnsEmptyList() {
             // Arrange
-            when(chatMessageRepository.findLatestMessagesPerConversation(RECEIVER_ID))
-                    .thenReturn(List.of());
+            when(inboxCache.conversations(RECEIVER_ID)).thenReturn(List.of());
 
             // Act
             List<ConversationSummary> result = chatService.getConversations(RECEIVER_ID);
@@ -319,23 +486,5 @@ class ChatServiceTest {
             // Assert
             assertThat(result).isEmpty();
         }
-
-        @Test
-        @DisplayName("should correctly identify partner: when user is sender, partner is receiver")
-        void userIsSender_partnerIsReceiver() {
-            // Arrange – SENDER_ID sent the last message; we query for SENDER_ID's conversations
-            ChatMessage latestMsg = buildMessage(5L, SENDER_ID, RECEIVER_ID, "Hi!", MessageStatus.SENT);
-            when(chatMessageRepository.findLatestMessagesPerConversation(SENDER_ID))
-                    .thenReturn(List.of(latestMsg));
-            when(chatMessageRepository.countByReceiverIdAndSenderIdAndStatusNot(any(), any(), any()))
-                    .thenReturn(0L);
-            when(userStatusService.isOnline(RECEIVER_ID)).thenReturn(false);
-
-            // Act
-            List<ConversationSummary> result = chatService.getConversations(SENDER_ID);
-
-            // Assert – partner should be RECEIVER_ID (the other party)
-            assertThat(result.get(0).getPartnerId()).isEqualTo(RECEIVER_ID);
-        }
     }
 }
@@ -0,0 +1,146 @@
+package tn.esprit.chat.service;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.messaging.simp.SimpMessagingTemplate;
+import tn.esprit.chat.dto.UnreadCountEvent;
+import tn.esprit.chat.entity.ChatMessage;
+import tn.esprit.chat.entity.enums.MessageStatus;
+import tn.esprit.chat.repository.ChatMessageRepository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * Unit tests for {@link InboxCache}: lazy load, idempotent in-place updates on send / seen and the pushed deltas.
+ */
+@ExtendWith(MockitoExtension.class)
+@DisplayName("InboxCache – Unit Tests")
+class InboxCacheTest {
+
+    @Mock private ChatMessageRepository chatMessageRepository;
+    @Mock private SimpMessagingTemplate messagingTemplate;
+
+    private InboxCache inboxCache;
+
+    private static final Long ME = 2L;
+    private static final Long ALICE = 1L;
+    private static final Long BOB = 3L;
+
+    @BeforeEach
+    void setUp() {
+        inboxCache = new InboxCache(chatMessageRepository, messagingTemplate, 600_000, 1_000);
+    }
+
+    private static ChatMessage message(Long id, Long from, Long to, MessageStatus status, int minutesAgo) {
+        return ChatMessage.builder().id(id).senderId(from).receiverId(to).content("m" + id)
+                .timestamp(LocalDateTime.now().minusMinutes(minutesAgo)).status(status).build();
+    }
+
+    private void loadInbox() {
+        // ME has 2 unread from ALICE (3 and 5); last messages: ALICE -> ME (5), ME -> BOB (4, sent by me)
+        when(chatMessageRepository.findUnreadIdsBySender(ME, MessageStatus.SEEN))
+                .thenReturn(List.of(new Object[]{ALICE, 3L}, new Object[]{ALICE, 5L}));
+        when(chatMessageRepository.findLatestMessagesPerConversation(ME)).thenReturn(List.of(
+                message(5L, ALICE, ME, MessageStatus.SENT, 1),
+                message(4L, ME, BOB, MessageStatus.SEEN, 10)));
+    }
+
+    @Test
+    @DisplayName("should load once and resolve the partner whichever side sent the last message")
+    void conversations_loadsOnceAndResolvesPartner() {
+        loadInbox();
+
+        List<InboxCache.Conversation> first = inboxCache.conversations(ME);
+        inboxCache.unreadBySender(ME);
+
+        assertThat(first).extracting(InboxCache.Conversation::partnerId).containsExactly(ALICE, BOB);
+        assertThat(first.get(0).unreadCount()).isEqualTo(2L);
+        assertThat(first.get(1).unreadCount()).isZero();
+        verify(chatMessageRepository, times(1)).findLatestMessagesPerConversation(ME);
+    }
+
+    @Test
+    @DisplayName("should count a new message as unread and push the delta to the receiver")
+    void recordSent_incrementsUnreadAndPushes() {
+        loadInbox();
+        inboxCache.conversations(ME);
+
+        inboxCache.recordSent(message(9L, BOB, ME, MessageStatus.SENT, 0));
+
+        assertThat(inboxCache.unreadBySender(ME)).containsEntry(BOB, 1L).containsEntry(ALICE, 2L);
+        assertThat(inboxCache.conversations(ME).get(0).lastMessageId()).isEqualTo(9L);
+        verify(messagingTemplate).convertAndSendToUser(eq("2"), eq("/queue/unread"),
+                argThat((Object e) -> e instanceof UnreadCountEvent u && u.getUnreadCount() == 1 && u.getTotalUnread() == 3));
+    }
+
+    @Test
+    @DisplayName("should decrement unread and update the last-message status on seen")
+    void recordSeen_decrementsUnread() {
+        loadInbox();
+        inboxCache.conversations(ME);
+        ChatMessage seen = message(5L, ALICE, ME, MessageStatus.SEEN, 1);
+
+        inboxCache.recordSeen(seen);
+
+        assertThat(inboxCache.unreadBySender(ME)).containsEntry(ALICE, 1L);
+        assertThat(inboxCache.conversations(ME).get(0).lastMessageStatus()).isEqualTo("SEEN");
+    }
+
+    @Test
+    @DisplayName("should count a repeated send or seen receipt once")
+    void repeatedDeltas_areIdempotent() {
+        loadInbox();
+        inboxCache.conversations(ME);
+        ChatMessage fromBob = message(9L, BOB, ME, MessageStatus.SENT, 0);
+        ChatMessage seen = message(5L, ALICE, ME, MessageStatus.SEEN, 1);
+
+        // a message the load already counted, then two concurrent receipts for the same message
+        inboxCache.recordSent(message(5L, ALICE, ME, MessageStatus.SENT, 1));
+        inboxCache.recordSent(fromBob);
+        inboxCache.recordSent(fromBob);
+        inboxCache.recordSeen(seen);
+        inboxCache.recordSeen(seen);
+
+        assertThat(inboxCache.unreadBySender(ME)).containsEntry(ALICE, 1L).containsEntry(BOB, 1L);
+    }
+
+    @Test
+    @DisplayName("should ignore users whose inbox is not loaded")
+    void recordSeen_notLoaded_noop() {
+        inboxCache.recordSeen(message(5L, ALICE, ME, MessageStatus.SEEN, 1));
+        inboxCache.recordSent(message(6L, ALICE, ME, MessageStatus.SENT, 0));
+
+        verify(messagingTemplate, never()).convertAndSendToUser(any(), any(), any());
+    }
+
+    @Test
+    @DisplayName("should drop the covered unread messages and mark the covered last message seen for the sender")
+    void recordSeenUpTo_appliesCountToBothInboxes() {
+        loadInbox();
+        inboxCache.conversations(ME);
+        when(chatMessageRepository.findUnreadIdsBySender(ALICE, MessageStatus.SEEN)).thenReturn(List.of());
+        when(chatMessageRepository.findLatestMessagesPerConversation(ALICE))
+                .thenReturn(List.of(message(5L, ALICE, ME, MessageStatus.SENT, 1)));
+        inboxCache.conversations(ALICE);
+
+        inboxCache.recordSeenUpTo(ME, ALICE, 5L);
+
+        assertThat(inboxCache.unreadBySender(ME)).doesNotContainKey(ALICE);
+        assertThat(inboxCache.conversations(ALICE).get(0).lastMessageStatus()).isEqualTo("SEEN");
+        verify(messagingTemplate).convertAndSendToUser(eq("1"), eq("/queue/conversations"), any(Object.class));
+    }
+}
@@ -0,0 +1,37 @@
+package tn.esprit.chat.service;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+@DisplayName("MessageIdGenerator – Unit Tests")
+class MessageIdGeneratorTest {
+
+    @Test
+    @DisplayName("should produce strictly increasing ids that stay exact as JavaScript numbers")
+    void nextId_isMonotonicAndJsSafe() {
+        MessageIdGenerator generator = new MessageIdGenerator(3);
+        long previous = 0;
+        for (int i = 0; i < 100_000; i++) {
+            long id = generator.nextId();
+            assertThat(id).isGreaterThan(previous);
+            previous = id;
+        }
+        assertThat(previous).isLessThan(1L << 53);
+        assertThat((previous >> 8) & 0xF).isEqualTo(3);
+    }
+
+    @Test
+    @DisplayName("should pick a random worker id when none is configured")
+    void unsetWorkerId_picksRandomValidId() {
+        assertThat(new MessageIdGenerator(-1).nextId()).isPositive().isLessThan(1L << 53);
+    }
+
+    @Test
+    @DisplayName("should reject a worker id outside 0-15")
+    void invalidWorkerId_throws() {
+        assertThatThrownBy(() -> new MessageIdGenerator(16)).isInstanceOf(IllegalArgumentException.class);
+    }
+}
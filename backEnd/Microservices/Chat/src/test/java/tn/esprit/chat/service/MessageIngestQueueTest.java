@@ -0,0 +1,182 @@
+package tn.esprit.chat.service;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import tn.esprit.chat.entity.ChatMessage;
+import tn.esprit.chat.entity.enums.MessageStatus;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.doThrow;
+
+/**
+ * Unit tests for {@link MessageIngestQueue} with a real writer thread and a mocked {@link ChatMessageWriter}.
+ */
+@ExtendWith(MockitoExtension.class)
+@DisplayName("MessageIngestQueue – Unit Tests")
+class MessageIngestQueueTest {
+
+    @Mock private ChatMessageWriter writer;
+
+    private MessageIngestQueue queue;
+
+    private MessageIngestQueue start(int capacity, int maxRetries) {
+        queue = new MessageIngestQueue(writer, new SimpleMeterRegistry(), capacity, 100, 10, maxRetries, 2);
+        queue.start();
+        return queue;
+    }
+
+    @AfterEach
+    void tearDown() throws InterruptedException {
+        if (queue != null) {
+            queue.stop();
+        }
+    }
+
+    private static ChatMessage message(long id) {
+        return ChatMessage.builder().id(id).senderId(1L).receiverId(2L).content("m" + id)
+                .timestamp(LocalDateTime.now()).status(MessageStatus.SENT).build();
+    }
+
+    @Test
+    @DisplayName("should insert every queued message in batches and complete their pending futures")
+    void enqueue_insertsAllInBatches() {
+        // Arrange
+        Set<Long> inserted = ConcurrentHashMap.newKeySet();
+        doAnswer(inv -> {
+            List<ChatMessage> batch = inv.getArgument(0);
+            batch.forEach(m -> inserted.add(m.getId()));
+            return null;
+        }).when(writer).insertAll(anyList());
+        start(1000, 0);
+
+        // Act
+        for (long id = 1; id <= 250; id++) {
+            queue.enqueue(message(id));
+        }
+
+        // Assert
+        assertThat(queue.awaitPersisted(250L, 5_000)).isTrue();
+        for (long id = 1; id <= 250; id++) {
+            assertThat(queue.awaitPersisted(id, 5_000)).isTrue();
+            assertThat(queue.isPending(id)).isFalse();
+        }
+        assertThat(inserted).hasSize(250);
+    }
+
+    @Test
+    @DisplayName("should fall back to row-by-row inserts when a batch keeps failing")
+    void failingBatch_insertsRowByRow() throws InterruptedException {
+        // Arrange – any multi-row batch fails, single rows succeed except id 2
+        Set<Long> inserted = ConcurrentHashMap.newKeySet();
+        doAnswer(inv -> {
+            List<ChatMessage> batch = inv.getArgument(0);
+            if (batch.size() > 1 || batch.get(0).getId() == 2L) {
+                throw new IllegalStateException("constraint violation");
+            }
+            inserted.add(batch.get(0).getId());
+            return null;
+        }).when(writer).insertAll(anyList());
+        queue = new MessageIngestQueue(writer, new SimpleMeterRegistry(), 10, 100, 10, 0, 2);
+        queue.start();
+
+        // Act
+        queue.write(List.of(message(1), message(2), message(3)));
+
+        // Assert – the failing row is kept for a retry, not dropped
+        assertThat(inserted).containsExactlyInAnyOrder(1L, 3L);
+        assertThat(queue.deadLetterCount()).isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("should insert a dead-lettered row on retry, or fail its future once retries are exhausted")
+    void deadLetters_retriedThenGivenUp() throws InterruptedException {
+        // Arrange – id 4 fails in the writer thread (batch, then row) and succeeds on retry; id 5 always fails
+        Set<Long> inserted = ConcurrentHashMap.newKeySet();
+        AtomicInteger attemptsOf4 = new AtomicInteger();
+        doAnswer(inv -> {
+            List<ChatMessage> batch = inv.getArgument(0);
+            ChatMessage m = batch.get(0);
+            if (m.getId() == 5L || (m.getId() == 4L && attemptsOf4.getAndIncrement() < 2)) {
+                throw new IllegalStateException("db error");
+            }
+            inserted.add(m.getId());
+            return null;
+        }).when(writer).insertAll(anyList());
+        start(10, 0);
+        CompletableFuture<Void> four = queue.enqueue(message(4));
+        CompletableFuture<Void> five = queue.enqueue(message(5));
+        for (int waited = 0; queue.deadLetterCount() < 2 && waited < 5_000; waited += 10) {
+            Thread.sleep(10);
+        }
+        assertThat(queue.deadLetterCount()).isEqualTo(2);
+        assertThat(four).isNotDone();
+
+        // Act
+        queue.retryDeadLetters();
+        queue.retryDeadLetters();
+
+        // Assert
+        assertThat(inserted).contains(4L);
+        assertThat(four).isCompleted();
+        assertThat(five).isCompletedExceptionally();
+        assertThat(queue.deadLetterCount()).isZero();
+        assertThat(queue.isPending(5L)).isFalse();
+    }
+
+    @Test
+    @DisplayName("should report a conversation persisted only up to its first message still dead-lettered")
+    void awaitPersistedUpTo_stopsBelowAMessageStillPending() throws InterruptedException {
+        // Arrange – id 6 fails once in the writer thread (batch, then row), so the newer id 7 is inserted first
+        AtomicInteger attemptsOf6 = new AtomicInteger();
+        doAnswer(inv -> {
+            List<ChatMessage> batch = inv.getArgument(0);
+            if (batch.stream().anyMatch(m -> m.getId() == 6L) && attemptsOf6.getAndIncrement() < 2) {
+                throw new IllegalStateException("db error");
+            }
+            return null;
+        }).when(writer).insertAll(anyList());
+        start(10, 0);
+        queue.enqueue(message(6));
+        queue.enqueue(message(7));
+        assertThat(queue.awaitPersisted(7L, 5_000)).isTrue();
+        for (int waited = 0; queue.deadLetterCount() < 1 && waited < 5_000; waited += 10) {
+            Thread.sleep(10);
+        }
+
+        // Act & Assert
+        assertThat(queue.awaitPersistedUpTo(1L, 2L, 7L, 20)).isEqualTo(5L);
+        assertThat(queue.awaitPersistedUpTo(2L, 1L, 7L, 20)).isEqualTo(7L);
+        queue.retryDeadLetters();
+        assertThat(queue.awaitPersistedUpTo(1L, 2L, 7L, 20)).isEqualTo(7L);
+    }
+
+    @Test
+    @DisplayName("should insert synchronously when the queue has been stopped")
+    void stoppedQueue_insertsSynchronously() throws InterruptedException {
+        // Arrange
+        start(10, 0);
+        queue.stop();
+        doThrow(new IllegalStateException("db down")).when(writer).insertAll(anyList());
+
+        // Act & Assert – the caller sees the failure instead of a silent drop
+        assertThatThrownBy(() -> queue.enqueue(message(9)))
+                .isInstanceOf(IllegalStateException.class);
+        assertThat(queue.isPending(9L)).isFalse();
+        queue = null;
+    }
+}
@@ -0,0 +1,70 @@
+package tn.esprit.chat.service;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.messaging.simp.SimpMessagingTemplate;
+import tn.esprit.chat.dto.ReadReceipt;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.after;
+import static org.mockito.Mockito.timeout;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * Unit tests for {@link ReadReceiptBatcher}: receipts within the window collapse into one update and one event.
+ */
+@ExtendWith(MockitoExtension.class)
+@DisplayName("ReadReceiptBatcher – Unit Tests")
+class ReadReceiptBatcherTest {
+
+    @Mock private IChatService chatService;
+    @Mock private SimpMessagingTemplate messagingTemplate;
+
+    private ReadReceiptBatcher batcher;
+
+    @BeforeEach
+    void setUp() {
+        batcher = new ReadReceiptBatcher(chatService, messagingTemplate, 50);
+        batcher.start();
+    }
+
+    @AfterEach
+    void tearDown() {
+        batcher.stop();
+    }
+
+    @Test
+    @DisplayName("should coalesce receipts of one conversation into the highest message id")
+    void burstOfReceipts_singleUpdateAndReceipt() {
+        ReadReceipt receipt = ReadReceipt.builder().readerId(2L).senderId(1L).upToMessageId(30L).count(3).build();
+        when(chatService.markConversationSeen(2L, 1L, 30L)).thenReturn(receipt);
+
+        batcher.submit(2L, 1L, 10L);
+        batcher.submit(2L, 1L, 30L);
+        batcher.submit(2L, 1L, 20L);
+
+        verify(chatService, timeout(1000).times(1)).markConversationSeen(2L, 1L, 30L);
+        verify(messagingTemplate, timeout(1000)).convertAndSendToUser("1", "/queue/read-receipts", receipt);
+        verify(chatService, after(200).times(1)).markConversationSeen(any(), any(), anyLong());
+    }
+
+    @Test
+    @DisplayName("should not notify the sender when no message changed status")
+    void nothingUpdated_noReceipt() {
+        when(chatService.markConversationSeen(2L, 1L, 5L))
+                .thenReturn(ReadReceipt.builder().readerId(2L).senderId(1L).upToMessageId(5L).count(0).build());
+
+        batcher.submit(2L, 1L, 5L);
+
+        verify(chatService, timeout(1000)).markConversationSeen(2L, 1L, 5L);
+        verify(messagingTemplate, after(100).never()).convertAndSendToUser(any(), eq("/queue/read-receipts"), any(Object.class));
+    }
+}
@@ -0,0 +1,152 @@
+package tn.esprit.chat.service;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import tn.esprit.chat.entity.CachedTranslation;
+import tn.esprit.chat.repository.CachedTranslationRepository;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyIterable;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * Unit tests for {@link TranslationCache}: LRU bound, batching of misses, single flight and the persistent tier.
+ */
+@DisplayName("TranslationCache – Unit Tests")
+class TranslationCacheTest {
+
+    private SimpleMeterRegistry meterRegistry;
+    private TranslationCache cache;
+    private final List<List<String>> upstreamCalls = Collections.synchronizedList(new ArrayList<>());
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        cache = new TranslationCache(meterRegistry, null, 2, 60_000, false, 0);
+    }
+
+    private List<String> upper(List<String> texts) {
+        upstreamCalls.add(texts);
+        return texts.stream().map(String::toUpperCase).toList();
+    }
+
+    @Test
+    @DisplayName("should send only the distinct misses upstream, in one call")
+    void translateAll_batchesDistinctMisses() {
+        cache.translate("hello", "en", "fr", t -> t.toUpperCase());
+
+        List<String> result = cache.translateAll(List.of("hello", "world", " ", "world"), "en", "fr", this::upper);
+
+        assertThat(result).containsExactly("HELLO", "WORLD", " ", "WORLD");
+        assertThat(upstreamCalls).containsExactly(List.of("world"));
+        assertThat(meterRegistry.counter("translation.cache.requests", "result", "hit", "tier", "memory").count())
+                .isEqualTo(1.0);
+    }
+
+    @Test
+    @DisplayName("should evict the least recently used entry beyond max-entries")
+    void translate_evictsLeastRecentlyUsed() {
+        cache.translateAll(List.of("a1", "b1"), "en", "fr", this::upper);
+        cache.translate("a1", "en", "fr", t -> "unexpected");
+        cache.translateAll(List.of("c1"), "en", "fr", this::upper);
+        upstreamCalls.clear();
+
+        cache.translateAll(List.of("a1", "b1"), "en", "fr", this::upper);
+
+        assertThat(upstreamCalls).containsExactly(List.of("b1"));
+    }
+
+    @Test
+    @DisplayName("should not cache a result equal to the input (provider fallback)")
+    void translate_identicalResultNotCached() {
+        AtomicInteger calls = new AtomicInteger();
+
+        cache.translate("ok", "en", "fr", t -> { calls.incrementAndGet(); return t; });
+        cache.translate("ok", "en", "fr", t -> { calls.incrementAndGet(); return t; });
+
+        assertThat(calls).hasValue(2);
+    }
+
+    @Test
+    @DisplayName("should translate once for concurrent identical requests")
+    void translate_concurrentIdenticalRequests_singleFlight() throws Exception {
+        CountDownLatch inUpstream = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        AtomicInteger calls = new AtomicInteger();
+        ExecutorService pool = Executors.newFixedThreadPool(4);
+        try {
+            List<Future<String>> results = new ArrayList<>();
+            results.add(pool.submit(() -> cache.translate("same text", "en", "fr", t -> {
+                calls.incrementAndGet();
+                inUpstream.countDown();
+                await(release);
+                return "même texte";
+            })));
+            assertThat(inUpstream.await(1, TimeUnit.SECONDS)).isTrue();
+            for (int i = 0; i < 3; i++) {
+                results.add(pool.submit(() -> cache.translate("same text", "en", "fr", t -> {
+                    calls.incrementAndGet();
+                    return "other";
+                })));
+            }
+            Thread.sleep(100);
+            release.countDown();
+
+            for (Future<String> f : results) {
+                assertThat(f.get(1, TimeUnit.SECONDS)).isEqualTo("même texte");
+            }
+            assertThat(calls).hasValue(1);
+        } finally {
+            pool.shutdownNow();
+        }
+    }
+
+    @Test
+    @DisplayName("should propagate an upstream failure and not cache it")
+    void translate_upstreamFailure_propagates() {
+        assertThatThrownBy(() -> cache.translate("boom", "en", "fr", t -> { throw new IllegalStateException("down"); }))
+                .isInstanceOf(IllegalStateException.class);
+
+        assertThat(cache.translate("boom", "en", "fr", String::toUpperCase)).isEqualTo("BOOM");
+    }
+
+    @Test
+    @DisplayName("should serve from and write to the persistent tier when enabled")
+    void persistentTier_readAndWrite() {
+        CachedTranslationRepository repository = mock(CachedTranslationRepository.class);
+        String storedId = TranslationCache.key("stored", "en", "fr").id();
+        when(repository.findAllById(anyIterable()))
+                .thenReturn(List.of(new CachedTranslation(storedId, "STOCKÉ", System.currentTimeMillis())));
+        TranslationCache persistent = new TranslationCache(meterRegistry, repository, 10, 60_000, true, 60_000);
+
+        List<String> result = persistent.translateAll(List.of("stored", "fresh"), "en", "fr", this::upper);
+
+        assertThat(result).containsExactly("STOCKÉ", "FRESH");
+        assertThat(upstreamCalls).containsExactly(List.of("fresh"));
+        verify(repository).save(any(CachedTranslation.class));
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await(1, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
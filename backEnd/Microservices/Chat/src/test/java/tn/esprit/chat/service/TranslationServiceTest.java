@@ -1,6 +1,7 @@
 package tn.esprit.chat.service;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.springframework.http.MediaType;
@@ -21,7 +22,8 @@ class TranslationServiceTest {
 
     @BeforeEach
     void setUp() {
-        service = new TranslationService(new ObjectMapper());
+        TranslationCache cache = new TranslationCache(new SimpleMeterRegistry(), null, 100, 60_000, false, 0);
+        service = new TranslationService(new ObjectMapper(), cache);
         RestTemplate restTemplate = (RestTemplate) ReflectionTestUtils.getField(service, "restTemplate");
         server = MockRestServiceServer.bindTo(restTemplate).build();
     }
@@ -82,4 +84,20 @@ class TranslationServiceTest {
         assertThat(translated).isEqualTo("keep me");
         server.verify();
     }
+
+    @Test
+    void translateServesRepeatedPhraseFromCache() {
+        server.expect(requestTo(org.hamcrest.Matchers.containsString(MYMEMORY_HOST)))
+            .andRespond(withSuccess(
+                "{\"responseStatus\":200,\"responseData\":{\"translatedText\":\"merci\"}}",
+                MediaType.APPLICATION_JSON
+            ));
+
+        String first = service.translate("thank you", "fr", "en");
+        String second = service.translate("  thank   you ", "fr", "en");
+
+        assertThat(first).isEqualTo("merci");
+        assertThat(second).isEqualTo("merci");
+        server.verify();
+    }
 }
@@ -1,9 +1,9 @@
 package tn.esprit.chat.service;
 
+import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.ArgumentCaptor;
-import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
 import org.springframework.messaging.Message;
@@ -16,31 +16,43 @@ import org.springframework.web.socket.messaging.SessionDisconnectEvent;
 import tn.esprit.chat.dto.UserStatusEvent;
 
 import java.security.Principal;
+import java.util.List;
 
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.tuple;
+import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.verify;
 
+/** The in-memory store stands in for the shared one: "node-b" entries play another chat instance. */
 @ExtendWith(MockitoExtension.class)
 class UserStatusServiceTest {
 
+    private static final long TTL_MS = 30_000;
+
     @Mock
     private SimpMessagingTemplate messagingTemplate;
 
-    @InjectMocks
+    private InMemoryPresenceStore presenceStore;
     private UserStatusService userStatusService;
 
+    @BeforeEach
+    void setUp() {
+        presenceStore = new InMemoryPresenceStore();
+        userStatusService = new UserStatusService(messagingTemplate, presenceStore, "node-a", TTL_MS);
+    }
+
     @Test
     void handleSessionConnect_marksUserOnlineAndBroadcasts() {
         SessionConnectEvent event = new SessionConnectEvent(this, messageWithUser("42"));
 
         userStatusService.handleSessionConnect(event);
+        userStatusService.flushStatusChanges();
 
         assertThat(userStatusService.isOnline(42L)).isTrue();
-        ArgumentCaptor<UserStatusEvent> captor = ArgumentCaptor.forClass(UserStatusEvent.class);
-        verify(messagingTemplate).convertAndSend(eq("/topic/user-status"), captor.capture());
-        assertThat(captor.getValue().getUserId()).isEqualTo(42L);
-        assertThat(captor.getValue().getStatus()).isEqualTo("ONLINE");
+        assertThat(broadcast()).extracting(UserStatusEvent::getUserId, UserStatusEvent::getStatus)
+                .containsExactly(tuple(42L, "ONLINE"));
     }
 
     @Test
@@ -49,8 +61,72 @@ class UserStatusServiceTest {
         SessionDisconnectEvent disconnect = new SessionDisconnectEvent(this, messageWithUser("7"), "session-7", CloseStatus.NORMAL);
 
         userStatusService.handleSessionDisconnect(disconnect);
+        userStatusService.flushStatusChanges();
 
         assertThat(userStatusService.isOnline(7L)).isFalse();
+        // connect and disconnect in the same window coalesce into the latest status
+        assertThat(broadcast()).extracting(UserStatusEvent::getStatus).containsExactly("OFFLINE");
+    }
+
+    @Test
+    void handleSessionDisconnect_keepsUserOnlineWhileAnotherSessionIsOpen() {
+        userStatusService.handleSessionConnect(new SessionConnectEvent(this, messageWithUser("7")));
+        userStatusService.handleSessionConnect(new SessionConnectEvent(this, messageWithUser("7")));
+
+        userStatusService.handleSessionDisconnect(
+                new SessionDisconnectEvent(this, messageWithUser("7"), "tab-1", CloseStatus.NORMAL));
+
+        assertThat(userStatusService.isOnline(7L)).isTrue();
+    }
+
+    @Test
+    void handleSessionDisconnect_userStillConnectedToAnotherInstance_staysOnline() {
+        presenceStore.connected(7L, "node-b", System.currentTimeMillis());
+        userStatusService.heartbeat();
+        userStatusService.handleSessionConnect(new SessionConnectEvent(this, messageWithUser("7")));
+
+        userStatusService.handleSessionDisconnect(
+                new SessionDisconnectEvent(this, messageWithUser("7"), "session-7", CloseStatus.NORMAL));
+        userStatusService.flushStatusChanges();
+
+        assertThat(userStatusService.isOnline(7L)).isTrue();
+        verify(messagingTemplate, never()).convertAndSend(eq("/topic/user-status"), any(Object.class));
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void connectOnAnotherInstance_isBroadcastOnceAsAListByThatInstance() {
+        SimpMessagingTemplate nodeBTemplate = org.mockito.Mockito.mock(SimpMessagingTemplate.class);
+        UserStatusService nodeB = new UserStatusService(nodeBTemplate, presenceStore, "node-b", TTL_MS);
+
+        nodeB.handleSessionConnect(new SessionConnectEvent(this, messageWithUser("9")));
+        nodeB.flushStatusChanges();
+        userStatusService.heartbeat();
+        userStatusService.flushStatusChanges();
+
+        // node-b publishes the batch to the shared broker; node-a learns the user is online without re-broadcasting
+        ArgumentCaptor<Object> captor = ArgumentCaptor.forClass(Object.class);
+        verify(nodeBTemplate).convertAndSend(eq("/topic/user-status"), captor.capture());
+        assertThat(captor.getValue()).isInstanceOf(List.class);
+        assertThat((List<UserStatusEvent>) captor.getValue())
+                .extracting(UserStatusEvent::getUserId, UserStatusEvent::getStatus)
+                .containsExactly(tuple(9L, "ONLINE"));
+        assertThat(userStatusService.isOnline(9L)).isTrue();
+        verify(messagingTemplate, never()).convertAndSend(eq("/topic/user-status"), any(Object.class));
+    }
+
+    @Test
+    void heartbeat_expiresUsersOfAnInstanceThatStoppedBeating() {
+        presenceStore.connected(5L, "node-b", System.currentTimeMillis() - TTL_MS - 1);
+        userStatusService.handleSessionConnect(new SessionConnectEvent(this, messageWithUser("6")));
+
+        userStatusService.heartbeat();
+        userStatusService.flushStatusChanges();
+
+        assertThat(userStatusService.isOnline(5L)).isFalse();
+        assertThat(userStatusService.isOnline(6L)).isTrue();
+        assertThat(broadcast()).extracting(UserStatusEvent::getUserId, UserStatusEvent::getStatus)
+                .containsExactly(tuple(6L, "ONLINE"), tuple(5L, "OFFLINE"));
     }
 
     @Test
@@ -60,6 +136,13 @@ class UserStatusServiceTest {
         assertThat(userStatusService.getOnlineUsers()).isEmpty();
     }
 
+    @SuppressWarnings("unchecked")
+    private List<UserStatusEvent> broadcast() {
+        ArgumentCaptor<Object> captor = ArgumentCaptor.forClass(Object.class);
+        verify(messagingTemplate).convertAndSend(eq("/topic/user-status"), captor.capture());
+        return (List<UserStatusEvent>) captor.getValue();
+    }
+
     private Message<byte[]> messageWithUser(String principalName) {
         SimpMessageHeaderAccessor accessor = SimpMessageHeaderAccessor.create(SimpMessageType.CONNECT);
         accessor.setUser(new Principal() {
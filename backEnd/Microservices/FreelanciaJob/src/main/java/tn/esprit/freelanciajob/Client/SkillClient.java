@@ -5,6 +5,7 @@ import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestBody;
+import tn.esprit.freelanciajob.Dto.SkillCatalogVersion;
 import tn.esprit.freelanciajob.Dto.Skills;
 
 import java.util.List;
@@ -15,6 +16,9 @@ public interface SkillClient {
     @PostMapping("/api/skills/batch")
     List<Skills> getSkillsByIds(@RequestBody List<Long> ids);
 
+    @GetMapping("/api/skills/catalog/version")
+    SkillCatalogVersion getCatalogVersion();
+
     @GetMapping("/api/skills/user/{userId}")
     List<Skills> getSkillsByUserId(@PathVariable("userId") Long userId);
 }
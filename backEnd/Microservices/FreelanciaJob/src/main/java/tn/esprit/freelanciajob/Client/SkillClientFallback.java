@@ -1,6 +1,7 @@
 package tn.esprit.freelanciajob.Client;
 
 import org.springframework.stereotype.Component;
+import tn.esprit.freelanciajob.Dto.SkillCatalogVersion;
 import tn.esprit.freelanciajob.Dto.Skills;
 
 import java.util.Collections;
@@ -14,6 +15,11 @@ public class SkillClientFallback implements SkillClient {
         return Collections.emptyList();
     }
 
+    @Override
+    public SkillCatalogVersion getCatalogVersion() {
+        return null;
+    }
+
     @Override
     public List<Skills> getSkillsByUserId(Long userId) {
         return Collections.emptyList();
@@ -0,0 +1,164 @@
+package tn.esprit.freelanciajob.Client;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import tn.esprit.freelanciajob.Dto.SkillCatalogVersion;
+import tn.esprit.freelanciajob.Dto.Skills;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Local id → skill dictionary in front of {@link SkillClient}, so list and recommendation endpoints never call
+ * Portfolio once per row.
+ * <ul>
+ *   <li>{@link #resolve} serves known ids from memory and fetches every miss with one {@code POST /api/skills/batch};</li>
+ *   <li>at most every {@code skill.dictionary.poll-ms}, the Portfolio catalog version is read
+ *       ({@code GET /api/skills/catalog/version}) and the dictionary is dropped when it changed;</li>
+ *   <li>{@link #invalidate} lets local writers drop entries they know are stale.</li>
+ * </ul>
+ * Unknown ids and failed calls are not cached. If the version cannot be read, known entries are kept. A fetch that was
+ * in flight when the dictionary was dropped still answers its caller, but its skills are not cached.
+ */
+@Slf4j
+@Component
+public class SkillDictionary {
+
+    private final SkillClient skillClient;
+    private final long pollMs;
+    private final int maxEntries;
+
+    private final Map<Long, Skills> skills = new ConcurrentHashMap<>();
+    /** Bumped on every drop, under the lock of {@link #skills}; a fill only caches if it is unchanged since its fetch. */
+    private final AtomicLong generation = new AtomicLong();
+    private final AtomicBoolean checking = new AtomicBoolean();
+    private volatile String version;
+    private volatile long checkedAt;
+
+    public SkillDictionary(SkillClient skillClient,
+                           @Value("${skill.dictionary.poll-ms:30000}") long pollMs,
+                           @Value("${skill.dictionary.max-entries:20000}") int maxEntries) {
+        this.skillClient = skillClient;
+        this.pollMs = pollMs;
+        this.maxEntries = maxEntries;
+    }
+
+    /** Skills by id for the given ids (unknown ids are absent), with at most one remote call for all misses. */
+    public Map<Long, Skills> resolve(Collection<Long> ids) {
+        checkVersion();
+        Map<Long, Skills> result = new LinkedHashMap<>();
+        List<Long> missing = new ArrayList<>();
+        for (Long id : new LinkedHashSet<>(ids)) {
+            if (id == null) {
+                continue;
+            }
+            Skills known = skills.get(id);
+            if (known != null) {
+                result.put(id, known);
+            } else {
+                missing.add(id);
+            }
+        }
+        if (!missing.isEmpty()) {
+            fill(missing, result);
+        }
+        return result;
+    }
+
+    /** The skills of one row, in the row's id order. */
+    public List<Skills> skillsOf(List<Long> ids) {
+        if (ids == null || ids.isEmpty()) {
+            return List.of();
+        }
+        return pick(ids, resolve(ids));
+    }
+
+    /** The skills of one row, taken from a map already returned by {@link #resolve}. */
+    public static List<Skills> pick(List<Long> ids, Map<Long, Skills> resolved) {
+        if (ids == null || ids.isEmpty()) {
+            return List.of();
+        }
+        List<Skills> out = new ArrayList<>(ids.size());
+        for (Long id : ids) {
+            Skills s = resolved.get(id);
+            if (s != null) {
+                out.add(s);
+            }
+        }
+        return out;
+    }
+
+    /** Drops one skill, or the whole dictionary when {@code id} is null. */
+    public void invalidate(Long id) {
+        synchronized (skills) {
+            generation.incrementAndGet();
+            if (id == null) {
+                skills.clear();
+            } else {
+                skills.remove(id);
+            }
+        }
+    }
+
+    private void fill(List<Long> missing, Map<Long, Skills> result) {
+        long fetchedUnder = generation.get();
+        try {
+            List<Skills> fetched = skillClient.getSkillsByIds(missing);
+            if (fetched == null) {
+                return;
+            }
+            for (Skills s : fetched) {
+                if (s != null && s.getId() != null) {
+                    result.put(s.getId(), s);
+                }
+            }
+            synchronized (skills) {
+                if (generation.get() != fetchedUnder) {
+                    return;
+                }
+                if (skills.size() + fetched.size() > maxEntries) {
+                    skills.clear();
+                }
+                for (Skills s : fetched) {
+                    if (s != null && s.getId() != null) {
+                        skills.put(s.getId(), s);
+                    }
+                }
+            }
+        } catch (Exception e) {
+            log.debug("Could not load {} skill(s) from PORTFOLIO: {}", missing.size(), e.getMessage());
+        }
+    }
+
+    /** Only one caller polls at a time; the others keep using the current entries. */
+    private void checkVersion() {
+        long now = System.currentTimeMillis();
+        if (now - checkedAt < pollMs || !checking.compareAndSet(false, true)) {
+            return;
+        }
+        try {
+            SkillCatalogVersion current = skillClient.getCatalogVersion();
+            String v = current != null ? current.getVersion() : null;
+            if (v != null) {
+                if (version != null && !version.equals(v)) {
+                    log.debug("Skill catalog changed ({} -> {}), dropping {} cached skill(s)", version, v, skills.size());
+                    invalidate(null);
+                }
+                version = v;
+            }
+        } catch (Exception e) {
+            log.debug("Could not read the skill catalog version: {}", e.getMessage());
+        } finally {
+            checkedAt = now;
+            checking.set(false);
+        }
+    }
+}
@@ -3,8 +3,11 @@ package tn.esprit.freelanciajob.Client;
 import org.springframework.cloud.openfeign.FeignClient;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestParam;
 import tn.esprit.freelanciajob.Dto.response.UserDto;
+import tn.esprit.freelanciajob.Dto.response.UserPageDto;
 
 import java.util.List;
 
@@ -13,7 +16,8 @@ import java.util.List;
  *
  * Expected endpoints on the user service:
  *   GET /users/{id}                    → returns UserDto
- *   GET /users/by-role?role=FREELANCER → returns List<UserDto>
+ *   GET /users/page?role=&active=&after=&limit=&includeEmail= → returns one keyset page
+ *   POST /users/batch  [ids]           → returns List<UserDto> (unknown ids skipped, max 500)
  *
  * Adjust the path values to match what your user service actually exposes.
  */
@@ -24,9 +28,20 @@ public interface UserClient {
     UserDto getUserById(@PathVariable("id") Long id);
 
     /**
-     * Returns all users with the given role (e.g. "FREELANCER").
-     * Used to broadcast "new job posted" emails.
+     * Returns the users with the given ids in one call (at most 500).
+     * Prefer {@link UserDirectory}, which caches and batches these lookups.
      */
-    @GetMapping("/api/users/by-role")
-    List<UserDto> getUsersByRole(@RequestParam("role") String role);
+    @PostMapping("/api/users/batch")
+    List<UserDto> getUsersByIds(@RequestBody List<Long> ids);
+
+    /**
+     * Returns one keyset page of users (id order, at most 1000 per page).
+     * Used to broadcast "new job posted" emails without loading every freelancer at once.
+     */
+    @GetMapping("/api/users/page")
+    UserPageDto getUserPage(@RequestParam(value = "role", required = false) String role,
+                            @RequestParam(value = "active", required = false) Boolean active,
+                            @RequestParam(value = "after", required = false) Long after,
+                            @RequestParam("limit") int limit,
+                            @RequestParam("includeEmail") boolean includeEmail);
 }
@@ -3,6 +3,7 @@ package tn.esprit.freelanciajob.Client;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Component;
 import tn.esprit.freelanciajob.Dto.response.UserDto;
+import tn.esprit.freelanciajob.Dto.response.UserPageDto;
 
 import java.util.Collections;
 import java.util.List;
@@ -22,8 +23,14 @@ public class UserClientFallback implements UserClient {
     }
 
     @Override
-    public List<UserDto> getUsersByRole(String role) {
-        log.warn("UserClient fallback: cannot fetch users with role {}", role);
+    public List<UserDto> getUsersByIds(List<Long> ids) {
+        log.warn("UserClient fallback: cannot fetch {} user(s) by id", ids.size());
         return Collections.emptyList();
     }
+
+    @Override
+    public UserPageDto getUserPage(String role, Boolean active, Long after, int limit, boolean includeEmail) {
+        log.warn("UserClient fallback: cannot list users with role {} after {}", role, after);
+        return new UserPageDto(Collections.emptyList(), null);
+    }
 }
@@ -0,0 +1,14 @@
+package tn.esprit.freelanciajob.Config;
+
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.annotation.EnableScheduling;
+
+/**
+ * Activates @Scheduled support.
+ * Used by the job recommendation index, which is rebuilt from the database
+ * on startup and then every job.recommendation.refresh-ms.
+ */
+@Configuration
+@EnableScheduling
+public class SchedulingConfig {
+}
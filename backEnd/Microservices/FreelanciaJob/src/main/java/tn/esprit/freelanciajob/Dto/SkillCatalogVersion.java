@@ -0,0 +1,9 @@
+package tn.esprit.freelanciajob.Dto;
+
+import lombok.Data;
+
+/** Body of Portfolio {@code GET /api/skills/catalog/version}; changes whenever any skill is created, updated or deleted. */
+@Data
+public class SkillCatalogVersion {
+    private String version;
+}
@@ -0,0 +1,19 @@
+package tn.esprit.freelanciajob.Dto.projection;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+/** Columns of an open job needed by the recommendation index (constructor expression, no entity loading). */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class JobIndexRow {
+    private Long id;
+    private BigDecimal budgetMin;
+    private BigDecimal budgetMax;
+    private LocalDateTime createdAt;
+}
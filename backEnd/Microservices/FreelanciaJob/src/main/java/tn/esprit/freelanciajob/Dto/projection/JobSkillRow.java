@@ -0,0 +1,14 @@
+package tn.esprit.freelanciajob.Dto.projection;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/** One (job, required skill id) pair of the job_required_skills table. */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class JobSkillRow {
+    private Long jobId;
+    private Long skillId;
+}
@@ -0,0 +1,20 @@
+package tn.esprit.freelanciajob.Dto.response;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * One keyset page from the USER service listing (GET /api/users/page).
+ * {@code nextCursor} is passed back as {@code after}; it is null on the last page.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class UserPageDto {
+    private List<UserDto> items = new ArrayList<>();
+    private Long nextCursor;
+}
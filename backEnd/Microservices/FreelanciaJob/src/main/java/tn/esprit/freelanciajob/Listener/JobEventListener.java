@@ -9,6 +9,7 @@ import tn.esprit.freelanciajob.Client.NotificationClient;
 import tn.esprit.freelanciajob.Client.UserClient;
 import tn.esprit.freelanciajob.Dto.request.NotificationCreateRequest;
 import tn.esprit.freelanciajob.Dto.response.UserDto;
+import tn.esprit.freelanciajob.Dto.response.UserPageDto;
 import tn.esprit.freelanciajob.Entity.Job;
 import tn.esprit.freelanciajob.Entity.JobApplication;
 import tn.esprit.freelanciajob.Event.ApplicationAcceptedEvent;
@@ -17,7 +18,6 @@ import tn.esprit.freelanciajob.Event.JobCreatedEvent;
 import tn.esprit.freelanciajob.Service.EmailService;
 
 import java.util.HashMap;
-import java.util.List;
 import java.util.Map;
 
 /**
@@ -30,6 +30,8 @@ import java.util.Map;
 @RequiredArgsConstructor
 public class JobEventListener {
 
+    private static final int FREELANCER_PAGE_SIZE = 500;
+
     private final EmailService emailService;
     private final UserClient userClient;
     private final NotificationClient notificationClient;
@@ -42,32 +44,41 @@ public class JobEventListener {
         Job job = event.getJob();
         String clientName = event.getClientName();
 
-        List<UserDto> freelancers = userClient.getUsersByRole("FREELANCER");
-        if (freelancers.isEmpty()) {
-            log.warn("[JobEventListener] No freelancers found or USER service unavailable.");
-            return;
-        }
-
         String subject = "New Job Posted: " + job.getTitle();
 
-        for (UserDto freelancer : freelancers) {
-            if (freelancer.getEmail() == null) continue;
+        // Freelancers are read one keyset page at a time, so memory does not grow with the user base
+        int sent = 0;
+        Long after = null;
+        do {
+            UserPageDto page = userClient.getUserPage("FREELANCER", true, after, FREELANCER_PAGE_SIZE, true);
+            if (page == null || page.getItems() == null) {
+                break;
+            }
+            for (UserDto freelancer : page.getItems()) {
+                if (freelancer.getEmail() == null) continue;
 
-            Map<String, Object> vars = new HashMap<>();
-            vars.put("freelancerName", freelancer.getFirstName());
-            vars.put("jobTitle", job.getTitle());
-            vars.put("clientName", clientName);
-            vars.put("jobCategory", job.getCategory());
-            vars.put("jobLocation", job.getLocationType() != null ? job.getLocationType().name() : "N/A");
-            vars.put("budgetMin", job.getBudgetMin());
-            vars.put("budgetMax", job.getBudgetMax());
-            vars.put("currency", job.getCurrency());
-
-            emailService.sendHtmlEmail(freelancer.getEmail(), subject, "email/job-posted", vars);
-        }
+                Map<String, Object> vars = new HashMap<>();
+                vars.put("freelancerName", freelancer.getFirstName());
+                vars.put("jobTitle", job.getTitle());
+                vars.put("clientName", clientName);
+                vars.put("jobCategory", job.getCategory());
+                vars.put("jobLocation", job.getLocationType() != null ? job.getLocationType().name() : "N/A");
+                vars.put("budgetMin", job.getBudgetMin());
+                vars.put("budgetMax", job.getBudgetMax());
+                vars.put("currency", job.getCurrency());
+
+                emailService.sendHtmlEmail(freelancer.getEmail(), subject, "email/job-posted", vars);
+                sent++;
+            }
+            after = page.getNextCursor();
+        } while (after != null);
 
+        if (sent == 0) {
+            log.warn("[JobEventListener] No freelancers found or USER service unavailable.");
+            return;
+        }
         log.info("[JobEventListener] 'Job Created' emails queued for {} freelancers (job: {})",
-                freelancers.size(), job.getTitle());
+                sent, job.getTitle());
     }
 
     // ─── B. Application submitted → confirm to freelancer + notify client ───
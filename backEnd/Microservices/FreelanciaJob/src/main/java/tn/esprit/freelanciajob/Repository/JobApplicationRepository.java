@@ -2,6 +2,7 @@ package tn.esprit.freelanciajob.Repository;
 
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import tn.esprit.freelanciajob.Entity.JobApplication;
 
 import java.util.List;
@@ -20,4 +21,8 @@ public interface JobApplicationRepository extends JpaRepository<JobApplication,
     /** Number of distinct freelancers who have applied to at least one job. */
     @Query("SELECT COUNT(DISTINCT a.freelancerId) FROM JobApplication a")
     long countUniqueFreelancers();
+
+    /** Average rate the freelancer asked for in past applications (null when none); budget-fit reference. */
+    @Query("SELECT AVG(a.expectedRate) FROM JobApplication a WHERE a.freelancerId = :freelancerId AND a.expectedRate IS NOT NULL")
+    Double averageExpectedRate(@Param("freelancerId") Long freelancerId);
 }
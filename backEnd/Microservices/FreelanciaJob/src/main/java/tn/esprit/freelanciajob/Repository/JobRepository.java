@@ -1,15 +1,19 @@
 package tn.esprit.freelanciajob.Repository;
 
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import tn.esprit.freelanciajob.Dto.JobStats;
+import tn.esprit.freelanciajob.Dto.projection.JobIndexRow;
+import tn.esprit.freelanciajob.Dto.projection.JobSkillRow;
 import tn.esprit.freelanciajob.Dto.projection.MonthlyJobProjection;
 import tn.esprit.freelanciajob.Dto.projection.StatusCountProjection;
 import tn.esprit.freelanciajob.Entity.Job;
 import tn.esprit.freelanciajob.Entity.Enums.JobStatus;
 
+import java.util.Collection;
 import java.util.List;
 
 public interface JobRepository extends JpaRepository<Job, Long>, JpaSpecificationExecutor<Job> {
@@ -18,6 +22,20 @@ public interface JobRepository extends JpaRepository<Job, Long>, JpaSpecificatio
 
     List<Job> findByStatus(JobStatus status);
 
+    // ── Recommendation index ──────────────────────────────────────────────────
+
+    /** Jobs of the given status with id &gt; afterId, in id order (keyset paging for the index build). */
+    @Query("SELECT new tn.esprit.freelanciajob.Dto.projection.JobIndexRow(j.id, j.budgetMin, j.budgetMax, j.createdAt) " +
+           "FROM Job j WHERE j.status = :status AND j.id > :afterId ORDER BY j.id")
+    List<JobIndexRow> findIndexRowsAfterId(@Param("status") JobStatus status,
+                                           @Param("afterId") Long afterId,
+                                           Pageable pageable);
+
+    /** Required skill ids of the given jobs, in one query instead of one collection load per job. */
+    @Query("SELECT new tn.esprit.freelanciajob.Dto.projection.JobSkillRow(j.id, s) " +
+           "FROM Job j JOIN j.requiredSkillIds s WHERE j.id IN :jobIds")
+    List<JobSkillRow> findRequiredSkillRows(@Param("jobIds") Collection<Long> jobIds);
+
     @Query("SELECT j FROM Job j WHERE j.status = 'OPEN' AND (" +
            "(:keyword IS NULL OR LOWER(j.title) LIKE LOWER(CONCAT('%', :keyword, '%'))) OR " +
            "(:keyword IS NULL OR LOWER(j.description) LIKE LOWER(CONCAT('%', :keyword, '%'))))" +
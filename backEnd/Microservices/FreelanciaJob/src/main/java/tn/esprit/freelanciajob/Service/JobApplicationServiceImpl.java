@@ -9,7 +9,7 @@ import org.springframework.transaction.annotation.Transactional;
 import org.springframework.web.multipart.MultipartFile;
 import org.springframework.web.server.ResponseStatusException;
 import tn.esprit.freelanciajob.Dto.request.JobApplicationRequest;
-import tn.esprit.freelanciajob.Client.UserClient;
+import tn.esprit.freelanciajob.Client.UserDirectory;
 import tn.esprit.freelanciajob.Dto.response.ApplyJobResponse;
 import tn.esprit.freelanciajob.Dto.response.AttachmentResponse;
 import tn.esprit.freelanciajob.Dto.response.JobApplicationResponse;
@@ -30,6 +30,8 @@ import java.time.LocalDate;
 import java.util.ArrayList;
 import java.util.Collections;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
 import java.util.stream.Collectors;
 
 @Slf4j
@@ -42,7 +44,7 @@ public class JobApplicationServiceImpl implements IJobApplicationService {
     private final ApplicationAttachmentRepository attachmentRepository;
     private final FileStorageService            fileStorageService;
     private final ApplicationEventPublisher     eventPublisher;
-    private final UserClient                    userClient;
+    private final UserDirectory                 userDirectory;
 
     // ── Existing CRUD (unchanged behaviour) ──────────────────────────────────
 
@@ -99,18 +101,16 @@ public class JobApplicationServiceImpl implements IJobApplicationService {
 
     @Override
     public List<JobApplicationResponse> getAllApplications() {
-        return applicationRepository.findAll().stream()
+        return enrichFreelancerDisplay(applicationRepository.findAll().stream()
                 .map(JobMapper::toApplicationDto)
-                .map(this::enrichFreelancerDisplay)
-                .collect(Collectors.toList());
+                .collect(Collectors.toList()));
     }
 
     @Override
     public List<JobApplicationResponse> getApplicationsByJob(Long jobId) {
-        return applicationRepository.findByJobId(jobId).stream()
+        return enrichFreelancerDisplay(applicationRepository.findByJobId(jobId).stream()
                 .map(JobMapper::toApplicationDto)
-                .map(this::enrichFreelancerDisplay)
-                .collect(Collectors.toList());
+                .collect(Collectors.toList()));
     }
 
     @Override
@@ -233,16 +233,28 @@ public class JobApplicationServiceImpl implements IJobApplicationService {
         if (dto == null || dto.getFreelancerId() == null) {
             return dto;
         }
-        try {
-            UserDto u = userClient.getUserById(dto.getFreelancerId());
+        userDirectory.find(dto.getFreelancerId()).ifPresent(u -> applyFreelancer(dto, u));
+        return dto;
+    }
+
+    /** Same as above for a list, with one USER lookup for all freelancers instead of one per application. */
+    private List<JobApplicationResponse> enrichFreelancerDisplay(List<JobApplicationResponse> dtos) {
+        Map<Long, UserDto> users = userDirectory.findAll(dtos.stream()
+                .map(JobApplicationResponse::getFreelancerId)
+                .filter(Objects::nonNull)
+                .collect(Collectors.toList()));
+        for (JobApplicationResponse dto : dtos) {
+            UserDto u = users.get(dto.getFreelancerId());
             if (u != null) {
-                dto.setFreelancerFirstName(u.getFirstName());
-                dto.setFreelancerLastName(u.getLastName());
+                applyFreelancer(dto, u);
             }
-        } catch (Exception e) {
-            log.debug("Could not load freelancer display name for id {}: {}", dto.getFreelancerId(), e.getMessage());
         }
-        return dto;
+        return dtos;
+    }
+
+    private static void applyFreelancer(JobApplicationResponse dto, UserDto u) {
+        dto.setFreelancerFirstName(u.getFirstName());
+        dto.setFreelancerLastName(u.getLastName());
     }
 
     private AttachmentResponse toAttachmentResponse(ApplicationAttachment att) {
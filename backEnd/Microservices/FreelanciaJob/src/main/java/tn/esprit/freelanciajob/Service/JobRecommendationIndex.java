@@ -0,0 +1,510 @@
+package tn.esprit.freelanciajob.Service;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import tn.esprit.freelanciajob.Client.SkillDictionary;
+import tn.esprit.freelanciajob.Dto.Skills;
+import tn.esprit.freelanciajob.Dto.projection.JobIndexRow;
+import tn.esprit.freelanciajob.Dto.projection.JobSkillRow;
+import tn.esprit.freelanciajob.Entity.Enums.JobStatus;
+import tn.esprit.freelanciajob.Entity.Job;
+import tn.esprit.freelanciajob.Repository.JobRepository;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Consumer;
+
+/**
+ * In-memory inverted index of OPEN jobs for {@code GET /api/jobs/recommended}.
+ * <p>
+ * Each open job gets a dense slot holding its budget range, creation time and normalized required-skill names.
+ * Every skill name maps to a {@link BitSet} of the slots that require it, so a recommendation only touches jobs
+ * sharing at least one skill with the freelancer, whatever the number of open jobs. Candidates are scored by
+ * weighted skill coverage, budget fit and recency, and the best {@code k} are kept in a bounded min-heap.
+ * <p>
+ * {@link JobService} updates the index on create, update and delete, applied once the write has committed. It is
+ * built on startup and rebuilt every {@code job.recommendation.refresh-ms}, which also picks up writes of other
+ * instances, status changes made outside this service and skill renames. Updates that land while a rebuild is
+ * scanning are replayed onto the new index before it is swapped in.
+ */
+@Slf4j
+@Service
+public class JobRecommendationIndex {
+
+    private static final double LN2 = Math.log(2);
+    private static final double NEUTRAL = 0.5;
+
+    private final JobRepository jobRepository;
+    private final SkillDictionary skillDictionary;
+    private final int chunkSize;
+    private final double coverageWeight;
+    private final double budgetWeight;
+    private final double recencyWeight;
+    private final long halfLifeMs;
+
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+
+    /** Null until the first build completes. Guarded by {@link #lock}. */
+    private Columns columns;
+
+    /**
+     * Updates applied while a rebuild is scanning, replayed onto the new index before the swap (the scan may have
+     * read the row before the write committed and would otherwise lose it). Non-null only during {@link #refresh}.
+     * Guarded by {@link #lock}.
+     */
+    private List<Consumer<Columns>> pendingDuringRefresh;
+
+    /** One rebuild at a time (startup and the schedule can overlap). */
+    private final Object refreshMonitor = new Object();
+
+    public JobRecommendationIndex(JobRepository jobRepository,
+                                  SkillDictionary skillDictionary,
+                                  @Value("${job.recommendation.chunk-size:1000}") int chunkSize,
+                                  @Value("${job.recommendation.weight.coverage:0.6}") double coverageWeight,
+                                  @Value("${job.recommendation.weight.budget:0.25}") double budgetWeight,
+                                  @Value("${job.recommendation.weight.recency:0.15}") double recencyWeight,
+                                  @Value("${job.recommendation.recency-half-life-days:14}") long halfLifeDays) {
+        this.jobRepository = jobRepository;
+        this.skillDictionary = skillDictionary;
+        this.chunkSize = Math.max(1, chunkSize);
+        this.coverageWeight = coverageWeight;
+        this.budgetWeight = budgetWeight;
+        this.recencyWeight = recencyWeight;
+        this.halfLifeMs = Math.max(1, halfLifeDays) * 86_400_000L;
+    }
+
+    /** Rebuilds the index from the database (keyset chunks of open jobs) and swaps it in. */
+    @Scheduled(initialDelayString = "${job.recommendation.initial-delay-ms:0}",
+            fixedDelayString = "${job.recommendation.refresh-ms:300000}")
+    public void refresh() {
+        synchronized (refreshMonitor) {
+            setPending(new ArrayList<>());
+            try {
+                Columns fresh = new Columns(chunkSize);
+                long afterId = 0L;
+                while (true) {
+                    List<JobIndexRow> rows = jobRepository.findIndexRowsAfterId(
+                            JobStatus.OPEN, afterId, PageRequest.of(0, chunkSize));
+                    if (rows.isEmpty()) {
+                        break;
+                    }
+                    loadChunk(rows).forEach(fresh::put);
+                    if (rows.size() < chunkSize) {
+                        break;
+                    }
+                    afterId = rows.get(rows.size() - 1).getId();
+                }
+                int replayed;
+                lock.writeLock().lock();
+                try {
+                    replayed = pendingDuringRefresh.size();
+                    pendingDuringRefresh.forEach(action -> action.accept(fresh));
+                    columns = fresh;
+                } finally {
+                    lock.writeLock().unlock();
+                }
+                log.debug("Job recommendation index refreshed: {} open job(s), {} skill(s), {} update(s) replayed",
+                        fresh.liveCount(), fresh.postings.size(), replayed);
+            } catch (Exception e) {
+                log.warn("Job recommendation index refresh failed: {}", e.getMessage());
+            } finally {
+                setPending(null);
+            }
+        }
+    }
+
+    private void setPending(List<Consumer<Columns>> pending) {
+        lock.writeLock().lock();
+        try {
+            pendingDuringRefresh = pending;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public boolean isReady() {
+        lock.readLock().lock();
+        try {
+            return columns != null;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /** Adds, updates or removes the job depending on whether it is still OPEN, after commit. */
+    public void upsert(Job job) {
+        if (job == null || job.getId() == null) {
+            return;
+        }
+        if (job.getStatus() != JobStatus.OPEN) {
+            remove(job.getId());
+            return;
+        }
+        Row row = new Row(job.getId(), amount(job.getBudgetMin()), amount(job.getBudgetMax()),
+                millis(job.getCreatedAt()), skillNames(job.getRequiredSkillIds(),
+                skillDictionary.resolve(job.getRequiredSkillIds() != null ? job.getRequiredSkillIds() : List.of())));
+        AfterCommit.run(() -> write(c -> c.put(row)));
+    }
+
+    /** Drops the job, after commit. */
+    public void remove(Long jobId) {
+        if (jobId != null) {
+            AfterCommit.run(() -> write(c -> c.remove(jobId)));
+        }
+    }
+
+    private void write(Consumer<Columns> action) {
+        lock.writeLock().lock();
+        try {
+            if (columns != null) {
+                action.accept(columns);
+            }
+            if (pendingDuringRefresh != null) {
+                pendingDuringRefresh.add(action);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Ids of the {@code k} best open jobs for a freelancer, best first.
+     *
+     * @param skillNames   the freelancer's skill names; when empty every open job is ranked on budget and recency
+     *                     only, otherwise only jobs sharing at least one skill are candidates
+     * @param expectedRate the rate the freelancer usually asks for, or null when unknown (neutral budget fit)
+     */
+    public List<Long> recommend(Collection<String> skillNames, Double expectedRate, int k) {
+        Set<String> wanted = new LinkedHashSet<>();
+        for (String name : skillNames) {
+            String n = normalize(name);
+            if (n != null) {
+                wanted.add(n);
+            }
+        }
+        double rate = expectedRate != null && expectedRate > 0 ? expectedRate : Double.NaN;
+        long now = System.currentTimeMillis();
+        lock.readLock().lock();
+        try {
+            Columns c = columns;
+            if (c == null || k <= 0) {
+                return List.of();
+            }
+            TopK top = new TopK(k);
+            if (wanted.isEmpty()) {
+                for (int slot = c.live.nextSetBit(0); slot >= 0; slot = c.live.nextSetBit(slot + 1)) {
+                    top.offer(slot, score(c, slot, 0, rate, now), c.created[slot], c.jobIds[slot]);
+                }
+            } else {
+                int[] hits = new int[c.size];
+                BitSet candidates = new BitSet(c.size);
+                for (String name : wanted) {
+                    BitSet posting = c.postings.get(name);
+                    if (posting == null) {
+                        continue;
+                    }
+                    for (int slot = posting.nextSetBit(0); slot >= 0; slot = posting.nextSetBit(slot + 1)) {
+                        hits[slot]++;
+                    }
+                    candidates.or(posting);
+                }
+                for (int slot = candidates.nextSetBit(0); slot >= 0; slot = candidates.nextSetBit(slot + 1)) {
+                    top.offer(slot, score(c, slot, hits[slot], rate, now), c.created[slot], c.jobIds[slot]);
+                }
+            }
+            return top.drainBestFirst(c.jobIds);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private double score(Columns c, int slot, int hits, double rate, long now) {
+        int required = c.skillCount[slot];
+        double coverage = required > 0 ? Math.min(1.0, (double) hits / required) : 0.0;
+        double recency = c.created[slot] == Long.MIN_VALUE
+                ? 0.0
+                : Math.exp(-LN2 * Math.max(0, now - c.created[slot]) / halfLifeMs);
+        return coverageWeight * coverage
+                + budgetWeight * budgetFit(c.budgetMin[slot], c.budgetMax[slot], rate)
+                + recencyWeight * recency;
+    }
+
+    /** 1 when the freelancer's usual rate fits under the job's ceiling, decreasing as it exceeds it. */
+    static double budgetFit(double min, double max, double rate) {
+        double ceiling = !Double.isNaN(max) ? max : min;
+        if (Double.isNaN(rate) || Double.isNaN(ceiling) || ceiling <= 0) {
+            return NEUTRAL;
+        }
+        return rate <= ceiling ? 1.0 : ceiling / rate;
+    }
+
+    private List<Row> loadChunk(List<JobIndexRow> rows) {
+        List<Long> ids = rows.stream().map(JobIndexRow::getId).toList();
+        Map<Long, List<Long>> skillIds = new HashMap<>();
+        Set<Long> allSkillIds = new LinkedHashSet<>();
+        for (JobSkillRow r : jobRepository.findRequiredSkillRows(ids)) {
+            if (r.getSkillId() != null) {
+                skillIds.computeIfAbsent(r.getJobId(), x -> new ArrayList<>()).add(r.getSkillId());
+                allSkillIds.add(r.getSkillId());
+            }
+        }
+        Map<Long, Skills> skills = skillDictionary.resolve(allSkillIds);
+        List<Row> out = new ArrayList<>(rows.size());
+        for (JobIndexRow r : rows) {
+            out.add(new Row(r.getId(), amount(r.getBudgetMin()), amount(r.getBudgetMax()), millis(r.getCreatedAt()),
+                    skillNames(skillIds.get(r.getId()), skills)));
+        }
+        return out;
+    }
+
+    private static String[] skillNames(List<Long> ids, Map<Long, Skills> skills) {
+        if (ids == null || ids.isEmpty()) {
+            return new String[0];
+        }
+        Set<String> names = new LinkedHashSet<>();
+        for (Skills s : SkillDictionary.pick(ids, skills)) {
+            String n = normalize(s.getName());
+            if (n != null) {
+                names.add(n);
+            }
+        }
+        return names.toArray(new String[0]);
+    }
+
+    static String normalize(String skillName) {
+        if (skillName == null) {
+            return null;
+        }
+        String n = skillName.trim().toLowerCase(Locale.ROOT);
+        return n.isEmpty() ? null : n;
+    }
+
+    private static double amount(BigDecimal value) {
+        return value != null ? value.doubleValue() : Double.NaN;
+    }
+
+    private static long millis(LocalDateTime at) {
+        return at != null ? at.atZone(ZoneId.systemDefault()).toInstant().toEpochMilli() : Long.MIN_VALUE;
+    }
+
+    private record Row(long jobId, double budgetMin, double budgetMax, long created, String[] skills) {
+    }
+
+    /** Column store of open jobs plus the skill → slots postings. Not thread-safe; guarded by the outer lock. */
+    private static final class Columns {
+
+        long[] jobIds;
+        double[] budgetMin;
+        double[] budgetMax;
+        long[] created;
+        int[] skillCount;
+        String[][] skills;
+        /** High-water mark of used slots. */
+        int size;
+        final BitSet live = new BitSet();
+        final Map<Long, Integer> slotOf = new HashMap<>();
+        final Map<String, BitSet> postings = new HashMap<>();
+        private int[] free = new int[16];
+        private int freeCount;
+
+        Columns(int initialCapacity) {
+            int cap = Math.max(16, initialCapacity);
+            jobIds = new long[cap];
+            budgetMin = new double[cap];
+            budgetMax = new double[cap];
+            created = new long[cap];
+            skillCount = new int[cap];
+            skills = new String[cap][];
+        }
+
+        int liveCount() {
+            return slotOf.size();
+        }
+
+        void put(Row row) {
+            Integer existing = slotOf.get(row.jobId());
+            int slot;
+            if (existing != null) {
+                slot = existing;
+                unlink(slot);
+            } else {
+                slot = freeCount > 0 ? free[--freeCount] : size++;
+                ensureCapacity(slot + 1);
+                slotOf.put(row.jobId(), slot);
+            }
+            jobIds[slot] = row.jobId();
+            budgetMin[slot] = row.budgetMin();
+            budgetMax[slot] = row.budgetMax();
+            created[slot] = row.created();
+            skillCount[slot] = row.skills().length;
+            skills[slot] = row.skills();
+            for (String name : row.skills()) {
+                postings.computeIfAbsent(name, n -> new BitSet()).set(slot);
+            }
+            live.set(slot);
+        }
+
+        void remove(long jobId) {
+            Integer slot = slotOf.remove(jobId);
+            if (slot == null) {
+                return;
+            }
+            unlink(slot);
+            live.clear(slot);
+            skills[slot] = null;
+            if (freeCount == free.length) {
+                free = Arrays.copyOf(free, free.length * 2);
+            }
+            free[freeCount++] = slot;
+        }
+
+        private void unlink(int slot) {
+            String[] old = skills[slot];
+            if (old == null) {
+                return;
+            }
+            for (String name : old) {
+                BitSet posting = postings.get(name);
+                if (posting != null) {
+                    posting.clear(slot);
+                    if (posting.isEmpty()) {
+                        postings.remove(name);
+                    }
+                }
+            }
+        }
+
+        private void ensureCapacity(int needed) {
+            if (needed <= jobIds.length) {
+                return;
+            }
+            int cap = Math.max(needed, jobIds.length * 2);
+            jobIds = Arrays.copyOf(jobIds, cap);
+            budgetMin = Arrays.copyOf(budgetMin, cap);
+            budgetMax = Arrays.copyOf(budgetMax, cap);
+            created = Arrays.copyOf(created, cap);
+            skillCount = Arrays.copyOf(skillCount, cap);
+            skills = Arrays.copyOf(skills, cap);
+        }
+    }
+
+    /**
+     * Bounded min-heap of the best {@code k} slots. The root is the weakest kept entry, so each candidate costs at
+     * most one comparison plus a log(k) sift. Ties go to the newer job, then to the higher id.
+     */
+    private static final class TopK {
+
+        private final int k;
+        private final int[] slots;
+        private final double[] scores;
+        private final long[] created;
+        private final long[] ids;
+        private int n;
+
+        TopK(int k) {
+            this.k = k;
+            this.slots = new int[k];
+            this.scores = new double[k];
+            this.created = new long[k];
+            this.ids = new long[k];
+        }
+
+        void offer(int slot, double score, long createdAt, long id) {
+            if (n < k) {
+                set(n, slot, score, createdAt, id);
+                siftUp(n++);
+            } else if (better(score, createdAt, id, 0)) {
+                set(0, slot, score, createdAt, id);
+                siftDown(0);
+            }
+        }
+
+        List<Long> drainBestFirst(long[] jobIds) {
+            Long[] out = new Long[n];
+            for (int i = n - 1; i >= 0; i--) {
+                out[i] = jobIds[slots[0]];
+                n--;
+                move(n, 0);
+                siftDown(0);
+            }
+            return Arrays.asList(out);
+        }
+
+        /** Whether (score, createdAt, id) ranks above the entry at heap position {@code i}. */
+        private boolean better(double score, long createdAt, long id, int i) {
+            if (score != scores[i]) {
+                return score > scores[i];
+            }
+            if (createdAt != created[i]) {
+                return createdAt > created[i];
+            }
+            return id > ids[i];
+        }
+
+        private void siftUp(int i) {
+            while (i > 0) {
+                int parent = (i - 1) / 2;
+                if (!better(scores[parent], created[parent], ids[parent], i)) {
+                    break;
+                }
+                swap(i, parent);
+                i = parent;
+            }
+        }
+
+        private void siftDown(int i) {
+            while (true) {
+                int left = 2 * i + 1;
+                if (left >= n) {
+                    return;
+                }
+                int weakest = left;
+                int right = left + 1;
+                if (right < n && better(scores[weakest], created[weakest], ids[weakest], right)) {
+                    weakest = right;
+                }
+                if (!better(scores[i], created[i], ids[i], weakest)) {
+                    return;
+                }
+                swap(i, weakest);
+                i = weakest;
+            }
+        }
+
+        private void set(int i, int slot, double score, long createdAt, long id) {
+            slots[i] = slot;
+            scores[i] = score;
+            created[i] = createdAt;
+            ids[i] = id;
+        }
+
+        private void move(int from, int to) {
+            set(to, slots[from], scores[from], created[from], ids[from]);
+        }
+
+        private void swap(int a, int b) {
+            int s = slots[a];
+            double sc = scores[a];
+            long c = created[a];
+            long id = ids[a];
+            move(b, a);
+            set(b, s, sc, c, id);
+        }
+    }
+}
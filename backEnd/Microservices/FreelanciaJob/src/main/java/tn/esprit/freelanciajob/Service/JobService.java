@@ -7,6 +7,7 @@ import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Sort;
 import org.springframework.stereotype.Service;
 import tn.esprit.freelanciajob.Client.SkillClient;
+import tn.esprit.freelanciajob.Client.SkillDictionary;
 import tn.esprit.freelanciajob.Client.UserClient;
 import tn.esprit.freelanciajob.Dto.JobStats;
 import tn.esprit.freelanciajob.Dto.Skills;
@@ -18,6 +19,7 @@ import tn.esprit.freelanciajob.Entity.Job;
 import tn.esprit.freelanciajob.Entity.Enums.JobStatus;
 import tn.esprit.freelanciajob.Event.JobCreatedEvent;
 import tn.esprit.freelanciajob.Mapper.JobMapper;
+import tn.esprit.freelanciajob.Repository.JobApplicationRepository;
 import tn.esprit.freelanciajob.Repository.JobRepository;
 import tn.esprit.freelanciajob.Specification.JobSpecification;
 
@@ -29,15 +31,23 @@ import java.util.stream.Collectors;
 @RequiredArgsConstructor
 public class JobService implements IJobService {
 
+    private static final int RECOMMENDATION_LIMIT = 6;
+    /** Ids asked of the index per recommendation; the extra ones cover jobs closed since its last refresh. */
+    private static final int RECOMMENDATION_CANDIDATES = RECOMMENDATION_LIMIT * 2;
+
     private final JobRepository jobRepository;
     private final SkillClient skillClient;
+    private final SkillDictionary skillDictionary;
     private final UserClient userClient;
     private final ApplicationEventPublisher eventPublisher;
+    private final JobRecommendationIndex recommendationIndex;
+    private final JobApplicationRepository jobApplicationRepository;
 
     @Override
     public Job addJob(JobRequest request) {
         Job job = JobMapper.toEntity(request);
         Job saved = jobRepository.save(job);
+        recommendationIndex.upsert(saved);
 
         // Resolve the client's display name (graceful fallback if USER service is down)
         String clientName = "A Client";
@@ -80,7 +90,9 @@ public class JobService implements IJobService {
         if (request.getRequiredSkillIds() != null) {
             existing.setRequiredSkillIds(request.getRequiredSkillIds());
         }
-        return jobRepository.save(existing);
+        Job saved = jobRepository.save(existing);
+        recommendationIndex.upsert(saved);
+        return saved;
     }
 
     @Override
@@ -89,6 +101,7 @@ public class JobService implements IJobService {
             throw new RuntimeException("Job not found with id: " + id);
         }
         jobRepository.deleteById(id);
+        recommendationIndex.remove(id);
     }
 
     @Override
@@ -100,7 +113,9 @@ public class JobService implements IJobService {
     @Override
     public JobResponse getJobResponse(Long id) {
         Job job = getJobById(id);
-        return enrichWithSkills(job);
+        JobResponse dto = JobMapper.toDto(job);
+        dto.setSkills(skillDictionary.skillsOf(job.getRequiredSkillIds()));
+        return dto;
     }
 
     @Override
@@ -110,16 +125,12 @@ public class JobService implements IJobService {
 
     @Override
     public List<JobResponse> getAllJobResponses() {
-        return jobRepository.findAll().stream()
-                .map(this::enrichWithSkills)
-                .collect(Collectors.toList());
+        return enrichWithSkills(jobRepository.findAll());
     }
 
     @Override
     public List<JobResponse> getJobsByClientId(Long clientId) {
-        return jobRepository.findByClientId(clientId).stream()
-                .map(this::enrichWithSkills)
-                .collect(Collectors.toList());
+        return enrichWithSkills(jobRepository.findByClientId(clientId));
     }
 
     @Override
@@ -131,27 +142,34 @@ public class JobService implements IJobService {
                 .map(String::toLowerCase)
                 .collect(Collectors.toSet());
 
+        if (recommendationIndex.isReady()) {
+            // Best jobs by skill coverage, budget fit and recency; only the winners are loaded
+            List<Long> ids = recommendationIndex.recommend(skillNames,
+                    jobApplicationRepository.averageExpectedRate(freelancerId), RECOMMENDATION_CANDIDATES);
+            Map<Long, Job> byId = jobRepository.findAllById(ids).stream()
+                    .collect(Collectors.toMap(Job::getId, job -> job));
+            return enrichWithSkills(ids.stream()
+                    .map(byId::get)
+                    .filter(job -> job != null && job.getStatus() == JobStatus.OPEN)
+                    .limit(RECOMMENDATION_LIMIT)
+                    .collect(Collectors.toList()));
+        }
+
+        // Until the first index build completes: first matches among all open jobs
         List<Job> openJobs = jobRepository.findByStatus(JobStatus.OPEN);
 
         if (skillNames.isEmpty()) {
-            return openJobs.stream()
-                    .limit(6)
-                    .map(this::enrichWithSkills)
-                    .collect(Collectors.toList());
+            return enrichWithSkills(openJobs.stream().limit(RECOMMENDATION_LIMIT).collect(Collectors.toList()));
         }
 
+        // Every required skill of every open job, resolved once through the local dictionary
+        Map<Long, Skills> skills = skillDictionary.resolve(requiredSkillIds(openJobs));
         return openJobs.stream()
-                .filter(job -> {
-                    if (job.getRequiredSkillIds() == null || job.getRequiredSkillIds().isEmpty()) {
-                        return false;
-                    }
-                    List<Skills> jobSkills = skillClient.getSkillsByIds(job.getRequiredSkillIds());
-                    return jobSkills.stream()
-                            .anyMatch(s -> s.getName() != null &&
-                                    skillNames.contains(s.getName().toLowerCase()));
-                })
-                .limit(6)
-                .map(this::enrichWithSkills)
+                .filter(job -> SkillDictionary.pick(job.getRequiredSkillIds(), skills).stream()
+                        .anyMatch(s -> s.getName() != null &&
+                                skillNames.contains(s.getName().toLowerCase())))
+                .limit(RECOMMENDATION_LIMIT)
+                .map(job -> toResponse(job, skills))
                 .collect(Collectors.toList());
     }
 
@@ -170,9 +188,7 @@ public class JobService implements IJobService {
                     .collect(Collectors.toList());
         }
 
-        return results.stream()
-                .map(this::enrichWithSkills)
-                .collect(Collectors.toList());
+        return enrichWithSkills(results);
     }
 
     @Override
@@ -199,19 +215,29 @@ public class JobService implements IJobService {
                 ? Sort.by(request.getSortBy()).ascending()
                 : Sort.by(request.getSortBy()).descending();
         PageRequest pageable = PageRequest.of(request.getPage(), request.getSize(), sort);
-        return jobRepository
-                .findAll(JobSpecification.build(request), pageable)
-                .map(this::enrichWithSkills);
+        Page<Job> page = jobRepository.findAll(JobSpecification.build(request), pageable);
+        Map<Long, Skills> skills = skillDictionary.resolve(requiredSkillIds(page.getContent()));
+        return page.map(job -> toResponse(job, skills));
+    }
+
+    /** Maps jobs to responses with their skills, resolving all skill ids of the list in one dictionary lookup. */
+    private List<JobResponse> enrichWithSkills(List<Job> jobs) {
+        Map<Long, Skills> skills = skillDictionary.resolve(requiredSkillIds(jobs));
+        return jobs.stream()
+                .map(job -> toResponse(job, skills))
+                .collect(Collectors.toList());
     }
 
-    private JobResponse enrichWithSkills(Job job) {
+    private JobResponse toResponse(Job job, Map<Long, Skills> skills) {
         JobResponse dto = JobMapper.toDto(job);
-        if (job.getRequiredSkillIds() != null && !job.getRequiredSkillIds().isEmpty()) {
-            List<Skills> skills = skillClient.getSkillsByIds(job.getRequiredSkillIds());
-            dto.setSkills(skills);
-        } else {
-            dto.setSkills(Collections.emptyList());
-        }
+        dto.setSkills(SkillDictionary.pick(job.getRequiredSkillIds(), skills));
         return dto;
     }
+
+    private static Set<Long> requiredSkillIds(Collection<Job> jobs) {
+        return jobs.stream()
+                .filter(job -> job.getRequiredSkillIds() != null)
+                .flatMap(job -> job.getRequiredSkillIds().stream())
+                .collect(Collectors.toSet());
+    }
 }
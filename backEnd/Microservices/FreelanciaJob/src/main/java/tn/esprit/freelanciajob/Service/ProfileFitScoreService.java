@@ -16,6 +16,7 @@ import org.springframework.web.server.ResponseStatusException;
 import org.springframework.http.HttpStatus;
 import tn.esprit.freelanciajob.Client.ExperienceClient;
 import tn.esprit.freelanciajob.Client.SkillClient;
+import tn.esprit.freelanciajob.Client.SkillDictionary;
 import tn.esprit.freelanciajob.Dto.ExperienceDto;
 import tn.esprit.freelanciajob.Dto.Skills;
 import tn.esprit.freelanciajob.Dto.response.FitScoreResponse;
@@ -41,6 +42,7 @@ public class ProfileFitScoreService {
 
     private final JobRepository jobRepository;
     private final SkillClient skillClient;
+    private final SkillDictionary skillDictionary;
     private final ExperienceClient experienceClient;
     private final ObjectMapper objectMapper;
 
@@ -352,7 +354,7 @@ public class ProfileFitScoreService {
         try {
             List<Long> ids = job.getRequiredSkillIds();
             if (ids != null && !ids.isEmpty()) {
-                List<Skills> required = skillClient.getSkillsByIds(ids);
+                List<Skills> required = skillDictionary.skillsOf(ids);
                 if (required != null && !required.isEmpty()) {
                     return normalizeSkills(required);
                 }
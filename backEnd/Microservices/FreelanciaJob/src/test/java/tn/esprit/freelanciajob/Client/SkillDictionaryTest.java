@@ -0,0 +1,116 @@
+package tn.esprit.freelanciajob.Client;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import tn.esprit.freelanciajob.Dto.SkillCatalogVersion;
+import tn.esprit.freelanciajob.Dto.Skills;
+
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * Unit tests for {@link SkillDictionary}: one batch call for all misses, hits served locally, entries dropped when
+ * the catalog version changes and kept when it cannot be read.
+ */
+@ExtendWith(MockitoExtension.class)
+@DisplayName("SkillDictionary – Unit Tests")
+class SkillDictionaryTest {
+
+    @Mock private SkillClient skillClient;
+
+    private static Skills skill(Long id, String name) {
+        Skills s = new Skills();
+        s.setId(id);
+        s.setName(name);
+        return s;
+    }
+
+    private static SkillCatalogVersion version(String v) {
+        SkillCatalogVersion version = new SkillCatalogVersion();
+        version.setVersion(v);
+        return version;
+    }
+
+    @Test
+    @DisplayName("misses are fetched in one batch call, then served from memory")
+    void resolve_batchesMissesAndCachesThem() {
+        SkillDictionary dictionary = new SkillDictionary(skillClient, 600_000L, 1_000);
+        when(skillClient.getCatalogVersion()).thenReturn(version("1"));
+        when(skillClient.getSkillsByIds(List.of(1L, 2L))).thenReturn(List.of(skill(1L, "Java"), skill(2L, "SQL")));
+
+        Map<Long, Skills> first = dictionary.resolve(List.of(1L, 2L, 1L));
+        List<Skills> second = dictionary.skillsOf(List.of(2L, 1L));
+
+        assertThat(first).containsOnlyKeys(1L, 2L);
+        assertThat(second).extracting(Skills::getName).containsExactly("SQL", "Java");
+        verify(skillClient, times(1)).getSkillsByIds(anyList());
+    }
+
+    @Test
+    @DisplayName("a new catalog version drops the cached skills")
+    void resolve_versionChange_refetches() {
+        SkillDictionary dictionary = new SkillDictionary(skillClient, 0L, 1_000);
+        when(skillClient.getCatalogVersion()).thenReturn(version("1"), version("2"));
+        when(skillClient.getSkillsByIds(List.of(1L)))
+                .thenReturn(List.of(skill(1L, "Java")), List.of(skill(1L, "Java 21")));
+
+        dictionary.resolve(List.of(1L));
+        Map<Long, Skills> after = dictionary.resolve(List.of(1L));
+
+        assertThat(after.get(1L).getName()).isEqualTo("Java 21");
+        verify(skillClient, times(2)).getSkillsByIds(anyList());
+    }
+
+    @Test
+    @DisplayName("an unreadable version keeps the cached skills; unknown ids are not cached")
+    void resolve_versionUnavailable_keepsEntries() {
+        SkillDictionary dictionary = new SkillDictionary(skillClient, 0L, 1_000);
+        when(skillClient.getCatalogVersion()).thenReturn(null);
+        when(skillClient.getSkillsByIds(List.of(1L, 9L))).thenReturn(List.of(skill(1L, "Java")));
+        when(skillClient.getSkillsByIds(List.of(9L))).thenReturn(List.of());
+
+        dictionary.resolve(List.of(1L, 9L));
+        Map<Long, Skills> again = dictionary.resolve(List.of(1L, 9L));
+
+        assertThat(again).containsOnlyKeys(1L);
+        verify(skillClient).getSkillsByIds(List.of(9L));
+    }
+
+    @Test
+    @DisplayName("a fetch in flight across a version change answers its caller but is not cached")
+    void resolve_versionChangeDuringFetch_discardsTheStaleFill() {
+        SkillDictionary dictionary = new SkillDictionary(skillClient, 600_000L, 1_000);
+        when(skillClient.getCatalogVersion()).thenReturn(version("1"));
+        when(skillClient.getSkillsByIds(List.of(1L))).thenAnswer(inv -> {
+            dictionary.invalidate(null); // the catalog moved on while Portfolio answered with the old skill
+            return List.of(skill(1L, "Java"));
+        }).thenReturn(List.of(skill(1L, "Java 21")));
+
+        Map<Long, Skills> first = dictionary.resolve(List.of(1L));
+        Map<Long, Skills> second = dictionary.resolve(List.of(1L));
+
+        assertThat(first.get(1L).getName()).isEqualTo("Java");
+        assertThat(second.get(1L).getName()).isEqualTo("Java 21");
+        verify(skillClient, times(2)).getSkillsByIds(anyList());
+    }
+
+    @Test
+    @DisplayName("empty id lists never reach Portfolio")
+    void skillsOf_emptyIds_noCall() {
+        SkillDictionary dictionary = new SkillDictionary(skillClient, 600_000L, 1_000);
+
+        assertThat(dictionary.skillsOf(List.of())).isEmpty();
+        verify(skillClient, never()).getSkillsByIds(anyList());
+        verify(skillClient, never()).getCatalogVersion();
+    }
+}
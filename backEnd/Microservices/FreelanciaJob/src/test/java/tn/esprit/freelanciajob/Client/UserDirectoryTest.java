@@ -0,0 +1,117 @@
+package tn.esprit.freelanciajob.Client;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import tn.esprit.freelanciajob.Dto.response.UserDto;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * Unit tests for {@link UserDirectory}: one batch call per list, TTL cache, micro-batching of concurrent single
+ * lookups and no caching of failures.
+ */
+@ExtendWith(MockitoExtension.class)
+@DisplayName("UserDirectory – Unit Tests")
+class UserDirectoryTest {
+
+    @Mock private UserClient userClient;
+
+    private UserDirectory directory;
+
+    @BeforeEach
+    void setUp() {
+        directory = new UserDirectory(userClient, 600_000, 1_000, 50, 500);
+    }
+
+    @AfterEach
+    void tearDown() {
+        directory.stop();
+    }
+
+    private static UserDto user(Long id) {
+        UserDto user = new UserDto();
+        user.setId(id);
+        user.setFirstName("First" + id);
+        user.setLastName("Last" + id);
+        return user;
+    }
+
+    private void answerWithRequestedUsers() {
+        when(userClient.getUsersByIds(anyList())).thenAnswer(inv -> {
+            List<Long> ids = inv.getArgument(0);
+            return ids.stream().filter(id -> id != 99L).map(UserDirectoryTest::user).toList();
+        });
+    }
+
+    @Test
+    @DisplayName("findAll() – should resolve all misses in one call and serve repeats from the cache")
+    void findAll_oneCallThenCached() {
+        answerWithRequestedUsers();
+
+        var first = directory.findAll(List.of(1L, 2L, 1L, 99L));
+        var second = directory.findAll(List.of(2L, 1L));
+
+        assertThat(first).containsOnlyKeys(1L, 2L);
+        assertThat(second.get(2L).getFirstName()).isEqualTo("First2");
+        verify(userClient, times(1)).getUsersByIds(anyList());
+        verify(userClient, never()).getUserById(any());
+    }
+
+    @Test
+    @DisplayName("find() – concurrent single lookups should share one batch call")
+    void find_concurrentLookupsAreMicroBatched() throws Exception {
+        answerWithRequestedUsers();
+        ExecutorService pool = Executors.newFixedThreadPool(4);
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<Optional<UserDto>>> results = new ArrayList<>();
+        try {
+            for (long id = 1; id <= 4; id++) {
+                long userId = id;
+                results.add(pool.submit(() -> {
+                    start.await();
+                    return directory.find(userId);
+                }));
+            }
+            start.countDown();
+            for (Future<Optional<UserDto>> r : results) {
+                assertThat(r.get()).isPresent();
+            }
+        } finally {
+            pool.shutdownNow();
+        }
+
+        verify(userClient, times(1)).getUsersByIds(anyList());
+    }
+
+    @Test
+    @DisplayName("find() – a failed call should return nothing and not be cached")
+    void find_failureIsNotCached() {
+        when(userClient.getUsersByIds(anyList()))
+                .thenThrow(new RuntimeException("down"))
+                .thenReturn(List.of(user(1L)));
+
+        assertThat(directory.find(1L)).isEmpty();
+        assertThat(directory.find(1L)).map(UserDto::getLastName).contains("Last1");
+        assertThat(directory.find(1L)).isPresent();
+        verify(userClient, times(2)).getUsersByIds(anyList());
+    }
+}
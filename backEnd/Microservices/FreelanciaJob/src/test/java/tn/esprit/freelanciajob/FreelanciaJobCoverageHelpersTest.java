@@ -29,7 +29,8 @@ class FreelanciaJobCoverageHelpersTest {
     void fallbacksReturnSafeDefaults() {
         UserClientFallback userFallback = new UserClientFallback();
         assertThat(userFallback.getUserById(1L)).isNull();
-        assertThat(userFallback.getUsersByRole("ADMIN")).isEmpty();
+        assertThat(userFallback.getUserPage("ADMIN", true, null, 100, false).getItems()).isEmpty();
+        assertThat(userFallback.getUsersByIds(java.util.List.of(1L))).isEmpty();
 
         SkillClientFallback skillFallback = new SkillClientFallback();
         assertThat(skillFallback.getSkillsByIds(java.util.List.of(1L, 2L))).isEmpty();
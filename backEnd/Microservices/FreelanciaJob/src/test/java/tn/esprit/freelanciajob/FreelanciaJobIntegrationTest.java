@@ -20,6 +20,7 @@ import tn.esprit.freelanciajob.Client.UserClient;
 import tn.esprit.freelanciajob.Dto.request.NotificationCreateRequest;
 import tn.esprit.freelanciajob.Dto.request.JobRequest;
 import tn.esprit.freelanciajob.Dto.response.UserDto;
+import tn.esprit.freelanciajob.Dto.response.UserPageDto;
 import tn.esprit.freelanciajob.Entity.Job;
 import tn.esprit.freelanciajob.Entity.Enums.ClientType;
 import tn.esprit.freelanciajob.Entity.Enums.JobStatus;
@@ -79,7 +80,8 @@ class FreelanciaJobIntegrationTest {
         user.setLastName("Smith");
         user.setEmail("alice@test.com");
         lenient().when(userClient.getUserById(any())).thenReturn(user);
-        lenient().when(userClient.getUsersByRole(any())).thenReturn(List.of());
+        lenient().when(userClient.getUserPage(any(), any(), any(), anyInt(), anyBoolean()))
+                .thenReturn(new UserPageDto(List.of(), null));
         lenient().when(skillClient.getSkillsByIds(any())).thenReturn(List.of());
         lenient().when(skillClient.getSkillsByUserId(any())).thenReturn(List.of());
         lenient().when(notificationClient.create(any(NotificationCreateRequest.class)))
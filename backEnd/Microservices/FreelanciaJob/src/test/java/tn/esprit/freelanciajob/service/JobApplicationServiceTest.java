@@ -10,7 +10,7 @@ import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
 import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.web.multipart.MultipartFile;
-import tn.esprit.freelanciajob.Client.UserClient;
+import tn.esprit.freelanciajob.Client.UserDirectory;
 import tn.esprit.freelanciajob.Dto.request.JobApplicationRequest;
 import tn.esprit.freelanciajob.Dto.response.UserDto;
 import tn.esprit.freelanciajob.Dto.response.ApplyJobResponse;
@@ -32,8 +32,11 @@ import tn.esprit.freelanciajob.Service.JobApplicationServiceImpl;
 
 import java.math.BigDecimal;
 import java.time.LocalDate;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
+import java.util.function.Function;
+import java.util.stream.Collectors;
 
 import static org.assertj.core.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.*;
@@ -54,7 +57,7 @@ class JobApplicationServiceTest {
     @Mock private ApplicationAttachmentRepository attachmentRepository;
     @Mock private FileStorageService            fileStorageService;
     @Mock private ApplicationEventPublisher     eventPublisher;
-    @Mock private UserClient                    userClient;
+    @Mock private UserDirectory                 userDirectory;
 
     @InjectMocks
     private JobApplicationServiceImpl applicationService;
@@ -64,7 +67,9 @@ class JobApplicationServiceTest {
         UserDto u = new UserDto();
         u.setFirstName("Jane");
         u.setLastName("Doe");
-        lenient().when(userClient.getUserById(anyLong())).thenReturn(u);
+        lenient().when(userDirectory.find(anyLong())).thenReturn(Optional.of(u));
+        lenient().when(userDirectory.findAll(any())).thenAnswer(inv -> inv.<Collection<Long>>getArgument(0).stream()
+                .distinct().collect(Collectors.toMap(Function.identity(), id -> u)));
     }
 
     // ── Shared fixtures ───────────────────────────────────────────────────────
@@ -430,6 +435,8 @@ class JobApplicationServiceTest {
         assertThat(result.get(0).getJobId()).isEqualTo(JOB_ID);
         assertThat(result.get(0).getFreelancerFirstName()).isEqualTo("Jane");
         assertThat(result.get(0).getFreelancerLastName()).isEqualTo("Doe");
+        verify(userDirectory).findAll(List.of(FREELANCER_ID));
+        verify(userDirectory, never()).find(any());
     }
 
     @Test
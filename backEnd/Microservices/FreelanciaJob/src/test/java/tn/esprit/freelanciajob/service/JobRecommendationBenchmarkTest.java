@@ -0,0 +1,192 @@
+package tn.esprit.freelanciajob.service;
+
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.data.domain.Pageable;
+import tn.esprit.freelanciajob.Client.SkillDictionary;
+import tn.esprit.freelanciajob.Dto.Skills;
+import tn.esprit.freelanciajob.Dto.projection.JobIndexRow;
+import tn.esprit.freelanciajob.Dto.projection.JobSkillRow;
+import tn.esprit.freelanciajob.Entity.Enums.JobStatus;
+import tn.esprit.freelanciajob.Repository.JobRepository;
+import tn.esprit.freelanciajob.Service.JobRecommendationIndex;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * Recommendation latency at 100k open jobs, all in memory:
+ * <ul>
+ *   <li>first six: the former scan (walk open jobs, look each job's skills up, stop at six matches), unranked;</li>
+ *   <li>full scan: what ranking the best six costs without an index (score every open job);</li>
+ *   <li>index: {@link JobRecommendationIndex#recommend} (skill postings, weighted score, top-k heap).</li>
+ * </ul>
+ * The former scan made one remote skill call per job, which is left out here, so its real cost was far higher.
+ * <p>
+ * Too slow for every build; run with {@code mvn test -Dbenchmark=true -Dtest=JobRecommendationBenchmarkTest}
+ * ({@code -Djob.benchmark.jobs=N} changes the number of open jobs).
+ */
+@Tag("benchmark")
+@EnabledIfSystemProperty(named = "benchmark", matches = "true")
+class JobRecommendationBenchmarkTest {
+
+    private static final Logger log = LoggerFactory.getLogger(JobRecommendationBenchmarkTest.class);
+
+    private static final int SKILLS = 500;
+    private static final int WARMUP = 200;
+    private static final int QUERIES = 2_000;
+
+    @Test
+    void recommend_indexVersusLinearScan() {
+        int jobs = Integer.getInteger("job.benchmark.jobs", 100_000);
+        Random random = new Random(42);
+        LocalDateTime now = LocalDateTime.now();
+
+        Map<Long, Skills> catalog = new HashMap<>();
+        for (long id = 1; id <= SKILLS; id++) {
+            Skills s = new Skills();
+            s.setId(id);
+            s.setName("Skill " + id);
+            catalog.put(id, s);
+        }
+        List<JobIndexRow> rows = new ArrayList<>(jobs);
+        Map<Long, List<Long>> required = new HashMap<>();
+        for (long id = 1; id <= jobs; id++) {
+            rows.add(new JobIndexRow(id, null, BigDecimal.valueOf(100 + random.nextInt(5_000)),
+                    now.minusMinutes(random.nextInt(60 * 24 * 90))));
+            List<Long> ids = new ArrayList<>();
+            for (int i = 0, n = 2 + random.nextInt(5); i < n; i++) {
+                long skillId = 1 + skewed(random);
+                ids.add(skillId);
+            }
+            required.put(id, ids);
+        }
+
+        JobRepository repository = mock(JobRepository.class);
+        when(repository.findIndexRowsAfterId(eq(JobStatus.OPEN), anyLong(), any())).thenAnswer(inv -> {
+            long afterId = inv.getArgument(1);
+            int size = inv.<Pageable>getArgument(2).getPageSize();
+            int from = (int) Math.min(afterId, rows.size());
+            return rows.subList(from, Math.min(rows.size(), from + size));
+        });
+        when(repository.findRequiredSkillRows(anyCollection())).thenAnswer(inv -> {
+            Collection<Long> ids = inv.getArgument(0);
+            List<JobSkillRow> out = new ArrayList<>();
+            for (Long id : ids) {
+                required.get(id).forEach(s -> out.add(new JobSkillRow(id, s)));
+            }
+            return out;
+        });
+        SkillDictionary dictionary = mock(SkillDictionary.class);
+        when(dictionary.resolve(anyCollection())).thenReturn(catalog);
+
+        JobRecommendationIndex index = new JobRecommendationIndex(repository, dictionary, 1000, 0.6, 0.25, 0.15, 14);
+        long t0 = System.nanoTime();
+        index.refresh();
+        double buildMs = (System.nanoTime() - t0) / 1e6;
+
+        List<Set<String>> profiles = new ArrayList<>();
+        for (int q = 0; q < WARMUP + QUERIES; q++) {
+            Set<String> names = new HashSet<>();
+            for (int i = 0, n = 3 + random.nextInt(6); i < n; i++) {
+                names.add("skill " + (1 + random.nextInt(SKILLS)));
+            }
+            profiles.add(names);
+        }
+
+        long sink = 0;
+        for (int q = 0; q < WARMUP; q++) {
+            sink += firstSix(rows, required, catalog, profiles.get(q)).size();
+            sink += fullScan(rows, required, catalog, profiles.get(q));
+            sink += index.recommend(profiles.get(q), 1_000.0, 6).size();
+        }
+        t0 = System.nanoTime();
+        for (int q = WARMUP; q < WARMUP + QUERIES; q++) {
+            sink += firstSix(rows, required, catalog, profiles.get(q)).size();
+        }
+        double firstSixMicros = (System.nanoTime() - t0) / 1e3 / QUERIES;
+        t0 = System.nanoTime();
+        for (int q = WARMUP; q < WARMUP + QUERIES; q++) {
+            sink += fullScan(rows, required, catalog, profiles.get(q));
+        }
+        double scanMicros = (System.nanoTime() - t0) / 1e3 / QUERIES;
+        t0 = System.nanoTime();
+        for (int q = WARMUP; q < WARMUP + QUERIES; q++) {
+            List<Long> top = index.recommend(profiles.get(q), 1_000.0, 6);
+            sink += top.size();
+        }
+        double indexMicros = (System.nanoTime() - t0) / 1e3 / QUERIES;
+
+        log.info(String.format("%-9s | %-10s | %-18s | %-18s | %-16s",
+                "jobs", "build ms", "first six us/query", "full scan us/query", "index us/query"));
+        log.info(String.format("%-9d | %-10.1f | %-18.1f | %-18.1f | %-16.1f",
+                jobs, buildMs, firstSixMicros, scanMicros, indexMicros));
+
+        assertThat(sink).isPositive();
+        assertThat(index.recommend(profiles.get(0), 1_000.0, 6)).hasSize(6);
+        assertThat(indexMicros).isLessThan(scanMicros);
+    }
+
+    /** Former behaviour without the network: walk every open job, look its skills up, keep the first six matches. */
+    private static List<Long> firstSix(List<JobIndexRow> rows, Map<Long, List<Long>> required,
+                                         Map<Long, Skills> catalog, Set<String> names) {
+        List<Long> out = new ArrayList<>(6);
+        for (JobIndexRow row : rows) {
+            for (Long skillId : required.get(row.getId())) {
+                if (names.contains(catalog.get(skillId).getName().toLowerCase())) {
+                    out.add(row.getId());
+                    break;
+                }
+            }
+            if (out.size() == 6) {
+                break;
+            }
+        }
+        return out;
+    }
+
+    /** Ranking without an index: count the matched skills of every open job and keep the best. */
+    private static long fullScan(List<JobIndexRow> rows, Map<Long, List<Long>> required,
+                                 Map<Long, Skills> catalog, Set<String> names) {
+        long best = -1;
+        int bestHits = 0;
+        for (JobIndexRow row : rows) {
+            int hits = 0;
+            for (Long skillId : required.get(row.getId())) {
+                if (names.contains(catalog.get(skillId).getName().toLowerCase())) {
+                    hits++;
+                }
+            }
+            if (hits > bestHits) {
+                bestHits = hits;
+                best = row.getId();
+            }
+        }
+        return best;
+    }
+
+    /** A few popular skills and a long tail, like a real catalog. */
+    private static int skewed(Random random) {
+        double u = random.nextDouble();
+        return (int) Math.min(SKILLS - 1, Math.floor(SKILLS * u * u * u));
+    }
+}
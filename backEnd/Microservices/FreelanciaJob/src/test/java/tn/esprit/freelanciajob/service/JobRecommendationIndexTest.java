@@ -0,0 +1,175 @@
+package tn.esprit.freelanciajob.service;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import tn.esprit.freelanciajob.Client.SkillDictionary;
+import tn.esprit.freelanciajob.Dto.Skills;
+import tn.esprit.freelanciajob.Dto.projection.JobIndexRow;
+import tn.esprit.freelanciajob.Dto.projection.JobSkillRow;
+import tn.esprit.freelanciajob.Entity.Enums.JobStatus;
+import tn.esprit.freelanciajob.Entity.Job;
+import tn.esprit.freelanciajob.Repository.JobRepository;
+import tn.esprit.freelanciajob.Service.JobRecommendationIndex;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.lenient;
+import static org.mockito.Mockito.when;
+
+/**
+ * Unit tests for {@link JobRecommendationIndex}: candidates come from the skill postings only, ranking by
+ * coverage / budget fit / recency, bounded top-k and maintenance on upsert and remove.
+ */
+@ExtendWith(MockitoExtension.class)
+@DisplayName("JobRecommendationIndex – Unit Tests")
+class JobRecommendationIndexTest {
+
+    private static final LocalDateTime NOW = LocalDateTime.now();
+
+    @Mock private JobRepository jobRepository;
+    @Mock private SkillDictionary skillDictionary;
+
+    private JobRecommendationIndex index;
+
+    private final List<JobIndexRow> rows = new ArrayList<>();
+    private final List<JobSkillRow> skillRows = new ArrayList<>();
+    private final Map<Long, Skills> catalog = new HashMap<>();
+
+    @BeforeEach
+    void setUp() {
+        index = new JobRecommendationIndex(jobRepository, skillDictionary, 1000, 0.6, 0.25, 0.15, 14);
+        catalog.put(1L, skill(1L, "Java"));
+        catalog.put(2L, skill(2L, " Spring Boot "));
+        catalog.put(3L, skill(3L, "Python"));
+        catalog.put(4L, skill(4L, "Docker"));
+        catalog.put(5L, skill(5L, "React"));
+        lenient().when(jobRepository.findIndexRowsAfterId(eq(JobStatus.OPEN), anyLong(), any())).thenReturn(rows);
+        lenient().when(jobRepository.findRequiredSkillRows(anyCollection())).thenReturn(skillRows);
+        lenient().when(skillDictionary.resolve(anyCollection())).thenReturn(catalog);
+    }
+
+    private static Skills skill(Long id, String name) {
+        Skills s = new Skills();
+        s.setId(id);
+        s.setName(name);
+        return s;
+    }
+
+    private void openJob(long id, double budgetMax, LocalDateTime createdAt, Long... skillIds) {
+        rows.add(new JobIndexRow(id, null, BigDecimal.valueOf(budgetMax), createdAt));
+        for (Long skillId : skillIds) {
+            skillRows.add(new JobSkillRow(id, skillId));
+        }
+    }
+
+    @Test
+    @DisplayName("not ready before the first build")
+    void beforeRefresh_notReadyAndEmpty() {
+        assertThat(index.isReady()).isFalse();
+        assertThat(index.recommend(Set.of("java"), null, 6)).isEmpty();
+    }
+
+    @Test
+    @DisplayName("ranks jobs sharing a skill by coverage; jobs without a shared skill are not candidates")
+    void recommend_ranksByCoverage() {
+        openJob(10, 1000, NOW, 1L, 2L);           // java + spring boot: full coverage
+        openJob(11, 1000, NOW, 1L, 3L, 4L);       // java only out of three
+        openJob(12, 1000, NOW, 5L);               // react: no overlap
+        index.refresh();
+
+        List<Long> ids = index.recommend(List.of("JAVA", "spring boot"), null, 6);
+
+        assertThat(ids).containsExactly(10L, 11L);
+    }
+
+    @Test
+    @DisplayName("budget fit and then recency order jobs with the same coverage")
+    void recommend_budgetThenRecency() {
+        openJob(20, 50, NOW, 1L);                  // pays less than the freelancer's usual rate
+        openJob(21, 500, NOW.minusDays(30), 1L);   // fits, but older
+        openJob(22, 500, NOW, 1L);                 // fits and new
+        index.refresh();
+
+        assertThat(index.recommend(Set.of("java"), 100.0, 6)).containsExactly(22L, 21L, 20L);
+    }
+
+    @Test
+    @DisplayName("keeps only the k best candidates")
+    void recommend_boundedTopK() {
+        for (long id = 1; id <= 50; id++) {
+            openJob(id, 1000, NOW.minusDays(50 - id), 1L);
+        }
+        index.refresh();
+
+        assertThat(index.recommend(Set.of("java"), null, 3)).containsExactly(50L, 49L, 48L);
+    }
+
+    @Test
+    @DisplayName("without freelancer skills every open job is ranked on budget and recency")
+    void recommend_noSkills_ranksAllOpenJobs() {
+        openJob(30, 1000, NOW.minusDays(60), 5L);
+        openJob(31, 1000, NOW, 3L);
+        index.refresh();
+
+        assertThat(index.recommend(Set.of(), null, 6)).containsExactly(31L, 30L);
+    }
+
+    @Test
+    @DisplayName("upsert adds, re-indexes and drops closed jobs; remove frees the slot")
+    void upsertAndRemove_maintainPostings() {
+        openJob(40, 1000, NOW, 1L);
+        index.refresh();
+
+        Job created = Job.builder().id(41L).status(JobStatus.OPEN).budgetMax(BigDecimal.valueOf(1000))
+                .createdAt(NOW).requiredSkillIds(new ArrayList<>(List.of(3L))).build();
+        index.upsert(created);
+        assertThat(index.recommend(Set.of("python"), null, 6)).containsExactly(41L);
+
+        created.setRequiredSkillIds(new ArrayList<>(List.of(1L)));
+        index.upsert(created);
+        assertThat(index.recommend(Set.of("python"), null, 6)).isEmpty();
+        assertThat(index.recommend(Set.of("java"), null, 6)).containsExactlyInAnyOrder(40L, 41L);
+
+        created.setStatus(JobStatus.FILLED);
+        index.upsert(created);
+        index.remove(40L);
+        assertThat(index.recommend(Set.of("java"), null, 6)).isEmpty();
+
+        Job reused = Job.builder().id(42L).status(JobStatus.OPEN).createdAt(NOW)
+                .requiredSkillIds(new ArrayList<>(List.of(1L))).build();
+        index.upsert(reused);
+        assertThat(index.recommend(Set.of("java"), null, 6)).containsExactly(42L);
+    }
+
+    @Test
+    @DisplayName("an upsert that lands while a rebuild scans survives the swap")
+    void refresh_replaysUpsertsReceivedDuringTheScan() {
+        openJob(50, 1000, NOW, 1L);
+        index.refresh();
+        Job created = Job.builder().id(51L).status(JobStatus.OPEN).budgetMax(BigDecimal.valueOf(1000))
+                .createdAt(NOW).requiredSkillIds(new ArrayList<>(List.of(1L))).build();
+        when(jobRepository.findIndexRowsAfterId(eq(JobStatus.OPEN), anyLong(), any())).thenAnswer(inv -> {
+            index.upsert(created); // committed after the scan read its chunk
+            return List.copyOf(rows);
+        });
+
+        index.refresh();
+
+        assertThat(index.recommend(Set.of("java"), null, 6)).containsExactlyInAnyOrder(50L, 51L);
+    }
+}
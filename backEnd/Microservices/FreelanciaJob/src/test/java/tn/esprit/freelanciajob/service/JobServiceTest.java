@@ -13,6 +13,7 @@ import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.domain.Specification;
 import tn.esprit.freelanciajob.Client.SkillClient;
+import tn.esprit.freelanciajob.Client.SkillDictionary;
 import tn.esprit.freelanciajob.Client.UserClient;
 import tn.esprit.freelanciajob.Dto.Skills;
 import tn.esprit.freelanciajob.Dto.request.JobRequest;
@@ -24,13 +25,17 @@ import tn.esprit.freelanciajob.Entity.Enums.ClientType;
 import tn.esprit.freelanciajob.Entity.Enums.JobStatus;
 import tn.esprit.freelanciajob.Entity.Enums.LocationType;
 import tn.esprit.freelanciajob.Event.JobCreatedEvent;
+import tn.esprit.freelanciajob.Repository.JobApplicationRepository;
 import tn.esprit.freelanciajob.Repository.JobRepository;
+import tn.esprit.freelanciajob.Service.JobRecommendationIndex;
 import tn.esprit.freelanciajob.Service.JobService;
 
 import java.math.BigDecimal;
+import java.util.ArrayList;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
 
 import static org.assertj.core.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.*;
@@ -48,8 +53,11 @@ class JobServiceTest {
 
     @Mock private JobRepository       jobRepository;
     @Mock private SkillClient         skillClient;
+    @Mock private SkillDictionary     skillDictionary;
     @Mock private UserClient          userClient;
     @Mock private ApplicationEventPublisher eventPublisher;
+    @Mock private JobRecommendationIndex recommendationIndex;
+    @Mock private JobApplicationRepository jobApplicationRepository;
 
     @InjectMocks
     private JobService jobService;
@@ -123,6 +131,7 @@ class JobServiceTest {
             assertThat(result.getStatus()).isEqualTo(JobStatus.OPEN);
             verify(jobRepository).save(any(Job.class));
             verify(eventPublisher).publishEvent(any(JobCreatedEvent.class));
+            verify(recommendationIndex).upsert(saved);
         }
 
         @Test
@@ -200,6 +209,7 @@ class JobServiceTest {
 
             // Assert
             verify(jobRepository).deleteById(1L);
+            verify(recommendationIndex).remove(1L);
         }
 
         @Test
@@ -304,15 +314,58 @@ class JobServiceTest {
             pythonSkill.setId(2L);
             pythonSkill.setName("Python");
 
-            when(skillClient.getSkillsByIds(List.of(1L))).thenReturn(List.of(javaSkill));
-            when(skillClient.getSkillsByIds(List.of(2L))).thenReturn(List.of(pythonSkill));
+            when(skillDictionary.resolve(Set.of(1L, 2L))).thenReturn(Map.of(1L, javaSkill, 2L, pythonSkill));
 
             // Act
             List<JobResponse> result = jobService.getRecommendedJobs(10L);
 
-            // Assert – only job1 matches
+            // Assert – only job1 matches, and no per-job skill call was made
             assertThat(result).hasSize(1);
             assertThat(result.get(0).getId()).isEqualTo(1L);
+            assertThat(result.get(0).getSkills()).containsExactly(javaSkill);
+            verify(skillClient, never()).getSkillsByIds(any());
+        }
+
+        @Test
+        @DisplayName("should serve ranked ids from the index and load only those jobs")
+        void indexReady_returnsRankedJobsInIndexOrder() {
+            // Arrange
+            Skills javaSkill = new Skills();
+            javaSkill.setName("Java");
+            when(skillClient.getSkillsByUserId(10L)).thenReturn(List.of(javaSkill));
+            when(recommendationIndex.isReady()).thenReturn(true);
+            when(jobApplicationRepository.averageExpectedRate(10L)).thenReturn(40.0);
+            when(recommendationIndex.recommend(Set.of("java"), 40.0, 12)).thenReturn(List.of(3L, 1L));
+            Job closed = buildJob(1L, JobStatus.FILLED);
+            when(jobRepository.findAllById(List.of(3L, 1L))).thenReturn(List.of(closed, buildJob(3L, JobStatus.OPEN)));
+
+            // Act
+            List<JobResponse> result = jobService.getRecommendedJobs(10L);
+
+            // Assert – index order kept, job closed since the last refresh dropped, no full scan
+            assertThat(result).extracting(JobResponse::getId).containsExactly(3L);
+            verify(jobRepository, never()).findByStatus(any());
+        }
+
+        @Test
+        @DisplayName("should over-fetch from the index so closed jobs do not shrink the result below 6")
+        void indexReady_closedJobsAreReplacedByTheNextCandidates() {
+            Skills javaSkill = new Skills();
+            javaSkill.setName("Java");
+            when(skillClient.getSkillsByUserId(10L)).thenReturn(List.of(javaSkill));
+            when(recommendationIndex.isReady()).thenReturn(true);
+            when(jobApplicationRepository.averageExpectedRate(10L)).thenReturn(40.0);
+            List<Long> ids = List.of(1L, 2L, 3L, 4L, 5L, 6L, 7L, 8L, 9L);
+            when(recommendationIndex.recommend(Set.of("java"), 40.0, 12)).thenReturn(ids);
+            List<Job> jobs = new ArrayList<>();
+            for (Long id : ids) {
+                jobs.add(buildJob(id, id <= 2 ? JobStatus.FILLED : JobStatus.OPEN));
+            }
+            when(jobRepository.findAllById(ids)).thenReturn(jobs);
+
+            List<JobResponse> result = jobService.getRecommendedJobs(10L);
+
+            assertThat(result).extracting(JobResponse::getId).containsExactly(3L, 4L, 5L, 6L, 7L, 8L);
         }
 
         @Test
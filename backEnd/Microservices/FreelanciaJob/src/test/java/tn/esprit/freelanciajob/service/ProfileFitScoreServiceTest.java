@@ -9,6 +9,7 @@ import org.springframework.test.util.ReflectionTestUtils;
 import org.springframework.web.server.ResponseStatusException;
 import tn.esprit.freelanciajob.Client.ExperienceClient;
 import tn.esprit.freelanciajob.Client.SkillClient;
+import tn.esprit.freelanciajob.Client.SkillDictionary;
 import tn.esprit.freelanciajob.Dto.ExperienceDto;
 import tn.esprit.freelanciajob.Dto.Skills;
 import tn.esprit.freelanciajob.Dto.response.FitScoreResponse;
@@ -36,7 +37,8 @@ class ProfileFitScoreServiceTest {
     private ExperienceClient experienceClient;
 
     private ProfileFitScoreService service() {
-        return new ProfileFitScoreService(jobRepository, skillClient, experienceClient, new ObjectMapper());
+        return new ProfileFitScoreService(jobRepository, skillClient,
+                new SkillDictionary(skillClient, 30_000L, 1_000), experienceClient, new ObjectMapper());
     }
 
     @Test
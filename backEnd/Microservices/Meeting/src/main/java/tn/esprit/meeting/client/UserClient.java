@@ -3,11 +3,19 @@ package tn.esprit.meeting.client;
 import org.springframework.cloud.openfeign.FeignClient;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
 import tn.esprit.meeting.dto.UserDto;
 
+import java.util.List;
+
 @FeignClient(name = "user", path = "/api/users", fallback = UserClientFallback.class)
 public interface UserClient {
 
     @GetMapping("/{id}")
     UserDto getUserById(@PathVariable("id") Long id);
+
+    /** Users with the given ids (unknown ids skipped, at most 500); use {@link UserDirectory} for cached lookups. */
+    @PostMapping("/batch")
+    List<UserDto> getUsersByIds(@RequestBody List<Long> ids);
 }
@@ -4,6 +4,8 @@ import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Component;
 import tn.esprit.meeting.dto.UserDto;
 
+import java.util.List;
+
 @Component
 @Slf4j
 public class UserClientFallback implements UserClient {
@@ -17,4 +19,10 @@ public class UserClientFallback implements UserClient {
         dto.setLastName("#" + id);
         return dto;
     }
+
+    @Override
+    public List<UserDto> getUsersByIds(List<Long> ids) {
+        log.warn("[MeetingService] UserClient fallback for {} id(s)", ids.size());
+        return List.of();
+    }
 }
@@ -4,7 +4,7 @@ import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
-import tn.esprit.meeting.client.UserClient;
+import tn.esprit.meeting.client.UserDirectory;
 import tn.esprit.meeting.dto.*;
 import tn.esprit.meeting.dto.MeetingStatsDTO;
 import tn.esprit.meeting.entity.Meeting;
@@ -15,8 +15,12 @@ import tn.esprit.meeting.exception.MeetingValidationException;
 import tn.esprit.meeting.repository.MeetingRepository;
 
 import java.time.LocalDateTime;
+import java.util.Arrays;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
 import java.util.Optional;
+import java.util.stream.Stream;
 
 @Service
 @RequiredArgsConstructor
@@ -26,7 +30,7 @@ public class MeetingService {
 
     private final MeetingRepository meetingRepository;
     private final GoogleMeetService googleMeetService;
-    private final UserClient userClient;
+    private final UserDirectory userDirectory;
 
     // ── Create ────────────────────────────────────────────────────────────────
 
@@ -138,23 +142,17 @@ public class MeetingService {
 
     @Transactional(readOnly = true)
     public List<MeetingResponse> getMeetingsForUser(Long userId) {
-        return meetingRepository.findAllByUserId(userId).stream()
-                .map(this::toResponse)
-                .toList();
+        return toResponses(meetingRepository.findAllByUserId(userId));
     }
 
     @Transactional(readOnly = true)
     public List<MeetingResponse> getUpcomingMeetings(Long userId) {
-        return meetingRepository.findUpcomingByUserId(userId, LocalDateTime.now()).stream()
-                .map(this::toResponse)
-                .toList();
+        return toResponses(meetingRepository.findUpcomingByUserId(userId, LocalDateTime.now()));
     }
 
     @Transactional(readOnly = true)
     public List<MeetingResponse> getMeetingsByStatus(Long userId, MeetingStatus status) {
-        return meetingRepository.findByUserIdAndStatus(userId, status).stream()
-                .map(this::toResponse)
-                .toList();
+        return toResponses(meetingRepository.findByUserIdAndStatus(userId, status));
     }
 
     @Transactional(readOnly = true)
@@ -226,17 +224,14 @@ public class MeetingService {
     }
 
     private List<String> resolveEmails(Long clientId, Long freelancerId) {
-        try {
-            UserDto client = userClient.getUserById(clientId);
-            UserDto freelancer = userClient.getUserById(freelancerId);
-            return List.of(client.getEmail(), freelancer.getEmail())
-                    .stream()
-                    .filter(e -> e != null && !e.isBlank())
-                    .toList();
-        } catch (Exception e) {
-            log.warn("[MeetingService] Could not resolve attendee emails: {}", e.getMessage());
-            return List.of();
+        Map<Long, UserDto> users = userDirectory.findAll(Arrays.asList(clientId, freelancerId));
+        if (users.size() < 2) {
+            log.warn("[MeetingService] Could not resolve all attendee emails for users {} and {}", clientId, freelancerId);
         }
+        return users.values().stream()
+                .map(UserDto::getEmail)
+                .filter(e -> e != null && !e.isBlank())
+                .toList();
     }
 
     // ── Validation ────────────────────────────────────────────────────────────
@@ -271,8 +266,21 @@ public class MeetingService {
     }
 
     private MeetingResponse toResponse(Meeting m) {
-        String clientName = resolveName(m.getClientId());
-        String freelancerName = resolveName(m.getFreelancerId());
+        return toResponse(m, userDirectory.findAll(Arrays.asList(m.getClientId(), m.getFreelancerId())));
+    }
+
+    /** Maps a list of meetings with one user lookup for every participant. */
+    private List<MeetingResponse> toResponses(List<Meeting> meetings) {
+        Map<Long, UserDto> users = userDirectory.findAll(meetings.stream()
+                .flatMap(m -> Stream.of(m.getClientId(), m.getFreelancerId()))
+                .filter(Objects::nonNull)
+                .toList());
+        return meetings.stream().map(m -> toResponse(m, users)).toList();
+    }
+
+    private MeetingResponse toResponse(Meeting m, Map<Long, UserDto> users) {
+        String clientName = resolveName(users, m.getClientId());
+        String freelancerName = resolveName(users, m.getFreelancerId());
 
         LocalDateTime now = LocalDateTime.now();
         boolean canJoinNow = m.getStatus() == MeetingStatus.ACCEPTED
@@ -304,12 +312,8 @@ public class MeetingService {
                 .build();
     }
 
-    private String resolveName(Long userId) {
-        try {
-            UserDto user = userClient.getUserById(userId);
-            return user.getFullName();
-        } catch (Exception e) {
-            return "User #" + userId;
-        }
+    private static String resolveName(Map<Long, UserDto> users, Long userId) {
+        UserDto user = users.get(userId);
+        return user != null ? user.getFullName() : "User #" + userId;
     }
 }
@@ -7,7 +7,7 @@ import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
-import tn.esprit.meeting.client.UserClient;
+import tn.esprit.meeting.client.UserDirectory;
 import tn.esprit.meeting.dto.*;
 import tn.esprit.meeting.entity.Meeting;
 import tn.esprit.meeting.enums.MeetingStatus;
@@ -17,8 +17,12 @@ import tn.esprit.meeting.exception.MeetingValidationException;
 import tn.esprit.meeting.repository.MeetingRepository;
 
 import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
+import java.util.Objects;
 import java.util.Optional;
+import java.util.function.Function;
+import java.util.stream.Collectors;
 
 import static org.assertj.core.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.*;
@@ -28,7 +32,7 @@ import static org.mockito.Mockito.*;
  * Unit tests for {@link MeetingService}.
  *
  * Strategy:
- *  - All external dependencies (repository, Google Meet, UserClient) are mocked.
+ *  - All external dependencies (repository, Google Meet, UserDirectory) are mocked.
  *  - Each test follows the Arrange / Act / Assert (AAA) pattern.
  *  - Nested classes group tests by method, making navigation easier.
  */
@@ -45,7 +49,7 @@ class MeetingServiceTest {
     private GoogleMeetService googleMeetService;
 
     @Mock
-    private UserClient userClient;
+    private UserDirectory userDirectory;
 
     @InjectMocks
     private MeetingService meetingService;
@@ -87,14 +91,16 @@ class MeetingServiceTest {
         return req;
     }
 
-    /** Stubs userClient so that toResponse() does not throw. */
+    /** Stubs userDirectory so that toResponse() resolves every participant to the same user. */
     private void stubUserClient() {
         UserDto user = new UserDto();
         user.setId(CLIENT_ID);
         user.setFirstName("Alice");
         user.setLastName("Doe");
         user.setEmail("alice@test.com");
-        lenient().when(userClient.getUserById(any())).thenReturn(user);
+        lenient().when(userDirectory.findAll(any())).thenAnswer(inv -> inv.<Collection<Long>>getArgument(0).stream()
+                .filter(Objects::nonNull).distinct()
+                .collect(Collectors.toMap(Function.identity(), id -> user)));
     }
 
     // ═════════════════════════════════════════════════════════════════════════
@@ -551,6 +557,9 @@ class MeetingServiceTest {
             assertThat(result).hasSize(2);
             assertThat(result).extracting(MeetingResponse::getId)
                     .containsExactlyInAnyOrder(1L, 2L);
+            assertThat(result).extracting(MeetingResponse::getFreelancerName).containsOnly("Alice Doe");
+            // one directory lookup for all participants of all meetings
+            verify(userDirectory, times(1)).findAll(any());
         }
 
         @Test
@@ -0,0 +1,28 @@
+package com.esprit.notification.config;
+
+import com.esprit.notification.service.FirestoreNotificationBus;
+import com.esprit.notification.service.InProcessNotificationBus;
+import com.esprit.notification.service.NotificationBus;
+import com.google.cloud.firestore.Firestore;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+@Configuration
+public class NotificationPushConfig {
+
+    /**
+     * {@code notification.push.bus=firestore} fans new notifications out to every replica (requires Firestore);
+     * anything else, or no Firestore, keeps delivery within this instance.
+     */
+    @Bean
+    public NotificationBus notificationBus(@Value("${notification.push.bus:in-process}") String bus,
+                                           ObjectProvider<Firestore> firestoreProvider) {
+        Firestore firestore = firestoreProvider.getIfAvailable();
+        if ("firestore".equalsIgnoreCase(bus) && firestore != null) {
+            return new FirestoreNotificationBus(firestore);
+        }
+        return new InProcessNotificationBus();
+    }
+}
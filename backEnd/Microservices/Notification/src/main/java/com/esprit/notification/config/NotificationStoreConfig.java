@@ -0,0 +1,20 @@
+package com.esprit.notification.config;
+
+import com.esprit.notification.service.FirestoreNotificationStore;
+import com.esprit.notification.service.InMemoryNotificationStore;
+import com.esprit.notification.service.NotificationStore;
+import com.google.cloud.firestore.Firestore;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+@Configuration
+public class NotificationStoreConfig {
+
+    /** Firestore when {@link FirebaseConfig} provided it, otherwise the volatile in-memory store. */
+    @Bean
+    public NotificationStore notificationStore(ObjectProvider<Firestore> firestoreProvider) {
+        Firestore firestore = firestoreProvider.getIfAvailable();
+        return firestore != null ? new FirestoreNotificationStore(firestore) : new InMemoryNotificationStore();
+    }
+}
@@ -1,17 +1,24 @@
 package com.esprit.notification.controller;
 
+import com.esprit.notification.dto.NotificationBatchRequest;
+import com.esprit.notification.dto.NotificationPage;
 import com.esprit.notification.dto.NotificationRequest;
 import com.esprit.notification.dto.NotificationResponse;
+import com.esprit.notification.service.NotificationIngestService;
+import com.esprit.notification.service.NotificationPushService;
 import com.esprit.notification.service.NotificationService;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 
 import java.util.List;
+import java.util.Map;
 
 @RestController
 @RequestMapping("/api/notifications")
@@ -20,6 +27,8 @@ import java.util.List;
 public class NotificationController {
 
     private final NotificationService notificationService;
+    private final NotificationIngestService notificationIngestService;
+    private final NotificationPushService notificationPushService;
 
     @PostMapping
     @Operation(summary = "Create notification", description = "Create a notification for a user. Used by other microservices (e.g. planning, contract, offer).")
@@ -28,10 +37,48 @@ public class NotificationController {
         return ResponseEntity.status(HttpStatus.CREATED).body(created);
     }
 
+    @PostMapping("/batch")
+    @Operation(summary = "Create notifications in bulk", description = "Up to 500 notifications in one call, written asynchronously in batches. 202 means accepted, not written: failed writes are retried, then dead-lettered and retried periodically. Set X-Producer to the calling service name for per-producer metrics.")
+    public ResponseEntity<Map<String, Integer>> createBatch(@RequestHeader(value = "X-Producer", required = false) String producer,
+                                                            @Valid @RequestBody NotificationBatchRequest request) {
+        int accepted = notificationIngestService.submit(producer, request.getNotifications());
+        return ResponseEntity.status(HttpStatus.ACCEPTED).body(Map.of("accepted", accepted));
+    }
+
     @GetMapping("/user/{userId}")
-    @Operation(summary = "List by user", description = "Get all notifications for a user, newest first.")
-    public List<NotificationResponse> findByUserId(@PathVariable String userId) {
-        return notificationService.findByUserId(userId);
+    @Operation(summary = "List by user", description = "Get the newest notifications for a user (at most limit, max 200), newest first.")
+    public List<NotificationResponse> findByUserId(@PathVariable String userId,
+                                                   @RequestParam(defaultValue = "50") int limit,
+                                                   @RequestParam(defaultValue = "false") boolean unreadOnly) {
+        return notificationService.findByUserId(userId, limit, unreadOnly);
+    }
+
+    @GetMapping("/user/{userId}/page")
+    @Operation(summary = "Page by user", description = "Cursor pagination, newest first. Pass nextCursor back as cursor for older notifications.")
+    public NotificationPage findPage(@PathVariable String userId,
+                                     @RequestParam(required = false) String cursor,
+                                     @RequestParam(defaultValue = "20") int limit,
+                                     @RequestParam(defaultValue = "false") boolean unreadOnly) {
+        return notificationService.findPage(userId, cursor, limit, unreadOnly);
+    }
+
+    @GetMapping(value = "/user/{userId}/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    @Operation(summary = "Live notifications", description = "Server-sent events (event name \"notification\") for new notifications. Reconnect with Last-Event-ID to receive the ones missed.")
+    public SseEmitter stream(@PathVariable String userId,
+                             @RequestHeader(value = "Last-Event-ID", required = false) String lastEventId) {
+        return notificationPushService.subscribe(userId, lastEventId);
+    }
+
+    @GetMapping("/user/{userId}/unread-count")
+    @Operation(summary = "Unread count", description = "Maintained counter; does not read the notifications.")
+    public Map<String, Long> unreadCount(@PathVariable String userId) {
+        return Map.of("unread", notificationService.unreadCount(userId));
+    }
+
+    @PatchMapping("/user/{userId}/read-all")
+    @Operation(summary = "Mark all as read")
+    public Map<String, Integer> markAllRead(@PathVariable String userId) {
+        return Map.of("updated", notificationService.markAllRead(userId));
     }
 
     @PatchMapping("/{id}/read")
@@ -46,4 +93,9 @@ public class NotificationController {
     public void delete(@PathVariable String id) {
         notificationService.delete(id);
     }
+
+    @ExceptionHandler(IllegalArgumentException.class)
+    public ResponseEntity<Map<String, String>> badRequest(IllegalArgumentException e) {
+        return ResponseEntity.badRequest().body(Map.of("error", e.getMessage()));
+    }
 }
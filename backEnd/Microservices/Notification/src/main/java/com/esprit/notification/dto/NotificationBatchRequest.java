@@ -0,0 +1,26 @@
+package com.esprit.notification.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.Size;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+@Schema(description = "Several notifications in one call (e.g. one per recipient of the same event)")
+public class NotificationBatchRequest {
+
+    @Valid
+    @NotEmpty
+    @Size(max = 500)
+    @Schema(description = "Notifications to create (1 to 500)", required = true)
+    private List<NotificationRequest> notifications;
+}
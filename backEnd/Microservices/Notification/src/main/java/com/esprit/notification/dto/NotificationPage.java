@@ -0,0 +1,26 @@
+package com.esprit.notification.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+@Schema(description = "One page of a user's notifications, newest first")
+public class NotificationPage {
+
+    @Schema(description = "Notifications of this page")
+    private List<NotificationResponse> items;
+
+    @Schema(description = "Opaque cursor for the next (older) page; null when there is none")
+    private String nextCursor;
+
+    @Schema(description = "Whether older notifications exist")
+    private boolean hasMore;
+}
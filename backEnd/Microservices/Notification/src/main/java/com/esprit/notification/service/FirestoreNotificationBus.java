@@ -0,0 +1,107 @@
+package com.esprit.notification.service;
+
+import com.esprit.notification.dto.NotificationResponse;
+import com.google.cloud.firestore.DocumentChange;
+import com.google.cloud.firestore.Firestore;
+import com.google.cloud.firestore.ListenerRegistration;
+import com.google.cloud.firestore.Query;
+import com.google.cloud.firestore.QueryDocumentSnapshot;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+
+import java.time.Instant;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.Consumer;
+
+/**
+ * Cross-replica bus on top of the notifications collection itself: the stored document is the event, so
+ * {@link #publish} does nothing and every replica picks new documents up from one snapshot listener on the newest
+ * {@value #WINDOW} notifications.
+ * <p>
+ * Documents that re-enter the window (after a newer one is deleted) or predate this replica's start are skipped.
+ */
+@Slf4j
+public class FirestoreNotificationBus implements NotificationBus {
+
+    /** Larger than one write batch, so a full batch cannot push part of itself out of the window. */
+    static final int WINDOW = 500;
+    private static final int DELIVERED_MEMORY = 5_000;
+
+    private final Firestore firestore;
+    private final String startedAt;
+    private final List<Consumer<NotificationResponse>> listeners = new CopyOnWriteArrayList<>();
+    private final Set<String> delivered = Collections.newSetFromMap(new LinkedHashMap<>() {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<String, Boolean> eldest) {
+            return size() > DELIVERED_MEMORY;
+        }
+    });
+
+    private ListenerRegistration registration;
+
+    public FirestoreNotificationBus(Firestore firestore) {
+        this.firestore = firestore;
+        this.startedAt = NotificationDocuments.format(Instant.now());
+    }
+
+    @Override
+    public void publish(NotificationResponse notification) {
+        // Written by the store; the snapshot listener delivers it on every replica, this one included.
+    }
+
+    @Override
+    public synchronized void subscribe(Consumer<NotificationResponse> listener) {
+        listeners.add(listener);
+        if (registration == null) {
+            registration = firestore.collection(FirestoreNotificationStore.COLLECTION)
+                .orderBy("createdAt", Query.Direction.DESCENDING)
+                .limit(WINDOW)
+                .addSnapshotListener((snapshot, error) -> {
+                    if (error != null) {
+                        log.warn("Notification listener error: {}", error.getMessage());
+                        return;
+                    }
+                    if (snapshot != null) {
+                        snapshot.getDocumentChanges().forEach(this::onChange);
+                    }
+                });
+        }
+    }
+
+    @PreDestroy
+    public synchronized void stop() {
+        if (registration != null) {
+            registration.remove();
+            registration = null;
+        }
+    }
+
+    void onChange(DocumentChange change) {
+        if (change.getType() != DocumentChange.Type.ADDED) {
+            return;
+        }
+        QueryDocumentSnapshot doc = change.getDocument();
+        String createdAt = doc.getString("createdAt");
+        if (createdAt == null || createdAt.compareTo(startedAt) < 0) {
+            return;
+        }
+        synchronized (delivered) {
+            if (!delivered.add(doc.getId())) {
+                return;
+            }
+        }
+        NotificationResponse notification = NotificationDocuments.toResponse(doc.getId(), doc.getData());
+        for (Consumer<NotificationResponse> listener : listeners) {
+            try {
+                listener.accept(notification);
+            } catch (Exception e) {
+                log.warn("Notification listener failed for {}: {}", doc.getId(), e.getMessage());
+            }
+        }
+    }
+}
@@ -0,0 +1,278 @@
+package com.esprit.notification.service;
+
+import com.esprit.notification.dto.NotificationPage;
+import com.esprit.notification.dto.NotificationRequest;
+import com.esprit.notification.dto.NotificationResponse;
+import com.google.cloud.firestore.DocumentReference;
+import com.google.cloud.firestore.DocumentSnapshot;
+import com.google.cloud.firestore.FieldPath;
+import com.google.cloud.firestore.FieldValue;
+import com.google.cloud.firestore.Firestore;
+import com.google.cloud.firestore.Query;
+import com.google.cloud.firestore.QueryDocumentSnapshot;
+import com.google.cloud.firestore.SetOptions;
+import com.google.cloud.firestore.WriteBatch;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutionException;
+
+/**
+ * Firestore-backed store. Ordering, cursors and limits are pushed down to the query
+ * ({@code userId [, read] , createdAt desc, __name__ desc}, composite indexes required), and the unread count is a
+ * counter document per user in {@code notification_counters}, updated in the same batch as the notification.
+ * <p>
+ * Counters written before the counter existed, or created by a first increment, only hold the changes since; a counter
+ * without the {@code backfilled} flag is recomputed from the unread documents on first read, in a transaction with the
+ * counter so concurrent increments are serialised against it. Read-check-decrement paths ({@link #markRead},
+ * {@link #delete}) also run in transactions so two concurrent calls decrement once.
+ */
+public class FirestoreNotificationStore implements NotificationStore {
+
+    static final String COLLECTION = "notifications";
+    static final String COUNTERS = "notification_counters";
+    /** Set on a counter once it has been recomputed from the documents; increments alone never set it. */
+    static final String BACKFILLED = "backfilled";
+    /** Stays under Firestore's 500 writes per batch, counter updates included. */
+    static final int BATCH_SIZE = 200;
+
+    private final Firestore firestore;
+
+    public FirestoreNotificationStore(Firestore firestore) {
+        this.firestore = firestore;
+    }
+
+    @Override
+    public NotificationResponse create(NotificationRequest request) {
+        Map<String, Object> data = NotificationDocuments.newDocument(request, Instant.now());
+        try {
+            DocumentReference ref = firestore.collection(COLLECTION).document();
+            WriteBatch batch = firestore.batch();
+            batch.set(ref, data);
+            batch.set(counter(request.getUserId()), Map.of("unread", FieldValue.increment(1)), SetOptions.merge());
+            batch.commit().get();
+            return NotificationDocuments.toResponse(ref.getId(), data);
+        } catch (InterruptedException | ExecutionException e) {
+            restoreInterrupt(e);
+            throw new RuntimeException("Failed to create notification", e);
+        }
+    }
+
+    /** One batch per {@link #BATCH_SIZE} notifications, with one counter increment per user and batch. */
+    @Override
+    public List<NotificationResponse> createAll(List<NotificationRequest> requests) {
+        Instant now = Instant.now();
+        List<NotificationResponse> created = new ArrayList<>(requests.size());
+        try {
+            for (int from = 0; from < requests.size(); from += BATCH_SIZE) {
+                WriteBatch batch = firestore.batch();
+                Map<String, Long> unreadAdded = new HashMap<>();
+                List<NotificationResponse> chunk = new ArrayList<>();
+                for (NotificationRequest request : requests.subList(from, Math.min(from + BATCH_SIZE, requests.size()))) {
+                    Map<String, Object> data = NotificationDocuments.newDocument(request, now);
+                    DocumentReference ref = firestore.collection(COLLECTION).document();
+                    batch.set(ref, data);
+                    unreadAdded.merge(request.getUserId(), 1L, Long::sum);
+                    chunk.add(NotificationDocuments.toResponse(ref.getId(), data));
+                }
+                unreadAdded.forEach((userId, n) ->
+                    batch.set(counter(userId), Map.of("unread", FieldValue.increment(n)), SetOptions.merge()));
+                batch.commit().get();
+                created.addAll(chunk);
+            }
+            return created;
+        } catch (InterruptedException | ExecutionException e) {
+            restoreInterrupt(e);
+            if (!created.isEmpty()) {
+                throw new PartialWriteException("Failed to create notifications after " + created.size() + " of "
+                    + requests.size(), created, e);
+            }
+            throw new RuntimeException("Failed to create notifications", e);
+        }
+    }
+
+    @Override
+    public NotificationPage findByUser(String userId, String cursor, int limit, boolean unreadOnly) {
+        NotificationDocuments.Cursor after = NotificationDocuments.decodeCursor(cursor);
+        Query query = firestore.collection(COLLECTION).whereEqualTo("userId", userId);
+        if (unreadOnly) {
+            query = query.whereEqualTo("read", false);
+        }
+        query = query.orderBy("createdAt", Query.Direction.DESCENDING)
+            .orderBy(FieldPath.documentId(), Query.Direction.DESCENDING);
+        if (after != null) {
+            query = query.startAfter(after.createdAt(), after.id());
+        }
+        try {
+            List<QueryDocumentSnapshot> docs = query.limit(limit + 1).get().get().getDocuments();
+            boolean hasMore = docs.size() > limit;
+            List<NotificationResponse> items = new ArrayList<>(Math.min(limit, docs.size()));
+            for (QueryDocumentSnapshot doc : docs.subList(0, Math.min(limit, docs.size()))) {
+                items.add(NotificationDocuments.toResponse(doc.getId(), doc.getData()));
+            }
+            String next = null;
+            if (hasMore) {
+                QueryDocumentSnapshot last = docs.get(limit - 1);
+                next = NotificationDocuments.encodeCursor(last.getString("createdAt"), last.getId());
+            }
+            return new NotificationPage(items, next, hasMore);
+        } catch (InterruptedException | ExecutionException e) {
+            restoreInterrupt(e);
+            throw new RuntimeException("Failed to list notifications", e);
+        }
+    }
+
+    @Override
+    public long unreadCount(String userId) {
+        try {
+            DocumentSnapshot snap = counter(userId).get().get();
+            if (!snap.exists() || !Boolean.TRUE.equals(snap.getBoolean(BACKFILLED))) {
+                return backfillCounter(userId);
+            }
+            Long unread = snap.getLong("unread");
+            return unread != null ? Math.max(0, unread) : 0;
+        } catch (InterruptedException | ExecutionException e) {
+            restoreInterrupt(e);
+            throw new RuntimeException("Failed to count unread notifications", e);
+        }
+    }
+
+    /** Recomputes the user's counter from the unread documents (aggregate count) unless another call just did. */
+    long backfillCounter(String userId) throws InterruptedException, ExecutionException {
+        DocumentReference ref = counter(userId);
+        Query unread = firestore.collection(COLLECTION)
+            .whereEqualTo("userId", userId)
+            .whereEqualTo("read", false);
+        return firestore.runTransaction(tx -> {
+            DocumentSnapshot snap = tx.get(ref).get();
+            if (snap.exists() && Boolean.TRUE.equals(snap.getBoolean(BACKFILLED))) {
+                Long current = snap.getLong("unread");
+                return current != null ? Math.max(0, current) : 0L;
+            }
+            long count = tx.get(unread.count()).get().getCount();
+            tx.set(ref, Map.of("unread", count, BACKFILLED, true));
+            return count;
+        }).get();
+    }
+
+    @Override
+    public NotificationResponse markRead(String id) {
+        DocumentReference ref = firestore.collection(COLLECTION).document(id);
+        try {
+            return firestore.runTransaction(tx -> {
+                DocumentSnapshot snap = tx.get(ref).get();
+                if (!snap.exists()) {
+                    return null;
+                }
+                Map<String, Object> data = new HashMap<>(snap.getData());
+                if (!Boolean.TRUE.equals(data.get("read"))) {
+                    tx.update(ref, "read", true);
+                    tx.set(counter((String) data.get("userId")), Map.of("unread", FieldValue.increment(-1)), SetOptions.merge());
+                    data.put("read", true);
+                }
+                return NotificationDocuments.toResponse(id, data);
+            }).get();
+        } catch (InterruptedException | ExecutionException e) {
+            restoreInterrupt(e);
+            throw new RuntimeException("Failed to mark notification as read", e);
+        }
+    }
+
+    @Override
+    public int markAllRead(String userId) {
+        Query unread = firestore.collection(COLLECTION)
+            .whereEqualTo("userId", userId)
+            .whereEqualTo("read", false)
+            .limit(BATCH_SIZE);
+        int updated = 0;
+        try {
+            List<QueryDocumentSnapshot> docs;
+            do {
+                docs = unread.get().get().getDocuments();
+                if (docs.isEmpty()) {
+                    break;
+                }
+                WriteBatch batch = firestore.batch();
+                docs.forEach(d -> batch.update(d.getReference(), "read", true));
+                batch.commit().get();
+                updated += docs.size();
+            } while (docs.size() == BATCH_SIZE);
+            counter(userId).set(Map.of("unread", 0L, BACKFILLED, true)).get();
+            return updated;
+        } catch (InterruptedException | ExecutionException e) {
+            restoreInterrupt(e);
+            throw new RuntimeException("Failed to mark notifications as read", e);
+        }
+    }
+
+    @Override
+    public boolean delete(String id) {
+        DocumentReference ref = firestore.collection(COLLECTION).document(id);
+        try {
+            return firestore.runTransaction(tx -> {
+                DocumentSnapshot snap = tx.get(ref).get();
+                if (!snap.exists()) {
+                    return false;
+                }
+                tx.delete(ref);
+                if (!Boolean.TRUE.equals(snap.getBoolean("read"))) {
+                    tx.set(counter(snap.getString("userId")), Map.of("unread", FieldValue.increment(-1)), SetOptions.merge());
+                }
+                return true;
+            }).get();
+        } catch (InterruptedException | ExecutionException e) {
+            restoreInterrupt(e);
+            throw new RuntimeException("Failed to delete notification", e);
+        }
+    }
+
+    @Override
+    public int deleteOlderThan(Instant cutoff) {
+        Query expired = firestore.collection(COLLECTION)
+            .whereLessThan("createdAt", NotificationDocuments.format(cutoff))
+            .limit(BATCH_SIZE);
+        int removed = 0;
+        try {
+            List<QueryDocumentSnapshot> docs;
+            do {
+                docs = expired.get().get().getDocuments();
+                if (docs.isEmpty()) {
+                    break;
+                }
+                WriteBatch batch = firestore.batch();
+                Map<String, Long> unreadRemoved = new HashMap<>();
+                for (QueryDocumentSnapshot doc : docs) {
+                    batch.delete(doc.getReference());
+                    if (!Boolean.TRUE.equals(doc.getBoolean("read"))) {
+                        unreadRemoved.merge(doc.getString("userId"), 1L, Long::sum);
+                    }
+                }
+                unreadRemoved.forEach((userId, n) ->
+                    batch.set(counter(userId), Map.of("unread", FieldValue.increment(-n)), SetOptions.merge()));
+                batch.commit().get();
+                removed += docs.size();
+            } while (docs.size() == BATCH_SIZE);
+            return removed;
+        } catch (InterruptedException | ExecutionException e) {
+            restoreInterrupt(e);
+            throw new RuntimeException("Failed to purge notifications", e);
+        }
+    }
+
+    /**
+     * Re-asserts the interrupt only when the wait itself was interrupted; a failed write ({@link ExecutionException})
+     * must leave the caller free to sleep and retry.
+     */
+    private static void restoreInterrupt(Exception e) {
+        if (e instanceof InterruptedException) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private DocumentReference counter(String userId) {
+        return firestore.collection(COUNTERS).document(userId);
+    }
+}
@@ -1,82 +1,217 @@
 package com.esprit.notification.service;
 
+import com.esprit.notification.dto.NotificationPage;
 import com.esprit.notification.dto.NotificationRequest;
 import com.esprit.notification.dto.NotificationResponse;
-import org.springframework.stereotype.Component;
 
+import java.time.Clock;
 import java.time.Instant;
+import java.util.ArrayList;
 import java.util.Comparator;
 import java.util.HashMap;
+import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
+import java.util.NavigableSet;
 import java.util.UUID;
 import java.util.concurrent.ConcurrentHashMap;
-import java.util.stream.Collectors;
+import java.util.concurrent.ConcurrentSkipListSet;
+import java.util.concurrent.atomic.AtomicLong;
 
 /**
  * Volatile store for local/dev when Firebase is disabled. Data is lost on restart.
+ * <p>
+ * Each user has two time-ordered indexes (all, unread) so a page is read from the index without scanning other
+ * users' notifications, and an unread counter kept in step with every write. Writes are serialized; reads are not.
  */
-@Component
-public class InMemoryNotificationStore {
+public class InMemoryNotificationStore implements NotificationStore {
 
-    private static final String COLLECTION = "notifications";
+    /** Index entry, newest first; ties broken by id. */
+    private record Key(String createdAt, String id) {
+        static final Comparator<Key> NEWEST_FIRST =
+            Comparator.comparing(Key::createdAt).thenComparing(Key::id).reversed();
+    }
+
+    private final Clock clock;
 
     private final Map<String, Map<String, Object>> documents = new ConcurrentHashMap<>();
+    private final Map<String, NavigableSet<Key>> byUser = new ConcurrentHashMap<>();
+    private final Map<String, NavigableSet<Key>> unreadByUser = new ConcurrentHashMap<>();
+    private final Map<String, AtomicLong> unreadCounts = new ConcurrentHashMap<>();
+
+    public InMemoryNotificationStore() {
+        this(Clock.systemUTC());
+    }
+
+    InMemoryNotificationStore(Clock clock) {
+        this.clock = clock;
+    }
+
+    @Override
+    public synchronized NotificationResponse create(NotificationRequest request) {
+        return insert(request);
+    }
+
+    @Override
+    public synchronized List<NotificationResponse> createAll(List<NotificationRequest> requests) {
+        List<NotificationResponse> created = new ArrayList<>(requests.size());
+        for (NotificationRequest request : requests) {
+            created.add(insert(request));
+        }
+        return created;
+    }
 
-    public NotificationResponse create(NotificationRequest request) {
+    private NotificationResponse insert(NotificationRequest request) {
         String id = UUID.randomUUID().toString();
-        Map<String, Object> data = new HashMap<>();
-        data.put("userId", request.getUserId());
-        data.put("title", request.getTitle());
-        data.put("body", request.getBody() != null ? request.getBody() : "");
-        data.put("type", request.getType() != null ? request.getType() : "GENERAL");
-        data.put("read", false);
-        data.put("createdAt", Instant.now().toString());
-        if (request.getData() != null && !request.getData().isEmpty()) {
-            data.put("data", request.getData());
+        Map<String, Object> data = NotificationDocuments.newDocument(request, clock.instant());
+        documents.put(id, data);
+        Key key = key(id, data);
+        index(byUser, request.getUserId()).add(key);
+        index(unreadByUser, request.getUserId()).add(key);
+        unreadCounts.computeIfAbsent(request.getUserId(), u -> new AtomicLong()).incrementAndGet();
+        return NotificationDocuments.toResponse(id, data);
+    }
+
+    @Override
+    public NotificationPage findByUser(String userId, String cursor, int limit, boolean unreadOnly) {
+        NotificationDocuments.Cursor after = NotificationDocuments.decodeCursor(cursor);
+        NavigableSet<Key> index = (unreadOnly ? unreadByUser : byUser).get(userId);
+        List<NotificationResponse> items = new ArrayList<>(limit);
+        boolean hasMore = false;
+        if (index != null) {
+            Iterable<Key> from = after == null ? index : index.tailSet(new Key(after.createdAt(), after.id()), false);
+            for (Key key : from) {
+                Map<String, Object> data = documents.get(key.id());
+                if (data == null) {
+                    continue;
+                }
+                if (items.size() == limit) {
+                    hasMore = true;
+                    break;
+                }
+                items.add(NotificationDocuments.toResponse(key.id(), data));
+            }
         }
-        documents.put(COLLECTION + "/" + id, data);
-        return toResponse(id, data);
+        String next = hasMore
+            ? NotificationDocuments.encodeCursor(NotificationDocuments.format(items.get(items.size() - 1).getCreatedAt()),
+                items.get(items.size() - 1).getId())
+            : null;
+        return new NotificationPage(items, next, hasMore);
     }
 
-    public List<NotificationResponse> findByUserId(String userId) {
-        return documents.entrySet().stream()
-            .filter(e -> e.getKey().startsWith(COLLECTION + "/"))
-            .map(e -> {
-                String id = e.getKey().substring(COLLECTION.length() + 1);
-                return toResponse(id, e.getValue());
-            })
-            .filter(r -> userId.equals(r.getUserId()))
-            .sorted(Comparator.comparing(NotificationResponse::getCreatedAt).reversed())
-            .collect(Collectors.toList());
+    @Override
+    public long unreadCount(String userId) {
+        AtomicLong count = unreadCounts.get(userId);
+        return count != null ? Math.max(0, count.get()) : 0;
     }
 
-    public NotificationResponse markRead(String id) {
-        Map<String, Object> data = documents.get(COLLECTION + "/" + id);
+    @Override
+    public synchronized NotificationResponse markRead(String id) {
+        Map<String, Object> data = documents.get(id);
         if (data == null) {
             return null;
         }
-        data.put("read", true);
-        return toResponse(id, data);
+        if (!Boolean.TRUE.equals(data.get("read"))) {
+            data = withRead(data);
+            documents.put(id, data);
+            String userId = (String) data.get("userId");
+            removeUnread(userId, key(id, data));
+        }
+        return NotificationDocuments.toResponse(id, data);
     }
 
-    public void delete(String id) {
-        documents.remove(COLLECTION + "/" + id);
+    @Override
+    public synchronized int markAllRead(String userId) {
+        NavigableSet<Key> unread = unreadByUser.remove(userId);
+        unreadCounts.remove(userId);
+        if (unread == null) {
+            return 0;
+        }
+        int updated = 0;
+        for (Key key : unread) {
+            Map<String, Object> data = documents.get(key.id());
+            if (data != null) {
+                documents.put(key.id(), withRead(data));
+                updated++;
+            }
+        }
+        return updated;
     }
 
-    private static NotificationResponse toResponse(String id, Map<String, Object> data) {
+    @Override
+    public synchronized boolean delete(String id) {
+        Map<String, Object> data = documents.remove(id);
         if (data == null) {
-            return null;
+            return false;
+        }
+        String userId = (String) data.get("userId");
+        Key key = key(id, data);
+        NavigableSet<Key> all = byUser.get(userId);
+        if (all != null) {
+            all.remove(key);
         }
-        return NotificationResponse.builder()
-            .id(id)
-            .userId((String) data.get("userId"))
-            .title((String) data.get("title"))
-            .body((String) data.get("body"))
-            .type((String) data.get("type"))
-            .read(Boolean.TRUE.equals(data.get("read")))
-            .createdAt(Instant.parse((String) data.get("createdAt")))
-            .data(data.get("data") != null ? (Map<String, String>) (Map<?, ?>) data.get("data") : null)
-            .build();
+        if (!Boolean.TRUE.equals(data.get("read"))) {
+            removeUnread(userId, key);
+        }
+        compact(userId);
+        return true;
+    }
+
+    /** Older entries sit at the tail of each index, so expiry only walks what it removes. */
+    @Override
+    public synchronized int deleteOlderThan(Instant cutoff) {
+        Key bound = new Key(NotificationDocuments.format(cutoff), "");
+        int removed = 0;
+        for (String userId : new ArrayList<>(byUser.keySet())) {
+            NavigableSet<Key> expired = byUser.get(userId).tailSet(bound, false);
+            for (Iterator<Key> it = expired.iterator(); it.hasNext(); ) {
+                Key key = it.next();
+                Map<String, Object> data = documents.remove(key.id());
+                it.remove();
+                if (data != null && !Boolean.TRUE.equals(data.get("read"))) {
+                    removeUnread(userId, key);
+                }
+                removed++;
+            }
+            compact(userId);
+        }
+        return removed;
+    }
+
+    private void removeUnread(String userId, Key key) {
+        NavigableSet<Key> unread = unreadByUser.get(userId);
+        if (unread != null && unread.remove(key)) {
+            AtomicLong count = unreadCounts.get(userId);
+            if (count != null) {
+                count.decrementAndGet();
+            }
+        }
+    }
+
+    /** Drops the user's empty indexes and counter. */
+    private void compact(String userId) {
+        NavigableSet<Key> all = byUser.get(userId);
+        if (all != null && all.isEmpty()) {
+            byUser.remove(userId);
+        }
+        NavigableSet<Key> unread = unreadByUser.get(userId);
+        if (unread != null && unread.isEmpty()) {
+            unreadByUser.remove(userId);
+            unreadCounts.remove(userId);
+        }
+    }
+
+    private static NavigableSet<Key> index(Map<String, NavigableSet<Key>> indexes, String userId) {
+        return indexes.computeIfAbsent(userId, u -> new ConcurrentSkipListSet<>(Key.NEWEST_FIRST));
+    }
+
+    private static Key key(String id, Map<String, Object> data) {
+        return new Key((String) data.get("createdAt"), id);
+    }
+
+    private static Map<String, Object> withRead(Map<String, Object> data) {
+        Map<String, Object> copy = new HashMap<>(data);
+        copy.put("read", true);
+        return copy;
     }
 }
@@ -0,0 +1,31 @@
+package com.esprit.notification.service;
+
+import com.esprit.notification.dto.NotificationResponse;
+import lombok.extern.slf4j.Slf4j;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.Consumer;
+
+/** Delivers to listeners of this JVM only, on the publishing thread. */
+@Slf4j
+public class InProcessNotificationBus implements NotificationBus {
+
+    private final List<Consumer<NotificationResponse>> listeners = new CopyOnWriteArrayList<>();
+
+    @Override
+    public void publish(NotificationResponse notification) {
+        for (Consumer<NotificationResponse> listener : listeners) {
+            try {
+                listener.accept(notification);
+            } catch (Exception e) {
+                log.warn("Notification listener failed for {}: {}", notification.getId(), e.getMessage());
+            }
+        }
+    }
+
+    @Override
+    public void subscribe(Consumer<NotificationResponse> listener) {
+        listeners.add(listener);
+    }
+}
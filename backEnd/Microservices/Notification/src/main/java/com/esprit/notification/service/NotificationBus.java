@@ -0,0 +1,20 @@
+package com.esprit.notification.service;
+
+import com.esprit.notification.dto.NotificationResponse;
+
+import java.util.function.Consumer;
+
+/**
+ * Carries newly created notifications to every replica's push connections.
+ * <p>
+ * {@link InProcessNotificationBus} for a single instance (and tests); {@link FirestoreNotificationBus} fans out across
+ * replicas sharing the Firestore project (see {@code NotificationPushConfig}).
+ */
+public interface NotificationBus {
+
+    /** Called after the notification has been stored. */
+    void publish(NotificationResponse notification);
+
+    /** Registers a listener for notifications published on any replica the bus reaches. */
+    void subscribe(Consumer<NotificationResponse> listener);
+}
@@ -0,0 +1,89 @@
+package com.esprit.notification.service;
+
+import com.esprit.notification.dto.NotificationRequest;
+import com.esprit.notification.dto.NotificationResponse;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.time.format.DateTimeFormatter;
+import java.util.Base64;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Document layout shared by the notification stores, and the page cursor.
+ * <p>
+ * {@code createdAt} is written as fixed-width ISO-8601 (millisecond precision) so that string order is time order,
+ * which lets Firestore sort and page on it.
+ */
+final class NotificationDocuments {
+
+    static final DateTimeFormatter CREATED_AT = DateTimeFormatter.ofPattern("yyyy-MM-dd'T'HH:mm:ss.SSS'Z'")
+        .withZone(ZoneOffset.UTC);
+
+    /** Position after which the next page starts: (createdAt, id) of the last notification returned. */
+    record Cursor(String createdAt, String id) {
+    }
+
+    private NotificationDocuments() {
+    }
+
+    static Map<String, Object> newDocument(NotificationRequest request, Instant now) {
+        Map<String, Object> data = new HashMap<>();
+        data.put("userId", request.getUserId());
+        data.put("title", request.getTitle());
+        data.put("body", request.getBody() != null ? request.getBody() : "");
+        data.put("type", request.getType() != null ? request.getType() : "GENERAL");
+        data.put("read", false);
+        data.put("createdAt", CREATED_AT.format(now));
+        if (request.getData() != null && !request.getData().isEmpty()) {
+            data.put("data", request.getData());
+        }
+        return data;
+    }
+
+    static String format(Instant instant) {
+        return CREATED_AT.format(instant);
+    }
+
+    @SuppressWarnings("unchecked")
+    static NotificationResponse toResponse(String id, Map<String, Object> data) {
+        if (data == null) {
+            return null;
+        }
+        return NotificationResponse.builder()
+            .id(id)
+            .userId((String) data.get("userId"))
+            .title((String) data.get("title"))
+            .body((String) data.get("body"))
+            .type((String) data.get("type"))
+            .read(Boolean.TRUE.equals(data.get("read")))
+            .createdAt(Instant.parse((String) data.get("createdAt")))
+            .data(data.get("data") != null ? (Map<String, String>) (Map<?, ?>) data.get("data") : null)
+            .build();
+    }
+
+    static String encodeCursor(String createdAt, String id) {
+        return Base64.getUrlEncoder().withoutPadding()
+            .encodeToString((createdAt + "|" + id).getBytes(StandardCharsets.UTF_8));
+    }
+
+    /** Null for a missing cursor; {@link IllegalArgumentException} for a malformed one. */
+    static Cursor decodeCursor(String cursor) {
+        if (cursor == null || cursor.isBlank()) {
+            return null;
+        }
+        String raw;
+        try {
+            raw = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("Invalid cursor");
+        }
+        int sep = raw.indexOf('|');
+        if (sep <= 0 || sep == raw.length() - 1) {
+            throw new IllegalArgumentException("Invalid cursor");
+        }
+        return new Cursor(raw.substring(0, sep), raw.substring(sep + 1));
+    }
+}
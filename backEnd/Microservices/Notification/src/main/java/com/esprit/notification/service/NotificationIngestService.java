@@ -0,0 +1,223 @@
+package com.esprit.notification.service;
+
+import com.esprit.notification.dto.NotificationRequest;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ConcurrentLinkedDeque;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Asynchronous path for batches of notifications: {@link #submit} queues the batch on a bounded executor and returns.
+ * <p>
+ * When all {@code notification.ingest.threads} are busy and {@code notification.ingest.queue-capacity} batches are
+ * waiting, the calling request thread writes its batch itself, so a slow store throttles producers instead of
+ * dropping notifications. Throughput is metered per producer ({@code X-Producer} header) together with the queue size.
+ * <p>
+ * The 202 only means accepted: a failed write is retried {@code notification.ingest.max-attempts} times with a linear
+ * backoff, each retry covering only the notifications not yet committed (a {@link PartialWriteException} reports the
+ * committed prefix, so chunks are never written twice). What is still unwritten then goes to an in-memory dead-letter
+ * queue of at most {@code notification.ingest.dead-letter-capacity} notifications, retried every
+ * {@code notification.ingest.dead-letter-retry-ms}; only an overflow of that queue drops notifications
+ * ({@code notification.ingest.dropped}).
+ */
+@Service
+@Slf4j
+public class NotificationIngestService {
+
+    private static final int MAX_PRODUCER_TAG_LENGTH = 40;
+
+    private final NotificationService notificationService;
+    private final MeterRegistry meterRegistry;
+    private final ThreadPoolExecutor executor;
+    private final int maxAttempts;
+    private final long retryBackoffMs;
+    private final int deadLetterCapacity;
+    private final ConcurrentLinkedDeque<DeadLetter> deadLetters = new ConcurrentLinkedDeque<>();
+    /** Notifications held in {@link #deadLetters}, bounded by {@link #deadLetterCapacity}. */
+    private final AtomicInteger deadLettered = new AtomicInteger();
+
+    public NotificationIngestService(NotificationService notificationService,
+                                     MeterRegistry meterRegistry,
+                                     @Value("${notification.ingest.threads:4}") int threads,
+                                     @Value("${notification.ingest.queue-capacity:1000}") int queueCapacity,
+                                     @Value("${notification.ingest.max-attempts:3}") int maxAttempts,
+                                     @Value("${notification.ingest.retry-backoff-ms:200}") long retryBackoffMs,
+                                     @Value("${notification.ingest.dead-letter-capacity:10000}") int deadLetterCapacity) {
+        this.notificationService = notificationService;
+        this.meterRegistry = meterRegistry;
+        this.maxAttempts = Math.max(1, maxAttempts);
+        this.retryBackoffMs = retryBackoffMs;
+        this.deadLetterCapacity = deadLetterCapacity;
+        AtomicInteger n = new AtomicInteger();
+        this.executor = new ThreadPoolExecutor(threads, threads, 0, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(queueCapacity),
+                r -> {
+                    Thread t = new Thread(r, "notification-ingest-" + n.incrementAndGet());
+                    t.setDaemon(true);
+                    return t;
+                },
+                new ThreadPoolExecutor.CallerRunsPolicy());
+    }
+
+    @PostConstruct
+    void registerGauges() {
+        Gauge.builder("notification.ingest.queue.size", executor, e -> e.getQueue().size())
+                .description("Notification batches accepted but not started")
+                .register(meterRegistry);
+        Gauge.builder("notification.ingest.active", executor, ThreadPoolExecutor::getActiveCount)
+                .description("Notification batches being written")
+                .register(meterRegistry);
+        Gauge.builder("notification.ingest.dead_letter.size", deadLettered, AtomicInteger::get)
+                .description("Notifications that exhausted their write attempts, waiting for the next retry pass")
+                .register(meterRegistry);
+    }
+
+    @PreDestroy
+    void stop() throws InterruptedException {
+        executor.shutdown();
+        if (!executor.awaitTermination(10, TimeUnit.SECONDS)) {
+            log.warn("Notification ingest stopped with {} batch(es) not written", executor.getQueue().size());
+        }
+        if (deadLettered.get() > 0) {
+            log.warn("Notification ingest stopped with {} dead-lettered notification(s) not written", deadLettered.get());
+        }
+    }
+
+    /** Accepts the batch for writing; returns how many notifications were accepted. */
+    public int submit(String producer, List<NotificationRequest> requests) {
+        String tag = producerTag(producer);
+        counter("notification.ingest.received", tag).increment(requests.size());
+        executor.execute(() -> write(tag, requests));
+        return requests.size();
+    }
+
+    private void write(String producer, List<NotificationRequest> requests) {
+        Timer.Sample sample = Timer.start(meterRegistry);
+        try {
+            List<NotificationRequest> unwritten = writeWithRetries(producer, requests);
+            if (!unwritten.isEmpty()) {
+                deadLetter(producer, unwritten);
+            }
+        } finally {
+            sample.stop(Timer.builder("notification.ingest.batch")
+                    .description("Notification batch write")
+                    .tag("producer", producer)
+                    .register(meterRegistry));
+        }
+    }
+
+    /** Writes the batch, retrying what is not committed yet; returns the notifications still unwritten. */
+    private List<NotificationRequest> writeWithRetries(String producer, List<NotificationRequest> requests) {
+        List<NotificationRequest> remaining = requests;
+        boolean interrupted = false;
+        try {
+            for (int attempt = 1; ; attempt++) {
+                Exception failure;
+                try {
+                    notificationService.createAll(remaining);
+                    counter("notification.ingest.written", producer).increment(remaining.size());
+                    return List.of();
+                } catch (PartialWriteException e) {
+                    int committed = e.getWritten().size();
+                    counter("notification.ingest.written", producer).increment(committed);
+                    remaining = remaining.subList(committed, remaining.size());
+                    failure = e;
+                } catch (Exception e) {
+                    failure = e;
+                }
+                // a flag left set by the failed write is not a shutdown: clear it so the backoff waits, and hand it
+                // back once the batch is done
+                interrupted |= Thread.interrupted();
+                if (attempt >= maxAttempts || !backOff(attempt)) {
+                    log.warn("Failed to write {} notification(s) from {} after {} attempt(s): {}",
+                            remaining.size(), producer, attempt, failure.getMessage());
+                    return remaining;
+                }
+            }
+        } finally {
+            if (interrupted) {
+                Thread.currentThread().interrupt();
+            }
+        }
+    }
+
+    /** Waits before the next attempt; false when interrupted while waiting (the flag is then restored). */
+    private boolean backOff(int attempt) {
+        try {
+            Thread.sleep(retryBackoffMs * attempt);
+            return true;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        }
+    }
+
+    private void deadLetter(String producer, List<NotificationRequest> requests) {
+        counter("notification.ingest.failed", producer).increment(requests.size());
+        if (deadLettered.addAndGet(requests.size()) > deadLetterCapacity) {
+            deadLettered.addAndGet(-requests.size());
+            counter("notification.ingest.dropped", producer).increment(requests.size());
+            log.error("Dead-letter queue full: dropped {} notification(s) from {}", requests.size(), producer);
+            return;
+        }
+        deadLetters.addLast(new DeadLetter(producer, List.copyOf(requests)));
+    }
+
+    /**
+     * Retries the dead-lettered batches in arrival order, stopping at the first one that still fails (it goes back to
+     * the head with only its unwritten part); returns how many notifications were written.
+     */
+    @Scheduled(fixedDelayString = "${notification.ingest.dead-letter-retry-ms:60000}")
+    public int retryDeadLetters() {
+        int written = 0;
+        DeadLetter next;
+        while ((next = deadLetters.pollFirst()) != null) {
+            List<NotificationRequest> unwritten = writeWithRetries(next.producer(), next.requests());
+            int done = next.requests().size() - unwritten.size();
+            deadLettered.addAndGet(-done);
+            written += done;
+            if (!unwritten.isEmpty()) {
+                deadLetters.addFirst(new DeadLetter(next.producer(), List.copyOf(unwritten)));
+                break;
+            }
+        }
+        if (written > 0) {
+            log.info("Notification ingest: wrote {} dead-lettered notification(s)", written);
+        }
+        return written;
+    }
+
+    /** Notifications currently dead-lettered. */
+    public int deadLetterCount() {
+        return deadLettered.get();
+    }
+
+    private Counter counter(String name, String producer) {
+        return Counter.builder(name).tag("producer", producer).register(meterRegistry);
+    }
+
+    /** Keeps the tag bounded: lower-case service names only. */
+    private static String producerTag(String producer) {
+        if (producer == null || producer.isBlank()) {
+            return "unknown";
+        }
+        String tag = producer.trim().toLowerCase().replaceAll("[^a-z0-9_-]", "");
+        return tag.isEmpty() ? "unknown" : tag.substring(0, Math.min(tag.length(), MAX_PRODUCER_TAG_LENGTH));
+    }
+
+    private record DeadLetter(String producer, List<NotificationRequest> requests) {
+    }
+}
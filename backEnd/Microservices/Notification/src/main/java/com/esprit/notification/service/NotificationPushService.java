@@ -0,0 +1,181 @@
+package com.esprit.notification.service;
+
+import com.esprit.notification.dto.NotificationResponse;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedDeque;
+
+/**
+ * Server-sent events for new notifications, so clients do not poll.
+ * <p>
+ * Each event's id is the notification's page cursor; a client reconnecting with {@code Last-Event-ID} first receives
+ * what it missed, oldest first. When more than {@code notification.push.replay-limit} were missed nothing is replayed:
+ * a single {@value #RESET_EVENT} event (id: the newest notification) tells the client to reload its list and count
+ * instead, since a partial replay would silently leave a hole. A user keeps at most
+ * {@code notification.push.max-connections-per-user} streams (the oldest is closed), and a comment is sent every
+ * {@code notification.push.heartbeat-ms} so proxies keep idle streams open and dead ones are detected.
+ */
+@Service
+@Slf4j
+public class NotificationPushService {
+
+    static final String EVENT_NAME = "notification";
+    static final String RESET_EVENT = "reset";
+
+    private final NotificationStore notificationStore;
+    private final NotificationBus notificationBus;
+    private final MeterRegistry meterRegistry;
+    private final int maxConnectionsPerUser;
+    private final long timeoutMs;
+    private final int replayLimit;
+
+    private final Map<String, Deque<SseEmitter>> connections = new ConcurrentHashMap<>();
+
+    public NotificationPushService(NotificationStore notificationStore,
+                                   NotificationBus notificationBus,
+                                   MeterRegistry meterRegistry,
+                                   @Value("${notification.push.max-connections-per-user:5}") int maxConnectionsPerUser,
+                                   @Value("${notification.push.timeout-ms:1800000}") long timeoutMs,
+                                   @Value("${notification.push.replay-limit:50}") int replayLimit) {
+        this.notificationStore = notificationStore;
+        this.notificationBus = notificationBus;
+        this.meterRegistry = meterRegistry;
+        this.maxConnectionsPerUser = maxConnectionsPerUser;
+        this.timeoutMs = timeoutMs;
+        this.replayLimit = replayLimit;
+    }
+
+    @PostConstruct
+    void start() {
+        notificationBus.subscribe(this::deliver);
+        Gauge.builder("notification.push.connections", this, NotificationPushService::connectionCount)
+                .description("Open notification event streams")
+                .register(meterRegistry);
+    }
+
+    /** Opens a stream for the user, replaying what was created after {@code lastEventId} when given. */
+    public SseEmitter subscribe(String userId, String lastEventId) {
+        NotificationDocuments.Cursor since = NotificationDocuments.decodeCursor(lastEventId);
+        SseEmitter emitter = newEmitter();
+        Deque<SseEmitter> userConnections = connections.computeIfAbsent(userId, u -> new ConcurrentLinkedDeque<>());
+        userConnections.addLast(emitter);
+        emitter.onCompletion(() -> remove(userId, emitter));
+        emitter.onTimeout(() -> remove(userId, emitter));
+        emitter.onError(e -> remove(userId, emitter));
+        while (userConnections.size() > maxConnectionsPerUser) {
+            SseEmitter oldest = userConnections.pollFirst();
+            if (oldest != null) {
+                oldest.complete();
+            }
+        }
+        if (since != null) {
+            replay(emitter, userId, since);
+        }
+        return emitter;
+    }
+
+    /** Sends the notification to the recipient's streams on this instance. */
+    public void deliver(NotificationResponse notification) {
+        Deque<SseEmitter> userConnections = connections.get(notification.getUserId());
+        if (userConnections == null) {
+            return;
+        }
+        for (SseEmitter emitter : userConnections) {
+            if (!send(emitter, notification)) {
+                remove(notification.getUserId(), emitter);
+            }
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${notification.push.heartbeat-ms:25000}")
+    public void heartbeat() {
+        connections.forEach((userId, userConnections) -> {
+            for (SseEmitter emitter : userConnections) {
+                try {
+                    emitter.send(SseEmitter.event().comment("ping"));
+                } catch (IOException | IllegalStateException e) {
+                    remove(userId, emitter);
+                }
+            }
+        });
+    }
+
+    public int connectionCount() {
+        return connections.values().stream().mapToInt(Deque::size).sum();
+    }
+
+    SseEmitter newEmitter() {
+        return new SseEmitter(timeoutMs);
+    }
+
+    /** Sends what was missed since the cursor, or a reset when the gap is larger than the replay limit. */
+    private void replay(SseEmitter emitter, String userId, NotificationDocuments.Cursor since) {
+        List<NotificationResponse> newest = notificationStore.findByUser(userId, null, replayLimit + 1, false).getItems();
+        List<NotificationResponse> missed = newerThan(newest, since);
+        if (missed.size() > replayLimit) {
+            sendReset(emitter, newest.get(0));
+            return;
+        }
+        for (NotificationResponse n : missed) {
+            if (!send(emitter, n)) {
+                break;
+            }
+        }
+    }
+
+    /** The notifications (newest first) newer than the cursor, oldest first. */
+    private static List<NotificationResponse> newerThan(List<NotificationResponse> newest, NotificationDocuments.Cursor since) {
+        List<NotificationResponse> missed = new ArrayList<>();
+        for (NotificationResponse n : newest) {
+            int cmp = NotificationDocuments.format(n.getCreatedAt()).compareTo(since.createdAt());
+            if (cmp < 0 || (cmp == 0 && n.getId().compareTo(since.id()) <= 0)) {
+                break;
+            }
+            missed.add(0, n);
+        }
+        return missed;
+    }
+
+    private void sendReset(SseEmitter emitter, NotificationResponse newest) {
+        try {
+            emitter.send(SseEmitter.event().id(eventId(newest)).name(RESET_EVENT).data(Map.of("replayLimit", replayLimit)));
+        } catch (IOException | IllegalStateException e) {
+            log.debug("Dropping notification stream: {}", e.getMessage());
+        }
+    }
+
+    private boolean send(SseEmitter emitter, NotificationResponse notification) {
+        try {
+            emitter.send(SseEmitter.event().id(eventId(notification)).name(EVENT_NAME).data(notification));
+            return true;
+        } catch (IOException | IllegalStateException e) {
+            log.debug("Dropping notification stream: {}", e.getMessage());
+            return false;
+        }
+    }
+
+    private static String eventId(NotificationResponse notification) {
+        return NotificationDocuments.encodeCursor(
+                NotificationDocuments.format(notification.getCreatedAt()), notification.getId());
+    }
+
+    private void remove(String userId, SseEmitter emitter) {
+        connections.computeIfPresent(userId, (u, userConnections) -> {
+            userConnections.remove(emitter);
+            return userConnections.isEmpty() ? null : userConnections;
+        });
+    }
+}
@@ -0,0 +1,36 @@
+package com.esprit.notification.service;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.Instant;
+
+/**
+ * Deletes notifications older than {@code notification.retention.days} (0 disables it); the stores also drop the
+ * per-user index entries and counters that become empty.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class NotificationRetentionJob {
+
+    private final NotificationStore notificationStore;
+
+    @Value("${notification.retention.days:90}")
+    private int retentionDays;
+
+    @Scheduled(cron = "${notification.retention.cron:0 30 3 * * *}")
+    public void purgeExpired() {
+        if (retentionDays <= 0) {
+            return;
+        }
+        int removed = notificationStore.deleteOlderThan(Instant.now().minus(Duration.ofDays(retentionDays)));
+        if (removed > 0) {
+            log.info("Notification retention: removed {} notification(s) older than {} days", removed, retentionDays);
+        }
+    }
+}
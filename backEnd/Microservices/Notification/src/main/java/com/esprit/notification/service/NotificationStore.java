@@ -0,0 +1,43 @@
+package com.esprit.notification.service;
+
+import com.esprit.notification.dto.NotificationPage;
+import com.esprit.notification.dto.NotificationRequest;
+import com.esprit.notification.dto.NotificationResponse;
+
+import java.time.Instant;
+import java.util.List;
+
+/**
+ * Storage engine for notifications: a per-user index ordered by creation time (newest first) with cursor paging,
+ * a maintained unread counter per user, and bulk operations.
+ * <p>
+ * {@link FirestoreNotificationStore} when Firebase is enabled, {@link InMemoryNotificationStore} otherwise
+ * (see {@code NotificationStoreConfig}).
+ */
+public interface NotificationStore {
+
+    NotificationResponse create(NotificationRequest request);
+
+    /**
+     * Writes all notifications in as few round trips as the backend allows; responses are in request order.
+     * Throws {@link PartialWriteException} when a failure leaves a prefix of the batch committed.
+     */
+    List<NotificationResponse> createAll(List<NotificationRequest> requests);
+
+    /** {@code limit} notifications of the user older than {@code cursor} (null: newest), optionally unread only. */
+    NotificationPage findByUser(String userId, String cursor, int limit, boolean unreadOnly);
+
+    long unreadCount(String userId);
+
+    /** The updated notification, or null when it does not exist. */
+    NotificationResponse markRead(String id);
+
+    /** Marks every unread notification of the user as read; returns how many changed. */
+    int markAllRead(String userId);
+
+    /** Whether the notification existed. */
+    boolean delete(String id);
+
+    /** Retention: removes notifications created before {@code cutoff}; returns how many were removed. */
+    int deleteOlderThan(Instant cutoff);
+}
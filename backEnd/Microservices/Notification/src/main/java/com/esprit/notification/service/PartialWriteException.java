@@ -0,0 +1,22 @@
+package com.esprit.notification.service;
+
+import com.esprit.notification.dto.NotificationResponse;
+import lombok.Getter;
+
+import java.util.List;
+
+/**
+ * A bulk write failed after some of its chunks were committed. {@link #getWritten()} holds the committed
+ * notifications, which are always the first {@code getWritten().size()} requests of the batch, so a caller can retry
+ * the rest without duplicating them.
+ */
+@Getter
+public class PartialWriteException extends RuntimeException {
+
+    private final List<NotificationResponse> written;
+
+    public PartialWriteException(String message, List<NotificationResponse> written, Throwable cause) {
+        super(message, cause);
+        this.written = List.copyOf(written);
+    }
+}
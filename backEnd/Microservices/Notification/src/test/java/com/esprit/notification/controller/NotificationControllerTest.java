@@ -1,7 +1,11 @@
 package com.esprit.notification.controller;
 
+import com.esprit.notification.dto.NotificationBatchRequest;
+import com.esprit.notification.dto.NotificationPage;
 import com.esprit.notification.dto.NotificationRequest;
 import com.esprit.notification.dto.NotificationResponse;
+import com.esprit.notification.service.NotificationIngestService;
+import com.esprit.notification.service.NotificationPushService;
 import com.esprit.notification.service.NotificationService;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
@@ -10,9 +14,11 @@ import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 
 import java.time.Instant;
 import java.util.List;
+import java.util.Map;
 
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.mockito.Mockito.verify;
@@ -24,6 +30,12 @@ class NotificationControllerTest {
     @Mock
     private NotificationService notificationService;
 
+    @Mock
+    private NotificationIngestService notificationIngestService;
+
+    @Mock
+    private NotificationPushService notificationPushService;
+
     @InjectMocks
     private NotificationController notificationController;
 
@@ -52,10 +64,10 @@ class NotificationControllerTest {
                 .title("tt")
                 .createdAt(Instant.now())
                 .build();
-        when(notificationService.findByUserId("u2")).thenReturn(List.of(response));
+        when(notificationService.findByUserId("u2", 50, false)).thenReturn(List.of(response));
         when(notificationService.markRead("id-2")).thenReturn(response);
 
-        List<NotificationResponse> found = notificationController.findByUserId("u2");
+        List<NotificationResponse> found = notificationController.findByUserId("u2", 50, false);
         NotificationResponse marked = notificationController.markRead("id-2");
         notificationController.delete("id-2");
 
@@ -63,4 +75,47 @@ class NotificationControllerTest {
         assertThat(marked.getId()).isEqualTo("id-2");
         verify(notificationService).delete("id-2");
     }
+
+    @Test
+    void pageCountAndReadAll_delegateToService() {
+        NotificationPage page = new NotificationPage(List.of(), null, false);
+        when(notificationService.findPage("u3", "c", 20, true)).thenReturn(page);
+        when(notificationService.unreadCount("u3")).thenReturn(7L);
+        when(notificationService.markAllRead("u3")).thenReturn(7);
+
+        assertThat(notificationController.findPage("u3", "c", 20, true)).isSameAs(page);
+        assertThat(notificationController.unreadCount("u3")).containsEntry("unread", 7L);
+        assertThat(notificationController.markAllRead("u3")).containsEntry("updated", 7);
+    }
+
+    @Test
+    void invalidCursor_mapsToBadRequest() {
+        ResponseEntity<Map<String, String>> out =
+                notificationController.badRequest(new IllegalArgumentException("Invalid cursor"));
+
+        assertThat(out.getStatusCode()).isEqualTo(HttpStatus.BAD_REQUEST);
+        assertThat(out.getBody()).containsEntry("error", "Invalid cursor");
+    }
+
+    @Test
+    void createBatch_submitsAndReturnsAccepted() {
+        List<NotificationRequest> items = List.of(
+                NotificationRequest.builder().userId("u1").title("a").build(),
+                NotificationRequest.builder().userId("u2").title("a").build());
+        when(notificationIngestService.submit("task", items)).thenReturn(2);
+
+        ResponseEntity<Map<String, Integer>> out =
+                notificationController.createBatch("task", new NotificationBatchRequest(items));
+
+        assertThat(out.getStatusCode()).isEqualTo(HttpStatus.ACCEPTED);
+        assertThat(out.getBody()).containsEntry("accepted", 2);
+    }
+
+    @Test
+    void stream_opensSubscriptionWithLastEventId() {
+        SseEmitter emitter = new SseEmitter();
+        when(notificationPushService.subscribe("u1", "cursor")).thenReturn(emitter);
+
+        assertThat(notificationController.stream("u1", "cursor")).isSameAs(emitter);
+    }
 }
@@ -0,0 +1,284 @@
+package com.esprit.notification.service;
+
+import com.esprit.notification.dto.NotificationPage;
+import com.esprit.notification.dto.NotificationRequest;
+import com.esprit.notification.dto.NotificationResponse;
+import com.google.api.core.ApiFuture;
+import com.google.api.core.ApiFutures;
+import com.google.cloud.firestore.AggregateQuery;
+import com.google.cloud.firestore.AggregateQuerySnapshot;
+import com.google.cloud.firestore.CollectionReference;
+import com.google.cloud.firestore.DocumentReference;
+import com.google.cloud.firestore.DocumentSnapshot;
+import com.google.cloud.firestore.FieldPath;
+import com.google.cloud.firestore.Firestore;
+import com.google.cloud.firestore.Query;
+import com.google.cloud.firestore.QueryDocumentSnapshot;
+import com.google.cloud.firestore.QuerySnapshot;
+import com.google.cloud.firestore.SetOptions;
+import com.google.cloud.firestore.Transaction;
+import com.google.cloud.firestore.WriteBatch;
+import com.google.cloud.firestore.WriteResult;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutionException;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyMap;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@SuppressWarnings({"unchecked", "null"})
+class FirestoreNotificationStoreTest {
+
+    private Firestore firestore;
+    private CollectionReference collection;
+    private CollectionReference counters;
+    private WriteBatch batch;
+    private Transaction transaction;
+    private ApiFuture<List<WriteResult>> commitFuture;
+    private FirestoreNotificationStore store;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        firestore = mock(Firestore.class);
+        collection = mock(CollectionReference.class);
+        counters = mock(CollectionReference.class);
+        batch = mock(WriteBatch.class);
+        commitFuture = (ApiFuture<List<WriteResult>>) mock(ApiFuture.class);
+        when(firestore.collection("notifications")).thenReturn(collection);
+        when(firestore.collection("notification_counters")).thenReturn(counters);
+        when(firestore.batch()).thenReturn(batch);
+        when(batch.commit()).thenReturn(commitFuture);
+        when(commitFuture.get()).thenReturn(List.of());
+        // runs the transaction body once against a mocked Transaction, failures surfacing from the returned future
+        transaction = mock(Transaction.class);
+        when(firestore.runTransaction(any(Transaction.Function.class))).thenAnswer(inv -> {
+            try {
+                return ApiFutures.immediateFuture(((Transaction.Function<Object>) inv.getArgument(0)).updateCallback(transaction));
+            } catch (Exception e) {
+                return ApiFutures.immediateFailedFuture(e);
+            }
+        });
+        store = new FirestoreNotificationStore(firestore);
+    }
+
+    @Test
+    void create_writesDocumentAndCounterInOneBatch() {
+        DocumentReference ref = mock(DocumentReference.class);
+        DocumentReference counter = mock(DocumentReference.class);
+        when(collection.document()).thenReturn(ref);
+        when(ref.getId()).thenReturn("doc-1");
+        when(counters.document("u-1")).thenReturn(counter);
+
+        NotificationResponse response = store.create(NotificationRequest.builder().userId("u-1").title("hello").build());
+
+        assertThat(response.getId()).isEqualTo("doc-1");
+        assertThat(response.getUserId()).isEqualTo("u-1");
+        assertThat(response.isRead()).isFalse();
+        verify(batch).set(eq(ref), anyMap());
+        verify(batch).set(eq(counter), anyMap(), any(SetOptions.class));
+        verify(batch).commit();
+    }
+
+    @Test
+    void createAll_commitsOneBatchWithOneCounterIncrementPerUser() {
+        DocumentReference ref = mock(DocumentReference.class);
+        DocumentReference counter1 = mock(DocumentReference.class);
+        DocumentReference counter2 = mock(DocumentReference.class);
+        when(collection.document()).thenReturn(ref);
+        when(ref.getId()).thenReturn("a", "b", "c");
+        when(counters.document("u-1")).thenReturn(counter1);
+        when(counters.document("u-2")).thenReturn(counter2);
+
+        List<NotificationResponse> created = store.createAll(List.of(
+                NotificationRequest.builder().userId("u-1").title("x").build(),
+                NotificationRequest.builder().userId("u-2").title("x").build(),
+                NotificationRequest.builder().userId("u-1").title("x").build()));
+
+        assertThat(created).extracting(NotificationResponse::getId).containsExactly("a", "b", "c");
+        verify(batch, times(3)).set(eq(ref), anyMap());
+        verify(batch).set(eq(counter1), anyMap(), any(SetOptions.class));
+        verify(batch).set(eq(counter2), anyMap(), any(SetOptions.class));
+        verify(batch, times(1)).commit();
+    }
+
+    @Test
+    void findByUser_pushesOrderAndLimitDownToQuery() throws Exception {
+        Query query = mock(Query.class);
+        ApiFuture<QuerySnapshot> queryFuture = (ApiFuture<QuerySnapshot>) mock(ApiFuture.class);
+        QuerySnapshot querySnapshot = mock(QuerySnapshot.class);
+        QueryDocumentSnapshot newer = doc("n-2", "2026-01-01T10:01:00.000Z");
+        QueryDocumentSnapshot older = doc("n-1", "2026-01-01T10:00:00.000Z");
+
+        when(collection.whereEqualTo("userId", "u-2")).thenReturn(query);
+        when(query.orderBy("createdAt", Query.Direction.DESCENDING)).thenReturn(query);
+        when(query.orderBy(any(FieldPath.class), eq(Query.Direction.DESCENDING))).thenReturn(query);
+        when(query.limit(2)).thenReturn(query);
+        when(query.get()).thenReturn(queryFuture);
+        when(queryFuture.get()).thenReturn(querySnapshot);
+        when(querySnapshot.getDocuments()).thenReturn(List.of(newer, older));
+
+        NotificationPage page = store.findByUser("u-2", null, 1, false);
+
+        assertThat(page.getItems()).extracting(NotificationResponse::getId).containsExactly("n-2");
+        assertThat(page.isHasMore()).isTrue();
+        assertThat(NotificationDocuments.decodeCursor(page.getNextCursor()))
+                .isEqualTo(new NotificationDocuments.Cursor("2026-01-01T10:01:00.000Z", "n-2"));
+        verify(query).limit(2);
+        verify(query, never()).whereEqualTo("read", false);
+    }
+
+    @Test
+    void unreadCount_readsCounterDocument() throws Exception {
+        DocumentReference counter = mock(DocumentReference.class);
+        ApiFuture<DocumentSnapshot> future = (ApiFuture<DocumentSnapshot>) mock(ApiFuture.class);
+        DocumentSnapshot snapshot = mock(DocumentSnapshot.class);
+        when(counters.document("u-3")).thenReturn(counter);
+        when(counter.get()).thenReturn(future);
+        when(future.get()).thenReturn(snapshot);
+        when(snapshot.exists()).thenReturn(true);
+        when(snapshot.getBoolean("backfilled")).thenReturn(true);
+        when(snapshot.getLong("unread")).thenReturn(4L);
+
+        assertThat(store.unreadCount("u-3")).isEqualTo(4);
+        verify(collection, never()).whereEqualTo(any(String.class), any());
+    }
+
+    @Test
+    void unreadCount_counterNeverBackfilled_recountsUnreadDocumentsInTransaction() throws Exception {
+        DocumentReference counter = mock(DocumentReference.class);
+        DocumentSnapshot partial = mock(DocumentSnapshot.class);
+        when(counters.document("u-5")).thenReturn(counter);
+        when(counter.get()).thenReturn(ApiFutures.immediateFuture(partial));
+        when(transaction.get(counter)).thenReturn(ApiFutures.immediateFuture(partial));
+        // created by increments only: holds the notifications since the counter appeared, not the older ones
+        when(partial.exists()).thenReturn(true);
+        when(partial.getLong("unread")).thenReturn(1L);
+        Query query = mock(Query.class);
+        AggregateQuery count = mock(AggregateQuery.class);
+        AggregateQuerySnapshot counted = mock(AggregateQuerySnapshot.class);
+        when(collection.whereEqualTo("userId", "u-5")).thenReturn(query);
+        when(query.whereEqualTo("read", false)).thenReturn(query);
+        when(query.count()).thenReturn(count);
+        when(transaction.get(count)).thenReturn(ApiFutures.immediateFuture(counted));
+        when(counted.getCount()).thenReturn(6L);
+
+        assertThat(store.unreadCount("u-5")).isEqualTo(6);
+        verify(transaction).set(counter, Map.of("unread", 6L, "backfilled", true));
+    }
+
+    @Test
+    void markRead_updatesDocumentAndDecrementsCounterInTransaction() throws Exception {
+        DocumentReference ref = mock(DocumentReference.class);
+        DocumentReference counter = mock(DocumentReference.class);
+        DocumentSnapshot snapshot = mock(DocumentSnapshot.class);
+        when(collection.document("id-1")).thenReturn(ref);
+        when(counters.document("u-3")).thenReturn(counter);
+        when(transaction.get(ref)).thenReturn(ApiFutures.immediateFuture(snapshot));
+        when(snapshot.exists()).thenReturn(true);
+        when(snapshot.getData()).thenReturn(data("u-3", false, "2026-01-01T10:00:00.000Z"));
+
+        NotificationResponse marked = store.markRead("id-1");
+
+        assertThat(marked.isRead()).isTrue();
+        verify(transaction).update(ref, "read", true);
+        verify(transaction).set(eq(counter), anyMap(), any(SetOptions.class));
+        verify(batch, never()).commit();
+    }
+
+    @Test
+    void markRead_alreadyReadInsideTransaction_doesNotDecrementAgain() throws Exception {
+        DocumentReference ref = mock(DocumentReference.class);
+        DocumentSnapshot snapshot = mock(DocumentSnapshot.class);
+        when(collection.document("id-2")).thenReturn(ref);
+        when(transaction.get(ref)).thenReturn(ApiFutures.immediateFuture(snapshot));
+        when(snapshot.exists()).thenReturn(true);
+        when(snapshot.getData()).thenReturn(data("u-3", true, "2026-01-01T10:00:00.000Z"));
+
+        assertThat(store.markRead("id-2").isRead()).isTrue();
+        verify(transaction, never()).update(any(DocumentReference.class), any(String.class), any());
+        verify(transaction, never()).set(any(DocumentReference.class), anyMap(), any(SetOptions.class));
+    }
+
+    @Test
+    void markRead_returnsNullWhenMissing() throws Exception {
+        DocumentReference ref = mock(DocumentReference.class);
+        DocumentSnapshot snapshot = mock(DocumentSnapshot.class);
+        when(collection.document("missing")).thenReturn(ref);
+        when(transaction.get(ref)).thenReturn(ApiFutures.immediateFuture(snapshot));
+        when(snapshot.exists()).thenReturn(false);
+
+        assertThat(store.markRead("missing")).isNull();
+        verify(transaction, never()).update(any(DocumentReference.class), any(String.class), any());
+    }
+
+    @Test
+    void create_wrapsExecutionExceptionAsRuntime() throws Exception {
+        when(collection.document()).thenReturn(mock(DocumentReference.class));
+        when(counters.document("u-4")).thenReturn(mock(DocumentReference.class));
+        when(commitFuture.get()).thenThrow(new ExecutionException("boom", new RuntimeException("boom")));
+        NotificationRequest request = NotificationRequest.builder().userId("u-4").title("x").build();
+
+        assertThatThrownBy(() -> store.create(request))
+            .isInstanceOf(RuntimeException.class)
+            .hasMessageContaining("Failed to create notification");
+        assertThat(Thread.interrupted()).isFalse();
+    }
+
+    @Test
+    void createAll_failedCommit_doesNotInterruptTheCaller() throws Exception {
+        when(collection.document()).thenReturn(mock(DocumentReference.class));
+        when(counters.document("u-4")).thenReturn(mock(DocumentReference.class));
+        when(commitFuture.get()).thenThrow(new ExecutionException("unavailable", new RuntimeException("unavailable")));
+        List<NotificationRequest> requests = List.of(NotificationRequest.builder().userId("u-4").title("x").build());
+
+        assertThatThrownBy(() -> store.createAll(requests))
+            .isNotInstanceOf(PartialWriteException.class)
+            .hasMessageContaining("Failed to create notifications");
+        assertThat(Thread.interrupted()).isFalse();
+    }
+
+    @Test
+    void markRead_wrapsInterruptedExceptionAndSetsInterruptedFlag() throws Exception {
+        DocumentReference ref = mock(DocumentReference.class);
+        ApiFuture<DocumentSnapshot> getFuture = (ApiFuture<DocumentSnapshot>) mock(ApiFuture.class);
+        when(collection.document("id-err")).thenReturn(ref);
+        when(transaction.get(ref)).thenReturn(getFuture);
+        when(getFuture.get()).thenThrow(new InterruptedException("interrupted"));
+
+        assertThatThrownBy(() -> store.markRead("id-err"))
+            .isInstanceOf(RuntimeException.class)
+            .hasMessageContaining("Failed to mark notification as read");
+        assertThat(Thread.currentThread().isInterrupted()).isTrue();
+        Thread.interrupted();
+    }
+
+    private static QueryDocumentSnapshot doc(String id, String createdAt) {
+        QueryDocumentSnapshot doc = mock(QueryDocumentSnapshot.class);
+        when(doc.getId()).thenReturn(id);
+        when(doc.getString("createdAt")).thenReturn(createdAt);
+        when(doc.getData()).thenReturn(data("u-2", false, createdAt));
+        return doc;
+    }
+
+    private static Map<String, Object> data(String userId, boolean read, String createdAt) {
+        return Map.of(
+            "userId", userId,
+            "title", "title",
+            "body", "",
+            "type", "GENERAL",
+            "read", read,
+            "createdAt", createdAt
+        );
+    }
+}
@@ -1,57 +1,171 @@
 package com.esprit.notification.service;
 
+import com.esprit.notification.dto.NotificationPage;
 import com.esprit.notification.dto.NotificationRequest;
 import com.esprit.notification.dto.NotificationResponse;
 import org.junit.jupiter.api.Test;
 
-import java.lang.reflect.Field;
+import java.time.Clock;
+import java.time.Duration;
 import java.time.Instant;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
 import java.util.List;
 import java.util.Map;
 
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
 
 class InMemoryNotificationStoreTest {
 
+    private static final Instant T0 = Instant.parse("2026-01-01T10:00:00Z");
+
+    /** Clock that moves forward one minute per notification created. */
+    private static final class SteppingClock extends Clock {
+        private Instant now = T0;
+
+        @Override
+        public Instant instant() {
+            Instant current = now;
+            now = now.plus(Duration.ofMinutes(1));
+            return current;
+        }
+
+        @Override
+        public ZoneId getZone() {
+            return ZoneOffset.UTC;
+        }
+
+        @Override
+        public Clock withZone(ZoneId zone) {
+            return this;
+        }
+    }
+
+    private static NotificationResponse create(InMemoryNotificationStore store, String userId, String title) {
+        return store.create(NotificationRequest.builder().userId(userId).title(title).build());
+    }
+
     @Test
-    void createAndFindByUserId_returnsNewestFirst() throws Exception {
-        InMemoryNotificationStore store = new InMemoryNotificationStore();
+    void createAndFindByUser_returnsNewestFirst() {
+        InMemoryNotificationStore store = new InMemoryNotificationStore(new SteppingClock());
 
         NotificationResponse first = store.create(NotificationRequest.builder()
                 .userId("u-1")
                 .title("first")
                 .data(Map.of("a", "1"))
                 .build());
-        Field docsField = InMemoryNotificationStore.class.getDeclaredField("documents");
-        docsField.setAccessible(true);
-        @SuppressWarnings("unchecked")
-        Map<String, Map<String, Object>> docs = (Map<String, Map<String, Object>>) docsField.get(store);
-        docs.get("notifications/" + first.getId()).put("createdAt", Instant.now().minusSeconds(60).toString());
+        NotificationResponse second = create(store, "u-1", "second");
+        create(store, "other", "not mine");
 
-        NotificationResponse second = store.create(NotificationRequest.builder()
-                .userId("u-1")
-                .title("second")
-                .build());
+        List<NotificationResponse> result = store.findByUser("u-1", null, 10, false).getItems();
+        assertThat(result).extracting(NotificationResponse::getId).containsExactly(second.getId(), first.getId());
+        assertThat(result.get(1).getData()).containsEntry("a", "1");
+    }
+
+    @Test
+    void findByUser_pagesWithCursorUntilExhausted() {
+        InMemoryNotificationStore store = new InMemoryNotificationStore(new SteppingClock());
+        for (int i = 0; i < 5; i++) {
+            create(store, "u-1", "n" + i);
+        }
+
+        NotificationPage page1 = store.findByUser("u-1", null, 2, false);
+        NotificationPage page2 = store.findByUser("u-1", page1.getNextCursor(), 2, false);
+        NotificationPage page3 = store.findByUser("u-1", page2.getNextCursor(), 2, false);
+
+        assertThat(page1.getItems()).extracting(NotificationResponse::getTitle).containsExactly("n4", "n3");
+        assertThat(page2.getItems()).extracting(NotificationResponse::getTitle).containsExactly("n2", "n1");
+        assertThat(page3.getItems()).extracting(NotificationResponse::getTitle).containsExactly("n0");
+        assertThat(page1.isHasMore()).isTrue();
+        assertThat(page3.isHasMore()).isFalse();
+        assertThat(page3.getNextCursor()).isNull();
+    }
 
-        List<NotificationResponse> result = store.findByUserId("u-1");
-        assertThat(result).hasSize(2);
-        assertThat(result.get(0).getId()).isEqualTo(second.getId());
-        assertThat(result.get(1).getId()).isEqualTo(first.getId());
+    @Test
+    void findByUser_rejectsMalformedCursor() {
+        InMemoryNotificationStore store = new InMemoryNotificationStore();
+
+        assertThatThrownBy(() -> store.findByUser("u-1", "%%%", 10, false))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+
+    @Test
+    void unreadOnlyAndCounter_followMarkRead() {
+        InMemoryNotificationStore store = new InMemoryNotificationStore(new SteppingClock());
+        NotificationResponse a = create(store, "u-1", "a");
+        create(store, "u-1", "b");
+
+        store.markRead(a.getId());
+        store.markRead(a.getId());
+
+        assertThat(store.unreadCount("u-1")).isEqualTo(1);
+        assertThat(store.findByUser("u-1", null, 10, true).getItems())
+                .extracting(NotificationResponse::getTitle).containsExactly("b");
+        assertThat(store.findByUser("u-1", null, 10, false).getItems()).hasSize(2);
+    }
+
+    @Test
+    void markAllRead_clearsUnreadForThatUserOnly() {
+        InMemoryNotificationStore store = new InMemoryNotificationStore(new SteppingClock());
+        create(store, "u-1", "a");
+        create(store, "u-1", "b");
+        create(store, "u-2", "c");
+
+        int updated = store.markAllRead("u-1");
+
+        assertThat(updated).isEqualTo(2);
+        assertThat(store.unreadCount("u-1")).isZero();
+        assertThat(store.unreadCount("u-2")).isEqualTo(1);
+        assertThat(store.findByUser("u-1", null, 10, false).getItems()).allMatch(NotificationResponse::isRead);
     }
 
     @Test
     void markReadAndDelete_behaveAsExpected() {
         InMemoryNotificationStore store = new InMemoryNotificationStore();
-        NotificationResponse created = store.create(NotificationRequest.builder()
-                .userId("u-2")
-                .title("title")
-                .build());
+        NotificationResponse created = create(store, "u-2", "title");
+        NotificationResponse unread = create(store, "u-2", "other");
 
         NotificationResponse marked = store.markRead(created.getId());
-        store.delete(created.getId());
+        boolean deleted = store.delete(created.getId());
+        store.delete(unread.getId());
         NotificationResponse missing = store.markRead(created.getId());
 
         assertThat(marked.isRead()).isTrue();
+        assertThat(deleted).isTrue();
         assertThat(missing).isNull();
+        assertThat(store.delete(created.getId())).isFalse();
+        assertThat(store.unreadCount("u-2")).isZero();
+    }
+
+    @Test
+    void deleteOlderThan_removesExpiredAndAdjustsCounters() {
+        InMemoryNotificationStore store = new InMemoryNotificationStore(new SteppingClock());
+        create(store, "u-1", "old");                   // T0
+        create(store, "u-2", "old");                   // T0 + 1m
+        NotificationResponse kept = create(store, "u-1", "new"); // T0 + 2m
+
+        int removed = store.deleteOlderThan(T0.plus(Duration.ofMinutes(2)));
+
+        assertThat(removed).isEqualTo(2);
+        assertThat(store.findByUser("u-1", null, 10, false).getItems())
+                .extracting(NotificationResponse::getId).containsExactly(kept.getId());
+        assertThat(store.findByUser("u-2", null, 10, false).getItems()).isEmpty();
+        assertThat(store.unreadCount("u-1")).isEqualTo(1);
+        assertThat(store.unreadCount("u-2")).isZero();
+    }
+
+    @Test
+    void createAll_indexesEveryNotificationAndCountsUnread() {
+        InMemoryNotificationStore store = new InMemoryNotificationStore(new SteppingClock());
+
+        List<NotificationResponse> created = store.createAll(List.of(
+                NotificationRequest.builder().userId("u-1").title("a").build(),
+                NotificationRequest.builder().userId("u-2").title("b").build(),
+                NotificationRequest.builder().userId("u-1").title("c").build()));
+
+        assertThat(created).extracting(NotificationResponse::getTitle).containsExactly("a", "b", "c");
+        assertThat(store.unreadCount("u-1")).isEqualTo(2);
+        assertThat(store.findByUser("u-2", null, 10, false).getItems()).hasSize(1);
     }
 }
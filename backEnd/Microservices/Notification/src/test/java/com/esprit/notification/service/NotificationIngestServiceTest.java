@@ -0,0 +1,157 @@
+package com.esprit.notification.service;
+
+import com.esprit.notification.dto.NotificationRequest;
+import com.esprit.notification.dto.NotificationResponse;
+import com.google.api.core.ApiFutures;
+import com.google.cloud.firestore.CollectionReference;
+import com.google.cloud.firestore.DocumentReference;
+import com.google.cloud.firestore.Firestore;
+import com.google.cloud.firestore.WriteBatch;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class NotificationIngestServiceTest {
+
+    private static List<NotificationRequest> batch(String... userIds) {
+        return Arrays.stream(userIds)
+                .map(u -> NotificationRequest.builder().userId(u).title("t").build())
+                .toList();
+    }
+
+    @Test
+    void submit_writesAsynchronouslyAndMetersPerProducer() throws Exception {
+        InMemoryNotificationStore store = new InMemoryNotificationStore();
+        MeterRegistry registry = new SimpleMeterRegistry();
+        NotificationIngestService ingest = new NotificationIngestService(new NotificationService(store, new InProcessNotificationBus()), registry, 2, 10, 3, 0, 100);
+        ingest.registerGauges();
+
+        int accepted = ingest.submit("Task", batch("u-1", "u-1", "u-2"));
+        ingest.stop();
+
+        assertThat(accepted).isEqualTo(3);
+        assertThat(store.unreadCount("u-1")).isEqualTo(2);
+        assertThat(store.unreadCount("u-2")).isEqualTo(1);
+        assertThat(registry.get("notification.ingest.received").tag("producer", "task").counter().count()).isEqualTo(3);
+        assertThat(registry.get("notification.ingest.written").tag("producer", "task").counter().count()).isEqualTo(3);
+        assertThat(registry.get("notification.ingest.queue.size").gauge().value()).isZero();
+    }
+
+    @Test
+    void submit_retriesThenDeadLettersUnderUnknownProducer() throws Exception {
+        NotificationService service = mock(NotificationService.class);
+        when(service.createAll(anyList())).thenThrow(new RuntimeException("down"));
+        MeterRegistry registry = new SimpleMeterRegistry();
+        NotificationIngestService ingest = new NotificationIngestService(service, registry, 1, 10, 3, 0, 100);
+
+        ingest.submit(null, batch("u-1"));
+        ingest.stop();
+
+        verify(service, times(3)).createAll(anyList());
+        assertThat(registry.get("notification.ingest.failed").tag("producer", "unknown").counter().count()).isEqualTo(1);
+        assertThat(ingest.deadLetterCount()).isEqualTo(1);
+    }
+
+    @Test
+    void submit_firestoreWriteFailure_runsEveryAttemptBeforeDeadLettering() throws Exception {
+        Firestore firestore = mock(Firestore.class);
+        CollectionReference collection = mock(CollectionReference.class);
+        WriteBatch batch = mock(WriteBatch.class);
+        when(firestore.collection(anyString())).thenReturn(collection);
+        when(collection.document()).thenReturn(mock(DocumentReference.class));
+        when(collection.document(anyString())).thenReturn(mock(DocumentReference.class));
+        when(firestore.batch()).thenReturn(batch);
+        when(batch.commit()).thenReturn(ApiFutures.immediateFailedFuture(new RuntimeException("unavailable")));
+        NotificationService service = new NotificationService(new FirestoreNotificationStore(firestore), new InProcessNotificationBus());
+        NotificationIngestService ingest = new NotificationIngestService(service, new SimpleMeterRegistry(), 1, 10, 3, 1, 100);
+
+        ingest.submit("task", batch("u-1"));
+        ingest.stop();
+
+        verify(batch, times(3)).commit();
+        assertThat(ingest.deadLetterCount()).isEqualTo(1);
+    }
+
+    @Test
+    void submit_interruptLeftByAFailedWrite_stillBacksOffAndRetries() throws Exception {
+        NotificationService service = mock(NotificationService.class);
+        when(service.createAll(anyList())).thenAnswer(inv -> {
+            Thread.currentThread().interrupt();
+            throw new RuntimeException("cancelled");
+        }).thenReturn(List.of());
+        NotificationIngestService ingest = new NotificationIngestService(service, new SimpleMeterRegistry(), 1, 10, 3, 1, 100);
+
+        ingest.submit("task", batch("u-1"));
+        ingest.stop();
+
+        verify(service, times(2)).createAll(anyList());
+        assertThat(ingest.deadLetterCount()).isZero();
+    }
+
+    @Test
+    void submit_partialWrite_retriesOnlyTheUncommittedTail() throws Exception {
+        NotificationService service = mock(NotificationService.class);
+        List<NotificationRequest> requests = batch("u-1", "u-2", "u-3");
+        NotificationResponse first = NotificationResponse.builder().id("n-1").userId("u-1").build();
+        when(service.createAll(anyList()))
+                .thenThrow(new PartialWriteException("second chunk failed", List.of(first), new RuntimeException("down")))
+                .thenReturn(List.of());
+        MeterRegistry registry = new SimpleMeterRegistry();
+        NotificationIngestService ingest = new NotificationIngestService(service, registry, 1, 10, 3, 0, 100);
+
+        ingest.submit("task", requests);
+        ingest.stop();
+
+        verify(service).createAll(requests);
+        verify(service).createAll(requests.subList(1, 3));
+        assertThat(registry.get("notification.ingest.written").tag("producer", "task").counter().count()).isEqualTo(3);
+        assertThat(ingest.deadLetterCount()).isZero();
+    }
+
+    @Test
+    void retryDeadLetters_writesHeldBatchesOnceTheStoreRecovers() throws Exception {
+        InMemoryNotificationStore store = new InMemoryNotificationStore();
+        NotificationService service = mock(NotificationService.class);
+        NotificationService real = new NotificationService(store, new InProcessNotificationBus());
+        when(service.createAll(anyList()))
+                .thenThrow(new RuntimeException("down"))
+                .thenAnswer(inv -> real.createAll(inv.getArgument(0)));
+        MeterRegistry registry = new SimpleMeterRegistry();
+        NotificationIngestService ingest = new NotificationIngestService(service, registry, 1, 10, 1, 0, 100);
+        ingest.registerGauges();
+
+        ingest.submit("task", batch("u-1", "u-1"));
+        ingest.stop();
+        assertThat(registry.get("notification.ingest.dead_letter.size").gauge().value()).isEqualTo(2);
+
+        assertThat(ingest.retryDeadLetters()).isEqualTo(2);
+        assertThat(ingest.deadLetterCount()).isZero();
+        assertThat(store.unreadCount("u-1")).isEqualTo(2);
+    }
+
+    @Test
+    void submit_dropsOnlyWhenTheDeadLetterQueueIsFull() throws Exception {
+        NotificationService service = mock(NotificationService.class);
+        when(service.createAll(anyList())).thenThrow(new RuntimeException("down"));
+        MeterRegistry registry = new SimpleMeterRegistry();
+        NotificationIngestService ingest = new NotificationIngestService(service, registry, 1, 10, 1, 0, 2);
+
+        ingest.submit("task", batch("u-1", "u-2"));
+        ingest.submit("task", batch("u-3"));
+        ingest.stop();
+
+        assertThat(ingest.deadLetterCount()).isEqualTo(2);
+        assertThat(registry.get("notification.ingest.dropped").tag("producer", "task").counter().count()).isEqualTo(1);
+    }
+}
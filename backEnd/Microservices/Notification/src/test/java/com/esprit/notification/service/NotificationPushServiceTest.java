@@ -0,0 +1,189 @@
+package com.esprit.notification.service;
+
+import com.esprit.notification.dto.NotificationRequest;
+import com.esprit.notification.dto.NotificationResponse;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.web.servlet.mvc.method.annotation.ResponseBodyEmitter;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.time.Clock;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class NotificationPushServiceTest {
+
+    private static final String PING = "ping";
+    private static final String RESET = "reset";
+
+    /** One minute later on every read, so creation order is unambiguous. */
+    private static final class SteppingClock extends Clock {
+        private Instant now = Instant.parse("2026-01-01T10:00:00Z");
+
+        @Override
+        public synchronized Instant instant() {
+            Instant current = now;
+            now = now.plusSeconds(60);
+            return current;
+        }
+
+        @Override
+        public ZoneId getZone() {
+            return ZoneOffset.UTC;
+        }
+
+        @Override
+        public Clock withZone(ZoneId zone) {
+            return this;
+        }
+    }
+
+    /** Keeps what was sent (notification title, reset or ping) instead of writing to a response. */
+    private static final class RecordingEmitter extends SseEmitter {
+        final List<String> sent = new ArrayList<>();
+        boolean completed;
+        boolean broken;
+
+        @Override
+        public void send(SseEventBuilder builder) throws IOException {
+            if (broken) {
+                throw new IOException("client gone");
+            }
+            List<Object> parts = builder.build().stream().map(ResponseBodyEmitter.DataWithMediaType::getData).toList();
+            sent.add(parts.stream()
+                    .filter(NotificationResponse.class::isInstance)
+                    .map(d -> ((NotificationResponse) d).getTitle())
+                    .findFirst()
+                    .orElse(parts.stream().anyMatch(d -> String.valueOf(d).contains("event:" + RESET)) ? RESET : PING));
+        }
+
+        @Override
+        public void complete() {
+            completed = true;
+        }
+
+        long notifications() {
+            return sent.stream().filter(s -> !PING.equals(s)).count();
+        }
+    }
+
+    private InMemoryNotificationStore store;
+    private NotificationService notificationService;
+    private NotificationPushService pushService;
+    private final List<RecordingEmitter> emitters = new ArrayList<>();
+
+    @BeforeEach
+    void setUp() {
+        store = new InMemoryNotificationStore(new SteppingClock());
+        InProcessNotificationBus bus = new InProcessNotificationBus();
+        notificationService = new NotificationService(store, bus);
+        pushService = new NotificationPushService(store, bus, new SimpleMeterRegistry(), 2, 60_000, 3) {
+            @Override
+            SseEmitter newEmitter() {
+                RecordingEmitter emitter = new RecordingEmitter();
+                emitters.add(emitter);
+                return emitter;
+            }
+        };
+        pushService.start();
+    }
+
+    private NotificationResponse create(String userId, String title) {
+        return notificationService.create(NotificationRequest.builder().userId(userId).title(title).build());
+    }
+
+    @Test
+    void create_pushesToTheRecipientsStreamsOnly() {
+        pushService.subscribe("u-1", null);
+        pushService.subscribe("u-2", null);
+
+        create("u-1", "hello");
+
+        assertThat(emitters.get(0).sent).containsExactly("hello");
+        assertThat(emitters.get(1).sent).isEmpty();
+    }
+
+    @Test
+    void subscribe_closesOldestBeyondPerUserLimit() {
+        pushService.subscribe("u-1", null);
+        pushService.subscribe("u-1", null);
+        pushService.subscribe("u-1", null);
+
+        create("u-1", "hello");
+
+        assertThat(emitters.get(0).completed).isTrue();
+        assertThat(emitters.get(0).sent).isEmpty();
+        assertThat(emitters.get(1).notifications()).isEqualTo(1);
+        assertThat(emitters.get(2).notifications()).isEqualTo(1);
+        assertThat(pushService.connectionCount()).isEqualTo(2);
+    }
+
+    @Test
+    void subscribe_withLastEventIdReplaysMissedOldestFirst() {
+        NotificationResponse seen = create("u-1", "seen");
+        create("u-1", "missed-1");
+        create("u-1", "missed-2");
+        String lastEventId = NotificationDocuments.encodeCursor(
+                NotificationDocuments.format(seen.getCreatedAt()), seen.getId());
+
+        pushService.subscribe("u-1", lastEventId);
+
+        assertThat(emitters.get(0).sent).containsExactly("missed-1", "missed-2");
+    }
+
+    @Test
+    void subscribe_withGapBeyondReplayLimitSendsResetInsteadOfPartialReplay() {
+        NotificationResponse seen = create("u-1", "seen");
+        for (int i = 1; i <= 4; i++) {
+            create("u-1", "missed-" + i);
+        }
+        String lastEventId = NotificationDocuments.encodeCursor(
+                NotificationDocuments.format(seen.getCreatedAt()), seen.getId());
+
+        pushService.subscribe("u-1", lastEventId);
+
+        assertThat(emitters.get(0).sent).containsExactly(RESET);
+    }
+
+    @Test
+    void subscribe_withGapEqualToReplayLimitReplaysEverything() {
+        NotificationResponse seen = create("u-1", "seen");
+        for (int i = 1; i <= 3; i++) {
+            create("u-1", "missed-" + i);
+        }
+        String lastEventId = NotificationDocuments.encodeCursor(
+                NotificationDocuments.format(seen.getCreatedAt()), seen.getId());
+
+        pushService.subscribe("u-1", lastEventId);
+
+        assertThat(emitters.get(0).sent).containsExactly("missed-1", "missed-2", "missed-3");
+    }
+
+    @Test
+    void subscribe_rejectsMalformedLastEventId() {
+        assertThatThrownBy(() -> pushService.subscribe("u-1", "%%%"))
+                .isInstanceOf(IllegalArgumentException.class);
+        assertThat(pushService.connectionCount()).isZero();
+    }
+
+    @Test
+    void heartbeatAndDelivery_dropBrokenStreams() {
+        pushService.subscribe("u-1", null);
+        pushService.subscribe("u-2", null);
+        emitters.get(0).broken = true;
+
+        pushService.heartbeat();
+        create("u-2", "still here");
+
+        assertThat(pushService.connectionCount()).isEqualTo(1);
+        assertThat(emitters.get(1).sent).containsExactly(PING, "still here");
+    }
+}
@@ -3,23 +3,23 @@ package com.esprit.notification.service;
 import com.esprit.notification.dto.NotificationRequest;
 import com.esprit.notification.dto.NotificationResponse;
 import org.junit.jupiter.api.Test;
-import org.springframework.beans.factory.ObjectProvider;
 
 import java.util.List;
 import java.util.Map;
 
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.anyList;
 import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoMoreInteractions;
 import static org.mockito.Mockito.when;
 
 class NotificationServiceTest {
 
     @Test
-    void createAndFindByUserId_usesInMemoryFallbackWhenFirestoreMissing() {
-        ObjectProvider<com.google.cloud.firestore.Firestore> provider = mock(ObjectProvider.class);
-        when(provider.getIfAvailable()).thenReturn(null);
-        NotificationService service = new NotificationService(provider);
+    void createAndFindByUserId_withInMemoryStore() {
+        NotificationService service = new NotificationService(new InMemoryNotificationStore(), new InProcessNotificationBus());
 
         NotificationRequest req = NotificationRequest.builder()
                 .userId("u-1")
@@ -42,9 +42,7 @@ class NotificationServiceTest {
 
     @Test
     void markReadAndDelete_workInMemoryMode() {
-        ObjectProvider<com.google.cloud.firestore.Firestore> provider = mock(ObjectProvider.class);
-        when(provider.getIfAvailable()).thenReturn(null);
-        NotificationService service = new NotificationService(provider);
+        NotificationService service = new NotificationService(new InMemoryNotificationStore(), new InProcessNotificationBus());
 
         NotificationResponse created = service.create(NotificationRequest.builder()
                 .userId("u-2")
@@ -63,12 +61,41 @@ class NotificationServiceTest {
 
     @Test
     void markRead_throwsWhenNotificationNotFoundInMemoryMode() {
-        ObjectProvider<com.google.cloud.firestore.Firestore> provider = mock(ObjectProvider.class);
-        when(provider.getIfAvailable()).thenReturn(null);
-        NotificationService service = new NotificationService(provider);
+        NotificationService service = new NotificationService(new InMemoryNotificationStore(), new InProcessNotificationBus());
 
         assertThatThrownBy(() -> service.markRead("missing"))
                 .isInstanceOf(RuntimeException.class)
                 .hasMessageContaining("not found");
     }
+
+    @Test
+    void findPage_clampsLimitAndCountsUnread() {
+        NotificationService service = new NotificationService(new InMemoryNotificationStore(), new InProcessNotificationBus());
+        for (int i = 0; i < 3; i++) {
+            service.create(NotificationRequest.builder().userId("u-3").title("n" + i).build());
+        }
+
+        assertThat(service.findPage("u-3", null, 0, false).getItems()).hasSize(1);
+        assertThat(service.findByUserId("u-3", 1000, true)).hasSize(3);
+        assertThat(service.unreadCount("u-3")).isEqualTo(3);
+        assertThat(service.markAllRead("u-3")).isEqualTo(3);
+        assertThat(service.unreadCount("u-3")).isZero();
+    }
+
+    @Test
+    void createAll_partialWrite_pushesTheCommittedPrefixAndRethrows() {
+        NotificationStore store = mock(NotificationStore.class);
+        NotificationBus bus = mock(NotificationBus.class);
+        NotificationResponse committed = NotificationResponse.builder().id("n-1").userId("u-1").build();
+        PartialWriteException failure = new PartialWriteException("failed", List.of(committed), new RuntimeException("down"));
+        when(store.createAll(anyList())).thenThrow(failure);
+        NotificationService service = new NotificationService(store, bus);
+
+        assertThatThrownBy(() -> service.createAll(List.of(
+                NotificationRequest.builder().userId("u-1").title("a").build(),
+                NotificationRequest.builder().userId("u-2").title("b").build())))
+                .isSameAs(failure);
+        verify(bus).publish(committed);
+        verifyNoMoreInteractions(bus);
+    }
 }
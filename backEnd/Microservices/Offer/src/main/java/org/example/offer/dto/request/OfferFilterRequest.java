@@ -34,6 +34,7 @@ public class OfferFilterRequest {
     // Pagination
     private Integer page = 0;
     private Integer size = 10;
-    private String sortBy = "createdAt";
+    /** Champ de tri ; "relevance" (ou null avec un mot-clé) = pertinence plein texte, sinon createdAt par défaut. */
+    private String sortBy;
     private String sortDirection = "DESC";
 }
\ No newline at end of file
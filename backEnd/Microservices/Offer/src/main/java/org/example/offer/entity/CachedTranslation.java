@@ -0,0 +1,27 @@
+package org.example.offer.entity;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/** Niveau persistant de {@link org.example.offer.service.TranslationCache}. */
+@Entity
+@Table(name = "translation_cache")
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class CachedTranslation {
+
+    /** {@code sha256(texte normalisé):source:cible}. */
+    @Id
+    @Column(length = 120)
+    private String id;
+
+    @Column(columnDefinition = "TEXT", nullable = false)
+    private String translated;
+
+    /** Epoch en millisecondes. */
+    @Column(nullable = false)
+    private long createdAt;
+}
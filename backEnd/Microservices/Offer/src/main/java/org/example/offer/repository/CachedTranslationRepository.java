@@ -0,0 +1,9 @@
+package org.example.offer.repository;
+
+import org.example.offer.entity.CachedTranslation;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+@Repository
+public interface CachedTranslationRepository extends JpaRepository<CachedTranslation, String> {
+}
@@ -49,9 +49,6 @@ public interface OfferRepository extends JpaRepository<Offer, Long>, JpaSpecific
     @Query("SELECT o FROM Offer o WHERE o.price BETWEEN :minPrice AND :maxPrice AND o.offerStatus = org.example.offer.entity.OfferStatus.AVAILABLE AND o.isActive = true")
     Page<Offer> findByPriceRange(@Param("minPrice") BigDecimal minPrice, @Param("maxPrice") BigDecimal maxPrice, Pageable pageable);
 
-    @Query("SELECT o FROM Offer o WHERE o.title LIKE %:keyword% OR o.description LIKE %:keyword% OR o.tags LIKE %:keyword%")
-    Page<Offer> searchByKeyword(@Param("keyword") String keyword, Pageable pageable);
-
     @Query("SELECT o FROM Offer o WHERE o.deadline >= :date AND o.offerStatus = org.example.offer.entity.OfferStatus.AVAILABLE")
     List<Offer> findOffersExpiringSoon(@Param("date") LocalDateTime date);
 
@@ -90,7 +87,20 @@ public interface OfferRepository extends JpaRepository<Offer, Long>, JpaSpecific
     @Query("SELECT o FROM Offer o WHERE o.offerStatus = org.example.offer.entity.OfferStatus.AVAILABLE AND o.isActive = true AND o.id NOT IN :excludeIds")
     List<Offer> findAvailableOffersExcludingIds(@Param("excludeIds") List<Long> excludeIds, Pageable pageable);
 
+    /** Pour l'index de recommandations : offres disponibles et actives, parcourues par id. */
+    @Query("SELECT o FROM Offer o WHERE o.offerStatus = org.example.offer.entity.OfferStatus.AVAILABLE AND o.isActive = true AND o.id > :afterId ORDER BY o.id ASC")
+    List<Offer> findAvailableActiveAfterId(@Param("afterId") Long afterId, Pageable pageable);
+
     /** Offres disponibles (pour fallback quand le client n'a pas d'historique). */
     @Query("SELECT o FROM Offer o WHERE o.offerStatus = org.example.offer.entity.OfferStatus.AVAILABLE AND o.isActive = true ORDER BY o.isFeatured DESC, o.viewsCount DESC, o.createdAt DESC")
     List<Offer> findAvailableOffersForRecommendation(Pageable pageable);
-}
\ No newline at end of file
+
+    // ========== Index de recherche (OfferSearchIndex) ==========
+
+    /** Parcours par clé (id) pour construire l'index par lots. */
+    List<Offer> findByIdGreaterThanOrderByIdAsc(Long afterId, Pageable pageable);
+
+    /** Offres modifiées depuis le dernier passage, parcourues par (updatedAt, id). */
+    @Query("SELECT o FROM Offer o WHERE o.updatedAt > :since OR (o.updatedAt = :since AND o.id > :afterId) ORDER BY o.updatedAt ASC, o.id ASC")
+    List<Offer> findChangedSince(@Param("since") LocalDateTime since, @Param("afterId") Long afterId, Pageable pageable);
+}
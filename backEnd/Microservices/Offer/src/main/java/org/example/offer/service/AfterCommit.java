@@ -0,0 +1,37 @@
+package org.example.offer.service;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+/**
+ * Defers side effects (search index updates) until the surrounding transaction has committed.
+ * Runs immediately when no transaction is active. Failures are logged and never reach the caller.
+ */
+@Slf4j
+final class AfterCommit {
+
+    private AfterCommit() {
+    }
+
+    static void run(Runnable action) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    runSafely(action);
+                }
+            });
+        } else {
+            runSafely(action);
+        }
+    }
+
+    private static void runSafely(Runnable action) {
+        try {
+            action.run();
+        } catch (Exception e) {
+            log.warn("After-commit action failed: {}", e.getMessage());
+        }
+    }
+}
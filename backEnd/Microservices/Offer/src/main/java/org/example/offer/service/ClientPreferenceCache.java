@@ -0,0 +1,229 @@
+package org.example.offer.service;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.example.offer.entity.Offer;
+import org.example.offer.entity.OfferApplication;
+import org.example.offer.entity.OfferView;
+import org.example.offer.repository.OfferApplicationRepository;
+import org.example.offer.repository.OfferViewRepository;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Consumer;
+
+/**
+ * Profils de préférences client pour le Smart Matching (historique de candidatures + vues récentes), mis en cache.
+ * <p>
+ * Un profil est chargé au premier appel (deux requêtes), puis tenu à jour par {@link #recordView} et
+ * {@link #recordApplication} après commit ; il est rechargé après {@code offer.recommendation.profile-ttl-ms}
+ * (ce qui fait aussi sortir les vues de plus de 90 jours) ou après {@link #invalidate}. Le chargement se fait hors
+ * du verrou de la map et n'est installé que s'il est toujours le dernier lancé pour ce client.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class ClientPreferenceCache {
+
+    static final int VIEW_DAYS_LOOKBACK = 90;
+
+    /** Vue figée d'un profil, utilisée pour le scoring. */
+    public record Preferences(Map<String, Integer> domainCounts, Set<String> categories,
+                              Double priceMin, Double priceMax,
+                              Set<Long> appliedOfferIds, Set<Long> viewedOfferIds) {
+
+        public boolean hasPriceRange() {
+            return priceMin != null && priceMax != null;
+        }
+    }
+
+    private final OfferApplicationRepository applicationRepository;
+    private final OfferViewRepository viewRepository;
+
+    @Value("${offer.recommendation.profile-ttl-ms:600000}")
+    private long ttlMs;
+
+    @Value("${offer.recommendation.profile-max-entries:10000}")
+    private int maxEntries;
+
+    private final Map<Long, Profile> profiles = new ConcurrentHashMap<>();
+    /** Dernier chargement lancé par client ; seul celui-ci peut installer son profil. */
+    private final Map<Long, Loading> loadsInFlight = new ConcurrentHashMap<>();
+    private final AtomicLong generations = new AtomicLong();
+
+    /** Préférences du client, depuis le cache ou rechargées (candidatures + vues des 90 derniers jours). */
+    public Preferences get(Long clientId) {
+        long now = System.currentTimeMillis();
+        Profile cached = profiles.get(clientId);
+        if (cached != null && now - cached.loadedAt < ttlMs) {
+            return cached.snapshot();
+        }
+        if (profiles.size() >= maxEntries) {
+            profiles.values().removeIf(p -> now - p.loadedAt >= ttlMs);
+            if (profiles.size() >= maxEntries) {
+                profiles.clear();
+            }
+        }
+        // les requêtes tournent hors de tout verrou de la map ; les deltas commités pendant ce temps sont mis de côté
+        // sur le chargement en cours et rejoués sur le nouveau profil (sans double compte, cf. Profile)
+        Loading loading = new Loading(generations.incrementAndGet());
+        loadsInFlight.put(clientId, loading);
+        Profile loaded;
+        try {
+            loaded = load(clientId, now);
+        } catch (RuntimeException e) {
+            loadsInFlight.remove(clientId, loading);
+            throw e;
+        }
+        profiles.compute(clientId, (id, current) -> {
+            loading.pending.forEach(delta -> delta.accept(loaded));
+            // invalidé ou dépassé par un chargement plus récent pendant les requêtes : on répond sans l'installer
+            return loadsInFlight.remove(id, loading) ? loaded : current;
+        });
+        return loaded.snapshot();
+    }
+
+    /** Une vue compte pour le domaine/la catégorie et marque l'offre comme consultée. */
+    public void recordView(Long clientId, Long viewId, Offer offer) {
+        if (clientId == null || offer == null) {
+            return;
+        }
+        AfterCommit.run(() -> apply(clientId, profile -> profile.addView(viewId, offer)));
+    }
+
+    /** Une candidature compte pour le domaine/la catégorie/le prix et exclut l'offre des recommandations. */
+    public void recordApplication(Long clientId, Long applicationId, Offer offer) {
+        if (clientId == null || offer == null) {
+            return;
+        }
+        AfterCommit.run(() -> apply(clientId, profile -> profile.addApplication(applicationId, offer)));
+    }
+
+    /** Force le rechargement au prochain appel (ex. candidature supprimée), y compris si un chargement est en cours. */
+    public void invalidate(Long clientId) {
+        if (clientId != null) {
+            AfterCommit.run(() -> profiles.compute(clientId, (id, current) -> {
+                loadsInFlight.remove(id);
+                return null;
+            }));
+        }
+    }
+
+    /** Applique un delta au profil en cache et le garde pour le chargement en cours, sous le verrou de la clé. */
+    private void apply(Long clientId, Consumer<Profile> delta) {
+        profiles.compute(clientId, (id, profile) -> {
+            if (profile != null) {
+                delta.accept(profile);
+            }
+            Loading loading = loadsInFlight.get(id);
+            if (loading != null) {
+                loading.pending.add(delta);
+            }
+            return profile;
+        });
+    }
+
+    private Profile load(Long clientId, long now) {
+        Profile profile = new Profile(now);
+        for (OfferApplication application : applicationRepository.findByClientIdWithOffer(clientId)) {
+            if (application.getOffer() != null) {
+                profile.addApplication(application.getId(), application.getOffer());
+            }
+        }
+        LocalDateTime since = LocalDateTime.now().minusDays(VIEW_DAYS_LOOKBACK);
+        List<OfferView> views = viewRepository.findByClientIdAndViewedAtAfter(clientId, since);
+        for (OfferView view : views) {
+            if (view.getOffer() != null) {
+                profile.addView(view.getId(), view.getOffer());
+            }
+        }
+        return profile;
+    }
+
+    /**
+     * Chargement en cours, identifié par sa génération. Les deltas commités pendant les requêtes s'accumulent dans
+     * {@code pending}, qui n'est touché que sous le verrou de la clé dans {@link #profiles}.
+     */
+    private record Loading(long generation, List<Consumer<Profile>> pending) {
+        Loading(long generation) {
+            this(generation, new ArrayList<>());
+        }
+    }
+
+    /**
+     * Profil agrégé. Chaque candidature et chaque vue n'est comptée qu'une fois par id de ligne : un delta déjà vu par
+     * le chargement, ou rejoué après lui, ne change rien.
+     */
+    private static final class Profile {
+        final long loadedAt;
+        final Map<String, Integer> domainCounts = new HashMap<>();
+        final Set<String> categories = new HashSet<>();
+        final Set<Long> appliedOfferIds = new HashSet<>();
+        final Set<Long> viewedOfferIds = new HashSet<>();
+        final Set<Long> countedApplicationIds = new HashSet<>();
+        final Set<Long> countedViewIds = new HashSet<>();
+        BigDecimal minPrice;
+        BigDecimal maxPrice;
+
+        Profile(long loadedAt) {
+            this.loadedAt = loadedAt;
+        }
+
+        synchronized void addApplication(Long applicationId, Offer offer) {
+            if (applicationId != null && !countedApplicationIds.add(applicationId)) {
+                return;
+            }
+            countDomainAndCategory(offer);
+            if (offer.getId() != null) {
+                appliedOfferIds.add(offer.getId());
+            }
+            BigDecimal price = offer.getPrice();
+            if (price != null) {
+                minPrice = minPrice == null || price.compareTo(minPrice) < 0 ? price : minPrice;
+                maxPrice = maxPrice == null || price.compareTo(maxPrice) > 0 ? price : maxPrice;
+            }
+        }
+
+        synchronized void addView(Long viewId, Offer offer) {
+            if (viewId != null && !countedViewIds.add(viewId)) {
+                return;
+            }
+            countDomainAndCategory(offer);
+            if (offer.getId() != null) {
+                viewedOfferIds.add(offer.getId());
+            }
+        }
+
+        private void countDomainAndCategory(Offer offer) {
+            if (offer.getDomain() != null && !offer.getDomain().isBlank()) {
+                domainCounts.merge(offer.getDomain(), 1, Integer::sum);
+            }
+            if (offer.getCategory() != null && !offer.getCategory().isBlank()) {
+                categories.add(offer.getCategory());
+            }
+        }
+
+        /** Fourchette de prix des candidatures, élargie de 20 % de son étendue de chaque côté. */
+        synchronized Preferences snapshot() {
+            Double low = null;
+            Double high = null;
+            if (minPrice != null) {
+                BigDecimal margin = maxPrice.subtract(minPrice).multiply(BigDecimal.valueOf(0.2));
+                low = minPrice.subtract(margin).max(BigDecimal.ZERO).doubleValue();
+                high = maxPrice.add(margin).doubleValue();
+            }
+            return new Preferences(Map.copyOf(domainCounts), Set.copyOf(categories), low, high,
+                    Set.copyOf(appliedOfferIds), Set.copyOf(viewedOfferIds));
+        }
+    }
+}
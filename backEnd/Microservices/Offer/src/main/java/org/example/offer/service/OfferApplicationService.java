@@ -38,6 +38,9 @@ public class OfferApplicationService implements IOfferApplicationService {
     private final OfferRepository offerRepository;
     private final ModelMapper modelMapper;
     private final ContractClient contractClient;
+    private final OfferSearchIndex offerSearchIndex;
+    private final RecommendationIndex recommendationIndex;
+    private final ClientPreferenceCache clientPreferenceCache;
 
     /**
      * CREATE - Postuler à une offre
@@ -64,6 +67,7 @@ public class OfferApplicationService implements IOfferApplicationService {
         application.setStatus(ApplicationStatus.PENDING);
 
         OfferApplication savedApplication = applicationRepository.save(application);
+        clientPreferenceCache.recordApplication(request.getClientId(), savedApplication.getId(), offer);
         log.info("Application created successfully with ID: {}", savedApplication.getId());
 
         return mapToResponse(savedApplication);
@@ -177,7 +181,9 @@ public class OfferApplicationService implements IOfferApplicationService {
         Offer offer = application.getOffer();
         if (offer.getOfferStatus() == OfferStatus.AVAILABLE) {
             offer.setOfferStatus(OfferStatus.IN_PROGRESS);
-            offerRepository.save(offer);
+            Offer savedOffer = offerRepository.save(offer);
+            offerSearchIndex.index(savedOffer);
+            recommendationIndex.upsert(savedOffer);
         }
 
         OfferApplication updatedApplication = applicationRepository.save(application);
@@ -358,6 +364,7 @@ public class OfferApplicationService implements IOfferApplicationService {
         }
 
         applicationRepository.delete(application);
+        clientPreferenceCache.invalidate(clientId);
         log.info("Application deleted successfully: {}", id);
     }
 
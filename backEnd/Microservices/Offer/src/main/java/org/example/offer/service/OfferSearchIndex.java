@@ -0,0 +1,445 @@
+package org.example.offer.service;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.lucene.analysis.Analyzer;
+import org.apache.lucene.analysis.LowerCaseFilter;
+import org.apache.lucene.analysis.TokenStream;
+import org.apache.lucene.analysis.miscellaneous.ASCIIFoldingFilter;
+import org.apache.lucene.analysis.standard.StandardTokenizer;
+import org.apache.lucene.analysis.tokenattributes.CharTermAttribute;
+import org.apache.lucene.document.Document;
+import org.apache.lucene.document.Field;
+import org.apache.lucene.document.LongPoint;
+import org.apache.lucene.document.NumericDocValuesField;
+import org.apache.lucene.document.StringField;
+import org.apache.lucene.document.TextField;
+import org.apache.lucene.index.IndexWriter;
+import org.apache.lucene.index.IndexWriterConfig;
+import org.apache.lucene.index.Term;
+import org.apache.lucene.search.BooleanClause;
+import org.apache.lucene.search.BooleanQuery;
+import org.apache.lucene.search.BoostQuery;
+import org.apache.lucene.search.IndexSearcher;
+import org.apache.lucene.search.MatchAllDocsQuery;
+import org.apache.lucene.search.PrefixQuery;
+import org.apache.lucene.search.Query;
+import org.apache.lucene.search.ScoreDoc;
+import org.apache.lucene.search.SearcherManager;
+import org.apache.lucene.search.Sort;
+import org.apache.lucene.search.SortField;
+import org.apache.lucene.search.TermQuery;
+import org.apache.lucene.search.TopFieldDocs;
+import org.apache.lucene.store.ByteBuffersDirectory;
+import org.apache.lucene.store.Directory;
+import org.apache.lucene.store.FSDirectory;
+import org.example.offer.dto.request.OfferFilterRequest;
+import org.example.offer.entity.Offer;
+import org.example.offer.repository.OfferRepository;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Async;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * In-process Lucene index over offers, replacing {@code LIKE '%kw%'} scans for marketplace search.
+ * <p>
+ * Title, tags and description are tokenised (lowercase, accent folding); every keyword term must match one of them,
+ * either exactly or as a prefix, and results are ranked by BM25 with title &gt; tags &gt; description. The filters of
+ * {@link OfferFilterRequest} are index-side (keyword, point and range clauses), and the usual sort fields use doc values.
+ * <p>
+ * {@link OfferService} reports writes after commit. The index is built from the database on startup (in the
+ * background; searches use SQL until it is ready) and catches up every {@code offer.search.sync-interval-ms} with rows
+ * whose {@code updatedAt} moved, which picks up writes from other replicas. Ids that no longer exist are dropped when a
+ * search hydrates them.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class OfferSearchIndex {
+
+    /** Ranked ids for one page plus the total match count. */
+    public record Hits(List<Long> ids, long totalHits) {
+    }
+
+    static final String ID = "id";
+    static final String TITLE = "title";
+    static final String TAGS = "tags";
+    static final String DESCRIPTION = "description";
+
+    private static final Map<String, Float> TEXT_FIELD_BOOSTS = Map.of(TITLE, 3f, TAGS, 2f, DESCRIPTION, 1f);
+
+    /** Request {@code sortBy} values served from doc values; anything else falls back to SQL. */
+    private static final List<String> SORTABLE = List.of("createdAt", "updatedAt", "publishedAt", "price", "rating", "viewsCount");
+
+    static final Analyzer ANALYZER = new Analyzer() {
+        @Override
+        protected TokenStreamComponents createComponents(String fieldName) {
+            StandardTokenizer source = new StandardTokenizer();
+            return new TokenStreamComponents(source, new ASCIIFoldingFilter(new LowerCaseFilter(source)));
+        }
+
+        @Override
+        protected TokenStream normalize(String fieldName, TokenStream in) {
+            return new ASCIIFoldingFilter(new LowerCaseFilter(in));
+        }
+    };
+
+    private final OfferRepository offerRepository;
+    private final MeterRegistry meterRegistry;
+
+    @Value("${offer.search.index.enabled:true}")
+    private boolean enabled;
+
+    /** Empty keeps the index in memory; otherwise an on-disk directory (recreated on each start). */
+    @Value("${offer.search.index.path:}")
+    private String indexPath;
+
+    @Value("${offer.search.index.chunk-size:1000}")
+    private int chunkSize;
+
+    /** Deepest result window served from the index; deeper pages use SQL. */
+    @Value("${offer.search.index.max-window:10000}")
+    private int maxWindow;
+
+    private Directory directory;
+    private IndexWriter writer;
+    private SearcherManager searcherManager;
+    private Timer searchTimer;
+    private volatile boolean ready;
+    private final AtomicBoolean syncing = new AtomicBoolean();
+    private volatile LocalDateTime syncedUpdatedAt;
+    private volatile long syncedId;
+
+    @PostConstruct
+    void open() throws IOException {
+        searchTimer = Timer.builder("offer.search.index")
+                .description("Offer search served from the full-text index")
+                .publishPercentiles(0.5, 0.99)
+                .register(meterRegistry);
+        if (!enabled) {
+            return;
+        }
+        directory = indexPath == null || indexPath.isBlank() ? new ByteBuffersDirectory() : FSDirectory.open(Path.of(indexPath));
+        writer = new IndexWriter(directory, new IndexWriterConfig(ANALYZER).setOpenMode(IndexWriterConfig.OpenMode.CREATE));
+        searcherManager = new SearcherManager(writer, null);
+    }
+
+    @PreDestroy
+    void close() throws IOException {
+        ready = false;
+        if (searcherManager != null) {
+            searcherManager.close();
+        }
+        if (writer != null) {
+            writer.close();
+        }
+        if (directory != null) {
+            directory.close();
+        }
+    }
+
+    public boolean isReady() {
+        return ready;
+    }
+
+    @Async
+    @EventListener(ApplicationReadyEvent.class)
+    public void buildOnStartup() {
+        if (!enabled) {
+            return;
+        }
+        try {
+            long count = rebuild();
+            log.info("Offer search index built: {} offer(s)", count);
+        } catch (Exception e) {
+            log.warn("Offer search index build failed; search stays on SQL: {}", e.getMessage());
+        }
+    }
+
+    /**
+     * Indexes every offer in id order, chunk by chunk, then marks the index ready.
+     *
+     * @return number of offers indexed
+     */
+    public long rebuild() throws IOException {
+        LocalDateTime startedAt = LocalDateTime.now();
+        long count = 0;
+        long afterId = 0L;
+        while (true) {
+            List<Offer> chunk = offerRepository.findByIdGreaterThanOrderByIdAsc(afterId, PageRequest.of(0, chunkSize));
+            for (Offer offer : chunk) {
+                writer.updateDocument(new Term(ID, String.valueOf(offer.getId())), toDocument(offer));
+            }
+            count += chunk.size();
+            if (chunk.size() < chunkSize) {
+                break;
+            }
+            afterId = chunk.get(chunk.size() - 1).getId();
+        }
+        searcherManager.maybeRefreshBlocking();
+        // rows touched while the scan ran are re-read by the next sync
+        syncedUpdatedAt = startedAt.minusSeconds(1);
+        syncedId = 0L;
+        ready = true;
+        return count;
+    }
+
+    /** Re-indexes offers whose {@code updatedAt} moved since the last sync (keyset on updatedAt, id). */
+    @Scheduled(fixedDelayString = "${offer.search.sync-interval-ms:30000}")
+    public void syncChanges() {
+        if (!ready || !syncing.compareAndSet(false, true)) {
+            return;
+        }
+        try {
+            int synced = 0;
+            while (true) {
+                List<Offer> chunk = offerRepository.findChangedSince(syncedUpdatedAt, syncedId, PageRequest.of(0, chunkSize));
+                for (Offer offer : chunk) {
+                    writer.updateDocument(new Term(ID, String.valueOf(offer.getId())), toDocument(offer));
+                }
+                synced += chunk.size();
+                if (!chunk.isEmpty()) {
+                    Offer last = chunk.get(chunk.size() - 1);
+                    syncedUpdatedAt = last.getUpdatedAt();
+                    syncedId = last.getId();
+                }
+                if (chunk.size() < chunkSize) {
+                    break;
+                }
+            }
+            if (synced > 0) {
+                searcherManager.maybeRefreshBlocking();
+                log.debug("Offer search index caught up with {} changed offer(s)", synced);
+            }
+        } catch (Exception e) {
+            log.warn("Offer search index sync failed: {}", e.getMessage());
+        } finally {
+            syncing.set(false);
+        }
+    }
+
+    /** Adds or replaces the offer's document once the current transaction commits. */
+    public void index(Offer offer) {
+        if (!enabled || offer == null || offer.getId() == null) {
+            return;
+        }
+        Document doc = toDocument(offer);
+        Long id = offer.getId();
+        AfterCommit.run(() -> write(w -> w.updateDocument(new Term(ID, String.valueOf(id)), doc)));
+    }
+
+    /** Removes the offer's document once the current transaction commits. */
+    public void remove(Long offerId) {
+        if (!enabled || offerId == null) {
+            return;
+        }
+        AfterCommit.run(() -> write(w -> w.deleteDocuments(new Term(ID, String.valueOf(offerId)))));
+    }
+
+    @FunctionalInterface
+    private interface WriterAction {
+        void apply(IndexWriter writer) throws IOException;
+    }
+
+    private void write(WriterAction action) {
+        try {
+            action.apply(writer);
+            searcherManager.maybeRefreshBlocking();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * Runs the filter against the index.
+     *
+     * @return one page of ranked ids, or empty when the caller must use SQL (index not ready, sort field not indexed,
+     * page beyond {@code max-window})
+     */
+    public Optional<Hits> search(OfferFilterRequest filter, int page, int size) {
+        Optional<Sort> sort = sortFor(filter);
+        int window = (page + 1) * size;
+        if (!ready || sort.isEmpty() || size <= 0 || page < 0 || window > maxWindow) {
+            return Optional.empty();
+        }
+        return Optional.of(searchTimer.record(() -> {
+            try {
+                IndexSearcher searcher = searcherManager.acquire();
+                try {
+                    Query query = buildQuery(filter);
+                    TopFieldDocs top = searcher.search(query, window, sort.get(), sort.get().needsScores());
+                    List<Long> ids = new ArrayList<>(size);
+                    ScoreDoc[] docs = top.scoreDocs;
+                    for (int i = page * size; i < docs.length; i++) {
+                        ids.add(Long.valueOf(searcher.storedFields().document(docs[i].doc).get(ID)));
+                    }
+                    return new Hits(ids, searcher.count(query));
+                } finally {
+                    searcherManager.release(searcher);
+                }
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }));
+    }
+
+    static Query buildQuery(OfferFilterRequest filter) {
+        BooleanQuery.Builder q = new BooleanQuery.Builder();
+        boolean scored = false;
+        for (String token : tokens(filter.getKeyword())) {
+            BooleanQuery.Builder anyField = new BooleanQuery.Builder();
+            TEXT_FIELD_BOOSTS.forEach((field, boost) -> {
+                anyField.add(new BoostQuery(new TermQuery(new Term(field, token)), boost), BooleanClause.Occur.SHOULD);
+                anyField.add(new BoostQuery(new PrefixQuery(new Term(field, token)), boost / 2), BooleanClause.Occur.SHOULD);
+            });
+            q.add(anyField.build(), BooleanClause.Occur.MUST);
+            scored = true;
+        }
+        if (!scored) {
+            q.add(new MatchAllDocsQuery(), BooleanClause.Occur.MUST);
+        }
+        filterExact(q, "domain", filter.getDomain());
+        filterExact(q, "category", filter.getCategory());
+        filterExact(q, "offerStatus", filter.getOfferStatus() != null ? filter.getOfferStatus().name() : null);
+        filterExact(q, "durationType", filter.getDurationType());
+        filterExact(q, "isFeatured", filter.getIsFeatured() != null ? filter.getIsFeatured().toString() : null);
+        filterExact(q, "isActive", filter.getIsActive() != null ? filter.getIsActive().toString() : null);
+        if (filter.getFreelancerId() != null) {
+            q.add(LongPoint.newExactQuery("freelancerId", filter.getFreelancerId()), BooleanClause.Occur.FILTER);
+        }
+        if (filter.getProjectStatusId() != null) {
+            q.add(LongPoint.newExactQuery("projectStatusId", filter.getProjectStatusId()), BooleanClause.Occur.FILTER);
+        }
+        filterRange(q, "price", hundredths(filter.getMinPrice(), RoundingMode.CEILING), hundredths(filter.getMaxPrice(), RoundingMode.FLOOR));
+        filterRange(q, "rating", hundredths(filter.getMinRating(), RoundingMode.CEILING), null);
+        filterRange(q, "createdAt",
+                filter.getCreatedAtFrom() != null ? epochMillis(filter.getCreatedAtFrom().atStartOfDay()) : null,
+                filter.getCreatedAtTo() != null ? epochMillis(filter.getCreatedAtTo().plusDays(1).atStartOfDay()) - 1 : null);
+        return q.build();
+    }
+
+    /** Relevance when there is a keyword and no explicit sort (or {@code sortBy=relevance}); id breaks ties. */
+    static Optional<Sort> sortFor(OfferFilterRequest filter) {
+        String sortBy = filter.getSortBy();
+        boolean hasKeyword = !tokens(filter.getKeyword()).isEmpty();
+        SortField tieBreak = new SortField("idSort", SortField.Type.LONG, true);
+        if ("relevance".equalsIgnoreCase(sortBy) || (sortBy == null && hasKeyword)) {
+            return Optional.of(new Sort(SortField.FIELD_SCORE, tieBreak));
+        }
+        String field = sortBy != null ? sortBy : "createdAt";
+        if (!SORTABLE.contains(field)) {
+            return Optional.empty();
+        }
+        boolean descending = !"ASC".equalsIgnoreCase(filter.getSortDirection());
+        SortField sortField = new SortField(field, SortField.Type.LONG, descending);
+        sortField.setMissingValue(descending ? Long.MIN_VALUE : Long.MAX_VALUE);
+        return Optional.of(new Sort(sortField, tieBreak));
+    }
+
+    static List<String> tokens(String text) {
+        List<String> tokens = new ArrayList<>();
+        if (text == null || text.isBlank()) {
+            return tokens;
+        }
+        try (TokenStream ts = ANALYZER.tokenStream(TITLE, text)) {
+            CharTermAttribute term = ts.addAttribute(CharTermAttribute.class);
+            ts.reset();
+            while (ts.incrementToken()) {
+                tokens.add(term.toString());
+            }
+            ts.end();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return tokens;
+    }
+
+    static Document toDocument(Offer offer) {
+        Document doc = new Document();
+        doc.add(new StringField(ID, String.valueOf(offer.getId()), Field.Store.YES));
+        doc.add(new NumericDocValuesField("idSort", offer.getId()));
+        addText(doc, TITLE, offer.getTitle());
+        addText(doc, TAGS, offer.getTags());
+        addText(doc, DESCRIPTION, offer.getDescription());
+        addKeyword(doc, "domain", offer.getDomain());
+        addKeyword(doc, "category", offer.getCategory());
+        addKeyword(doc, "offerStatus", offer.getOfferStatus() != null ? offer.getOfferStatus().name() : null);
+        addKeyword(doc, "durationType", offer.getDurationType());
+        addKeyword(doc, "isFeatured", offer.getIsFeatured() != null ? offer.getIsFeatured().toString() : null);
+        addKeyword(doc, "isActive", offer.getIsActive() != null ? offer.getIsActive().toString() : null);
+        addLong(doc, "freelancerId", offer.getFreelancerId(), false);
+        addLong(doc, "projectStatusId", offer.getProjectStatusId(), false);
+        addLong(doc, "price", hundredths(offer.getPrice(), RoundingMode.HALF_UP), true);
+        addLong(doc, "rating", hundredths(offer.getRating(), RoundingMode.HALF_UP), true);
+        addLong(doc, "createdAt", offer.getCreatedAt() != null ? epochMillis(offer.getCreatedAt()) : null, true);
+        addLong(doc, "updatedAt", offer.getUpdatedAt() != null ? epochMillis(offer.getUpdatedAt()) : null, true);
+        addLong(doc, "publishedAt", offer.getPublishedAt() != null ? epochMillis(offer.getPublishedAt()) : null, true);
+        addLong(doc, "viewsCount", offer.getViewsCount() != null ? offer.getViewsCount().longValue() : null, true);
+        return doc;
+    }
+
+    private static void addText(Document doc, String field, String value) {
+        if (value != null && !value.isBlank()) {
+            doc.add(new TextField(field, value, Field.Store.NO));
+        }
+    }
+
+    private static void addKeyword(Document doc, String field, String value) {
+        if (value != null) {
+            doc.add(new StringField(field, value, Field.Store.NO));
+        }
+    }
+
+    private static void addLong(Document doc, String field, Long value, boolean sortable) {
+        if (value == null) {
+            return;
+        }
+        doc.add(new LongPoint(field, value));
+        if (sortable) {
+            doc.add(new NumericDocValuesField(field, value));
+        }
+    }
+
+    private static void filterExact(BooleanQuery.Builder q, String field, String value) {
+        if (value != null && !value.isBlank()) {
+            q.add(new TermQuery(new Term(field, value)), BooleanClause.Occur.FILTER);
+        }
+    }
+
+    private static void filterRange(BooleanQuery.Builder q, String field, Long min, Long max) {
+        if (min != null || max != null) {
+            q.add(LongPoint.newRangeQuery(field, min != null ? min : Long.MIN_VALUE, max != null ? max : Long.MAX_VALUE),
+                    BooleanClause.Occur.FILTER);
+        }
+    }
+
+    /** Prices and ratings are indexed as hundredths so range filters stay exact. */
+    private static Long hundredths(BigDecimal value, RoundingMode rounding) {
+        return value != null ? value.movePointRight(2).setScale(0, rounding).longValueExact() : null;
+    }
+
+    private static long epochMillis(LocalDateTime at) {
+        return at.atZone(ZoneId.systemDefault()).toInstant().toEpochMilli();
+    }
+}
@@ -21,6 +21,7 @@ import org.example.offer.repository.OfferApplicationRepository;
 import org.example.offer.repository.OfferRepository;
 import org.modelmapper.ModelMapper;
 import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.domain.Sort;
@@ -36,6 +37,8 @@ import java.util.ArrayList;
 import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.Optional;
+import java.util.function.Function;
 import java.util.stream.Collectors;
 
 @Service
@@ -48,6 +51,8 @@ public class OfferService implements IOfferService {
     private final OfferApplicationRepository applicationRepository;
     private final ModelMapper modelMapper;
     private final TranslationService translationService;
+    private final OfferSearchIndex offerSearchIndex;
+    private final RecommendationIndex recommendationIndex;
 
     /**
      * CREATE - Créer une nouvelle offre
@@ -79,6 +84,7 @@ public class OfferService implements IOfferService {
         }
 
         Offer savedOffer = offerRepository.save(offer);
+        indexOffer(savedOffer);
         log.info("Offer created successfully with ID: {}", savedOffer.getId());
 
         return mapToResponse(savedOffer);
@@ -138,20 +144,46 @@ public class OfferService implements IOfferService {
     }
 
     /**
-     * READ - Recherche avec filtres
+     * READ - Recherche avec filtres.
+     * Servie par l'index plein texte ({@link OfferSearchIndex}) ; repli sur la Specification SQL tant que l'index
+     * n'est pas prêt, pour un tri non indexé ou une page trop profonde.
      */
     public Page<OfferResponse> searchOffers(OfferFilterRequest filter) {
+        int page = filter.getPage() != null ? filter.getPage() : 0;
+        int size = filter.getSize() != null ? filter.getSize() : 10;
+        Optional<OfferSearchIndex.Hits> hits = offerSearchIndex.search(filter, page, size);
+        if (hits.isPresent()) {
+            List<Long> ids = hits.get().ids();
+            List<Offer> offers = hydrate(ids);
+            // les ids retirés de l'index ne sont plus des résultats, y compris dans le total
+            long total = hits.get().totalHits() - (ids.size() - offers.size());
+            return new PageImpl<>(offers, PageRequest.of(page, size), total).map(this::mapToResponse);
+        }
         Specification<Offer> spec = buildSpecification(filter);
+        String sortBy = filter.getSortBy() == null || "relevance".equalsIgnoreCase(filter.getSortBy())
+                ? "createdAt" : filter.getSortBy();
         Sort sort = Sort.by(Sort.Direction.fromString(
-                filter.getSortDirection() != null ? filter.getSortDirection() : "DESC"),
-                filter.getSortBy() != null ? filter.getSortBy() : "createdAt");
-        Pageable pageable = PageRequest.of(
-                filter.getPage() != null ? filter.getPage() : 0,
-                filter.getSize() != null ? filter.getSize() : 10,
-                sort);
+                filter.getSortDirection() != null ? filter.getSortDirection() : "DESC"), sortBy);
+        Pageable pageable = PageRequest.of(page, size, sort);
         return offerRepository.findAll(spec, pageable).map(this::mapToResponse);
     }
 
+    /** Charge les offres dans l'ordre du classement ; les ids supprimés entre-temps sont retirés de l'index. */
+    private List<Offer> hydrate(List<Long> ids) {
+        Map<Long, Offer> byId = offerRepository.findAllById(ids).stream()
+                .collect(Collectors.toMap(Offer::getId, Function.identity()));
+        List<Offer> ordered = new ArrayList<>(ids.size());
+        for (Long id : ids) {
+            Offer offer = byId.get(id);
+            if (offer != null) {
+                ordered.add(offer);
+            } else {
+                offerSearchIndex.remove(id);
+            }
+        }
+        return ordered;
+    }
+
     /**
      * READ - Statistiques freelancer
      */
@@ -258,7 +290,9 @@ public class OfferService implements IOfferService {
             throw new BadRequestException("You are not authorized to publish this offer");
         }
         offer.publish();
-        return mapToResponse(offerRepository.save(offer));
+        Offer saved = offerRepository.save(offer);
+        indexOffer(saved);
+        return mapToResponse(saved);
     }
 
     /**
@@ -278,7 +312,9 @@ public class OfferService implements IOfferService {
         } else if (status == OfferStatus.CLOSED) {
             offer.deactivate();
         }
-        return mapToResponse(offerRepository.save(offer));
+        Offer saved = offerRepository.save(offer);
+        indexOffer(saved);
+        return mapToResponse(saved);
     }
 
     /**
@@ -293,7 +329,9 @@ public class OfferService implements IOfferService {
         if (communicationScore != null) {
             offer.setCommunicationScore(communicationScore);
         }
-        return mapToResponse(offerRepository.save(offer));
+        Offer saved = offerRepository.save(offer);
+        indexOffer(saved);
+        return mapToResponse(saved);
     }
 
     /**
@@ -340,6 +378,7 @@ public class OfferService implements IOfferService {
         }
 
         Offer updatedOffer = offerRepository.save(offer);
+        indexOffer(updatedOffer);
         log.info("Offer updated successfully: {}", id);
 
         return mapToResponse(updatedOffer);
@@ -364,9 +403,21 @@ public class OfferService implements IOfferService {
         }
 
         offerRepository.delete(offer);
+        unindexOffer(id);
         log.info("Offer deleted successfully: {}", id);
     }
 
+    /** Répercute une écriture sur les index en mémoire (recherche, recommandations), après commit. */
+    private void indexOffer(Offer offer) {
+        offerSearchIndex.index(offer);
+        recommendationIndex.upsert(offer);
+    }
+
+    private void unindexOffer(Long id) {
+        offerSearchIndex.remove(id);
+        recommendationIndex.remove(id);
+    }
+
     /**
      * Construction d'une Specification à partir des filtres
      */
@@ -0,0 +1,402 @@
+package org.example.offer.service;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.example.offer.entity.Offer;
+import org.example.offer.entity.OfferStatus;
+import org.example.offer.repository.OfferRepository;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Async;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.time.LocalDate;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.PriorityQueue;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Consumer;
+
+/**
+ * Index en mémoire des offres recommandables (AVAILABLE et actives) pour le Smart Matching.
+ * <p>
+ * Les offres sont rangées en colonnes primitives (domaine et catégorie en ordinaux, prix, note, vedette, jour de
+ * création, vues) : le scoring parcourt tout le catalogue en une boucle sans allocation, puis garde le top-k dans
+ * un tas borné. {@link OfferService} signale chaque écriture après commit ({@link #upsert}/{@link #remove}) ;
+ * l'index est construit au démarrage et reconstruit toutes les {@code offer.recommendation.refresh-ms} (écritures
+ * des autres instances, compteurs de vues). Les écritures reçues pendant une reconstruction sont rejouées sur le
+ * nouvel index avant qu'il ne remplace l'ancien.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class RecommendationIndex {
+
+    private static final long NO_DATE = Long.MIN_VALUE;
+
+    private final OfferRepository offerRepository;
+
+    @Value("${offer.recommendation.index.enabled:true}")
+    private boolean enabled;
+
+    @Value("${offer.recommendation.index.chunk-size:1000}")
+    private int chunkSize;
+
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+
+    /** Null tant que la première construction n'est pas terminée. Protégé par {@link #lock}. */
+    private Columns columns;
+
+    /**
+     * Écritures arrivées pendant une reconstruction, rejouées sur le nouvel index avant l'échange (sinon le parcours,
+     * qui a pu lire la ligne avant le commit, les perdrait). Non null seulement pendant {@link #refresh}. Protégé
+     * par {@link #lock}.
+     */
+    private List<Consumer<Columns>> pendingDuringRefresh;
+
+    /** Une seule reconstruction à la fois (démarrage asynchrone et planification peuvent se chevaucher). */
+    private final Object refreshMonitor = new Object();
+
+    @Async
+    @EventListener(ApplicationReadyEvent.class)
+    public void buildOnStartup() {
+        if (enabled) {
+            refresh();
+        }
+    }
+
+    /** Reconstruit l'index depuis la base (parcours par id, par lots) puis le remplace. */
+    @Scheduled(initialDelayString = "${offer.recommendation.refresh-ms:300000}",
+            fixedDelayString = "${offer.recommendation.refresh-ms:300000}")
+    public void refresh() {
+        if (!enabled) {
+            return;
+        }
+        synchronized (refreshMonitor) {
+            setPending(new ArrayList<>());
+            try {
+                Columns fresh = new Columns(chunkSize);
+                long afterId = 0L;
+                while (true) {
+                    List<Offer> chunk = offerRepository.findAvailableActiveAfterId(afterId, PageRequest.of(0, chunkSize));
+                    chunk.forEach(fresh::put);
+                    if (chunk.size() < chunkSize) {
+                        break;
+                    }
+                    afterId = chunk.get(chunk.size() - 1).getId();
+                }
+                int replayed;
+                lock.writeLock().lock();
+                try {
+                    replayed = pendingDuringRefresh.size();
+                    pendingDuringRefresh.forEach(action -> action.accept(fresh));
+                    columns = fresh;
+                } finally {
+                    lock.writeLock().unlock();
+                }
+                log.debug("Recommendation index refreshed: {} offer(s), {} write(s) replayed", fresh.liveCount(), replayed);
+            } catch (Exception e) {
+                log.warn("Recommendation index refresh failed: {}", e.getMessage());
+            } finally {
+                setPending(null);
+            }
+        }
+    }
+
+    private void setPending(List<Consumer<Columns>> pending) {
+        lock.writeLock().lock();
+        try {
+            pendingDuringRefresh = pending;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public boolean isReady() {
+        lock.readLock().lock();
+        try {
+            return columns != null;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /** Ajoute, met à jour ou retire l'offre selon qu'elle est encore recommandable, après commit. */
+    public void upsert(Offer offer) {
+        if (!enabled || offer == null || offer.getId() == null) {
+            return;
+        }
+        Row row = isRecommendable(offer) ? Row.of(offer) : null;
+        Long id = offer.getId();
+        AfterCommit.run(() -> write(c -> {
+            if (row != null) {
+                c.put(row);
+            } else {
+                c.remove(id);
+            }
+        }));
+    }
+
+    public void remove(Long offerId) {
+        if (enabled && offerId != null) {
+            AfterCommit.run(() -> write(c -> c.remove(offerId)));
+        }
+    }
+
+    private void write(Consumer<Columns> action) {
+        lock.writeLock().lock();
+        try {
+            if (columns != null) {
+                action.accept(columns);
+            }
+            if (pendingDuringRefresh != null) {
+                pendingDuringRefresh.add(action);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Ids des {@code limit} offres les mieux notées pour ces préférences, sur tout le catalogue.
+     *
+     * @return vide tant que l'index n'est pas construit
+     */
+    public Optional<List<Long>> topOfferIds(ClientPreferenceCache.Preferences preferences, int limit) {
+        lock.readLock().lock();
+        try {
+            return columns == null ? Optional.empty() : Optional.of(columns.top(preferences, limit, LocalDate.now()));
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /** Même scoring sur une liste d'offres chargée à part (repli tant que l'index n'est pas prêt). */
+    static List<Long> rank(List<Offer> offers, ClientPreferenceCache.Preferences preferences, int limit) {
+        Columns c = new Columns(Math.max(offers.size(), 1));
+        offers.forEach(c::put);
+        return c.top(preferences, limit, LocalDate.now());
+    }
+
+    static boolean isRecommendable(Offer offer) {
+        return offer.getOfferStatus() == OfferStatus.AVAILABLE && Boolean.TRUE.equals(offer.getIsActive());
+    }
+
+    /** Champs d'une offre utilisés par le scoring. */
+    record Row(long id, String domain, String category, double price, double rating, boolean featured,
+               long createdDay, long views) {
+
+        static Row of(Offer o) {
+            return new Row(o.getId(), o.getDomain(), o.getCategory(),
+                    o.getPrice() != null ? o.getPrice().doubleValue() : Double.NaN,
+                    o.getRating() != null ? o.getRating().doubleValue() : 0.0,
+                    Boolean.TRUE.equals(o.getIsFeatured()),
+                    o.getCreatedAt() != null ? o.getCreatedAt().toLocalDate().toEpochDay() : NO_DATE,
+                    o.getViewsCount() != null ? o.getViewsCount() : 0);
+        }
+    }
+
+    /** Stockage en colonnes ; les emplacements libérés par une suppression sont réutilisés. */
+    static final class Columns {
+        private final Map<String, Integer> domainOrdinals = new HashMap<>();
+        private final Map<String, Integer> categoryOrdinals = new HashMap<>();
+        private final Map<Long, Integer> slotById = new HashMap<>();
+        private final ArrayDeque<Integer> freeSlots = new ArrayDeque<>();
+        private int size;
+        private long[] ids;
+        private int[] domains;
+        private int[] categories;
+        private double[] prices;
+        private double[] ratings;
+        private boolean[] featured;
+        private long[] createdDays;
+        private long[] views;
+        private boolean[] live;
+
+        Columns(int capacity) {
+            ids = new long[capacity];
+            domains = new int[capacity];
+            categories = new int[capacity];
+            prices = new double[capacity];
+            ratings = new double[capacity];
+            featured = new boolean[capacity];
+            createdDays = new long[capacity];
+            views = new long[capacity];
+            live = new boolean[capacity];
+        }
+
+        int liveCount() {
+            return slotById.size();
+        }
+
+        void put(Offer offer) {
+            put(Row.of(offer));
+        }
+
+        void put(Row row) {
+            Integer slot = slotById.get(row.id());
+            if (slot == null) {
+                slot = freeSlots.isEmpty() ? size++ : freeSlots.pop();
+                ensureCapacity(size);
+                slotById.put(row.id(), slot);
+            }
+            ids[slot] = row.id();
+            domains[slot] = ordinal(domainOrdinals, row.domain());
+            categories[slot] = ordinal(categoryOrdinals, row.category());
+            prices[slot] = row.price();
+            ratings[slot] = row.rating();
+            featured[slot] = row.featured();
+            createdDays[slot] = row.createdDay();
+            views[slot] = row.views();
+            live[slot] = true;
+        }
+
+        void remove(Long id) {
+            Integer slot = slotById.remove(id);
+            if (slot != null) {
+                live[slot] = false;
+                freeSlots.push(slot);
+            }
+        }
+
+        private static int ordinal(Map<String, Integer> ordinals, String key) {
+            if (key == null || key.isBlank()) {
+                return -1;
+            }
+            return ordinals.computeIfAbsent(key, k -> ordinals.size());
+        }
+
+        private void ensureCapacity(int needed) {
+            if (needed <= ids.length) {
+                return;
+            }
+            int capacity = Math.max(needed, ids.length * 2);
+            ids = Arrays.copyOf(ids, capacity);
+            domains = Arrays.copyOf(domains, capacity);
+            categories = Arrays.copyOf(categories, capacity);
+            prices = Arrays.copyOf(prices, capacity);
+            ratings = Arrays.copyOf(ratings, capacity);
+            featured = Arrays.copyOf(featured, capacity);
+            createdDays = Arrays.copyOf(createdDays, capacity);
+            views = Arrays.copyOf(views, capacity);
+            live = Arrays.copyOf(live, capacity);
+        }
+
+        /**
+         * Barème : domaine préféré 25 + min(3 × occurrences, 15), catégorie préférée 15, prix dans la fourchette 20,
+         * offre déjà consultée 30, vedette 8, note × 2, créée depuis ≤ 30 j 5 (≤ 90 j 2). Offres déjà candidatées
+         * exclues ; à score égal : vedette, puis vues, puis la plus récente.
+         */
+        List<Long> top(ClientPreferenceCache.Preferences p, int limit, LocalDate today) {
+            double[] domainBonus = new double[domainOrdinals.size()];
+            p.domainCounts().forEach((domain, count) -> {
+                Integer ord = domainOrdinals.get(domain);
+                if (ord != null) {
+                    domainBonus[ord] = 25.0 + Math.min(count * 3, 15);
+                }
+            });
+            double[] categoryBonus = new double[categoryOrdinals.size()];
+            for (String category : p.categories()) {
+                Integer ord = categoryOrdinals.get(category);
+                if (ord != null) {
+                    categoryBonus[ord] = 15.0;
+                }
+            }
+            boolean priceRange = p.hasPriceRange();
+            double priceMin = priceRange ? p.priceMin() : 0;
+            double priceMax = priceRange ? p.priceMax() : 0;
+            long todayDay = today.toEpochDay();
+
+            double[] scores = new double[size];
+            for (int i = 0; i < size; i++) {
+                double s = 0.0;
+                int d = domains[i];
+                if (d >= 0) {
+                    s += domainBonus[d];
+                }
+                int c = categories[i];
+                if (c >= 0) {
+                    s += categoryBonus[c];
+                }
+                double price = prices[i];
+                if (priceRange && price >= priceMin && price <= priceMax) {
+                    s += 20.0;
+                }
+                if (featured[i]) {
+                    s += 8.0;
+                }
+                if (ratings[i] > 0) {
+                    s += ratings[i] * 2;
+                }
+                if (createdDays[i] != NO_DATE) {
+                    long age = todayDay - createdDays[i];
+                    if (age <= 30) {
+                        s += 5;
+                    } else if (age <= 90) {
+                        s += 2;
+                    }
+                }
+                scores[i] = live[i] ? s : Double.NEGATIVE_INFINITY;
+            }
+            for (Long viewed : p.viewedOfferIds()) {
+                Integer slot = slotById.get(viewed);
+                if (slot != null) {
+                    scores[slot] += 30.0;
+                }
+            }
+            for (Long applied : p.appliedOfferIds()) {
+                Integer slot = slotById.get(applied);
+                if (slot != null) {
+                    scores[slot] = Double.NEGATIVE_INFINITY;
+                }
+            }
+
+            if (limit <= 0) {
+                return List.of();
+            }
+            // tas min de taille limit : la tête est le moins bon du top courant
+            PriorityQueue<Integer> heap = new PriorityQueue<>(limit, (a, b) -> compare(scores, a, b));
+            for (int i = 0; i < size; i++) {
+                if (scores[i] == Double.NEGATIVE_INFINITY) {
+                    continue;
+                }
+                if (heap.size() < limit) {
+                    heap.add(i);
+                } else if (compare(scores, i, heap.peek()) > 0) {
+                    heap.poll();
+                    heap.add(i);
+                }
+            }
+            List<Long> result = new ArrayList<>(heap.size());
+            while (!heap.isEmpty()) {
+                result.add(ids[heap.poll()]);
+            }
+            Collections.reverse(result);
+            return result;
+        }
+
+        private int compare(double[] scores, int a, int b) {
+            int cmp = Double.compare(scores[a], scores[b]);
+            if (cmp == 0) {
+                cmp = Boolean.compare(featured[a], featured[b]);
+            }
+            if (cmp == 0) {
+                cmp = Long.compare(views[a], views[b]);
+            }
+            if (cmp == 0) {
+                cmp = Long.compare(createdDays[a], createdDays[b]);
+            }
+            return cmp != 0 ? cmp : Long.compare(ids[a], ids[b]);
+        }
+    }
+}
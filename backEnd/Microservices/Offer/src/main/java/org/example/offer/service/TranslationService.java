@@ -15,6 +15,8 @@ import java.util.stream.Collectors;
 /**
  * Service de traduction via Google Cloud Translation API v2.
  * Langues supportées : FR, EN, AR.
+ * Les résultats passent par {@link TranslationCache} : seuls les textes absents du cache partent vers Google, en
+ * un seul appel.
  */
 @Service
 @RequiredArgsConstructor
@@ -24,6 +26,7 @@ public class TranslationService {
     private static final String GOOGLE_TRANSLATE_URL = "https://translation.googleapis.com/language/translate/v2";
 
     private final RestTemplate restTemplate;
+    private final TranslationCache translationCache;
 
     @Value("${app.translation.google-api-key:}")
     private String apiKey;
@@ -50,7 +53,10 @@ public class TranslationService {
                 .map(t -> t == null || t.isBlank() ? " " : t)
                 .limit(10)
                 .collect(Collectors.toList());
+        return translationCache.translateAll(toTranslate, "auto", target, misses -> callGoogle(misses, target));
+    }
 
+    private List<String> callGoogle(List<String> toTranslate, String target) {
         String url = GOOGLE_TRANSLATE_URL + "?key=" + apiKey;
         Map<String, Object> body = new HashMap<>();
         body.put("q", toTranslate);
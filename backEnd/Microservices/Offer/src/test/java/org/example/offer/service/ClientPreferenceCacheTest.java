@@ -0,0 +1,108 @@
+package org.example.offer.service;
+
+import org.example.offer.entity.Offer;
+import org.example.offer.entity.OfferApplication;
+import org.example.offer.repository.OfferApplicationRepository;
+import org.example.offer.repository.OfferViewRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * ClientPreferenceCache : deltas comptés une fois par id de ligne, chargement hors du verrou de la map, chargement
+ * invalidé en cours de route non installé.
+ */
+@ExtendWith(MockitoExtension.class)
+class ClientPreferenceCacheTest {
+
+    @Mock
+    OfferApplicationRepository applicationRepository;
+
+    @Mock
+    OfferViewRepository viewRepository;
+
+    private ClientPreferenceCache cache;
+
+    @BeforeEach
+    void setUp() {
+        cache = new ClientPreferenceCache(applicationRepository, viewRepository);
+        ReflectionTestUtils.setField(cache, "ttlMs", 600_000L);
+        ReflectionTestUtils.setField(cache, "maxEntries", 100);
+    }
+
+    private static Offer offer(Long id, String domain) {
+        Offer offer = new Offer();
+        offer.setId(id);
+        offer.setDomain(domain);
+        offer.setPrice(new BigDecimal("100"));
+        return offer;
+    }
+
+    private static OfferApplication application(Long id, Offer offer) {
+        OfferApplication application = new OfferApplication();
+        application.setId(id);
+        application.setOffer(offer);
+        return application;
+    }
+
+    @Test
+    void recordApplication_alreadyCountedByTheLoad_isNotCountedAgain() {
+        Offer web = offer(1L, "IT");
+        when(applicationRepository.findByClientIdWithOffer(7L)).thenReturn(List.of(application(5L, web)));
+        cache.get(7L);
+
+        cache.recordApplication(7L, 5L, web);
+        cache.recordApplication(7L, 6L, offer(2L, "IT"));
+
+        ClientPreferenceCache.Preferences prefs = cache.get(7L);
+        assertThat(prefs.domainCounts()).containsEntry("IT", 2);
+        assertThat(prefs.appliedOfferIds()).containsExactlyInAnyOrder(1L, 2L);
+    }
+
+    @Test
+    void get_deltaCommittedDuringTheLoad_doesNotWaitAndIsReplayedOnce() {
+        Offer web = offer(1L, "IT");
+        Offer mobile = offer(2L, "IT");
+        when(applicationRepository.findByClientIdWithOffer(7L)).thenAnswer(inv -> {
+            // commits from other threads while the queries run: one row the query also returns, one it misses
+            Thread committer = new Thread(() -> {
+                cache.recordApplication(7L, 5L, web);
+                cache.recordApplication(7L, 6L, mobile);
+            });
+            committer.start();
+            committer.join(2_000);
+            assertThat(committer.isAlive()).as("delta blocked by the load").isFalse();
+            return List.of(application(5L, web));
+        });
+
+        ClientPreferenceCache.Preferences prefs = cache.get(7L);
+
+        assertThat(prefs.domainCounts()).containsEntry("IT", 2);
+        assertThat(prefs.appliedOfferIds()).containsExactlyInAnyOrder(1L, 2L);
+        assertThat(cache.get(7L)).isEqualTo(prefs);
+    }
+
+    @Test
+    void get_invalidatedDuringTheLoad_doesNotCacheTheStaleProfile() {
+        when(applicationRepository.findByClientIdWithOffer(7L)).thenAnswer(inv -> {
+            cache.invalidate(7L);
+            return List.of(application(5L, offer(1L, "IT")));
+        });
+
+        assertThat(cache.get(7L).appliedOfferIds()).containsExactly(1L);
+        cache.get(7L);
+
+        verify(applicationRepository, times(2)).findByClientIdWithOffer(7L);
+    }
+}
@@ -41,6 +41,12 @@ class OfferApplicationServiceTest {
     ModelMapper modelMapper;
     @Mock
     ContractClient contractClient;
+    @Mock
+    OfferSearchIndex offerSearchIndex;
+    @Mock
+    RecommendationIndex recommendationIndex;
+    @Mock
+    ClientPreferenceCache clientPreferenceCache;
 
     @InjectMocks
     OfferApplicationService offerApplicationService;
@@ -130,6 +136,7 @@ class OfferApplicationServiceTest {
         assertThat(saved.getStatus()).isEqualTo(ApplicationStatus.PENDING);
         assertThat(saved.getClientId()).isEqualTo(20L);
         assertThat(saved.getOffer()).isSameAs(offer);
+        verify(clientPreferenceCache).recordApplication(20L, 55L, offer);
     }
 
     @Test
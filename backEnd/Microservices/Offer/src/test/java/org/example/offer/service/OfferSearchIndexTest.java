@@ -0,0 +1,165 @@
+package org.example.offer.service;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.example.offer.dto.request.OfferFilterRequest;
+import org.example.offer.entity.Offer;
+import org.example.offer.entity.OfferStatus;
+import org.example.offer.repository.OfferRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.Pageable;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.when;
+
+/**
+ * OfferSearchIndex sur un index Lucene réel en mémoire : tokenisation (casse, accents, préfixe), classement
+ * titre &gt; description, filtres, tri par champ, pagination et mises à jour/suppressions.
+ */
+@ExtendWith(MockitoExtension.class)
+class OfferSearchIndexTest {
+
+    @Mock
+    OfferRepository offerRepository;
+
+    OfferSearchIndex index;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        index = new OfferSearchIndex(offerRepository, new SimpleMeterRegistry());
+        ReflectionTestUtils.setField(index, "enabled", true);
+        ReflectionTestUtils.setField(index, "indexPath", "");
+        ReflectionTestUtils.setField(index, "chunkSize", 2);
+        ReflectionTestUtils.setField(index, "maxWindow", 100);
+        index.open();
+
+        Offer react = offer(1L, "Développement React", "Application web moderne avec hooks", "frontend,javascript", "120", 1);
+        Offer spring = offer(2L, "API Spring Boot", "Backend Java et intégration React côté client", "backend,java", "300", 2);
+        Offer design = offer(3L, "Logo design", "Identité visuelle complète", "graphisme", "80", 3);
+        when(offerRepository.findByIdGreaterThanOrderByIdAsc(eq(0L), any(Pageable.class))).thenReturn(List.of(react, spring));
+        when(offerRepository.findByIdGreaterThanOrderByIdAsc(eq(2L), any(Pageable.class))).thenReturn(List.of(design));
+
+        assertThat(index.rebuild()).isEqualTo(3);
+    }
+
+    @AfterEach
+    void tearDown() throws Exception {
+        index.close();
+    }
+
+    private static Offer offer(Long id, String title, String description, String tags, String price, int daysAgo) {
+        Offer o = new Offer();
+        o.setId(id);
+        o.setFreelancerId(10L + id);
+        o.setTitle(title);
+        o.setDescription(description);
+        o.setTags(tags);
+        o.setDomain("IT");
+        o.setPrice(new BigDecimal(price));
+        o.setRating(BigDecimal.ZERO);
+        o.setDurationType("fixed");
+        o.setOfferStatus(OfferStatus.AVAILABLE);
+        o.setCreatedAt(LocalDateTime.now().minusDays(daysAgo));
+        o.setUpdatedAt(o.getCreatedAt());
+        return o;
+    }
+
+    private static OfferFilterRequest keyword(String keyword) {
+        OfferFilterRequest filter = new OfferFilterRequest();
+        filter.setKeyword(keyword);
+        return filter;
+    }
+
+    @Test
+    void search_beforeBuild_isEmpty() throws Exception {
+        OfferSearchIndex fresh = new OfferSearchIndex(offerRepository, new SimpleMeterRegistry());
+        ReflectionTestUtils.setField(fresh, "enabled", true);
+        ReflectionTestUtils.setField(fresh, "indexPath", "");
+        ReflectionTestUtils.setField(fresh, "maxWindow", 100);
+        fresh.open();
+        try {
+            assertThat(fresh.search(keyword("react"), 0, 10)).isEmpty();
+        } finally {
+            fresh.close();
+        }
+    }
+
+    @Test
+    void search_keyword_ranksTitleMatchFirst() {
+        OfferSearchIndex.Hits hits = index.search(keyword("react"), 0, 10).orElseThrow();
+
+        assertThat(hits.ids()).containsExactly(1L, 2L);
+        assertThat(hits.totalHits()).isEqualTo(2);
+    }
+
+    @Test
+    void search_keyword_matchesPrefixIgnoringCaseAndAccents() {
+        assertThat(index.search(keyword("DEVELOP"), 0, 10).orElseThrow().ids()).containsExactly(1L);
+        assertThat(index.search(keyword("identite"), 0, 10).orElseThrow().ids()).containsExactly(3L);
+    }
+
+    @Test
+    void search_everyKeywordTermMustMatch() {
+        assertThat(index.search(keyword("react backend"), 0, 10).orElseThrow().ids()).containsExactly(2L);
+    }
+
+    @Test
+    void search_filtersAndSortsByPrice() {
+        OfferFilterRequest filter = new OfferFilterRequest();
+        filter.setMinPrice(new BigDecimal("100"));
+        filter.setSortBy("price");
+        filter.setSortDirection("ASC");
+
+        assertThat(index.search(filter, 0, 10).orElseThrow().ids()).containsExactly(1L, 2L);
+    }
+
+    @Test
+    void search_noKeyword_defaultsToNewestFirstAndPaginates() {
+        OfferSearchIndex.Hits secondPage = index.search(new OfferFilterRequest(), 1, 2).orElseThrow();
+
+        assertThat(secondPage.ids()).containsExactly(3L);
+        assertThat(secondPage.totalHits()).isEqualTo(3);
+    }
+
+    @Test
+    void search_unsupportedSortOrTooDeep_fallsBack() {
+        OfferFilterRequest filter = new OfferFilterRequest();
+        filter.setSortBy("title");
+
+        assertThat(index.search(filter, 0, 10)).isEmpty();
+        assertThat(index.search(new OfferFilterRequest(), 50, 10)).isEmpty();
+    }
+
+    @Test
+    void indexAndRemove_outsideTransaction_applyImmediately() {
+        Offer updated = offer(3L, "Logo et charte React Native", "Identité visuelle complète", "graphisme", "80", 3);
+
+        index.index(updated);
+        assertThat(index.search(keyword("native"), 0, 10).orElseThrow().ids()).containsExactly(3L);
+
+        index.remove(3L);
+        assertThat(index.search(keyword("native"), 0, 10).orElseThrow().ids()).isEmpty();
+    }
+
+    @Test
+    void syncChanges_reindexesRowsChangedSinceLastPass() {
+        Offer renamed = offer(2L, "API Spring Boot et Kotlin", "Backend Java", "backend", "300", 2);
+        when(offerRepository.findChangedSince(any(LocalDateTime.class), anyLong(), any(Pageable.class))).thenReturn(List.of(renamed));
+
+        index.syncChanges();
+
+        assertThat(index.search(keyword("kotlin"), 0, 10).orElseThrow().ids()).containsExactly(2L);
+    }
+}
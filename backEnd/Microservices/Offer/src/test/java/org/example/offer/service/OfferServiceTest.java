@@ -1,5 +1,6 @@
 package org.example.offer.service;
 
+import org.example.offer.dto.request.OfferFilterRequest;
 import org.example.offer.dto.request.OfferRequest;
 import org.example.offer.dto.response.OfferResponse;
 import org.example.offer.entity.Offer;
@@ -13,14 +14,20 @@ import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
 import org.modelmapper.ModelMapper;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.domain.Specification;
 
 import java.math.BigDecimal;
+import java.util.List;
 import java.util.Optional;
 
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.assertj.core.api.Assertions.assertThatThrownBy;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
@@ -35,6 +42,10 @@ class OfferServiceTest {
     ModelMapper modelMapper;
     @Mock
     TranslationService translationService;
+    @Mock
+    OfferSearchIndex offerSearchIndex;
+    @Mock
+    RecommendationIndex recommendationIndex;
 
     @InjectMocks
     OfferService offerService;
@@ -78,6 +89,8 @@ class OfferServiceTest {
 
         assertThat(response.getId()).isEqualTo(100L);
         verify(offerRepository).save(any(Offer.class));
+        verify(offerSearchIndex).index(any(Offer.class));
+        verify(recommendationIndex).upsert(any(Offer.class));
     }
 
     @Test
@@ -118,4 +131,46 @@ class OfferServiceTest {
         assertThat(out.getViewsCount()).isEqualTo(4);
         verify(offerRepository).save(offer);
     }
+
+    @Test
+    void searchOffers_indexHit_hydratesInRankOrderAndPrunesMissingIds() {
+        OfferFilterRequest filter = new OfferFilterRequest();
+        filter.setKeyword("react");
+        Offer first = new Offer();
+        first.setId(3L);
+        first.setApplications(new java.util.ArrayList<>());
+        Offer second = new Offer();
+        second.setId(1L);
+        second.setApplications(new java.util.ArrayList<>());
+        when(offerSearchIndex.search(filter, 0, 10))
+                .thenReturn(Optional.of(new OfferSearchIndex.Hits(List.of(3L, 9L, 1L), 3)));
+        when(offerRepository.findAllById(List.of(3L, 9L, 1L))).thenReturn(List.of(second, first));
+        when(modelMapper.map(any(Offer.class), eq(OfferResponse.class)))
+                .thenAnswer(inv -> {
+                    OfferResponse r = new OfferResponse();
+                    r.setId(((Offer) inv.getArgument(0)).getId());
+                    return r;
+                });
+
+        Page<OfferResponse> page = offerService.searchOffers(filter);
+
+        assertThat(page.getContent()).extracting(OfferResponse::getId).containsExactly(3L, 1L);
+        assertThat(page.getTotalElements()).isEqualTo(2);
+        verify(offerSearchIndex).remove(9L);
+        verify(offerRepository, never()).findAll(any(Specification.class), any(Pageable.class));
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void searchOffers_indexUnavailable_fallsBackToSpecification() {
+        OfferFilterRequest filter = new OfferFilterRequest();
+        filter.setKeyword("react");
+        when(offerSearchIndex.search(filter, 0, 10)).thenReturn(Optional.empty());
+        when(offerRepository.findAll(any(Specification.class), any(Pageable.class))).thenReturn(new PageImpl<Offer>(List.of()));
+
+        Page<OfferResponse> page = offerService.searchOffers(filter);
+
+        assertThat(page.getContent()).isEmpty();
+        verify(offerRepository).findAll(any(Specification.class), any(Pageable.class));
+    }
 }
@@ -0,0 +1,141 @@
+package org.example.offer.service;
+
+import org.example.offer.entity.Offer;
+import org.example.offer.entity.OfferStatus;
+import org.example.offer.repository.OfferRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.Pageable;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.when;
+
+/**
+ * RecommendationIndex : construction par lots, barème de scoring, exclusion des offres candidatées, top-k et
+ * mises à jour incrémentales (hors transaction, appliquées immédiatement).
+ */
+@ExtendWith(MockitoExtension.class)
+class RecommendationIndexTest {
+
+    @Mock
+    OfferRepository offerRepository;
+
+    RecommendationIndex index;
+
+    private static final ClientPreferenceCache.Preferences NO_HISTORY =
+            new ClientPreferenceCache.Preferences(Map.of(), Set.of(), null, null, Set.of(), Set.of());
+
+    @BeforeEach
+    void setUp() {
+        index = new RecommendationIndex(offerRepository);
+        ReflectionTestUtils.setField(index, "enabled", true);
+        ReflectionTestUtils.setField(index, "chunkSize", 2);
+    }
+
+    private static Offer offer(Long id, String domain, String category, String price, boolean featured, int daysAgo) {
+        Offer o = new Offer();
+        o.setId(id);
+        o.setDomain(domain);
+        o.setCategory(category);
+        o.setPrice(new BigDecimal(price));
+        o.setRating(BigDecimal.ZERO);
+        o.setIsFeatured(featured);
+        o.setIsActive(true);
+        o.setOfferStatus(OfferStatus.AVAILABLE);
+        o.setCreatedAt(LocalDateTime.now().minusDays(daysAgo));
+        return o;
+    }
+
+    private void build(Offer... offers) {
+        List<Offer> all = List.of(offers);
+        when(offerRepository.findAvailableActiveAfterId(eq(0L), any(Pageable.class)))
+                .thenReturn(all.subList(0, Math.min(2, all.size())));
+        if (all.size() >= 2) {
+            when(offerRepository.findAvailableActiveAfterId(eq(all.get(1).getId()), any(Pageable.class)))
+                    .thenReturn(all.subList(2, all.size()));
+        }
+        index.refresh();
+    }
+
+    @Test
+    void topOfferIds_beforeBuild_isEmpty() {
+        assertThat(index.isReady()).isFalse();
+        assertThat(index.topOfferIds(NO_HISTORY, 5)).isEmpty();
+    }
+
+    @Test
+    void topOfferIds_scoresWholeCatalogAndExcludesApplied() {
+        build(offer(1L, "IT", "web", "100", false, 200),
+                offer(2L, "Design", "logo", "50", true, 200),
+                offer(3L, "IT", "mobile", "500", false, 200),
+                offer(4L, "IT", "web", "120", false, 10));
+        ClientPreferenceCache.Preferences prefs = new ClientPreferenceCache.Preferences(
+                Map.of("IT", 2), Set.of("web"), 80.0, 150.0, Set.of(1L), Set.of(3L));
+
+        List<Long> top = index.topOfferIds(prefs, 3).orElseThrow();
+
+        // 4: IT 31 + web 15 + prix 20 + récent 5 = 71 ; 3: IT 31 + vue 30 = 61 ; 2: vedette 8 ; 1 déjà candidatée
+        assertThat(top).containsExactly(4L, 3L, 2L);
+    }
+
+    @Test
+    void topOfferIds_noHistory_ordersByFeaturedThenRecency() {
+        build(offer(1L, "IT", null, "100", false, 200),
+                offer(2L, "IT", null, "100", true, 200),
+                offer(3L, "IT", null, "100", false, 5));
+
+        assertThat(index.topOfferIds(NO_HISTORY, 2).orElseThrow()).containsExactly(2L, 3L);
+    }
+
+    @Test
+    void upsertAndRemove_applyImmediatelyOutsideTransaction() {
+        build(offer(1L, "IT", null, "100", false, 200),
+                offer(2L, "IT", null, "100", false, 200));
+
+        index.upsert(offer(5L, "IT", null, "100", true, 1));
+        assertThat(index.topOfferIds(NO_HISTORY, 1).orElseThrow()).containsExactly(5L);
+
+        Offer closed = offer(5L, "IT", null, "100", true, 1);
+        closed.setOfferStatus(OfferStatus.CLOSED);
+        index.upsert(closed);
+        index.remove(2L);
+        assertThat(index.topOfferIds(NO_HISTORY, 10).orElseThrow()).containsExactly(1L);
+    }
+
+    @Test
+    void refresh_replaysWritesReceivedDuringTheScan() {
+        build(offer(1L, "IT", null, "100", false, 200));
+        when(offerRepository.findAvailableActiveAfterId(eq(0L), any(Pageable.class))).thenAnswer(inv -> {
+            // commits arrivés après la lecture de ce lot : absents du parcours
+            index.upsert(offer(7L, "IT", null, "100", true, 1));
+            index.remove(1L);
+            return List.of(offer(1L, "IT", null, "100", false, 200));
+        });
+
+        index.refresh();
+
+        assertThat(index.topOfferIds(NO_HISTORY, 10).orElseThrow()).containsExactly(7L);
+    }
+
+    @Test
+    void rank_fallbackUsesSameScoring() {
+        List<Long> ranked = RecommendationIndex.rank(
+                List.of(offer(1L, "IT", null, "100", false, 200), offer(2L, "Design", null, "100", false, 200)),
+                new ClientPreferenceCache.Preferences(Map.of("Design", 1), Set.of(), null, null, Set.of(), Set.of()),
+                10);
+
+        assertThat(ranked).containsExactly(2L, 1L);
+    }
+}
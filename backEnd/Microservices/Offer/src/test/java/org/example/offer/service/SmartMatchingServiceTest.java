@@ -0,0 +1,91 @@
+package org.example.offer.service;
+
+import org.example.offer.dto.response.OfferResponse;
+import org.example.offer.entity.Offer;
+import org.example.offer.entity.OfferStatus;
+import org.example.offer.entity.OfferView;
+import org.example.offer.repository.OfferRepository;
+import org.example.offer.repository.OfferViewRepository;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class SmartMatchingServiceTest {
+
+    @Mock
+    OfferRepository offerRepository;
+    @Mock
+    OfferViewRepository viewRepository;
+    @Mock
+    OfferService offerService;
+    @Mock
+    RecommendationIndex recommendationIndex;
+    @Mock
+    ClientPreferenceCache clientPreferenceCache;
+
+    @InjectMocks
+    SmartMatchingService smartMatchingService;
+
+    private static final ClientPreferenceCache.Preferences PREFS =
+            new ClientPreferenceCache.Preferences(Map.of(), Set.of(), null, null, Set.of(), Set.of());
+
+    private static Offer available(Long id) {
+        Offer o = new Offer();
+        o.setId(id);
+        o.setOfferStatus(OfferStatus.AVAILABLE);
+        o.setIsActive(true);
+        return o;
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void getRecommendedOffersForClient_overFetchesAndSkipsOffersClosedSinceIndexing() {
+        when(clientPreferenceCache.get(7L)).thenReturn(PREFS);
+        when(recommendationIndex.topOfferIds(PREFS, 4)).thenReturn(Optional.of(List.of(9L, 5L, 4L, 8L)));
+        Offer nine = available(9L);
+        Offer closed = available(5L);
+        closed.setOfferStatus(OfferStatus.CLOSED);
+        Offer four = available(4L);
+        Offer eight = available(8L);
+        when(offerRepository.findAllById(List.of(9L, 5L, 4L, 8L))).thenReturn(List.of(four, eight, closed, nine));
+        when(offerService.mapOffersToResponse(anyList())).thenAnswer(inv -> ((List<Offer>) inv.getArgument(0)).stream()
+                .map(o -> {
+                    OfferResponse r = new OfferResponse();
+                    r.setId(o.getId());
+                    return r;
+                }).toList());
+
+        List<OfferResponse> out = smartMatchingService.getRecommendedOffersForClient(7L, 2);
+
+        assertThat(out).extracting(OfferResponse::getId).containsExactly(9L, 4L);
+    }
+
+    @Test
+    void recordView_savesViewAndUpdatesCachedProfile() {
+        Offer offer = available(3L);
+        when(offerRepository.findById(3L)).thenReturn(Optional.of(offer));
+        when(viewRepository.save(any(OfferView.class))).thenAnswer(inv -> {
+            OfferView view = inv.getArgument(0);
+            view.setId(11L);
+            return view;
+        });
+
+        smartMatchingService.recordView(7L, 3L);
+
+        verify(clientPreferenceCache).recordView(7L, 11L, offer);
+    }
+}
@@ -0,0 +1,73 @@
+package org.example.offer.service;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.example.offer.entity.CachedTranslation;
+import org.example.offer.repository.CachedTranslationRepository;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyIterable;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * TranslationCache : un seul appel fournisseur pour les absents d'un lot, niveau persistant, échecs non mis en cache.
+ */
+@ExtendWith(MockitoExtension.class)
+class TranslationCacheTest {
+
+    @Mock
+    CachedTranslationRepository repository;
+
+    private final List<List<String>> upstreamCalls = new ArrayList<>();
+
+    private List<String> upper(List<String> texts) {
+        upstreamCalls.add(texts);
+        return texts.stream().map(String::toUpperCase).toList();
+    }
+
+    @Test
+    void translateAll_sendsOnlyMissesInOneCall() {
+        TranslationCache cache = new TranslationCache(new SimpleMeterRegistry(), repository, 100, 60_000, false, 0);
+        cache.translateAll(List.of("Développeur Java"), "auto", "en", this::upper);
+
+        List<String> result = cache.translateAll(
+                List.of("Développeur  Java", "Application mobile", " "), "auto", "en", this::upper);
+
+        assertThat(result).containsExactly("DÉVELOPPEUR JAVA", "APPLICATION MOBILE", " ");
+        assertThat(upstreamCalls).containsExactly(List.of("Développeur Java"), List.of("Application mobile"));
+    }
+
+    @Test
+    void translateAll_persistentTier_readAndWrite() {
+        String id = TranslationCache.key("Titre", "auto", "en").id();
+        when(repository.findAllById(anyIterable()))
+                .thenReturn(List.of(new CachedTranslation(id, "Title", System.currentTimeMillis())));
+        TranslationCache cache = new TranslationCache(new SimpleMeterRegistry(), repository, 100, 60_000, true, 60_000);
+
+        List<String> result = cache.translateAll(List.of("Titre", "Description"), "auto", "en", this::upper);
+
+        assertThat(result).containsExactly("Title", "DESCRIPTION");
+        assertThat(upstreamCalls).containsExactly(List.of("Description"));
+        verify(repository).save(any(CachedTranslation.class));
+    }
+
+    @Test
+    void translateAll_upstreamFailure_notCached() {
+        TranslationCache cache = new TranslationCache(new SimpleMeterRegistry(), repository, 100, 60_000, false, 0);
+
+        assertThatThrownBy(() -> cache.translateAll(List.of("Offre"), "auto", "en", t -> {
+            throw new RuntimeException("Translation failed");
+        })).hasMessageContaining("Translation failed");
+
+        assertThat(cache.translateAll(List.of("Offre"), "auto", "en", this::upper)).containsExactly("OFFRE");
+    }
+}
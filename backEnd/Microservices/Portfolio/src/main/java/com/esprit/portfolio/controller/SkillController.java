@@ -1,7 +1,9 @@
 package com.esprit.portfolio.controller;
 
 import java.util.List;
+import java.util.Map;
 
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.DeleteMapping;
@@ -11,6 +13,7 @@ import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.PutMapping;
 import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RestController;
 
@@ -74,6 +77,25 @@ public class SkillController {
         return ResponseEntity.ok(skillService.getSkillSuccessStats());
     }
 
+    // ------------------------------------------------------------------ //
+    //  Catalog version — polled by consumers that cache skills by id
+    // ------------------------------------------------------------------ //
+
+    /**
+     * GET /api/skills/catalog/version
+     * Returns {"version": "..."} with the same value as ETag; 304 when If-None-Match still matches.
+     */
+    @GetMapping("/catalog/version")
+    public ResponseEntity<Map<String, String>> getCatalogVersion(
+            @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch) {
+        String version = skillService.getCatalogVersion();
+        String etag = "\"" + version + "\"";
+        if (etag.equals(ifNoneMatch)) {
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(etag).build();
+        }
+        return ResponseEntity.ok().eTag(etag).body(Map.of("version", version));
+    }
+
     // ------------------------------------------------------------------ //
     //  Standard CRUD
     // ------------------------------------------------------------------ //
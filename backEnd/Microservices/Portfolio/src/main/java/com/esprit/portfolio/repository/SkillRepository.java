@@ -35,4 +35,11 @@ public interface SkillRepository extends JpaRepository<Skill, Long> {
      */
     @Query("SELECT COUNT(DISTINCT s.userId) FROM Skill s")
     Long countDistinctUsers();
+
+    /**
+     * Catalog fingerprint: row count, highest id and latest update. Any create, update or delete changes it.
+     * Returns a single row { count(Long), maxId(Long), maxUpdatedAt(LocalDateTime) }.
+     */
+    @Query("SELECT COUNT(s), MAX(s.id), MAX(s.updatedAt) FROM Skill s")
+    List<Object[]> catalogFingerprint();
 }
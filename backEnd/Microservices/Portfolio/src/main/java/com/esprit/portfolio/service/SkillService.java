@@ -1,5 +1,7 @@
 package com.esprit.portfolio.service;
 
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
 import java.util.Arrays;
 import java.util.List;
 import java.util.stream.Collectors;
@@ -54,6 +56,20 @@ public class SkillService {
         return skillRepository.findByUserId(userId);
     }
 
+    /**
+     * Version of the skill catalog, derived from the table itself so every instance agrees on it.
+     * Consumers poll it and drop their cached id → skill entries when it changes.
+     */
+    @Transactional(readOnly = true)
+    public String getCatalogVersion() {
+        List<Object[]> rows = skillRepository.catalogFingerprint();
+        Object[] row = rows.isEmpty() ? new Object[3] : rows.get(0);
+        long count = row[0] instanceof Number n ? n.longValue() : 0L;
+        long maxId = row[1] instanceof Number n ? n.longValue() : 0L;
+        long updated = row[2] instanceof LocalDateTime t ? t.toInstant(ZoneOffset.UTC).toEpochMilli() : 0L;
+        return count + "-" + maxId + "-" + updated;
+    }
+
     @Transactional(readOnly = true)
     public Skill findById(Long id) {
         return skillRepository.findById(id)
@@ -99,6 +115,8 @@ public class SkillService {
         validateDomains(newDomains);
         Skill skill = findById(skillId);
         skill.setDomains(newDomains);
+        // Only the element collection changes here: bump updatedAt so the catalog version moves too
+        skill.setUpdatedAt(LocalDateTime.now());
         return skillRepository.save(skill);
     }
 
@@ -8,6 +8,7 @@ import static org.springframework.test.web.servlet.request.MockMvcRequestBuilder
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.patch;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.put;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
@@ -162,4 +163,20 @@ class SkillControllerWebMvcTest {
     void deleteSkill() throws Exception {
         mockMvc.perform(delete("/api/skills/3")).andExpect(status().isNoContent());
     }
+
+    @Test
+    void catalogVersionReturnsEtag() throws Exception {
+        when(skillService.getCatalogVersion()).thenReturn("3-42-1000");
+        mockMvc.perform(get("/api/skills/catalog/version"))
+                .andExpect(status().isOk())
+                .andExpect(header().string("ETag", "\"3-42-1000\""))
+                .andExpect(jsonPath("$.version").value("3-42-1000"));
+    }
+
+    @Test
+    void catalogVersionNotModifiedWhenEtagMatches() throws Exception {
+        when(skillService.getCatalogVersion()).thenReturn("3-42-1000");
+        mockMvc.perform(get("/api/skills/catalog/version").header("If-None-Match", "\"3-42-1000\""))
+                .andExpect(status().isNotModified());
+    }
 }
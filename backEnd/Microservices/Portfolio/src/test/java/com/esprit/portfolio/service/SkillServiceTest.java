@@ -145,4 +145,20 @@ class SkillServiceTest {
         assertEquals(1, stats.size());
         assertEquals("SkillA", stats.get(0).skillName());
     }
+
+    @Test
+    void getCatalogVersionCombinesCountMaxIdAndLastUpdate() {
+        java.time.LocalDateTime updated = java.time.LocalDateTime.of(2026, 1, 1, 0, 0);
+        Object[] row = new Object[]{3L, 42L, updated};
+        when(skillRepository.catalogFingerprint()).thenReturn(Collections.singletonList(row));
+        assertEquals("3-42-" + updated.toInstant(java.time.ZoneOffset.UTC).toEpochMilli(),
+                skillService.getCatalogVersion());
+    }
+
+    @Test
+    void getCatalogVersionOnEmptyTable() {
+        Object[] row = new Object[]{0L, null, null};
+        when(skillRepository.catalogFingerprint()).thenReturn(Collections.singletonList(row));
+        assertEquals("0-0-0", skillService.getCatalogVersion());
+    }
 }
@@ -0,0 +1,19 @@
+package tn.esprit.project.Client;
+
+import org.springframework.cloud.openfeign.FeignClient;
+import org.springframework.http.HttpHeaders;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestHeader;
+import org.springframework.web.bind.annotation.RequestParam;
+
+/** Drops a freelancer's cached project-access set on the planning service after an application status change. */
+@FeignClient(
+        name = "planningAccessCache",
+        url = "${project.integration.planning-url:http://localhost:8081}",
+        configuration = ProjectInterServiceFeignConfig.class)
+public interface PlanningAccessCacheFeignClient {
+
+    @PostMapping("/api/progress-updates/access-cache/invalidate")
+    void invalidate(@RequestParam("freelancerId") Long freelancerId,
+                    @RequestHeader(HttpHeaders.AUTHORIZATION) String authorization);
+}
@@ -2,6 +2,7 @@ package tn.esprit.project.Client;
 
 import org.springframework.cloud.openfeign.FeignClient;
 import org.springframework.web.bind.annotation.*;
+import tn.esprit.project.Dto.SkillCatalogVersion;
 import tn.esprit.project.Dto.Skills;
 
 import java.util.List;
@@ -11,6 +12,9 @@ public interface SkillClient {
     @PostMapping("/api/skills/batch")
     List<Skills> getSkillsByIds(@RequestBody List<Long> ids);
 
+    @GetMapping("/api/skills/catalog/version")
+    SkillCatalogVersion getCatalogVersion();
+
     @GetMapping("/api/skills/user/{userId}")
     List<Skills> getSkillsByUserId(@PathVariable Long userId);
 
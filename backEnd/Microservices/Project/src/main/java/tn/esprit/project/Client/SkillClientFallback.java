@@ -3,6 +3,7 @@ package tn.esprit.project.Client;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.stereotype.Component;
+import tn.esprit.project.Dto.SkillCatalogVersion;
 import tn.esprit.project.Dto.Skills;
 
 import java.util.Collections;
@@ -23,6 +24,11 @@ public class SkillClientFallback implements SkillClient {
         return ids == null || ids.isEmpty() ? List.of() : Collections.emptyList();
     }
 
+    @Override
+    public SkillCatalogVersion getCatalogVersion() {
+        return null; // unknown version: cached skills are kept
+    }
+
     @Override
     public List<Skills> getSkillsByUserId(Long userId) {
         log.warn("SkillClient fallback: Portfolio unavailable for getSkillsByUserId(userId={}), returning empty",
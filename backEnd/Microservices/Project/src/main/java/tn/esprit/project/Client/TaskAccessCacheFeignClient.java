@@ -0,0 +1,19 @@
+package tn.esprit.project.Client;
+
+import org.springframework.cloud.openfeign.FeignClient;
+import org.springframework.http.HttpHeaders;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestHeader;
+import org.springframework.web.bind.annotation.RequestParam;
+
+/** Drops a freelancer's cached project-access set on the task service after an application status change. */
+@FeignClient(
+        name = "taskAccessCache",
+        url = "${project.integration.task-url:http://localhost:8091}",
+        configuration = ProjectInterServiceFeignConfig.class)
+public interface TaskAccessCacheFeignClient {
+
+    @PostMapping("/api/tasks/access-cache/invalidate")
+    void invalidate(@RequestParam("freelancerId") Long freelancerId,
+                    @RequestHeader(HttpHeaders.AUTHORIZATION) String authorization);
+}
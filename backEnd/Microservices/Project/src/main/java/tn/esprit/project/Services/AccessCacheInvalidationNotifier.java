@@ -0,0 +1,45 @@
+package tn.esprit.project.Services;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.annotation.Async;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+import tn.esprit.project.Client.PlanningAccessCacheFeignClient;
+import tn.esprit.project.Client.TaskAccessCacheFeignClient;
+
+/**
+ * Tells task and planning that a freelancer's accepted applications changed, so their access caches re-resolve
+ * on the next request. The calls carry the JWT of the user whose action triggered the change; without one they are
+ * skipped. Best effort: a missed call only means the stale entry lives until its TTL.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class AccessCacheInvalidationNotifier {
+
+    private final TaskAccessCacheFeignClient taskAccessCacheClient;
+    private final PlanningAccessCacheFeignClient planningAccessCacheClient;
+
+    @Async
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void onFreelancerAccessChanged(IProjectApplicationServicelmp.FreelancerAccessChangedEvent event) {
+        Long freelancerId = event.getFreelancerId();
+        String authorization = event.getAuthorization();
+        if (authorization == null) {
+            log.debug("No caller JWT for freelancer {} access change; task/planning caches expire by TTL", freelancerId);
+            return;
+        }
+        try {
+            taskAccessCacheClient.invalidate(freelancerId, authorization);
+        } catch (Exception e) {
+            log.warn("Task access cache invalidation failed for freelancer {}: {}", freelancerId, e.getMessage());
+        }
+        try {
+            planningAccessCacheClient.invalidate(freelancerId, authorization);
+        } catch (Exception e) {
+            log.warn("Planning access cache invalidation failed for freelancer {}: {}", freelancerId, e.getMessage());
+        }
+    }
+}
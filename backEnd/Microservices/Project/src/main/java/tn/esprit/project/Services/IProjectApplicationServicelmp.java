@@ -1,6 +1,10 @@
 package tn.esprit.project.Services;
 
 import lombok.AllArgsConstructor;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.security.oauth2.server.resource.authentication.JwtAuthenticationToken;
 import org.springframework.stereotype.Service;
 import tn.esprit.project.Dto.ProjectApplicationStats;
 import tn.esprit.project.Entities.Enums.ApplicationStatus;
@@ -14,6 +18,18 @@ import java.util.List;
 @AllArgsConstructor
 public class IProjectApplicationServicelmp implements IProjectApplicationService{
     private ProjectApplicationRepository projectApplicationRepository;
+    private ApplicationEventPublisher eventPublisher;
+
+    /**
+     * A freelancer's application changed status; task/planning drop their cached project-access set. Carries the
+     * acting user's {@code Authorization} header (null without a JWT) because the listener runs on another thread.
+     */
+    @lombok.Value
+    public static class FreelancerAccessChangedEvent {
+        Long freelancerId;
+        String authorization;
+    }
+
     @Override
     public ProjectApplication addProjectApplication(ProjectApplication projectApplication) {
         return projectApplicationRepository.save(projectApplication);
@@ -39,11 +55,17 @@ public class IProjectApplicationServicelmp implements IProjectApplicationService
             existing.setCoverLetter(projectApplication.getCoverLetter());
         }
 
+        boolean statusChanged = projectApplication.getStatus() != null
+                && projectApplication.getStatus() != existing.getStatus();
         if (projectApplication.getStatus() != null) {
             existing.setStatus(projectApplication.getStatus());
         }
 
-        return projectApplicationRepository.save(existing);
+        ProjectApplication saved = projectApplicationRepository.save(existing);
+        if (statusChanged) {
+            publishAccessChanged(existing.getFreelanceId());
+        }
+        return saved;
     }
 
     @Override
@@ -56,12 +78,30 @@ public class IProjectApplicationServicelmp implements IProjectApplicationService
         existing.setStatus(status);
         existing.setRespondedAt(LocalDateTime.now());
 
-        return projectApplicationRepository.save(existing);
+        ProjectApplication saved = projectApplicationRepository.save(existing);
+        publishAccessChanged(existing.getFreelanceId());
+        return saved;
     }
 
     @Override
     public void deleteProjectApplication(Long id) {
+        Long freelancerId = projectApplicationRepository.findById(id)
+                .filter(app -> app.getStatus() == ApplicationStatus.ACCEPTED)
+                .map(ProjectApplication::getFreelanceId)
+                .orElse(null);
         projectApplicationRepository.deleteById(id);
+        publishAccessChanged(freelancerId);
+    }
+
+    private void publishAccessChanged(Long freelancerId) {
+        if (freelancerId != null) {
+            eventPublisher.publishEvent(new FreelancerAccessChangedEvent(freelancerId, currentAuthorization()));
+        }
+    }
+
+    private static String currentAuthorization() {
+        Authentication auth = SecurityContextHolder.getContext().getAuthentication();
+        return auth instanceof JwtAuthenticationToken jwtAuth ? "Bearer " + jwtAuth.getToken().getTokenValue() : null;
     }
 
     @Override
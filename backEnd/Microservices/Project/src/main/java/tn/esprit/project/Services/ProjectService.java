@@ -7,6 +7,7 @@ import tn.esprit.project.Entities.Project;
 import tn.esprit.project.Repository.ProjectApplicationRepository;
 import tn.esprit.project.Repository.ProjectRepository;
 import tn.esprit.project.Client.SkillClient;
+import tn.esprit.project.Client.SkillDictionary;
 import tn.esprit.project.Dto.response.JointProjectItem;
 import tn.esprit.project.Dto.response.JointProjectsResponse;
 import tn.esprit.project.Dto.response.ProjectResponse;
@@ -42,6 +43,7 @@ public class ProjectService implements IProjectService{
     private final ProjectRepository projectRepository;
     private final ProjectApplicationRepository applicationRepository; // 🆕 Added
     private final SkillClient skillClient;
+    private final SkillDictionary skillDictionary;
     private final org.springframework.context.ApplicationEventPublisher eventPublisher; // 🆕 Pour les transactions
 
     // ------------------- CRUD -------------------
@@ -193,14 +195,26 @@ public class ProjectService implements IProjectService{
 
     // ------------------- ProjectResponse avec Skills -------------------
     public ProjectResponse getProjectResponse(Long id) {
-
         Project project = getProjectById(id);
+        return toResponse(project, skillDictionary.skillsOf(project.getSkillIds()));
+    }
+
+    /** All projects with their skills, resolved through the local skill dictionary (one batch call for misses). */
+    public List<ProjectResponse> getAllProjectResponses() {
+        return toResponses(projectRepository.findAll());
+    }
 
-        List<Skills> skills =
-                (project.getSkillIds() == null || project.getSkillIds().isEmpty())
-                        ? List.of()
-                        : skillClient.getSkillsByIds(project.getSkillIds());
+    private List<ProjectResponse> toResponses(List<Project> projects) {
+        Map<Long, Skills> skills = skillDictionary.resolve(projects.stream()
+                .filter(p -> p.getSkillIds() != null)
+                .flatMap(p -> p.getSkillIds().stream())
+                .collect(Collectors.toSet()));
+        return projects.stream()
+                .map(p -> toResponse(p, SkillDictionary.pick(p.getSkillIds(), skills)))
+                .toList();
+    }
 
+    private ProjectResponse toResponse(Project project, List<Skills> skills) {
         ProjectResponse response = new ProjectResponse();
         response.setId(project.getId());
         response.setClientId(project.getClientId());
@@ -212,38 +226,9 @@ public class ProjectService implements IProjectService{
         response.setCategory(project.getCategory());
         response.setSkillIds(project.getSkillIds() != null ? project.getSkillIds() : List.of());
         response.setSkills(skills);
-
         return response;
     }
 
-    public List<ProjectResponse> getAllProjectResponses() {
-
-        List<Project> projects = projectRepository.findAll();
-
-        return projects.stream().map(project -> {
-
-            List<Skills> skills =
-                    (project.getSkillIds() == null || project.getSkillIds().isEmpty())
-                            ? List.of()
-                            : skillClient.getSkillsByIds(project.getSkillIds());
-
-            ProjectResponse response = new ProjectResponse();
-            response.setId(project.getId());
-            response.setClientId(project.getClientId());
-            response.setTitle(project.getTitle());
-            response.setDescription(project.getDescription());
-            response.setBudget(project.getBudget());
-            response.setDeadline(project.getDeadline());
-            response.setStatus(project.getStatus().name());
-            response.setCategory(project.getCategory());
-            response.setSkillIds(project.getSkillIds() != null ? project.getSkillIds() : List.of());
-            response.setSkills(skills);
-
-            return response;
-
-        }).toList();
-    }
-
     public List<Project> getProjectsByClientId(Long clientId) {
         return projectRepository.findByClientId(clientId);
     }
@@ -321,11 +306,7 @@ public class ProjectService implements IProjectService{
         }
 
         // 3️⃣ Get matching open projects (by name overlap) and convert to ProjectResponse
-        List<Project> matchingProjects = getRecommendedProjectsBySkillNames(freelancerSkillNames);
-        return matchingProjects.stream()
-                .map(p -> getProjectResponse(p.getId()))
-                .limit(6)
-                .toList();
+        return toResponses(getRecommendedProjectsBySkillNames(freelancerSkillNames));
     }
 
     // ------------------- Recommandation -------------------
@@ -339,7 +320,7 @@ public class ProjectService implements IProjectService{
 
         if (withSkills.isEmpty()) return List.of();
 
-        // Batch-load all project skill names in one Feign call
+        // Resolve all project skill names through the local dictionary (misses in one Feign call)
         Set<Long> allSkillIds = withSkills.stream()
                 .flatMap(p -> p.getSkillIds().stream())
                 .collect(Collectors.toSet());
@@ -356,15 +337,9 @@ public class ProjectService implements IProjectService{
 
     private Map<Long, String> resolveSkillNames(List<Long> ids) {
         if (ids == null || ids.isEmpty()) return Map.of();
-        try {
-            List<Skills> skills = skillClient.getSkillsByIds(ids);
-            if (skills == null) return Map.of();
-            return skills.stream()
-                    .filter(s -> s.getId() != null && s.getName() != null)
-                    .collect(Collectors.toMap(Skills::getId, s -> s.getName().trim().toLowerCase(), (a, b) -> a));
-        } catch (Exception e) {
-            return Map.of();
-        }
+        return skillDictionary.resolve(ids).values().stream()
+                .filter(s -> s.getName() != null)
+                .collect(Collectors.toMap(Skills::getId, s -> s.getName().trim().toLowerCase(), (a, b) -> a));
     }
 
     /** Score = number of project skill names that match freelancer skill names (case-insensitive). */
@@ -0,0 +1,50 @@
+package tn.esprit.project.Services;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import tn.esprit.project.Client.PlanningAccessCacheFeignClient;
+import tn.esprit.project.Client.TaskAccessCacheFeignClient;
+
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class AccessCacheInvalidationNotifierTest {
+
+    private static final String BEARER = "Bearer token";
+
+    @Mock
+    private TaskAccessCacheFeignClient taskAccessCacheClient;
+
+    @Mock
+    private PlanningAccessCacheFeignClient planningAccessCacheClient;
+
+    @InjectMocks
+    private AccessCacheInvalidationNotifier notifier;
+
+    @Test
+    void onFreelancerAccessChanged_invalidatesTaskAndPlanning() {
+        notifier.onFreelancerAccessChanged(new IProjectApplicationServicelmp.FreelancerAccessChangedEvent(7L, BEARER));
+
+        verify(taskAccessCacheClient).invalidate(7L, BEARER);
+        verify(planningAccessCacheClient).invalidate(7L, BEARER);
+    }
+
+    @Test
+    void onFreelancerAccessChanged_taskDown_stillInvalidatesPlanning() {
+        doThrow(new RuntimeException("Offline")).when(taskAccessCacheClient).invalidate(7L, BEARER);
+
+        notifier.onFreelancerAccessChanged(new IProjectApplicationServicelmp.FreelancerAccessChangedEvent(7L, BEARER));
+
+        verify(planningAccessCacheClient).invalidate(7L, BEARER);
+    }
+
+    @Test
+    void onFreelancerAccessChanged_withoutCallerJwt_skipsCalls() {
+        notifier.onFreelancerAccessChanged(new IProjectApplicationServicelmp.FreelancerAccessChangedEvent(7L, null));
+
+        verifyNoInteractions(taskAccessCacheClient, planningAccessCacheClient);
+    }
+}
@@ -5,6 +5,7 @@ import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
 import tn.esprit.project.Entities.Enums.ApplicationStatus;
 import tn.esprit.project.Entities.ProjectApplication;
 import tn.esprit.project.Repository.ProjectApplicationRepository;
@@ -16,6 +17,7 @@ import java.util.Optional;
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.assertj.core.api.Assertions.assertThatThrownBy;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
@@ -28,6 +30,9 @@ class IProjectApplicationServicelmpTest {
     @Mock
     private ProjectApplicationRepository projectApplicationRepository;
 
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+
     @InjectMocks
     private IProjectApplicationServicelmp projectApplicationService;
 
@@ -88,6 +93,7 @@ class IProjectApplicationServicelmpTest {
         ProjectApplication result = projectApplicationService.updateProjectApplication(payload);
 
         assertThat(result.getCoverLetter()).isEqualTo("Old Letter");
+        verify(eventPublisher, never()).publishEvent(any(Object.class));
     }
 
     @Test
@@ -100,6 +106,7 @@ class IProjectApplicationServicelmpTest {
 
         assertThat(result.getStatus()).isEqualTo(ApplicationStatus.ACCEPTED);
         assertThat(result.getRespondedAt()).isNotNull();
+        verify(eventPublisher).publishEvent(new IProjectApplicationServicelmp.FreelancerAccessChangedEvent(2L, null));
     }
 
     @Test
@@ -117,6 +124,17 @@ class IProjectApplicationServicelmpTest {
         verify(projectApplicationRepository).deleteById(1L);
     }
 
+    @Test
+    void deleteProjectApplication_accepted_publishesAccessChange() {
+        when(projectApplicationRepository.findById(1L))
+                .thenReturn(Optional.of(application(1L, 2L, ApplicationStatus.ACCEPTED)));
+
+        projectApplicationService.deleteProjectApplication(1L);
+
+        verify(projectApplicationRepository).deleteById(1L);
+        verify(eventPublisher).publishEvent(new IProjectApplicationServicelmp.FreelancerAccessChangedEvent(2L, null));
+    }
+
     @Test
     void getProjectApplicationById_found_returnsApp() {
         ProjectApplication app = application(1L, 2L, ApplicationStatus.PENDING);
@@ -7,6 +7,7 @@ import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
 import org.springframework.context.ApplicationEventPublisher;
 import tn.esprit.project.Client.SkillClient;
+import tn.esprit.project.Client.SkillDictionary;
 import tn.esprit.project.Dto.request.ProjectRequest;
 import tn.esprit.project.Dto.request.NewSkillRequest;
 import tn.esprit.project.Dto.response.JointProjectsResponse;
@@ -25,6 +26,7 @@ import java.util.ArrayList;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
 
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.assertj.core.api.Assertions.assertThatThrownBy;
@@ -46,6 +48,9 @@ class ProjectServiceTest {
     @Mock
     private SkillClient skillClient;
 
+    @Mock
+    private SkillDictionary skillDictionary;
+
     @Mock
     private ApplicationEventPublisher eventPublisher;
 
@@ -233,19 +238,19 @@ class ProjectServiceTest {
     }
 
     @Test
-    void getProjectResponse_withSkills_callsSkillClient() {
+    void getProjectResponse_withSkills_resolvesThroughSkillDictionary() {
         Project payload = project(1L, 1L, "Proj", ProjectStatus.OPEN);
         payload.setSkillIds(List.of(10L, 20L));
         when(projectRepository.findById(1L)).thenReturn(Optional.of(payload));
         
         Skills s1 = new Skills(); s1.setId(10L); s1.setName("S1");
         Skills s2 = new Skills(); s2.setId(20L); s2.setName("S2");
-        when(skillClient.getSkillsByIds(List.of(10L, 20L))).thenReturn(List.of(s1, s2));
+        when(skillDictionary.skillsOf(List.of(10L, 20L))).thenReturn(List.of(s1, s2));
 
         ProjectResponse response = projectService.getProjectResponse(1L);
 
         assertThat(response.getSkills()).hasSize(2);
-        verify(skillClient).getSkillsByIds(List.of(10L, 20L));
+        verify(skillClient, never()).getSkillsByIds(anyList());
     }
 
     @Test
@@ -270,12 +275,15 @@ class ProjectServiceTest {
         when(projectRepository.findAll()).thenReturn(List.of(p1, p2));
         
         Skills s1 = new Skills(); s1.setId(10L);
-        when(skillClient.getSkillsByIds(List.of(10L))).thenReturn(List.of(s1));
+        when(skillDictionary.resolve(Set.of(10L))).thenReturn(Map.of(10L, s1));
 
         List<ProjectResponse> results = projectService.getAllProjectResponses();
 
         assertThat(results).hasSize(2);
-        assertThat(results.get(0).getSkills()).hasSize(1);
+        assertThat(results.get(0).getSkills()).containsExactly(s1);
+        assertThat(results.get(1).getSkills()).isEmpty();
+        verify(skillDictionary, times(1)).resolve(anyCollection());
+        verify(skillClient, never()).getSkillsByIds(anyList());
     }
 
     @Test
@@ -308,9 +316,8 @@ class ProjectServiceTest {
         Project p = project(1L, 2L, "P", ProjectStatus.OPEN);
         p.setSkillIds(List.of(10L));
         when(projectRepository.findByStatus(ProjectStatus.OPEN)).thenReturn(List.of(p));
-        when(projectRepository.findById(1L)).thenReturn(Optional.of(p));
 
-        when(skillClient.getSkillsByIds(List.of(10L))).thenReturn(List.of(fp1));
+        when(skillDictionary.resolve(anyCollection())).thenReturn(Map.of(10L, fp1));
 
         List<ProjectResponse> recommended = projectService.getRecommendedProjects(5L);
 
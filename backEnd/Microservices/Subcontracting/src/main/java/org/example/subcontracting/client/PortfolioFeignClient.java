@@ -2,6 +2,7 @@ package org.example.subcontracting.client;
 
 import org.example.subcontracting.client.dto.ExperienceRestDto;
 import org.example.subcontracting.client.dto.PortfolioSkillDto;
+import org.example.subcontracting.client.dto.SkillCatalogVersionDto;
 import org.springframework.cloud.openfeign.FeignClient;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PathVariable;
@@ -11,6 +12,14 @@ import java.util.List;
 @FeignClient(name = "PORTFOLIO")
 public interface PortfolioFeignClient {
 
+    /** Toutes les compétences (avec leur userId) : source de {@code FreelancerSkillIndex}. */
+    @GetMapping("/api/skills")
+    List<PortfolioSkillDto> getAllSkills();
+
+    /** Version du catalogue : l'index n'est reconstruit que quand elle change. */
+    @GetMapping("/api/skills/catalog/version")
+    SkillCatalogVersionDto getSkillCatalogVersion();
+
     @GetMapping("/api/skills/user/{userId}")
     List<PortfolioSkillDto> getSkillsByUserId(@PathVariable("userId") Long userId);
 
@@ -1,9 +1,13 @@
 package org.example.subcontracting.client;
 
+import org.example.subcontracting.client.dto.UserPageRemoteDto;
 import org.example.subcontracting.client.dto.UserRemoteDto;
 import org.springframework.cloud.openfeign.FeignClient;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestParam;
 
 import java.util.List;
 
@@ -13,6 +17,15 @@ public interface UserFeignClient {
     @GetMapping("/{id}")
     UserRemoteDto getUserById(@PathVariable("id") Long id);
 
-    @GetMapping
-    List<UserRemoteDto> getAllUsers();
+    /** Utilisateurs des ids donnés (ids inconnus ignorés, 500 max) ; passer par {@link UserDirectory} pour le cache. */
+    @PostMapping("/batch")
+    List<UserRemoteDto> getUsersByIds(@RequestBody List<Long> ids);
+
+    /** Page keyset d'utilisateurs (ordre des ids, 1000 max) : id, nom, rôle, statut, e-mail si demandé. */
+    @GetMapping("/page")
+    UserPageRemoteDto getUserPage(@RequestParam(value = "role", required = false) String role,
+                                  @RequestParam(value = "active", required = false) Boolean active,
+                                  @RequestParam(value = "after", required = false) Long after,
+                                  @RequestParam("limit") int limit,
+                                  @RequestParam("includeEmail") boolean includeEmail);
 }
@@ -0,0 +1,11 @@
+package org.example.subcontracting.client.dto;
+
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
+import lombok.Data;
+
+/** Version du catalogue de compétences Portfolio : change à chaque création, modification ou suppression. */
+@Data
+@JsonIgnoreProperties(ignoreUnknown = true)
+public class SkillCatalogVersionDto {
+    private String version;
+}
@@ -0,0 +1,13 @@
+package org.example.subcontracting.client.dto;
+
+import lombok.Data;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/** Une page keyset de GET /api/users/page ; {@code nextCursor} est null sur la dernière page. */
+@Data
+public class UserPageRemoteDto {
+    private List<UserRemoteDto> items = new ArrayList<>();
+    private Long nextCursor;
+}
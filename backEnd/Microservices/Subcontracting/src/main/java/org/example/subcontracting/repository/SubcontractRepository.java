@@ -4,6 +4,8 @@ import org.example.subcontracting.entity.Subcontract;
 import org.example.subcontracting.entity.SubcontractCategory;
 import org.example.subcontracting.entity.SubcontractStatus;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.util.List;
@@ -36,5 +38,10 @@ public interface SubcontractRepository extends JpaRepository<Subcontract, Long>
 
     long countByMainFreelancerIdAndSubcontractorId(Long mainFreelancerId, Long subcontractorId);
 
+    /** [subcontractorId, nombre] des sous-traitances du principal, en une requête pour tous les candidats. */
+    @Query("SELECT s.subcontractorId, COUNT(s) FROM Subcontract s WHERE s.mainFreelancerId = :mainFreelancerId "
+            + "GROUP BY s.subcontractorId")
+    List<Object[]> countBySubcontractorForMainFreelancer(@Param("mainFreelancerId") Long mainFreelancerId);
+
     List<Subcontract> findByContractId(Long contractId);
 }
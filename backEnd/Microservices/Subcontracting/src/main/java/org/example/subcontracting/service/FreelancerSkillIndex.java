@@ -0,0 +1,195 @@
+package org.example.subcontracting.service;
+
+import lombok.extern.slf4j.Slf4j;
+import org.example.subcontracting.client.PortfolioFeignClient;
+import org.example.subcontracting.client.dto.PortfolioSkillDto;
+import org.example.subcontracting.client.dto.SkillCatalogVersionDto;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.regex.Pattern;
+
+/**
+ * Index inversé local des compétences portfolio : mot normalisé → ids des freelancers qui le déclarent.
+ * <p>
+ * Il est construit en un seul appel {@code GET /api/skills} (toutes les compétences avec leur userId). Toutes les
+ * {@code subcontract.match.skill-index-poll-ms}, la version du catalogue ({@code GET /api/skills/catalog/version})
+ * est relue et l'index n'est reconstruit que si elle a changé, ou au plus tard après
+ * {@code subcontract.match.skill-index-ttl-ms}. Le matching IA l'utilise pour écarter, avant tout appel distant,
+ * les freelancers sans aucune compétence demandée. Si le Portfolio est indisponible, l'index précédent reste servi ;
+ * sans index du tout, {@link #hits} renvoie null et l'appelant ne filtre pas. Chaque reconstruction qui remplace un
+ * index déjà servi est signalée aux abonnés de {@link #onReload} (cache des profils enrichis).
+ */
+@Component
+@Slf4j
+public class FreelancerSkillIndex {
+
+    /** Séparateurs entre mots d'une compétence ; "c++", "c#", ".net" et "node.js" restent entiers. */
+    private static final Pattern SEPARATORS = Pattern.compile("[\\s,;/|()]+");
+
+    private record Snapshot(Map<String, Set<Long>> usersByToken, Map<Long, List<String>> skillsByUser,
+                            String version, long loadedAt, long checkedAt) {
+
+        Snapshot checked(long at) {
+            return new Snapshot(usersByToken, skillsByUser, version, loadedAt, at);
+        }
+    }
+
+    private final PortfolioFeignClient portfolioFeignClient;
+    private final long ttlMs;
+    private final long pollMs;
+
+    private volatile Snapshot snapshot;
+    private final List<Runnable> reloadListeners = new CopyOnWriteArrayList<>();
+
+    public FreelancerSkillIndex(PortfolioFeignClient portfolioFeignClient,
+                                @Value("${subcontract.match.skill-index-ttl-ms:600000}") long ttlMs,
+                                @Value("${subcontract.match.skill-index-poll-ms:30000}") long pollMs) {
+        this.portfolioFeignClient = portfolioFeignClient;
+        this.ttlMs = ttlMs;
+        this.pollMs = pollMs;
+    }
+
+    /**
+     * Nombre de compétences demandées couvertes par chaque freelancer (seuls ceux qui en couvrent au moins une).
+     * Une compétence est couverte quand tous ses mots figurent parmi les mots des compétences du freelancer.
+     * Null si l'index n'a jamais pu être chargé.
+     */
+    public Map<Long, Integer> hits(Collection<String> requiredSkills) {
+        Snapshot s = current();
+        if (s == null) {
+            return null;
+        }
+        Map<Long, Integer> hits = new HashMap<>();
+        for (String skill : requiredSkills) {
+            Set<Long> users = null;
+            for (String token : tokens(skill)) {
+                Set<Long> posting = s.usersByToken().getOrDefault(token, Set.of());
+                if (users == null) {
+                    users = new HashSet<>(posting);
+                } else {
+                    users.retainAll(posting);
+                }
+                if (users.isEmpty()) {
+                    break;
+                }
+            }
+            if (users != null) {
+                users.forEach(id -> hits.merge(id, 1, Integer::sum));
+            }
+        }
+        return hits;
+    }
+
+    /** Noms des compétences déclarées par le freelancer, ou null si l'index n'est pas chargé. */
+    public List<String> skillsOf(Long userId) {
+        Snapshot s = current();
+        return s != null ? s.skillsByUser().getOrDefault(userId, List.of()) : null;
+    }
+
+    /** Appelé après chaque reconstruction qui remplace un index déjà servi (catalogue modifié, TTL ou invalidation). */
+    public void onReload(Runnable listener) {
+        reloadListeners.add(listener);
+    }
+
+    /** Force le rechargement au prochain accès. */
+    public void invalidate() {
+        Snapshot s = snapshot;
+        if (s != null) {
+            snapshot = new Snapshot(s.usersByToken(), s.skillsByUser(), null, 0L, 0L);
+        }
+    }
+
+    private Snapshot current() {
+        Snapshot s = snapshot;
+        if (fresh(s, System.currentTimeMillis())) {
+            return s;
+        }
+        return reload();
+    }
+
+    private boolean fresh(Snapshot s, long now) {
+        return s != null && now - s.checkedAt() < pollMs && now - s.loadedAt() < ttlMs;
+    }
+
+    private synchronized Snapshot reload() {
+        Snapshot s = snapshot;
+        long now = System.currentTimeMillis();
+        // Un autre thread a pu recharger pendant l'attente du verrou
+        if (fresh(s, now)) {
+            return s;
+        }
+        String version = catalogVersion();
+        if (s != null && version != null && version.equals(s.version()) && now - s.loadedAt() < ttlMs) {
+            Snapshot unchanged = s.checked(now);
+            snapshot = unchanged;
+            return unchanged;
+        }
+        List<PortfolioSkillDto> skills;
+        try {
+            skills = portfolioFeignClient.getAllSkills();
+        } catch (Exception e) {
+            log.warn("[SUBCONTRACT-AI] Index des compétences non rechargé : {}", e.getMessage());
+            if (s != null) {
+                // On garde l'ancien index et on ne réessaie qu'à la prochaine expiration
+                snapshot = new Snapshot(s.usersByToken(), s.skillsByUser(), s.version(), now, now);
+            }
+            return s;
+        }
+        Map<String, Set<Long>> usersByToken = new HashMap<>();
+        Map<Long, Set<String>> names = new HashMap<>();
+        for (PortfolioSkillDto skill : skills != null ? skills : List.<PortfolioSkillDto>of()) {
+            if (skill == null || skill.getUserId() == null || skill.getName() == null || skill.getName().isBlank()) {
+                continue;
+            }
+            names.computeIfAbsent(skill.getUserId(), k -> new LinkedHashSet<>()).add(skill.getName().trim());
+            for (String token : tokens(skill.getName())) {
+                usersByToken.computeIfAbsent(token, k -> new HashSet<>()).add(skill.getUserId());
+            }
+        }
+        Map<Long, List<String>> skillsByUser = new HashMap<>();
+        names.forEach((userId, n) -> skillsByUser.put(userId, List.copyOf(n)));
+        Snapshot loaded = new Snapshot(usersByToken, skillsByUser, version, now, now);
+        snapshot = loaded;
+        if (s != null) {
+            reloadListeners.forEach(Runnable::run);
+        }
+        log.debug("[SUBCONTRACT-AI] Index des compétences chargé : {} freelancer(s), {} mot(s)",
+                skillsByUser.size(), usersByToken.size());
+        return loaded;
+    }
+
+    /** Version courante du catalogue, ou null si elle n'a pas pu être lue (l'index est alors rechargé). */
+    private String catalogVersion() {
+        try {
+            SkillCatalogVersionDto v = portfolioFeignClient.getSkillCatalogVersion();
+            return v != null ? v.getVersion() : null;
+        } catch (Exception e) {
+            log.debug("[SUBCONTRACT-AI] Version du catalogue de compétences illisible : {}", e.getMessage());
+            return null;
+        }
+    }
+
+    static List<String> tokens(String skill) {
+        List<String> tokens = new ArrayList<>();
+        if (skill == null) {
+            return tokens;
+        }
+        for (String t : SEPARATORS.split(skill.toLowerCase(Locale.ROOT).trim())) {
+            if (!t.isEmpty()) {
+                tokens.add(t);
+            }
+        }
+        return tokens;
+    }
+}
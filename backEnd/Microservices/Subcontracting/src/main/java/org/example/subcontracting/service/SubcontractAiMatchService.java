@@ -4,10 +4,8 @@ import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
 import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import lombok.extern.slf4j.Slf4j;
-import org.example.subcontracting.client.PortfolioFeignClient;
 import org.example.subcontracting.client.UserFeignClient;
-import org.example.subcontracting.client.dto.ExperienceRestDto;
-import org.example.subcontracting.client.dto.PortfolioSkillDto;
+import org.example.subcontracting.client.dto.UserPageRemoteDto;
 import org.example.subcontracting.client.dto.UserRemoteDto;
 import org.example.subcontracting.dto.response.SubcontractMatchCandidateDto;
 import org.example.subcontracting.dto.response.SubcontractMatchResponse;
@@ -24,7 +22,6 @@ import org.springframework.web.client.RestTemplate;
 import org.springframework.web.server.ResponseStatusException;
 
 import java.util.*;
-import java.util.stream.Collectors;
 
 import static org.springframework.http.HttpStatus.BAD_REQUEST;
 import static org.springframework.http.HttpStatus.SERVICE_UNAVAILABLE;
@@ -33,10 +30,12 @@ import static org.springframework.http.HttpStatus.SERVICE_UNAVAILABLE;
 @Slf4j
 public class SubcontractAiMatchService {
 
+    private static final int FREELANCER_PAGE_SIZE = 1000;
+
     private final UserFeignClient userFeignClient;
-    private final PortfolioFeignClient portfolioFeignClient;
+    private final FreelancerSkillIndex skillIndex;
+    private final SubcontractProfileEnricher profileEnricher;
     private final SubcontractRepository subcontractRepository;
-    private final SubcontractDashboardService dashboardService;
     private final RestTemplate restTemplate;
 
     private final ObjectMapper objectMapper = new ObjectMapper();
@@ -50,17 +49,21 @@ public class SubcontractAiMatchService {
     @Value("${anthropic.api.url:https://api.anthropic.com/v1/messages}")
     private String anthropicUrl;
 
+    /** Candidats enrichis (et envoyés au LLM) au plus, les mieux couverts par l'index des compétences d'abord. */
+    @Value("${subcontract.match.max-candidates:50}")
+    private int maxCandidates = 50;
+
     @Autowired
     public SubcontractAiMatchService(
             UserFeignClient userFeignClient,
-            PortfolioFeignClient portfolioFeignClient,
+            FreelancerSkillIndex skillIndex,
+            SubcontractProfileEnricher profileEnricher,
             SubcontractRepository subcontractRepository,
-            SubcontractDashboardService dashboardService,
             @Qualifier("anthropicRestTemplate") RestTemplate restTemplate) {
         this.userFeignClient = userFeignClient;
-        this.portfolioFeignClient = portfolioFeignClient;
+        this.skillIndex = skillIndex;
+        this.profileEnricher = profileEnricher;
         this.subcontractRepository = subcontractRepository;
-        this.dashboardService = dashboardService;
         this.restTemplate = restTemplate;
     }
 
@@ -82,25 +85,26 @@ public class SubcontractAiMatchService {
         }
         List<UserRemoteDto> freelancers;
         try {
-            freelancers = userFeignClient.getAllUsers();
+            freelancers = loadActiveFreelancers();
         } catch (Exception e) {
             log.error("User service indisponible pour le matching IA", e);
             throw new ResponseStatusException(SERVICE_UNAVAILABLE, "Service utilisateurs indisponible");
         }
 
-        List<UserRemoteDto> candidates = freelancers.stream()
+        List<UserRemoteDto> candidates = shortlist(freelancers.stream()
                 .filter(u -> u != null && u.getId() != null)
-                .filter(u -> "FREELANCER".equalsIgnoreCase(safeRole(u)))
                 .filter(u -> !mainFreelancerId.equals(u.getId()))
-                .filter(u -> u.getIsActive() == null || Boolean.TRUE.equals(u.getIsActive()))
-                .toList();
+                .toList(), skills);
 
+        // Profils chargés en parallèle (bornés, avec échéance) ; les candidats hors délai sont ignorés
+        Map<Long, SubcontractProfileEnricher.Profile> profiles =
+                profileEnricher.enrich(candidates.stream().map(UserRemoteDto::getId).toList());
+        Map<Long, Long> collaborations = previousCollaborations(mainFreelancerId);
         Map<Long, EnrichedProfile> enriched = new LinkedHashMap<>();
         for (UserRemoteDto u : candidates) {
-            try {
-                enriched.put(u.getId(), buildProfile(mainFreelancerId, u));
-            } catch (Exception ex) {
-                log.warn("Profil incomplet pour freelancer {}: {}", u.getId(), ex.getMessage());
+            SubcontractProfileEnricher.Profile p = profiles.get(u.getId());
+            if (p != null) {
+                enriched.put(u.getId(), buildProfile(u, p, collaborations.getOrDefault(u.getId(), 0L)));
             }
         }
         if (enriched.isEmpty()) {
@@ -171,54 +175,57 @@ public class SubcontractAiMatchService {
         return SubcontractMatchResponse.builder().candidates(out).build();
     }
 
-    private static String safeRole(UserRemoteDto u) {
-        return u.getRole() != null ? u.getRole() : "";
+    /** Freelancers actifs, lus page par page (filtre rôle/statut côté service User) au lieu de tous les utilisateurs. */
+    private List<UserRemoteDto> loadActiveFreelancers() {
+        List<UserRemoteDto> all = new ArrayList<>();
+        Long after = null;
+        do {
+            UserPageRemoteDto page = userFeignClient.getUserPage("FREELANCER", true, after, FREELANCER_PAGE_SIZE, true);
+            if (page == null || page.getItems() == null) {
+                break;
+            }
+            all.addAll(page.getItems());
+            after = page.getNextCursor();
+        } while (after != null);
+        return all;
     }
 
-    private EnrichedProfile buildProfile(Long mainFreelancerId, UserRemoteDto u) {
+    /**
+     * Candidats couvrant au moins une compétence demandée selon l'index local, les mieux couverts d'abord,
+     * au plus {@code subcontract.match.max-candidates}. Sans index (Portfolio jamais joignable), aucun filtre.
+     */
+    private List<UserRemoteDto> shortlist(List<UserRemoteDto> candidates, List<String> skills) {
+        Map<Long, Integer> hits = skillIndex.hits(skills);
+        if (hits == null) {
+            return candidates.stream().limit(maxCandidates).toList();
+        }
+        return candidates.stream()
+                .filter(u -> hits.containsKey(u.getId()))
+                .sorted(Comparator.comparing((UserRemoteDto u) -> hits.get(u.getId())).reversed())
+                .limit(maxCandidates)
+                .toList();
+    }
+
+    private Map<Long, Long> previousCollaborations(Long mainFreelancerId) {
+        Map<Long, Long> counts = new HashMap<>();
+        for (Object[] row : subcontractRepository.countBySubcontractorForMainFreelancer(mainFreelancerId)) {
+            if (row[0] != null) {
+                counts.put((Long) row[0], ((Number) row[1]).longValue());
+            }
+        }
+        return counts;
+    }
+
+    private EnrichedProfile buildProfile(UserRemoteDto u, SubcontractProfileEnricher.Profile p, long prev) {
         Long uid = u.getId();
         String fullName = ((u.getFirstName() != null ? u.getFirstName() : "") + " "
                 + (u.getLastName() != null ? u.getLastName() : "")).trim();
         if (fullName.isEmpty()) fullName = "Freelancer #" + uid;
-
-        List<PortfolioSkillDto> skillList = safeList(() -> portfolioFeignClient.getSkillsByUserId(uid));
-        String skillsText = skillList.stream()
-                .map(PortfolioSkillDto::getName)
-                .filter(Objects::nonNull)
-                .map(String::trim)
-                .filter(s -> !s.isEmpty())
-                .distinct()
-                .collect(Collectors.joining(", "));
-        if (skillsText.isEmpty()) skillsText = "(aucune compétence déclarée dans le portfolio)";
-
-        List<ExperienceRestDto> exps = safeList(() -> portfolioFeignClient.getExperiencesByUserId(uid));
-        String expText = exps.stream()
-                .limit(8)
-                .map(e -> {
-                    String t = e.getTitle() != null ? e.getTitle() : "";
-                    String c = e.getCompanyOrClientName() != null ? e.getCompanyOrClientName() : "";
-                    return (t + " @ " + c).trim();
-                })
-                .filter(s -> !s.equals("@"))
-                .collect(Collectors.joining(" | "));
-        if (expText.isEmpty()) expText = "(aucune expérience renseignée)";
-
-        int trust = dashboardService.computeScore(uid).getScore();
-        long prev = subcontractRepository.countByMainFreelancerIdAndSubcontractorId(mainFreelancerId, uid);
         boolean active = u.getIsActive() == null || Boolean.TRUE.equals(u.getIsActive());
 
         return new EnrichedProfile(uid, fullName,
                 u.getEmail() != null ? u.getEmail() : "",
-                skillsText, expText, trust, prev, active);
-    }
-
-    private static <T> List<T> safeList(java.util.concurrent.Callable<List<T>> call) {
-        try {
-            List<T> l = call.call();
-            return l != null ? l : List.of();
-        } catch (Exception e) {
-            return List.of();
-        }
+                p.skillsText(), p.experienceText(), p.trustScore(), prev, active);
     }
 
     /**
@@ -2,7 +2,7 @@ package org.example.subcontracting.service;
 
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
-import org.example.subcontracting.client.UserFeignClient;
+import org.example.subcontracting.client.UserDirectory;
 import org.example.subcontracting.client.dto.UserRemoteDto;
 import org.example.subcontracting.dto.response.AuditTimelineEntry;
 import org.example.subcontracting.dto.response.FreelancerHistoryResponse;
@@ -24,7 +24,7 @@ public class SubcontractAuditService {
 
     private final SubcontractAuditRepository auditRepo;
     private final SubcontractRepository subcontractRepo;
-    private final UserFeignClient userClient;
+    private final UserDirectory userDirectory;
 
     /**
      * Enregistre un événement d'audit.
@@ -51,8 +51,9 @@ public class SubcontractAuditService {
      */
     @Transactional(readOnly = true)
     public List<AuditTimelineEntry> getBySubcontract(Long subcontractId) {
-        return auditRepo.findBySubcontractIdOrderByCreatedAtDesc(subcontractId)
-                .stream().map(this::toEntry).collect(Collectors.toList());
+        List<SubcontractAudit> audits = auditRepo.findBySubcontractIdOrderByCreatedAtDesc(subcontractId);
+        Map<Long, UserRemoteDto> users = userDirectory.findAll(actorIds(audits));
+        return audits.stream().map(a -> toEntry(a, users)).collect(Collectors.toList());
     }
 
     /**
@@ -68,13 +69,18 @@ public class SubcontractAuditService {
         long asMain = subcontractRepo.countByMainFreelancerId(userId);
         long asSub = subcontractRepo.countBySubcontractorId(userId);
 
+        // Un seul appel au service User pour le freelancer et tous les acteurs de la timeline
+        List<Long> ids = actorIds(audits);
+        ids.add(userId);
+        Map<Long, UserRemoteDto> users = userDirectory.findAll(ids);
+
         List<AuditTimelineEntry> timeline = audits.stream()
-                .map(this::toEntry)
+                .map(a -> toEntry(a, users))
                 .collect(Collectors.toList());
 
         return FreelancerHistoryResponse.builder()
                 .userId(userId)
-                .userName(safeUserName(userId))
+                .userName(displayName(users, userId))
                 .totalEvents(audits.size())
                 .eventsByAction(byAction)
                 .asMainFreelancer(asMain)
@@ -83,7 +89,12 @@ public class SubcontractAuditService {
                 .build();
     }
 
-    private AuditTimelineEntry toEntry(SubcontractAudit a) {
+    private static List<Long> actorIds(List<SubcontractAudit> audits) {
+        return audits.stream().map(SubcontractAudit::getActorUserId).filter(Objects::nonNull)
+                .distinct().collect(Collectors.toList());
+    }
+
+    private AuditTimelineEntry toEntry(SubcontractAudit a, Map<Long, UserRemoteDto> users) {
         String scTitle = subcontractRepo.findById(a.getSubcontractId())
                 .map(Subcontract::getTitle).orElse("Sous-traitance #" + a.getSubcontractId());
 
@@ -99,7 +110,7 @@ public class SubcontractAuditService {
                 .targetEntity(a.getTargetEntity())
                 .targetEntityId(a.getTargetEntityId())
                 .actorUserId(a.getActorUserId())
-                .actorName(a.getActorUserId() != null ? safeUserName(a.getActorUserId()) : "Système")
+                .actorName(a.getActorUserId() != null ? displayName(users, a.getActorUserId()) : "Système")
                 .createdAt(a.getCreatedAt())
                 .icon(actionIcon(a.getAction()))
                 .color(actionColor(a.getAction()))
@@ -165,15 +176,16 @@ public class SubcontractAuditService {
         };
     }
 
-    private String safeUserName(Long userId) {
-        try {
-            UserRemoteDto u = userClient.getUserById(userId);
-            if (u != null) {
-                String name = ((u.getFirstName() != null ? u.getFirstName() : "") + " "
-                        + (u.getLastName() != null ? u.getLastName() : "")).trim();
-                return name.isBlank() ? "User #" + userId : name;
+    private static String displayName(Map<Long, UserRemoteDto> users, Long userId) {
+        UserRemoteDto u = users.get(userId);
+        if (u != null) {
+            String name = ((u.getFirstName() != null ? u.getFirstName() : "") + " "
+                    + (u.getLastName() != null ? u.getLastName() : "")).trim();
+            if (!name.isBlank()) {
+                return name;
             }
-        } catch (Exception e) { /* fallback */ }
+        }
         return "User #" + userId;
     }
+
 }
@@ -2,8 +2,7 @@ package org.example.subcontracting.service;
 
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
-import org.example.subcontracting.client.UserFeignClient;
-import org.example.subcontracting.client.dto.UserRemoteDto;
+import org.example.subcontracting.client.UserDirectory;
 import org.example.subcontracting.dto.response.SubcontractDashboardResponse;
 import org.example.subcontracting.dto.response.SubcontractorScoreResponse;
 import org.example.subcontracting.entity.*;
@@ -24,7 +23,7 @@ public class SubcontractDashboardService {
 
     private final SubcontractRepository subcontractRepo;
     private final SubcontractDeliverableRepository deliverableRepo;
-    private final UserFeignClient userClient;
+    private final UserDirectory userDirectory;
 
     /**
      * MÉTIER 3 — Score de performance d'un sous-traitant (0-100).
@@ -165,14 +164,11 @@ public class SubcontractDashboardService {
     }
 
     private String safeUserName(Long userId) {
-        try {
-            UserRemoteDto u = userClient.getUserById(userId);
-            if (u != null) {
-                String name = ((u.getFirstName() != null ? u.getFirstName() : "") + " "
-                        + (u.getLastName() != null ? u.getLastName() : "")).trim();
-                return name.isBlank() ? "User #" + userId : name;
-            }
-        } catch (Exception e) { /* fallback */ }
-        return "User #" + userId;
+        return userDirectory.find(userId)
+                .map(u -> ((u.getFirstName() != null ? u.getFirstName() : "") + " "
+                        + (u.getLastName() != null ? u.getLastName() : "")).trim())
+                .filter(name -> !name.isBlank())
+                .orElse("User #" + userId);
     }
+
 }
@@ -0,0 +1,233 @@
+package org.example.subcontracting.service;
+
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.example.subcontracting.client.PortfolioFeignClient;
+import org.example.subcontracting.client.dto.ExperienceRestDto;
+import org.example.subcontracting.client.dto.PortfolioSkillDto;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Collectors;
+
+/**
+ * Enrichissement des profils candidats du matching IA (compétences, expériences, score de confiance).
+ * <ul>
+ *   <li>les profils sont chargés en parallèle sur un pool borné ({@code subcontract.match.enrich.threads}) ;</li>
+ *   <li>chaque dépendance a sa propre limite de concurrence : Portfolio ({@code portfolio-concurrency}) et
+ *       score de confiance ({@code score-concurrency}), pour ne pas saturer un service lent ;</li>
+ *   <li>l'ensemble est borné par {@code deadline-ms} : les profils non prêts à l'échéance sont abandonnés et
+ *       le matching continue avec les autres (résultat partiel) ;</li>
+ *   <li>les profils complets sont gardés {@code ttl-ms} entre deux demandes de matching.</li>
+ * </ul>
+ * Les compétences viennent de {@link FreelancerSkillIndex} quand il est chargé ; sinon elles sont lues au Portfolio.
+ * Le cache est vidé à chaque reconstruction de l'index (nouvelle version du catalogue) ; un profil chargé avant
+ * ce vidage n'y est pas remis.
+ */
+@Component
+@Slf4j
+public class SubcontractProfileEnricher {
+
+    /** Partie du profil indépendante du freelancer principal, donc partageable entre demandes. */
+    public record Profile(String skillsText, String experienceText, int trustScore) {
+    }
+
+    private record Loaded(Profile profile, boolean complete) {
+    }
+
+    private record Cached(Profile profile, long expiresAt) {
+    }
+
+    private final PortfolioFeignClient portfolioFeignClient;
+    private final SubcontractDashboardService dashboardService;
+    private final FreelancerSkillIndex skillIndex;
+    private final Semaphore portfolioPermits;
+    private final Semaphore scorePermits;
+    private final long deadlineMs;
+    private final long ttlMs;
+    private final int maxEntries;
+    private final ExecutorService pool;
+
+    private final Map<Long, Cached> cache = new ConcurrentHashMap<>();
+    /** Incrémenté à chaque invalidation ; un chargement commencé sous une génération antérieure n'est pas mis en cache. */
+    private final AtomicLong generation = new AtomicLong();
+
+    public SubcontractProfileEnricher(PortfolioFeignClient portfolioFeignClient,
+                                      SubcontractDashboardService dashboardService,
+                                      FreelancerSkillIndex skillIndex,
+                                      @Value("${subcontract.match.enrich.threads:16}") int threads,
+                                      @Value("${subcontract.match.enrich.portfolio-concurrency:8}") int portfolioConcurrency,
+                                      @Value("${subcontract.match.enrich.score-concurrency:4}") int scoreConcurrency,
+                                      @Value("${subcontract.match.enrich.deadline-ms:5000}") long deadlineMs,
+                                      @Value("${subcontract.match.enrich.ttl-ms:600000}") long ttlMs,
+                                      @Value("${subcontract.match.enrich.max-entries:5000}") int maxEntries) {
+        this.portfolioFeignClient = portfolioFeignClient;
+        this.dashboardService = dashboardService;
+        this.skillIndex = skillIndex;
+        this.portfolioPermits = new Semaphore(Math.max(1, portfolioConcurrency));
+        this.scorePermits = new Semaphore(Math.max(1, scoreConcurrency));
+        this.deadlineMs = deadlineMs;
+        this.ttlMs = ttlMs;
+        this.maxEntries = maxEntries;
+        AtomicInteger n = new AtomicInteger();
+        this.pool = Executors.newFixedThreadPool(Math.max(1, threads), r -> {
+            Thread t = new Thread(r, "subcontract-enrich-" + n.incrementAndGet());
+            t.setDaemon(true);
+            return t;
+        });
+        skillIndex.onReload(() -> invalidate(null));
+    }
+
+    @PreDestroy
+    void stop() {
+        pool.shutdownNow();
+    }
+
+    /**
+     * Profils des freelancers demandés, dans l'ordre demandé. Ceux qui n'ont pas pu être chargés avant l'échéance
+     * (ou dont le score a échoué) sont absents du résultat.
+     */
+    public Map<Long, Profile> enrich(Collection<Long> userIds) {
+        long now = System.currentTimeMillis();
+        long deadline = now + deadlineMs;
+        long loadedUnder = generation.get();
+        Map<Long, Profile> ready = new LinkedHashMap<>();
+        Map<Long, Future<Loaded>> running = new LinkedHashMap<>();
+        for (Long uid : userIds) {
+            Cached cached = cache.get(uid);
+            if (cached != null && cached.expiresAt() > now) {
+                ready.put(uid, cached.profile());
+            } else if (!running.containsKey(uid)) {
+                running.put(uid, pool.submit(() -> load(uid, deadline)));
+            }
+        }
+        int timedOut = 0;
+        int failed = 0;
+        for (Map.Entry<Long, Future<Loaded>> e : running.entrySet()) {
+            try {
+                Loaded loaded = e.getValue().get(Math.max(0, deadline - System.currentTimeMillis()), TimeUnit.MILLISECONDS);
+                ready.put(e.getKey(), loaded.profile());
+                if (loaded.complete() && generation.get() == loadedUnder) {
+                    put(e.getKey(), new Cached(loaded.profile(), System.currentTimeMillis() + ttlMs));
+                }
+            } catch (TimeoutException ex) {
+                e.getValue().cancel(true);
+                timedOut++;
+            } catch (InterruptedException ex) {
+                Thread.currentThread().interrupt();
+                e.getValue().cancel(true);
+                timedOut++;
+            } catch (ExecutionException ex) {
+                log.warn("Profil incomplet pour freelancer {}: {}", e.getKey(), ex.getCause() != null
+                        ? ex.getCause().getMessage() : ex.getMessage());
+                failed++;
+            }
+        }
+        if (timedOut > 0 || failed > 0) {
+            log.warn("[SUBCONTRACT-AI] Enrichissement partiel : {} profil(s) prêts, {} hors délai, {} en échec",
+                    ready.size(), timedOut, failed);
+        }
+        Map<Long, Profile> ordered = new LinkedHashMap<>();
+        for (Long uid : userIds) {
+            Profile p = ready.get(uid);
+            if (p != null) {
+                ordered.put(uid, p);
+            }
+        }
+        return ordered;
+    }
+
+    /** Vide le cache des profils d'un freelancer, ou de tous si {@code userId} est null (reconstruction de l'index). */
+    public void invalidate(Long userId) {
+        generation.incrementAndGet();
+        if (userId == null) {
+            cache.clear();
+        } else {
+            cache.remove(userId);
+        }
+    }
+
+    private Loaded load(Long uid, long deadline) throws Exception {
+        boolean[] complete = {true};
+        List<String> skills = skillIndex.skillsOf(uid);
+        if (skills == null) {
+            skills = limited(portfolioPermits, deadline, () -> safeList(complete,
+                    () -> portfolioFeignClient.getSkillsByUserId(uid))).stream()
+                    .map(PortfolioSkillDto::getName)
+                    .toList();
+        }
+        String skillsText = skills.stream()
+                .filter(Objects::nonNull)
+                .map(String::trim)
+                .filter(s -> !s.isEmpty())
+                .distinct()
+                .collect(Collectors.joining(", "));
+        if (skillsText.isEmpty()) skillsText = "(aucune compétence déclarée dans le portfolio)";
+
+        List<ExperienceRestDto> exps = limited(portfolioPermits, deadline, () -> safeList(complete,
+                () -> portfolioFeignClient.getExperiencesByUserId(uid)));
+        String expText = exps.stream()
+                .limit(8)
+                .map(e -> {
+                    String t = e.getTitle() != null ? e.getTitle() : "";
+                    String c = e.getCompanyOrClientName() != null ? e.getCompanyOrClientName() : "";
+                    return (t + " @ " + c).trim();
+                })
+                .filter(s -> !s.equals("@"))
+                .collect(Collectors.joining(" | "));
+        if (expText.isEmpty()) expText = "(aucune expérience renseignée)";
+
+        int trust = limited(scorePermits, deadline, () -> dashboardService.computeScore(uid).getScore());
+        return new Loaded(new Profile(skillsText, expText, trust), complete[0]);
+    }
+
+    /** Exécute l'appel sous la limite de concurrence de sa dépendance, sans attendre un permis au-delà de l'échéance. */
+    private static <T> T limited(Semaphore permits, long deadline, Callable<T> call) throws Exception {
+        if (!permits.tryAcquire(Math.max(0, deadline - System.currentTimeMillis()), TimeUnit.MILLISECONDS)) {
+            throw new TimeoutException("échéance atteinte");
+        }
+        try {
+            return call.call();
+        } finally {
+            permits.release();
+        }
+    }
+
+    /** Liste vide si l'appel échoue ; le profil est alors servi mais pas mis en cache. */
+    private static <T> List<T> safeList(boolean[] complete, Callable<List<T>> call) {
+        try {
+            List<T> l = call.call();
+            return l != null ? l : List.of();
+        } catch (Exception e) {
+            complete[0] = false;
+            return List.of();
+        }
+    }
+
+    private void put(Long id, Cached cached) {
+        if (cache.size() >= maxEntries) {
+            long now = System.currentTimeMillis();
+            cache.values().removeIf(c -> c.expiresAt() <= now);
+            if (cache.size() >= maxEntries) {
+                cache.clear();
+            }
+        }
+        cache.put(id, cached);
+    }
+}
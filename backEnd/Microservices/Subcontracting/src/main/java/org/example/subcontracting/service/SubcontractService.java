@@ -8,7 +8,7 @@ import org.example.subcontracting.client.NotificationFeignClient;
 import org.example.subcontracting.client.OfferApplicationFeignClient;
 import org.example.subcontracting.client.OfferFeignClient;
 import org.example.subcontracting.client.ProjectFeignClient;
-import org.example.subcontracting.client.UserFeignClient;
+import org.example.subcontracting.client.UserDirectory;
 import org.example.subcontracting.client.dto.NotificationRequestDto;
 import org.example.subcontracting.client.dto.OfferApplicationRemoteDto;
 import org.example.subcontracting.client.dto.OfferRemoteDto;
@@ -36,9 +36,12 @@ import java.time.LocalDateTime;
 import java.math.RoundingMode;
 import java.math.BigDecimal;
 import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.EnumSet;
 import java.util.Collections;
 import java.util.List;
+import java.util.Map;
 import java.util.stream.Collectors;
 
 @Service
@@ -49,7 +52,7 @@ public class SubcontractService {
 
     private final SubcontractRepository subcontractRepo;
     private final SubcontractDeliverableRepository deliverableRepo;
-    private final UserFeignClient userClient;
+    private final UserDirectory userDirectory;
     private final ProjectFeignClient projectClient;
     private final OfferApplicationFeignClient offerApplicationClient;
     private final OfferFeignClient offerClient;
@@ -116,32 +119,28 @@ public class SubcontractService {
 
     @Transactional(readOnly = true)
     public List<SubcontractResponse> getByMainFreelancer(Long freelancerId) {
-        return subcontractRepo.findByMainFreelancerIdOrderByCreatedAtDesc(freelancerId)
-                .stream().map(this::toResponse).collect(Collectors.toList());
+        return toResponses(subcontractRepo.findByMainFreelancerIdOrderByCreatedAtDesc(freelancerId));
     }
 
     @Transactional(readOnly = true)
     public List<SubcontractResponse> getBySubcontractor(Long subcontractorId) {
-        return subcontractRepo.findBySubcontractorIdOrderByCreatedAtDesc(subcontractorId)
-                .stream().map(this::toResponse).collect(Collectors.toList());
+        return toResponses(subcontractRepo.findBySubcontractorIdOrderByCreatedAtDesc(subcontractorId));
     }
 
     @Transactional(readOnly = true)
     public List<SubcontractResponse> getByProject(Long projectId) {
-        return subcontractRepo.findByProjectIdOrderByCreatedAtDesc(projectId)
-                .stream().map(this::toResponse).collect(Collectors.toList());
+        return toResponses(subcontractRepo.findByProjectIdOrderByCreatedAtDesc(projectId));
     }
 
     @Transactional(readOnly = true)
     public List<SubcontractResponse> getByStatus(String status) {
         SubcontractStatus s = SubcontractStatus.valueOf(status.toUpperCase());
-        return subcontractRepo.findByStatusOrderByCreatedAtDesc(s)
-                .stream().map(this::toResponse).collect(Collectors.toList());
+        return toResponses(subcontractRepo.findByStatusOrderByCreatedAtDesc(s));
     }
 
     @Transactional(readOnly = true)
     public List<SubcontractResponse> getAll() {
-        return subcontractRepo.findAll().stream().map(this::toResponse).collect(Collectors.toList());
+        return toResponses(subcontractRepo.findAll());
     }
 
     public SubcontractResponse update(Long id, SubcontractRequest req) {
@@ -668,20 +667,19 @@ public class SubcontractService {
         }
     }
 
-    private String safeUserName(Long userId) {
-        try {
-            UserRemoteDto u = userClient.getUserById(userId);
-            if (u != null) {
-                String name = ((u.getFirstName() != null ? u.getFirstName() : "") + " "
-                        + (u.getLastName() != null ? u.getLastName() : "")).trim();
-                return name.isBlank() ? "User #" + userId : name;
+    private static String displayName(Map<Long, UserRemoteDto> users, Long userId) {
+        UserRemoteDto u = userId != null ? users.get(userId) : null;
+        if (u != null) {
+            String name = ((u.getFirstName() != null ? u.getFirstName() : "") + " "
+                    + (u.getLastName() != null ? u.getLastName() : "")).trim();
+            if (!name.isBlank()) {
+                return name;
             }
-        } catch (Exception e) {
-            log.debug("[SUBCONTRACT] User service unavailable: {}", e.getMessage());
         }
         return "User #" + userId;
     }
 
+
     private void assertOfferAcceptedForMainFreelancer(Long mainFreelancerId, Long offerId) {
         try {
             List<OfferApplicationRemoteDto> list =
@@ -741,6 +739,21 @@ public class SubcontractService {
     // ══════════════════════════════════════════════════════════
 
     private SubcontractResponse toResponse(Subcontract sc) {
+        return toResponse(sc, userDirectory.findAll(Arrays.asList(sc.getMainFreelancerId(), sc.getSubcontractorId())));
+    }
+
+    /** Listes : noms de tous les freelancers résolus en un seul appel au service User. */
+    private List<SubcontractResponse> toResponses(List<Subcontract> subcontracts) {
+        List<Long> userIds = new ArrayList<>();
+        for (Subcontract sc : subcontracts) {
+            userIds.add(sc.getMainFreelancerId());
+            userIds.add(sc.getSubcontractorId());
+        }
+        Map<Long, UserRemoteDto> users = userDirectory.findAll(userIds);
+        return subcontracts.stream().map(sc -> toResponse(sc, users)).collect(Collectors.toList());
+    }
+
+    private SubcontractResponse toResponse(Subcontract sc, Map<Long, UserRemoteDto> users) {
         long total = deliverableRepo.countBySubcontractId(sc.getId());
         long approved = deliverableRepo.countBySubcontractIdAndStatus(sc.getId(), DeliverableStatus.APPROVED);
         long pending = total - approved;
@@ -752,9 +765,9 @@ public class SubcontractService {
         return SubcontractResponse.builder()
                 .id(sc.getId())
                 .mainFreelancerId(sc.getMainFreelancerId())
-                .mainFreelancerName(safeUserName(sc.getMainFreelancerId()))
+                .mainFreelancerName(displayName(users, sc.getMainFreelancerId()))
                 .subcontractorId(sc.getSubcontractorId())
-                .subcontractorName(safeUserName(sc.getSubcontractorId()))
+                .subcontractorName(displayName(users, sc.getSubcontractorId()))
                 .projectId(sc.getProjectId())
                 .offerId(sc.getOfferId())
                 .projectTitle(resolveMissionTitle(sc))
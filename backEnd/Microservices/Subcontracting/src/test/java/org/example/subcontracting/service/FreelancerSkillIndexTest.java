@@ -0,0 +1,109 @@
+package org.example.subcontracting.service;
+
+import org.example.subcontracting.client.PortfolioFeignClient;
+import org.example.subcontracting.client.dto.PortfolioSkillDto;
+import org.example.subcontracting.client.dto.SkillCatalogVersionDto;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class FreelancerSkillIndexTest {
+
+    @Mock
+    private PortfolioFeignClient portfolioFeignClient;
+
+    @Test
+    void hits_countsRequiredSkillsCoveredPerFreelancer() {
+        when(portfolioFeignClient.getAllSkills()).thenReturn(List.of(
+                skill(2L, "Spring Boot"), skill(2L, "Java"), skill(3L, "Java"), skill(4L, "React")));
+        FreelancerSkillIndex index = new FreelancerSkillIndex(portfolioFeignClient, 600_000L, 30_000L);
+
+        Map<Long, Integer> hits = index.hits(List.of("java", "spring boot", "Angular"));
+
+        assertThat(hits).containsOnly(Map.entry(2L, 2), Map.entry(3L, 1));
+        assertThat(index.skillsOf(2L)).containsExactly("Spring Boot", "Java");
+        assertThat(index.skillsOf(99L)).isEmpty();
+        verify(portfolioFeignClient, times(1)).getAllSkills();
+    }
+
+    @Test
+    void hits_nullWhenPortfolioNeverAnswered() {
+        when(portfolioFeignClient.getAllSkills()).thenThrow(new RuntimeException("down"));
+        FreelancerSkillIndex index = new FreelancerSkillIndex(portfolioFeignClient, 600_000L, 30_000L);
+
+        assertThat(index.hits(List.of("Java"))).isNull();
+        assertThat(index.skillsOf(2L)).isNull();
+    }
+
+    @Test
+    void invalidate_keepsPreviousIndexWhenReloadFails() {
+        when(portfolioFeignClient.getAllSkills())
+                .thenReturn(List.of(skill(2L, "Java")))
+                .thenThrow(new RuntimeException("down"));
+        FreelancerSkillIndex index = new FreelancerSkillIndex(portfolioFeignClient, 600_000L, 30_000L);
+        index.hits(List.of("Java"));
+
+        index.invalidate();
+
+        assertThat(index.hits(List.of("Java"))).containsOnly(Map.entry(2L, 1));
+        verify(portfolioFeignClient, times(2)).getAllSkills();
+    }
+
+    @Test
+    void poll_rebuildsOnlyWhenCatalogVersionChanges() {
+        when(portfolioFeignClient.getSkillCatalogVersion()).thenReturn(version("1"), version("1"), version("2"));
+        when(portfolioFeignClient.getAllSkills())
+                .thenReturn(List.of(skill(2L, "Java")))
+                .thenReturn(List.of(skill(2L, "Java"), skill(3L, "Java")));
+        FreelancerSkillIndex index = new FreelancerSkillIndex(portfolioFeignClient, 600_000L, 0L);
+
+        assertThat(index.hits(List.of("Java"))).containsOnlyKeys(2L);
+        assertThat(index.hits(List.of("Java"))).containsOnlyKeys(2L);
+        assertThat(index.hits(List.of("Java"))).containsOnlyKeys(2L, 3L);
+        verify(portfolioFeignClient, times(2)).getAllSkills();
+    }
+
+    @Test
+    void onReload_firesWhenARebuildReplacesTheServedIndex() {
+        when(portfolioFeignClient.getSkillCatalogVersion()).thenReturn(version("1"), version("1"), version("2"));
+        when(portfolioFeignClient.getAllSkills()).thenReturn(List.of(skill(2L, "Java")));
+        FreelancerSkillIndex index = new FreelancerSkillIndex(portfolioFeignClient, 600_000L, 0L);
+        int[] reloads = {0};
+        index.onReload(() -> reloads[0]++);
+
+        index.hits(List.of("Java"));
+        index.hits(List.of("Java"));
+        assertThat(reloads[0]).isZero();
+
+        index.hits(List.of("Java"));
+        assertThat(reloads[0]).isEqualTo(1);
+    }
+
+    @Test
+    void tokens_keepsSymbolsInsideWords() {
+        assertThat(FreelancerSkillIndex.tokens(" C++ / Node.js, C#")).containsExactly("c++", "node.js", "c#");
+    }
+
+    private static SkillCatalogVersionDto version(String v) {
+        SkillCatalogVersionDto dto = new SkillCatalogVersionDto();
+        dto.setVersion(v);
+        return dto;
+    }
+
+    private static PortfolioSkillDto skill(Long userId, String name) {
+        PortfolioSkillDto s = new PortfolioSkillDto();
+        s.setUserId(userId);
+        s.setName(name);
+        return s;
+    }
+}
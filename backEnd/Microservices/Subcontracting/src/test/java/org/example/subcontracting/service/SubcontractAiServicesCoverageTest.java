@@ -1,8 +1,7 @@
 package org.example.subcontracting.service;
 
-import org.example.subcontracting.client.PortfolioFeignClient;
 import org.example.subcontracting.client.UserFeignClient;
-import org.example.subcontracting.client.dto.PortfolioSkillDto;
+import org.example.subcontracting.client.dto.UserPageRemoteDto;
 import org.example.subcontracting.client.dto.UserRemoteDto;
 import org.example.subcontracting.dto.response.SubcontractMatchCandidateDto;
 import org.example.subcontracting.dto.response.SubcontractMatchResponse;
@@ -23,6 +22,7 @@ import org.springframework.web.server.ResponseStatusException;
 import java.math.BigDecimal;
 import java.time.LocalDate;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 
 import static org.assertj.core.api.Assertions.assertThat;
@@ -36,9 +36,9 @@ import static org.mockito.Mockito.when;
 class SubcontractAiServicesCoverageTest {
 
     @Mock private UserFeignClient userFeignClient;
-    @Mock private PortfolioFeignClient portfolioFeignClient;
     @Mock private SubcontractRepository subcontractRepository;
-    @Mock private SubcontractDashboardService dashboardService;
+    @Mock private FreelancerSkillIndex skillIndex;
+    @Mock private SubcontractProfileEnricher profileEnricher;
     @Mock private RestTemplate restTemplate;
 
     @InjectMocks
@@ -50,13 +50,15 @@ class SubcontractAiServicesCoverageTest {
 
     @Test
     void aiMatchService_heuristicAndClaudePathsReturnCandidates() {
-        UserRemoteDto main = user(1L, "Main", "Owner", "CLIENT", true);
         UserRemoteDto freelancer = user(2L, "Sara", "Dev", "FREELANCER", true);
-        when(userFeignClient.getAllUsers()).thenReturn(List.of(main, freelancer));
-        when(portfolioFeignClient.getSkillsByUserId(2L)).thenReturn(List.of(skill("Java"), skill("Spring Boot")));
-        when(portfolioFeignClient.getExperiencesByUserId(2L)).thenReturn(List.of());
-        when(dashboardService.computeScore(2L)).thenReturn(org.example.subcontracting.dto.response.SubcontractorScoreResponse.builder().score(80).build());
-        when(subcontractRepository.countByMainFreelancerIdAndSubcontractorId(1L, 2L)).thenReturn(1L);
+        UserRemoteDto noSkillMatch = user(3L, "Omar", "Design", "FREELANCER", true);
+        UserPageRemoteDto page = new UserPageRemoteDto();
+        page.setItems(List.of(freelancer, noSkillMatch));
+        when(userFeignClient.getUserPage("FREELANCER", true, null, 1000, true)).thenReturn(page);
+        when(skillIndex.hits(List.of("Java"))).thenReturn(Map.of(2L, 1));
+        when(profileEnricher.enrich(List.of(2L))).thenReturn(Map.of(2L,
+                new SubcontractProfileEnricher.Profile("Java, Spring Boot", "(aucune expérience renseignée)", 80)));
+        when(subcontractRepository.countBySubcontractorForMainFreelancer(1L)).thenReturn(List.<Object[]>of(new Object[]{2L, 1L}));
 
         ReflectionTestUtils.setField(aiMatchService, "anthropicApiKey", "");
         SubcontractMatchResponse heuristic = aiMatchService.matchSubcontractors(1L, List.of("Java"));
@@ -121,12 +123,6 @@ class SubcontractAiServicesCoverageTest {
         return u;
     }
 
-    private static PortfolioSkillDto skill(String name) {
-        PortfolioSkillDto s = new PortfolioSkillDto();
-        s.setName(name);
-        return s;
-    }
-
     private static Subcontract subcontract(Long id, Long mainId, Long subId) {
         Subcontract sc = new Subcontract();
         sc.setId(id);
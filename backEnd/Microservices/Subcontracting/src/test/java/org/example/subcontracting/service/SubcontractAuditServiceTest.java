@@ -1,6 +1,6 @@
 package org.example.subcontracting.service;
 
-import org.example.subcontracting.client.UserFeignClient;
+import org.example.subcontracting.client.UserDirectory;
 import org.example.subcontracting.client.dto.UserRemoteDto;
 import org.example.subcontracting.dto.response.FreelancerHistoryResponse;
 import org.example.subcontracting.entity.Subcontract;
@@ -16,11 +16,13 @@ import org.mockito.junit.jupiter.MockitoExtension;
 
 import java.time.LocalDateTime;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.anyCollection;
 import static org.mockito.ArgumentMatchers.anyLong;
-import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
@@ -33,7 +35,7 @@ class SubcontractAuditServiceTest {
     @Mock
     private SubcontractRepository subcontractRepo;
     @Mock
-    private UserFeignClient userClient;
+    private UserDirectory userDirectory;
 
     @InjectMocks
     private SubcontractAuditService subcontractAuditService;
@@ -88,8 +90,7 @@ class SubcontractAuditServiceTest {
         u2.setLastName("Trabelsi");
         u2.setEmail("nour@demo.tn");
         u2.setRole("CLIENT");
-        when(userClient.getUserById(7L)).thenReturn(u1);
-        when(userClient.getUserById(8L)).thenReturn(u2);
+        when(userDirectory.findAll(anyCollection())).thenReturn(Map.of(7L, u1, 8L, u2));
 
         FreelancerHistoryResponse history = subcontractAuditService.getFreelancerHistory(7L);
 
@@ -101,6 +102,8 @@ class SubcontractAuditServiceTest {
         assertThat(history.getEventsByAction()).containsEntry("CREATED", 1L).containsEntry("ACCEPTED", 1L);
         assertThat(history.getTimeline()).hasSize(2);
         assertThat(history.getTimeline().get(0).getSubcontractTitle()).isEqualTo("Refactor module");
+        assertThat(history.getTimeline().get(0).getActorName()).isEqualTo("Nour Trabelsi");
+        verify(userDirectory, times(1)).findAll(anyCollection());
     }
 
     @Test
@@ -137,7 +140,8 @@ class SubcontractAuditServiceTest {
         when(subcontractRepo.countByMainFreelancerId(30L)).thenReturn(1L);
         when(subcontractRepo.countBySubcontractorId(30L)).thenReturn(0L);
         when(subcontractRepo.findById(anyLong())).thenReturn(Optional.empty());
-        doThrow(new RuntimeException("user down")).when(userClient).getUserById(30L);
+        // le répertoire absorbe les pannes du service User : aucun utilisateur résolu
+        when(userDirectory.findAll(anyCollection())).thenReturn(Map.of());
 
         FreelancerHistoryResponse history = subcontractAuditService.getFreelancerHistory(30L);
 
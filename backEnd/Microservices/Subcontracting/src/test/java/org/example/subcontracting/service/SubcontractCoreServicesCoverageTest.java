@@ -1,6 +1,7 @@
 package org.example.subcontracting.service;
 
 import org.example.subcontracting.client.NotificationFeignClient;
+import org.example.subcontracting.client.UserDirectory;
 import org.example.subcontracting.client.UserFeignClient;
 import org.example.subcontracting.client.dto.UserRemoteDto;
 import org.example.subcontracting.coach.*;
@@ -52,6 +53,7 @@ class SubcontractCoreServicesCoverageTest {
     @InjectMocks private SubcontractChatService subcontractChatService;
 
     @Mock private SubcontractDeliverableRepository deliverableRepository;
+    @Mock private UserDirectory userDirectory;
     @InjectMocks private SubcontractDashboardService dashboardService;
 
     @Test
@@ -150,10 +152,11 @@ class SubcontractCoreServicesCoverageTest {
         when(deliverableRepository.findBySubcontractIdOrderByDeadlineAsc(10L)).thenReturn(List.of(
                 deliverable(DeliverableStatus.APPROVED), deliverable(DeliverableStatus.REJECTED)
         ));
-        when(userFeignClient.getUserById(2L)).thenReturn(user(2L, "Sub", "One", "x@x.tn"));
+        when(userDirectory.find(2L)).thenReturn(Optional.of(user(2L, "Sub", "One", "x@x.tn")));
 
         var score = dashboardService.computeScore(2L);
         assertThat(score.getScore()).isBetween(0, 100);
+        assertThat(score.getSubcontractorName()).isEqualTo("Sub One");
         assertThat(score.getBreakdown()).isNotEmpty();
 
         var dash = dashboardService.buildDashboard();
@@ -0,0 +1,67 @@
+package org.example.subcontracting.service;
+
+import org.example.subcontracting.client.PortfolioFeignClient;
+import org.example.subcontracting.client.dto.PortfolioSkillDto;
+import org.example.subcontracting.client.dto.SkillCatalogVersionDto;
+import org.example.subcontracting.dto.response.SubcontractorScoreResponse;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class SubcontractProfileEnricherTest {
+
+    @Mock
+    private PortfolioFeignClient portfolioFeignClient;
+    @Mock
+    private SubcontractDashboardService dashboardService;
+
+    private SubcontractProfileEnricher enricher;
+
+    @AfterEach
+    void tearDown() {
+        if (enricher != null) {
+            enricher.stop();
+        }
+    }
+
+    @Test
+    void enrich_dropsCachedProfilesWhenTheSkillCatalogVersionChanges() {
+        when(portfolioFeignClient.getSkillCatalogVersion()).thenReturn(version("1"), version("2"));
+        when(portfolioFeignClient.getAllSkills())
+                .thenReturn(List.of(skill(2L, "Java")))
+                .thenReturn(List.of(skill(2L, "Kotlin")));
+        when(portfolioFeignClient.getExperiencesByUserId(2L)).thenReturn(List.of());
+        when(dashboardService.computeScore(2L)).thenReturn(SubcontractorScoreResponse.builder().score(70).build());
+        FreelancerSkillIndex index = new FreelancerSkillIndex(portfolioFeignClient, 600_000L, 0L);
+        enricher = new SubcontractProfileEnricher(portfolioFeignClient, dashboardService, index,
+                2, 2, 2, 5_000L, 600_000L, 100);
+
+        assertThat(enricher.enrich(List.of(2L)).get(2L).skillsText()).isEqualTo("Java");
+
+        // Le matching interroge l'index avant d'enrichir : la nouvelle version y est vue et le cache vidé
+        index.hits(List.of("Kotlin"));
+
+        assertThat(enricher.enrich(List.of(2L)).get(2L).skillsText()).isEqualTo("Kotlin");
+    }
+
+    private static PortfolioSkillDto skill(Long userId, String name) {
+        PortfolioSkillDto s = new PortfolioSkillDto();
+        s.setUserId(userId);
+        s.setName(name);
+        return s;
+    }
+
+    private static SkillCatalogVersionDto version(String v) {
+        SkillCatalogVersionDto dto = new SkillCatalogVersionDto();
+        dto.setVersion(v);
+        return dto;
+    }
+}
@@ -5,7 +5,7 @@ import org.example.subcontracting.client.NotificationFeignClient;
 import org.example.subcontracting.client.OfferApplicationFeignClient;
 import org.example.subcontracting.client.OfferFeignClient;
 import org.example.subcontracting.client.ProjectFeignClient;
-import org.example.subcontracting.client.UserFeignClient;
+import org.example.subcontracting.client.UserDirectory;
 import org.example.subcontracting.dto.request.CounterOfferRequest;
 import org.example.subcontracting.dto.request.SubcontractRequest;
 import org.example.subcontracting.dto.response.NegotiationRoundResponse;
@@ -40,7 +40,7 @@ class SubcontractServiceTest {
     @Mock
     SubcontractDeliverableRepository deliverableRepo;
     @Mock
-    UserFeignClient userClient;
+    UserDirectory userDirectory;
     @Mock
     ProjectFeignClient projectClient;
     @Mock
@@ -71,7 +71,7 @@ class SubcontractServiceTest {
                 .isInstanceOf(BadRequestException.class)
                 .hasMessageContaining("soi-même");
 
-        verifyNoInteractions(userClient, projectClient, offerApplicationClient, offerClient, notificationClient);
+        verifyNoInteractions(userDirectory, projectClient, offerApplicationClient, offerClient, notificationClient);
         verifyNoInteractions(auditService);
     }
 
@@ -86,7 +86,7 @@ class SubcontractServiceTest {
                 .isInstanceOf(BadRequestException.class)
                 .hasMessageContaining("exactement une mission");
 
-        verifyNoInteractions(userClient, projectClient, offerApplicationClient, offerClient);
+        verifyNoInteractions(userDirectory, projectClient, offerApplicationClient, offerClient);
     }
 
     @Test
@@ -100,7 +100,7 @@ class SubcontractServiceTest {
                 .isInstanceOf(BadRequestException.class)
                 .hasMessageContaining("exactement une mission");
 
-        verifyNoInteractions(userClient, projectClient, offerApplicationClient, offerClient);
+        verifyNoInteractions(userDirectory, projectClient, offerApplicationClient, offerClient);
     }
 
     @Test
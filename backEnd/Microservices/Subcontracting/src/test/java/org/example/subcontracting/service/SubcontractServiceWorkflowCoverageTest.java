@@ -17,6 +17,7 @@ import org.mockito.junit.jupiter.MockitoExtension;
 import java.math.BigDecimal;
 import java.time.LocalDate;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 
 import static org.assertj.core.api.Assertions.assertThat;
@@ -28,7 +29,7 @@ class SubcontractServiceWorkflowCoverageTest {
 
     @Mock private SubcontractRepository subcontractRepo;
     @Mock private SubcontractDeliverableRepository deliverableRepo;
-    @Mock private UserFeignClient userClient;
+    @Mock private UserDirectory userDirectory;
     @Mock private ProjectFeignClient projectClient;
     @Mock private OfferApplicationFeignClient offerApplicationClient;
     @Mock private OfferFeignClient offerClient;
@@ -40,7 +41,7 @@ class SubcontractServiceWorkflowCoverageTest {
     @Test
     void coversCreateUpdateWorkflowAndDeliverablePaths() {
         SubcontractService service = new SubcontractService(
-                subcontractRepo, deliverableRepo, userClient, projectClient, offerApplicationClient, offerClient,
+                subcontractRepo, deliverableRepo, userDirectory, projectClient, offerApplicationClient, offerClient,
                 notificationClient, auditService, subcontractEmailService, coachingService, new ObjectMapper()
         );
         Subcontract shared = sharedSubcontract();
@@ -65,7 +66,8 @@ class SubcontractServiceWorkflowCoverageTest {
         when(deliverableRepo.countBySubcontractIdAndStatus(anyLong(), eq(DeliverableStatus.SUBMITTED))).thenReturn(0L);
         when(deliverableRepo.findBySubcontractIdOrderByDeadlineAsc(anyLong())).thenReturn(List.of(sharedDeliverable));
         when(deliverableRepo.save(any(SubcontractDeliverable.class))).thenAnswer(inv -> inv.getArgument(0));
-        when(userClient.getUserById(anyLong())).thenReturn(user(1L, "Main", "User"), user(2L, "Sub", "User"));
+        when(userDirectory.findAll(anyCollection()))
+                .thenReturn(Map.of(1L, user(1L, "Main", "User"), 2L, user(2L, "Sub", "User")));
         when(offerClient.getOfferById(anyLong())).thenReturn(offer("Offer A"));
         when(deliverableRepo.findById(7L)).thenReturn(Optional.of(sharedDeliverable));
 
@@ -87,7 +89,7 @@ class SubcontractServiceWorkflowCoverageTest {
         assertThat(created.getRequiredSkills()).contains("Java");
 
         var fetched = service.getById(50L);
-        assertThat(fetched.getMainFreelancerName()).isNotBlank();
+        assertThat(fetched.getMainFreelancerName()).isEqualTo("Main User");
         assertThat(service.getByMainFreelancer(1L)).hasSize(1);
         assertThat(service.getBySubcontractor(2L)).hasSize(1);
         assertThat(service.getByProject(99L)).hasSize(1);
@@ -31,6 +31,17 @@ public class UserLevelController {
         return service.getLeaderboard(top);
     }
 
+    @GetMapping("/{userId}/rank")
+    public int getRank(@PathVariable Long userId) {
+        return service.getUserRank(userId);
+    }
+
+    @GetMapping("/{userId}/leaderboard")
+    public List<LeaderboardEntryDTO> getLeaderboardAround(@PathVariable Long userId,
+                                                          @RequestParam(defaultValue = "5") int radius) {
+        return service.getLeaderboardAround(userId, radius);
+    }
+
     @PostMapping("/{userId}/streak/update")
     public int updateStreak(@PathVariable Long userId) {
         return service.updateAndGetActiveStreak(userId);
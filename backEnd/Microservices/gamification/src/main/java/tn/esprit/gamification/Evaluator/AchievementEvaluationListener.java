@@ -0,0 +1,50 @@
+package tn.esprit.gamification.Evaluator;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import tn.esprit.gamification.Entities.Achievement;
+import tn.esprit.gamification.Entities.Enums.conditionType;
+import tn.esprit.gamification.Events.XpChangedEvent;
+import tn.esprit.gamification.Services.AchievementService;
+import tn.esprit.gamification.Services.UserAchievementService;
+
+import java.util.List;
+
+/**
+ * Évalue les achievements dépendant de l'XP pour le seul utilisateur concerné par un {@link XpChangedEvent},
+ * via {@link AchievementEvaluatorRegistry}.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class AchievementEvaluationListener {
+
+    private final AchievementService achievementService;
+    private final UserAchievementService userAchievementService;
+    private final AchievementEvaluatorRegistry evaluatorRegistry;
+
+    @EventListener
+    public void onXpChanged(XpChangedEvent event) {
+        evaluate(event.userId(), conditionType.XP_REACHED);
+    }
+
+    /** Débloque les achievements du type dont le seuil est atteint (ceux déjà obtenus sont ignorés). */
+    public void evaluate(Long userId, conditionType type) {
+        try {
+            List<Achievement> candidates = achievementService.getByType(type);
+            if (candidates.isEmpty()) {
+                return;
+            }
+            int value = evaluatorRegistry.evaluate(type, userId);
+            for (Achievement a : candidates) {
+                if (a.getConditionThreshold() > 0 && value >= a.getConditionThreshold()) {
+                    userAchievementService.unlockAchievement(userId, a.getId());
+                }
+            }
+        } catch (Exception e) {
+            log.warn("Évaluation {} impossible pour user {} : {}", type, userId, e.getMessage());
+        }
+    }
+}
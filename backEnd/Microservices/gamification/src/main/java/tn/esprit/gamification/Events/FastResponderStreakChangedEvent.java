@@ -0,0 +1,5 @@
+package tn.esprit.gamification.Events;
+
+/** Publié par {@code UserLevelServiceImpl.incrementFastResponderStreak} avec la nouvelle valeur du streak. */
+public record FastResponderStreakChangedEvent(Long userId, int streak) {
+}
@@ -0,0 +1,8 @@
+package tn.esprit.gamification.Events;
+
+/**
+ * Publié par {@code UserLevelServiceImpl.addXp} après la mise à jour de l'XP d'un utilisateur.
+ * Les abonnés (classement, top freelancer, achievements XP) ne réévaluent que cet utilisateur.
+ */
+public record XpChangedEvent(Long userId, String userRole, int xp, int level) {
+}
@@ -0,0 +1,189 @@
+package tn.esprit.gamification.Leaderboard;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Ensemble trié (treap) dont chaque nœud connaît la taille de son sous-arbre : insertion, suppression,
+ * rang d'un élément et k-ième élément en O(log n) en moyenne, tranche de {@code count} éléments en
+ * O(log n + count). Non thread-safe : l'appelant synchronise.
+ */
+public class OrderStatisticTree<T> {
+
+    private static final class Node<T> {
+        final T value;
+        final int priority = ThreadLocalRandom.current().nextInt();
+        Node<T> left;
+        Node<T> right;
+        int size = 1;
+
+        Node(T value) {
+            this.value = value;
+        }
+    }
+
+    private final Comparator<? super T> comparator;
+    private Node<T> root;
+
+    public OrderStatisticTree(Comparator<? super T> comparator) {
+        this.comparator = comparator;
+    }
+
+    public int size() {
+        return size(root);
+    }
+
+    public void clear() {
+        root = null;
+    }
+
+    /** Sans effet (et renvoie false) si un élément égal (comparateur) est déjà présent. */
+    public boolean add(T value) {
+        if (rank(value) >= 0) {
+            return false;
+        }
+        root = insert(root, new Node<>(value));
+        return true;
+    }
+
+    public boolean remove(T value) {
+        int before = size();
+        root = delete(root, value);
+        return size() < before;
+    }
+
+    /** Position (0 = premier) de l'élément, ou -1 s'il est absent. */
+    public int rank(T value) {
+        int rank = 0;
+        Node<T> n = root;
+        while (n != null) {
+            int cmp = comparator.compare(value, n.value);
+            if (cmp < 0) {
+                n = n.left;
+            } else if (cmp > 0) {
+                rank += size(n.left) + 1;
+                n = n.right;
+            } else {
+                return rank + size(n.left);
+            }
+        }
+        return -1;
+    }
+
+    /** Élément à la position {@code index} (0 = premier). */
+    public T get(int index) {
+        if (index < 0 || index >= size()) {
+            throw new IndexOutOfBoundsException(index);
+        }
+        Node<T> n = root;
+        while (true) {
+            int leftSize = size(n.left);
+            if (index < leftSize) {
+                n = n.left;
+            } else if (index > leftSize) {
+                index -= leftSize + 1;
+                n = n.right;
+            } else {
+                return n.value;
+            }
+        }
+    }
+
+    /** Jusqu'à {@code count} éléments à partir de la position {@code from}, dans l'ordre. */
+    public List<T> range(int from, int count) {
+        List<T> out = new ArrayList<>(Math.max(0, Math.min(count, size() - from)));
+        collect(root, Math.max(0, from), count, out);
+        return out;
+    }
+
+    private void collect(Node<T> n, int from, int count, List<T> out) {
+        if (n == null || out.size() >= count) {
+            return;
+        }
+        int leftSize = size(n.left);
+        if (from < leftSize) {
+            collect(n.left, from, count, out);
+        }
+        if (from <= leftSize && out.size() < count) {
+            out.add(n.value);
+        }
+        if (out.size() < count) {
+            collect(n.right, Math.max(0, from - leftSize - 1), count, out);
+        }
+    }
+
+    private Node<T> insert(Node<T> n, Node<T> node) {
+        if (n == null) {
+            return node;
+        }
+        if (comparator.compare(node.value, n.value) < 0) {
+            n.left = insert(n.left, node);
+            if (n.left.priority > n.priority) {
+                n = rotateRight(n);
+            }
+        } else {
+            n.right = insert(n.right, node);
+            if (n.right.priority > n.priority) {
+                n = rotateLeft(n);
+            }
+        }
+        update(n);
+        return n;
+    }
+
+    private Node<T> delete(Node<T> n, T value) {
+        if (n == null) {
+            return null;
+        }
+        int cmp = comparator.compare(value, n.value);
+        if (cmp < 0) {
+            n.left = delete(n.left, value);
+        } else if (cmp > 0) {
+            n.right = delete(n.right, value);
+        } else {
+            if (n.left == null) {
+                return n.right;
+            }
+            if (n.right == null) {
+                return n.left;
+            }
+            if (n.left.priority > n.right.priority) {
+                n = rotateRight(n);
+                n.right = delete(n.right, value);
+            } else {
+                n = rotateLeft(n);
+                n.left = delete(n.left, value);
+            }
+        }
+        update(n);
+        return n;
+    }
+
+    private Node<T> rotateRight(Node<T> n) {
+        Node<T> l = n.left;
+        n.left = l.right;
+        l.right = n;
+        update(n);
+        update(l);
+        return l;
+    }
+
+    private Node<T> rotateLeft(Node<T> n) {
+        Node<T> r = n.right;
+        n.right = r.left;
+        r.left = n;
+        update(n);
+        update(r);
+        return r;
+    }
+
+    private static <T> void update(Node<T> n) {
+        n.size = 1 + size(n.left) + size(n.right);
+    }
+
+    private static <T> int size(Node<T> n) {
+        return n == null ? 0 : n.size;
+    }
+}
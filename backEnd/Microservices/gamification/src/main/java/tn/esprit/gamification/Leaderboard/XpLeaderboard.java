@@ -0,0 +1,189 @@
+package tn.esprit.gamification.Leaderboard;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+import tn.esprit.gamification.Entities.UserLevel;
+import tn.esprit.gamification.Events.XpChangedEvent;
+import tn.esprit.gamification.Repository.UserLevelRepository;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableSet;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentSkipListSet;
+
+/**
+ * Classement XP gardé en mémoire, trié par XP décroissant (égalité : plus petit userId d'abord).
+ * <p>
+ * Tous les utilisateurs sont rangés dans un {@link OrderStatisticTree} (top N, rang d'un utilisateur et voisins
+ * en O(log n)) ; les freelances avec de l'XP &gt; 0 sont aussi dans un ensemble trié dont la tête est le top
+ * freelancer. Chargé depuis la base au démarrage (pagination par clé, {@code gamification.reconcile.page-size}
+ * lignes par requête), puis tenu à jour par les {@link XpChangedEvent} une fois leur transaction validée.
+ * <p>
+ * {@link #rebuild()} remplit un nouvel état hors verrou puis le substitue d'un coup : les lecteurs voient l'ancien
+ * classement ou le nouveau, jamais un classement vidé. Les mises à jour reçues pendant le rechargement sont mises de
+ * côté et rejouées sur le nouvel état juste avant la substitution.
+ */
+@Component
+@Slf4j
+public class XpLeaderboard {
+
+    public record Entry(Long userId, int xp) {
+        static final Comparator<Entry> ORDER = Comparator.comparingInt(Entry::xp).reversed()
+                .thenComparing(Entry::userId);
+    }
+
+    private final UserLevelRepository userLevelRepository;
+    private final int pageSize;
+
+    /** Le classement courant ; ses structures sont modifiées sous le verrou de this, la référence est remplacée d'un bloc. */
+    private volatile State state = new State();
+    /** Mises à jour arrivées pendant un rechargement, rejouées avant la substitution ; null hors rechargement. Guarded by this. */
+    private List<Update> pendingDuringRebuild;
+    private final Object rebuildMonitor = new Object();
+    private volatile boolean loaded;
+
+    private record Update(Long userId, String userRole, int xp) {
+    }
+
+    private static final class State {
+        final OrderStatisticTree<Entry> ranking = new OrderStatisticTree<>(Entry.ORDER);
+        final Map<Long, Entry> byUser = new HashMap<>();
+        final NavigableSet<Entry> freelancers = new ConcurrentSkipListSet<>(Entry.ORDER);
+
+        void put(Long userId, String userRole, int xp) {
+            Entry old = byUser.remove(userId);
+            if (old != null) {
+                ranking.remove(old);
+                freelancers.remove(old);
+            }
+            Entry entry = new Entry(userId, xp);
+            byUser.put(userId, entry);
+            ranking.add(entry);
+            // Seuls les freelances avec de l'XP > 0 peuvent être top freelancer
+            if ("FREELANCER".equalsIgnoreCase(userRole) && xp > 0) {
+                freelancers.add(entry);
+            }
+        }
+    }
+
+    public XpLeaderboard(UserLevelRepository userLevelRepository,
+                         @Value("${gamification.reconcile.page-size:500}") int pageSize) {
+        this.userLevelRepository = userLevelRepository;
+        this.pageSize = pageSize;
+    }
+
+    public synchronized void update(Long userId, String userRole, int xp) {
+        state.put(userId, userRole, xp);
+        if (pendingDuringRebuild != null) {
+            pendingDuringRebuild.add(new Update(userId, userRole, xp));
+        }
+    }
+
+    public Optional<Entry> topFreelancer() {
+        Iterator<Entry> it = state.freelancers.iterator();
+        return it.hasNext() ? Optional.of(it.next()) : Optional.empty();
+    }
+
+    /** Les {@code n} premiers, rang 1 en tête. */
+    public synchronized List<Entry> top(int n) {
+        return state.ranking.range(0, n);
+    }
+
+    /** Rang (1 = premier) de l'utilisateur, ou 0 s'il n'est pas classé. */
+    public synchronized int rankOf(Long userId) {
+        State s = state;
+        Entry entry = s.byUser.get(userId);
+        return entry == null ? 0 : s.ranking.rank(entry) + 1;
+    }
+
+    /** L'utilisateur et jusqu'à {@code radius} voisins de chaque côté ; vide s'il n'est pas classé. */
+    public synchronized List<Entry> around(Long userId, int radius) {
+        State s = state;
+        Entry entry = s.byUser.get(userId);
+        if (entry == null) {
+            return List.of();
+        }
+        radius = Math.max(0, Math.min(radius, s.ranking.size()));
+        int index = s.ranking.rank(entry);
+        int from = Math.max(0, index - radius);
+        return s.ranking.range(from, index - from + radius + 1);
+    }
+
+    /** Nombre d'utilisateurs classés. */
+    public synchronized int size() {
+        return state.ranking.size();
+    }
+
+    public int freelancerCount() {
+        return state.freelancers.size();
+    }
+
+    public boolean isLoaded() {
+        return loaded;
+    }
+
+    /** Après commit : une XP annulée par un rollback n'entre jamais dans le classement. */
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    @Order(Ordered.HIGHEST_PRECEDENCE)
+    public void onXpChanged(XpChangedEvent event) {
+        update(event.userId(), event.userRole(), event.xp());
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    @Order(Ordered.HIGHEST_PRECEDENCE)
+    public void loadOnStartup() {
+        try {
+            log.info("🏆 Classement XP chargé : {} utilisateur(s)", rebuild());
+        } catch (Exception e) {
+            log.warn("Chargement du classement XP impossible : {}", e.getMessage());
+        }
+    }
+
+    /** Recharge tout le classement depuis la base, page par page sur l'id, puis remplace l'état courant. */
+    public int rebuild() {
+        synchronized (rebuildMonitor) {
+            synchronized (this) {
+                pendingDuringRebuild = new ArrayList<>();
+            }
+            try {
+                State fresh = new State();
+                Long afterId = 0L;
+                List<UserLevel> page;
+                do {
+                    page = userLevelRepository.findByIdGreaterThanOrderByIdAsc(afterId, PageRequest.of(0, pageSize));
+                    for (UserLevel ul : page) {
+                        fresh.put(ul.getUserId(), ul.getUserRole(), ul.getXp());
+                    }
+                    if (!page.isEmpty()) {
+                        afterId = page.get(page.size() - 1).getId();
+                    }
+                } while (page.size() == pageSize);
+                synchronized (this) {
+                    for (Update u : pendingDuringRebuild) {
+                        fresh.put(u.userId(), u.userRole(), u.xp());
+                    }
+                    state = fresh;
+                    loaded = true;
+                    return fresh.ranking.size();
+                }
+            } finally {
+                synchronized (this) {
+                    pendingDuringRebuild = null;
+                }
+            }
+        }
+    }
+}
@@ -8,12 +8,15 @@ import org.springframework.data.repository.query.Param;
 import org.springframework.transaction.annotation.Transactional;
 import tn.esprit.gamification.Entities.UserLevel;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
 public interface UserLevelRepository extends JpaRepository<UserLevel, Long> {
     Optional<UserLevel> findByUserId(Long userId);
 
+    List<UserLevel> findByUserIdIn(Collection<Long> userIds);
+
     // 🆕 Pour trouver le top freelancer actuel
     Optional<UserLevel> findTopByOrderByXpDesc();
 
@@ -23,6 +26,9 @@ public interface UserLevelRepository extends JpaRepository<UserLevel, Long> {
     // 🆕 Pour récupérer tous les users avec streak >= seuil
     List<UserLevel> findByFastResponderStreakGreaterThanEqual(int streak);
 
+    // Pagination par clé (réconciliation / chargement du classement)
+    List<UserLevel> findByIdGreaterThanOrderByIdAsc(Long id, Pageable pageable);
+
     // 🆕 Pour le leaderboard avec pagination dynamique
     @Query("SELECT ul FROM UserLevel ul ORDER BY ul.xp DESC")
     List<UserLevel> findLeaderboard(Pageable pageable);
@@ -2,11 +2,13 @@ package tn.esprit.gamification.Scheduler;
 
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.event.EventListener;
 import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Component;
 import tn.esprit.gamification.Entities.Achievement;
 import tn.esprit.gamification.Entities.Enums.conditionType;
 import tn.esprit.gamification.Entities.UserLevel;
+import tn.esprit.gamification.Events.FastResponderStreakChangedEvent;
 import tn.esprit.gamification.Services.AchievementService;
 import tn.esprit.gamification.Services.GamificationNotificationService;
 import tn.esprit.gamification.Services.UserAchievementService;
@@ -14,6 +16,10 @@ import tn.esprit.gamification.Services.UserLevelService;
 
 import java.util.List;
 
+/**
+ * Badge FAST_RESPONDER : attribué dès qu'un {@link FastResponderStreakChangedEvent} atteint le seuil.
+ * La réconciliation périodique ne lit que les utilisateurs ayant déjà atteint le seuil.
+ */
 @Component
 @RequiredArgsConstructor
 @Slf4j
@@ -26,33 +32,37 @@ public class FastResponderScheduler {
 
     private static final int STREAK_REQUIRED = 3;
 
-    @Scheduled(cron = "*/10 * * * * *")
+    @EventListener
+    public void onStreakChanged(FastResponderStreakChangedEvent event) {
+        if (event.streak() >= STREAK_REQUIRED) {
+            reward(event.userId(), event.streak());
+        }
+    }
+
+    @Scheduled(cron = "${gamification.reconcile.cron:0 */15 * * * *}")
     public void checkFastResponders() {
-        log.info("⚡ Vérification des Fast Responders...");
+        log.info("⚡ Réconciliation des Fast Responders...");
 
-        List<UserLevel> fastUsers = userLevelService
-                .getAllUserLevels()
-                .stream()
-                .filter(ul -> ul.getFastResponderStreak() >= STREAK_REQUIRED)
-                .toList();
+        for (UserLevel user : userLevelService.getUsersWithFastResponderStreak(STREAK_REQUIRED)) {
+            reward(user.getUserId(), user.getFastResponderStreak());
+        }
+    }
 
+    private void reward(Long userId, int streak) {
         List<Achievement> fastAchievements = achievementService
                 .getByType(conditionType.FAST_RESPONDER);
 
-        for (UserLevel user : fastUsers) {
-            for (Achievement a : fastAchievements) {
-                userAchievementService.unlockAchievement(user.getUserId(), a.getId());
-            }
+        for (Achievement a : fastAchievements) {
+            userAchievementService.unlockAchievement(userId, a.getId());
+        }
 
-            userLevelService.resetFastResponderStreak(user.getUserId());
+        userLevelService.resetFastResponderStreak(userId);
 
-            String titleForNotify = fastAchievements.isEmpty()
-                    ? null
-                    : fastAchievements.get(0).getTitle();
-            gamificationNotificationService.notifyFastResponderBadge(user.getUserId(), titleForNotify);
+        String titleForNotify = fastAchievements.isEmpty()
+                ? null
+                : fastAchievements.get(0).getTitle();
+        gamificationNotificationService.notifyFastResponderBadge(userId, titleForNotify);
 
-            log.info("⚡ Badge FAST_RESPONDER attribué à user {} (streak: {})",
-                    user.getUserId(), user.getFastResponderStreak());
-        }
+        log.info("⚡ Badge FAST_RESPONDER attribué à user {} (streak: {})", userId, streak);
     }
 }
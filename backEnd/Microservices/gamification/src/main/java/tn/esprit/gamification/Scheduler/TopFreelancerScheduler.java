@@ -2,11 +2,19 @@ package tn.esprit.gamification.Scheduler;
 
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
 import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
 import tn.esprit.gamification.Entities.Achievement;
 import tn.esprit.gamification.Entities.Enums.conditionType;
 import tn.esprit.gamification.Entities.UserLevel;
+import tn.esprit.gamification.Events.XpChangedEvent;
+import tn.esprit.gamification.Leaderboard.XpLeaderboard;
 import tn.esprit.gamification.Services.AchievementService;
 import tn.esprit.gamification.Services.GamificationNotificationService;
 import tn.esprit.gamification.Services.UserAchievementService;
@@ -15,6 +23,11 @@ import tn.esprit.gamification.Services.UserLevelService;
 import java.util.List;
 import java.util.Objects;
 
+/**
+ * Badge TOP_FREELANCER : le freelance en tête de {@link XpLeaderboard}. Réévalué à chaque {@link XpChangedEvent}
+ * d'un freelance (couronnement seulement si la tête change) et réconcilié périodiquement en rechargeant le
+ * classement.
+ */
 @Component
 @RequiredArgsConstructor
 @Slf4j
@@ -25,53 +38,74 @@ TopFreelancerScheduler {
     private final AchievementService achievementService;
     private final UserAchievementService userAchievementService;
     private final GamificationNotificationService gamificationNotificationService;
+    private final XpLeaderboard xpLeaderboard;
 
     /** Avoid duplicate "you are top" pushes when the same user stays #1 between runs. */
     private volatile Long lastNotifiedTopUserId;
 
-    @Scheduled(cron = "*/10 * * * * *")
-    public void detectAndRewardTopFreelancer() {
-        log.info("🏅 Détection du Top Freelancer de la semaine...");
-
-        List<UserLevel> allUsers = userLevelService.getAllUserLevels();
-        if (allUsers.isEmpty()) {
+    /**
+     * Après commit, comme {@link XpLeaderboard#onXpChanged} (qui passe avant), pour lire la tête déjà à jour. La
+     * transaction d'origine est validée : les écritures du couronnement ont besoin d'une transaction à elles.
+     */
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    @Transactional(propagation = Propagation.REQUIRES_NEW)
+    public void onXpChanged(XpChangedEvent event) {
+        if (!"FREELANCER".equalsIgnoreCase(event.userRole())) {
             return;
         }
+        Long top = xpLeaderboard.topFreelancer().map(XpLeaderboard.Entry::userId).orElse(null);
+        if (top != null && !Objects.equals(top, lastNotifiedTopUserId)) {
+            rewardTopFreelancer();
+        }
+    }
 
-        UserLevel topUser = allUsers.stream()
-                // 🆕 Condition cruciale : Seulement les freelances ayant de l'XP > 0
-                .filter(u -> "FREELANCER".equalsIgnoreCase(u.getUserRole()) && u.getXp() > 0)
-                .max((a, b) -> Integer.compare(a.getXp(), b.getXp()))
-                .orElse(null);
+    @EventListener(ApplicationReadyEvent.class)
+    public void onStartup() {
+        rewardTopFreelancer();
+    }
 
+    @Scheduled(cron = "${gamification.reconcile.cron:0 */15 * * * *}")
+    public void detectAndRewardTopFreelancer() {
+        log.info("🏅 Réconciliation du Top Freelancer...");
+        xpLeaderboard.rebuild();
+        rewardTopFreelancer();
+    }
+
+    private synchronized void rewardTopFreelancer() {
+        XpLeaderboard.Entry topUser = xpLeaderboard.topFreelancer().orElse(null);
         if (topUser == null) {
             return;
         }
 
         List<UserLevel> oldTopFreelancers = userLevelService.getCurrentTopFreelancers();
+        boolean alreadyTop = false;
         for (UserLevel old : oldTopFreelancers) {
-            if (!old.getUserId().equals(topUser.getUserId())) {
+            if (!old.getUserId().equals(topUser.userId())) {
                 userLevelService.setTopFreelancer(old.getUserId(), false);
                 gamificationNotificationService.notifyTopFreelancerRevoked(old.getUserId());
                 log.info("❌ Badge TOP_FREELANCER retiré à user {}", old.getUserId());
+            } else {
+                alreadyTop = true;
             }
         }
 
-        userLevelService.setTopFreelancer(topUser.getUserId(), true);
+        if (!alreadyTop) {
+            userLevelService.setTopFreelancer(topUser.userId(), true);
+        }
+
+        // Avant le déblocage : l'XP gagné relance onXpChanged, qui doit voir la tête déjà traitée
+        if (!Objects.equals(lastNotifiedTopUserId, topUser.userId())) {
+            gamificationNotificationService.notifyTopFreelancerCrowned(topUser.userId(), topUser.xp());
+            lastNotifiedTopUserId = topUser.userId();
+        }
 
         List<Achievement> topAchievements = achievementService
                 .getByType(conditionType.TOP_FREELANCER);
 
         for (Achievement a : topAchievements) {
-            userAchievementService.unlockAchievement(topUser.getUserId(), a.getId());
-        }
-
-        if (!Objects.equals(lastNotifiedTopUserId, topUser.getUserId())) {
-            gamificationNotificationService.notifyTopFreelancerCrowned(topUser.getUserId(), topUser.getXp());
-            lastNotifiedTopUserId = topUser.getUserId();
+            userAchievementService.unlockAchievement(topUser.userId(), a.getId());
         }
 
-        log.info("🏅 User {} est le nouveau Top Freelancer ! ({}XP)",
-                topUser.getUserId(), topUser.getXp());
+        log.info("🏅 User {} est le Top Freelancer ! ({}XP)", topUser.userId(), topUser.xp());
     }
 }
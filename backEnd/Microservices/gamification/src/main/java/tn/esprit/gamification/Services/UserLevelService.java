@@ -11,11 +11,16 @@ public interface UserLevelService {
     void incrementFastResponderStreak(Long userId);
     void resetFastResponderStreak(Long userId);
     List<UserLevel> getAllUserLevels();
+    List<UserLevel> getUsersWithFastResponderStreak(int minStreak);
     List<UserLevel> getCurrentTopFreelancers();
     void setTopFreelancer(Long userId, boolean status);
 
     // 🆕 Nouveaux endpoints pour gamification avancée
     tn.esprit.gamification.Dto.UserLevelSummaryDTO getUserLevelSummary(Long userId);
     List<tn.esprit.gamification.Dto.LeaderboardEntryDTO> getLeaderboard(int topN);
+    /** Rang (1 = premier) de l'utilisateur dans le classement XP, 0 s'il n'est pas classé. */
+    int getUserRank(Long userId);
+    /** L'utilisateur et jusqu'à {@code radius} voisins de chaque côté dans le classement XP. */
+    List<tn.esprit.gamification.Dto.LeaderboardEntryDTO> getLeaderboardAround(Long userId, int radius);
     int updateAndGetActiveStreak(Long userId);
 }
@@ -2,15 +2,23 @@ package tn.esprit.gamification.Services;
 
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.stereotype.Service;
 import tn.esprit.gamification.Dto.LeaderboardEntryDTO;
 import tn.esprit.gamification.Dto.UserLevelSummaryDTO;
 import tn.esprit.gamification.Entities.UserLevel;
+import tn.esprit.gamification.Events.FastResponderStreakChangedEvent;
+import tn.esprit.gamification.Events.XpChangedEvent;
+import tn.esprit.gamification.Leaderboard.XpLeaderboard;
 import tn.esprit.gamification.Repository.UserLevelRepository;
+import tn.esprit.gamification.client.UserClient.UserResponseDTO;
+import tn.esprit.gamification.client.UserDirectory;
 
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
 import java.util.stream.Collectors;
 import java.time.LocalDate;
 import java.time.temporal.ChronoUnit;
@@ -22,7 +30,13 @@ public class UserLevelServiceImpl implements UserLevelService {
     private UserLevelRepository repo;
     
     @Autowired
-    private tn.esprit.gamification.client.UserClient userClient;
+    private ApplicationEventPublisher eventPublisher;
+
+    @Autowired
+    private XpLeaderboard xpLeaderboard;
+
+    @Autowired
+    private UserDirectory userDirectory;
 
     @Value("${gamification.xp.scale-factor:50}")
     private int xpScaleFactor;
@@ -48,14 +62,10 @@ public class UserLevelServiceImpl implements UserLevelService {
     }
 
     private void fetchAndSetRole(UserLevel ul) {
-        try {
-            tn.esprit.gamification.client.UserClient.UserResponseDTO res = userClient.getUserById(ul.getUserId());
-            if (res != null && res.getRole() != null) {
-                ul.setUserRole(res.getRole());
-            }
-        } catch (Exception e) {
-            // log...
-        }
+        // Via le cache : les créations concurrentes de profils partagent un seul appel batch au service User
+        userDirectory.find(ul.getUserId())
+                .map(UserResponseDTO::getRole)
+                .ifPresent(ul::setUserRole);
     }
 
     @Override
@@ -69,6 +79,9 @@ public class UserLevelServiceImpl implements UserLevelService {
 
         // 🚀 FORCE UPDATE DIRECT (SQL)
         repo.updateXpAndLevel(userId, ul.getXp(), ul.getLevel());
+
+        // Classement, top freelancer et achievements XP réévalués pour ce seul utilisateur
+        eventPublisher.publishEvent(new XpChangedEvent(userId, ul.getUserRole(), ul.getXp(), ul.getLevel()));
     }
 
     @Override
@@ -104,34 +117,63 @@ public class UserLevelServiceImpl implements UserLevelService {
 
     @Override
     public List<LeaderboardEntryDTO> getLeaderboard(int topN) {
-        List<UserLevel> levels = repo.findLeaderboard(PageRequest.of(0, topN));
-        List<LeaderboardEntryDTO> entries = new ArrayList<>();
-        
-        for (int i = 0; i < levels.size(); i++) {
-            UserLevel ul = levels.get(i);
-            String fullName = "User " + ul.getUserId();
-            
-            // 🆕 Fetch name from User Microservice
-            try {
-                tn.esprit.gamification.client.UserClient.UserResponseDTO user = userClient.getUserById(ul.getUserId());
-                if (user != null && user.getFirstName() != null) {
-                    fullName = user.getFirstName() + " " + (user.getLastName() != null ? user.getLastName() : "");
-                }
-            } catch (Exception e) {
-                // Keep default if user service is down
-            }
+        if (!xpLeaderboard.isLoaded()) {
+            // Classement pas encore chargé (démarrage) : lecture directe en base
+            List<XpLeaderboard.Entry> entries = repo.findLeaderboard(PageRequest.of(0, topN)).stream()
+                    .map(ul -> new XpLeaderboard.Entry(ul.getUserId(), ul.getXp()))
+                    .collect(Collectors.toList());
+            return toLeaderboardEntries(entries, 1);
+        }
+        return toLeaderboardEntries(xpLeaderboard.top(topN), 1);
+    }
 
-            entries.add(LeaderboardEntryDTO.builder()
-                    .rank(i + 1)
-                    .userId(ul.getUserId())
-                    .fullName(fullName.trim()) // 🆕
-                    .xp(ul.getXp())
-                    .level(ul.getLevel())
-                    .isTopFreelancer(ul.isTopFreelancer())
-                    .fastResponderStreak(ul.getFastResponderStreak())
+    @Override
+    public int getUserRank(Long userId) {
+        return xpLeaderboard.rankOf(userId);
+    }
+
+    @Override
+    public List<LeaderboardEntryDTO> getLeaderboardAround(Long userId, int radius) {
+        int rank = xpLeaderboard.rankOf(userId);
+        if (rank == 0) {
+            return List.of();
+        }
+        return toLeaderboardEntries(xpLeaderboard.around(userId, radius), Math.max(1, rank - Math.max(0, radius)));
+    }
+
+    /** Une requête pour les niveaux, un appel (au plus) pour les noms, quel que soit le nombre d'entrées. */
+    private List<LeaderboardEntryDTO> toLeaderboardEntries(List<XpLeaderboard.Entry> entries, int firstRank) {
+        if (entries.isEmpty()) {
+            return List.of();
+        }
+        List<Long> userIds = entries.stream().map(XpLeaderboard.Entry::userId).collect(Collectors.toList());
+        Map<Long, UserLevel> levels = repo.findByUserIdIn(userIds).stream()
+                .collect(Collectors.toMap(UserLevel::getUserId, Function.identity(), (a, b) -> a));
+        Map<Long, UserResponseDTO> users = userDirectory.findAll(userIds);
+
+        List<LeaderboardEntryDTO> result = new ArrayList<>(entries.size());
+        for (int i = 0; i < entries.size(); i++) {
+            XpLeaderboard.Entry entry = entries.get(i);
+            UserLevel ul = levels.get(entry.userId());
+            result.add(LeaderboardEntryDTO.builder()
+                    .rank(firstRank + i)
+                    .userId(entry.userId())
+                    .fullName(fullName(users.get(entry.userId()), entry.userId()))
+                    .xp(entry.xp())
+                    .level(ul != null ? ul.getLevel() : calculateLevel(entry.xp()))
+                    .isTopFreelancer(ul != null && ul.isTopFreelancer())
+                    .fastResponderStreak(ul != null ? ul.getFastResponderStreak() : 0)
                     .build());
         }
-        return entries;
+        return result;
+    }
+
+    /** Nom complet, "User {id}" quand l'utilisateur est inconnu ou que le service User ne répond pas. */
+    private static String fullName(UserResponseDTO user, Long id) {
+        if (user == null || user.getFirstName() == null) {
+            return "User " + id;
+        }
+        return (user.getFirstName() + " " + (user.getLastName() != null ? user.getLastName() : "")).trim();
     }
 
     private int calculateLevel(int xp) {
@@ -144,6 +186,7 @@ public class UserLevelServiceImpl implements UserLevelService {
         UserLevel ul = getUserLevel(userId);
         ul.setFastResponderStreak(ul.getFastResponderStreak() + 1);
         repo.save(ul);
+        eventPublisher.publishEvent(new FastResponderStreakChangedEvent(userId, ul.getFastResponderStreak()));
     }
 
     @Override
@@ -158,6 +201,11 @@ public class UserLevelServiceImpl implements UserLevelService {
         return repo.findAll();
     }
 
+    @Override
+    public List<UserLevel> getUsersWithFastResponderStreak(int minStreak) {
+        return repo.findByFastResponderStreakGreaterThanEqual(minStreak);
+    }
+
     @Override
     public List<UserLevel> getCurrentTopFreelancers() {
         return repo.findByIsTopFreelancerTrue();
@@ -4,6 +4,10 @@ import lombok.Data;
 import org.springframework.cloud.openfeign.FeignClient;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+
+import java.util.List;
 
 @FeignClient(
         name = "user-service",
@@ -15,6 +19,10 @@ public interface UserClient {
     @GetMapping("/{id}")
     UserResponseDTO getUserById(@PathVariable("id") Long id);
 
+    /** Utilisateurs des ids donnés (ids inconnus ignorés, 500 max) ; passer par {@link UserDirectory} pour le cache. */
+    @PostMapping("/batch")
+    List<UserResponseDTO> getUsersByIds(@RequestBody List<Long> ids);
+
     @Data
     class UserResponseDTO {
         private Long id;
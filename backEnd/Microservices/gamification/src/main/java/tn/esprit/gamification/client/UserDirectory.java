@@ -0,0 +1,223 @@
+package tn.esprit.gamification.client;
+
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import tn.esprit.gamification.client.UserClient.UserResponseDTO;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Cache en lecture devant {@link UserClient} pour les données d'affichage des utilisateurs (nom, rôle).
+ * <ul>
+ *   <li>les utilisateurs sont gardés {@code user.directory.ttl-ms}, au plus {@code user.directory.max-entries} ;</li>
+ *   <li>{@link #findAll} résout tous les absents du cache par un seul appel {@code POST /api/users/batch} ;</li>
+ *   <li>les appels concurrents à {@link #find} sont regroupés pendant {@code user.directory.batch-window-ms} et
+ *       envoyés en un seul appel batch ;</li>
+ *   <li>un id déjà en cours de chargement est attendu au lieu d'être redemandé.</li>
+ * </ul>
+ * Les ids inconnus et les appels en échec ne sont pas mis en cache : l'appelant n'obtient rien et garde son repli.
+ * Les échecs sont journalisés en WARN, au plus une fois par minute.
+ */
+@Slf4j
+@Component
+public class UserDirectory {
+
+    private static final long AWAIT_TIMEOUT_MS = 10_000;
+    private static final long WARN_INTERVAL_MS = 60_000;
+
+    private record Cached(UserResponseDTO user, long expiresAt) {
+    }
+
+    private final UserClient userClient;
+    private final long ttlMs;
+    private final int maxEntries;
+    private final long batchWindowMs;
+    private final int maxBatch;
+
+    private final Map<Long, Cached> cache = new ConcurrentHashMap<>();
+    /** Ids en cours de chargement, complétés avec l'utilisateur (ou null) au retour de l'appel batch. */
+    private final Map<Long, CompletableFuture<UserResponseDTO>> inFlight = new ConcurrentHashMap<>();
+    /** Recherches unitaires en attente du prochain micro-batch. */
+    private final Set<Long> queued = ConcurrentHashMap.newKeySet();
+    private final AtomicBoolean flushScheduled = new AtomicBoolean();
+    private final AtomicLong lastWarnAt = new AtomicLong();
+    private final ScheduledExecutorService flusher;
+
+    public UserDirectory(UserClient userClient,
+                         @Value("${user.directory.ttl-ms:600000}") long ttlMs,
+                         @Value("${user.directory.max-entries:10000}") int maxEntries,
+                         @Value("${user.directory.batch-window-ms:5}") long batchWindowMs,
+                         @Value("${user.directory.max-batch:500}") int maxBatch) {
+        this.userClient = userClient;
+        this.ttlMs = ttlMs;
+        this.maxEntries = maxEntries;
+        this.batchWindowMs = batchWindowMs;
+        this.maxBatch = maxBatch;
+        this.flusher = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread t = new Thread(r, "user-directory");
+            t.setDaemon(true);
+            return t;
+        });
+    }
+
+    @PreDestroy
+    void stop() {
+        flusher.shutdownNow();
+    }
+
+    /** Un utilisateur ; les recherches concurrentes d'autres ids partagent un seul appel batch. */
+    public Optional<UserResponseDTO> find(Long id) {
+        if (id == null) {
+            return Optional.empty();
+        }
+        Cached cached = fresh(id);
+        if (cached != null) {
+            return Optional.of(cached.user());
+        }
+        CompletableFuture<UserResponseDTO> mine = new CompletableFuture<>();
+        CompletableFuture<UserResponseDTO> existing = inFlight.putIfAbsent(id, mine);
+        if (existing != null) {
+            return Optional.ofNullable(await(existing));
+        }
+        queued.add(id);
+        scheduleFlush();
+        return Optional.ofNullable(await(mine));
+    }
+
+    /** Utilisateurs par id (ids inconnus absents), au plus un appel distant par tranche de {@code max-batch} absents. */
+    public Map<Long, UserResponseDTO> findAll(Collection<Long> ids) {
+        Map<Long, UserResponseDTO> result = new LinkedHashMap<>();
+        Map<Long, CompletableFuture<UserResponseDTO>> pending = new LinkedHashMap<>();
+        List<Long> owned = new ArrayList<>();
+        for (Long id : new LinkedHashSet<>(ids)) {
+            if (id == null) {
+                continue;
+            }
+            Cached cached = fresh(id);
+            if (cached != null) {
+                result.put(id, cached.user());
+                continue;
+            }
+            CompletableFuture<UserResponseDTO> mine = new CompletableFuture<>();
+            CompletableFuture<UserResponseDTO> existing = inFlight.putIfAbsent(id, mine);
+            pending.put(id, existing != null ? existing : mine);
+            if (existing == null) {
+                owned.add(id);
+            }
+        }
+        if (!owned.isEmpty()) {
+            fetch(owned);
+        }
+        pending.forEach((id, future) -> {
+            UserResponseDTO user = await(future);
+            if (user != null) {
+                result.put(id, user);
+            }
+        });
+        return result;
+    }
+
+    private Cached fresh(Long id) {
+        Cached cached = cache.get(id);
+        return cached != null && cached.expiresAt() > System.currentTimeMillis() ? cached : null;
+    }
+
+    private void scheduleFlush() {
+        if (flushScheduled.compareAndSet(false, true)) {
+            try {
+                flusher.schedule(this::flush, batchWindowMs, TimeUnit.MILLISECONDS);
+            } catch (RejectedExecutionException e) {
+                flush();
+            }
+        }
+    }
+
+    void flush() {
+        flushScheduled.set(false);
+        List<Long> ids = new ArrayList<>(queued);
+        queued.removeAll(ids);
+        if (!ids.isEmpty()) {
+            fetch(ids);
+        }
+    }
+
+    /** Charge les ids (dont l'appelant a enregistré les futures dans {@link #inFlight}) et les complète. */
+    private void fetch(List<Long> ids) {
+        for (int from = 0; from < ids.size(); from += maxBatch) {
+            List<Long> chunk = ids.subList(from, Math.min(ids.size(), from + maxBatch));
+            Map<Long, UserResponseDTO> found = new HashMap<>();
+            try {
+                List<UserResponseDTO> users = userClient.getUsersByIds(chunk);
+                if (users != null) {
+                    long expiresAt = System.currentTimeMillis() + ttlMs;
+                    for (UserResponseDTO user : users) {
+                        if (user != null && user.getId() != null) {
+                            found.put(user.getId(), user);
+                            put(user.getId(), new Cached(user, expiresAt));
+                        }
+                    }
+                }
+            } catch (Exception e) {
+                logFailure(chunk.size(), e);
+            } finally {
+                for (Long id : chunk) {
+                    CompletableFuture<UserResponseDTO> future = inFlight.remove(id);
+                    if (future != null) {
+                        future.complete(found.get(id));
+                    }
+                }
+            }
+        }
+    }
+
+    /** WARN au plus une fois par {@link #WARN_INTERVAL_MS} pour qu'une panne soit visible sans inonder les logs ; DEBUG sinon. */
+    private void logFailure(int count, Exception e) {
+        long now = System.currentTimeMillis();
+        long last = lastWarnAt.get();
+        if (now - last >= WARN_INTERVAL_MS && lastWarnAt.compareAndSet(last, now)) {
+            log.warn("Chargement de {} utilisateur(s) impossible : {}", count, e.getMessage());
+        } else {
+            log.debug("Chargement de {} utilisateur(s) impossible : {}", count, e.getMessage());
+        }
+    }
+
+    private void put(Long id, Cached cached) {
+        if (cache.size() >= maxEntries) {
+            long now = System.currentTimeMillis();
+            cache.values().removeIf(c -> c.expiresAt() <= now);
+            if (cache.size() >= maxEntries) {
+                cache.clear();
+            }
+        }
+        cache.put(id, cached);
+    }
+
+    private static UserResponseDTO await(CompletableFuture<UserResponseDTO> future) {
+        try {
+            return future.get(AWAIT_TIMEOUT_MS, TimeUnit.MILLISECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return null;
+        } catch (Exception e) {
+            return null;
+        }
+    }
+}
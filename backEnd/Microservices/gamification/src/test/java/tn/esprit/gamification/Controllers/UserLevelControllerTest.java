@@ -94,6 +94,28 @@ class UserLevelControllerTest {
                 .andExpect(jsonPath("$[0].level").value(3));
     }
 
+    @Test
+    void getRank_nominalCase() throws Exception {
+        when(service.getUserRank(1L)).thenReturn(7);
+
+        mockMvc.perform(get("/api/user-level/{userId}/rank", 1L))
+                .andExpect(status().isOk())
+                .andExpect(content().string("7"));
+    }
+
+    @Test
+    void getLeaderboardAround_nominalCase() throws Exception {
+        LeaderboardEntryDTO entry = LeaderboardEntryDTO.builder().rank(7).userId(1L).fullName("John Doe").xp(90).build();
+
+        when(service.getLeaderboardAround(1L, 2)).thenReturn(List.of(entry));
+
+        mockMvc.perform(get("/api/user-level/{userId}/leaderboard", 1L)
+                .param("radius", "2"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[0].rank").value(7))
+                .andExpect(jsonPath("$[0].userId").value(1L));
+    }
+
     @Test
     void updateStreak_nominalCase() throws Exception {
         when(service.updateAndGetActiveStreak(1L)).thenReturn(5);
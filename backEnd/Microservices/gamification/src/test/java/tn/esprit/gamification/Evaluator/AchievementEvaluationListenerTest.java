@@ -0,0 +1,64 @@
+package tn.esprit.gamification.Evaluator;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import tn.esprit.gamification.Entities.Achievement;
+import tn.esprit.gamification.Entities.Enums.conditionType;
+import tn.esprit.gamification.Events.XpChangedEvent;
+import tn.esprit.gamification.Services.AchievementService;
+import tn.esprit.gamification.Services.UserAchievementService;
+
+import java.util.List;
+
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class AchievementEvaluationListenerTest {
+
+    @Mock
+    private AchievementService achievementService;
+
+    @Mock
+    private UserAchievementService userAchievementService;
+
+    @Mock
+    private AchievementEvaluatorRegistry evaluatorRegistry;
+
+    @InjectMocks
+    private AchievementEvaluationListener listener;
+
+    private static Achievement xpAchievement(Long id, int threshold) {
+        Achievement a = new Achievement();
+        a.setId(id);
+        a.setConditionType(conditionType.XP_REACHED);
+        a.setConditionThreshold(threshold);
+        return a;
+    }
+
+    @Test
+    void onXpChanged_unlocksReachedThresholdsForThatUserOnly() {
+        when(achievementService.getByType(conditionType.XP_REACHED))
+                .thenReturn(List.of(xpAchievement(1L, 100), xpAchievement(2L, 500)));
+        when(evaluatorRegistry.evaluate(conditionType.XP_REACHED, 4L)).thenReturn(250);
+
+        listener.onXpChanged(new XpChangedEvent(4L, "FREELANCER", 250, 3));
+
+        verify(userAchievementService).unlockAchievement(4L, 1L);
+        verify(userAchievementService, never()).unlockAchievement(4L, 2L);
+        verify(evaluatorRegistry, times(1)).evaluate(conditionType.XP_REACHED, 4L);
+    }
+
+    @Test
+    void onXpChanged_noXpAchievements_skipsEvaluation() {
+        when(achievementService.getByType(conditionType.XP_REACHED)).thenReturn(List.of());
+
+        listener.onXpChanged(new XpChangedEvent(4L, "FREELANCER", 250, 3));
+
+        verifyNoInteractions(evaluatorRegistry);
+        verify(userAchievementService, never()).unlockAchievement(anyLong(), anyLong());
+    }
+}
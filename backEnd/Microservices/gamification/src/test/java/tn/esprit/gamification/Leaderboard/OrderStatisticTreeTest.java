@@ -0,0 +1,66 @@
+package tn.esprit.gamification.Leaderboard;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Random;
+import java.util.TreeSet;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class OrderStatisticTreeTest {
+
+    @Test
+    void rankGetAndRange_matchSortedOrder() {
+        OrderStatisticTree<Integer> tree = new OrderStatisticTree<>(Comparator.reverseOrder());
+        for (int v : new int[]{5, 1, 9, 3, 7}) {
+            tree.add(v);
+        }
+
+        assertThat(tree.size()).isEqualTo(5);
+        assertThat(tree.rank(9)).isZero();
+        assertThat(tree.rank(3)).isEqualTo(3);
+        assertThat(tree.rank(4)).isEqualTo(-1);
+        assertThat(tree.get(1)).isEqualTo(7);
+        assertThat(tree.range(1, 3)).containsExactly(7, 5, 3);
+        assertThat(tree.range(4, 10)).containsExactly(1);
+        assertThat(tree.range(0, 0)).isEmpty();
+    }
+
+    @Test
+    void addRemove_ignoreDuplicatesAndMissingValues() {
+        OrderStatisticTree<Integer> tree = new OrderStatisticTree<>(Comparator.naturalOrder());
+
+        assertThat(tree.add(2)).isTrue();
+        assertThat(tree.add(2)).isFalse();
+        assertThat(tree.remove(3)).isFalse();
+        assertThat(tree.remove(2)).isTrue();
+        assertThat(tree.size()).isZero();
+    }
+
+    @Test
+    void randomOperations_agreeWithTreeSet() {
+        OrderStatisticTree<Integer> tree = new OrderStatisticTree<>(Comparator.naturalOrder());
+        TreeSet<Integer> expected = new TreeSet<>();
+        Random random = new Random(42);
+
+        for (int i = 0; i < 5_000; i++) {
+            int v = random.nextInt(1_000);
+            if (random.nextBoolean()) {
+                assertThat(tree.add(v)).isEqualTo(expected.add(v));
+            } else {
+                assertThat(tree.remove(v)).isEqualTo(expected.remove(v));
+            }
+        }
+
+        List<Integer> sorted = new ArrayList<>(expected);
+        assertThat(tree.size()).isEqualTo(sorted.size());
+        assertThat(tree.range(0, sorted.size())).isEqualTo(sorted);
+        for (int v : sorted) {
+            assertThat(tree.rank(v)).isEqualTo(Collections.binarySearch(sorted, v));
+        }
+    }
+}
@@ -0,0 +1,102 @@
+package tn.esprit.gamification.Leaderboard;
+
+import org.junit.jupiter.api.Test;
+import tn.esprit.gamification.Entities.UserLevel;
+import org.springframework.data.domain.PageRequest;
+import tn.esprit.gamification.Events.XpChangedEvent;
+import tn.esprit.gamification.Repository.UserLevelRepository;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.*;
+
+class XpLeaderboardTest {
+
+    private static UserLevel level(Long id, String role, int xp) {
+        UserLevel ul = new UserLevel();
+        ul.setId(id);
+        ul.setUserId(id * 10);
+        ul.setUserRole(role);
+        ul.setXp(xp);
+        return ul;
+    }
+
+    @Test
+    void rebuild_pagesByIdAndKeepsFreelancersWithXpOnly() {
+        UserLevelRepository repo = mock(UserLevelRepository.class);
+        when(repo.findByIdGreaterThanOrderByIdAsc(0L, PageRequest.of(0, 2)))
+                .thenReturn(List.of(level(1L, "FREELANCER", 50), level(2L, "CLIENT", 900)));
+        when(repo.findByIdGreaterThanOrderByIdAsc(2L, PageRequest.of(0, 2)))
+                .thenReturn(List.of(level(3L, "FREELANCER", 0), level(4L, "FREELANCER", 70)));
+        when(repo.findByIdGreaterThanOrderByIdAsc(4L, PageRequest.of(0, 2))).thenReturn(List.of());
+        XpLeaderboard leaderboard = new XpLeaderboard(repo, 2);
+
+        int size = leaderboard.rebuild();
+
+        assertThat(size).isEqualTo(4);
+        assertThat(leaderboard.freelancerCount()).isEqualTo(2);
+        assertThat(leaderboard.topFreelancer()).contains(new XpLeaderboard.Entry(40L, 70));
+        assertThat(leaderboard.top(2)).containsExactly(new XpLeaderboard.Entry(20L, 900), new XpLeaderboard.Entry(40L, 70));
+        verify(repo, never()).findAll();
+    }
+
+    @Test
+    void onXpChanged_movesTheUserAndBreaksTiesByUserId() {
+        XpLeaderboard leaderboard = new XpLeaderboard(mock(UserLevelRepository.class), 500);
+
+        leaderboard.onXpChanged(new XpChangedEvent(2L, "FREELANCER", 100, 2));
+        leaderboard.onXpChanged(new XpChangedEvent(1L, "FREELANCER", 80, 2));
+        leaderboard.onXpChanged(new XpChangedEvent(1L, "FREELANCER", 100, 2));
+
+        assertThat(leaderboard.size()).isEqualTo(2);
+        assertThat(leaderboard.topFreelancer()).contains(new XpLeaderboard.Entry(1L, 100));
+    }
+
+    @Test
+    void topFreelancer_emptyBoard_isEmpty() {
+        XpLeaderboard leaderboard = new XpLeaderboard(mock(UserLevelRepository.class), 500);
+
+        leaderboard.update(9L, "CLIENT", 300);
+
+        assertThat(leaderboard.topFreelancer()).isEmpty();
+    }
+
+    @Test
+    void rankOfAndAround_followXpChanges() {
+        XpLeaderboard leaderboard = new XpLeaderboard(mock(UserLevelRepository.class), 500);
+        for (long id = 1; id <= 6; id++) {
+            leaderboard.update(id, "FREELANCER", (int) id * 10); // 6 en tête, 1 dernier
+        }
+
+        assertThat(leaderboard.rankOf(4L)).isEqualTo(3);
+        assertThat(leaderboard.around(4L, 1)).extracting(XpLeaderboard.Entry::userId).containsExactly(5L, 4L, 3L);
+        assertThat(leaderboard.around(6L, 2)).extracting(XpLeaderboard.Entry::userId).containsExactly(6L, 5L, 4L);
+
+        leaderboard.update(1L, "FREELANCER", 100);
+
+        assertThat(leaderboard.rankOf(1L)).isEqualTo(1);
+        assertThat(leaderboard.rankOf(4L)).isEqualTo(4);
+        assertThat(leaderboard.rankOf(99L)).isZero();
+        assertThat(leaderboard.around(99L, 3)).isEmpty();
+    }
+
+    @Test
+    void rebuild_keepsServingTheOldBoardAndReplaysUpdatesReceivedMeanwhile() {
+        UserLevelRepository repo = mock(UserLevelRepository.class);
+        XpLeaderboard leaderboard = new XpLeaderboard(repo, 500);
+        leaderboard.update(10L, "FREELANCER", 500);
+        when(repo.findByIdGreaterThanOrderByIdAsc(0L, PageRequest.of(0, 500))).thenAnswer(inv -> {
+            // Pendant le scan : l'ancien classement reste lisible, et une XP validée arrive
+            assertThat(leaderboard.topFreelancer()).contains(new XpLeaderboard.Entry(10L, 500));
+            leaderboard.update(30L, "FREELANCER", 900);
+            return List.of(level(1L, "FREELANCER", 500), level(3L, "FREELANCER", 100));
+        });
+
+        int size = leaderboard.rebuild();
+
+        assertThat(size).isEqualTo(2);
+        assertThat(leaderboard.topFreelancer()).contains(new XpLeaderboard.Entry(30L, 900));
+        assertThat(leaderboard.rankOf(10L)).isEqualTo(2);
+    }
+}
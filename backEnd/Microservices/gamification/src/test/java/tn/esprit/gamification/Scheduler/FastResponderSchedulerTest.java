@@ -8,6 +8,7 @@ import org.mockito.junit.jupiter.MockitoExtension;
 import tn.esprit.gamification.Entities.Achievement;
 import tn.esprit.gamification.Entities.Enums.conditionType;
 import tn.esprit.gamification.Entities.UserLevel;
+import tn.esprit.gamification.Events.FastResponderStreakChangedEvent;
 import tn.esprit.gamification.Services.AchievementService;
 import tn.esprit.gamification.Services.GamificationNotificationService;
 import tn.esprit.gamification.Services.UserAchievementService;
@@ -38,16 +39,12 @@ class FastResponderSchedulerTest {
 
     @Test
     void checkFastResponders_noUsersMeetingStreak_doesNothing() {
-        UserLevel ul = new UserLevel();
-        ul.setUserId(1L);
-        ul.setFastResponderStreak(2); // Less than 3
-
-        when(userLevelService.getAllUserLevels()).thenReturn(List.of(ul));
-        when(achievementService.getByType(conditionType.FAST_RESPONDER)).thenReturn(List.of());
+        when(userLevelService.getUsersWithFastResponderStreak(3)).thenReturn(List.of());
 
         scheduler.checkFastResponders();
 
         verify(userLevelService, never()).resetFastResponderStreak(anyLong());
+        verify(userLevelService, never()).getAllUserLevels();
     }
 
     @Test
@@ -56,7 +53,7 @@ class FastResponderSchedulerTest {
         ul.setUserId(1L);
         ul.setFastResponderStreak(4); // >= 3
 
-        when(userLevelService.getAllUserLevels()).thenReturn(List.of(ul));
+        when(userLevelService.getUsersWithFastResponderStreak(3)).thenReturn(List.of(ul));
 
         Achievement a = new Achievement();
         a.setId(10L);
@@ -69,4 +66,27 @@ class FastResponderSchedulerTest {
         verify(userLevelService).resetFastResponderStreak(1L);
         verify(gamificationNotificationService).notifyFastResponderBadge(1L, "Lightning Fast");
     }
+
+    @Test
+    void onStreakChanged_belowThreshold_doesNothing() {
+        scheduler.onStreakChanged(new FastResponderStreakChangedEvent(1L, 2));
+
+        verifyNoInteractions(userAchievementService, gamificationNotificationService);
+        verify(userLevelService, never()).resetFastResponderStreak(anyLong());
+    }
+
+    @Test
+    void onStreakChanged_reachingThreshold_rewardsThatUserOnly() {
+        Achievement a = new Achievement();
+        a.setId(10L);
+        a.setTitle("Lightning Fast");
+        when(achievementService.getByType(conditionType.FAST_RESPONDER)).thenReturn(List.of(a));
+
+        scheduler.onStreakChanged(new FastResponderStreakChangedEvent(8L, 3));
+
+        verify(userAchievementService).unlockAchievement(8L, 10L);
+        verify(userLevelService).resetFastResponderStreak(8L);
+        verify(gamificationNotificationService).notifyFastResponderBadge(8L, "Lightning Fast");
+        verify(userLevelService, never()).getUsersWithFastResponderStreak(anyInt());
+    }
 }
@@ -1,13 +1,18 @@
 package tn.esprit.gamification.Scheduler;
 
+import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
-import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
 import tn.esprit.gamification.Entities.Achievement;
 import tn.esprit.gamification.Entities.Enums.conditionType;
 import tn.esprit.gamification.Entities.UserLevel;
+import tn.esprit.gamification.Events.XpChangedEvent;
+import tn.esprit.gamification.Leaderboard.XpLeaderboard;
+import tn.esprit.gamification.Repository.UserLevelRepository;
 import tn.esprit.gamification.Services.AchievementService;
 import tn.esprit.gamification.Services.GamificationNotificationService;
 import tn.esprit.gamification.Services.UserAchievementService;
@@ -15,6 +20,8 @@ import tn.esprit.gamification.Services.UserLevelService;
 
 import java.util.List;
 
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
 import static org.mockito.ArgumentMatchers.anyLong;
 import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.*;
@@ -25,6 +32,9 @@ class TopFreelancerSchedulerTest {
     @Mock
     private UserLevelService userLevelService;
 
+    @Mock
+    private UserLevelRepository userLevelRepository;
+
     @Mock
     private AchievementService achievementService;
 
@@ -34,12 +44,28 @@ class TopFreelancerSchedulerTest {
     @Mock
     private GamificationNotificationService notificationService;
 
-    @InjectMocks
+    private XpLeaderboard xpLeaderboard;
     private TopFreelancerScheduler scheduler;
 
+    @BeforeEach
+    void setUp() {
+        xpLeaderboard = new XpLeaderboard(userLevelRepository, 500);
+        scheduler = new TopFreelancerScheduler(userLevelService, achievementService, userAchievementService,
+                notificationService, xpLeaderboard);
+    }
+
+    private static UserLevel level(Long id, Long userId, String role, int xp) {
+        UserLevel ul = new UserLevel();
+        ul.setId(id);
+        ul.setUserId(userId);
+        ul.setUserRole(role);
+        ul.setXp(xp);
+        return ul;
+    }
+
     @Test
     void detectAndRewardTopFreelancer_noUsers_doesNothing() {
-        when(userLevelService.getAllUserLevels()).thenReturn(List.of());
+        when(userLevelRepository.findByIdGreaterThanOrderByIdAsc(0L, PageRequest.of(0, 500))).thenReturn(List.of());
 
         scheduler.detectAndRewardTopFreelancer();
 
@@ -48,12 +74,8 @@ class TopFreelancerSchedulerTest {
 
     @Test
     void detectAndRewardTopFreelancer_noFreelancersWithXp_doesNothing() {
-        UserLevel ul = new UserLevel();
-        ul.setUserId(1L);
-        ul.setUserRole("CLIENT"); // Only FREELANCER is allowed
-        ul.setXp(500);
-
-        when(userLevelService.getAllUserLevels()).thenReturn(List.of(ul));
+        when(userLevelRepository.findByIdGreaterThanOrderByIdAsc(0L, PageRequest.of(0, 500)))
+                .thenReturn(List.of(level(1L, 1L, "CLIENT", 500))); // Only FREELANCER is allowed
 
         scheduler.detectAndRewardTopFreelancer();
 
@@ -62,17 +84,9 @@ class TopFreelancerSchedulerTest {
 
     @Test
     void detectAndRewardTopFreelancer_nominalCase_crownsTopAndRevokesOld() {
-        UserLevel oldTop = new UserLevel();
-        oldTop.setUserId(1L);
-        oldTop.setUserRole("FREELANCER");
-        oldTop.setXp(100);
-
-        UserLevel currentTop = new UserLevel();
-        currentTop.setUserId(2L);
-        currentTop.setUserRole("FREELANCER");
-        currentTop.setXp(200); // 2L has more XP
-
-        when(userLevelService.getAllUserLevels()).thenReturn(List.of(oldTop, currentTop));
+        UserLevel oldTop = level(1L, 1L, "FREELANCER", 100);
+        UserLevel currentTop = level(2L, 2L, "FREELANCER", 200); // 2L has more XP
+        when(userLevelRepository.findByIdGreaterThanOrderByIdAsc(0L, PageRequest.of(0, 500))).thenReturn(List.of(oldTop, currentTop));
 
         // Let's say 1L was previously designated top freelancer
         when(userLevelService.getCurrentTopFreelancers()).thenReturn(List.of(oldTop));
@@ -92,4 +106,29 @@ class TopFreelancerSchedulerTest {
         verify(userAchievementService).unlockAchievement(2L, 10L);
         verify(notificationService).notifyTopFreelancerCrowned(2L, 200);
     }
+
+    @Test
+    void onXpChanged_crownsOnlyWhenTheLeaderChanges_withoutScanningUsers() {
+        when(userLevelService.getCurrentTopFreelancers()).thenReturn(List.of());
+        when(achievementService.getByType(conditionType.TOP_FREELANCER)).thenReturn(List.of());
+
+        XpChangedEvent first = new XpChangedEvent(5L, "FREELANCER", 300, 3);
+        xpLeaderboard.onXpChanged(first);
+        scheduler.onXpChanged(first);
+        XpChangedEvent lower = new XpChangedEvent(6L, "FREELANCER", 100, 2);
+        xpLeaderboard.onXpChanged(lower);
+        scheduler.onXpChanged(lower);
+
+        verify(notificationService).notifyTopFreelancerCrowned(5L, 300);
+        verify(notificationService, never()).notifyTopFreelancerCrowned(eq(6L), anyInt());
+        verify(userLevelService, never()).getAllUserLevels();
+        verify(userLevelRepository, never()).findByIdGreaterThanOrderByIdAsc(anyLong(), any(Pageable.class));
+    }
+
+    @Test
+    void onXpChanged_clientEvent_isIgnored() {
+        scheduler.onXpChanged(new XpChangedEvent(7L, "CLIENT", 1000, 5));
+
+        verifyNoInteractions(notificationService);
+    }
 }
@@ -5,17 +5,21 @@ import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.data.domain.PageRequest;
 import tn.esprit.gamification.Dto.LeaderboardEntryDTO;
 import tn.esprit.gamification.Dto.UserLevelSummaryDTO;
 import tn.esprit.gamification.Entities.UserLevel;
+import tn.esprit.gamification.Events.XpChangedEvent;
+import tn.esprit.gamification.Leaderboard.XpLeaderboard;
 import tn.esprit.gamification.Repository.UserLevelRepository;
-import tn.esprit.gamification.client.UserClient;
+import tn.esprit.gamification.client.UserDirectory;
 import tn.esprit.gamification.client.UserClient.UserResponseDTO;
 
 import java.lang.reflect.Field;
 import java.time.LocalDate;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 
 import static org.assertj.core.api.Assertions.assertThat;
@@ -30,7 +34,13 @@ class UserLevelServiceImplTest {
     private UserLevelRepository repository;
 
     @Mock
-    private UserClient userClient;
+    private ApplicationEventPublisher eventPublisher;
+
+    @Mock
+    private XpLeaderboard xpLeaderboard;
+
+    @Mock
+    private UserDirectory userDirectory;
 
     @InjectMocks
     private UserLevelServiceImpl service;
@@ -46,7 +56,7 @@ class UserLevelServiceImplTest {
 
         assertThat(result).isNotNull();
         assertThat(result.getUserId()).isEqualTo(1L);
-        verify(userClient, never()).getUserById(any());
+        verify(userDirectory, never()).find(any());
     }
 
     @Test
@@ -54,7 +64,7 @@ class UserLevelServiceImplTest {
         when(repository.findByUserId(1L)).thenReturn(Optional.empty());
         UserResponseDTO user = new UserResponseDTO();
         user.setRole("FREELANCER");
-        when(userClient.getUserById(1L)).thenReturn(user);
+        when(userDirectory.find(1L)).thenReturn(Optional.of(user));
 
         UserLevel saved = new UserLevel();
         saved.setUserId(1L);
@@ -65,7 +75,7 @@ class UserLevelServiceImplTest {
 
         assertThat(result).isNotNull();
         assertThat(result.getUserRole()).isEqualTo("FREELANCER");
-        verify(userClient).getUserById(1L);
+        verify(userDirectory).find(1L);
         verify(repository).save(any(UserLevel.class));
     }
 
@@ -85,6 +95,7 @@ class UserLevelServiceImplTest {
         service.addXp(1L, 90); // Total 100 XP -> level = floor(sqrt(100/50)) + 1 = sqrt(2) + 1 = 1 + 1 = 2
 
         verify(repository).updateXpAndLevel(1L, 100, 2);
+        verify(eventPublisher).publishEvent(new XpChangedEvent(1L, "FREELANCER", 100, 2));
     }
 
     @Test
@@ -93,18 +104,62 @@ class UserLevelServiceImplTest {
         ul.setUserId(1L);
         ul.setXp(500);
         ul.setLevel(4);
-        
-        when(repository.findLeaderboard(any(PageRequest.class))).thenReturn(List.of(ul));
-        
-        UserResponseDTO user = new UserResponseDTO();
-        user.setFirstName("John");
-        user.setLastName("Doe");
-        when(userClient.getUserById(1L)).thenReturn(user);
+        ul.setTopFreelancer(true);
+
+        when(xpLeaderboard.isLoaded()).thenReturn(true);
+        when(xpLeaderboard.top(10)).thenReturn(List.of(new XpLeaderboard.Entry(1L, 500), new XpLeaderboard.Entry(2L, 0)));
+        when(repository.findByUserIdIn(List.of(1L, 2L))).thenReturn(List.of(ul));
+        when(userDirectory.findAll(List.of(1L, 2L))).thenReturn(Map.of(1L, user("John", "Doe")));
 
         List<LeaderboardEntryDTO> result = service.getLeaderboard(10);
 
-        assertThat(result).hasSize(1);
+        assertThat(result).hasSize(2);
         assertThat(result.get(0).getFullName()).isEqualTo("John Doe");
+        assertThat(result.get(1).getFullName()).isEqualTo("User 2");
         assertThat(result.get(0).getXp()).isEqualTo(500);
+        assertThat(result.get(0).isTopFreelancer()).isTrue();
+        assertThat(result.get(1).getRank()).isEqualTo(2);
+        assertThat(result.get(1).getLevel()).isEqualTo(1);
+        verify(repository, never()).findLeaderboard(any());
+        verify(userDirectory, never()).find(any());
+    }
+
+    @Test
+    void getLeaderboard_boardNotLoaded_readsFromDatabase() {
+        UserLevel ul = new UserLevel();
+        ul.setUserId(1L);
+        ul.setXp(500);
+        ul.setLevel(4);
+        when(xpLeaderboard.isLoaded()).thenReturn(false);
+        when(repository.findLeaderboard(any(PageRequest.class))).thenReturn(List.of(ul));
+        when(repository.findByUserIdIn(List.of(1L))).thenReturn(List.of(ul));
+        when(userDirectory.findAll(List.of(1L))).thenReturn(Map.of(1L, user("John", "Doe")));
+
+        List<LeaderboardEntryDTO> result = service.getLeaderboard(10);
+
+        assertThat(result).extracting(LeaderboardEntryDTO::getFullName).containsExactly("John Doe");
+        assertThat(result.get(0).getLevel()).isEqualTo(4);
+    }
+
+    @Test
+    void getLeaderboardAround_ranksStartBeforeTheUser() {
+        when(xpLeaderboard.rankOf(5L)).thenReturn(4);
+        when(xpLeaderboard.around(5L, 1)).thenReturn(List.of(
+                new XpLeaderboard.Entry(7L, 300), new XpLeaderboard.Entry(5L, 200), new XpLeaderboard.Entry(9L, 100)));
+        when(repository.findByUserIdIn(any())).thenReturn(List.of());
+        when(userDirectory.findAll(any())).thenReturn(Map.of(7L, user("A", null), 5L, user("B", null)));
+
+        List<LeaderboardEntryDTO> result = service.getLeaderboardAround(5L, 1);
+
+        assertThat(result).extracting(LeaderboardEntryDTO::getRank).containsExactly(3, 4, 5);
+        assertThat(result.get(1).getUserId()).isEqualTo(5L);
+        assertThat(result).extracting(LeaderboardEntryDTO::getFullName).containsExactly("A", "B", "User 9");
+    }
+
+    private static UserResponseDTO user(String firstName, String lastName) {
+        UserResponseDTO user = new UserResponseDTO();
+        user.setFirstName(firstName);
+        user.setLastName(lastName);
+        return user;
     }
 }
@@ -0,0 +1,225 @@
+package com.esprit.planning.client;
+
+import com.esprit.planning.dto.UserDto;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Read-through cache in front of {@link UserClient} for user display data (names, e-mail, role).
+ * <ul>
+ *   <li>users are kept {@code user.directory.ttl-ms}, at most {@code user.directory.max-entries} of them;</li>
+ *   <li>{@link #findAll} resolves every cache miss with one {@code POST /api/users/batch} call;</li>
+ *   <li>concurrent {@link #find} calls are collected for {@code user.directory.batch-window-ms} and sent as one
+ *       batch call;</li>
+ *   <li>an id already being fetched is awaited instead of fetched again.</li>
+ * </ul>
+ * Unknown ids and failed calls are not cached: the caller gets no user and keeps its own fallback. Failed calls are
+ * logged at WARN, at most once per minute.
+ */
+@Component
+public class UserDirectory {
+
+    private static final Logger log = LoggerFactory.getLogger(UserDirectory.class);
+
+    private static final long AWAIT_TIMEOUT_MS = 10_000;
+    private static final long WARN_INTERVAL_MS = 60_000;
+
+    private record Cached(UserDto user, long expiresAt) {
+    }
+
+    private final UserClient userClient;
+    private final long ttlMs;
+    private final int maxEntries;
+    private final long batchWindowMs;
+    private final int maxBatch;
+
+    private final Map<Long, Cached> cache = new ConcurrentHashMap<>();
+    /** Ids being fetched, completed with the user (or null) once the batch call returns. */
+    private final Map<Long, CompletableFuture<UserDto>> inFlight = new ConcurrentHashMap<>();
+    /** Single lookups waiting for the next micro-batch. */
+    private final Set<Long> queued = ConcurrentHashMap.newKeySet();
+    private final AtomicBoolean flushScheduled = new AtomicBoolean();
+    private final AtomicLong lastWarnAt = new AtomicLong();
+    private final ScheduledExecutorService flusher;
+
+    public UserDirectory(UserClient userClient,
+                         @Value("${user.directory.ttl-ms:600000}") long ttlMs,
+                         @Value("${user.directory.max-entries:10000}") int maxEntries,
+                         @Value("${user.directory.batch-window-ms:5}") long batchWindowMs,
+                         @Value("${user.directory.max-batch:500}") int maxBatch) {
+        this.userClient = userClient;
+        this.ttlMs = ttlMs;
+        this.maxEntries = maxEntries;
+        this.batchWindowMs = batchWindowMs;
+        this.maxBatch = maxBatch;
+        this.flusher = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread t = new Thread(r, "user-directory");
+            t.setDaemon(true);
+            return t;
+        });
+    }
+
+    @PreDestroy
+    void stop() {
+        flusher.shutdownNow();
+    }
+
+    /** One user; concurrent lookups of other ids share a single batch call. */
+    public Optional<UserDto> find(Long id) {
+        if (id == null) {
+            return Optional.empty();
+        }
+        Cached cached = fresh(id);
+        if (cached != null) {
+            return Optional.of(cached.user());
+        }
+        CompletableFuture<UserDto> mine = new CompletableFuture<>();
+        CompletableFuture<UserDto> existing = inFlight.putIfAbsent(id, mine);
+        if (existing != null) {
+            return Optional.ofNullable(await(existing));
+        }
+        queued.add(id);
+        scheduleFlush();
+        return Optional.ofNullable(await(mine));
+    }
+
+    /** Users by id for the given ids (unknown ids are absent), with at most one remote call per {@code max-batch} misses. */
+    public Map<Long, UserDto> findAll(Collection<Long> ids) {
+        Map<Long, UserDto> result = new LinkedHashMap<>();
+        Map<Long, CompletableFuture<UserDto>> pending = new LinkedHashMap<>();
+        List<Long> owned = new ArrayList<>();
+        for (Long id : new LinkedHashSet<>(ids)) {
+            if (id == null) {
+                continue;
+            }
+            Cached cached = fresh(id);
+            if (cached != null) {
+                result.put(id, cached.user());
+                continue;
+            }
+            CompletableFuture<UserDto> mine = new CompletableFuture<>();
+            CompletableFuture<UserDto> existing = inFlight.putIfAbsent(id, mine);
+            pending.put(id, existing != null ? existing : mine);
+            if (existing == null) {
+                owned.add(id);
+            }
+        }
+        if (!owned.isEmpty()) {
+            fetch(owned);
+        }
+        pending.forEach((id, future) -> {
+            UserDto user = await(future);
+            if (user != null) {
+                result.put(id, user);
+            }
+        });
+        return result;
+    }
+
+    private Cached fresh(Long id) {
+        Cached cached = cache.get(id);
+        return cached != null && cached.expiresAt() > System.currentTimeMillis() ? cached : null;
+    }
+
+    private void scheduleFlush() {
+        if (flushScheduled.compareAndSet(false, true)) {
+            try {
+                flusher.schedule(this::flush, batchWindowMs, TimeUnit.MILLISECONDS);
+            } catch (RejectedExecutionException e) {
+                flush();
+            }
+        }
+    }
+
+    void flush() {
+        flushScheduled.set(false);
+        List<Long> ids = new ArrayList<>(queued);
+        queued.removeAll(ids);
+        if (!ids.isEmpty()) {
+            fetch(ids);
+        }
+    }
+
+    /** Fetches the ids (whose futures the caller registered in {@link #inFlight}) and completes them. */
+    private void fetch(List<Long> ids) {
+        for (int from = 0; from < ids.size(); from += maxBatch) {
+            List<Long> chunk = ids.subList(from, Math.min(ids.size(), from + maxBatch));
+            Map<Long, UserDto> found = new HashMap<>();
+            try {
+                List<UserDto> users = userClient.getUsersByIds(chunk);
+                if (users != null) {
+                    long expiresAt = System.currentTimeMillis() + ttlMs;
+                    for (UserDto user : users) {
+                        if (user != null && user.getId() != null) {
+                            found.put(user.getId(), user);
+                            put(user.getId(), new Cached(user, expiresAt));
+                        }
+                    }
+                }
+            } catch (Exception e) {
+                logFailure(chunk.size(), e);
+            } finally {
+                for (Long id : chunk) {
+                    CompletableFuture<UserDto> future = inFlight.remove(id);
+                    if (future != null) {
+                        future.complete(found.get(id));
+                    }
+                }
+            }
+        }
+    }
+
+    /** WARN once per {@link #WARN_INTERVAL_MS} so an outage is visible without flooding the log; DEBUG otherwise. */
+    private void logFailure(int count, Exception e) {
+        long now = System.currentTimeMillis();
+        long last = lastWarnAt.get();
+        if (now - last >= WARN_INTERVAL_MS && lastWarnAt.compareAndSet(last, now)) {
+            log.warn("Could not load {} user(s) from the user service: {}", count, e.getMessage());
+        } else {
+            log.debug("Could not load {} user(s) from the user service: {}", count, e.getMessage());
+        }
+    }
+
+    private void put(Long id, Cached cached) {
+        if (cache.size() >= maxEntries) {
+            long now = System.currentTimeMillis();
+            cache.values().removeIf(c -> c.expiresAt() <= now);
+            if (cache.size() >= maxEntries) {
+                cache.clear();
+            }
+        }
+        cache.put(id, cached);
+    }
+
+    private static UserDto await(CompletableFuture<UserDto> future) {
+        try {
+            return future.get(AWAIT_TIMEOUT_MS, TimeUnit.MILLISECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return null;
+        } catch (Exception e) {
+            return null;
+        }
+    }
+}
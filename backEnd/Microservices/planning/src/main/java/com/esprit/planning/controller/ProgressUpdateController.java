@@ -12,6 +12,7 @@ import com.esprit.planning.entity.ProgressComment;
 import com.esprit.planning.entity.ProgressUpdate;
 import com.esprit.planning.service.ProgressCommentService;
 import com.esprit.planning.service.FreelancerProjectAccessService;
+import com.esprit.planning.service.ProgressUpdateExportService;
 import com.esprit.planning.service.ProgressUpdateService;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.Parameter;
@@ -30,6 +31,7 @@ import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 import org.springframework.web.server.ResponseStatusException;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 import java.time.LocalDate;
 import java.util.List;
@@ -51,15 +53,18 @@ public class ProgressUpdateController {
 
     private final ProgressUpdateService progressUpdateService;
     private final ProgressCommentService progressCommentService;
+    private final ProgressUpdateExportService progressUpdateExportService;
     private final ObjectProvider<FreelancerProjectAccessService> freelancerProjectAccessServiceProvider;
     private final String welcomeMessage;
 
     public ProgressUpdateController(ProgressUpdateService progressUpdateService,
                                     ProgressCommentService progressCommentService,
+                                    ProgressUpdateExportService progressUpdateExportService,
                                     ObjectProvider<FreelancerProjectAccessService> freelancerProjectAccessServiceProvider,
                                     @Value("${welcome.message}") String welcomeMessage) {
         this.progressUpdateService = progressUpdateService;
         this.progressCommentService = progressCommentService;
+        this.progressUpdateExportService = progressUpdateExportService;
         this.freelancerProjectAccessServiceProvider = freelancerProjectAccessServiceProvider;
         this.welcomeMessage = welcomeMessage;
     }
@@ -130,14 +135,17 @@ public class ProgressUpdateController {
         return ResponseEntity.ok(result);
     }
 
-    /** Exports progress updates matching the same filters as the list endpoint as CSV. Returns attachment with filename progress-updates-export.csv. */
+    /**
+     * Streams progress updates matching the same filters as the list endpoint as CSV (default) or NDJSON,
+     * optionally gzip-compressed. Rows are written in keyset chunks, so memory does not grow with the export size.
+     */
     @GetMapping("/export")
     @Operation(
             summary = "Export progress updates",
-            description = "Exports progress updates matching the same filters as the list endpoint. Currently supports CSV via the format query parameter (format=csv)."
+            description = "Streams progress updates matching the same filters as the list endpoint. format=csv (default) or format=ndjson; gzip=true returns a .gz attachment."
     )
     @ApiResponse(responseCode = "200", description = "Success")
-    public ResponseEntity<String> export(
+    public ResponseEntity<StreamingResponseBody> export(
             @Parameter(description = "Filter by project ID") @RequestParam(required = false) Long projectId,
             @Parameter(description = "Filter by freelancer ID") @RequestParam(required = false) Long freelancerId,
             @Parameter(description = "Filter by contract ID") @RequestParam(required = false) Long contractId,
@@ -146,7 +154,8 @@ public class ProgressUpdateController {
             @Parameter(description = "From date (yyyy-MM-dd)") @RequestParam(required = false) LocalDate dateFrom,
             @Parameter(description = "To date (yyyy-MM-dd)") @RequestParam(required = false) LocalDate dateTo,
             @Parameter(description = "Search in title and description (case-insensitive)") @RequestParam(required = false) String search,
-            @Parameter(description = "Export format (currently only 'csv' is supported)") @RequestParam(required = false, defaultValue = "csv") String format,
+            @Parameter(description = "Export format: 'csv' (default) or 'ndjson'") @RequestParam(required = false, defaultValue = "csv") String format,
+            @Parameter(description = "Gzip-compress the attachment") @RequestParam(required = false, defaultValue = "false") boolean gzip,
             @RequestHeader(value = "X-User-Id", required = false) Long viewerUserId,
             @RequestHeader(value = "X-User-Role", required = false) String viewerRole
     ) {
@@ -154,74 +163,29 @@ public class ProgressUpdateController {
         if (projectId != null) {
             enforceProjectAccess(allowedProjectIds, projectId);
         }
-        if (allowedProjectIds.isPresent()) {
-            freelancerId = viewerUserId;
-        }
-        // For now we always return CSV regardless of the requested format to avoid 400s from clients.
-
-        List<ProgressUpdate> result;
-        if (allowedProjectIds.isPresent()) {
-            result = progressUpdateService.findAllFilteredForExport(
-                    Optional.ofNullable(projectId),
-                    Optional.ofNullable(freelancerId),
-                    Optional.ofNullable(contractId),
-                    Optional.ofNullable(progressMin),
-                    Optional.ofNullable(progressMax),
-                    Optional.ofNullable(dateFrom),
-                    Optional.ofNullable(dateTo),
-                    Optional.ofNullable(search),
-                    allowedProjectIds
-            );
-        } else {
-            result = progressUpdateService.findAllFilteredForExport(
-                    Optional.ofNullable(projectId),
-                    Optional.ofNullable(freelancerId),
-                    Optional.ofNullable(contractId),
-                    Optional.ofNullable(progressMin),
-                    Optional.ofNullable(progressMax),
-                    Optional.ofNullable(dateFrom),
-                    Optional.ofNullable(dateTo),
-                    Optional.ofNullable(search)
-            );
-        }
-
-        StringBuilder sb = new StringBuilder();
-        sb.append("id,projectId,contractId,freelancerId,title,description,progressPercentage,createdAt,updatedAt,nextUpdateDue,nextDueOverdueNotified,githubRepoUrl,commentCount\n");
-        for (ProgressUpdate update : result) {
-            long commentCount = update.getComments() != null ? update.getComments().size() : 0;
-            sb.append(csv(update.getId()))
-                    .append(',').append(csv(update.getProjectId()))
-                    .append(',').append(csv(update.getContractId()))
-                    .append(',').append(csv(update.getFreelancerId()))
-                    .append(',').append(csv(update.getTitle()))
-                    .append(',').append(csv(update.getDescription()))
-                    .append(',').append(csv(update.getProgressPercentage()))
-                    .append(',').append(csv(update.getCreatedAt()))
-                    .append(',').append(csv(update.getUpdatedAt()))
-                    .append(',').append(csv(update.getNextUpdateDue()))
-                    .append(',').append(csv(update.getNextDueOverdueNotified()))
-                    .append(',').append(csv(update.getGithubRepoUrl()))
-                    .append(',').append(csv(commentCount))
-                    .append('\n');
-        }
-
+        Long scopedFreelancerId = allowedProjectIds.isPresent() ? viewerUserId : freelancerId;
+        // Unknown formats fall back to CSV to avoid 400s from older clients.
+        ProgressUpdateExportService.Format exportFormat = ProgressUpdateExportService.Format.parse(format);
+
+        StreamingResponseBody body = out -> progressUpdateExportService.write(
+                out,
+                exportFormat,
+                gzip,
+                Optional.ofNullable(projectId),
+                Optional.ofNullable(scopedFreelancerId),
+                Optional.ofNullable(contractId),
+                Optional.ofNullable(progressMin),
+                Optional.ofNullable(progressMax),
+                Optional.ofNullable(dateFrom),
+                Optional.ofNullable(dateTo),
+                Optional.ofNullable(search),
+                allowedProjectIds);
+
+        String filename = "progress-updates-export." + exportFormat.getExtension() + (gzip ? ".gz" : "");
         return ResponseEntity.ok()
-                .header("Content-Type", "text/csv")
-                .header("Content-Disposition", "attachment; filename=\"progress-updates-export.csv\"")
-                .body(sb.toString());
-    }
-
-    /** Escapes a value for CSV (quotes if contains comma, quote, or newline). */
-    private static String csv(Object value) {
-        if (value == null) {
-            return "";
-        }
-        String str = String.valueOf(value);
-        if (str.contains(",") || str.contains("\"") || str.contains("\n") || str.contains("\r")) {
-            str = str.replace("\"", "\"\"");
-            return "\"" + str + "\"";
-        }
-        return str;
+                .header("Content-Type", gzip ? "application/gzip" : exportFormat.getContentType())
+                .header("Content-Disposition", "attachment; filename=\"" + filename + "\"")
+                .body(body);
     }
 
     /** Parses sort string (e.g. "createdAt,desc") into Spring Sort; defaults to createdAt DESC if null or blank. */
@@ -613,6 +577,25 @@ public class ProgressUpdateController {
         return ResponseEntity.ok(response);
     }
 
+    /** Drops one freelancer's cached project access. Called by Project with the acting user's JWT. */
+    @PostMapping("/access-cache/invalidate")
+    @Operation(
+            summary = "Invalidate freelancer access cache",
+            description = "Called by Project when a freelancer's applications change."
+    )
+    @ApiResponses({
+            @ApiResponse(responseCode = "204", description = "No content"),
+            @ApiResponse(responseCode = "400", description = "freelancerId missing")
+    })
+    // Performs invalidate access cache.
+    public ResponseEntity<Void> invalidateAccessCache(@RequestParam Long freelancerId) {
+        FreelancerProjectAccessService accessService = freelancerProjectAccessServiceProvider.getIfAvailable();
+        if (accessService != null) {
+            accessService.invalidate(freelancerId);
+        }
+        return ResponseEntity.noContent().build();
+    }
+
     private Optional<Set<Long>> resolveFreelancerScope(Long userId, String role) {
         if (!"FREELANCER".equalsIgnoreCase(role)) {
             return Optional.empty();
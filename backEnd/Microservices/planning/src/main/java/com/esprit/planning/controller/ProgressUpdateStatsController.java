@@ -88,6 +88,19 @@ public class ProgressUpdateStatsController {
         return ResponseEntity.ok(progressUpdateService.getDashboardStatistics());
     }
 
+    /** Rebuilds the latest-progress projection from the progress_update table (admin only). Returns the number of rows written. */
+    @PostMapping("/latest/rebuild")
+    @Operation(summary = "Rebuild latest-progress projection", description = "Recomputes the per-project and per-contract latest progress rows from all progress updates. Admin only.")
+    @ApiResponse(responseCode = "200", description = "Projection rebuilt; body is the number of rows written")
+    @ApiResponse(responseCode = "403", description = "Caller is not an admin")
+    public ResponseEntity<Integer> rebuildLatestProgress(
+            @RequestHeader(value = "X-User-Role", required = false) String viewerRole) {
+        if (!"ADMIN".equalsIgnoreCase(viewerRole)) {
+            throw new ResponseStatusException(org.springframework.http.HttpStatus.FORBIDDEN, "Only admins can rebuild the latest-progress projection");
+        }
+        return ResponseEntity.ok(progressUpdateService.rebuildLatestProgress());
+    }
+
     /** Returns a time-bounded report for a single project (updates, comments, averages between from/to). Defaults to last 30 days if from/to omitted. */
     @GetMapping("/report")
     @Operation(
@@ -0,0 +1,81 @@
+package com.esprit.planning.entity;
+
+import jakarta.persistence.*;
+
+import java.time.LocalDateTime;
+
+/**
+ * Materialized "latest progress update" per project and per contract (latest = greatest updatedAt, then id).
+ * Maintained in the same transaction as progress update create/update/delete; rebuilt from history on demand.
+ */
+@Entity
+@Table(name = "progress_latest",
+        uniqueConstraints = @UniqueConstraint(columnNames = {"scope", "scopeId"}),
+        indexes = @Index(name = "idx_progress_latest_scope_updated", columnList = "scope, lastUpdateAt"))
+public class ProgressLatest {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 16)
+    private ProgressLatestScope scope;
+
+    /** Project id or contract id, depending on {@link #scope}. */
+    @Column(nullable = false)
+    private Long scopeId;
+
+    @Column(nullable = false)
+    private Long progressUpdateId;
+
+    @Column(nullable = false)
+    private Long projectId;
+
+    @Column(nullable = true)
+    private Long contractId;
+
+    @Column(nullable = false)
+    private Integer progressPercentage;
+
+    @Column(nullable = false)
+    private LocalDateTime lastUpdateAt;
+
+    public ProgressLatest() {}
+
+    public ProgressLatest(ProgressLatestScope scope, Long scopeId) {
+        this.scope = scope;
+        this.scopeId = scopeId;
+    }
+
+    /** Points this row at {@code update}. */
+    public void apply(ProgressUpdate update) {
+        this.progressUpdateId = update.getId();
+        this.projectId = update.getProjectId();
+        this.contractId = update.getContractId();
+        this.progressPercentage = update.getProgressPercentage();
+        this.lastUpdateAt = update.getUpdatedAt();
+    }
+
+    // ── Getters ──────────────────────────────────────────────────────────────
+
+    public Long getId() { return id; }
+    public ProgressLatestScope getScope() { return scope; }
+    public Long getScopeId() { return scopeId; }
+    public Long getProgressUpdateId() { return progressUpdateId; }
+    public Long getProjectId() { return projectId; }
+    public Long getContractId() { return contractId; }
+    public Integer getProgressPercentage() { return progressPercentage; }
+    public LocalDateTime getLastUpdateAt() { return lastUpdateAt; }
+
+    // ── Setters ──────────────────────────────────────────────────────────────
+
+    public void setId(Long id) { this.id = id; }
+    public void setScope(ProgressLatestScope scope) { this.scope = scope; }
+    public void setScopeId(Long scopeId) { this.scopeId = scopeId; }
+    public void setProgressUpdateId(Long progressUpdateId) { this.progressUpdateId = progressUpdateId; }
+    public void setProjectId(Long projectId) { this.projectId = projectId; }
+    public void setContractId(Long contractId) { this.contractId = contractId; }
+    public void setProgressPercentage(Integer progressPercentage) { this.progressPercentage = progressPercentage; }
+    public void setLastUpdateAt(LocalDateTime lastUpdateAt) { this.lastUpdateAt = lastUpdateAt; }
+}
@@ -0,0 +1,7 @@
+package com.esprit.planning.entity;
+
+/** What a {@link ProgressLatest} row is keyed by. */
+public enum ProgressLatestScope {
+    PROJECT,
+    CONTRACT
+}
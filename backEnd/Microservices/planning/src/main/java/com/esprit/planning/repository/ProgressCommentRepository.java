@@ -20,6 +20,12 @@ public interface ProgressCommentRepository extends JpaRepository<ProgressComment
 
     long countByProgressUpdate_IdIn(Collection<Long> progressUpdateIds);
 
+    long countByProgressUpdate_Id(Long progressUpdateId);
+
+    /** Comment count per progress update (updates without comments are absent). */
+    @Query("SELECT c.progressUpdate.id, COUNT(c) FROM ProgressComment c WHERE c.progressUpdate.id IN :progressUpdateIds GROUP BY c.progressUpdate.id")
+    List<Object[]> countGroupedByProgressUpdateIdIn(@Param("progressUpdateIds") Collection<Long> progressUpdateIds);
+
     /** Count comments on progress updates submitted by the given freelancer. */
     @Query("SELECT COUNT(c) FROM ProgressComment c WHERE c.progressUpdate.freelancerId = :freelancerId")
     long countByProgressUpdate_FreelancerId(@Param("freelancerId") Long freelancerId);
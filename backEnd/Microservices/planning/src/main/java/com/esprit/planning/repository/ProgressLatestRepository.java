@@ -0,0 +1,43 @@
+package com.esprit.planning.repository;
+
+import com.esprit.planning.entity.ProgressLatest;
+import com.esprit.planning.entity.ProgressLatestScope;
+import jakarta.persistence.LockModeType;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+
+/** JPA repository for the ProgressLatest projection (latest update per project / per contract). */
+@Repository
+public interface ProgressLatestRepository extends JpaRepository<ProgressLatest, Long> {
+
+    /** Row lock so concurrent writers on the same project/contract apply their update one after the other. */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT l FROM ProgressLatest l WHERE l.scope = :scope AND l.scopeId = :scopeId")
+    Optional<ProgressLatest> findForUpdate(@Param("scope") ProgressLatestScope scope, @Param("scopeId") Long scopeId);
+
+    /**
+     * Inserts the row for (scope, scopeId) unless one already exists. Two first updates for the same project no
+     * longer race on the unique key: the loser's insert is a no-op and it then competes on {@link #findForUpdate}.
+     */
+    @Modifying
+    @Query(value = "INSERT INTO progress_latest (scope, scope_id, progress_update_id, project_id, contract_id, progress_percentage, last_update_at) "
+            + "VALUES (:scope, :scopeId, :progressUpdateId, :projectId, :contractId, :progressPercentage, :lastUpdateAt) "
+            + "ON DUPLICATE KEY UPDATE id = id", nativeQuery = true)
+    int insertIfAbsent(@Param("scope") String scope, @Param("scopeId") Long scopeId,
+                       @Param("progressUpdateId") Long progressUpdateId, @Param("projectId") Long projectId,
+                       @Param("contractId") Long contractId, @Param("progressPercentage") Integer progressPercentage,
+                       @Param("lastUpdateAt") LocalDateTime lastUpdateAt);
+
+    List<ProgressLatest> findByScopeAndScopeIdIn(ProgressLatestScope scope, Collection<Long> scopeIds);
+
+    List<ProgressLatest> findByScopeAndLastUpdateAtBeforeOrderByLastUpdateAtAsc(ProgressLatestScope scope, LocalDateTime cutoff);
+}
@@ -30,6 +30,18 @@ public interface ProgressUpdateRepository extends JpaRepository<ProgressUpdate,
 
     List<ProgressUpdate> findByProjectIdIn(Collection<Long> projectIds);
 
+    /** Dashboard counters: update count per project. */
+    @Query("SELECT p.projectId, COUNT(p) FROM ProgressUpdate p GROUP BY p.projectId")
+    List<Object[]> countGroupedByProjectId();
+
+    /** Dashboard counters: update count and percentage sum per freelancer. */
+    @Query("SELECT p.freelancerId, COUNT(p), SUM(p.progressPercentage) FROM ProgressUpdate p GROUP BY p.freelancerId")
+    List<Object[]> countAndSumPercentageGroupedByFreelancerId();
+
+    /** Dashboard SQL fallback: total updates, average percentage, distinct projects, distinct freelancers (one row). */
+    @Query("SELECT COUNT(p), AVG(p.progressPercentage), COUNT(DISTINCT p.projectId), COUNT(DISTINCT p.freelancerId) FROM ProgressUpdate p")
+    List<Object[]> aggregateDashboardStats();
+
     /** For stalled projects: projectId and its latest update time. */
     @Query("SELECT p.projectId, MAX(p.updatedAt) FROM ProgressUpdate p GROUP BY p.projectId")
     List<Object[]> findProjectIdAndMaxUpdatedAt();
@@ -72,6 +84,22 @@ public interface ProgressUpdateRepository extends JpaRepository<ProgressUpdate,
     @Query("SELECT DISTINCT p.projectId FROM ProgressUpdate p WHERE p.contractId IN :contractIds")
     List<Long> findDistinctProjectIdsByContractIdIn(@Param("contractIds") Collection<Long> contractIds);
 
+    /** Latest update of a project or contract (greatest updatedAt, then id); used to re-derive the ProgressLatest projection. */
+    Optional<ProgressUpdate> findFirstByProjectIdOrderByUpdatedAtDescIdDesc(Long projectId);
+
+    Optional<ProgressUpdate> findFirstByContractIdOrderByUpdatedAtDescIdDesc(Long contractId);
+
+    /** Rows holding their project's greatest updatedAt (ties possible); one pass for the projection rebuild. */
+    @Query("SELECT p FROM ProgressUpdate p WHERE p.updatedAt = (SELECT MAX(p2.updatedAt) FROM ProgressUpdate p2 WHERE p2.projectId = p.projectId)")
+    List<ProgressUpdate> findLatestPerProject();
+
+    @Query("SELECT p FROM ProgressUpdate p WHERE p.contractId IS NOT NULL AND p.updatedAt = (SELECT MAX(p2.updatedAt) FROM ProgressUpdate p2 WHERE p2.contractId = p.contractId)")
+    List<ProgressUpdate> findLatestPerContract();
+
+    /** The freelancer's latest update on each of their projects (ties possible). */
+    @Query("SELECT p FROM ProgressUpdate p WHERE p.freelancerId = :freelancerId AND p.updatedAt = (SELECT MAX(p2.updatedAt) FROM ProgressUpdate p2 WHERE p2.freelancerId = :freelancerId AND p2.projectId = p.projectId)")
+    List<ProgressUpdate> findLatestPerProjectByFreelancerId(@Param("freelancerId") Long freelancerId);
+
     /** Overdue next-update-due rows not yet notified (scheduler). */
     List<ProgressUpdate> findByNextUpdateDueIsNotNullAndNextUpdateDueBeforeAndNextDueOverdueNotifiedIsFalse(LocalDateTime now);
 
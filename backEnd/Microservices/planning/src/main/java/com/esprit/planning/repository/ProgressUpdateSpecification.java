@@ -66,4 +66,9 @@ public final class ProgressUpdateSpecification {
             return cb.and(predicates.toArray(new Predicate[0]));
         };
     }
+
+    /** Keyset predicate for descending-id scans: rows with {@code id < lastId}. */
+    public static Specification<ProgressUpdate> idBefore(Long lastId) {
+        return (root, query, cb) -> cb.lessThan(root.get("id"), lastId);
+    }
 }
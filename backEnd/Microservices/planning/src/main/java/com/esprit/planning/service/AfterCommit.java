@@ -0,0 +1,39 @@
+package com.esprit.planning.service;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+/**
+ * Defers side effects (in-memory counters) until the surrounding transaction has committed.
+ * Runs immediately when no transaction is active. Failures are logged and never reach the caller.
+ */
+final class AfterCommit {
+
+    private static final Logger log = LoggerFactory.getLogger(AfterCommit.class);
+
+    private AfterCommit() {
+    }
+
+    static void run(Runnable action) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    runSafely(action);
+                }
+            });
+        } else {
+            runSafely(action);
+        }
+    }
+
+    private static void runSafely(Runnable action) {
+        try {
+            action.run();
+        } catch (Exception e) {
+            log.warn("After-commit action failed: {}", e.getMessage());
+        }
+    }
+}
@@ -0,0 +1,205 @@
+package com.esprit.planning.service;
+
+import com.esprit.planning.dto.DashboardStatsDto;
+import com.esprit.planning.entity.ProgressUpdate;
+import com.esprit.planning.repository.ProgressCommentRepository;
+import com.esprit.planning.repository.ProgressUpdateRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.function.Consumer;
+
+/**
+ * Pre-aggregated counters behind the global dashboard ({@code GET /api/progress-updates/stats/dashboard}): total
+ * updates, total comments, running percentage sum and exact distinct project/freelancer counts (per-key reference
+ * counts, so a key leaves the distinct count when its last update goes). Reads are O(1) whatever the table size.
+ * <p>
+ * Write paths in {@link ProgressUpdateService} / {@link ProgressCommentService} report before/after entries; deltas
+ * are applied after commit. Counters are built on startup from grouped SQL and resynced by {@link #rebuild()} (see
+ * {@code planning.scheduler.dashboard-reconcile-cron}), which also heals drift from other replicas or direct DB edits.
+ * Until the first build completes, {@link #snapshot()} is empty and callers fall back to aggregate SQL.
+ */
+@Service
+public class DashboardStatsEngine {
+
+    private static final Logger log = LoggerFactory.getLogger(DashboardStatsEngine.class);
+
+    /** The fields of a progress update that the dashboard counts. */
+    public record Entry(Long projectId, Long freelancerId, int progressPercentage) {
+
+        public static Entry of(ProgressUpdate u) {
+            return new Entry(u.getProjectId(), u.getFreelancerId(),
+                    u.getProgressPercentage() != null ? u.getProgressPercentage() : 0);
+        }
+    }
+
+    private final ProgressUpdateRepository progressUpdateRepository;
+    private final ProgressCommentRepository progressCommentRepository;
+    private final boolean enabled;
+
+    /** Null until the first rebuild; replaced by each rebuild. Mutated only under {@code this}. */
+    private Counters counters;
+
+    /** Deltas committed while a rebuild scans, replayed onto the fresh counters before the swap; null otherwise. Guarded by {@code this}. */
+    private List<Consumer<Counters>> pendingDuringRebuild;
+
+    /** One rebuild at a time (startup and the reconcile can overlap); the scan itself runs outside {@code this}. */
+    private final Object rebuildMonitor = new Object();
+
+    public DashboardStatsEngine(ProgressUpdateRepository progressUpdateRepository,
+                                ProgressCommentRepository progressCommentRepository,
+                                @Value("${planning.dashboard.counters.enabled:true}") boolean enabled) {
+        this.progressUpdateRepository = progressUpdateRepository;
+        this.progressCommentRepository = progressCommentRepository;
+        this.enabled = enabled;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void onApplicationReady() {
+        if (!enabled) {
+            return;
+        }
+        try {
+            rebuild();
+        } catch (Exception e) {
+            log.warn("Initial dashboard counters build failed; dashboard falls back to SQL until the next reconcile: {}", e.getMessage());
+        }
+    }
+
+    /**
+     * Recomputes the counters from two grouped queries (per project, per freelancer) and a comment count, then swaps
+     * them in. Deltas committed during the queries are replayed onto the fresh counters before the swap so they are
+     * not lost; a delta whose row a query already read after the commit is counted twice until the next reconcile.
+     *
+     * @return number of progress updates counted
+     */
+    public long rebuild() {
+        synchronized (rebuildMonitor) {
+            synchronized (this) {
+                pendingDuringRebuild = new ArrayList<>();
+            }
+            try {
+                Counters fresh = new Counters();
+                for (Object[] row : progressUpdateRepository.countGroupedByProjectId()) {
+                    if (row[0] != null) {
+                        fresh.perProject.put((Long) row[0], ((Number) row[1]).longValue());
+                    }
+                }
+                for (Object[] row : progressUpdateRepository.countAndSumPercentageGroupedByFreelancerId()) {
+                    long count = ((Number) row[1]).longValue();
+                    if (row[0] != null) {
+                        fresh.perFreelancer.put((Long) row[0], count);
+                    }
+                    fresh.totalUpdates += count;
+                    fresh.percentageSum += row[2] != null ? ((Number) row[2]).longValue() : 0L;
+                }
+                fresh.totalComments = progressCommentRepository.count();
+                synchronized (this) {
+                    pendingDuringRebuild.forEach(delta -> delta.accept(fresh));
+                    counters = fresh;
+                }
+                return fresh.totalUpdates;
+            } finally {
+                synchronized (this) {
+                    pendingDuringRebuild = null;
+                }
+            }
+        }
+    }
+
+    public synchronized boolean isReady() {
+        return counters != null;
+    }
+
+    /**
+     * @param before update state before the change, or null for a create
+     * @param after  update state after the change, or null for a delete
+     */
+    public void recordUpdateChange(Entry before, Entry after) {
+        if (!enabled || (before == null && after == null)) {
+            return;
+        }
+        AfterCommit.run(() -> applyUpdateDelta(before, after));
+    }
+
+    /** Comments added (positive) or removed (negative), including those cascaded with a deleted update. */
+    public void recordCommentDelta(long delta) {
+        if (!enabled || delta == 0) {
+            return;
+        }
+        AfterCommit.run(() -> applyCommentDelta(delta));
+    }
+
+    private void applyUpdateDelta(Entry before, Entry after) {
+        apply(c -> {
+            if (before != null) {
+                c.apply(before, -1);
+            }
+            if (after != null) {
+                c.apply(after, 1);
+            }
+        });
+    }
+
+    private void applyCommentDelta(long delta) {
+        apply(c -> c.totalComments = Math.max(0L, c.totalComments + delta));
+    }
+
+    private synchronized void apply(Consumer<Counters> delta) {
+        if (counters != null) {
+            delta.accept(counters);
+        }
+        if (pendingDuringRebuild != null) {
+            pendingDuringRebuild.add(delta);
+        }
+    }
+
+    /** Current dashboard figures, or empty until the first build has completed. */
+    public synchronized Optional<DashboardStatsDto> snapshot() {
+        if (counters == null) {
+            return Optional.empty();
+        }
+        Counters c = counters;
+        return Optional.of(DashboardStatsDto.builder()
+                .totalUpdates(c.totalUpdates)
+                .totalComments(c.totalComments)
+                .averageProgressPercentage(c.totalUpdates == 0 ? null : (double) c.percentageSum / c.totalUpdates)
+                .distinctProjectCount(c.perProject.size())
+                .distinctFreelancerCount(c.perFreelancer.size())
+                .build());
+    }
+
+    private static final class Counters {
+        long totalUpdates;
+        long totalComments;
+        long percentageSum;
+        final Map<Long, Long> perProject = new HashMap<>();
+        final Map<Long, Long> perFreelancer = new HashMap<>();
+
+        void apply(Entry e, int sign) {
+            totalUpdates = Math.max(0L, totalUpdates + sign);
+            percentageSum += (long) sign * e.progressPercentage();
+            adjust(perProject, e.projectId(), sign);
+            adjust(perFreelancer, e.freelancerId(), sign);
+        }
+
+        private static void adjust(Map<Long, Long> refCounts, Long key, int sign) {
+            if (key == null) {
+                return;
+            }
+            refCounts.compute(key, (k, n) -> {
+                long next = (n == null ? 0L : n) + sign;
+                return next > 0 ? next : null;
+            });
+        }
+    }
+}
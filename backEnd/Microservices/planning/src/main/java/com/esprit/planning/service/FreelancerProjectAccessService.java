@@ -5,32 +5,56 @@ import com.esprit.planning.client.ProjectApplicationClient;
 import com.esprit.planning.dto.ContractDto;
 import com.esprit.planning.dto.ProjectApplicationFeignDto;
 import com.esprit.planning.repository.ProgressUpdateRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 
+import java.time.Duration;
 import java.util.HashSet;
 import java.util.List;
 import java.util.Set;
 import java.util.stream.Collectors;
 
+/**
+ * Freelancer project access from accepted applications (Project) and accepted contracts (Contract). Results are
+ * cached per freelancer for {@code planning.access-cache.ttl-seconds}; Project calls
+ * {@code POST /api/progress-updates/access-cache/invalidate} when an application changes.
+ */
 @Service
 public class FreelancerProjectAccessService {
     private final ProjectApplicationClient projectApplicationClient;
     private final ContractClient contractClient;
     private final ProgressUpdateRepository progressUpdateRepository;
+    private final FreelancerAccessCache cache;
 
     public FreelancerProjectAccessService(ProjectApplicationClient projectApplicationClient,
                                           ContractClient contractClient,
-                                          ProgressUpdateRepository progressUpdateRepository) {
+                                          ProgressUpdateRepository progressUpdateRepository,
+                                          MeterRegistry meterRegistry,
+                                          @Value("${planning.access-cache.ttl-seconds:60}") long cacheTtlSeconds,
+                                          @Value("${planning.access-cache.max-size:10000}") int cacheMaxSize) {
         this.projectApplicationClient = projectApplicationClient;
         this.contractClient = contractClient;
         this.progressUpdateRepository = progressUpdateRepository;
+        this.cache = new FreelancerAccessCache("planning.access.cache", Duration.ofSeconds(cacheTtlSeconds), cacheMaxSize, meterRegistry);
     }
 
     public Set<Long> getAccessibleProjectIdsForFreelancer(Long freelancerId) {
-        Set<Long> projectIds = new HashSet<>();
         if (freelancerId == null) {
-            return projectIds;
+            return new HashSet<>();
         }
+        return cache.get(freelancerId, this::resolve);
+    }
+
+    /** Drops the cached access set of one freelancer. */
+    public void invalidate(Long freelancerId) {
+        cache.invalidate(freelancerId);
+    }
+
+    /** Best-effort union; when a source fails the partial result is returned but not cached. */
+    private FreelancerAccessCache.Loaded resolve(Long freelancerId) {
+        Set<Long> projectIds = new HashSet<>();
+        boolean complete = true;
 
         try {
             List<ProjectApplicationFeignDto> applications = projectApplicationClient.getApplicationsByFreelance(freelancerId);
@@ -44,6 +68,7 @@ public class FreelancerProjectAccessService {
             }
         } catch (Exception ignored) {
             // Keep best-effort union behavior.
+            complete = false;
         }
 
         try {
@@ -59,9 +84,10 @@ public class FreelancerProjectAccessService {
             }
         } catch (Exception ignored) {
             // Keep best-effort union behavior.
+            complete = false;
         }
 
-        return projectIds;
+        return new FreelancerAccessCache.Loaded(projectIds, complete);
     }
 
     public boolean canFreelancerAccessProject(Long freelancerId, Long projectId) {
@@ -14,7 +14,8 @@ import java.util.List;
 import java.util.Map;
 
 /**
- * Scheduled maintenance: overdue next-update-due notifications and orphan calendar event id cleanup.
+ * Scheduled maintenance: overdue next-update-due notifications, orphan calendar event id cleanup and dashboard
+ * counter reconciliation.
  */
 @Component
 public class PlanningScheduledJobs {
@@ -23,11 +24,17 @@ public class PlanningScheduledJobs {
 
     private final ProgressUpdateRepository progressUpdateRepository;
     private final PlanningNotificationService planningNotificationService;
+    private final DashboardStatsEngine dashboardStatsEngine;
+    private final ProgressLatestService progressLatestService;
 
     public PlanningScheduledJobs(ProgressUpdateRepository progressUpdateRepository,
-                                 PlanningNotificationService planningNotificationService) {
+                                 PlanningNotificationService planningNotificationService,
+                                 DashboardStatsEngine dashboardStatsEngine,
+                                 ProgressLatestService progressLatestService) {
         this.progressUpdateRepository = progressUpdateRepository;
         this.planningNotificationService = planningNotificationService;
+        this.dashboardStatsEngine = dashboardStatsEngine;
+        this.progressLatestService = progressLatestService;
     }
 
     @Scheduled(cron = "${planning.scheduler.overdue-cron:0 0 * * * ?}")
@@ -40,6 +47,9 @@ public class PlanningScheduledJobs {
         for (ProgressUpdate p : overdue) {
             p.setNextDueOverdueNotified(true);
             progressUpdateRepository.save(p);
+            // flush so @PreUpdate has stamped updatedAt before the projection copies it
+            progressUpdateRepository.flush();
+            progressLatestService.onSaved(p, null, null);
             Map<String, String> data = new HashMap<>();
             data.put("projectId", String.valueOf(p.getProjectId()));
             data.put("progressUpdateId", String.valueOf(p.getId()));
@@ -65,4 +75,15 @@ public class PlanningScheduledJobs {
             log.info("Cleared {} orphan nextDueCalendarEventId value(s)", cleared);
         }
     }
+
+    @Scheduled(cron = "${planning.scheduler.dashboard-reconcile-cron:0 20 * * * ?}")
+    // Performs reconcile dashboard counters.
+    public void reconcileDashboardCounters() {
+        try {
+            long updates = dashboardStatsEngine.rebuild();
+            log.debug("Dashboard counters reconciled over {} progress update(s)", updates);
+        } catch (Exception e) {
+            log.warn("Dashboard counters reconcile failed: {}", e.getMessage());
+        }
+    }
 }
@@ -1,6 +1,6 @@
 package com.esprit.planning.service;
 
-import com.esprit.planning.client.UserClient;
+import com.esprit.planning.client.UserDirectory;
 import com.esprit.planning.dto.UserDto;
 import com.esprit.planning.entity.ProgressComment;
 import com.esprit.planning.exception.EntityNotFoundException;
@@ -25,17 +25,20 @@ public class ProgressCommentService {
 
     private final ProgressCommentRepository progressCommentRepository;
     private final ProgressUpdateRepository progressUpdateRepository;
-    private final UserClient userClient;
+    private final UserDirectory userDirectory;
     private final PlanningNotificationService planningNotificationService;
+    private final DashboardStatsEngine dashboardStatsEngine;
 
     public ProgressCommentService(ProgressCommentRepository progressCommentRepository,
                                   ProgressUpdateRepository progressUpdateRepository,
-                                  UserClient userClient,
-                                  PlanningNotificationService planningNotificationService) {
+                                  UserDirectory userDirectory,
+                                  PlanningNotificationService planningNotificationService,
+                                  DashboardStatsEngine dashboardStatsEngine) {
         this.progressCommentRepository = progressCommentRepository;
         this.progressUpdateRepository = progressUpdateRepository;
-        this.userClient = userClient;
+        this.userDirectory = userDirectory;
         this.planningNotificationService = planningNotificationService;
+        this.dashboardStatsEngine = dashboardStatsEngine;
     }
 
     /** Returns all progress comments. */
@@ -96,9 +99,9 @@ public class ProgressCommentService {
         ProgressUpdate progressUpdate = progressUpdateRepository.findById(progressUpdateId)
                 .orElseThrow(() -> new EntityNotFoundException("ProgressUpdate", progressUpdateId));
 
-        // Optionally validate that the user exists in the User microservice.
-        // This will throw if the user-service returns an error (4xx/5xx).
-        UserDto user = userClient.getUserById(userId);
+        // Validate that the user exists in the User microservice (cached, batched with concurrent lookups).
+        UserDto user = userDirectory.find(userId)
+                .orElseThrow(() -> new EntityNotFoundException("User", userId));
 
         ProgressComment comment = ProgressComment.builder()
                 .progressUpdate(progressUpdate)
@@ -106,6 +109,7 @@ public class ProgressCommentService {
                 .message(message)
                 .build();
         ProgressComment saved = progressCommentRepository.save(comment);
+        dashboardStatsEngine.recordCommentDelta(1);
         // Notify the freelancer who owns the progress update (if someone else commented)
         Long freelancerId = progressUpdate.getFreelancerId();
         if (freelancerId != null && !freelancerId.equals(userId)) {
@@ -142,6 +146,7 @@ public class ProgressCommentService {
         ProgressComment existing = findById(id);
         var progressUpdate = existing.getProgressUpdate();
         progressCommentRepository.deleteById(id);
+        dashboardStatsEngine.recordCommentDelta(-1);
         notifyFreelancerAboutComment(progressUpdate, "A comment was removed from your progress update", null);
     }
 
@@ -0,0 +1,172 @@
+package com.esprit.planning.service;
+
+import com.esprit.planning.entity.ProgressLatest;
+import com.esprit.planning.entity.ProgressLatestScope;
+import com.esprit.planning.entity.ProgressUpdate;
+import com.esprit.planning.repository.ProgressLatestRepository;
+import com.esprit.planning.repository.ProgressUpdateRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Maintains and reads the {@link ProgressLatest} projection: the latest progress update per project and per contract.
+ * Writes join the caller's transaction, so the projection commits or rolls back with the progress update itself.
+ */
+@Service
+public class ProgressLatestService {
+
+    private static final Logger log = LoggerFactory.getLogger(ProgressLatestService.class);
+
+    /** Latest = greatest updatedAt, then greatest id. */
+    static final Comparator<ProgressUpdate> RECENCY = Comparator
+            .comparing(ProgressUpdate::getUpdatedAt, Comparator.nullsFirst(Comparator.naturalOrder()))
+            .thenComparing(ProgressUpdate::getId, Comparator.nullsFirst(Comparator.naturalOrder()));
+
+    private final ProgressLatestRepository progressLatestRepository;
+    private final ProgressUpdateRepository progressUpdateRepository;
+
+    public ProgressLatestService(ProgressLatestRepository progressLatestRepository,
+                                 ProgressUpdateRepository progressUpdateRepository) {
+        this.progressLatestRepository = progressLatestRepository;
+        this.progressUpdateRepository = progressUpdateRepository;
+    }
+
+    /**
+     * Records a created or edited update. It becomes the latest of its project/contract unless another row is more
+     * recent; a project or contract it was moved away from is re-derived from history.
+     */
+    @Transactional
+    public void onSaved(ProgressUpdate saved, Long previousProjectId, Long previousContractId) {
+        offer(ProgressLatestScope.PROJECT, saved.getProjectId(), saved);
+        offer(ProgressLatestScope.CONTRACT, saved.getContractId(), saved);
+        if (previousProjectId != null && !previousProjectId.equals(saved.getProjectId())) {
+            rederiveIfPointingAt(ProgressLatestScope.PROJECT, previousProjectId, saved.getId());
+        }
+        if (previousContractId != null && !previousContractId.equals(saved.getContractId())) {
+            rederiveIfPointingAt(ProgressLatestScope.CONTRACT, previousContractId, saved.getId());
+        }
+    }
+
+    /** Call after the repository delete: re-derives the project/contract whose latest update was removed. */
+    @Transactional
+    public void onDeleted(ProgressUpdate deleted) {
+        rederiveIfPointingAt(ProgressLatestScope.PROJECT, deleted.getProjectId(), deleted.getId());
+        rederiveIfPointingAt(ProgressLatestScope.CONTRACT, deleted.getContractId(), deleted.getId());
+    }
+
+    /** Projection rows for the given project or contract ids, keyed by that id; ids without updates are absent. */
+    @Transactional(readOnly = true)
+    public Map<Long, ProgressLatest> findByScopeIds(ProgressLatestScope scope, Collection<Long> scopeIds) {
+        if (scopeIds == null || scopeIds.isEmpty()) {
+            return Map.of();
+        }
+        return progressLatestRepository.findByScopeAndScopeIdIn(scope, scopeIds).stream()
+                .collect(Collectors.toMap(ProgressLatest::getScopeId, Function.identity(), (a, b) -> a));
+    }
+
+    /** Projects whose latest update is older than {@code cutoff}, oldest first. */
+    @Transactional(readOnly = true)
+    public List<ProgressLatest> findProjectsNotUpdatedSince(LocalDateTime cutoff) {
+        return progressLatestRepository.findByScopeAndLastUpdateAtBeforeOrderByLastUpdateAtAsc(ProgressLatestScope.PROJECT, cutoff);
+    }
+
+    /** Regenerates the whole projection from progress update history. Returns the number of rows written. */
+    @Transactional
+    public int rebuild() {
+        progressLatestRepository.deleteAllInBatch();
+        List<ProgressLatest> rows = new ArrayList<>();
+        latestBy(progressUpdateRepository.findLatestPerProject(), ProgressUpdate::getProjectId)
+                .forEach((projectId, u) -> rows.add(row(ProgressLatestScope.PROJECT, projectId, u)));
+        latestBy(progressUpdateRepository.findLatestPerContract(), ProgressUpdate::getContractId)
+                .forEach((contractId, u) -> rows.add(row(ProgressLatestScope.CONTRACT, contractId, u)));
+        progressLatestRepository.saveAll(rows);
+        log.info("Rebuilt progress_latest projection: {} row(s)", rows.size());
+        return rows.size();
+    }
+
+    /** First start after the projection was introduced: fill it from history so summaries are not empty. */
+    @EventListener(ApplicationReadyEvent.class)
+    public void rebuildIfEmpty() {
+        try {
+            if (progressLatestRepository.count() == 0 && progressUpdateRepository.count() > 0) {
+                rebuild();
+            }
+        } catch (Exception e) {
+            log.warn("Could not initialise progress_latest projection: {}", e.getMessage());
+        }
+    }
+
+    /** Groups tied candidates by key and keeps the most recent per key. */
+    static Map<Long, ProgressUpdate> latestBy(List<ProgressUpdate> candidates, Function<ProgressUpdate, Long> key) {
+        Map<Long, ProgressUpdate> latest = new LinkedHashMap<>();
+        for (ProgressUpdate u : candidates) {
+            Long k = key.apply(u);
+            if (k != null) {
+                latest.merge(k, u, (a, b) -> RECENCY.compare(a, b) >= 0 ? a : b);
+            }
+        }
+        return latest;
+    }
+
+    private void offer(ProgressLatestScope scope, Long scopeId, ProgressUpdate candidate) {
+        if (scopeId == null) {
+            return;
+        }
+        // insert-if-absent first so concurrent first updates serialize on the row lock instead of the unique key
+        progressLatestRepository.insertIfAbsent(scope.name(), scopeId, candidate.getId(), candidate.getProjectId(),
+                candidate.getContractId(), candidate.getProgressPercentage(), candidate.getUpdatedAt());
+        Optional<ProgressLatest> current = progressLatestRepository.findForUpdate(scope, scopeId);
+        if (current.isEmpty()) {
+            return;
+        }
+        ProgressLatest row = current.get();
+        boolean sameRow = Objects.equals(row.getProgressUpdateId(), candidate.getId());
+        boolean newer = row.getLastUpdateAt() == null || candidate.getUpdatedAt() == null
+                || !candidate.getUpdatedAt().isBefore(row.getLastUpdateAt());
+        if (sameRow || newer) {
+            row.apply(candidate);
+            progressLatestRepository.save(row);
+        }
+    }
+
+    private void rederiveIfPointingAt(ProgressLatestScope scope, Long scopeId, Long progressUpdateId) {
+        if (scopeId == null) {
+            return;
+        }
+        progressLatestRepository.findForUpdate(scope, scopeId)
+                .filter(row -> Objects.equals(row.getProgressUpdateId(), progressUpdateId))
+                .ifPresent(row -> {
+                    Optional<ProgressUpdate> latest = scope == ProgressLatestScope.PROJECT
+                            ? progressUpdateRepository.findFirstByProjectIdOrderByUpdatedAtDescIdDesc(scopeId)
+                            : progressUpdateRepository.findFirstByContractIdOrderByUpdatedAtDescIdDesc(scopeId);
+                    if (latest.isPresent()) {
+                        row.apply(latest.get());
+                        progressLatestRepository.save(row);
+                    } else {
+                        progressLatestRepository.delete(row);
+                    }
+                });
+    }
+
+    private static ProgressLatest row(ProgressLatestScope scope, Long scopeId, ProgressUpdate u) {
+        ProgressLatest row = new ProgressLatest(scope, scopeId);
+        row.apply(u);
+        return row;
+    }
+}
@@ -0,0 +1,237 @@
+package com.esprit.planning.service;
+
+import com.esprit.planning.entity.ProgressUpdate;
+import com.esprit.planning.repository.ProgressCommentRepository;
+import com.esprit.planning.repository.ProgressUpdateRepository;
+import com.esprit.planning.repository.ProgressUpdateSpecification;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Streams progress updates matching the list filters as CSV or NDJSON. Rows are read in keyset chunks
+ * (id descending, {@code planning.export.chunk-size} rows each) with one grouped comment-count query per chunk.
+ * Each chunk is read in its own short read-only transaction whose persistence context closes with it, so memory
+ * stays flat regardless of the row count and no connection is held while a slow client drains the response.
+ */
+@Service
+public class ProgressUpdateExportService {
+
+    static final String CSV_HEADER = "id,projectId,contractId,freelancerId,title,description,progressPercentage,createdAt,updatedAt,nextUpdateDue,nextDueOverdueNotified,githubRepoUrl,commentCount\n";
+
+    private static final Sort KEYSET_ORDER = Sort.by(Sort.Direction.DESC, "id");
+
+    private final ProgressUpdateRepository progressUpdateRepository;
+    private final ProgressCommentRepository progressCommentRepository;
+    private final TransactionTemplate readOnlyTx;
+    private final int chunkSize;
+
+    public ProgressUpdateExportService(ProgressUpdateRepository progressUpdateRepository,
+                                       ProgressCommentRepository progressCommentRepository,
+                                       PlatformTransactionManager transactionManager,
+                                       @Value("${planning.export.chunk-size:500}") int chunkSize) {
+        this.progressUpdateRepository = progressUpdateRepository;
+        this.progressCommentRepository = progressCommentRepository;
+        this.readOnlyTx = new TransactionTemplate(transactionManager);
+        this.readOnlyTx.setReadOnly(true);
+        this.chunkSize = Math.max(1, chunkSize);
+    }
+
+    /** One keyset page and the comment counts of its rows. */
+    private record Chunk(List<ProgressUpdate> rows, Map<Long, Long> commentCounts) {
+    }
+
+    /** Export format; anything other than {@code ndjson} falls back to CSV so older clients keep working. */
+    public enum Format {
+        CSV("text/csv", "csv"),
+        NDJSON("application/x-ndjson", "ndjson");
+
+        private final String contentType;
+        private final String extension;
+
+        Format(String contentType, String extension) {
+            this.contentType = contentType;
+            this.extension = extension;
+        }
+
+        public String getContentType() {
+            return contentType;
+        }
+
+        public String getExtension() {
+            return extension;
+        }
+
+        public static Format parse(String value) {
+            return value != null && "ndjson".equalsIgnoreCase(value.trim()) ? NDJSON : CSV;
+        }
+    }
+
+    /** Writes every matching row to {@code out}, gzip-compressed when {@code gzip} is set. Does not close {@code out}. */
+    public void write(OutputStream out,
+                      Format format,
+                      boolean gzip,
+                      Optional<Long> projectId,
+                      Optional<Long> freelancerId,
+                      Optional<Long> contractId,
+                      Optional<Integer> progressMin,
+                      Optional<Integer> progressMax,
+                      Optional<LocalDate> dateFrom,
+                      Optional<LocalDate> dateTo,
+                      Optional<String> search,
+                      Optional<Set<Long>> allowedProjectIds) throws IOException {
+        Specification<ProgressUpdate> filter = ProgressUpdateSpecification.filtered(
+                projectId, freelancerId, contractId, progressMin, progressMax, dateFrom, dateTo, search,
+                allowedProjectIds.map(ids -> (Collection<Long>) ids));
+        GZIPOutputStream gzipOut = gzip ? new GZIPOutputStream(out, 8192) : null;
+        Writer writer = new BufferedWriter(new OutputStreamWriter(gzipOut != null ? gzipOut : out, StandardCharsets.UTF_8));
+        if (format == Format.CSV) {
+            writer.write(CSV_HEADER);
+        }
+        Long lastId = null;
+        while (true) {
+            Specification<ProgressUpdate> spec = lastId == null ? filter : filter.and(ProgressUpdateSpecification.idBefore(lastId));
+            Chunk loaded = readOnlyTx.execute(status -> {
+                List<ProgressUpdate> rows = progressUpdateRepository.findBy(spec, q -> q.sortBy(KEYSET_ORDER).limit(chunkSize).all());
+                return new Chunk(rows, rows.isEmpty() ? Map.of() : commentCounts(rows));
+            });
+            List<ProgressUpdate> chunk = loaded.rows();
+            if (chunk.isEmpty()) {
+                break;
+            }
+            for (ProgressUpdate update : chunk) {
+                long commentCount = loaded.commentCounts().getOrDefault(update.getId(), 0L);
+                if (format == Format.NDJSON) {
+                    writeJsonLine(writer, update, commentCount);
+                } else {
+                    writeCsvLine(writer, update, commentCount);
+                }
+            }
+            writer.flush();
+            lastId = chunk.get(chunk.size() - 1).getId();
+            if (chunk.size() < chunkSize) {
+                break;
+            }
+        }
+        writer.flush();
+        if (gzipOut != null) {
+            gzipOut.finish();
+        }
+    }
+
+    private Map<Long, Long> commentCounts(List<ProgressUpdate> chunk) {
+        List<Long> ids = chunk.stream().map(ProgressUpdate::getId).toList();
+        Map<Long, Long> counts = new HashMap<>();
+        for (Object[] row : progressCommentRepository.countGroupedByProgressUpdateIdIn(ids)) {
+            counts.put((Long) row[0], ((Number) row[1]).longValue());
+        }
+        return counts;
+    }
+
+    private static void writeCsvLine(Writer w, ProgressUpdate u, long commentCount) throws IOException {
+        w.write(csv(u.getId()));
+        w.write(',');
+        w.write(csv(u.getProjectId()));
+        w.write(',');
+        w.write(csv(u.getContractId()));
+        w.write(',');
+        w.write(csv(u.getFreelancerId()));
+        w.write(',');
+        w.write(csv(u.getTitle()));
+        w.write(',');
+        w.write(csv(u.getDescription()));
+        w.write(',');
+        w.write(csv(u.getProgressPercentage()));
+        w.write(',');
+        w.write(csv(u.getCreatedAt()));
+        w.write(',');
+        w.write(csv(u.getUpdatedAt()));
+        w.write(',');
+        w.write(csv(u.getNextUpdateDue()));
+        w.write(',');
+        w.write(csv(u.getNextDueOverdueNotified()));
+        w.write(',');
+        w.write(csv(u.getGithubRepoUrl()));
+        w.write(',');
+        w.write(csv(commentCount));
+        w.write('\n');
+    }
+
+    private static void writeJsonLine(Writer w, ProgressUpdate u, long commentCount) throws IOException {
+        w.write("{\"id\":" + json(u.getId()));
+        w.write(",\"projectId\":" + json(u.getProjectId()));
+        w.write(",\"contractId\":" + json(u.getContractId()));
+        w.write(",\"freelancerId\":" + json(u.getFreelancerId()));
+        w.write(",\"title\":" + json(u.getTitle()));
+        w.write(",\"description\":" + json(u.getDescription()));
+        w.write(",\"progressPercentage\":" + json(u.getProgressPercentage()));
+        w.write(",\"createdAt\":" + json(u.getCreatedAt()));
+        w.write(",\"updatedAt\":" + json(u.getUpdatedAt()));
+        w.write(",\"nextUpdateDue\":" + json(u.getNextUpdateDue()));
+        w.write(",\"nextDueOverdueNotified\":" + json(u.getNextDueOverdueNotified()));
+        w.write(",\"githubRepoUrl\":" + json(u.getGithubRepoUrl()));
+        w.write(",\"commentCount\":" + commentCount);
+        w.write("}\n");
+    }
+
+    /** Escapes a value for CSV (quotes if contains comma, quote, or newline). */
+    static String csv(Object value) {
+        if (value == null) {
+            return "";
+        }
+        String str = String.valueOf(value);
+        if (str.contains(",") || str.contains("\"") || str.contains("\n") || str.contains("\r")) {
+            str = str.replace("\"", "\"\"");
+            return "\"" + str + "\"";
+        }
+        return str;
+    }
+
+    /** JSON literal for numbers/booleans; quoted and escaped string for text and ISO date-times. */
+    static String json(Object value) {
+        if (value == null) {
+            return "null";
+        }
+        if (value instanceof Number || value instanceof Boolean) {
+            return String.valueOf(value);
+        }
+        String str = String.valueOf(value);
+        StringBuilder sb = new StringBuilder(str.length() + 2).append('"');
+        for (int i = 0; i < str.length(); i++) {
+            char c = str.charAt(i);
+            switch (c) {
+                case '"' -> sb.append("\\\"");
+                case '\\' -> sb.append("\\\\");
+                case '\n' -> sb.append("\\n");
+                case '\r' -> sb.append("\\r");
+                case '\t' -> sb.append("\\t");
+                default -> {
+                    if (c < 0x20) {
+                        sb.append(String.format("\\u%04x", (int) c));
+                    } else {
+                        sb.append(c);
+                    }
+                }
+            }
+        }
+        return sb.append('"').toString();
+    }
+}
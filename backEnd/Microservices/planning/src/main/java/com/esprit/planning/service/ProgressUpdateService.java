@@ -5,6 +5,8 @@ import com.esprit.planning.dto.*;
 import com.esprit.planning.dto.ProgressSummaryItemDto;
 import com.esprit.planning.dto.ProgressUpdateRequest;
 import com.esprit.planning.dto.ProgressUpdateValidationResponse;
+import com.esprit.planning.entity.ProgressLatest;
+import com.esprit.planning.entity.ProgressLatestScope;
 import com.esprit.planning.entity.ProgressUpdate;
 import com.esprit.planning.entity.ProjectDeadlineSync;
 import com.esprit.planning.exception.EntityNotFoundException;
@@ -39,19 +41,25 @@ public class ProgressUpdateService {
     private final ProjectClient projectClient;
     private final GoogleCalendarService googleCalendarService;
     private final ProjectDeadlineSyncRepository projectDeadlineSyncRepository;
+    private final ProgressLatestService progressLatestService;
+    private final DashboardStatsEngine dashboardStatsEngine;
 
     public ProgressUpdateService(ProgressUpdateRepository progressUpdateRepository,
                                  ProgressCommentRepository progressCommentRepository,
                                  PlanningNotificationService planningNotificationService,
                                  ProjectClient projectClient,
                                  GoogleCalendarService googleCalendarService,
-                                 ProjectDeadlineSyncRepository projectDeadlineSyncRepository) {
+                                 ProjectDeadlineSyncRepository projectDeadlineSyncRepository,
+                                 ProgressLatestService progressLatestService,
+                                 DashboardStatsEngine dashboardStatsEngine) {
         this.progressUpdateRepository = progressUpdateRepository;
         this.progressCommentRepository = progressCommentRepository;
         this.planningNotificationService = planningNotificationService;
         this.projectClient = projectClient;
         this.googleCalendarService = googleCalendarService;
         this.projectDeadlineSyncRepository = projectDeadlineSyncRepository;
+        this.progressLatestService = progressLatestService;
+        this.dashboardStatsEngine = dashboardStatsEngine;
     }
 
     /** Returns all progress updates (no filter). */
@@ -189,6 +197,8 @@ public class ProgressUpdateService {
             throw new ProgressCannotDecreaseException(minAllowed, progressUpdate.getProgressPercentage());
         }
         ProgressUpdate saved = progressUpdateRepository.save(progressUpdate);
+        progressLatestService.onSaved(saved, null, null);
+        dashboardStatsEngine.recordUpdateChange(null, DashboardStatsEngine.Entry.of(saved));
         notifyClientAboutProgress(saved.getProjectId(), saved.getFreelancerId(), "New progress update", saved.getTitle(),
             PlanningNotificationService.TYPE_PROGRESS_UPDATE, saved.getId(), saved.getProgressPercentage());
         syncNextDueCalendarEvent(saved);
@@ -215,6 +225,9 @@ public class ProgressUpdateService {
         }
         LocalDateTime previousNextDue = existing.getNextUpdateDue();
         String previousEventId = existing.getNextDueCalendarEventId();
+        Long previousProjectId = existing.getProjectId();
+        Long previousContractId = existing.getContractId();
+        DashboardStatsEngine.Entry before = DashboardStatsEngine.Entry.of(existing);
         if (!Objects.equals(previousNextDue, updated.getNextUpdateDue())) {
             existing.setNextDueOverdueNotified(false);
         }
@@ -227,6 +240,10 @@ public class ProgressUpdateService {
         existing.setNextUpdateDue(updated.getNextUpdateDue());
         existing.setGithubRepoUrl(updated.getGithubRepoUrl());
         ProgressUpdate saved = progressUpdateRepository.save(existing);
+        // flush so @PreUpdate has stamped updatedAt before the projection copies it
+        progressUpdateRepository.flush();
+        progressLatestService.onSaved(saved, previousProjectId, previousContractId);
+        dashboardStatsEngine.recordUpdateChange(before, DashboardStatsEngine.Entry.of(saved));
         notifyClientAboutProgress(saved.getProjectId(), saved.getFreelancerId(), "Progress update edited", saved.getTitle(),
             PlanningNotificationService.TYPE_PROGRESS_UPDATE, saved.getId(), saved.getProgressPercentage());
         syncNextDueCalendarEventOnUpdate(saved, previousNextDue, previousEventId);
@@ -250,7 +267,11 @@ public class ProgressUpdateService {
         Long freelancerId = existing.getFreelancerId();
         String title = existing.getTitle();
         String calendarEventId = existing.getNextDueCalendarEventId();
+        long cascadedComments = progressCommentRepository.countByProgressUpdate_Id(id);
         progressUpdateRepository.deleteById(id);
+        progressLatestService.onDeleted(existing);
+        dashboardStatsEngine.recordUpdateChange(DashboardStatsEngine.Entry.of(existing), null);
+        dashboardStatsEngine.recordCommentDelta(-cascadedComments);
         if (calendarEventId != null && !calendarEventId.isBlank()) {
             googleCalendarService.deleteEventAsync(null, calendarEventId);
         }
@@ -268,12 +289,19 @@ public class ProgressUpdateService {
                 "Progress update #" + saved.getId() + " – Project " + saved.getProjectId());
         eventId.ifPresent(id -> {
             saved.setNextDueCalendarEventId(id);
-            progressUpdateRepository.save(saved);
+            saveAndProject(saved);
             notifyFreelancerCalendar(saved.getFreelancerId(), "Calendar reminder", "Next progress update due: " + saved.getTitle(),
                 PlanningNotificationService.TYPE_CALENDAR_REMINDER, saved.getProjectId(), saved.getId());
         });
     }
 
+    /** Re-saves an update whose project/contract did not change; the bumped updatedAt goes to the projection too. */
+    private void saveAndProject(ProgressUpdate saved) {
+        progressUpdateRepository.save(saved);
+        progressUpdateRepository.flush();
+        progressLatestService.onSaved(saved, null, null);
+    }
+
     /** Updates or deletes the "next progress update due" calendar event after update. */
     private void syncNextDueCalendarEventOnUpdate(ProgressUpdate saved, LocalDateTime previousNextDue, String previousEventId) {
         if (previousEventId != null && !previousEventId.isBlank()
@@ -288,7 +316,7 @@ public class ProgressUpdateService {
                     "Progress update #" + saved.getId() + " – Project " + saved.getProjectId());
             eventId.ifPresent(id -> {
                 saved.setNextDueCalendarEventId(id);
-                progressUpdateRepository.save(saved);
+                saveAndProject(saved);
                 notifyFreelancerCalendar(saved.getFreelancerId(), "Calendar reminder", "Next progress update due: " + saved.getTitle(),
                     PlanningNotificationService.TYPE_CALENDAR_REMINDER, saved.getProjectId(), saved.getId());
             });
@@ -605,27 +633,28 @@ public class ProgressUpdateService {
     @Transactional(readOnly = true)
     // Returns dashboard statistics.
     public DashboardStatsDto getDashboardStatistics() {
-        List<ProgressUpdate> all = progressUpdateRepository.findAll();
-        List<Long> updateIds = all.stream().map(ProgressUpdate::getId).toList();
-        long totalComments = updateIds.isEmpty() ? 0 : progressCommentRepository.countByProgressUpdate_IdIn(updateIds);
-
-        double avgPct = all.isEmpty() ? 0.0 : all.stream()
-                .mapToInt(ProgressUpdate::getProgressPercentage)
-                .average()
-                .orElse(0.0);
-
-        long distinctProjectCount = all.stream().map(ProgressUpdate::getProjectId).distinct().count();
-        long distinctFreelancerCount = all.stream().map(ProgressUpdate::getFreelancerId).distinct().count();
+        return dashboardStatsEngine.snapshot().orElseGet(this::getDashboardStatisticsFromSql);
+    }
 
+    /** Dashboard figures from one aggregate query plus the comment count; used until the in-memory counters are built. */
+    private DashboardStatsDto getDashboardStatisticsFromSql() {
+        List<Object[]> rows = progressUpdateRepository.aggregateDashboardStats();
+        Object[] row = rows.isEmpty() ? new Object[4] : rows.get(0);
+        long totalUpdates = row[0] != null ? ((Number) row[0]).longValue() : 0L;
         return DashboardStatsDto.builder()
-                .totalUpdates(all.size())
-                .totalComments(totalComments)
-                .averageProgressPercentage(all.isEmpty() ? null : avgPct)
-                .distinctProjectCount(distinctProjectCount)
-                .distinctFreelancerCount(distinctFreelancerCount)
+                .totalUpdates(totalUpdates)
+                .totalComments(progressCommentRepository.count())
+                .averageProgressPercentage(totalUpdates == 0 || row[1] == null ? null : ((Number) row[1]).doubleValue())
+                .distinctProjectCount(row[2] != null ? ((Number) row[2]).longValue() : 0L)
+                .distinctFreelancerCount(row[3] != null ? ((Number) row[3]).longValue() : 0L)
                 .build();
     }
 
+    /** Recomputes the latest-progress projection from scratch; returns the number of rows written. */
+    public int rebuildLatestProgress() {
+        return progressLatestService.rebuild();
+    }
+
     /** Returns lightweight summary for multiple projects. Each project gets currentProgress%, lastUpdateAt. */
     @Transactional(readOnly = true)
     // Returns summary by project ids.
@@ -644,21 +673,14 @@ public class ProgressUpdateService {
         if (scopedIds.isEmpty()) {
             return List.of();
         }
-        List<ProgressUpdate> updates = progressUpdateRepository.findByProjectIdIn(scopedIds);
-        Map<Long, List<ProgressUpdate>> byProject = updates.stream().collect(Collectors.groupingBy(ProgressUpdate::getProjectId));
+        Map<Long, ProgressLatest> latestByProject = progressLatestService.findByScopeIds(ProgressLatestScope.PROJECT, scopedIds);
         return scopedIds.stream()
                 .map(pid -> {
-                    List<ProgressUpdate> projectUpdates = byProject.get(pid);
-                    if (projectUpdates == null || projectUpdates.isEmpty()) {
-                        return ProgressSummaryItemDto.builder().projectId(pid).currentProgressPercentage(null).lastUpdateAt(null).build();
-                    }
-                    ProgressUpdate latest = projectUpdates.stream()
-                            .max(Comparator.nullsLast(Comparator.comparing(ProgressUpdate::getUpdatedAt)))
-                            .orElseThrow();
+                    ProgressLatest latest = latestByProject.get(pid);
                     return ProgressSummaryItemDto.builder()
                             .projectId(pid)
-                            .currentProgressPercentage(latest.getProgressPercentage())
-                            .lastUpdateAt(latest.getUpdatedAt())
+                            .currentProgressPercentage(latest != null ? latest.getProgressPercentage() : null)
+                            .lastUpdateAt(latest != null ? latest.getLastUpdateAt() : null)
                             .build();
                 })
                 .toList();
@@ -676,27 +698,18 @@ public class ProgressUpdateService {
         if (contractIds == null || contractIds.isEmpty()) {
             return List.of();
         }
-        List<ProgressUpdate> updates = progressUpdateRepository.findByContractIdIn(contractIds);
-        updates = updates.stream()
-                .filter(u -> isProjectAllowed(u.getProjectId(), allowedProjectIds))
-                .toList();
-        Map<Long, List<ProgressUpdate>> byContract = updates.stream()
-                .filter(u -> u.getContractId() != null)
-                .collect(Collectors.groupingBy(ProgressUpdate::getContractId));
+        Map<Long, ProgressLatest> latestByContract = progressLatestService.findByScopeIds(ProgressLatestScope.CONTRACT, contractIds);
         return contractIds.stream()
                 .map(cid -> {
-                    List<ProgressUpdate> contractUpdates = byContract.get(cid);
-                    if (contractUpdates == null || contractUpdates.isEmpty()) {
+                    ProgressLatest latest = latestByContract.get(cid);
+                    if (latest == null || !isProjectAllowed(latest.getProjectId(), allowedProjectIds)) {
                         return ProgressSummaryItemDto.builder().contractId(cid).currentProgressPercentage(null).lastUpdateAt(null).build();
                     }
-                    ProgressUpdate latest = contractUpdates.stream()
-                            .max(Comparator.nullsLast(Comparator.comparing(ProgressUpdate::getUpdatedAt)))
-                            .orElseThrow();
                     return ProgressSummaryItemDto.builder()
                             .contractId(cid)
                             .projectId(latest.getProjectId())
                             .currentProgressPercentage(latest.getProgressPercentage())
-                            .lastUpdateAt(latest.getUpdatedAt())
+                            .lastUpdateAt(latest.getLastUpdateAt())
                             .build();
                 })
                 .toList();
@@ -706,54 +719,17 @@ public class ProgressUpdateService {
     @Transactional(readOnly = true)
     // Returns freelancer projects summary.
     public List<ProgressSummaryItemDto> getFreelancerProjectsSummary(Long freelancerId) {
-        List<ProgressUpdate> updates = progressUpdateRepository.findByFreelancerId(freelancerId);
-        return updates.stream()
-                .collect(Collectors.groupingBy(ProgressUpdate::getProjectId))
+        return ProgressLatestService.latestBy(progressUpdateRepository.findLatestPerProjectByFreelancerId(freelancerId), ProgressUpdate::getProjectId)
                 .values().stream()
-                .map(projectUpdates -> {
-                    ProgressUpdate latest = projectUpdates.stream()
-                            .max(Comparator.nullsLast(Comparator.comparing(ProgressUpdate::getUpdatedAt)))
-                            .orElseThrow();
-                    return ProgressSummaryItemDto.builder()
-                            .projectId(latest.getProjectId())
-                            .contractId(latest.getContractId())
-                            .currentProgressPercentage(latest.getProgressPercentage())
-                            .lastUpdateAt(latest.getUpdatedAt())
-                            .build();
-                })
+                .map(latest -> ProgressSummaryItemDto.builder()
+                        .projectId(latest.getProjectId())
+                        .contractId(latest.getContractId())
+                        .currentProgressPercentage(latest.getProgressPercentage())
+                        .lastUpdateAt(latest.getUpdatedAt())
+                        .build())
                 .toList();
     }
 
-    @Transactional(readOnly = true)
-    /** Returns all progress updates matching the filters (no pagination), for CSV export. */
-    public List<ProgressUpdate> findAllFilteredForExport(
-            Optional<Long> projectId,
-            Optional<Long> freelancerId,
-            Optional<Long> contractId,
-            Optional<Integer> progressMin,
-            Optional<Integer> progressMax,
-            Optional<LocalDate> dateFrom,
-            Optional<LocalDate> dateTo,
-            Optional<String> search) {
-        return findAllFilteredForExport(projectId, freelancerId, contractId, progressMin, progressMax, dateFrom, dateTo, search, Optional.empty());
-    }
-
-    @Transactional(readOnly = true)
-    public List<ProgressUpdate> findAllFilteredForExport(
-            Optional<Long> projectId,
-            Optional<Long> freelancerId,
-            Optional<Long> contractId,
-            Optional<Integer> progressMin,
-            Optional<Integer> progressMax,
-            Optional<LocalDate> dateFrom,
-            Optional<LocalDate> dateTo,
-            Optional<String> search,
-            Optional<Set<Long>> allowedProjectIds) {
-        var spec = ProgressUpdateSpecification.filtered(
-                projectId, freelancerId, contractId, progressMin, progressMax, dateFrom, dateTo, search, normalizeAllowedProjectIds(allowedProjectIds));
-        return progressUpdateRepository.findAll(spec, org.springframework.data.domain.Sort.by(org.springframework.data.domain.Sort.Direction.DESC, "createdAt"));
-    }
-
     // --- Stalled projects (section 4) ---
 
     @Transactional(readOnly = true)
@@ -765,22 +741,9 @@ public class ProgressUpdateService {
     @Transactional(readOnly = true)
     public List<StalledProjectDto> getProjectIdsWithStalledProgress(int daysWithoutUpdate, Optional<Set<Long>> allowedProjectIds) {
         LocalDateTime cutoff = LocalDateTime.now().minusDays(daysWithoutUpdate);
-        List<Object[]> projectIdAndMaxUpdatedAt = progressUpdateRepository.findProjectIdAndMaxUpdatedAt();
-        return projectIdAndMaxUpdatedAt.stream()
-                .filter(row -> isProjectAllowed((Long) row[0], allowedProjectIds))
-                .filter(row -> {
-                    LocalDateTime lastUpdateAt = (LocalDateTime) row[1];
-                    return lastUpdateAt != null && lastUpdateAt.isBefore(cutoff);
-                })
-                .map(row -> {
-                    Long projectId = (Long) row[0];
-                    LocalDateTime lastUpdateAt = (LocalDateTime) row[1];
-                    Integer lastProgressPercentage = progressUpdateRepository
-                            .findByProjectIdAndUpdatedAt(projectId, lastUpdateAt)
-                            .map(ProgressUpdate::getProgressPercentage)
-                            .orElse(null);
-                    return new StalledProjectDto(projectId, lastUpdateAt, lastProgressPercentage);
-                })
+        return progressLatestService.findProjectsNotUpdatedSince(cutoff).stream()
+                .filter(latest -> isProjectAllowed(latest.getScopeId(), allowedProjectIds))
+                .map(latest -> new StalledProjectDto(latest.getScopeId(), latest.getLastUpdateAt(), latest.getProgressPercentage()))
                 .toList();
     }
 
@@ -0,0 +1,50 @@
+package com.esprit.planning.client;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import com.esprit.planning.dto.UserDto;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * Wiring test for this module's {@link UserDirectory} copy: it must key users by id from
+ * {@link UserClient#getUsersByIds}. The caching and batching behaviour shared by every copy is covered by
+ * FreelanciaJob's {@code UserDirectoryTest}.
+ */
+@ExtendWith(MockitoExtension.class)
+@DisplayName("UserDirectory – Unit Tests")
+class UserDirectoryTest {
+
+    @Mock private UserClient userClient;
+
+    private UserDirectory directory;
+
+    @AfterEach
+    void tearDown() {
+        directory.stop();
+    }
+
+    @Test
+    @DisplayName("findAll() – should key batch results by id and serve repeats from the cache")
+    void findAll_keysBatchResultsById() {
+        UserDto user = new UserDto();
+        user.setId(1L);
+        user.setLastName("Last1");
+        when(userClient.getUsersByIds(anyList())).thenReturn(List.of(user));
+        directory = new UserDirectory(userClient, 600_000, 1_000, 50, 500);
+
+        assertThat(directory.findAll(List.of(1L, 2L))).containsOnlyKeys(1L);
+        assertThat(directory.find(1L)).map(UserDto::getLastName).contains("Last1");
+        verify(userClient, times(1)).getUsersByIds(anyList());
+    }
+}
@@ -9,6 +9,7 @@ import com.esprit.planning.entity.ProgressComment;
 import com.esprit.planning.entity.ProgressUpdate;
 import com.esprit.planning.exception.ProgressCannotDecreaseException;
 import com.esprit.planning.service.ProgressCommentService;
+import com.esprit.planning.service.ProgressUpdateExportService;
 import com.esprit.planning.service.ProgressUpdateService;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import org.junit.jupiter.api.Test;
@@ -23,7 +24,10 @@ import org.springframework.data.domain.Pageable;
 import org.springframework.http.MediaType;
 import org.springframework.test.context.TestPropertySource;
 import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
 
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
 import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.util.List;
@@ -31,6 +35,7 @@ import java.util.Optional;
 
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.doAnswer;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
@@ -56,6 +61,9 @@ class ProgressUpdateControllerTest {
     @MockitoBean
     private ProgressCommentService progressCommentService;
 
+    @MockitoBean
+    private ProgressUpdateExportService progressUpdateExportService;
+
     @Test
     void welcome_returnsWelcomeMessage() throws Exception {
         mockMvc.perform(get("/api/progress-updates/welcome"))
@@ -147,38 +155,59 @@ class ProgressUpdateControllerTest {
         assertThat(pageable.getValue().getPageSize()).isEqualTo(1);
     }
 
+    private void stubExport(String content) throws Exception {
+        doAnswer(inv -> {
+            OutputStream out = inv.getArgument(0);
+            out.write(content.getBytes(StandardCharsets.UTF_8));
+            return null;
+        }).when(progressUpdateExportService).write(any(), any(), anyBoolean(), any(), any(), any(), any(), any(), any(), any(), any(), any());
+    }
+
     @Test
-    void export_returnsCsv() throws Exception {
-        when(progressUpdateService.findAllFilteredForExport(any(), any(), any(), any(), any(), any(), any(), any()))
-                .thenReturn(List.of(progressUpdate(1L, 1L, 10L, "Title", 75)));
+    void export_streamsCsv() throws Exception {
+        stubExport("id,projectId,\n1,1,\n");
 
-        mockMvc.perform(get("/api/progress-updates/export"))
+        MvcResult started = mockMvc.perform(get("/api/progress-updates/export"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        mockMvc.perform(asyncDispatch(started))
                 .andExpect(status().isOk())
                 .andExpect(header().string("Content-Type", "text/csv"))
+                .andExpect(header().string("Content-Disposition", "attachment; filename=\"progress-updates-export.csv\""))
                 .andExpect(content().string(org.hamcrest.Matchers.containsString("id,projectId,")));
+        verify(progressUpdateExportService).write(any(), eq(ProgressUpdateExportService.Format.CSV), eq(false),
+                any(), any(), any(), any(), any(), any(), any(), any(), eq(Optional.empty()));
     }
 
     @Test
-    void export_withSpecialChars_escapesCsv() throws Exception {
-        ProgressUpdate u = progressUpdate(1L, 1L, 10L, "Title, with comma", 75);
-        when(progressUpdateService.findAllFilteredForExport(any(), any(), any(), any(), any(), any(), any(), any()))
-                .thenReturn(List.of(u));
+    void export_ndjsonGzip_setsGzipAttachment() throws Exception {
+        stubExport("");
+
+        MvcResult started = mockMvc.perform(get("/api/progress-updates/export")
+                        .param("format", "ndjson")
+                        .param("gzip", "true"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
 
-        mockMvc.perform(get("/api/progress-updates/export"))
+        mockMvc.perform(asyncDispatch(started))
                 .andExpect(status().isOk())
-                .andExpect(content().string(org.hamcrest.Matchers.containsString("\"Title, with comma\"")));
+                .andExpect(header().string("Content-Type", "application/gzip"))
+                .andExpect(header().string("Content-Disposition", "attachment; filename=\"progress-updates-export.ndjson.gz\""));
+        verify(progressUpdateExportService).write(any(), eq(ProgressUpdateExportService.Format.NDJSON), eq(true),
+                any(), any(), any(), any(), any(), any(), any(), any(), any());
     }
 
     @Test
-    void export_escapesNewlineInDescription() throws Exception {
-        ProgressUpdate u = progressUpdate(1L, 1L, 10L, "T", 40);
-        u.setDescription("line1\nline2");
-        when(progressUpdateService.findAllFilteredForExport(any(), any(), any(), any(), any(), any(), any(), any()))
-                .thenReturn(List.of(u));
+    void export_unknownFormat_fallsBackToCsv() throws Exception {
+        stubExport("");
 
-        mockMvc.perform(get("/api/progress-updates/export"))
-                .andExpect(status().isOk())
-                .andExpect(content().string(org.hamcrest.Matchers.containsString("\"line1")));
+        MvcResult started = mockMvc.perform(get("/api/progress-updates/export").param("format", "xlsx"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        mockMvc.perform(asyncDispatch(started))
+                .andExpect(header().string("Content-Type", "text/csv"));
     }
 
     @Test
@@ -462,6 +491,18 @@ class ProgressUpdateControllerTest {
                 .andExpect(jsonPath("$.message").value("projectId is required"));
     }
 
+    @Test
+    void invalidateAccessCache_returns204() throws Exception {
+        mockMvc.perform(post("/api/progress-updates/access-cache/invalidate").param("freelancerId", "10"))
+                .andExpect(status().isNoContent());
+    }
+
+    @Test
+    void invalidateAccessCache_withoutFreelancerId_returns400() throws Exception {
+        mockMvc.perform(post("/api/progress-updates/access-cache/invalidate"))
+                .andExpect(status().isBadRequest());
+    }
+
     @Test
     void validate_returnsValidationResponse() throws Exception {
         ProgressUpdateRequest request = new ProgressUpdateRequest();
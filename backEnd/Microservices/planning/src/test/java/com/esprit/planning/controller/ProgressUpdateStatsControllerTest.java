@@ -15,7 +15,9 @@ import java.time.LocalDateTime;
 import static org.mockito.ArgumentMatchers.*;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
+import static org.mockito.Mockito.never;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
 
 /**
@@ -137,4 +139,21 @@ class ProgressUpdateStatsControllerTest {
                 .andExpect(status().isOk());
         verify(progressUpdateService).getProgressReportForProject(1L, null, null);
     }
+
+    @Test
+    void rebuildLatestProgress_asAdmin_returnsRowCount() throws Exception {
+        when(progressUpdateService.rebuildLatestProgress()).thenReturn(12);
+
+        mockMvc.perform(post("/api/progress-updates/stats/latest/rebuild").header("X-User-Role", "ADMIN"))
+                .andExpect(status().isOk())
+                .andExpect(content().string("12"));
+    }
+
+    @Test
+    void rebuildLatestProgress_asNonAdmin_returns403() throws Exception {
+        mockMvc.perform(post("/api/progress-updates/stats/latest/rebuild").header("X-User-Role", "CLIENT"))
+                .andExpect(status().isForbidden());
+
+        verify(progressUpdateService, never()).rebuildLatestProgress();
+    }
 }
@@ -0,0 +1,117 @@
+package com.esprit.planning.service;
+
+import com.esprit.planning.dto.DashboardStatsDto;
+import com.esprit.planning.repository.ProgressUpdateRepository;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.TestPropertySource;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Dashboard latency as the progress_update table grows to 1M synthetic rows: the aggregate SQL fallback (one table
+ * scan per call) vs the in-memory counters of {@link DashboardStatsEngine} (constant per call). Rows are seeded with
+ * batched JDBC inserts; the counters are rebuilt at each checkpoint since the seed bypasses the service.
+ * <p>
+ * Too slow for every build; run with {@code mvn test -Dbenchmark=true -Dtest=DashboardStatsBenchmarkTest}
+ * ({@code -Dplanning.benchmark.rows=N} changes the final size).
+ */
+@Tag("benchmark")
+@EnabledIfSystemProperty(named = "benchmark", matches = "true")
+@SpringBootTest
+@TestPropertySource(properties = {
+        "spring.cloud.config.enabled=false",
+        "spring.config.import=optional:configserver:http://127.0.0.1:65534",
+        "spring.security.oauth2.resourceserver.jwt.jwk-set-uri=http://127.0.0.1:65535/mock-jwks",
+        "spring.jpa.show-sql=false"
+})
+class DashboardStatsBenchmarkTest {
+
+    private static final Logger log = LoggerFactory.getLogger(DashboardStatsBenchmarkTest.class);
+
+    private static final int INSERT_BATCH = 10_000;
+    private static final int READS = 1_000;
+
+    @Autowired
+    private ProgressUpdateService progressUpdateService;
+
+    @Autowired
+    private ProgressUpdateRepository progressUpdateRepository;
+
+    @Autowired
+    private DashboardStatsEngine dashboardStatsEngine;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Test
+    void dashboard_counterReadsStayFlatAsTableGrows() {
+        int target = Integer.getInteger("planning.benchmark.rows", 1_000_000);
+        log.info(String.format("%-9s | %-12s | %-14s | %-16s", "rows", "rebuild ms", "sql scan ms", "counters us/read"));
+        long existing = progressUpdateRepository.count();
+        int seeded = 0;
+        double firstCounterMicros = -1;
+        double lastCounterMicros = -1;
+        for (int checkpoint : new int[] {target / 100, target / 10, target}) {
+            seed(seeded, checkpoint);
+            seeded = checkpoint;
+
+            long t0 = System.nanoTime();
+            dashboardStatsEngine.rebuild();
+            double rebuildMs = (System.nanoTime() - t0) / 1e6;
+
+            t0 = System.nanoTime();
+            List<Object[]> sql = progressUpdateRepository.aggregateDashboardStats();
+            double sqlMs = (System.nanoTime() - t0) / 1e6;
+
+            DashboardStatsDto stats = null;
+            t0 = System.nanoTime();
+            for (int i = 0; i < READS; i++) {
+                stats = progressUpdateService.getDashboardStatistics();
+            }
+            double counterMicros = (System.nanoTime() - t0) / 1e3 / READS;
+            if (firstCounterMicros < 0) {
+                firstCounterMicros = counterMicros;
+            }
+            lastCounterMicros = counterMicros;
+
+            log.info(String.format("%-9d | %-12.1f | %-14.1f | %-16.2f", checkpoint, rebuildMs, sqlMs, counterMicros));
+
+            assertThat(stats.getTotalUpdates()).isEqualTo(existing + checkpoint);
+            assertThat(stats.getTotalUpdates()).isEqualTo(((Number) sql.get(0)[0]).longValue());
+            assertThat(stats.getDistinctFreelancerCount()).isEqualTo(((Number) sql.get(0)[3]).longValue());
+        }
+        // 100x more rows must not mean slower reads; the bound only absorbs JIT warm-up and GC noise.
+        assertThat(lastCounterMicros).isLessThan(Math.max(firstCounterMicros * 5, 50.0));
+    }
+
+    /** Inserts rows with ids (fromExclusive, toInclusive]: 5k projects, 2k freelancers, percentages 0..100. */
+    private void seed(int fromExclusive, int toInclusive) {
+        String sql = "INSERT INTO progress_update (project_id, contract_id, freelancer_id, title, progress_percentage,"
+                + " created_at, updated_at, next_due_overdue_notified) VALUES (?, ?, ?, ?, ?, ?, ?, ?)";
+        Timestamp base = Timestamp.valueOf(LocalDateTime.of(2026, 1, 1, 0, 0));
+        List<Object[]> batch = new ArrayList<>(INSERT_BATCH);
+        for (int n = fromExclusive + 1; n <= toInclusive; n++) {
+            Timestamp at = new Timestamp(base.getTime() + n * 1_000L);
+            batch.add(new Object[] {(long) (n % 5_000), (long) (n % 7_000), (long) (n % 2_000), "Bench " + n, n % 101, at, at, false});
+            if (batch.size() == INSERT_BATCH) {
+                jdbcTemplate.batchUpdate(sql, batch);
+                batch.clear();
+            }
+        }
+        if (!batch.isEmpty()) {
+            jdbcTemplate.batchUpdate(sql, batch);
+        }
+    }
+}
@@ -0,0 +1,131 @@
+package com.esprit.planning.service;
+
+import com.esprit.planning.dto.DashboardStatsDto;
+import com.esprit.planning.repository.ProgressCommentRepository;
+import com.esprit.planning.repository.ProgressUpdateRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+
+/**
+ * Unit tests for DashboardStatsEngine. Verifies the grouped-query build, create/edit/delete deltas (applied
+ * immediately outside a transaction), deltas replayed across a rebuild and that distinct counts drop a key when its
+ * last update goes.
+ */
+@ExtendWith(MockitoExtension.class)
+class DashboardStatsEngineTest {
+
+    @Mock
+    private ProgressUpdateRepository progressUpdateRepository;
+
+    @Mock
+    private ProgressCommentRepository progressCommentRepository;
+
+    private DashboardStatsEngine engine;
+
+    @BeforeEach
+    void setUp() {
+        engine = new DashboardStatsEngine(progressUpdateRepository, progressCommentRepository, true);
+    }
+
+    private void build() {
+        // project 1: 2 updates, project 2: 1 update; freelancer 10: 2 updates (40 + 60), freelancer 11: 1 update (20)
+        when(progressUpdateRepository.countGroupedByProjectId())
+                .thenReturn(List.<Object[]>of(new Object[]{1L, 2L}, new Object[]{2L, 1L}));
+        when(progressUpdateRepository.countAndSumPercentageGroupedByFreelancerId())
+                .thenReturn(List.<Object[]>of(new Object[]{10L, 2L, 100L}, new Object[]{11L, 1L, 20L}));
+        when(progressCommentRepository.count()).thenReturn(4L);
+        engine.rebuild();
+    }
+
+    @Test
+    void snapshot_beforeBuild_isEmpty() {
+        assertThat(engine.isReady()).isFalse();
+        assertThat(engine.snapshot()).isEmpty();
+    }
+
+    @Test
+    void rebuild_aggregatesGroupedRows() {
+        build();
+
+        DashboardStatsDto stats = engine.snapshot().orElseThrow();
+        assertThat(stats.getTotalUpdates()).isEqualTo(3);
+        assertThat(stats.getTotalComments()).isEqualTo(4);
+        assertThat(stats.getAverageProgressPercentage()).isEqualTo(40.0);
+        assertThat(stats.getDistinctProjectCount()).isEqualTo(2);
+        assertThat(stats.getDistinctFreelancerCount()).isEqualTo(2);
+    }
+
+    @Test
+    void recordUpdateChange_createEditDelete_adjustsCountersAndDistincts() {
+        build();
+
+        engine.recordUpdateChange(null, new DashboardStatsEngine.Entry(3L, 12L, 80));
+        DashboardStatsDto afterCreate = engine.snapshot().orElseThrow();
+        assertThat(afterCreate.getTotalUpdates()).isEqualTo(4);
+        assertThat(afterCreate.getAverageProgressPercentage()).isEqualTo(50.0);
+        assertThat(afterCreate.getDistinctProjectCount()).isEqualTo(3);
+        assertThat(afterCreate.getDistinctFreelancerCount()).isEqualTo(3);
+
+        engine.recordUpdateChange(new DashboardStatsEngine.Entry(3L, 12L, 80), new DashboardStatsEngine.Entry(1L, 12L, 100));
+        DashboardStatsDto afterMove = engine.snapshot().orElseThrow();
+        assertThat(afterMove.getTotalUpdates()).isEqualTo(4);
+        assertThat(afterMove.getAverageProgressPercentage()).isEqualTo(55.0);
+        assertThat(afterMove.getDistinctProjectCount()).isEqualTo(2);
+
+        engine.recordUpdateChange(new DashboardStatsEngine.Entry(2L, 11L, 20), null);
+        DashboardStatsDto afterDelete = engine.snapshot().orElseThrow();
+        assertThat(afterDelete.getTotalUpdates()).isEqualTo(3);
+        assertThat(afterDelete.getDistinctProjectCount()).isEqualTo(1);
+        assertThat(afterDelete.getDistinctFreelancerCount()).isEqualTo(2);
+    }
+
+    @Test
+    void rebuild_replaysDeltasCommittedWhileTheQueriesRun() {
+        build();
+        // the create and the comment commit after the grouped queries were issued, so neither shows up in their rows
+        when(progressUpdateRepository.countGroupedByProjectId()).thenAnswer(inv -> {
+            engine.recordUpdateChange(null, new DashboardStatsEngine.Entry(3L, 12L, 80));
+            engine.recordCommentDelta(1);
+            return List.<Object[]>of(new Object[]{1L, 2L}, new Object[]{2L, 1L});
+        });
+
+        engine.rebuild();
+
+        DashboardStatsDto stats = engine.snapshot().orElseThrow();
+        assertThat(stats.getTotalUpdates()).isEqualTo(4);
+        assertThat(stats.getTotalComments()).isEqualTo(5);
+        assertThat(stats.getAverageProgressPercentage()).isEqualTo(50.0);
+        assertThat(stats.getDistinctProjectCount()).isEqualTo(3);
+        assertThat(stats.getDistinctFreelancerCount()).isEqualTo(3);
+    }
+
+    @Test
+    void recordCommentDelta_neverGoesNegative() {
+        build();
+
+        engine.recordCommentDelta(2);
+        engine.recordCommentDelta(-10);
+
+        assertThat(engine.snapshot().orElseThrow().getTotalComments()).isZero();
+    }
+
+    @Test
+    void disabled_neverBuildsAndIgnoresDeltas() {
+        DashboardStatsEngine disabled = new DashboardStatsEngine(progressUpdateRepository, progressCommentRepository, false);
+
+        disabled.onApplicationReady();
+        disabled.recordUpdateChange(null, new DashboardStatsEngine.Entry(1L, 1L, 10));
+
+        assertThat(disabled.snapshot()).isEmpty();
+        verifyNoInteractions(progressUpdateRepository, progressCommentRepository);
+    }
+}
@@ -0,0 +1,104 @@
+package com.esprit.planning.service;
+
+import com.esprit.planning.client.ContractClient;
+import com.esprit.planning.client.ProjectApplicationClient;
+import com.esprit.planning.dto.ContractDto;
+import com.esprit.planning.dto.ProjectApplicationFeignDto;
+import com.esprit.planning.repository.ProgressUpdateRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.util.Collections;
+import java.util.List;
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class FreelancerProjectAccessServiceTest {
+
+    @Mock
+    private ProjectApplicationClient projectApplicationClient;
+
+    @Mock
+    private ContractClient contractClient;
+
+    @Mock
+    private ProgressUpdateRepository progressUpdateRepository;
+
+    private SimpleMeterRegistry meterRegistry;
+    private FreelancerProjectAccessService service;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        service = new FreelancerProjectAccessService(projectApplicationClient, contractClient, progressUpdateRepository,
+                meterRegistry, 60L, 100);
+    }
+
+    private static ProjectApplicationFeignDto accepted(Long projectId) {
+        ProjectApplicationFeignDto app = new ProjectApplicationFeignDto();
+        app.setStatus("ACCEPTED");
+        app.setProject(new ProjectApplicationFeignDto.NestedProject(projectId, "P"));
+        return app;
+    }
+
+    @Test
+    void getAccessibleProjectIdsForFreelancer_nullId_returnsEmpty() {
+        assertThat(service.getAccessibleProjectIdsForFreelancer(null)).isEmpty();
+        assertThat(service.canFreelancerAccessProject(null, 1L)).isFalse();
+    }
+
+    @Test
+    void getAccessibleProjectIdsForFreelancer_unionsApplicationsAndContractProjects() {
+        when(projectApplicationClient.getApplicationsByFreelance(5L)).thenReturn(List.of(accepted(10L)));
+        when(contractClient.getContractsByFreelancer(5L)).thenReturn(List.of(new ContractDto(2L, 5L, "ACTIVE")));
+        when(progressUpdateRepository.findDistinctProjectIdsByContractIdIn(Set.of(2L))).thenReturn(List.of(20L));
+
+        assertThat(service.getAccessibleProjectIdsForFreelancer(5L)).containsExactlyInAnyOrder(10L, 20L);
+    }
+
+    @Test
+    void canFreelancerAccessProject_repeatedChecksResolveOnce() {
+        when(projectApplicationClient.getApplicationsByFreelance(5L)).thenReturn(List.of(accepted(10L)));
+        when(contractClient.getContractsByFreelancer(5L)).thenReturn(Collections.emptyList());
+
+        assertThat(service.canFreelancerAccessProject(5L, 10L)).isTrue();
+        assertThat(service.canFreelancerAccessProject(5L, 11L)).isFalse();
+
+        verify(projectApplicationClient, times(1)).getApplicationsByFreelance(5L);
+        assertThat(meterRegistry.counter("planning.access.cache.requests", "result", "hit").count()).isEqualTo(1.0);
+        assertThat(meterRegistry.get("planning.access.cache.resolve").timer().count()).isEqualTo(1L);
+    }
+
+    @Test
+    void invalidate_forcesFreshResolution() {
+        when(projectApplicationClient.getApplicationsByFreelance(5L))
+                .thenReturn(Collections.emptyList())
+                .thenReturn(List.of(accepted(10L)));
+        when(contractClient.getContractsByFreelancer(5L)).thenReturn(Collections.emptyList());
+
+        assertThat(service.canFreelancerAccessProject(5L, 10L)).isFalse();
+        service.invalidate(5L);
+
+        assertThat(service.canFreelancerAccessProject(5L, 10L)).isTrue();
+    }
+
+    @Test
+    void getAccessibleProjectIdsForFreelancer_contractClientDown_partialResultNotCached() {
+        when(projectApplicationClient.getApplicationsByFreelance(5L)).thenReturn(List.of(accepted(10L)));
+        when(contractClient.getContractsByFreelancer(5L)).thenThrow(new RuntimeException("feign down"));
+
+        assertThat(service.getAccessibleProjectIdsForFreelancer(5L)).containsExactly(10L);
+        service.getAccessibleProjectIdsForFreelancer(5L);
+
+        verify(contractClient, times(2)).getContractsByFreelancer(5L);
+    }
+}
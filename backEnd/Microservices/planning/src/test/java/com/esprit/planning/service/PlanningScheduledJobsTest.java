@@ -29,6 +29,12 @@ class PlanningScheduledJobsTest {
     @Mock
     private PlanningNotificationService planningNotificationService;
 
+    @Mock
+    private DashboardStatsEngine dashboardStatsEngine;
+
+    @Mock
+    private ProgressLatestService progressLatestService;
+
     @InjectMocks
     private PlanningScheduledJobs planningScheduledJobs;
 
@@ -58,6 +64,7 @@ class PlanningScheduledJobsTest {
         ArgumentCaptor<ProgressUpdate> saved = ArgumentCaptor.forClass(ProgressUpdate.class);
         verify(progressUpdateRepository).save(saved.capture());
         assertThat(saved.getValue().getNextDueOverdueNotified()).isTrue();
+        verify(progressLatestService).onSaved(overdue, null, null);
 
         verify(planningNotificationService).notifyUser(
                 eq("99"),
@@ -133,4 +140,20 @@ class PlanningScheduledJobsTest {
 
         verify(progressUpdateRepository).clearOrphanNextDueCalendarEventIds();
     }
+
+    @Test
+    void reconcileDashboardCounters_rebuildsEngine() {
+        planningScheduledJobs.reconcileDashboardCounters();
+
+        verify(dashboardStatsEngine).rebuild();
+    }
+
+    @Test
+    void reconcileDashboardCounters_whenRebuildFails_doesNotThrow() {
+        when(dashboardStatsEngine.rebuild()).thenThrow(new IllegalStateException("db down"));
+
+        planningScheduledJobs.reconcileDashboardCounters();
+
+        verify(dashboardStatsEngine).rebuild();
+    }
 }
@@ -1,6 +1,6 @@
 package com.esprit.planning.service;
 
-import com.esprit.planning.client.UserClient;
+import com.esprit.planning.client.UserDirectory;
 import com.esprit.planning.dto.UserDto;
 import com.esprit.planning.entity.ProgressComment;
 import com.esprit.planning.entity.ProgressUpdate;
@@ -31,7 +31,7 @@ import static org.mockito.Mockito.when;
 
 /**
  * Unit tests for ProgressCommentService. Verifies findAll, findAllPaged, findById, findByProgressUpdateId,
- * findByUserId, create, update, deleteById with mocked repositories and UserClient.
+ * findByUserId, create, update, deleteById with mocked repositories and UserDirectory.
  */
 @ExtendWith(MockitoExtension.class)
 class ProgressCommentServiceTest {
@@ -43,11 +43,14 @@ class ProgressCommentServiceTest {
     private ProgressUpdateRepository progressUpdateRepository;
 
     @Mock
-    private UserClient userClient;
+    private UserDirectory userDirectory;
 
     @Mock
     private PlanningNotificationService planningNotificationService;
 
+    @Mock
+    private DashboardStatsEngine dashboardStatsEngine;
+
     @InjectMocks
     private ProgressCommentService progressCommentService;
 
@@ -160,7 +163,7 @@ class ProgressCommentServiceTest {
         ProgressUpdate pu = new ProgressUpdate();
         pu.setId(1L);
         when(progressUpdateRepository.findById(1L)).thenReturn(Optional.of(pu));
-        when(userClient.getUserById(5L)).thenReturn(new UserDto(5L, "John", "Doe", "user@test.com", "FREELANCER"));
+        when(userDirectory.find(5L)).thenReturn(Optional.of(new UserDto(5L, "John", "Doe", "user@test.com", "FREELANCER")));
         ProgressComment toSave = comment(null, 1L, 5L, "New");
         ProgressComment saved = comment(1L, 1L, 5L, "New");
         when(progressCommentRepository.save(any(ProgressComment.class))).thenReturn(saved);
@@ -170,6 +173,20 @@ class ProgressCommentServiceTest {
         assertThat(result).isNotNull();
         assertThat(result.getId()).isEqualTo(1L);
         verify(progressCommentRepository).save(any(ProgressComment.class));
+        verify(dashboardStatsEngine).recordCommentDelta(1);
+    }
+
+    @Test
+    void create_unknownUser_throwsWithoutSaving() {
+        ProgressUpdate pu = new ProgressUpdate();
+        pu.setId(1L);
+        when(progressUpdateRepository.findById(1L)).thenReturn(Optional.of(pu));
+        when(userDirectory.find(5L)).thenReturn(Optional.empty());
+
+        assertThatThrownBy(() -> progressCommentService.create(1L, 5L, "New"))
+                .isInstanceOf(EntityNotFoundException.class)
+                .hasMessageContaining("User");
+        verify(progressCommentRepository, never()).save(any());
     }
 
     @Test
@@ -205,6 +222,7 @@ class ProgressCommentServiceTest {
         progressCommentService.deleteById(1L);
 
         verify(progressCommentRepository).deleteById(1L);
+        verify(dashboardStatsEngine).recordCommentDelta(-1);
     }
 
     @Test
@@ -241,7 +259,7 @@ class ProgressCommentServiceTest {
         pu.setId(1L);
         pu.setFreelancerId(5L);
         when(progressUpdateRepository.findById(1L)).thenReturn(Optional.of(pu));
-        when(userClient.getUserById(5L)).thenReturn(new UserDto(5L, "John", "Doe", "user@test.com", "FREELANCER"));
+        when(userDirectory.find(5L)).thenReturn(Optional.of(new UserDto(5L, "John", "Doe", "user@test.com", "FREELANCER")));
         ProgressComment saved = comment(1L, 1L, 5L, "Self");
         when(progressCommentRepository.save(any(ProgressComment.class))).thenReturn(saved);
 
@@ -258,7 +276,7 @@ class ProgressCommentServiceTest {
         pu.setProjectId(7L);
         pu.setFreelancerId(10L);
         when(progressUpdateRepository.findById(1L)).thenReturn(Optional.of(pu));
-        when(userClient.getUserById(5L)).thenReturn(new UserDto(5L, "Client", "User", "c@test.com", "CLIENT"));
+        when(userDirectory.find(5L)).thenReturn(Optional.of(new UserDto(5L, "Client", "User", "c@test.com", "CLIENT")));
         ProgressComment saved = comment(99L, 1L, 5L, "x");
         saved.setProgressUpdate(pu);
         when(progressCommentRepository.save(any(ProgressComment.class))).thenReturn(saved);
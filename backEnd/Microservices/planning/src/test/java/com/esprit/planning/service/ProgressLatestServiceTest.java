@@ -0,0 +1,167 @@
+package com.esprit.planning.service;
+
+import com.esprit.planning.entity.ProgressLatest;
+import com.esprit.planning.entity.ProgressLatestScope;
+import com.esprit.planning.entity.ProgressUpdate;
+import com.esprit.planning.repository.ProgressLatestRepository;
+import com.esprit.planning.repository.ProgressUpdateRepository;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * Unit tests for ProgressLatestService. Verifies that the latest-progress projection follows creates, edits,
+ * moves and deletes, and that a rebuild keeps one row per project and contract.
+ */
+@ExtendWith(MockitoExtension.class)
+class ProgressLatestServiceTest {
+
+    private static final LocalDateTime T0 = LocalDateTime.of(2026, 5, 1, 10, 0);
+
+    @Mock
+    private ProgressLatestRepository progressLatestRepository;
+
+    @Mock
+    private ProgressUpdateRepository progressUpdateRepository;
+
+    @InjectMocks
+    private ProgressLatestService progressLatestService;
+
+    @Test
+    void onSaved_firstUpdateForProjectAndContract_insertsBothRowsIfAbsent() {
+        ProgressUpdate u = update(1L, 10L, 20L, 30, T0);
+        when(progressLatestRepository.findForUpdate(any(), any())).thenReturn(Optional.empty());
+
+        progressLatestService.onSaved(u, null, null);
+
+        verify(progressLatestRepository).insertIfAbsent("PROJECT", 10L, 1L, 10L, 20L, 30, T0);
+        verify(progressLatestRepository).insertIfAbsent("CONTRACT", 20L, 1L, 10L, 20L, 30, T0);
+        verify(progressLatestRepository, never()).save(any());
+    }
+
+    @Test
+    void onSaved_rowInsertedByConcurrentWriter_stillAppliesNewerCandidate() {
+        ProgressLatest other = row(ProgressLatestScope.PROJECT, 10L, update(2L, 10L, null, 20, T0));
+        when(progressLatestRepository.findForUpdate(ProgressLatestScope.PROJECT, 10L)).thenReturn(Optional.of(other));
+
+        progressLatestService.onSaved(update(1L, 10L, null, 30, T0.plusMinutes(1)), null, null);
+
+        assertThat(other.getProgressUpdateId()).isEqualTo(1L);
+        assertThat(other.getProgressPercentage()).isEqualTo(30);
+        verify(progressLatestRepository).save(other);
+    }
+
+    @Test
+    void onSaved_olderThanCurrentLatest_leavesRowUntouched() {
+        ProgressLatest current = row(ProgressLatestScope.PROJECT, 10L, update(5L, 10L, null, 70, T0.plusHours(1)));
+        when(progressLatestRepository.findForUpdate(ProgressLatestScope.PROJECT, 10L)).thenReturn(Optional.of(current));
+
+        progressLatestService.onSaved(update(1L, 10L, null, 40, T0), null, null);
+
+        assertThat(current.getProgressUpdateId()).isEqualTo(5L);
+        verify(progressLatestRepository, never()).save(any());
+    }
+
+    @Test
+    void onSaved_movedToAnotherProject_rederivesOldProjectFromHistory() {
+        ProgressUpdate moved = update(5L, 11L, null, 60, T0.plusHours(2));
+        ProgressLatest oldRow = row(ProgressLatestScope.PROJECT, 10L, update(5L, 10L, null, 60, T0.plusHours(1)));
+        ProgressUpdate remaining = update(3L, 10L, null, 45, T0);
+        when(progressLatestRepository.findForUpdate(ProgressLatestScope.PROJECT, 11L)).thenReturn(Optional.empty());
+        when(progressLatestRepository.findForUpdate(ProgressLatestScope.PROJECT, 10L)).thenReturn(Optional.of(oldRow));
+        when(progressUpdateRepository.findFirstByProjectIdOrderByUpdatedAtDescIdDesc(10L)).thenReturn(Optional.of(remaining));
+
+        progressLatestService.onSaved(moved, 10L, null);
+
+        assertThat(oldRow.getProgressUpdateId()).isEqualTo(3L);
+        assertThat(oldRow.getProgressPercentage()).isEqualTo(45);
+        verify(progressLatestRepository).save(oldRow);
+    }
+
+    @Test
+    void onDeleted_lastUpdateOfContract_removesRow() {
+        ProgressUpdate deleted = update(5L, 10L, 20L, 60, T0);
+        ProgressLatest projectRow = row(ProgressLatestScope.PROJECT, 10L, update(6L, 10L, null, 80, T0.plusHours(1)));
+        ProgressLatest contractRow = row(ProgressLatestScope.CONTRACT, 20L, deleted);
+        when(progressLatestRepository.findForUpdate(ProgressLatestScope.PROJECT, 10L)).thenReturn(Optional.of(projectRow));
+        when(progressLatestRepository.findForUpdate(ProgressLatestScope.CONTRACT, 20L)).thenReturn(Optional.of(contractRow));
+        when(progressUpdateRepository.findFirstByContractIdOrderByUpdatedAtDescIdDesc(20L)).thenReturn(Optional.empty());
+
+        progressLatestService.onDeleted(deleted);
+
+        verify(progressLatestRepository).delete(contractRow);
+        verify(progressUpdateRepository, never()).findFirstByProjectIdOrderByUpdatedAtDescIdDesc(any());
+    }
+
+    @Test
+    void findByScopeIds_keysRowsByScopeId() {
+        ProgressLatest r = row(ProgressLatestScope.PROJECT, 10L, update(1L, 10L, null, 50, T0));
+        when(progressLatestRepository.findByScopeAndScopeIdIn(ProgressLatestScope.PROJECT, List.of(10L, 11L))).thenReturn(List.of(r));
+
+        Map<Long, ProgressLatest> result = progressLatestService.findByScopeIds(ProgressLatestScope.PROJECT, List.of(10L, 11L));
+
+        assertThat(result).containsOnlyKeys(10L);
+        assertThat(progressLatestService.findByScopeIds(ProgressLatestScope.PROJECT, List.of())).isEmpty();
+    }
+
+    @Test
+    void rebuild_breaksUpdatedAtTiesById() {
+        ProgressUpdate tiedLow = update(1L, 10L, 20L, 30, T0);
+        ProgressUpdate tiedHigh = update(2L, 10L, 20L, 35, T0);
+        when(progressUpdateRepository.findLatestPerProject()).thenReturn(List.of(tiedHigh, tiedLow));
+        when(progressUpdateRepository.findLatestPerContract()).thenReturn(List.of(tiedLow, tiedHigh));
+
+        int written = progressLatestService.rebuild();
+
+        assertThat(written).isEqualTo(2);
+        verify(progressLatestRepository).deleteAllInBatch();
+        @SuppressWarnings("unchecked")
+        ArgumentCaptor<List<ProgressLatest>> cap = ArgumentCaptor.forClass(List.class);
+        verify(progressLatestRepository).saveAll(cap.capture());
+        assertThat(cap.getValue()).extracting(ProgressLatest::getProgressUpdateId).containsExactly(2L, 2L);
+    }
+
+    @Test
+    void rebuildIfEmpty_projectionAlreadyPopulated_doesNothing() {
+        when(progressLatestRepository.count()).thenReturn(3L);
+
+        progressLatestService.rebuildIfEmpty();
+
+        verify(progressLatestRepository, never()).saveAll(anyList());
+    }
+
+    private static ProgressLatest row(ProgressLatestScope scope, Long scopeId, ProgressUpdate u) {
+        ProgressLatest row = new ProgressLatest(scope, scopeId);
+        row.apply(u);
+        return row;
+    }
+
+    private static ProgressUpdate update(Long id, Long projectId, Long contractId, int pct, LocalDateTime updatedAt) {
+        ProgressUpdate u = new ProgressUpdate();
+        u.setId(id);
+        u.setProjectId(projectId);
+        u.setContractId(contractId);
+        u.setFreelancerId(7L);
+        u.setTitle("U" + id);
+        u.setProgressPercentage(pct);
+        u.setCreatedAt(updatedAt);
+        u.setUpdatedAt(updatedAt);
+        return u;
+    }
+}
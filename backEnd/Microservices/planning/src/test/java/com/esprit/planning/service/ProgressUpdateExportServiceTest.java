@@ -0,0 +1,132 @@
+package com.esprit.planning.service;
+
+import com.esprit.planning.entity.ProgressUpdate;
+import com.esprit.planning.repository.ProgressCommentRepository;
+import com.esprit.planning.repository.ProgressUpdateRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+import java.util.zip.GZIPInputStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+@SuppressWarnings("unchecked")
+class ProgressUpdateExportServiceTest {
+
+    @Mock
+    private ProgressUpdateRepository progressUpdateRepository;
+
+    @Mock
+    private ProgressCommentRepository progressCommentRepository;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    private ProgressUpdateExportService exportService;
+
+    @BeforeEach
+    void setUp() {
+        exportService = new ProgressUpdateExportService(progressUpdateRepository, progressCommentRepository, transactionManager, 2);
+    }
+
+    private String export(ProgressUpdateExportService.Format format, boolean gzip) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        exportService.write(out, format, gzip, Optional.empty(), Optional.empty(), Optional.empty(), Optional.empty(),
+                Optional.empty(), Optional.empty(), Optional.empty(), Optional.empty(), Optional.empty());
+        byte[] bytes = out.toByteArray();
+        if (gzip) {
+            try (GZIPInputStream in = new GZIPInputStream(new ByteArrayInputStream(bytes))) {
+                bytes = in.readAllBytes();
+            }
+        }
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    @Test
+    void write_csv_readsKeysetChunksWithGroupedCommentCounts() throws IOException {
+        when(progressUpdateRepository.findBy(any(Specification.class), any()))
+                .thenReturn(List.of(update(3L, "Title, with comma"), update(2L, "B")), List.of(update(1L, "A")));
+        when(progressCommentRepository.countGroupedByProgressUpdateIdIn(anyCollection()))
+                .thenReturn(List.<Object[]>of(new Object[]{3L, 4L}), List.of());
+
+        String csv = export(ProgressUpdateExportService.Format.CSV, false);
+
+        String[] lines = csv.split("\n");
+        assertThat(lines[0]).isEqualTo(ProgressUpdateExportService.CSV_HEADER.trim());
+        assertThat(lines).hasSize(4);
+        assertThat(lines[1]).startsWith("3,1,,10,\"Title, with comma\",").endsWith(",4");
+        assertThat(lines[2]).startsWith("2,").endsWith(",0");
+        verify(progressUpdateRepository, times(2)).findBy(any(Specification.class), any());
+        verify(progressCommentRepository, times(2)).countGroupedByProgressUpdateIdIn(anyCollection());
+        verify(transactionManager, times(2)).getTransaction(argThat(TransactionDefinition::isReadOnly));
+    }
+
+    @Test
+    void write_emptyResult_writesHeaderOnly() throws IOException {
+        when(progressUpdateRepository.findBy(any(Specification.class), any())).thenReturn(List.of());
+
+        assertThat(export(ProgressUpdateExportService.Format.CSV, false)).isEqualTo(ProgressUpdateExportService.CSV_HEADER);
+    }
+
+    @Test
+    void write_ndjsonGzip_writesOneEscapedObjectPerLine() throws IOException {
+        ProgressUpdate u = update(1L, "Say \"hi\"");
+        u.setDescription("line1\nline2");
+        when(progressUpdateRepository.findBy(any(Specification.class), any())).thenReturn(List.of(u));
+        when(progressCommentRepository.countGroupedByProgressUpdateIdIn(anyCollection())).thenReturn(List.of());
+
+        String ndjson = export(ProgressUpdateExportService.Format.NDJSON, true);
+
+        assertThat(ndjson).endsWith("}\n").doesNotContain("id,projectId");
+        assertThat(ndjson.split("\n")).hasSize(1);
+        assertThat(ndjson).contains("\"title\":\"Say \\\"hi\\\"\"", "\"description\":\"line1\\nline2\"",
+                "\"contractId\":null", "\"commentCount\":0");
+    }
+
+    @Test
+    void csv_escapesQuotesAndNewlines() {
+        assertThat(ProgressUpdateExportService.csv(null)).isEmpty();
+        assertThat(ProgressUpdateExportService.csv("plain")).isEqualTo("plain");
+        assertThat(ProgressUpdateExportService.csv("a\"b")).isEqualTo("\"a\"\"b\"");
+        assertThat(ProgressUpdateExportService.csv("line1\nline2")).isEqualTo("\"line1\nline2\"");
+    }
+
+    @Test
+    void format_parse_unknownFallsBackToCsv() {
+        assertThat(ProgressUpdateExportService.Format.parse(" NDJSON ")).isEqualTo(ProgressUpdateExportService.Format.NDJSON);
+        assertThat(ProgressUpdateExportService.Format.parse("xlsx")).isEqualTo(ProgressUpdateExportService.Format.CSV);
+        assertThat(ProgressUpdateExportService.Format.parse(null)).isEqualTo(ProgressUpdateExportService.Format.CSV);
+    }
+
+    private static ProgressUpdate update(Long id, String title) {
+        ProgressUpdate u = new ProgressUpdate();
+        u.setId(id);
+        u.setProjectId(1L);
+        u.setFreelancerId(10L);
+        u.setTitle(title);
+        u.setProgressPercentage(50);
+        u.setCreatedAt(LocalDateTime.of(2026, 1, 1, 10, 0));
+        u.setUpdatedAt(LocalDateTime.of(2026, 1, 1, 10, 0));
+        return u;
+    }
+}
@@ -2,6 +2,8 @@ package com.esprit.planning.service;
 
 import com.esprit.planning.client.ProjectClient;
 import com.esprit.planning.dto.*;
+import com.esprit.planning.entity.ProgressLatest;
+import com.esprit.planning.entity.ProgressLatestScope;
 import com.esprit.planning.entity.ProgressUpdate;
 import com.esprit.planning.exception.EntityNotFoundException;
 import com.esprit.planning.exception.ProgressCannotDecreaseException;
@@ -17,12 +19,12 @@ import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
-import org.springframework.data.domain.Sort;
 import org.springframework.data.jpa.domain.Specification;
 
 import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 
 import static org.assertj.core.api.Assertions.assertThat;
@@ -55,6 +57,12 @@ class ProgressUpdateServiceTest {
     @Mock
     private ProjectDeadlineSyncRepository projectDeadlineSyncRepository;
 
+    @Mock
+    private ProgressLatestService progressLatestService;
+
+    @Mock
+    private DashboardStatsEngine dashboardStatsEngine;
+
     @InjectMocks
     private ProgressUpdateService progressUpdateService;
 
@@ -210,6 +218,8 @@ class ProgressUpdateServiceTest {
         progressUpdateService.deleteById(1L);
 
         verify(progressUpdateRepository).deleteById(1L);
+        verify(progressLatestService).onDeleted(existing);
+        verify(dashboardStatsEngine).recordUpdateChange(DashboardStatsEngine.Entry.of(existing), null);
     }
 
     @Test
@@ -227,32 +237,55 @@ class ProgressUpdateServiceTest {
 
     @Test
     void getDashboardStatistics_returnsAggregatedStats() {
-        ProgressUpdate u = progressUpdate(1L, 1L, 10L, "T", 50);
-        when(progressUpdateRepository.findAll()).thenReturn(List.of(u));
-        when(progressCommentRepository.countByProgressUpdate_IdIn(anyList())).thenReturn(0L);
+        when(dashboardStatsEngine.snapshot()).thenReturn(Optional.empty());
+        when(progressUpdateRepository.aggregateDashboardStats()).thenReturn(List.<Object[]>of(new Object[]{3L, 50.0, 2L, 1L}));
+        when(progressCommentRepository.count()).thenReturn(0L);
 
         DashboardStatsDto result = progressUpdateService.getDashboardStatistics();
 
-        assertThat(result.getTotalUpdates()).isEqualTo(1);
-        assertThat(result.getDistinctProjectCount()).isEqualTo(1);
+        assertThat(result.getTotalUpdates()).isEqualTo(3);
+        assertThat(result.getAverageProgressPercentage()).isEqualTo(50.0);
+        assertThat(result.getDistinctProjectCount()).isEqualTo(2);
         assertThat(result.getDistinctFreelancerCount()).isEqualTo(1);
+        verify(progressUpdateRepository, never()).findAll();
+    }
+
+    @Test
+    void getDashboardStatistics_whenCountersReady_doesNotQuery() {
+        DashboardStatsDto counters = DashboardStatsDto.builder().totalUpdates(3).distinctProjectCount(2).build();
+        when(dashboardStatsEngine.snapshot()).thenReturn(Optional.of(counters));
+
+        assertThat(progressUpdateService.getDashboardStatistics()).isSameAs(counters);
+        verifyNoInteractions(progressCommentRepository);
+        verify(progressUpdateRepository, never()).aggregateDashboardStats();
     }
 
     @Test
     void getProjectIdsWithStalledProgress_returnsStalledFromRepository() {
         LocalDateTime old = LocalDateTime.now().minusDays(10);
-        Object[] row = new Object[]{1L, old};
-        when(progressUpdateRepository.findProjectIdAndMaxUpdatedAt())
-                .thenReturn(List.<Object[]>of(row));
         ProgressUpdate u = progressUpdate(1L, 1L, 10L, "T", 30);
         u.setUpdatedAt(old);
-        when(progressUpdateRepository.findByProjectIdAndUpdatedAt(1L, old)).thenReturn(Optional.of(u));
+        when(progressLatestService.findProjectsNotUpdatedSince(any(LocalDateTime.class)))
+                .thenReturn(List.of(latest(ProgressLatestScope.PROJECT, 1L, u)));
 
         List<StalledProjectDto> result = progressUpdateService.getProjectIdsWithStalledProgress(7);
 
         assertThat(result).hasSize(1);
         assertThat(result.get(0).getProjectId()).isEqualTo(1L);
         assertThat(result.get(0).getLastProgressPercentage()).isEqualTo(30);
+        assertThat(result.get(0).getLastUpdateAt()).isEqualTo(old);
+    }
+
+    @Test
+    void getProjectIdsWithStalledProgress_withFreelancerScope_dropsProjectsOutsideScope() {
+        ProgressUpdate u1 = progressUpdate(1L, 1L, 10L, "T", 30);
+        ProgressUpdate u2 = progressUpdate(2L, 2L, 10L, "T", 40);
+        when(progressLatestService.findProjectsNotUpdatedSince(any(LocalDateTime.class)))
+                .thenReturn(List.of(latest(ProgressLatestScope.PROJECT, 1L, u1), latest(ProgressLatestScope.PROJECT, 2L, u2)));
+
+        List<StalledProjectDto> result = progressUpdateService.getProjectIdsWithStalledProgress(7, Optional.of(java.util.Set.of(2L)));
+
+        assertThat(result).extracting(StalledProjectDto::getProjectId).containsExactly(2L);
     }
 
     @Test
@@ -323,19 +356,6 @@ class ProgressUpdateServiceTest {
         assertThat(result.getCurrentProgressPercentage()).isEqualTo(60);
     }
 
-    @Test
-    void findAllFilteredForExport_delegatesToRepositoryWithSpec() {
-        ProgressUpdate u = progressUpdate(1L, 1L, 10L, "T", 50);
-        when(progressUpdateRepository.findAll(any(Specification.class), any(Sort.class))).thenReturn(List.of(u));
-
-        List<ProgressUpdate> result = progressUpdateService.findAllFilteredForExport(
-                Optional.of(1L), Optional.empty(), Optional.empty(),
-                Optional.empty(), Optional.empty(), Optional.empty(), Optional.empty(), Optional.empty());
-
-        assertThat(result).hasSize(1);
-        verify(progressUpdateRepository).findAll(any(Specification.class), any(Sort.class));
-    }
-
     @Test
     void findByContractId_returnsListFromRepository() {
         when(progressUpdateRepository.findByContractId(5L)).thenReturn(List.of(progressUpdate(1L, 1L, 10L, "T", 50)));
@@ -402,6 +422,7 @@ class ProgressUpdateServiceTest {
 
         assertThat(result).isNotNull();
         verify(progressUpdateRepository).save(any(ProgressUpdate.class));
+        verify(progressLatestService).onSaved(updated, 1L, null);
     }
 
     @Test
@@ -672,13 +693,11 @@ class ProgressUpdateServiceTest {
 
     @Test
     void getSummaryByProjectIds_returnsLatestProgressPerProject() {
-        LocalDateTime older = LocalDateTime.now().minusDays(2);
         LocalDateTime newer = LocalDateTime.now();
-        ProgressUpdate u1 = progressUpdate(1L, 1L, 10L, "A", 40);
-        u1.setUpdatedAt(older);
         ProgressUpdate u2 = progressUpdate(2L, 1L, 10L, "B", 65);
         u2.setUpdatedAt(newer);
-        when(progressUpdateRepository.findByProjectIdIn(List.of(1L))).thenReturn(List.of(u1, u2));
+        when(progressLatestService.findByScopeIds(ProgressLatestScope.PROJECT, List.of(1L)))
+                .thenReturn(Map.of(1L, latest(ProgressLatestScope.PROJECT, 1L, u2)));
 
         List<ProgressSummaryItemDto> result = progressUpdateService.getSummaryByProjectIds(List.of(1L));
 
@@ -690,7 +709,7 @@ class ProgressUpdateServiceTest {
 
     @Test
     void getSummaryByProjectIds_whenNoUpdatesForId_returnsNullProgress() {
-        when(progressUpdateRepository.findByProjectIdIn(List.of(9L))).thenReturn(List.of());
+        when(progressLatestService.findByScopeIds(ProgressLatestScope.PROJECT, List.of(9L))).thenReturn(Map.of());
 
         List<ProgressSummaryItemDto> result = progressUpdateService.getSummaryByProjectIds(List.of(9L));
 
@@ -708,11 +727,9 @@ class ProgressUpdateServiceTest {
 
     @Test
     void getSummaryByContractIds_returnsLatestPerContract() {
-        ProgressUpdate u1 = progressUpdateWithContract(1L, 1L, 5L, 10L, "C1", 30);
-        u1.setUpdatedAt(LocalDateTime.now().minusDays(1));
         ProgressUpdate u2 = progressUpdateWithContract(2L, 1L, 5L, 10L, "C2", 80);
-        u2.setUpdatedAt(LocalDateTime.now());
-        when(progressUpdateRepository.findByContractIdIn(List.of(5L))).thenReturn(List.of(u1, u2));
+        when(progressLatestService.findByScopeIds(ProgressLatestScope.CONTRACT, List.of(5L)))
+                .thenReturn(Map.of(5L, latest(ProgressLatestScope.CONTRACT, 5L, u2)));
 
         List<ProgressSummaryItemDto> result = progressUpdateService.getSummaryByContractIds(List.of(5L));
 
@@ -725,8 +742,8 @@ class ProgressUpdateServiceTest {
     @Test
     void getSummaryByContractIds_multipleContracts_mixedEmptyAndPopulated() {
         ProgressUpdate u = progressUpdateWithContract(1L, 3L, 7L, 10L, "X", 55);
-        u.setUpdatedAt(LocalDateTime.now());
-        when(progressUpdateRepository.findByContractIdIn(List.of(5L, 7L))).thenReturn(List.of(u));
+        when(progressLatestService.findByScopeIds(ProgressLatestScope.CONTRACT, List.of(5L, 7L)))
+                .thenReturn(Map.of(7L, latest(ProgressLatestScope.CONTRACT, 7L, u)));
 
         List<ProgressSummaryItemDto> result = progressUpdateService.getSummaryByContractIds(List.of(5L, 7L));
 
@@ -739,13 +756,13 @@ class ProgressUpdateServiceTest {
 
     @Test
     void getFreelancerProjectsSummary_groupsByProjectWithLatestUpdate() {
-        ProgressUpdate u1 = progressUpdate(1L, 10L, 5L, "Old", 20);
-        u1.setUpdatedAt(LocalDateTime.now().minusDays(3));
+        LocalDateTime now = LocalDateTime.now();
+        ProgressUpdate tiedLower = progressUpdate(1L, 10L, 5L, "Tied", 20);
+        tiedLower.setUpdatedAt(now);
         ProgressUpdate u2 = progressUpdate(2L, 10L, 5L, "New", 55);
-        u2.setUpdatedAt(LocalDateTime.now());
+        u2.setUpdatedAt(now);
         ProgressUpdate other = progressUpdate(3L, 99L, 5L, "Other", 90);
-        other.setUpdatedAt(LocalDateTime.now());
-        when(progressUpdateRepository.findByFreelancerId(5L)).thenReturn(List.of(u1, u2, other));
+        when(progressUpdateRepository.findLatestPerProjectByFreelancerId(5L)).thenReturn(List.of(tiedLower, u2, other));
 
         List<ProgressSummaryItemDto> result = progressUpdateService.getFreelancerProjectsSummary(5L);
 
@@ -770,6 +787,12 @@ class ProgressUpdateServiceTest {
                 eq(PlanningNotificationService.TYPE_CALENDAR_DEADLINE), any());
     }
 
+    private static ProgressLatest latest(ProgressLatestScope scope, Long scopeId, ProgressUpdate u) {
+        ProgressLatest row = new ProgressLatest(scope, scopeId);
+        row.apply(u);
+        return row;
+    }
+
     private static ProgressUpdate progressUpdateWithContract(Long id, Long projectId, Long contractId, Long freelancerId, String title, int pct) {
         ProgressUpdate u = progressUpdate(id, projectId, freelancerId, title, pct);
         u.setContractId(contractId);
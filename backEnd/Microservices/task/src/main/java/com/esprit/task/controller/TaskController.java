@@ -363,6 +363,22 @@ public class TaskController {
         return ResponseEntity.ok().build();
     }
 
+    @PostMapping("/access-cache/invalidate")
+    @Operation(summary = "Invalidate freelancer access cache",
+            description = "Called by Project with the acting user's JWT when a freelancer's applications change.")
+    @ApiResponses({
+            @ApiResponse(responseCode = "204", description = "No content"),
+            @ApiResponse(responseCode = "400", description = "freelancerId missing")
+    })
+    // Performs invalidate access cache.
+    public ResponseEntity<Void> invalidateAccessCache(@RequestParam Long freelancerId) {
+        TaskFreelancerProjectAccessService accessService = taskFreelancerProjectAccessServiceProvider.getIfAvailable();
+        if (accessService != null) {
+            accessService.invalidate(freelancerId);
+        }
+        return ResponseEntity.noContent().build();
+    }
+
     @DeleteMapping("/{id}")
     @Operation(summary = "Delete task", description = "Deletes a task and its subtasks.")
     @ApiResponses({
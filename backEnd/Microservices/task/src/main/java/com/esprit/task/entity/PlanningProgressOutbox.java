@@ -0,0 +1,86 @@
+package com.esprit.task.entity;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.time.LocalDateTime;
+
+/**
+ * A task-board status change waiting to be turned into a Planning progress update. Written in the same transaction
+ * as the status change and delivered by {@link com.esprit.task.service.TaskPlanningOutboxDispatcher}.
+ */
+@Entity
+@Table(name = "planning_progress_outbox", indexes = {
+        @Index(name = "idx_ppo_state_next_attempt", columnList = "state, next_attempt_at"),
+        @Index(name = "idx_ppo_claim_token", columnList = "claim_token")
+})
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class PlanningProgressOutbox {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(nullable = false)
+    private Long projectId;
+
+    @Column
+    private Long contractId;
+
+    @Column(nullable = false)
+    private Long freelancerId;
+
+    @Column(nullable = false, length = 500)
+    private String title;
+
+    @Column(columnDefinition = "TEXT")
+    private String description;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false)
+    private TaskStatus status;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false)
+    private PlanningProgressOutboxState state;
+
+    @Column(nullable = false)
+    private int attempts;
+
+    /** Not dispatched before this instant; start of the coalescing window, then the retry backoff. */
+    @Column(name = "next_attempt_at", nullable = false)
+    private LocalDateTime nextAttemptAt;
+
+    /** Set while a dispatcher instance owns the row; the claim expires at {@link #claimedUntil}. */
+    @Column(name = "claim_token", length = 36)
+    private String claimToken;
+
+    @Column
+    private LocalDateTime claimedUntil;
+
+    @Column(length = 500)
+    private String lastError;
+
+    @Column(nullable = false, updatable = false)
+    private LocalDateTime createdAt;
+
+    @Column
+    private LocalDateTime sentAt;
+
+    @PrePersist
+    protected void onCreate() {
+        if (createdAt == null) {
+            createdAt = LocalDateTime.now();
+        }
+        if (nextAttemptAt == null) {
+            nextAttemptAt = createdAt;
+        }
+        if (state == null) {
+            state = PlanningProgressOutboxState.PENDING;
+        }
+    }
+}
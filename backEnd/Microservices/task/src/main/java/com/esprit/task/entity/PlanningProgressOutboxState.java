@@ -0,0 +1,8 @@
+package com.esprit.task.entity;
+
+public enum PlanningProgressOutboxState {
+    PENDING,
+    SENT,
+    SUPERSEDED,
+    FAILED
+}
@@ -0,0 +1,61 @@
+package com.esprit.task.entity;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+/**
+ * Progress of one day's priority escalation run. Updated in the same transaction as each escalated chunk, so a run
+ * interrupted mid-way resumes from {@link #phase} / {@link #lastId} instead of starting over.
+ */
+@Entity
+@Table(name = "task_escalation_checkpoint")
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class TaskEscalationCheckpoint {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(nullable = false, unique = true)
+    private LocalDate runDate;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false)
+    private TaskEscalationPhase phase;
+
+    /** Highest task/subtask id already processed in {@link #phase}. */
+    @Column(nullable = false)
+    private Long lastId;
+
+    @Column(nullable = false)
+    private int escalated;
+
+    @Column(nullable = false, updatable = false)
+    private LocalDateTime startedAt;
+
+    @Column(nullable = false)
+    private LocalDateTime updatedAt;
+
+    @Column
+    private LocalDateTime completedAt;
+
+    @PrePersist
+    protected void onCreate() {
+        if (startedAt == null) {
+            startedAt = LocalDateTime.now();
+        }
+        updatedAt = LocalDateTime.now();
+    }
+
+    @PreUpdate
+    protected void onUpdate() {
+        updatedAt = LocalDateTime.now();
+    }
+}
@@ -0,0 +1,10 @@
+package com.esprit.task.entity;
+
+/** Steps of the daily priority escalation run, in execution order. */
+public enum TaskEscalationPhase {
+    ROOT_OVERDUE,
+    SUBTASK_OVERDUE,
+    ROOT_IN_REVIEW,
+    SUBTASK_IN_REVIEW,
+    COMPLETED
+}
@@ -0,0 +1,56 @@
+package com.esprit.task.repository;
+
+import com.esprit.task.entity.PlanningProgressOutbox;
+import com.esprit.task.entity.PlanningProgressOutboxState;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+
+@Repository
+public interface PlanningProgressOutboxRepository extends JpaRepository<PlanningProgressOutbox, Long> {
+
+    /** Projects with at least one pending row that is due and not claimed by another dispatcher. */
+    @Query("SELECT DISTINCT o.projectId FROM PlanningProgressOutbox o WHERE o.state = com.esprit.task.entity.PlanningProgressOutboxState.PENDING "
+            + "AND o.nextAttemptAt <= :now AND (o.claimedUntil IS NULL OR o.claimedUntil < :now) ORDER BY o.projectId")
+    List<Long> findDueProjectIds(@Param("now") LocalDateTime now, Pageable pageable);
+
+    /**
+     * Claims every unclaimed pending row of the given projects, including rows still inside their coalescing window
+     * (so they are folded into the same delivery) but not rows waiting out a retry backoff.
+     */
+    @Modifying(clearAutomatically = true, flushAutomatically = true)
+    @Transactional
+    @Query("UPDATE PlanningProgressOutbox o SET o.claimToken = :token, o.claimedUntil = :until "
+            + "WHERE o.projectId IN :projectIds AND o.state = com.esprit.task.entity.PlanningProgressOutboxState.PENDING "
+            + "AND (o.attempts = 0 OR o.nextAttemptAt <= :now) AND (o.claimedUntil IS NULL OR o.claimedUntil < :now)")
+    int claimPendingForProjects(@Param("projectIds") Collection<Long> projectIds, @Param("token") String token,
+                                @Param("now") LocalDateTime now, @Param("until") LocalDateTime until);
+
+    List<PlanningProgressOutbox> findByClaimTokenOrderByIdAsc(String claimToken);
+
+    @Modifying(clearAutomatically = true, flushAutomatically = true)
+    @Transactional
+    @Query("UPDATE PlanningProgressOutbox o SET o.state = :state, o.sentAt = :now, o.claimToken = NULL, o.claimedUntil = NULL "
+            + "WHERE o.id IN :ids")
+    int markFinished(@Param("ids") Collection<Long> ids, @Param("state") PlanningProgressOutboxState state,
+                     @Param("now") LocalDateTime now);
+
+    long countByState(PlanningProgressOutboxState state);
+
+    @Query("SELECT MIN(o.createdAt) FROM PlanningProgressOutbox o WHERE o.state = com.esprit.task.entity.PlanningProgressOutboxState.PENDING")
+    LocalDateTime findOldestPendingCreatedAt();
+
+    @Modifying(clearAutomatically = true, flushAutomatically = true)
+    @Transactional
+    @Query("DELETE FROM PlanningProgressOutbox o WHERE o.state IN (com.esprit.task.entity.PlanningProgressOutboxState.SENT, "
+            + "com.esprit.task.entity.PlanningProgressOutboxState.SUPERSEDED) AND o.sentAt < :cutoff")
+    int deleteFinishedBefore(@Param("cutoff") LocalDateTime cutoff);
+}
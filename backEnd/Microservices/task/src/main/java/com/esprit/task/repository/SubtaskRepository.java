@@ -1,15 +1,19 @@
 package com.esprit.task.repository;
 
 import com.esprit.task.entity.Subtask;
+import com.esprit.task.entity.TaskPriority;
 import com.esprit.task.entity.TaskStatus;
 
 import java.time.LocalDateTime;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.time.LocalDate;
+import java.util.Collection;
 import java.util.List;
 
 @Repository
@@ -49,6 +53,36 @@ public interface SubtaskRepository extends JpaRepository<Subtask, Long> {
     /** Stuck-in-review escalation: subtasks not updated since {@code before}. */
     List<Subtask> findByStatusAndUpdatedAtBefore(TaskStatus status, LocalDateTime before);
 
+    /** Escalation scan: overdue open rows in {@code priorities}, keyset-paged by id. */
+    @Query("SELECT s FROM Subtask s WHERE s.id > :afterId AND s.dueDate IS NOT NULL AND s.dueDate < :today "
+            + "AND s.status NOT IN ('DONE', 'CANCELLED') AND s.priority IN :priorities ORDER BY s.id")
+    List<Subtask> findOverdueForEscalationAfter(@Param("afterId") Long afterId,
+            @Param("today") LocalDate today,
+            @Param("priorities") Collection<TaskPriority> priorities,
+            Pageable pageable);
+
+    /** Escalation scan: rows in {@code status} not updated since {@code before}, keyset-paged by id. */
+    @Query("SELECT s FROM Subtask s WHERE s.id > :afterId AND s.status = :status AND s.updatedAt < :before ORDER BY s.id")
+    List<Subtask> findStaleInStatusAfter(@Param("afterId") Long afterId,
+            @Param("status") TaskStatus status,
+            @Param("before") LocalDateTime before,
+            Pageable pageable);
+
+    /** One priority transition for many rows; rows whose priority is no longer {@code from} are left alone. */
+    @Modifying(clearAutomatically = true, flushAutomatically = true)
+    @Query("UPDATE Subtask s SET s.priority = :to, s.updatedAt = :now WHERE s.id IN :ids AND s.priority = :from")
+    int bulkUpdatePriority(@Param("ids") Collection<Long> ids,
+            @Param("from") TaskPriority from,
+            @Param("to") TaskPriority to,
+            @Param("now") LocalDateTime now);
+
+    /** {@link #bulkUpdatePriority} for rows that have no priority yet. */
+    @Modifying(clearAutomatically = true, flushAutomatically = true)
+    @Query("UPDATE Subtask s SET s.priority = :to, s.updatedAt = :now WHERE s.id IN :ids AND s.priority IS NULL")
+    int bulkSetMissingPriority(@Param("ids") Collection<Long> ids,
+            @Param("to") TaskPriority to,
+            @Param("now") LocalDateTime now);
+
     @Query("SELECT s FROM Subtask s WHERE s.dueDate IS NOT NULL AND s.dueDate >= :from AND s.dueDate <= :to AND s.status NOT IN ('DONE', 'CANCELLED')")
     List<Subtask> findDueSoonSubtasks(@Param("from") LocalDate from, @Param("to") LocalDate to);
 
@@ -126,4 +160,9 @@ public interface SubtaskRepository extends JpaRepository<Subtask, Long> {
             + "AND s.status NOT IN (com.esprit.task.entity.TaskStatus.DONE, com.esprit.task.entity.TaskStatus.CANCELLED) "
             + "ORDER BY s.priority DESC, s.orderIndex ASC")
     List<Subtask> findHighPriorityOpenForAssignee(@Param("assigneeId") Long assigneeId);
+
+    /** Keyset-paged projection feeding the stats engine rebuild (no entity loading). */
+    @Query("SELECT s.id, s.projectId, s.assigneeId, s.status, s.priority, s.dueDate, s.createdAt, s.updatedAt "
+            + "FROM Subtask s WHERE s.id > :afterId ORDER BY s.id")
+    List<Object[]> findStatsRowsAfter(@Param("afterId") Long afterId, Pageable pageable);
 }
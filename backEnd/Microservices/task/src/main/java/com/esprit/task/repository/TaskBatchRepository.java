@@ -0,0 +1,64 @@
+package com.esprit.task.repository;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Set-based writes for the task board that would otherwise be one {@code findById} + {@code save} per row.
+ */
+@Repository
+@RequiredArgsConstructor
+public class TaskBatchRepository {
+
+    /** Ids per statement; keeps the bind-parameter count (3 per id) far below driver limits. */
+    static final int MAX_IDS_PER_STATEMENT = 500;
+
+    private final JdbcTemplate jdbcTemplate;
+
+    /**
+     * Sets {@code order_index} to each id's position in {@code orderedIds} with one
+     * {@code UPDATE ... SET order_index = CASE id ... END WHERE id IN (...)} per chunk. Unknown ids are ignored;
+     * when an id is listed twice its last position wins.
+     *
+     * @param now value written to {@code updated_at}
+     * @return number of rows updated
+     */
+    public int updateOrderIndexes(List<Long> orderedIds, LocalDateTime now) {
+        Map<Long, Integer> positions = new LinkedHashMap<>();
+        for (int i = 0; i < orderedIds.size(); i++) {
+            Long id = orderedIds.get(i);
+            if (id != null) {
+                positions.put(id, i);
+            }
+        }
+        List<Map.Entry<Long, Integer>> entries = new ArrayList<>(positions.entrySet());
+        Timestamp updatedAt = Timestamp.valueOf(now);
+        int updated = 0;
+        for (int from = 0; from < entries.size(); from += MAX_IDS_PER_STATEMENT) {
+            List<Map.Entry<Long, Integer>> chunk = entries.subList(from, Math.min(from + MAX_IDS_PER_STATEMENT, entries.size()));
+            StringBuilder sql = new StringBuilder("UPDATE task SET order_index = CASE id");
+            List<Object> args = new ArrayList<>(chunk.size() * 3 + 1);
+            for (Map.Entry<Long, Integer> e : chunk) {
+                sql.append(" WHEN ? THEN ?");
+                args.add(e.getKey());
+                args.add(e.getValue());
+            }
+            sql.append(" ELSE order_index END, updated_at = ? WHERE id IN (")
+                    .append(String.join(",", Collections.nCopies(chunk.size(), "?")))
+                    .append(')');
+            args.add(updatedAt);
+            chunk.forEach(e -> args.add(e.getKey()));
+            updated += jdbcTemplate.update(sql.toString(), args.toArray());
+        }
+        return updated;
+    }
+}
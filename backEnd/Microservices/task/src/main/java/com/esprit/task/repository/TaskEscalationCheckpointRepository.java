@@ -0,0 +1,23 @@
+package com.esprit.task.repository;
+
+import com.esprit.task.entity.TaskEscalationCheckpoint;
+import jakarta.persistence.LockModeType;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDate;
+import java.util.Optional;
+
+@Repository
+public interface TaskEscalationCheckpointRepository extends JpaRepository<TaskEscalationCheckpoint, Long> {
+
+    Optional<TaskEscalationCheckpoint> findByRunDate(LocalDate runDate);
+
+    /** Row-locked read, so replicas sharing one day's checkpoint process its chunks one at a time. */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT c FROM TaskEscalationCheckpoint c WHERE c.id = :id")
+    Optional<TaskEscalationCheckpoint> findByIdForUpdate(@Param("id") Long id);
+}
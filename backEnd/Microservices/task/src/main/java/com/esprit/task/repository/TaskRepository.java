@@ -1,17 +1,20 @@
 package com.esprit.task.repository;
 
 import com.esprit.task.entity.Task;
+import com.esprit.task.entity.TaskPriority;
 import com.esprit.task.entity.TaskStatus;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.time.LocalDate;
 import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 
 @Repository
@@ -56,8 +59,45 @@ public interface TaskRepository extends JpaRepository<Task, Long>, JpaSpecificat
 
     long countByProjectIdAndStatus(Long projectId, TaskStatus status);
 
+    /** Bulk status change in one statement; callers must not rely on managed entities afterwards. */
+    @Modifying(clearAutomatically = true, flushAutomatically = true)
+    @Query("UPDATE Task t SET t.status = :status, t.updatedAt = :now WHERE t.id IN :ids")
+    int bulkUpdateStatus(@Param("ids") Collection<Long> ids,
+            @Param("status") TaskStatus status,
+            @Param("now") LocalDateTime now);
+
     List<Task> findByStatusAndUpdatedAtBefore(TaskStatus status, LocalDateTime before);
 
+    /** Escalation scan: overdue open rows in {@code priorities}, keyset-paged by id. */
+    @Query("SELECT t FROM Task t WHERE t.id > :afterId AND t.dueDate IS NOT NULL AND t.dueDate < :today "
+            + "AND t.status NOT IN ('DONE', 'CANCELLED') AND t.priority IN :priorities ORDER BY t.id")
+    List<Task> findOverdueForEscalationAfter(@Param("afterId") Long afterId,
+            @Param("today") LocalDate today,
+            @Param("priorities") Collection<TaskPriority> priorities,
+            Pageable pageable);
+
+    /** Escalation scan: rows in {@code status} not updated since {@code before}, keyset-paged by id. */
+    @Query("SELECT t FROM Task t WHERE t.id > :afterId AND t.status = :status AND t.updatedAt < :before ORDER BY t.id")
+    List<Task> findStaleInStatusAfter(@Param("afterId") Long afterId,
+            @Param("status") TaskStatus status,
+            @Param("before") LocalDateTime before,
+            Pageable pageable);
+
+    /** One priority transition for many rows; rows whose priority is no longer {@code from} are left alone. */
+    @Modifying(clearAutomatically = true, flushAutomatically = true)
+    @Query("UPDATE Task t SET t.priority = :to, t.updatedAt = :now WHERE t.id IN :ids AND t.priority = :from")
+    int bulkUpdatePriority(@Param("ids") Collection<Long> ids,
+            @Param("from") TaskPriority from,
+            @Param("to") TaskPriority to,
+            @Param("now") LocalDateTime now);
+
+    /** {@link #bulkUpdatePriority} for rows that have no priority yet. */
+    @Modifying(clearAutomatically = true, flushAutomatically = true)
+    @Query("UPDATE Task t SET t.priority = :to, t.updatedAt = :now WHERE t.id IN :ids AND t.priority IS NULL")
+    int bulkSetMissingPriority(@Param("ids") Collection<Long> ids,
+            @Param("to") TaskPriority to,
+            @Param("now") LocalDateTime now);
+
     @Query("SELECT t.projectId, MAX(t.updatedAt) FROM Task t WHERE t.assigneeId = :assigneeId GROUP BY t.projectId")
     List<Object[]> findMaxTaskUpdatedByProjectForAssignee(@Param("assigneeId") Long assigneeId);
 
@@ -125,4 +165,14 @@ public interface TaskRepository extends JpaRepository<Task, Long>, JpaSpecificat
             + "AND t.status NOT IN (com.esprit.task.entity.TaskStatus.DONE, com.esprit.task.entity.TaskStatus.CANCELLED) "
             + "ORDER BY t.priority DESC, t.orderIndex ASC")
     List<Task> findHighPriorityOpenForAssignee(@Param("assigneeId") Long assigneeId);
+
+    /** Keyset-paged projection feeding the stats engine rebuild (no entity loading). */
+    @Query("SELECT t.id, t.projectId, t.assigneeId, t.status, t.priority, t.dueDate, t.createdAt, t.updatedAt "
+            + "FROM Task t WHERE t.id > :afterId ORDER BY t.id")
+    List<Object[]> findStatsRowsAfter(@Param("afterId") Long afterId, Pageable pageable);
+
+    /** Same projection as {@link #findStatsRowsAfter} for the given ids. */
+    @Query("SELECT t.id, t.projectId, t.assigneeId, t.status, t.priority, t.dueDate, t.createdAt, t.updatedAt "
+            + "FROM Task t WHERE t.id IN :ids")
+    List<Object[]> findStatsRowsByIdIn(@Param("ids") Collection<Long> ids);
 }
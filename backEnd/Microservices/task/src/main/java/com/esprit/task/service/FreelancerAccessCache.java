@@ -0,0 +1,117 @@
+package com.esprit.task.service;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+
+import java.time.Duration;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.function.Function;
+
+/**
+ * Freelancer id → accessible project ids, with a TTL, a size bound and single-flight loading: concurrent misses for
+ * the same freelancer wait on one in-flight resolution instead of each calling the remote services.
+ * <p>
+ * Meters: {@code <prefix>.requests} tagged {@code result=hit|miss|coalesced}, {@code <prefix>.resolve} (resolution
+ * latency) and {@code <prefix>.size}.
+ */
+final class FreelancerAccessCache {
+
+    /** Result of one resolution; {@code cacheable=false} (a source failed) is shared with waiters but not kept. */
+    record Loaded(Set<Long> projectIds, boolean cacheable) {
+    }
+
+    private static final class Entry {
+        final CompletableFuture<Set<Long>> value = new CompletableFuture<>();
+        volatile long expiresAtNanos = Long.MAX_VALUE;
+
+        boolean isLive(long now) {
+            return !value.isDone() || expiresAtNanos - now > 0;
+        }
+    }
+
+    private final ConcurrentMap<Long, Entry> entries = new ConcurrentHashMap<>();
+    private final long ttlNanos;
+    private final int maxSize;
+    private final Counter hits;
+    private final Counter misses;
+    private final Counter coalesced;
+    private final Timer resolveTimer;
+
+    FreelancerAccessCache(String meterPrefix, Duration ttl, int maxSize, MeterRegistry registry) {
+        this.ttlNanos = ttl.toNanos();
+        this.maxSize = maxSize;
+        this.hits = registry.counter(meterPrefix + ".requests", "result", "hit");
+        this.misses = registry.counter(meterPrefix + ".requests", "result", "miss");
+        this.coalesced = registry.counter(meterPrefix + ".requests", "result", "coalesced");
+        this.resolveTimer = Timer.builder(meterPrefix + ".resolve")
+                .description("Time to resolve a freelancer's accessible projects from the source services")
+                .register(registry);
+        Gauge.builder(meterPrefix + ".size", entries, Map::size).register(registry);
+    }
+
+    Set<Long> get(Long freelancerId, Function<Long, Loaded> loader) {
+        long now = System.nanoTime();
+        Entry current = entries.get(freelancerId);
+        if (current != null && current.isLive(now)) {
+            return await(current);
+        }
+        Entry mine = new Entry();
+        Entry winner = entries.compute(freelancerId, (k, existing) -> existing != null && existing.isLive(now) ? existing : mine);
+        if (winner != mine) {
+            return await(winner);
+        }
+        misses.increment();
+        Loaded loaded;
+        try {
+            loaded = resolveTimer.record(() -> loader.apply(freelancerId));
+        } catch (RuntimeException e) {
+            entries.remove(freelancerId, mine);
+            mine.value.completeExceptionally(e);
+            throw e;
+        }
+        Set<Long> projectIds = Set.copyOf(loaded.projectIds());
+        if (loaded.cacheable()) {
+            mine.expiresAtNanos = System.nanoTime() + ttlNanos;
+        } else {
+            entries.remove(freelancerId, mine);
+        }
+        mine.value.complete(projectIds);
+        if (entries.size() > maxSize) {
+            evict();
+        }
+        return projectIds;
+    }
+
+    void invalidate(Long freelancerId) {
+        entries.remove(freelancerId);
+    }
+
+    private Set<Long> await(Entry entry) {
+        (entry.value.isDone() ? hits : coalesced).increment();
+        try {
+            return entry.value.join();
+        } catch (CompletionException e) {
+            throw e.getCause() instanceof RuntimeException re ? re : e;
+        }
+    }
+
+    /** Drops expired entries, then arbitrary settled ones until back under the bound. */
+    private void evict() {
+        long now = System.nanoTime();
+        entries.values().removeIf(e -> !e.isLive(now));
+        Iterator<Entry> it = entries.values().iterator();
+        while (entries.size() > maxSize && it.hasNext()) {
+            if (it.next().value.isDone()) {
+                it.remove();
+            }
+        }
+    }
+}
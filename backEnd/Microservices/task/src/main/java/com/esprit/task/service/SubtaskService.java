@@ -24,6 +24,7 @@ public class SubtaskService {
     private final TaskRepository taskRepository;
     private final TaskNotificationService taskNotificationService;
     private final TaskStatusProgressBridge taskStatusProgressBridge;
+    private final TaskStatsEngine taskStatsEngine;
 
     @Transactional(readOnly = true)
     // Lists by parent task id.
@@ -52,6 +53,7 @@ public class SubtaskService {
                 .orderIndex(resolveOrderIndex(parentTaskId, request.getOrderIndex()))
                 .build();
         Subtask saved = subtaskRepository.save(s);
+        taskStatsEngine.recordSubtaskChange(null, saved);
         return SubtaskResponse.from(saved);
     }
 
@@ -75,6 +77,7 @@ public class SubtaskService {
     // Updates this operation.
     public SubtaskResponse update(Long id, SubtaskRequest request) {
         Subtask existing = findEntityById(id);
+        TaskStatsEntry before = TaskStatsEntry.of(existing);
         TaskStatus oldStatus = existing.getStatus();
         existing.setTitle(request.getTitle() != null ? request.getTitle().trim() : existing.getTitle());
         existing.setDescription(request.getDescription());
@@ -92,6 +95,7 @@ public class SubtaskService {
             existing.setOrderIndex(request.getOrderIndex());
         }
         Subtask saved = subtaskRepository.save(existing);
+        taskStatsEngine.recordSubtaskChange(before, saved);
         if (request.getStatus() != null && !request.getStatus().equals(oldStatus)) {
             taskNotificationService.notifySubtaskStatusUpdate(saved);
             taskStatusProgressBridge.afterSubtaskStatusChanged(saved);
@@ -103,9 +107,11 @@ public class SubtaskService {
     // Partially updates status.
     public SubtaskResponse patchStatus(Long id, TaskStatus status) {
         Subtask s = findEntityById(id);
+        TaskStatsEntry before = TaskStatsEntry.of(s);
         TaskStatus old = s.getStatus();
         s.setStatus(status);
         Subtask saved = subtaskRepository.save(s);
+        taskStatsEngine.recordSubtaskChange(before, saved);
         if (status != null && !status.equals(old)) {
             taskNotificationService.notifySubtaskStatusUpdate(saved);
             taskStatusProgressBridge.afterSubtaskStatusChanged(saved);
@@ -117,8 +123,11 @@ public class SubtaskService {
     // Partially updates due date.
     public SubtaskResponse patchDueDate(Long id, LocalDate dueDate) {
         Subtask s = findEntityById(id);
+        TaskStatsEntry before = TaskStatsEntry.of(s);
         s.setDueDate(dueDate);
-        return SubtaskResponse.from(subtaskRepository.save(s));
+        Subtask saved = subtaskRepository.save(s);
+        taskStatsEngine.recordSubtaskChange(before, saved);
+        return SubtaskResponse.from(saved);
     }
 
     @Transactional
@@ -126,6 +135,8 @@ public class SubtaskService {
     public void deleteById(Long id) {
         Subtask s = subtaskRepository.findById(id)
                 .orElseThrow(() -> new EntityNotFoundException("Subtask", id));
+        TaskStatsEntry before = TaskStatsEntry.of(s);
         subtaskRepository.delete(s);
+        taskStatsEngine.recordSubtaskChange(before, null);
     }
 }
@@ -0,0 +1,28 @@
+package com.esprit.task.service;
+
+import com.esprit.task.entity.Subtask;
+import com.esprit.task.entity.Task;
+import com.esprit.task.entity.TaskPriority;
+
+import java.time.LocalDate;
+
+/** One task or subtask whose priority an escalation run raised; collected for the end-of-run notifications. */
+public record TaskEscalation(boolean subtask, Long id, Long projectId, Long assigneeId, String title,
+                             LocalDate dueDate, TaskPriority newPriority) {
+
+    static TaskEscalation of(Task t, TaskPriority newPriority) {
+        String title = t.getTitle() != null ? t.getTitle() : "Task #" + t.getId();
+        return new TaskEscalation(false, t.getId(), t.getProjectId(), t.getAssigneeId(), title, t.getDueDate(), newPriority);
+    }
+
+    static TaskEscalation of(Subtask s, TaskPriority newPriority) {
+        String title = s.getTitle() != null ? s.getTitle() : "Subtask #" + s.getId();
+        return new TaskEscalation(true, s.getId(), s.getProjectId(), s.getAssigneeId(), title, s.getDueDate(), newPriority);
+    }
+
+    /** Digest line, e.g. {@code Task: "API" → URGENT (due 2026-05-01)}. */
+    public String describe() {
+        String line = (subtask ? "Subtask" : "Task") + ": \"" + title + "\" → " + newPriority.name();
+        return dueDate != null ? line + " (due " + dueDate + ")" : line;
+    }
+}
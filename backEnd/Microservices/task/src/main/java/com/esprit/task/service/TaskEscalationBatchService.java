@@ -0,0 +1,239 @@
+package com.esprit.task.service;
+
+import com.esprit.task.entity.Subtask;
+import com.esprit.task.entity.Task;
+import com.esprit.task.entity.TaskEscalationCheckpoint;
+import com.esprit.task.entity.TaskEscalationPhase;
+import com.esprit.task.entity.TaskPriority;
+import com.esprit.task.entity.TaskStatus;
+import com.esprit.task.exception.EntityNotFoundException;
+import com.esprit.task.repository.SubtaskRepository;
+import com.esprit.task.repository.TaskEscalationCheckpointRepository;
+import com.esprit.task.repository.TaskRepository;
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.EnumSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.function.Function;
+
+/**
+ * Chunk transactions behind {@link TaskService#escalateOverduePriorities()}. Each call scans one keyset page of
+ * candidates for the checkpoint's phase, applies one bulk UPDATE per priority transition, records the stats deltas
+ * and advances the checkpoint, all in one short transaction.
+ */
+@Service
+@RequiredArgsConstructor
+public class TaskEscalationBatchService {
+
+    private final TaskRepository taskRepository;
+    private final SubtaskRepository subtaskRepository;
+    private final TaskEscalationCheckpointRepository checkpointRepository;
+    private final TaskStatsEngine taskStatsEngine;
+
+    /**
+     * When {@code > 0}, overdue tasks/subtasks already at HIGH become URGENT after this many calendar days past due.
+     */
+    @Value("${task.escalation.high-to-urgent-overdue-days:0}")
+    private int escalationHighToUrgentOverdueDays;
+
+    /**
+     * When {@code > 0}, open items in IN_REVIEW with {@code updatedAt} older than this many days get one priority bump.
+     */
+    @Value("${task.escalation.stuck-in-review-days:0}")
+    private int escalationStuckInReviewDays;
+
+    /** Rows scanned per chunk transaction. */
+    @Value("${task.escalation.chunk-size:500}")
+    private int chunkSize;
+
+    /** Result of one chunk: what was escalated and whether the run has finished. */
+    public record Chunk(int escalated, List<TaskEscalation> escalations, boolean completed) {
+    }
+
+    /**
+     * Returns the checkpoint for {@code runDate}, creating it at the first phase when the day has no run yet. When
+     * another replica inserts the same day first, its checkpoint is returned and both work through it chunk by chunk.
+     * Not transactional, so the losing insert does not leave the caller's transaction rollback-only.
+     */
+    public TaskEscalationCheckpoint startOrResume(LocalDate runDate) {
+        Optional<TaskEscalationCheckpoint> existing = checkpointRepository.findByRunDate(runDate);
+        if (existing.isPresent()) {
+            return existing.get();
+        }
+        try {
+            return checkpointRepository.save(TaskEscalationCheckpoint.builder()
+                    .runDate(runDate)
+                    .phase(TaskEscalationPhase.ROOT_OVERDUE)
+                    .lastId(0L)
+                    .escalated(0)
+                    .build());
+        } catch (DataIntegrityViolationException e) {
+            return checkpointRepository.findByRunDate(runDate).orElseThrow(() -> e);
+        }
+    }
+
+    @Transactional
+    public Chunk processChunk(Long checkpointId) {
+        TaskEscalationCheckpoint cp = checkpointRepository.findByIdForUpdate(checkpointId)
+                .orElseThrow(() -> new EntityNotFoundException("TaskEscalationCheckpoint", checkpointId));
+        if (cp.getPhase() == TaskEscalationPhase.COMPLETED) {
+            return new Chunk(0, List.of(), true);
+        }
+        PageRequest page = PageRequest.of(0, chunkSize);
+        List<TaskEscalation> escalations = new ArrayList<>();
+        int scanned;
+        Long lastId;
+        switch (cp.getPhase()) {
+            case ROOT_OVERDUE -> {
+                List<Task> rows = taskRepository.findOverdueForEscalationAfter(cp.getLastId(), cp.getRunDate(), overduePriorities(), page);
+                escalations.addAll(escalateTasks(rows, t -> overdueTarget(t.getPriority(), t.getDueDate(), cp.getRunDate())));
+                scanned = rows.size();
+                lastId = rows.isEmpty() ? cp.getLastId() : rows.get(rows.size() - 1).getId();
+            }
+            case SUBTASK_OVERDUE -> {
+                List<Subtask> rows = subtaskRepository.findOverdueForEscalationAfter(cp.getLastId(), cp.getRunDate(), overduePriorities(), page);
+                escalations.addAll(escalateSubtasks(rows, s -> overdueTarget(s.getPriority(), s.getDueDate(), cp.getRunDate())));
+                scanned = rows.size();
+                lastId = rows.isEmpty() ? cp.getLastId() : rows.get(rows.size() - 1).getId();
+            }
+            case ROOT_IN_REVIEW -> {
+                List<Task> rows = escalationStuckInReviewDays > 0
+                        ? taskRepository.findStaleInStatusAfter(cp.getLastId(), TaskStatus.IN_REVIEW, stuckCutoff(cp), page)
+                        : List.of();
+                escalations.addAll(escalateTasks(rows, t -> bumpPriorityForPolicy(t.getPriority())));
+                scanned = rows.size();
+                lastId = rows.isEmpty() ? cp.getLastId() : rows.get(rows.size() - 1).getId();
+            }
+            default -> {
+                List<Subtask> rows = escalationStuckInReviewDays > 0
+                        ? subtaskRepository.findStaleInStatusAfter(cp.getLastId(), TaskStatus.IN_REVIEW, stuckCutoff(cp), page)
+                        : List.of();
+                escalations.addAll(escalateSubtasks(rows, s -> bumpPriorityForPolicy(s.getPriority())));
+                scanned = rows.size();
+                lastId = rows.isEmpty() ? cp.getLastId() : rows.get(rows.size() - 1).getId();
+            }
+        }
+
+        cp.setEscalated(cp.getEscalated() + escalations.size());
+        if (scanned < chunkSize) {
+            TaskEscalationPhase next = TaskEscalationPhase.values()[cp.getPhase().ordinal() + 1];
+            cp.setPhase(next);
+            cp.setLastId(0L);
+            if (next == TaskEscalationPhase.COMPLETED) {
+                cp.setCompletedAt(LocalDateTime.now());
+            }
+        } else {
+            cp.setLastId(lastId);
+        }
+        checkpointRepository.save(cp);
+        return new Chunk(escalations.size(), escalations, cp.getPhase() == TaskEscalationPhase.COMPLETED);
+    }
+
+    private Set<TaskPriority> overduePriorities() {
+        Set<TaskPriority> priorities = EnumSet.of(TaskPriority.LOW, TaskPriority.MEDIUM);
+        if (escalationHighToUrgentOverdueDays > 0) {
+            priorities.add(TaskPriority.HIGH);
+        }
+        return priorities;
+    }
+
+    /** Overdue LOW/MEDIUM → HIGH; HIGH → URGENT once {@code high-to-urgent-overdue-days} past due; otherwise unchanged. */
+    private TaskPriority overdueTarget(TaskPriority current, LocalDate dueDate, LocalDate today) {
+        if (current == TaskPriority.LOW || current == TaskPriority.MEDIUM) {
+            return TaskPriority.HIGH;
+        }
+        if (current == TaskPriority.HIGH && escalationHighToUrgentOverdueDays > 0 && dueDate != null
+                && ChronoUnit.DAYS.between(dueDate, today) >= escalationHighToUrgentOverdueDays) {
+            return TaskPriority.URGENT;
+        }
+        return current;
+    }
+
+    /** Anchored on the run start so a resumed run uses the same cutoff. */
+    private LocalDateTime stuckCutoff(TaskEscalationCheckpoint cp) {
+        return cp.getStartedAt().minusDays(escalationStuckInReviewDays);
+    }
+
+    private List<TaskEscalation> escalateTasks(List<Task> rows, Function<Task, TaskPriority> target) {
+        Map<List<TaskPriority>, List<Task>> byTransition = new LinkedHashMap<>();
+        for (Task t : rows) {
+            TaskPriority to = target.apply(t);
+            if (to != null && to != t.getPriority()) {
+                byTransition.computeIfAbsent(Arrays.asList(t.getPriority(), to), k -> new ArrayList<>()).add(t);
+            }
+        }
+        List<TaskEscalation> out = new ArrayList<>();
+        LocalDateTime now = LocalDateTime.now();
+        byTransition.forEach((transition, tasks) -> {
+            List<Long> ids = tasks.stream().map(Task::getId).toList();
+            if (transition.get(0) == null) {
+                taskRepository.bulkSetMissingPriority(ids, transition.get(1), now);
+            } else {
+                taskRepository.bulkUpdatePriority(ids, transition.get(0), transition.get(1), now);
+            }
+            for (Task t : tasks) {
+                TaskStatsEntry before = TaskStatsEntry.of(t);
+                t.setPriority(transition.get(1));
+                t.setUpdatedAt(now);
+                taskStatsEngine.recordTaskChange(before, t);
+                out.add(TaskEscalation.of(t, transition.get(1)));
+            }
+        });
+        return out;
+    }
+
+    private List<TaskEscalation> escalateSubtasks(List<Subtask> rows, Function<Subtask, TaskPriority> target) {
+        Map<List<TaskPriority>, List<Subtask>> byTransition = new LinkedHashMap<>();
+        for (Subtask s : rows) {
+            TaskPriority to = target.apply(s);
+            if (to != null && to != s.getPriority()) {
+                byTransition.computeIfAbsent(Arrays.asList(s.getPriority(), to), k -> new ArrayList<>()).add(s);
+            }
+        }
+        List<TaskEscalation> out = new ArrayList<>();
+        LocalDateTime now = LocalDateTime.now();
+        byTransition.forEach((transition, subtasks) -> {
+            List<Long> ids = subtasks.stream().map(Subtask::getId).toList();
+            if (transition.get(0) == null) {
+                subtaskRepository.bulkSetMissingPriority(ids, transition.get(1), now);
+            } else {
+                subtaskRepository.bulkUpdatePriority(ids, transition.get(0), transition.get(1), now);
+            }
+            for (Subtask s : subtasks) {
+                TaskStatsEntry before = TaskStatsEntry.of(s);
+                s.setPriority(transition.get(1));
+                s.setUpdatedAt(now);
+                taskStatsEngine.recordSubtaskChange(before, s);
+                out.add(TaskEscalation.of(s, transition.get(1)));
+            }
+        });
+        return out;
+    }
+
+    /** One step toward URGENT; a missing priority becomes MEDIUM and URGENT stays unchanged. */
+    static TaskPriority bumpPriorityForPolicy(TaskPriority p) {
+        if (p == null) {
+            return TaskPriority.MEDIUM;
+        }
+        return switch (p) {
+            case LOW -> TaskPriority.MEDIUM;
+            case MEDIUM -> TaskPriority.HIGH;
+            case HIGH -> TaskPriority.URGENT;
+            case URGENT -> p;
+        };
+    }
+}
@@ -5,13 +5,22 @@ import com.esprit.task.client.ContractClient;
 import com.esprit.task.dto.ContractDto;
 import com.esprit.task.dto.ProjectApplicationFeignDto;
 import com.esprit.task.repository.TaskRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
 import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 
+import java.time.Duration;
 import java.util.HashSet;
 import java.util.List;
 import java.util.Set;
 
+/**
+ * Freelancer project access, resolved from task assignments, accepted applications (Project) and contracts (Contract).
+ * Results are cached per freelancer for {@code task.access-cache.ttl-seconds}; Project/Contract call
+ * {@code POST /api/tasks/access-cache/invalidate} when an application or contract changes.
+ */
 @Service
 @RequiredArgsConstructor
 public class TaskFreelancerProjectAccessService {
@@ -19,6 +28,20 @@ public class TaskFreelancerProjectAccessService {
     private final ProjectApplicationClient projectApplicationClient;
     private final ContractClient contractClient;
     private final TaskRepository taskRepository;
+    private final MeterRegistry meterRegistry;
+
+    @Value("${task.access-cache.ttl-seconds:60}")
+    private long cacheTtlSeconds;
+
+    @Value("${task.access-cache.max-size:10000}")
+    private int cacheMaxSize;
+
+    private FreelancerAccessCache cache;
+
+    @PostConstruct
+    void initCache() {
+        cache = new FreelancerAccessCache("task.access.cache", Duration.ofSeconds(cacheTtlSeconds), cacheMaxSize, meterRegistry);
+    }
 
     /**
      * Mirrors freelancer "projects for add" rules: has a task on the project as assignee,
@@ -33,13 +56,24 @@ public class TaskFreelancerProjectAccessService {
 
     /**
      * Resolves projects visible to a freelancer: assigned tasks on the project,
-     * accepted project applications, and active-style contracts.
+     * accepted project applications, and active-style contracts. Served from the access cache when fresh.
      */
     public Set<Long> getAccessibleProjectIdsForFreelancer(Long freelancerId) {
-        Set<Long> projectIds = new HashSet<>();
         if (freelancerId == null) {
-            return projectIds;
+            return new HashSet<>();
         }
+        return cache.get(freelancerId, this::resolve);
+    }
+
+    /** Drops the cached access set of one freelancer. */
+    public void invalidate(Long freelancerId) {
+        cache.invalidate(freelancerId);
+    }
+
+    /** Union of all sources; a failing source still yields the others, but that partial result is not cached. */
+    private FreelancerAccessCache.Loaded resolve(Long freelancerId) {
+        Set<Long> projectIds = new HashSet<>();
+        boolean complete = true;
         try {
             List<Long> assignedProjectIds = taskRepository.findDistinctProjectIdsByAssigneeId(freelancerId);
             if (assignedProjectIds != null) {
@@ -47,6 +81,7 @@ public class TaskFreelancerProjectAccessService {
             }
         } catch (Exception ignored) {
             // same tolerance as remote sources — Feign/DB issues should not block other access paths
+            complete = false;
         }
         try {
             List<ProjectApplicationFeignDto> apps = projectApplicationClient.getApplicationsByFreelance(freelancerId);
@@ -63,6 +98,7 @@ public class TaskFreelancerProjectAccessService {
             }
         } catch (Exception ignored) {
             // ignored on purpose; union continues with other sources
+            complete = false;
         }
         try {
             List<ContractDto> contracts = contractClient.getContractsByFreelancer(freelancerId);
@@ -76,8 +112,9 @@ public class TaskFreelancerProjectAccessService {
             }
         } catch (Exception ignored) {
             // ignored on purpose; return available subset
+            complete = false;
         }
-        return projectIds;
+        return new FreelancerAccessCache.Loaded(projectIds, complete);
     }
 
     // Checks whether accepted status.
@@ -10,7 +10,9 @@ import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Service;
 
+import java.util.ArrayList;
 import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 
@@ -64,6 +66,44 @@ public class TaskNotificationService {
         notifyUser(userId, title, body, TYPE_TASK_STATUS_UPDATE, data);
     }
 
+    /**
+     * Batched variant of {@link #notifyTaskStatusUpdate(Task)} for bulk board changes: each project is fetched once,
+     * then one notification per task is sent to its client.
+     */
+    public void notifyTaskStatusUpdates(List<Task> tasks) {
+        if (tasks == null || tasks.isEmpty()) {
+            return;
+        }
+        Map<Long, List<Task>> byProject = new LinkedHashMap<>();
+        for (Task task : tasks) {
+            if (task != null && task.getProjectId() != null) {
+                byProject.computeIfAbsent(task.getProjectId(), k -> new ArrayList<>()).add(task);
+            }
+        }
+        for (Map.Entry<Long, List<Task>> e : byProject.entrySet()) {
+            ProjectDto project;
+            try {
+                project = projectClient.getProjectById(e.getKey());
+            } catch (Exception ex) {
+                log.warn("Failed to load project {} for bulk task status notification: {}", e.getKey(), ex.getMessage());
+                continue;
+            }
+            if (project == null || project.getClientId() == null) {
+                continue;
+            }
+            String userId = String.valueOf(project.getClientId());
+            for (Task task : e.getValue()) {
+                String taskTitle = task.getTitle() != null ? task.getTitle() : "Task #" + task.getId();
+                String statusLabel = task.getStatus() != null ? task.getStatus().name().replace("_", " ") : "updated";
+                Map<String, String> data = new HashMap<>();
+                data.put("projectId", String.valueOf(task.getProjectId()));
+                data.put("taskId", String.valueOf(task.getId()));
+                notifyUser(userId, "Task status updated",
+                        String.format("Task \"%s\" is now %s.", taskTitle, statusLabel), TYPE_TASK_STATUS_UPDATE, data);
+            }
+        }
+    }
+
     /**
      * Notify the project client when a subtask status was updated.
      */
@@ -174,6 +214,80 @@ public class TaskNotificationService {
         notifyUser(userId, title, body, TYPE_TASK_PRIORITY_ESCALATED, data);
     }
 
+    /**
+     * One notification for everything an escalation run raised for {@code assigneeId}. A single item keeps the
+     * per-task copy and deep-link data; several items become a digest.
+     */
+    public void notifyPriorityEscalations(Long assigneeId, List<TaskEscalation> items) {
+        if (assigneeId == null || items == null || items.isEmpty()) {
+            return;
+        }
+        String userId = String.valueOf(assigneeId);
+        Map<String, String> data = new HashMap<>();
+        if (items.size() == 1) {
+            TaskEscalation e = items.get(0);
+            data.put("projectId", String.valueOf(e.projectId()));
+            data.put(e.subtask() ? "subtaskId" : "taskId", String.valueOf(e.id()));
+            String body = e.subtask()
+                    ? String.format("Subtask \"%s\" was escalated to %s priority by automated policy.", e.title(), e.newPriority().name())
+                    : String.format("Task \"%s\" was escalated to %s priority by automated policy. Please update or complete it.",
+                            e.title(), e.newPriority().name());
+            notifyUser(userId, e.subtask() ? "Subtask priority escalated" : "Task priority escalated", body,
+                    TYPE_TASK_PRIORITY_ESCALATED, data);
+            return;
+        }
+        data.put("escalatedCount", String.valueOf(items.size()));
+        notifyUser(userId, "Task priority escalated",
+                digestBody(items.size() + " of your items were escalated by automated policy. Please update or complete them.", items),
+                TYPE_TASK_PRIORITY_ESCALATED, data);
+    }
+
+    /**
+     * Client heads-up for an escalation run: one notification per project, each project fetched once for the run.
+     */
+    public void notifyClientsPriorityEscalations(List<TaskEscalation> rootItems) {
+        if (rootItems == null || rootItems.isEmpty()) {
+            return;
+        }
+        Map<Long, List<TaskEscalation>> byProject = new LinkedHashMap<>();
+        for (TaskEscalation e : rootItems) {
+            if (e.projectId() != null) {
+                byProject.computeIfAbsent(e.projectId(), k -> new ArrayList<>()).add(e);
+            }
+        }
+        for (Map.Entry<Long, List<TaskEscalation>> entry : byProject.entrySet()) {
+            ProjectDto project;
+            try {
+                project = projectClient.getProjectById(entry.getKey());
+            } catch (Exception ex) {
+                log.warn("Failed to load project {} for client escalation notification: {}", entry.getKey(), ex.getMessage());
+                continue;
+            }
+            if (project == null || project.getClientId() == null) {
+                continue;
+            }
+            List<TaskEscalation> items = entry.getValue();
+            Map<String, String> data = new HashMap<>();
+            data.put("projectId", String.valueOf(entry.getKey()));
+            data.put("escalatedCount", String.valueOf(items.size()));
+            notifyUser(String.valueOf(project.getClientId()), "Task priority auto-escalated",
+                    digestBody(items.size() + " task(s) were escalated due to schedule/risk policy. The assignees were notified.", items),
+                    TYPE_TASK_PRIORITY_ESCALATED, data);
+        }
+    }
+
+    private static String digestBody(String intro, List<TaskEscalation> items) {
+        StringBuilder body = new StringBuilder(intro).append("\n\n");
+        int show = Math.min(items.size(), MAX_OVERDUE_LINES_IN_BODY);
+        for (int i = 0; i < show; i++) {
+            body.append("• ").append(items.get(i).describe()).append('\n');
+        }
+        if (items.size() > show) {
+            body.append("… and ").append(items.size() - show).append(" more.\n");
+        }
+        return body.toString().trim();
+    }
+
     /**
      * Daily digest for one freelancer: lists overdue tasks/subtasks assigned to them.
      * Fire-and-forget; failures are logged only.
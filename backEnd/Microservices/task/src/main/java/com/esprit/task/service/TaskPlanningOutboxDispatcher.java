@@ -0,0 +1,241 @@
+package com.esprit.task.service;
+
+import com.esprit.task.client.PlanningClient;
+import com.esprit.task.dto.planning.PlanningProgressUpdateCreateDto;
+import com.esprit.task.dto.planning.PlanningProgressUpdateDto;
+import com.esprit.task.entity.PlanningProgressOutbox;
+import com.esprit.task.entity.PlanningProgressOutboxState;
+import com.esprit.task.repository.PlanningProgressOutboxRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Delivers {@code planning_progress_outbox} rows to Planning.
+ * <p>
+ * Each poll claims (with an expiring lease, so replicas do not double-send) every pending row of up to
+ * {@code batch-size} projects that have a due row. Rows for the same project/freelancer collapse into one
+ * progress update carrying the latest status; the project's current max percentage is fetched once per project.
+ * Failed deliveries are retried with exponential backoff and marked {@code FAILED} after {@code max-attempts}.
+ * Queue depth and the age of the oldest pending row are exposed as {@code task.planning.outbox.depth} and
+ * {@code task.planning.outbox.lag}.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class TaskPlanningOutboxDispatcher {
+
+    private static final int MAX_ERROR_LENGTH = 500;
+
+    private final PlanningProgressOutboxRepository outboxRepository;
+    private final PlanningClient planningClient;
+    private final MeterRegistry meterRegistry;
+
+    @Value("${task.planning.outbox.batch-size:50}")
+    private int batchSize;
+
+    @Value("${task.planning.outbox.max-attempts:8}")
+    private int maxAttempts;
+
+    @Value("${task.planning.outbox.backoff-initial-ms:5000}")
+    private long backoffInitialMs;
+
+    @Value("${task.planning.outbox.backoff-max-ms:600000}")
+    private long backoffMaxMs;
+
+    @Value("${task.planning.outbox.lease-ms:60000}")
+    private long leaseMs;
+
+    @Value("${task.planning.outbox.retention-days:7}")
+    private int retentionDays;
+
+    private final AtomicLong depth = new AtomicLong();
+    private final AtomicLong lagSeconds = new AtomicLong();
+    private Counter sentCounter;
+    private Counter coalescedCounter;
+    private Counter retriedCounter;
+    private Counter failedCounter;
+
+    @PostConstruct
+    void registerMetrics() {
+        Gauge.builder("task.planning.outbox.depth", depth, AtomicLong::get)
+                .description("Pending Planning progress updates in the outbox")
+                .register(meterRegistry);
+        Gauge.builder("task.planning.outbox.lag", lagSeconds, AtomicLong::get)
+                .description("Age of the oldest pending Planning progress update")
+                .baseUnit("seconds")
+                .register(meterRegistry);
+        sentCounter = meterRegistry.counter("task.planning.outbox.sent");
+        coalescedCounter = meterRegistry.counter("task.planning.outbox.coalesced");
+        retriedCounter = meterRegistry.counter("task.planning.outbox.retried");
+        failedCounter = meterRegistry.counter("task.planning.outbox.failed");
+    }
+
+    @Scheduled(fixedDelayString = "${task.planning.outbox.poll-interval-ms:2000}")
+    // Performs run dispatch.
+    public void runDispatch() {
+        try {
+            int sent = dispatchBatch();
+            if (sent > 0) {
+                log.debug("Delivered {} Planning progress update(s) from the outbox", sent);
+            }
+        } catch (Exception e) {
+            log.warn("Planning outbox dispatch failed: {}", e.getMessage());
+        }
+        refreshMetrics();
+    }
+
+    @Scheduled(cron = "${task.planning.outbox.purge-cron:0 30 3 * * ?}")
+    // Performs run purge delivered rows.
+    public void runPurgeDelivered() {
+        int n = outboxRepository.deleteFinishedBefore(LocalDateTime.now().minusDays(retentionDays));
+        if (n > 0) {
+            log.info("Purged {} delivered Planning outbox row(s)", n);
+        }
+    }
+
+    /**
+     * Claims and delivers one batch.
+     *
+     * @return number of progress updates created in Planning
+     */
+    public int dispatchBatch() {
+        LocalDateTime now = LocalDateTime.now();
+        List<Long> projectIds = outboxRepository.findDueProjectIds(now, PageRequest.of(0, batchSize));
+        if (projectIds.isEmpty()) {
+            return 0;
+        }
+        String token = UUID.randomUUID().toString();
+        outboxRepository.claimPendingForProjects(projectIds, token, now, now.plus(leaseMs, ChronoUnit.MILLIS));
+        List<PlanningProgressOutbox> claimed = outboxRepository.findByClaimTokenOrderByIdAsc(token);
+
+        Map<Long, List<PlanningProgressOutbox>> byProject = new LinkedHashMap<>();
+        claimed.forEach(o -> byProject.computeIfAbsent(o.getProjectId(), k -> new ArrayList<>()).add(o));
+        int sent = 0;
+        for (Map.Entry<Long, List<PlanningProgressOutbox>> e : byProject.entrySet()) {
+            sent += deliverProject(e.getKey(), e.getValue());
+        }
+        return sent;
+    }
+
+    private int deliverProject(Long projectId, List<PlanningProgressOutbox> rows) {
+        Map<Long, PlanningProgressOutbox> latestPerFreelancer = new LinkedHashMap<>();
+        List<Long> superseded = new ArrayList<>();
+        for (PlanningProgressOutbox o : rows) {
+            PlanningProgressOutbox previous = latestPerFreelancer.remove(o.getFreelancerId());
+            if (previous != null) {
+                superseded.add(previous.getId());
+            }
+            latestPerFreelancer.put(o.getFreelancerId(), o);
+        }
+        LocalDateTime now = LocalDateTime.now();
+        if (!superseded.isEmpty()) {
+            outboxRepository.markFinished(superseded, PlanningProgressOutboxState.SUPERSEDED, now);
+            coalescedCounter.increment(superseded.size());
+        }
+
+        int minAllowed;
+        try {
+            minAllowed = currentMaxPercentage(projectId);
+        } catch (Exception e) {
+            log.warn("Planning progress list failed for project {}; will retry: {}", projectId, e.getMessage());
+            latestPerFreelancer.values().forEach(o -> scheduleRetry(o, e));
+            return 0;
+        }
+
+        // Insertion order is the order the latest changes happened; Planning rejects decreasing percentages, so
+        // each update raises the floor for the next one.
+        List<Long> delivered = new ArrayList<>();
+        for (PlanningProgressOutbox o : latestPerFreelancer.values()) {
+            int target = Math.min(100, Math.max(minAllowed, TaskStatusProgressBridge.resolveProgressPercentage(minAllowed, o.getStatus())));
+            try {
+                planningClient.createProgressUpdate(PlanningProgressUpdateCreateDto.builder()
+                        .projectId(o.getProjectId())
+                        .contractId(o.getContractId())
+                        .freelancerId(o.getFreelancerId())
+                        .title(o.getTitle())
+                        .description(o.getDescription())
+                        .progressPercentage(target)
+                        .build());
+                delivered.add(o.getId());
+                minAllowed = target;
+            } catch (Exception e) {
+                log.warn("Planning create progress update failed for project {}; will retry: {}", projectId, e.getMessage());
+                scheduleRetry(o, e);
+            }
+        }
+        if (!delivered.isEmpty()) {
+            outboxRepository.markFinished(delivered, PlanningProgressOutboxState.SENT, LocalDateTime.now());
+            sentCounter.increment(delivered.size());
+        }
+        return delivered.size();
+    }
+
+    private int currentMaxPercentage(Long projectId) {
+        List<PlanningProgressUpdateDto> updates = planningClient.listProgressUpdatesByProject(projectId);
+        return updates.stream()
+                .map(PlanningProgressUpdateDto::getProgressPercentage)
+                .filter(Objects::nonNull)
+                .mapToInt(Integer::intValue)
+                .max()
+                .orElse(0);
+    }
+
+    private void scheduleRetry(PlanningProgressOutbox o, Exception cause) {
+        int attempts = o.getAttempts() + 1;
+        o.setAttempts(attempts);
+        o.setLastError(truncate(cause.getMessage()));
+        o.setClaimToken(null);
+        o.setClaimedUntil(null);
+        if (attempts >= maxAttempts) {
+            o.setState(PlanningProgressOutboxState.FAILED);
+            failedCounter.increment();
+            log.warn("Giving up on Planning progress update {} for project {} after {} attempt(s)", o.getId(), o.getProjectId(), attempts);
+        } else {
+            o.setNextAttemptAt(LocalDateTime.now().plus(backoff(attempts)));
+            retriedCounter.increment();
+        }
+        outboxRepository.save(o);
+    }
+
+    /** {@code backoff-initial-ms * 2^(attempts-1)}, capped at {@code backoff-max-ms}. */
+    Duration backoff(int attempts) {
+        int shift = Math.min(Math.max(attempts - 1, 0), 30);
+        return Duration.ofMillis(Math.min(backoffMaxMs, backoffInitialMs << shift));
+    }
+
+    private void refreshMetrics() {
+        try {
+            depth.set(outboxRepository.countByState(PlanningProgressOutboxState.PENDING));
+            LocalDateTime oldest = outboxRepository.findOldestPendingCreatedAt();
+            lagSeconds.set(oldest == null ? 0 : Math.max(0, Duration.between(oldest, LocalDateTime.now()).getSeconds()));
+        } catch (Exception e) {
+            log.debug("Planning outbox metrics refresh failed: {}", e.getMessage());
+        }
+    }
+
+    private static String truncate(String message) {
+        if (message == null) {
+            return null;
+        }
+        return message.length() <= MAX_ERROR_LENGTH ? message : message.substring(0, MAX_ERROR_LENGTH);
+    }
+}
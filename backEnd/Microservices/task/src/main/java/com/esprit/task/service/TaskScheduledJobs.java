@@ -15,6 +15,7 @@ import java.time.temporal.ChronoUnit;
 public class TaskScheduledJobs {
 
     private final TaskService taskService;
+    private final TaskStatsEngine taskStatsEngine;
 
     @Value("${task.scheduler.purge-cancelled-days:90}")
     private int purgeCancelledDays;
@@ -47,4 +48,12 @@ public class TaskScheduledJobs {
             log.info("Sent daily overdue reminder(s) to {} freelancer(s)", n);
         }
     }
+
+    /** Resyncs the pre-aggregated stats counters from the task and subtask tables. */
+    @Scheduled(cron = "${task.scheduler.stats-reconcile-cron:0 15 * * * ?}")
+    // Performs run reconcile stats.
+    public void runReconcileStats() {
+        long rows = taskStatsEngine.rebuild();
+        log.debug("Reconciled task stats counters from {} row(s)", rows);
+    }
 }
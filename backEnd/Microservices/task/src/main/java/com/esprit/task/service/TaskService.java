@@ -11,10 +11,13 @@ import com.esprit.task.dto.TaskStatsDto;
 import com.esprit.task.dto.TaskStatsExtendedDto;
 import com.esprit.task.entity.Subtask;
 import com.esprit.task.entity.Task;
+import com.esprit.task.entity.TaskEscalationCheckpoint;
+import com.esprit.task.entity.TaskEscalationPhase;
 import com.esprit.task.entity.TaskPriority;
 import com.esprit.task.entity.TaskStatus;
 import com.esprit.task.exception.EntityNotFoundException;
 import com.esprit.task.repository.SubtaskRepository;
+import com.esprit.task.repository.TaskBatchRepository;
 import com.esprit.task.repository.TaskCommentRepository;
 import com.esprit.task.repository.TaskRepository;
 import com.esprit.task.repository.TaskSpecification;
@@ -40,23 +43,14 @@ import java.util.stream.Stream;
 public class TaskService {
 
     private final TaskRepository taskRepository;
+    private final TaskBatchRepository taskBatchRepository;
     private final SubtaskRepository subtaskRepository;
     private final TaskCommentRepository taskCommentRepository;
     private final ProjectClient projectClient;
     private final TaskNotificationService taskNotificationService;
     private final TaskStatusProgressBridge taskStatusProgressBridge;
-
-    /**
-     * When {@code > 0}, overdue tasks/subtasks already at HIGH become URGENT after this many calendar days past due.
-     */
-    @Value("${task.escalation.high-to-urgent-overdue-days:0}")
-    private int escalationHighToUrgentOverdueDays;
-
-    /**
-     * When {@code > 0}, open items in IN_REVIEW with {@code updatedAt} older than this many days get one priority bump.
-     */
-    @Value("${task.escalation.stuck-in-review-days:0}")
-    private int escalationStuckInReviewDays;
+    private final TaskStatsEngine taskStatsEngine;
+    private final TaskEscalationBatchService taskEscalationBatchService;
 
     /** When true, project clients receive a non-blaming heads-up when a task auto-escalates. */
     @Value("${task.escalation.notify-client-on-escalation:false}")
@@ -252,6 +246,10 @@ public class TaskService {
     @Transactional(readOnly = true)
     // Returns stats by project.
     public TaskStatsDto getStatsByProject(Long projectId) {
+        Optional<TaskStatsSnapshot> counted = taskStatsEngine.forProject(projectId, LocalDate.now(), Optional.empty(), Optional.empty());
+        if (counted.isPresent()) {
+            return statsFromSnapshot(counted.get());
+        }
         long taskTotal = taskRepository.countByProjectId(projectId);
         long subTotal = subtaskRepository.countByProjectId(projectId);
         long total = taskTotal + subTotal;
@@ -276,6 +274,12 @@ public class TaskService {
     @Transactional(readOnly = true)
     // Returns stats by freelancer.
     public TaskStatsDto getStatsByFreelancer(Long freelancerId, Optional<LocalDate> from, Optional<LocalDate> to) {
+        if (from.isEmpty() && to.isEmpty()) {
+            Optional<TaskStatsSnapshot> counted = taskStatsEngine.forAssignee(freelancerId, LocalDate.now(), Optional.empty(), Optional.empty());
+            if (counted.isPresent()) {
+                return statsFromSnapshot(counted.get());
+            }
+        }
         var spec = TaskSpecification.filtered(
                 Optional.empty(), Optional.empty(), Optional.of(freelancerId),
                 Optional.empty(), Optional.empty(), Optional.empty(), from, to, Optional.empty(), Optional.empty());
@@ -330,13 +334,16 @@ public class TaskService {
     @Transactional(readOnly = true)
     // Returns dashboard stats.
     public TaskStatsDto getDashboardStats() {
-        List<Task> allTasks = taskRepository.findAll();
-        long subCount = subtaskRepository.count();
-        long total = allTasks.size() + subCount;
-        long doneCount = allTasks.stream().filter(t -> t.getStatus() == TaskStatus.DONE).count()
-                + subtaskRepository.findAll().stream().filter(s -> s.getStatus() == TaskStatus.DONE).count();
-        long inProgressCount = allTasks.stream().filter(t -> t.getStatus() == TaskStatus.IN_PROGRESS || t.getStatus() == TaskStatus.IN_REVIEW).count()
-                + subtaskRepository.findAll().stream().filter(s -> s.getStatus() == TaskStatus.IN_PROGRESS || s.getStatus() == TaskStatus.IN_REVIEW).count();
+        Optional<TaskStatsSnapshot> counted = taskStatsEngine.global(LocalDate.now(), Optional.empty(), Optional.empty());
+        if (counted.isPresent()) {
+            return statsFromSnapshot(counted.get());
+        }
+        Map<TaskStatus, Long> byStatus = mergedStatusCounts(
+                taskRepository.countGroupByStatusAll(),
+                subtaskRepository.countGroupByStatusAll());
+        long total = taskRepository.count() + subtaskRepository.count();
+        long doneCount = byStatus.getOrDefault(TaskStatus.DONE, 0L);
+        long inProgressCount = byStatus.getOrDefault(TaskStatus.IN_PROGRESS, 0L) + byStatus.getOrDefault(TaskStatus.IN_REVIEW, 0L);
         long overdueCount = taskRepository.findOverdueTasks(LocalDate.now()).size()
                 + subtaskRepository.findOverdueSubtasks(LocalDate.now()).size();
         return TaskStatsDto.builder()
@@ -351,6 +358,10 @@ public class TaskService {
     @Transactional(readOnly = true)
     // Returns extended stats by project.
     public TaskStatsExtendedDto getExtendedStatsByProject(Long projectId) {
+        Optional<TaskStatsSnapshot> counted = taskStatsEngine.forProject(projectId, LocalDate.now(), Optional.empty(), Optional.empty());
+        if (counted.isPresent()) {
+            return extendedFromSnapshot(counted.get(), false);
+        }
         return buildExtendedStatsForProject(projectId, LocalDate.now(), Optional.empty(), Optional.empty());
     }
 
@@ -361,6 +372,12 @@ public class TaskService {
             Optional<LocalDate> dueDateTo,
             Optional<LocalDate> activityFrom,
             Optional<LocalDate> activityTo) {
+        if (dueDateFrom.isEmpty() && dueDateTo.isEmpty()) {
+            Optional<TaskStatsSnapshot> counted = taskStatsEngine.forAssignee(freelancerId, LocalDate.now(), activityFrom, activityTo);
+            if (counted.isPresent()) {
+                return extendedFromSnapshot(counted.get(), true);
+            }
+        }
         var spec = TaskSpecification.filtered(
                 Optional.empty(), Optional.empty(), Optional.of(freelancerId),
                 Optional.empty(), Optional.empty(), Optional.empty(), dueDateFrom, dueDateTo, Optional.empty(), Optional.empty());
@@ -374,6 +391,10 @@ public class TaskService {
     @Transactional(readOnly = true)
     // Returns extended stats dashboard.
     public TaskStatsExtendedDto getExtendedStatsDashboard() {
+        Optional<TaskStatsSnapshot> counted = taskStatsEngine.global(LocalDate.now(), Optional.empty(), Optional.empty());
+        if (counted.isPresent()) {
+            return extendedFromSnapshot(counted.get(), false);
+        }
         return buildExtendedStatsGlobal(LocalDate.now(), Optional.empty(), Optional.empty());
     }
 
@@ -399,6 +420,17 @@ public class TaskService {
                     .toList();
             return extendedFromTaskAndSubtaskLists(tasks, subtasks, overdueAsOf, activityFrom, activityTo);
         }
+        Optional<TaskStatsSnapshot> counted;
+        if (projectId.isPresent()) {
+            counted = taskStatsEngine.forProject(projectId.get(), overdueAsOf, activityFrom, activityTo);
+        } else if (freelancerId.isPresent()) {
+            counted = taskStatsEngine.forAssignee(freelancerId.get(), overdueAsOf, activityFrom, activityTo);
+        } else {
+            counted = taskStatsEngine.global(overdueAsOf, activityFrom, activityTo);
+        }
+        if (counted.isPresent()) {
+            return extendedFromSnapshot(counted.get(), projectId.isEmpty() && freelancerId.isPresent());
+        }
         if (projectId.isPresent()) {
             return buildExtendedStatsForProject(projectId.get(), overdueAsOf, activityFrom, activityTo);
         }
@@ -604,6 +636,23 @@ public class TaskService {
                 .build();
     }
 
+    private static TaskStatsDto statsFromSnapshot(TaskStatsSnapshot s) {
+        long done = s.count(TaskStatus.DONE);
+        return TaskStatsDto.builder()
+                .totalTasks(s.total())
+                .doneCount(done)
+                .inProgressCount(s.count(TaskStatus.IN_PROGRESS) + s.count(TaskStatus.IN_REVIEW))
+                .overdueCount(s.overdue())
+                .completionPercentage(s.total() > 0 ? (100.0 * done / s.total()) : 0.0)
+                .build();
+    }
+
+    private static TaskStatsExtendedDto extendedFromSnapshot(TaskStatsSnapshot s, boolean includeProjectIds) {
+        return toExtendedDto(
+                s.byStatus(), s.byPriority(), s.total(), s.count(TaskStatus.DONE), s.overdue(), s.unassigned(),
+                s.createdInRange(), s.completedInRange(), includeProjectIds ? s.projectIds() : List.of());
+    }
+
     private TaskStatsExtendedDto extendedFromTaskAndSubtaskLists(
             List<Task> tasks,
             List<Subtask> subtasks,
@@ -783,13 +832,16 @@ public class TaskService {
             Integer max = taskRepository.findMaxOrderIndexByProject(task.getProjectId());
             task.setOrderIndex(max != null ? max + 1 : 0);
         }
-        return taskRepository.save(task);
+        Task saved = taskRepository.save(task);
+        taskStatsEngine.recordTaskChange(null, saved);
+        return saved;
     }
 
     @Transactional
     // Updates this operation.
     public Task update(Long id, Task task) {
         Task existing = findById(id);
+        TaskStatsEntry before = TaskStatsEntry.of(existing);
         TaskStatus oldStatus = existing.getStatus();
         existing.setProjectId(task.getProjectId());
         existing.setContractId(task.getContractId());
@@ -801,6 +853,7 @@ public class TaskService {
         existing.setDueDate(task.getDueDate());
         if (task.getOrderIndex() != null) existing.setOrderIndex(task.getOrderIndex());
         Task saved = taskRepository.save(existing);
+        taskStatsEngine.recordTaskChange(before, saved);
         if (task.getStatus() != null && !task.getStatus().equals(oldStatus)) {
             taskNotificationService.notifyTaskStatusUpdate(saved);
             taskStatusProgressBridge.afterRootTaskStatusChanged(saved);
@@ -812,9 +865,11 @@ public class TaskService {
     // Partially updates status.
     public Task patchStatus(Long id, TaskStatus status) {
         Task task = findById(id);
+        TaskStatsEntry before = TaskStatsEntry.of(task);
         TaskStatus oldStatus = task.getStatus();
         task.setStatus(status);
         Task saved = taskRepository.save(task);
+        taskStatsEngine.recordTaskChange(before, saved);
         taskNotificationService.notifyTaskStatusUpdate(saved);
         if (status != null && !status.equals(oldStatus)) {
             taskStatusProgressBridge.afterRootTaskStatusChanged(saved);
@@ -826,169 +881,137 @@ public class TaskService {
     // Partially updates assignee.
     public Task patchAssignee(Long id, Long assigneeId) {
         Task task = findById(id);
+        TaskStatsEntry before = TaskStatsEntry.of(task);
         task.setAssigneeId(assigneeId);
-        return taskRepository.save(task);
+        Task saved = taskRepository.save(task);
+        taskStatsEngine.recordTaskChange(before, saved);
+        return saved;
     }
 
     @Transactional
     // Partially updates due date.
     public Task patchDueDate(Long id, LocalDate dueDate) {
         Task task = findById(id);
+        TaskStatsEntry before = TaskStatsEntry.of(task);
         task.setDueDate(dueDate);
-        return taskRepository.save(task);
+        Task saved = taskRepository.save(task);
+        taskStatsEngine.recordTaskChange(before, saved);
+        return saved;
     }
 
+    /**
+     * Sets {@code newStatus} on every listed task with one SELECT and one UPDATE. Notifications for the tasks that
+     * actually changed run as one batch after commit; Planning progress updates are queued in the same transaction,
+     * one per project/assignee pair since every task moved to the same status.
+     */
     @Transactional
-    // Performs bulk patch status.
     public List<Task> bulkPatchStatus(List<Long> taskIds, TaskStatus newStatus) {
-        List<Task> result = new ArrayList<>();
-        for (Long id : taskIds) {
-            Task t = findById(id);
-            TaskStatus old = t.getStatus();
-            t.setStatus(newStatus);
-            Task saved = taskRepository.save(t);
-            if (newStatus != null && !newStatus.equals(old)) {
-                taskNotificationService.notifyTaskStatusUpdate(saved);
-                taskStatusProgressBridge.afterRootTaskStatusChanged(saved);
+        if (taskIds == null || newStatus == null) {
+            throw new IllegalArgumentException("taskIds and status are required");
+        }
+        List<Long> ids = taskIds.stream().filter(Objects::nonNull).distinct().toList();
+        Map<Long, Task> byId = new HashMap<>();
+        taskRepository.findAllById(ids).forEach(t -> byId.put(t.getId(), t));
+        for (Long id : ids) {
+            if (!byId.containsKey(id)) {
+                throw new EntityNotFoundException("Task", id);
             }
-            result.add(saved);
         }
-        return result;
+        List<Task> changed = ids.stream().map(byId::get).filter(t -> !newStatus.equals(t.getStatus())).toList();
+        if (!changed.isEmpty()) {
+            List<TaskStatsEntry> before = changed.stream().map(TaskStatsEntry::of).toList();
+            LocalDateTime now = LocalDateTime.now();
+            taskRepository.bulkUpdateStatus(changed.stream().map(Task::getId).toList(), newStatus, now);
+            for (int i = 0; i < changed.size(); i++) {
+                Task t = changed.get(i);
+                t.setStatus(newStatus);
+                t.setUpdatedAt(now);
+                taskStatsEngine.recordTaskChange(before.get(i), t);
+            }
+            Map<List<Long>, Task> latestPerProjectAndAssignee = new LinkedHashMap<>();
+            for (Task t : changed) {
+                latestPerProjectAndAssignee.put(Arrays.asList(t.getProjectId(), t.getAssigneeId()), t);
+            }
+            latestPerProjectAndAssignee.values().forEach(taskStatusProgressBridge::afterRootTaskStatusChanged);
+            AfterCommit.run(() -> taskNotificationService.notifyTaskStatusUpdates(changed));
+        }
+        return taskIds.stream().filter(Objects::nonNull).map(byId::get).toList();
     }
 
+    /**
+     * Order index = position in {@code taskIds}; one set-based UPDATE per 500 ids instead of a load + save per task.
+     * The reorder also bumps {@code updated_at}, so the rows' stats projection is read first and the activity
+     * counters are moved after commit.
+     */
     @Transactional
-    // Performs reorder.
     public void reorder(List<Long> taskIds) {
         if (taskIds == null) {
             throw new IllegalArgumentException("taskIds is required");
         }
-        for (int i = 0; i < taskIds.size(); i++) {
-            final int orderIndex = i;
-            taskRepository.findById(taskIds.get(i)).ifPresent(t -> {
-                t.setOrderIndex(orderIndex);
-                taskRepository.save(t);
-            });
+        if (taskIds.isEmpty()) {
+            return;
+        }
+        List<TaskStatsEntry> before = List.of();
+        if (taskStatsEngine.isReady()) {
+            List<Long> ids = taskIds.stream().filter(Objects::nonNull).distinct().toList();
+            before = taskRepository.findStatsRowsByIdIn(ids).stream().map(TaskStatsEntry::fromRow).toList();
         }
+        LocalDateTime now = LocalDateTime.now();
+        taskBatchRepository.updateOrderIndexes(taskIds, now);
+        taskStatsEngine.recordTouched(before, now.toLocalDate());
     }
 
     @Transactional
     // Deletes by id.
     public void deleteById(Long id) {
         Task task = findById(id);
+        List<TaskStatsEntry> removed = new ArrayList<>();
+        removed.add(TaskStatsEntry.of(task));
+        if (task.getSubtasks() != null) {
+            task.getSubtasks().forEach(s -> removed.add(TaskStatsEntry.of(s)));
+        }
         taskCommentRepository.findByTaskIdOrderByCreatedAtAsc(id).forEach(taskCommentRepository::delete);
         taskRepository.delete(task);
+        taskStatsEngine.recordRemoved(removed);
     }
 
     /**
-     * Scheduled priority escalation: overdue LOW/MEDIUM → HIGH (assignee notified); optional HIGH → URGENT after N days
-     * overdue; optional stuck IN_REVIEW bump; subtasks mirror overdue rules with assignee notification.
+     * Scheduled priority escalation: overdue LOW/MEDIUM → HIGH; optional HIGH → URGENT after N days overdue; optional
+     * stuck IN_REVIEW bump; subtasks follow the same rules.
+     * <p>
+     * Runs as a sequence of short chunk transactions ({@link TaskEscalationBatchService}) checkpointed per day, so an
+     * interrupted run resumes where it stopped and a finished one is not repeated. Each assignee gets one digest for the
+     * run, and with {@code task.escalation.notify-client-on-escalation} each project client gets one digest per project.
      *
      * @return number of entities whose priority was raised this run
      */
-    @Transactional
     public int escalateOverduePriorities() {
-        LocalDate today = LocalDate.now();
-        int escalated = 0;
-        List<Task> overdueTasks = taskRepository.findOverdueTasks(today);
-        for (Task t : overdueTasks) {
-            if (t.getStatus() == TaskStatus.DONE || t.getStatus() == TaskStatus.CANCELLED) {
-                continue;
-            }
-            if (t.getPriority() == TaskPriority.LOW || t.getPriority() == TaskPriority.MEDIUM) {
-                t.setPriority(TaskPriority.HIGH);
-                taskRepository.save(t);
-                escalated++;
-                afterRootTaskPriorityEscalation(t, TaskPriority.HIGH);
-            } else if (escalationHighToUrgentOverdueDays > 0
-                    && t.getPriority() == TaskPriority.HIGH
-                    && t.getDueDate() != null) {
-                long daysPastDue = ChronoUnit.DAYS.between(t.getDueDate(), today);
-                if (daysPastDue >= escalationHighToUrgentOverdueDays) {
-                    t.setPriority(TaskPriority.URGENT);
-                    taskRepository.save(t);
-                    escalated++;
-                    afterRootTaskPriorityEscalation(t, TaskPriority.URGENT);
-                }
-            }
-        }
-        List<Subtask> overdueSubs = subtaskRepository.findOverdueSubtasks(today);
-        for (Subtask s : overdueSubs) {
-            if (s.getStatus() == TaskStatus.DONE || s.getStatus() == TaskStatus.CANCELLED) {
-                continue;
-            }
-            if (s.getPriority() == TaskPriority.LOW || s.getPriority() == TaskPriority.MEDIUM) {
-                s.setPriority(TaskPriority.HIGH);
-                subtaskRepository.save(s);
-                escalated++;
-                if (s.getAssigneeId() != null) {
-                    taskNotificationService.notifySubtaskPriorityEscalated(s, "HIGH");
-                }
-            } else if (escalationHighToUrgentOverdueDays > 0
-                    && s.getPriority() == TaskPriority.HIGH
-                    && s.getDueDate() != null) {
-                long daysPastDue = ChronoUnit.DAYS.between(s.getDueDate(), today);
-                if (daysPastDue >= escalationHighToUrgentOverdueDays) {
-                    s.setPriority(TaskPriority.URGENT);
-                    subtaskRepository.save(s);
-                    escalated++;
-                    if (s.getAssigneeId() != null) {
-                        taskNotificationService.notifySubtaskPriorityEscalated(s, "URGENT");
-                    }
-                }
-            }
+        TaskEscalationCheckpoint checkpoint = taskEscalationBatchService.startOrResume(LocalDate.now());
+        if (checkpoint.getPhase() == TaskEscalationPhase.COMPLETED) {
+            return 0;
         }
-        if (escalationStuckInReviewDays > 0) {
-            LocalDateTime cutoff = LocalDateTime.now().minusDays(escalationStuckInReviewDays);
-            for (Task t : taskRepository.findByStatusAndUpdatedAtBefore(TaskStatus.IN_REVIEW, cutoff)) {
-                if (t.getStatus() == TaskStatus.DONE || t.getStatus() == TaskStatus.CANCELLED) {
-                    continue;
-                }
-                TaskPriority next = bumpPriorityForPolicy(t.getPriority());
-                if (next != t.getPriority()) {
-                    t.setPriority(next);
-                    taskRepository.save(t);
-                    escalated++;
-                    afterRootTaskPriorityEscalation(t, next);
-                }
-            }
-            for (Subtask s : subtaskRepository.findByStatusAndUpdatedAtBefore(TaskStatus.IN_REVIEW, cutoff)) {
-                if (s.getStatus() == TaskStatus.DONE || s.getStatus() == TaskStatus.CANCELLED) {
-                    continue;
+        int escalated = 0;
+        Map<Long, List<TaskEscalation>> byAssignee = new LinkedHashMap<>();
+        List<TaskEscalation> rootEscalations = new ArrayList<>();
+        TaskEscalationBatchService.Chunk chunk;
+        do {
+            chunk = taskEscalationBatchService.processChunk(checkpoint.getId());
+            escalated += chunk.escalated();
+            for (TaskEscalation e : chunk.escalations()) {
+                if (e.assigneeId() != null) {
+                    byAssignee.computeIfAbsent(e.assigneeId(), k -> new ArrayList<>()).add(e);
                 }
-                TaskPriority next = bumpPriorityForPolicy(s.getPriority());
-                if (next != s.getPriority()) {
-                    s.setPriority(next);
-                    subtaskRepository.save(s);
-                    escalated++;
-                    if (s.getAssigneeId() != null) {
-                        taskNotificationService.notifySubtaskPriorityEscalated(s, next.name());
-                    }
+                if (!e.subtask()) {
+                    rootEscalations.add(e);
                 }
             }
-        }
-        return escalated;
-    }
+        } while (!chunk.completed());
 
-    private void afterRootTaskPriorityEscalation(Task t, TaskPriority newPriority) {
-        if (t.getAssigneeId() != null) {
-            taskNotificationService.notifyTaskPriorityEscalated(t, newPriority.name());
+        byAssignee.forEach(taskNotificationService::notifyPriorityEscalations);
+        if (escalationNotifyClientOnEscalation && !rootEscalations.isEmpty()) {
+            taskNotificationService.notifyClientsPriorityEscalations(rootEscalations);
         }
-        if (escalationNotifyClientOnEscalation) {
-            taskNotificationService.notifyClientTaskPriorityEscalated(t, newPriority.name());
-        }
-    }
-
-    /** One step toward URGENT; URGENT and unknown stay unchanged. */
-    private static TaskPriority bumpPriorityForPolicy(TaskPriority p) {
-        if (p == null) {
-            return TaskPriority.MEDIUM;
-        }
-        return switch (p) {
-            case LOW -> TaskPriority.MEDIUM;
-            case MEDIUM -> TaskPriority.HIGH;
-            case HIGH -> TaskPriority.URGENT;
-            case URGENT -> p;
-        };
+        return escalated;
     }
 
     /**
@@ -0,0 +1,92 @@
+package com.esprit.task.service;
+
+import com.esprit.task.entity.TaskPriority;
+import com.esprit.task.entity.TaskStatus;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.Optional;
+import java.util.TreeMap;
+
+/**
+ * Counters for one stats scope. Status / priority / unassigned totals are plain longs; overdue and activity windows
+ * are derived from per-day buckets so they stay correct as "today" moves without touching any row.
+ */
+final class TaskStatsCounters {
+
+    private long total;
+    private long unassigned;
+    private final long[] byStatus = new long[TaskStatus.values().length];
+    private final long[] byPriority = new long[TaskPriority.values().length];
+    /** Open (not DONE / CANCELLED) items per due date; overdue = everything strictly before the as-of day. */
+    private final NavigableMap<LocalDate, Long> openByDueDate = new TreeMap<>();
+    private final NavigableMap<LocalDate, Long> createdByDay = new TreeMap<>();
+    /** DONE items per {@code updatedAt} day, mirroring the "completed in range" SQL. */
+    private final NavigableMap<LocalDate, Long> completedByDay = new TreeMap<>();
+    /** Item count per project; only read for assignee scopes ({@code projectIdsWithAssignedWork}). */
+    private final Map<Long, Long> projectRefs = new HashMap<>();
+
+    synchronized void apply(TaskStatsEntry e, int sign) {
+        total += sign;
+        if (e.assigneeId() == null) {
+            unassigned += sign;
+        }
+        if (e.status() != null) {
+            byStatus[e.status().ordinal()] += sign;
+        }
+        if (e.priority() != null) {
+            byPriority[e.priority().ordinal()] += sign;
+        }
+        if (e.isOpen()) {
+            bump(openByDueDate, e.dueDate(), sign);
+        }
+        bump(createdByDay, e.createdOn(), sign);
+        if (e.status() == TaskStatus.DONE) {
+            bump(completedByDay, e.updatedOn(), sign);
+        }
+        if (e.projectId() != null) {
+            projectRefs.merge(e.projectId(), (long) sign, (a, b) -> a + b == 0 ? null : a + b);
+        }
+    }
+
+    synchronized TaskStatsSnapshot snapshot(LocalDate overdueAsOf, Optional<LocalDate> activityFrom, Optional<LocalDate> activityTo) {
+        Map<TaskStatus, Long> statuses = new EnumMap<>(TaskStatus.class);
+        for (TaskStatus s : TaskStatus.values()) {
+            statuses.put(s, byStatus[s.ordinal()]);
+        }
+        Map<TaskPriority, Long> priorities = new EnumMap<>(TaskPriority.class);
+        for (TaskPriority p : TaskPriority.values()) {
+            priorities.put(p, byPriority[p.ordinal()]);
+        }
+        long overdue = sum(openByDueDate.headMap(overdueAsOf, false));
+        long created = 0;
+        long completed = 0;
+        if (activityFrom.isPresent() && activityTo.isPresent() && !activityTo.get().isBefore(activityFrom.get())) {
+            created = sum(createdByDay.subMap(activityFrom.get(), true, activityTo.get(), true));
+            completed = sum(completedByDay.subMap(activityFrom.get(), true, activityTo.get(), true));
+        }
+        List<Long> projectIds = new ArrayList<>(projectRefs.keySet());
+        projectIds.sort(null);
+        return new TaskStatsSnapshot(statuses, priorities, total, overdue, unassigned, created, completed, projectIds);
+    }
+
+    private static void bump(NavigableMap<LocalDate, Long> buckets, LocalDate day, int sign) {
+        if (day == null) {
+            return;
+        }
+        buckets.merge(day, (long) sign, (a, b) -> a + b == 0 ? null : a + b);
+    }
+
+    private static long sum(Map<LocalDate, Long> buckets) {
+        long n = 0;
+        for (long v : buckets.values()) {
+            n += v;
+        }
+        return n;
+    }
+}
@@ -0,0 +1,221 @@
+package com.esprit.task.service;
+
+import com.esprit.task.entity.Subtask;
+import com.esprit.task.entity.Task;
+import com.esprit.task.repository.SubtaskRepository;
+import com.esprit.task.repository.TaskRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Service;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+/**
+ * Pre-aggregated task/subtask counters (global, per project, per assignee) so dashboard stats no longer scan tables.
+ * <p>
+ * Write paths in {@link TaskService} / {@link SubtaskService} report a before/after {@link TaskStatsEntry}; the delta is
+ * applied after commit. Counters are built on startup and resynced by {@link #rebuild()} (see
+ * {@code task.scheduler.stats-reconcile-cron}), which also heals drift from other replicas or direct DB edits.
+ * Until the first build completes, reads return empty and callers fall back to SQL.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class TaskStatsEngine {
+
+    private static final int REBUILD_CHUNK_SIZE = 5_000;
+
+    private final TaskRepository taskRepository;
+    private final SubtaskRepository subtaskRepository;
+
+    @Value("${task.stats.engine.enabled:true}")
+    private boolean enabled;
+
+    /** Null until the first rebuild; replaced atomically by each rebuild. */
+    private volatile Scopes scopes;
+
+    /** Guards delta application against the swap at the end of {@link #rebuild()}. */
+    private final Object deltaLock = new Object();
+    /** Deltas committed while a rebuild scans, replayed onto the fresh counters before the swap; null otherwise. */
+    private List<Delta> pendingDuringRebuild;
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void onApplicationReady() {
+        if (!enabled) {
+            return;
+        }
+        try {
+            rebuild();
+        } catch (Exception e) {
+            log.warn("Initial task stats build failed; stats endpoints fall back to SQL until the next reconcile: {}", e.getMessage());
+        }
+    }
+
+    /**
+     * Recomputes every counter from the task and subtask tables (keyset-paged projections, no entity loading) and
+     * swaps them in. Deltas committed during the scan are replayed onto the fresh counters before the swap so they
+     * are not lost; a delta for a row the scan reads after the commit is counted twice until the next reconcile.
+     *
+     * @return number of rows counted
+     */
+    public synchronized long rebuild() {
+        synchronized (deltaLock) {
+            pendingDuringRebuild = new ArrayList<>();
+        }
+        try {
+            Scopes fresh = new Scopes();
+            long rows = scan(taskRepository::findStatsRowsAfter, fresh) + scan(subtaskRepository::findStatsRowsAfter, fresh);
+            synchronized (deltaLock) {
+                for (Delta d : pendingDuringRebuild) {
+                    d.applyTo(fresh);
+                }
+                scopes = fresh;
+            }
+            return rows;
+        } finally {
+            synchronized (deltaLock) {
+                pendingDuringRebuild = null;
+            }
+        }
+    }
+
+    private static long scan(ChunkLoader loader, Scopes target) {
+        long rows = 0;
+        long afterId = 0L;
+        while (true) {
+            List<Object[]> chunk = loader.load(afterId, PageRequest.of(0, REBUILD_CHUNK_SIZE));
+            for (Object[] row : chunk) {
+                target.apply(TaskStatsEntry.fromRow(row), 1);
+            }
+            rows += chunk.size();
+            if (chunk.size() < REBUILD_CHUNK_SIZE) {
+                return rows;
+            }
+            afterId = (Long) chunk.get(chunk.size() - 1)[0];
+        }
+    }
+
+    @FunctionalInterface
+    private interface ChunkLoader {
+        List<Object[]> load(Long afterId, PageRequest page);
+    }
+
+    public boolean isReady() {
+        return scopes != null;
+    }
+
+    /**
+     * @param before row state before the change, or null for a create
+     * @param after  saved entity, or null for a delete; read after commit so {@code updatedAt} is final
+     */
+    public void recordTaskChange(TaskStatsEntry before, Task after) {
+        record(before, after != null ? () -> TaskStatsEntry.of(after) : null);
+    }
+
+    public void recordSubtaskChange(TaskStatsEntry before, Subtask after) {
+        record(before, after != null ? () -> TaskStatsEntry.of(after) : null);
+    }
+
+    /** Rows removed without a per-entity call, e.g. subtasks cascaded with their root task. */
+    public void recordRemoved(Collection<TaskStatsEntry> removed) {
+        for (TaskStatsEntry e : removed) {
+            record(e, null);
+        }
+    }
+
+    /** Rows whose only counted change is {@code updated_at}, e.g. a board reorder. */
+    public void recordTouched(Collection<TaskStatsEntry> before, LocalDate updatedOn) {
+        for (TaskStatsEntry e : before) {
+            if (!updatedOn.equals(e.updatedOn())) {
+                TaskStatsEntry after = e.withUpdatedOn(updatedOn);
+                record(e, () -> after);
+            }
+        }
+    }
+
+    private void record(TaskStatsEntry before, Supplier<TaskStatsEntry> after) {
+        if (!enabled || (before == null && after == null)) {
+            return;
+        }
+        AfterCommit.run(() -> applyDelta(before, after));
+    }
+
+    private void applyDelta(TaskStatsEntry before, Supplier<TaskStatsEntry> after) {
+        Delta delta = new Delta(before, after != null ? after.get() : null);
+        synchronized (deltaLock) {
+            Scopes current = scopes;
+            if (current != null) {
+                delta.applyTo(current);
+            }
+            if (pendingDuringRebuild != null) {
+                pendingDuringRebuild.add(delta);
+            }
+        }
+    }
+
+    private record Delta(TaskStatsEntry before, TaskStatsEntry after) {
+        void applyTo(Scopes target) {
+            if (before != null) {
+                target.apply(before, -1);
+            }
+            if (after != null) {
+                target.apply(after, 1);
+            }
+        }
+    }
+
+    public Optional<TaskStatsSnapshot> global(LocalDate overdueAsOf, Optional<LocalDate> activityFrom, Optional<LocalDate> activityTo) {
+        return read(s -> s.global, overdueAsOf, activityFrom, activityTo);
+    }
+
+    public Optional<TaskStatsSnapshot> forProject(Long projectId, LocalDate overdueAsOf,
+                                                  Optional<LocalDate> activityFrom, Optional<LocalDate> activityTo) {
+        return read(s -> s.byProject.get(projectId), overdueAsOf, activityFrom, activityTo);
+    }
+
+    public Optional<TaskStatsSnapshot> forAssignee(Long assigneeId, LocalDate overdueAsOf,
+                                                   Optional<LocalDate> activityFrom, Optional<LocalDate> activityTo) {
+        return read(s -> s.byAssignee.get(assigneeId), overdueAsOf, activityFrom, activityTo);
+    }
+
+    private Optional<TaskStatsSnapshot> read(Function<Scopes, TaskStatsCounters> scope, LocalDate overdueAsOf,
+                                             Optional<LocalDate> activityFrom, Optional<LocalDate> activityTo) {
+        Scopes current = scopes;
+        if (!enabled || current == null) {
+            return Optional.empty();
+        }
+        TaskStatsCounters counters = scope.apply(current);
+        if (counters == null) {
+            counters = new TaskStatsCounters();
+        }
+        return Optional.of(counters.snapshot(overdueAsOf, activityFrom, activityTo));
+    }
+
+    private static final class Scopes {
+        final TaskStatsCounters global = new TaskStatsCounters();
+        final ConcurrentMap<Long, TaskStatsCounters> byProject = new ConcurrentHashMap<>();
+        final ConcurrentMap<Long, TaskStatsCounters> byAssignee = new ConcurrentHashMap<>();
+
+        void apply(TaskStatsEntry e, int sign) {
+            global.apply(e, sign);
+            if (e.projectId() != null) {
+                byProject.computeIfAbsent(e.projectId(), k -> new TaskStatsCounters()).apply(e, sign);
+            }
+            if (e.assigneeId() != null) {
+                byAssignee.computeIfAbsent(e.assigneeId(), k -> new TaskStatsCounters()).apply(e, sign);
+            }
+        }
+    }
+}
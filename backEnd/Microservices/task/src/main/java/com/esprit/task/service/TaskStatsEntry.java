@@ -0,0 +1,57 @@
+package com.esprit.task.service;
+
+import com.esprit.task.entity.Subtask;
+import com.esprit.task.entity.Task;
+import com.esprit.task.entity.TaskPriority;
+import com.esprit.task.entity.TaskStatus;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+/**
+ * Minimal view of a task or subtask row as seen by {@link TaskStatsEngine}: only the fields that feed counters.
+ * Captured before a mutation (old contribution) and after commit (new contribution).
+ */
+public record TaskStatsEntry(
+        Long projectId,
+        Long assigneeId,
+        TaskStatus status,
+        TaskPriority priority,
+        LocalDate dueDate,
+        LocalDate createdOn,
+        LocalDate updatedOn) {
+
+    public static TaskStatsEntry of(Task t) {
+        return new TaskStatsEntry(t.getProjectId(), t.getAssigneeId(), t.getStatus(), t.getPriority(), t.getDueDate(),
+                dateOf(t.getCreatedAt()), dateOf(t.getUpdatedAt()));
+    }
+
+    public static TaskStatsEntry of(Subtask s) {
+        return new TaskStatsEntry(s.getProjectId(), s.getAssigneeId(), s.getStatus(), s.getPriority(), s.getDueDate(),
+                dateOf(s.getCreatedAt()), dateOf(s.getUpdatedAt()));
+    }
+
+    /** Row layout of {@code findStatsRowsAfter}: id, projectId, assigneeId, status, priority, dueDate, createdAt, updatedAt. */
+    static TaskStatsEntry fromRow(Object[] row) {
+        return new TaskStatsEntry(
+                (Long) row[1],
+                (Long) row[2],
+                (TaskStatus) row[3],
+                (TaskPriority) row[4],
+                (LocalDate) row[5],
+                dateOf((LocalDateTime) row[6]),
+                dateOf((LocalDateTime) row[7]));
+    }
+
+    TaskStatsEntry withUpdatedOn(LocalDate date) {
+        return new TaskStatsEntry(projectId, assigneeId, status, priority, dueDate, createdOn, date);
+    }
+
+    boolean isOpen() {
+        return status != TaskStatus.DONE && status != TaskStatus.CANCELLED;
+    }
+
+    private static LocalDate dateOf(LocalDateTime ts) {
+        return ts != null ? ts.toLocalDate() : null;
+    }
+}
@@ -0,0 +1,25 @@
+package com.esprit.task.service;
+
+import com.esprit.task.entity.TaskPriority;
+import com.esprit.task.entity.TaskStatus;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Point-in-time read of one {@link TaskStatsEngine} scope (global, project or assignee), roots and subtasks merged.
+ */
+public record TaskStatsSnapshot(
+        Map<TaskStatus, Long> byStatus,
+        Map<TaskPriority, Long> byPriority,
+        long total,
+        long overdue,
+        long unassigned,
+        long createdInRange,
+        long completedInRange,
+        List<Long> projectIds) {
+
+    public long count(TaskStatus status) {
+        return byStatus.getOrDefault(status, 0L);
+    }
+}
@@ -1,36 +1,39 @@
 package com.esprit.task.service;
 
-import com.esprit.task.client.PlanningClient;
-import com.esprit.task.dto.planning.PlanningProgressUpdateCreateDto;
-import com.esprit.task.dto.planning.PlanningProgressUpdateDto;
+import com.esprit.task.entity.PlanningProgressOutbox;
+import com.esprit.task.entity.PlanningProgressOutboxState;
 import com.esprit.task.entity.Subtask;
 import com.esprit.task.entity.Task;
 import com.esprit.task.entity.TaskStatus;
-import feign.FeignException;
+import com.esprit.task.repository.PlanningProgressOutboxRepository;
 import lombok.RequiredArgsConstructor;
-import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 
-import java.util.List;
-import java.util.Objects;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
 
 /**
- * When task-board status changes, creates a corresponding Planning progress update (non-blocking).
- * Respects Planning's non-decreasing progress rule per project.
+ * When task-board status changes, queues a corresponding Planning progress update in the
+ * {@code planning_progress_outbox} table, inside the caller's transaction. No remote call happens here:
+ * {@link TaskPlanningOutboxDispatcher} delivers, coalesces and retries the rows, and applies Planning's
+ * non-decreasing progress rule per project.
  */
 @Service
 @RequiredArgsConstructor
-@Slf4j
 public class TaskStatusProgressBridge {
 
-    private final PlanningClient planningClient;
+    private final PlanningProgressOutboxRepository outboxRepository;
 
     @Value("${task.planning.auto-progress-on-status-change:true}")
     private boolean autoProgressOnStatusChange;
 
+    /** Delay before a queued change is delivered; later changes for the same project within it are folded in. */
+    @Value("${task.planning.outbox.coalesce-window-ms:5000}")
+    private long coalesceWindowMs;
+
     /**
-     * Call after a root {@link Task} status change was persisted and notifications may run.
+     * Call in the transaction that persisted a root {@link Task} status change.
      */
     public void afterRootTaskStatusChanged(Task task) {
         if (!autoProgressOnStatusChange || task == null || task.getAssigneeId() == null || task.getProjectId() == null) {
@@ -47,7 +50,7 @@ public class TaskStatusProgressBridge {
     }
 
     /**
-     * Call after a {@link Subtask} status change was persisted.
+     * Call in the transaction that persisted a {@link Subtask} status change.
      */
     public void afterSubtaskStatusChanged(Subtask subtask) {
         if (!autoProgressOnStatusChange || subtask == null || subtask.getAssigneeId() == null || subtask.getProjectId() == null) {
@@ -76,44 +79,18 @@ public class TaskStatusProgressBridge {
             String title,
             String description,
             TaskStatus status) {
-        int minAllowed;
-        try {
-            List<PlanningProgressUpdateDto> updates = planningClient.listProgressUpdatesByProject(projectId);
-            minAllowed = updates.stream()
-                    .map(PlanningProgressUpdateDto::getProgressPercentage)
-                    .filter(Objects::nonNull)
-                    .mapToInt(Integer::intValue)
-                    .max()
-                    .orElse(0);
-        } catch (FeignException e) {
-            log.warn("Planning progress list failed for project {}; skipping auto progress update: {}", projectId, e.getMessage());
-            return;
-        } catch (Exception e) {
-            log.warn("Planning progress list failed for project {}; skipping auto progress update: {}", projectId, e.getMessage());
-            return;
-        }
-        int target = resolveProgressPercentage(minAllowed, status);
-        if (target < minAllowed) {
-            target = minAllowed;
-        }
-        if (target > 100) {
-            target = 100;
-        }
-        PlanningProgressUpdateCreateDto body = PlanningProgressUpdateCreateDto.builder()
+        LocalDateTime now = LocalDateTime.now();
+        outboxRepository.save(PlanningProgressOutbox.builder()
                 .projectId(projectId)
                 .contractId(contractId)
                 .freelancerId(freelancerId)
                 .title(title)
                 .description(description)
-                .progressPercentage(target)
-                .build();
-        try {
-            planningClient.createProgressUpdate(body);
-        } catch (FeignException e) {
-            log.warn("Planning create progress update failed for project {}: {}", projectId, e.getMessage());
-        } catch (Exception e) {
-            log.warn("Planning create progress update failed for project {}: {}", projectId, e.getMessage());
-        }
+                .status(status)
+                .state(PlanningProgressOutboxState.PENDING)
+                .createdAt(now)
+                .nextAttemptAt(now.plus(coalesceWindowMs, ChronoUnit.MILLIS))
+                .build());
     }
 
     static int resolveProgressPercentage(int minAllowed, TaskStatus status) {
@@ -37,6 +37,7 @@ import static org.assertj.core.api.Assertions.assertThat;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.anyList;
 import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 import static org.springframework.http.MediaType.APPLICATION_JSON;
@@ -384,6 +385,20 @@ class TaskControllerTest {
         verify(taskService).reorder(any());
     }
 
+    @Test
+    void invalidateAccessCache_returns204AndDelegates() throws Exception {
+        mockMvc.perform(post("/api/tasks/access-cache/invalidate").param("freelancerId", "5"))
+                .andExpect(status().isNoContent());
+        verify(taskFreelancerProjectAccessService).invalidate(5L);
+    }
+
+    @Test
+    void invalidateAccessCache_withoutFreelancerId_returns400() throws Exception {
+        mockMvc.perform(post("/api/tasks/access-cache/invalidate"))
+                .andExpect(status().isBadRequest());
+        verify(taskFreelancerProjectAccessService, never()).invalidate(any());
+    }
+
     @Test
     void reorder_whenBodyMissing_returns400WithJsonMessage() throws Exception {
         mockMvc.perform(post("/api/tasks/reorder").contentType(APPLICATION_JSON))
@@ -43,6 +43,9 @@ class SubtaskServiceTest {
     @Mock
     private TaskStatusProgressBridge taskStatusProgressBridge;
 
+    @Mock
+    private TaskStatsEngine taskStatsEngine;
+
     @InjectMocks
     private SubtaskService subtaskService;
 
@@ -0,0 +1,223 @@
+package com.esprit.task.service;
+
+import com.esprit.task.entity.Subtask;
+import com.esprit.task.entity.Task;
+import com.esprit.task.entity.TaskEscalationCheckpoint;
+import com.esprit.task.entity.TaskEscalationPhase;
+import com.esprit.task.entity.TaskPriority;
+import com.esprit.task.entity.TaskStatus;
+import com.esprit.task.repository.SubtaskRepository;
+import com.esprit.task.repository.TaskEscalationCheckpointRepository;
+import com.esprit.task.repository.TaskRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.domain.Pageable;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class TaskEscalationBatchServiceTest {
+
+    private static final LocalDate TODAY = LocalDate.of(2026, 5, 10);
+
+    @Mock
+    private TaskRepository taskRepository;
+
+    @Mock
+    private SubtaskRepository subtaskRepository;
+
+    @Mock
+    private TaskEscalationCheckpointRepository checkpointRepository;
+
+    @Mock
+    private TaskStatsEngine taskStatsEngine;
+
+    @InjectMocks
+    private TaskEscalationBatchService service;
+
+    @BeforeEach
+    void setUp() {
+        ReflectionTestUtils.setField(service, "chunkSize", 2);
+    }
+
+    private TaskEscalationCheckpoint checkpoint(TaskEscalationPhase phase, long lastId) {
+        TaskEscalationCheckpoint cp = TaskEscalationCheckpoint.builder()
+                .id(1L)
+                .runDate(TODAY)
+                .phase(phase)
+                .lastId(lastId)
+                .startedAt(TODAY.atTime(9, 0))
+                .build();
+        when(checkpointRepository.findByIdForUpdate(1L)).thenReturn(Optional.of(cp));
+        return cp;
+    }
+
+    private static Task task(Long id, TaskPriority priority, LocalDate due, Long assigneeId) {
+        Task t = new Task();
+        t.setId(id);
+        t.setProjectId(1L);
+        t.setTitle("Task " + id);
+        t.setStatus(TaskStatus.IN_PROGRESS);
+        t.setPriority(priority);
+        t.setDueDate(due);
+        t.setAssigneeId(assigneeId);
+        t.setCreatedAt(TODAY.minusDays(20).atStartOfDay());
+        t.setUpdatedAt(TODAY.minusDays(20).atStartOfDay());
+        return t;
+    }
+
+    @Test
+    void startOrResume_createsCheckpointForNewDay() {
+        when(checkpointRepository.findByRunDate(TODAY)).thenReturn(Optional.empty());
+        when(checkpointRepository.save(any())).thenAnswer(inv -> inv.getArgument(0));
+
+        TaskEscalationCheckpoint cp = service.startOrResume(TODAY);
+
+        assertThat(cp.getPhase()).isEqualTo(TaskEscalationPhase.ROOT_OVERDUE);
+        assertThat(cp.getLastId()).isZero();
+    }
+
+    @Test
+    void startOrResume_whenAnotherReplicaInsertedFirst_returnsItsCheckpoint() {
+        TaskEscalationCheckpoint winner = TaskEscalationCheckpoint.builder().id(7L).runDate(TODAY)
+                .phase(TaskEscalationPhase.SUBTASK_OVERDUE).lastId(40L).build();
+        when(checkpointRepository.findByRunDate(TODAY)).thenReturn(Optional.empty(), Optional.of(winner));
+        when(checkpointRepository.save(any())).thenThrow(new DataIntegrityViolationException("duplicate run_date"));
+
+        assertThat(service.startOrResume(TODAY)).isSameAs(winner);
+    }
+
+    @Test
+    void processChunk_fullPage_bulkUpdatesPerTransitionAndAdvancesKeyset() {
+        ReflectionTestUtils.setField(service, "escalationHighToUrgentOverdueDays", 3);
+        TaskEscalationCheckpoint cp = checkpoint(TaskEscalationPhase.ROOT_OVERDUE, 0L);
+        Task low = task(4L, TaskPriority.LOW, TODAY.minusDays(1), 5L);
+        Task high = task(9L, TaskPriority.HIGH, TODAY.minusDays(5), 5L);
+        when(taskRepository.findOverdueForEscalationAfter(eq(0L), eq(TODAY),
+                eq(Set.of(TaskPriority.LOW, TaskPriority.MEDIUM, TaskPriority.HIGH)), any(Pageable.class)))
+                .thenReturn(List.of(low, high));
+
+        TaskEscalationBatchService.Chunk chunk = service.processChunk(1L);
+
+        verify(taskRepository).bulkUpdatePriority(eq(List.of(4L)), eq(TaskPriority.LOW), eq(TaskPriority.HIGH), any(LocalDateTime.class));
+        verify(taskRepository).bulkUpdatePriority(eq(List.of(9L)), eq(TaskPriority.HIGH), eq(TaskPriority.URGENT), any(LocalDateTime.class));
+        verify(taskStatsEngine, times(2)).recordTaskChange(any(), any());
+        assertThat(chunk.escalated()).isEqualTo(2);
+        assertThat(chunk.completed()).isFalse();
+        assertThat(chunk.escalations()).extracting(TaskEscalation::newPriority)
+                .containsExactly(TaskPriority.HIGH, TaskPriority.URGENT);
+        assertThat(cp.getPhase()).isEqualTo(TaskEscalationPhase.ROOT_OVERDUE);
+        assertThat(cp.getLastId()).isEqualTo(9L);
+        assertThat(cp.getEscalated()).isEqualTo(2);
+        verify(checkpointRepository).save(cp);
+    }
+
+    @Test
+    void processChunk_highNotYetPastThreshold_isLeftAlone() {
+        ReflectionTestUtils.setField(service, "escalationHighToUrgentOverdueDays", 3);
+        TaskEscalationCheckpoint cp = checkpoint(TaskEscalationPhase.ROOT_OVERDUE, 0L);
+        when(taskRepository.findOverdueForEscalationAfter(anyLong(), any(), any(), any(Pageable.class)))
+                .thenReturn(List.of(task(4L, TaskPriority.HIGH, TODAY.minusDays(1), 5L)));
+
+        TaskEscalationBatchService.Chunk chunk = service.processChunk(1L);
+
+        assertThat(chunk.escalated()).isZero();
+        verify(taskRepository, never()).bulkUpdatePriority(any(), any(), any(), any());
+        assertThat(cp.getPhase()).isEqualTo(TaskEscalationPhase.SUBTASK_OVERDUE);
+        assertThat(cp.getLastId()).isZero();
+    }
+
+    @Test
+    void processChunk_subtaskPhase_escalatesMediumSubtask() {
+        TaskEscalationCheckpoint cp = checkpoint(TaskEscalationPhase.SUBTASK_OVERDUE, 0L);
+        Subtask s = new Subtask();
+        s.setId(1L);
+        s.setProjectId(1L);
+        s.setPriority(TaskPriority.MEDIUM);
+        s.setStatus(TaskStatus.TODO);
+        s.setDueDate(TODAY.minusDays(1));
+        s.setAssigneeId(6L);
+        when(subtaskRepository.findOverdueForEscalationAfter(eq(0L), eq(TODAY), any(), any(Pageable.class))).thenReturn(List.of(s));
+
+        TaskEscalationBatchService.Chunk chunk = service.processChunk(1L);
+
+        verify(subtaskRepository).bulkUpdatePriority(eq(List.of(1L)), eq(TaskPriority.MEDIUM), eq(TaskPriority.HIGH), any(LocalDateTime.class));
+        assertThat(s.getPriority()).isEqualTo(TaskPriority.HIGH);
+        assertThat(chunk.escalations()).singleElement().satisfies(e -> {
+            assertThat(e.subtask()).isTrue();
+            assertThat(e.assigneeId()).isEqualTo(6L);
+        });
+        assertThat(cp.getPhase()).isEqualTo(TaskEscalationPhase.ROOT_IN_REVIEW);
+    }
+
+    @Test
+    void processChunk_inReviewDisabled_skipsToCompletion() {
+        TaskEscalationCheckpoint cp = checkpoint(TaskEscalationPhase.SUBTASK_IN_REVIEW, 0L);
+
+        TaskEscalationBatchService.Chunk chunk = service.processChunk(1L);
+
+        assertThat(chunk.completed()).isTrue();
+        assertThat(cp.getPhase()).isEqualTo(TaskEscalationPhase.COMPLETED);
+        assertThat(cp.getCompletedAt()).isNotNull();
+        verify(subtaskRepository, never()).findStaleInStatusAfter(anyLong(), any(), any(), any());
+    }
+
+    @Test
+    void processChunk_stuckInReview_bumpsOneStepFromRunStartCutoff() {
+        ReflectionTestUtils.setField(service, "escalationStuckInReviewDays", 3);
+        checkpoint(TaskEscalationPhase.ROOT_IN_REVIEW, 0L);
+        Task t = task(2L, TaskPriority.MEDIUM, null, null);
+        t.setStatus(TaskStatus.IN_REVIEW);
+        when(taskRepository.findStaleInStatusAfter(eq(0L), eq(TaskStatus.IN_REVIEW), eq(TODAY.atTime(9, 0).minusDays(3)), any(Pageable.class)))
+                .thenReturn(List.of(t));
+
+        TaskEscalationBatchService.Chunk chunk = service.processChunk(1L);
+
+        verify(taskRepository).bulkUpdatePriority(eq(List.of(2L)), eq(TaskPriority.MEDIUM), eq(TaskPriority.HIGH), any(LocalDateTime.class));
+        assertThat(chunk.escalated()).isEqualTo(1);
+    }
+
+    @Test
+    void processChunk_stuckInReviewWithoutPriority_getsMedium() {
+        ReflectionTestUtils.setField(service, "escalationStuckInReviewDays", 3);
+        checkpoint(TaskEscalationPhase.ROOT_IN_REVIEW, 0L);
+        Task t = task(3L, null, null, 5L);
+        t.setStatus(TaskStatus.IN_REVIEW);
+        when(taskRepository.findStaleInStatusAfter(eq(0L), eq(TaskStatus.IN_REVIEW), any(LocalDateTime.class), any(Pageable.class)))
+                .thenReturn(List.of(t));
+
+        TaskEscalationBatchService.Chunk chunk = service.processChunk(1L);
+
+        verify(taskRepository).bulkSetMissingPriority(eq(List.of(3L)), eq(TaskPriority.MEDIUM), any(LocalDateTime.class));
+        assertThat(chunk.escalations()).extracting(TaskEscalation::newPriority).containsExactly(TaskPriority.MEDIUM);
+    }
+
+    @Test
+    void processChunk_completedCheckpoint_isNoOp() {
+        checkpoint(TaskEscalationPhase.COMPLETED, 0L);
+
+        TaskEscalationBatchService.Chunk chunk = service.processChunk(1L);
+
+        assertThat(chunk.completed()).isTrue();
+        verify(checkpointRepository, never()).save(any());
+    }
+}
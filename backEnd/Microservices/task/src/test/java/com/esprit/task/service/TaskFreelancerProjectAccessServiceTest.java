@@ -5,17 +5,21 @@ import com.esprit.task.dto.ContractDto;
 import com.esprit.task.client.ProjectApplicationClient;
 import com.esprit.task.dto.ProjectApplicationFeignDto;
 import com.esprit.task.repository.TaskRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
-import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.test.util.ReflectionTestUtils;
 
 import java.util.Collections;
 import java.util.List;
 import java.util.Set;
 
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
 @ExtendWith(MockitoExtension.class)
@@ -30,9 +34,18 @@ class TaskFreelancerProjectAccessServiceTest {
     @Mock
     private TaskRepository taskRepository;
 
-    @InjectMocks
+    private SimpleMeterRegistry meterRegistry;
     private TaskFreelancerProjectAccessService service;
 
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        service = new TaskFreelancerProjectAccessService(projectApplicationClient, contractClient, taskRepository, meterRegistry);
+        ReflectionTestUtils.setField(service, "cacheTtlSeconds", 60L);
+        ReflectionTestUtils.setField(service, "cacheMaxSize", 100);
+        service.initCache();
+    }
+
     @Test
     void canFreelancerUseProject_whenIdNull_returnsFalse() {
         assertThat(service.canFreelancerUseProject(null, 1L)).isFalse();
@@ -128,4 +141,46 @@ class TaskFreelancerProjectAccessServiceTest {
 
         assertThat(ids).contains(10L, 11L, 77L).doesNotContain(12L);
     }
+
+    @Test
+    void getAccessibleProjectIdsForFreelancer_secondCallServedFromCache() {
+        when(projectApplicationClient.getApplicationsByFreelance(5L)).thenReturn(Collections.emptyList());
+        when(contractClient.getContractsByFreelancer(5L)).thenReturn(Collections.emptyList());
+        when(taskRepository.findDistinctProjectIdsByAssigneeId(5L)).thenReturn(List.of(10L));
+
+        assertThat(service.canFreelancerUseProject(5L, 10L)).isTrue();
+        assertThat(service.getAccessibleProjectIdsForFreelancer(5L)).containsExactly(10L);
+
+        verify(projectApplicationClient, times(1)).getApplicationsByFreelance(5L);
+        verify(contractClient, times(1)).getContractsByFreelancer(5L);
+        assertThat(meterRegistry.counter("task.access.cache.requests", "result", "hit").count()).isEqualTo(1.0);
+        assertThat(meterRegistry.counter("task.access.cache.requests", "result", "miss").count()).isEqualTo(1.0);
+    }
+
+    @Test
+    void invalidate_forcesFreshResolution() {
+        when(projectApplicationClient.getApplicationsByFreelance(5L)).thenReturn(Collections.emptyList());
+        when(contractClient.getContractsByFreelancer(5L))
+                .thenReturn(Collections.emptyList())
+                .thenReturn(List.of(new ContractDto(2L, 10L, 5L, 99L, "ACTIVE")));
+        when(taskRepository.findDistinctProjectIdsByAssigneeId(5L)).thenReturn(Collections.emptyList());
+
+        assertThat(service.canFreelancerUseProject(5L, 10L)).isFalse();
+        service.invalidate(5L);
+
+        assertThat(service.canFreelancerUseProject(5L, 10L)).isTrue();
+        verify(contractClient, times(2)).getContractsByFreelancer(5L);
+    }
+
+    @Test
+    void getAccessibleProjectIdsForFreelancer_partialResultIsNotCached() {
+        when(projectApplicationClient.getApplicationsByFreelance(5L)).thenThrow(new RuntimeException("feign down"));
+        when(contractClient.getContractsByFreelancer(5L)).thenReturn(Collections.emptyList());
+        when(taskRepository.findDistinctProjectIdsByAssigneeId(5L)).thenReturn(List.of(77L));
+
+        service.getAccessibleProjectIdsForFreelancer(5L);
+        assertThat(service.getAccessibleProjectIdsForFreelancer(5L)).containsExactly(77L);
+
+        verify(projectApplicationClient, times(2)).getApplicationsByFreelance(5L);
+    }
 }
@@ -2,9 +2,11 @@ package com.esprit.task.service;
 
 import com.esprit.task.client.NotificationClient;
 import com.esprit.task.client.ProjectClient;
+import com.esprit.task.dto.NotificationRequestDto;
 import com.esprit.task.dto.ProjectDto;
 import com.esprit.task.entity.Subtask;
 import com.esprit.task.entity.Task;
+import com.esprit.task.entity.TaskPriority;
 import com.esprit.task.entity.TaskStatus;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
@@ -65,6 +67,44 @@ class TaskNotificationServiceTest {
         assertThat(dto.getData()).containsEntry("projectId", "1").containsEntry("taskId", "1");
     }
 
+    @Test
+    void notifyTaskStatusUpdates_fetchesEachProjectOnce() {
+        Task a = task(1L);
+        Task b = task(2L);
+        when(projectClient.getProjectById(1L)).thenReturn(new ProjectDto(1L, 100L, "Project A", null, null));
+
+        taskNotificationService.notifyTaskStatusUpdates(List.of(a, b));
+
+        verify(projectClient, times(1)).getProjectById(1L);
+        verify(notificationClient, times(2)).create(any());
+    }
+
+    @Test
+    void notifyPriorityEscalations_severalItems_sendsOneDigest() {
+        TaskEscalation a = new TaskEscalation(false, 1L, 1L, 5L, "A", null, TaskPriority.HIGH);
+        TaskEscalation b = new TaskEscalation(true, 2L, 1L, 5L, "B", null, TaskPriority.URGENT);
+
+        taskNotificationService.notifyPriorityEscalations(5L, List.of(a, b));
+
+        ArgumentCaptor<NotificationRequestDto> cap = ArgumentCaptor.forClass(NotificationRequestDto.class);
+        verify(notificationClient, times(1)).create(cap.capture());
+        assertThat(cap.getValue().getUserId()).isEqualTo("5");
+        assertThat(cap.getValue().getBody()).contains("Task: \"A\" → HIGH").contains("Subtask: \"B\" → URGENT");
+        assertThat(cap.getValue().getData()).containsEntry("escalatedCount", "2");
+    }
+
+    @Test
+    void notifyClientsPriorityEscalations_fetchesEachProjectOnce() {
+        TaskEscalation a = new TaskEscalation(false, 1L, 1L, 5L, "A", null, TaskPriority.HIGH);
+        TaskEscalation b = new TaskEscalation(false, 2L, 1L, 6L, "B", null, TaskPriority.HIGH);
+        when(projectClient.getProjectById(1L)).thenReturn(new ProjectDto(1L, 100L, "Project A", null, null));
+
+        taskNotificationService.notifyClientsPriorityEscalations(List.of(a, b));
+
+        verify(projectClient, times(1)).getProjectById(1L);
+        verify(notificationClient, times(1)).create(any());
+    }
+
     @Test
     void notifyTaskStatusUpdate_whenTaskNull_doesNotCallClient() {
         taskNotificationService.notifyTaskStatusUpdate(null);
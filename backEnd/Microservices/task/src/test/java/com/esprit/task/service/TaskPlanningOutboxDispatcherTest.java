@@ -0,0 +1,180 @@
+package com.esprit.task.service;
+
+import com.esprit.task.client.PlanningClient;
+import com.esprit.task.dto.planning.PlanningProgressUpdateCreateDto;
+import com.esprit.task.dto.planning.PlanningProgressUpdateDto;
+import com.esprit.task.dto.planning.PlanningProgressUpdateRefDto;
+import com.esprit.task.entity.PlanningProgressOutbox;
+import com.esprit.task.entity.PlanningProgressOutboxState;
+import com.esprit.task.entity.TaskStatus;
+import com.esprit.task.repository.PlanningProgressOutboxRepository;
+import feign.FeignException;
+import feign.Request;
+import feign.Response;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.Pageable;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.Collections;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class TaskPlanningOutboxDispatcherTest {
+
+    @Mock
+    private PlanningProgressOutboxRepository outboxRepository;
+
+    @Mock
+    private PlanningClient planningClient;
+
+    private SimpleMeterRegistry meterRegistry;
+    private TaskPlanningOutboxDispatcher dispatcher;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        dispatcher = new TaskPlanningOutboxDispatcher(outboxRepository, planningClient, meterRegistry);
+        ReflectionTestUtils.setField(dispatcher, "batchSize", 50);
+        ReflectionTestUtils.setField(dispatcher, "maxAttempts", 3);
+        ReflectionTestUtils.setField(dispatcher, "backoffInitialMs", 1_000L);
+        ReflectionTestUtils.setField(dispatcher, "backoffMaxMs", 3_000L);
+        ReflectionTestUtils.setField(dispatcher, "leaseMs", 60_000L);
+        dispatcher.registerMetrics();
+    }
+
+    private void claim(PlanningProgressOutbox... rows) {
+        when(outboxRepository.findDueProjectIds(any(LocalDateTime.class), any(Pageable.class))).thenReturn(List.of(1L));
+        when(outboxRepository.findByClaimTokenOrderByIdAsc(anyString())).thenReturn(List.of(rows));
+    }
+
+    @Test
+    void dispatchBatch_nothingDue_doesNotCallPlanning() {
+        when(outboxRepository.findDueProjectIds(any(LocalDateTime.class), any(Pageable.class))).thenReturn(List.of());
+
+        assertThat(dispatcher.dispatchBatch()).isZero();
+
+        verify(planningClient, never()).listProgressUpdatesByProject(any());
+    }
+
+    @Test
+    void dispatchBatch_coalescesSameFreelancerAndSendsLatest() {
+        claim(row(10L, 9L, TaskStatus.IN_PROGRESS), row(11L, 9L, TaskStatus.IN_REVIEW), row(12L, 9L, TaskStatus.DONE));
+        when(planningClient.listProgressUpdatesByProject(1L)).thenReturn(List.of());
+        when(planningClient.createProgressUpdate(any())).thenReturn(new PlanningProgressUpdateRefDto());
+
+        assertThat(dispatcher.dispatchBatch()).isEqualTo(1);
+
+        ArgumentCaptor<PlanningProgressUpdateCreateDto> cap = ArgumentCaptor.forClass(PlanningProgressUpdateCreateDto.class);
+        verify(planningClient).createProgressUpdate(cap.capture());
+        assertThat(cap.getValue().getProgressPercentage()).isEqualTo(100);
+        verify(outboxRepository).markFinished(eq(List.of(10L, 11L)), eq(PlanningProgressOutboxState.SUPERSEDED), any());
+        verify(outboxRepository).markFinished(eq(List.of(12L)), eq(PlanningProgressOutboxState.SENT), any());
+        assertThat(meterRegistry.counter("task.planning.outbox.coalesced").count()).isEqualTo(2.0);
+    }
+
+    @Test
+    void dispatchBatch_listsProjectOnceAndKeepsPercentagesNonDecreasing() {
+        claim(row(10L, 9L, TaskStatus.DONE), row(11L, 7L, TaskStatus.TODO));
+        when(planningClient.listProgressUpdatesByProject(1L))
+                .thenReturn(List.of(PlanningProgressUpdateDto.builder().progressPercentage(80).build()));
+        when(planningClient.createProgressUpdate(any())).thenReturn(new PlanningProgressUpdateRefDto());
+
+        assertThat(dispatcher.dispatchBatch()).isEqualTo(2);
+
+        verify(planningClient).listProgressUpdatesByProject(1L);
+        ArgumentCaptor<PlanningProgressUpdateCreateDto> cap = ArgumentCaptor.forClass(PlanningProgressUpdateCreateDto.class);
+        verify(planningClient, times(2)).createProgressUpdate(cap.capture());
+        assertThat(cap.getAllValues()).extracting(PlanningProgressUpdateCreateDto::getProgressPercentage).containsExactly(100, 100);
+        assertThat(cap.getAllValues()).extracting(PlanningProgressUpdateCreateDto::getFreelancerId).containsExactly(9L, 7L);
+    }
+
+    @Test
+    void dispatchBatch_createFailure_schedulesRetryWithBackoff() {
+        PlanningProgressOutbox o = row(10L, 9L, TaskStatus.IN_PROGRESS);
+        claim(o);
+        when(planningClient.listProgressUpdatesByProject(1L)).thenReturn(List.of());
+        when(planningClient.createProgressUpdate(any())).thenThrow(feignError(Request.HttpMethod.POST, 503));
+
+        LocalDateTime before = LocalDateTime.now();
+        assertThat(dispatcher.dispatchBatch()).isZero();
+
+        verify(outboxRepository).save(o);
+        assertThat(o.getState()).isEqualTo(PlanningProgressOutboxState.PENDING);
+        assertThat(o.getAttempts()).isEqualTo(1);
+        assertThat(o.getClaimToken()).isNull();
+        assertThat(o.getNextAttemptAt()).isAfterOrEqualTo(before.plusSeconds(1));
+        verify(outboxRepository, never()).markFinished(any(), eq(PlanningProgressOutboxState.SENT), any());
+    }
+
+    @Test
+    void dispatchBatch_listFailureOnLastAttempt_marksFailed() {
+        PlanningProgressOutbox o = row(10L, 9L, TaskStatus.DONE);
+        o.setAttempts(2);
+        claim(o);
+        when(planningClient.listProgressUpdatesByProject(1L)).thenThrow(feignError(Request.HttpMethod.GET, 500));
+
+        dispatcher.dispatchBatch();
+
+        assertThat(o.getState()).isEqualTo(PlanningProgressOutboxState.FAILED);
+        verify(planningClient, never()).createProgressUpdate(any());
+        assertThat(meterRegistry.counter("task.planning.outbox.failed").count()).isEqualTo(1.0);
+    }
+
+    @Test
+    void backoff_doublesUpToCap() {
+        assertThat(dispatcher.backoff(1)).isEqualTo(Duration.ofSeconds(1));
+        assertThat(dispatcher.backoff(2)).isEqualTo(Duration.ofSeconds(2));
+        assertThat(dispatcher.backoff(5)).isEqualTo(Duration.ofSeconds(3));
+    }
+
+    @Test
+    void runDispatch_publishesDepthAndLag() {
+        when(outboxRepository.findDueProjectIds(any(LocalDateTime.class), any(Pageable.class))).thenReturn(List.of());
+        when(outboxRepository.countByState(PlanningProgressOutboxState.PENDING)).thenReturn(4L);
+        when(outboxRepository.findOldestPendingCreatedAt()).thenReturn(LocalDateTime.now().minusSeconds(30));
+
+        dispatcher.runDispatch();
+
+        assertThat(meterRegistry.get("task.planning.outbox.depth").gauge().value()).isEqualTo(4.0);
+        assertThat(meterRegistry.get("task.planning.outbox.lag").gauge().value()).isGreaterThanOrEqualTo(30.0);
+    }
+
+    private static PlanningProgressOutbox row(Long id, Long freelancerId, TaskStatus status) {
+        return PlanningProgressOutbox.builder()
+                .id(id)
+                .projectId(1L)
+                .contractId(33L)
+                .freelancerId(freelancerId)
+                .title("Task board: \"Root task\" → " + status.name())
+                .status(status)
+                .state(PlanningProgressOutboxState.PENDING)
+                .claimToken("token")
+                .createdAt(LocalDateTime.now())
+                .nextAttemptAt(LocalDateTime.now())
+                .build();
+    }
+
+    private static FeignException feignError(Request.HttpMethod method, int status) {
+        Request req = Request.create(method, "/x", Collections.emptyMap(), null, StandardCharsets.UTF_8);
+        Response resp = Response.builder().status(status).request(req).build();
+        return FeignException.errorStatus("PlanningClient#call", resp);
+    }
+}
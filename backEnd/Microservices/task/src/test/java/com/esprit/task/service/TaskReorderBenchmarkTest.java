@@ -0,0 +1,162 @@
+package com.esprit.task.service;
+
+import com.esprit.task.entity.Task;
+import com.esprit.task.entity.TaskPriority;
+import com.esprit.task.entity.TaskStatus;
+import com.esprit.task.repository.TaskRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Import;
+import org.springframework.security.oauth2.jwt.JwtDecoder;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.sql.DataSource;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Round trips and latency of board reorders (10 / 100 / 1000 tasks): legacy findById + save per task vs the
+ * set-based {@link TaskService#reorder(List)}. Round trips are counted as JDBC statements prepared on the pool.
+ */
+@Slf4j
+@Tag("benchmark")
+@SpringBootTest
+@Import(TaskReorderBenchmarkTest.CountingDataSourceConfig.class)
+@TestPropertySource(properties = {
+        "spring.cloud.config.enabled=false",
+        "spring.config.import=optional:configserver:http://127.0.0.1:65534",
+        "spring.jpa.show-sql=false",
+        "task.planning.auto-progress-on-status-change=false"
+})
+class TaskReorderBenchmarkTest {
+
+    private static final AtomicLong STATEMENTS = new AtomicLong();
+
+    @MockitoBean
+    private JwtDecoder jwtDecoder;
+
+    @Autowired
+    private TaskService taskService;
+
+    @Autowired
+    private TaskRepository taskRepository;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Test
+    void reorder_roundTripsStayConstantPerChunk() {
+        log.info(String.format("%-6s | %-16s | %-10s | %-16s | %-10s", "tasks", "legacy stmts", "legacy ms", "batched stmts", "batched ms"));
+        long projectId = 90_000L;
+        for (int size : new int[] {10, 100, 1000}) {
+            List<Long> ids = seed(++projectId, size);
+            List<Long> reversed = new ArrayList<>(ids);
+            Collections.reverse(reversed);
+
+            STATEMENTS.set(0);
+            long t0 = System.nanoTime();
+            legacyReorder(reversed);
+            long legacyNanos = System.nanoTime() - t0;
+            long legacyStatements = STATEMENTS.get();
+
+            STATEMENTS.set(0);
+            t0 = System.nanoTime();
+            taskService.reorder(ids);
+            long batchedNanos = System.nanoTime() - t0;
+            long batchedStatements = STATEMENTS.get();
+
+            log.info(String.format("%-6d | %-16d | %-10.2f | %-16d | %-10.2f",
+                    size, legacyStatements, legacyNanos / 1e6, batchedStatements, batchedNanos / 1e6));
+
+            // one stats projection read, then one UPDATE per 500 ids
+            assertThat(batchedStatements).isLessThanOrEqualTo(1 + (size + 499) / 500);
+            assertThat(legacyStatements).isGreaterThanOrEqualTo(size);
+            assertThat(taskRepository.findByProjectIdOrderByOrderIndexAsc(projectId))
+                    .extracting(Task::getId)
+                    .containsExactlyElementsOf(ids);
+        }
+    }
+
+    private List<Long> seed(long projectId, int size) {
+        List<Task> tasks = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            tasks.add(Task.builder()
+                    .projectId(projectId)
+                    .title("Bench " + i)
+                    .status(TaskStatus.TODO)
+                    .priority(TaskPriority.MEDIUM)
+                    .orderIndex(i)
+                    .build());
+        }
+        return taskRepository.saveAll(tasks).stream().map(Task::getId).toList();
+    }
+
+    /** The pre-batching implementation, kept here only as the baseline. */
+    private void legacyReorder(List<Long> taskIds) {
+        new TransactionTemplate(transactionManager).executeWithoutResult(status -> {
+            for (int i = 0; i < taskIds.size(); i++) {
+                final int orderIndex = i;
+                taskRepository.findById(taskIds.get(i)).ifPresent(t -> {
+                    t.setOrderIndex(orderIndex);
+                    taskRepository.save(t);
+                });
+            }
+        });
+    }
+
+    @TestConfiguration
+    static class CountingDataSourceConfig {
+
+        @Bean
+        static BeanPostProcessor statementCountingDataSource() {
+            return new BeanPostProcessor() {
+                @Override
+                public Object postProcessAfterInitialization(Object bean, String beanName) {
+                    return bean instanceof DataSource ds ? countingProxy(ds) : bean;
+                }
+            };
+        }
+
+        private static DataSource countingProxy(DataSource target) {
+            return (DataSource) Proxy.newProxyInstance(DataSource.class.getClassLoader(), new Class<?>[] {DataSource.class},
+                    (proxy, method, args) -> {
+                        Object result = invoke(target, method, args);
+                        return result instanceof Connection c ? countingConnection(c) : result;
+                    });
+        }
+
+        private static Connection countingConnection(Connection target) {
+            return (Connection) Proxy.newProxyInstance(Connection.class.getClassLoader(), new Class<?>[] {Connection.class},
+                    (proxy, method, args) -> {
+                        if (method.getName().equals("prepareStatement") || method.getName().equals("createStatement")) {
+                            STATEMENTS.incrementAndGet();
+                        }
+                        return invoke(target, method, args);
+                    });
+        }
+
+        private static Object invoke(Object target, java.lang.reflect.Method method, Object[] args) throws Throwable {
+            try {
+                return method.invoke(target, args);
+            } catch (InvocationTargetException e) {
+                throw e.getCause();
+            }
+        }
+    }
+}
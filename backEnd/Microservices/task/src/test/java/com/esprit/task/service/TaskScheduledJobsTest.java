@@ -19,6 +19,9 @@ class TaskScheduledJobsTest {
     @Mock
     private TaskService taskService;
 
+    @Mock
+    private TaskStatsEngine taskStatsEngine;
+
     @InjectMocks
     private TaskScheduledJobs taskScheduledJobs;
 
@@ -51,4 +54,11 @@ class TaskScheduledJobsTest {
         taskScheduledJobs.runPurgeOldCancelledTasks();
         verify(taskService).purgeOldCancelledTasks(any(LocalDateTime.class));
     }
+
+    @Test
+    void runReconcileStats_rebuildsCounters() {
+        when(taskStatsEngine.rebuild()).thenReturn(12L);
+        taskScheduledJobs.runReconcileStats();
+        verify(taskStatsEngine).rebuild();
+    }
 }
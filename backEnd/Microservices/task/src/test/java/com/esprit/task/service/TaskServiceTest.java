@@ -5,10 +5,13 @@ import com.esprit.task.dto.TaskStatsDto;
 import com.esprit.task.dto.TaskStatsExtendedDto;
 import com.esprit.task.entity.Subtask;
 import com.esprit.task.entity.Task;
+import com.esprit.task.entity.TaskEscalationCheckpoint;
+import com.esprit.task.entity.TaskEscalationPhase;
 import com.esprit.task.entity.TaskPriority;
 import com.esprit.task.entity.TaskStatus;
 import com.esprit.task.exception.EntityNotFoundException;
 import com.esprit.task.repository.SubtaskRepository;
+import com.esprit.task.repository.TaskBatchRepository;
 import com.esprit.task.repository.TaskCommentRepository;
 import com.esprit.task.repository.TaskRepository;
 import org.junit.jupiter.api.BeforeEach;
@@ -34,7 +37,9 @@ import java.time.LocalDateTime;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collections;
+import java.util.EnumMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 import java.util.stream.LongStream;
 
@@ -61,6 +66,9 @@ class TaskServiceTest {
     @Mock
     private TaskRepository taskRepository;
 
+    @Mock
+    private TaskBatchRepository taskBatchRepository;
+
     @Mock
     private SubtaskRepository subtaskRepository;
 
@@ -76,6 +84,12 @@ class TaskServiceTest {
     @Mock
     private TaskStatusProgressBridge taskStatusProgressBridge;
 
+    @Mock
+    private TaskStatsEngine taskStatsEngine;
+
+    @Mock
+    private TaskEscalationBatchService taskEscalationBatchService;
+
     @InjectMocks
     private TaskService taskService;
 
@@ -336,37 +350,71 @@ class TaskServiceTest {
 
     @Test
     void getDashboardStats_returnsStats() {
-        when(taskRepository.findAll()).thenReturn(List.of(task(1L), task(2L)));
+        List<Object[]> statuses = new ArrayList<>();
+        statuses.add(new Object[] {TaskStatus.TODO, 2L});
+        when(taskRepository.countGroupByStatusAll()).thenReturn(statuses);
+        when(subtaskRepository.countGroupByStatusAll()).thenReturn(List.of());
+        when(taskRepository.count()).thenReturn(2L);
         when(taskRepository.findOverdueTasks(any(LocalDate.class))).thenReturn(List.of());
 
         TaskStatsDto result = taskService.getDashboardStats();
 
         assertThat(result.getTotalTasks()).isEqualTo(2);
+        verify(taskRepository, never()).findAll();
     }
 
     @Test
-    void patchAssignee_updatesAssignee() {
+    void getDashboardStats_whenCountersReady_skipsRepositories() {
+        Map<TaskStatus, Long> statuses = new EnumMap<>(TaskStatus.class);
+        statuses.put(TaskStatus.DONE, 3L);
+        statuses.put(TaskStatus.IN_REVIEW, 1L);
+        TaskStatsSnapshot snapshot = new TaskStatsSnapshot(
+                statuses, new EnumMap<>(TaskPriority.class), 4L, 1L, 0L, 0L, 0L, List.of());
+        when(taskStatsEngine.global(any(LocalDate.class), any(), any())).thenReturn(Optional.of(snapshot));
+
+        TaskStatsDto result = taskService.getDashboardStats();
+
+        assertThat(result.getTotalTasks()).isEqualTo(4);
+        assertThat(result.getDoneCount()).isEqualTo(3);
+        assertThat(result.getInProgressCount()).isEqualTo(1);
+        assertThat(result.getOverdueCount()).isEqualTo(1);
+        assertThat(result.getCompletionPercentage()).isEqualTo(75.0);
+        verify(taskRepository, never()).count();
+    }
+
+    @Test
+    void patchStatus_recordsStatsDelta() {
         Task t = task(1L);
         when(taskRepository.findById(1L)).thenReturn(Optional.of(t));
-        when(taskRepository.save(any())).thenReturn(t);
+        when(taskRepository.save(any())).thenAnswer(inv -> inv.getArgument(0));
 
-        taskService.patchAssignee(1L, 10L);
+        taskService.patchStatus(1L, TaskStatus.DONE);
 
-        verify(taskRepository).save(any());
+        ArgumentCaptor<TaskStatsEntry> before = ArgumentCaptor.forClass(TaskStatsEntry.class);
+        verify(taskStatsEngine).recordTaskChange(before.capture(), eq(t));
+        assertThat(before.getValue().status()).isEqualTo(TaskStatus.TODO);
     }
 
     @Test
-    void reorder_updatesOrderIndex() {
+    void patchAssignee_updatesAssignee() {
         Task t = task(1L);
-        t.setOrderIndex(5);
         when(taskRepository.findById(1L)).thenReturn(Optional.of(t));
         when(taskRepository.save(any())).thenReturn(t);
 
-        taskService.reorder(List.of(1L));
+        taskService.patchAssignee(1L, 10L);
 
         verify(taskRepository).save(any());
     }
 
+    @Test
+    void reorder_updatesOrderIndex() {
+        taskService.reorder(List.of(3L, 1L));
+
+        verify(taskBatchRepository).updateOrderIndexes(eq(List.of(3L, 1L)), any(LocalDateTime.class));
+        verify(taskRepository, never()).findById(anyLong());
+        verify(taskRepository, never()).save(any());
+    }
+
     @Test
     void create_whenMaxOrderIndexNull_setsOrderIndexZero() {
         Task t = task(null);
@@ -624,69 +672,47 @@ class TaskServiceTest {
     }
 
     @Test
-    void escalateOverduePriorities_setsHighAndNotifiesAssignee() {
-        Task overdue = task(1L);
-        overdue.setPriority(TaskPriority.LOW);
-        overdue.setDueDate(LocalDate.now().minusDays(1));
-        overdue.setAssigneeId(5L);
-        when(taskRepository.findOverdueTasks(any(LocalDate.class))).thenReturn(List.of(overdue));
-        when(taskRepository.save(any())).thenAnswer(inv -> inv.getArgument(0));
+    void escalateOverduePriorities_runsChunksUntilCompleted_andSendsOneDigestPerAssignee() {
+        TaskEscalationCheckpoint cp = TaskEscalationCheckpoint.builder().id(7L).phase(TaskEscalationPhase.ROOT_OVERDUE).build();
+        TaskEscalation a = new TaskEscalation(false, 1L, 1L, 5L, "A", LocalDate.now().minusDays(1), TaskPriority.HIGH);
+        TaskEscalation b = new TaskEscalation(true, 2L, 1L, 5L, "B", LocalDate.now().minusDays(2), TaskPriority.HIGH);
+        TaskEscalation unassigned = new TaskEscalation(false, 3L, 1L, null, "C", LocalDate.now().minusDays(1), TaskPriority.HIGH);
+        when(taskEscalationBatchService.startOrResume(LocalDate.now())).thenReturn(cp);
+        when(taskEscalationBatchService.processChunk(7L))
+                .thenReturn(new TaskEscalationBatchService.Chunk(2, List.of(a, unassigned), false))
+                .thenReturn(new TaskEscalationBatchService.Chunk(1, List.of(b), true));
 
         int n = taskService.escalateOverduePriorities();
 
-        assertThat(n).isEqualTo(1);
-        assertThat(overdue.getPriority()).isEqualTo(TaskPriority.HIGH);
-        verify(taskNotificationService).notifyTaskPriorityEscalated(overdue, "HIGH");
-    }
-
-    @Test
-    void escalateOverduePriorities_withoutAssignee_skipsNotification() {
-        Task overdue = task(1L);
-        overdue.setPriority(TaskPriority.MEDIUM);
-        overdue.setDueDate(LocalDate.now().minusDays(1));
-        overdue.setAssigneeId(null);
-        when(taskRepository.findOverdueTasks(any(LocalDate.class))).thenReturn(List.of(overdue));
-        when(taskRepository.save(any())).thenAnswer(inv -> inv.getArgument(0));
-
-        taskService.escalateOverduePriorities();
-
-        verify(taskNotificationService, never()).notifyTaskPriorityEscalated(any(), anyString());
-        assertThat(overdue.getPriority()).isEqualTo(TaskPriority.HIGH);
+        assertThat(n).isEqualTo(3);
+        verify(taskNotificationService).notifyPriorityEscalations(5L, List.of(a, b));
+        verify(taskNotificationService, times(1)).notifyPriorityEscalations(any(), any());
+        verify(taskNotificationService, never()).notifyClientsPriorityEscalations(any());
     }
 
     @Test
-    void escalateOverduePriorities_highToUrgentWhenConfigured() {
-        ReflectionTestUtils.setField(taskService, "escalationHighToUrgentOverdueDays", 3);
-        Task overdue = task(1L);
-        overdue.setPriority(TaskPriority.HIGH);
-        overdue.setDueDate(LocalDate.now().minusDays(5));
-        overdue.setAssigneeId(5L);
-        overdue.setStatus(TaskStatus.IN_PROGRESS);
-        when(taskRepository.findOverdueTasks(any(LocalDate.class))).thenReturn(List.of(overdue));
-        when(taskRepository.save(any())).thenAnswer(inv -> inv.getArgument(0));
-        when(subtaskRepository.findOverdueSubtasks(any(LocalDate.class))).thenReturn(List.of());
+    void escalateOverduePriorities_whenTodayAlreadyCompleted_doesNothing() {
+        TaskEscalationCheckpoint cp = TaskEscalationCheckpoint.builder().id(7L).phase(TaskEscalationPhase.COMPLETED).build();
+        when(taskEscalationBatchService.startOrResume(LocalDate.now())).thenReturn(cp);
 
-        int n = taskService.escalateOverduePriorities();
+        assertThat(taskService.escalateOverduePriorities()).isZero();
 
-        assertThat(n).isEqualTo(1);
-        assertThat(overdue.getPriority()).isEqualTo(TaskPriority.URGENT);
-        verify(taskNotificationService).notifyTaskPriorityEscalated(overdue, "URGENT");
+        verify(taskEscalationBatchService, never()).processChunk(any());
+        verify(taskNotificationService, never()).notifyPriorityEscalations(any(), any());
     }
 
     @Test
-    void escalateOverduePriorities_whenAlreadyHigh_doesNotEscalateOrNotify() {
-        Task overdue = task(1L);
-        overdue.setPriority(TaskPriority.HIGH);
-        overdue.setDueDate(LocalDate.now().minusDays(1));
-        overdue.setAssigneeId(5L);
-        when(taskRepository.findOverdueTasks(any(LocalDate.class))).thenReturn(List.of(overdue));
-        when(subtaskRepository.findOverdueSubtasks(any(LocalDate.class))).thenReturn(List.of());
+    void escalateOverduePriorities_notifiesClientsOncePerRunWhenConfigured() {
+        ReflectionTestUtils.setField(taskService, "escalationNotifyClientOnEscalation", true);
+        TaskEscalationCheckpoint cp = TaskEscalationCheckpoint.builder().id(7L).phase(TaskEscalationPhase.SUBTASK_OVERDUE).build();
+        TaskEscalation root = new TaskEscalation(false, 1L, 1L, 5L, "A", LocalDate.now().minusDays(1), TaskPriority.URGENT);
+        TaskEscalation sub = new TaskEscalation(true, 2L, 1L, 5L, "B", LocalDate.now().minusDays(2), TaskPriority.HIGH);
+        when(taskEscalationBatchService.startOrResume(LocalDate.now())).thenReturn(cp);
+        when(taskEscalationBatchService.processChunk(7L)).thenReturn(new TaskEscalationBatchService.Chunk(2, List.of(root, sub), true));
 
-        int n = taskService.escalateOverduePriorities();
+        taskService.escalateOverduePriorities();
 
-        assertThat(n).isZero();
-        verify(taskRepository, never()).save(any());
-        verify(taskNotificationService, never()).notifyTaskPriorityEscalated(any(), anyString());
+        verify(taskNotificationService).notifyClientsPriorityEscalations(List.of(root));
     }
 
     @Test
@@ -816,14 +842,37 @@ class TaskServiceTest {
         Task b = task(2L);
         b.setStatus(TaskStatus.TODO);
         b.setAssigneeId(11L);
-        when(taskRepository.findById(1L)).thenReturn(Optional.of(a));
-        when(taskRepository.findById(2L)).thenReturn(Optional.of(b));
-        when(taskRepository.save(any())).thenAnswer(inv -> inv.getArgument(0));
+        when(taskRepository.findAllById(List.of(1L, 2L))).thenReturn(List.of(a, b));
 
-        taskService.bulkPatchStatus(List.of(1L, 2L), TaskStatus.IN_PROGRESS);
+        List<Task> result = taskService.bulkPatchStatus(List.of(1L, 2L), TaskStatus.IN_PROGRESS);
 
-        verify(taskNotificationService, times(2)).notifyTaskStatusUpdate(any());
+        verify(taskRepository).bulkUpdateStatus(eq(List.of(1L, 2L)), eq(TaskStatus.IN_PROGRESS), any(LocalDateTime.class));
+        verify(taskRepository, never()).save(any());
+        verify(taskNotificationService).notifyTaskStatusUpdates(List.of(a, b));
         verify(taskStatusProgressBridge, times(2)).afterRootTaskStatusChanged(any());
+        assertThat(result).extracting(Task::getStatus).containsOnly(TaskStatus.IN_PROGRESS);
+    }
+
+    @Test
+    void bulkPatchStatus_coalescesPlanningUpdatesPerProjectAndAssignee() {
+        Task a = task(1L);
+        a.setAssigneeId(10L);
+        Task b = task(2L);
+        b.setAssigneeId(10L);
+        when(taskRepository.findAllById(List.of(1L, 2L))).thenReturn(List.of(a, b));
+
+        taskService.bulkPatchStatus(List.of(1L, 2L), TaskStatus.DONE);
+
+        verify(taskStatusProgressBridge, times(1)).afterRootTaskStatusChanged(b);
+    }
+
+    @Test
+    void bulkPatchStatus_whenTaskMissing_throws() {
+        when(taskRepository.findAllById(List.of(1L, 2L))).thenReturn(List.of(task(1L)));
+
+        assertThatThrownBy(() -> taskService.bulkPatchStatus(List.of(1L, 2L), TaskStatus.DONE))
+                .isInstanceOf(EntityNotFoundException.class);
+        verify(taskRepository, never()).bulkUpdateStatus(any(), any(), any());
     }
 
     @Test
@@ -831,12 +880,12 @@ class TaskServiceTest {
         Task a = task(1L);
         a.setStatus(TaskStatus.DONE);
         a.setAssigneeId(9L);
-        when(taskRepository.findById(1L)).thenReturn(Optional.of(a));
-        when(taskRepository.save(any())).thenAnswer(inv -> inv.getArgument(0));
+        when(taskRepository.findAllById(List.of(1L))).thenReturn(List.of(a));
 
         taskService.bulkPatchStatus(List.of(1L), TaskStatus.DONE);
 
-        verify(taskNotificationService, never()).notifyTaskStatusUpdate(any());
+        verify(taskRepository, never()).bulkUpdateStatus(any(), any(), any());
+        verify(taskNotificationService, never()).notifyTaskStatusUpdates(any());
         verify(taskStatusProgressBridge, never()).afterRootTaskStatusChanged(any());
     }
 
@@ -1145,23 +1194,6 @@ class TaskServiceTest {
                 .isTrue();
     }
 
-    @Test
-    void escalateOverduePriorities_escalatesMediumSubtask() {
-        Subtask s = new Subtask();
-        s.setId(1L);
-        s.setPriority(TaskPriority.MEDIUM);
-        s.setDueDate(LocalDate.now().minusDays(1));
-        s.setStatus(TaskStatus.TODO);
-        when(taskRepository.findOverdueTasks(any(LocalDate.class))).thenReturn(List.of());
-        when(subtaskRepository.findOverdueSubtasks(any(LocalDate.class))).thenReturn(List.of(s));
-        when(subtaskRepository.save(any(Subtask.class))).thenAnswer(inv -> inv.getArgument(0));
-
-        int n = taskService.escalateOverduePriorities();
-
-        assertThat(n).isEqualTo(1);
-        assertThat(s.getPriority()).isEqualTo(TaskPriority.HIGH);
-    }
-
     @Test
     void getCalendarEvents_includesSubtasksInRange() {
         Task t = task(1L);
@@ -0,0 +1,185 @@
+package com.esprit.task.service;
+
+import com.esprit.task.entity.Subtask;
+import com.esprit.task.entity.Task;
+import com.esprit.task.entity.TaskPriority;
+import com.esprit.task.entity.TaskStatus;
+import com.esprit.task.repository.SubtaskRepository;
+import com.esprit.task.repository.TaskRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.Pageable;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class TaskStatsEngineTest {
+
+    private static final LocalDate TODAY = LocalDate.of(2026, 5, 10);
+
+    @Mock
+    private TaskRepository taskRepository;
+
+    @Mock
+    private SubtaskRepository subtaskRepository;
+
+    @InjectMocks
+    private TaskStatsEngine engine;
+
+    @BeforeEach
+    void enable() {
+        ReflectionTestUtils.setField(engine, "enabled", true);
+    }
+
+    private static Object[] row(long id, Long projectId, Long assigneeId, TaskStatus status, TaskPriority priority,
+                                LocalDate due, LocalDateTime created, LocalDateTime updated) {
+        return new Object[] {id, projectId, assigneeId, status, priority, due, created, updated};
+    }
+
+    private void rebuildWith(List<Object[]> taskRows, List<Object[]> subRows) {
+        when(taskRepository.findStatsRowsAfter(eq(0L), any(Pageable.class))).thenReturn(taskRows);
+        when(subtaskRepository.findStatsRowsAfter(eq(0L), any(Pageable.class))).thenReturn(subRows);
+        engine.rebuild();
+    }
+
+    @Test
+    void reads_beforeFirstRebuild_areEmpty() {
+        assertThat(engine.isReady()).isFalse();
+        assertThat(engine.global(TODAY, Optional.empty(), Optional.empty())).isEmpty();
+    }
+
+    @Test
+    void rebuild_countsRootsAndSubtasksPerScope() {
+        LocalDateTime created = TODAY.minusDays(3).atStartOfDay();
+        List<Object[]> tasks = new ArrayList<>();
+        tasks.add(row(1L, 1L, 9L, TaskStatus.TODO, TaskPriority.HIGH, TODAY.minusDays(1), created, created));
+        tasks.add(row(2L, 1L, null, TaskStatus.DONE, TaskPriority.LOW, TODAY.minusDays(5), created, TODAY.atStartOfDay()));
+        List<Object[]> subs = new ArrayList<>();
+        subs.add(row(3L, 2L, 9L, TaskStatus.IN_REVIEW, TaskPriority.MEDIUM, null, created, created));
+        rebuildWith(tasks, subs);
+
+        TaskStatsSnapshot global = engine.global(TODAY, Optional.of(TODAY.minusDays(7)), Optional.of(TODAY)).orElseThrow();
+        assertThat(global.total()).isEqualTo(3);
+        assertThat(global.count(TaskStatus.DONE)).isEqualTo(1);
+        assertThat(global.overdue()).isEqualTo(1);
+        assertThat(global.unassigned()).isEqualTo(1);
+        assertThat(global.createdInRange()).isEqualTo(3);
+        assertThat(global.completedInRange()).isEqualTo(1);
+
+        TaskStatsSnapshot project = engine.forProject(1L, TODAY, Optional.empty(), Optional.empty()).orElseThrow();
+        assertThat(project.total()).isEqualTo(2);
+        assertThat(project.byPriority().get(TaskPriority.HIGH)).isEqualTo(1);
+
+        TaskStatsSnapshot freelancer = engine.forAssignee(9L, TODAY, Optional.empty(), Optional.empty()).orElseThrow();
+        assertThat(freelancer.total()).isEqualTo(2);
+        assertThat(freelancer.projectIds()).containsExactly(1L, 2L);
+    }
+
+    @Test
+    void overdue_isEvaluatedAgainstAsOfDate() {
+        LocalDateTime created = TODAY.minusDays(3).atStartOfDay();
+        List<Object[]> tasks = new ArrayList<>();
+        tasks.add(row(1L, 1L, 9L, TaskStatus.IN_PROGRESS, TaskPriority.MEDIUM, TODAY.plusDays(2), created, created));
+        rebuildWith(tasks, List.of());
+
+        assertThat(engine.global(TODAY, Optional.empty(), Optional.empty()).orElseThrow().overdue()).isZero();
+        assertThat(engine.global(TODAY.plusDays(3), Optional.empty(), Optional.empty()).orElseThrow().overdue()).isEqualTo(1);
+    }
+
+    @Test
+    void recordTaskChange_movesContributionBetweenScopes() {
+        rebuildWith(List.of(), List.of());
+        Task t = new Task();
+        t.setId(1L);
+        t.setProjectId(1L);
+        t.setAssigneeId(9L);
+        t.setStatus(TaskStatus.TODO);
+        t.setPriority(TaskPriority.MEDIUM);
+        t.setCreatedAt(TODAY.atStartOfDay());
+        t.setUpdatedAt(TODAY.atStartOfDay());
+        engine.recordTaskChange(null, t);
+
+        TaskStatsEntry before = TaskStatsEntry.of(t);
+        t.setAssigneeId(10L);
+        t.setStatus(TaskStatus.DONE);
+        engine.recordTaskChange(before, t);
+
+        assertThat(engine.forAssignee(9L, TODAY, Optional.empty(), Optional.empty()).orElseThrow().total()).isZero();
+        TaskStatsSnapshot moved = engine.forAssignee(10L, TODAY, Optional.empty(), Optional.empty()).orElseThrow();
+        assertThat(moved.total()).isEqualTo(1);
+        assertThat(moved.count(TaskStatus.DONE)).isEqualTo(1);
+        assertThat(engine.global(TODAY, Optional.empty(), Optional.empty()).orElseThrow().total()).isEqualTo(1);
+    }
+
+    @Test
+    void rebuild_replaysDeltasCommittedDuringTheScan() {
+        LocalDateTime created = TODAY.atStartOfDay();
+        Task t = new Task();
+        t.setProjectId(1L);
+        t.setStatus(TaskStatus.TODO);
+        t.setPriority(TaskPriority.MEDIUM);
+        t.setCreatedAt(created);
+        t.setUpdatedAt(created);
+        List<Object[]> tasks = new ArrayList<>();
+        tasks.add(row(1L, 1L, null, TaskStatus.TODO, TaskPriority.LOW, null, created, created));
+        when(taskRepository.findStatsRowsAfter(eq(0L), any(Pageable.class))).thenAnswer(inv -> {
+            engine.recordTaskChange(null, t);
+            return tasks;
+        });
+        when(subtaskRepository.findStatsRowsAfter(eq(0L), any(Pageable.class))).thenReturn(List.of());
+
+        engine.rebuild();
+
+        assertThat(engine.forProject(1L, TODAY, Optional.empty(), Optional.empty()).orElseThrow().total()).isEqualTo(2);
+    }
+
+    @Test
+    void recordTouched_movesUpdatedOnIntoActivityRange() {
+        LocalDateTime created = TODAY.minusDays(30).atStartOfDay();
+        List<Object[]> tasks = new ArrayList<>();
+        tasks.add(row(1L, 1L, null, TaskStatus.DONE, TaskPriority.LOW, null, created, created));
+        rebuildWith(tasks, List.of());
+        Optional<LocalDate> lastWeek = Optional.of(TODAY.minusDays(7));
+        assertThat(engine.global(TODAY, lastWeek, Optional.of(TODAY)).orElseThrow().completedInRange()).isZero();
+
+        engine.recordTouched(List.of(TaskStatsEntry.fromRow(tasks.get(0))), TODAY);
+
+        TaskStatsSnapshot global = engine.global(TODAY, lastWeek, Optional.of(TODAY)).orElseThrow();
+        assertThat(global.total()).isEqualTo(1);
+        assertThat(global.completedInRange()).isEqualTo(1);
+    }
+
+    @Test
+    void recordRemoved_dropsSubtasks() {
+        Subtask s = new Subtask();
+        s.setProjectId(4L);
+        s.setStatus(TaskStatus.TODO);
+        s.setPriority(TaskPriority.LOW);
+        LocalDateTime created = TODAY.atStartOfDay();
+        List<Object[]> subs = new ArrayList<>();
+        subs.add(row(5L, 4L, null, TaskStatus.TODO, TaskPriority.LOW, null, created, created));
+        rebuildWith(List.of(), subs);
+
+        s.setCreatedAt(created);
+        s.setUpdatedAt(created);
+        engine.recordRemoved(List.of(TaskStatsEntry.of(s)));
+
+        TaskStatsSnapshot project = engine.forProject(4L, TODAY, Optional.empty(), Optional.empty()).orElseThrow();
+        assertThat(project.total()).isZero();
+        assertThat(project.unassigned()).isZero();
+    }
+}
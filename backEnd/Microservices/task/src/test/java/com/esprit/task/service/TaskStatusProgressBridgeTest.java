@@ -1,16 +1,12 @@
 package com.esprit.task.service;
 
-import com.esprit.task.client.PlanningClient;
-import com.esprit.task.dto.planning.PlanningProgressUpdateCreateDto;
-import com.esprit.task.dto.planning.PlanningProgressUpdateDto;
-import com.esprit.task.dto.planning.PlanningProgressUpdateRefDto;
+import com.esprit.task.entity.PlanningProgressOutbox;
+import com.esprit.task.entity.PlanningProgressOutboxState;
 import com.esprit.task.entity.Subtask;
 import com.esprit.task.entity.Task;
 import com.esprit.task.entity.TaskPriority;
 import com.esprit.task.entity.TaskStatus;
-import feign.FeignException;
-import feign.Request;
-import feign.Response;
+import com.esprit.task.repository.PlanningProgressOutboxRepository;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.ArgumentCaptor;
@@ -19,23 +15,19 @@ import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
 import org.springframework.test.util.ReflectionTestUtils;
 
-import java.nio.charset.StandardCharsets;
+import java.time.Duration;
 import java.time.LocalDateTime;
-import java.util.Collections;
-import java.util.List;
 
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.mockito.ArgumentMatchers.any;
-import static org.mockito.ArgumentMatchers.anyLong;
 import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.verify;
-import static org.mockito.Mockito.when;
 
 @ExtendWith(MockitoExtension.class)
 class TaskStatusProgressBridgeTest {
 
     @Mock
-    private PlanningClient planningClient;
+    private PlanningProgressOutboxRepository outboxRepository;
 
     @InjectMocks
     private TaskStatusProgressBridge bridge;
@@ -54,7 +46,7 @@ class TaskStatusProgressBridgeTest {
         ReflectionTestUtils.setField(bridge, "autoProgressOnStatusChange", false);
         Task t = rootTask(TaskStatus.IN_PROGRESS);
         bridge.afterRootTaskStatusChanged(t);
-        verify(planningClient, never()).listProgressUpdatesByProject(anyLong());
+        verify(outboxRepository, never()).save(any());
     }
 
     @Test
@@ -63,59 +55,26 @@ class TaskStatusProgressBridgeTest {
         Task t = rootTask(TaskStatus.IN_PROGRESS);
         t.setAssigneeId(null);
         bridge.afterRootTaskStatusChanged(t);
-        verify(planningClient, never()).listProgressUpdatesByProject(anyLong());
+        verify(outboxRepository, never()).save(any());
     }
 
     @Test
-    void afterRootTask_createsWithMaxOfHeuristicAndExisting() {
+    void afterRootTask_queuesOutboxRowAfterCoalesceWindow() {
         ReflectionTestUtils.setField(bridge, "autoProgressOnStatusChange", true);
-        when(planningClient.listProgressUpdatesByProject(1L))
-                .thenReturn(List.of(PlanningProgressUpdateDto.builder().progressPercentage(80).build()));
-        when(planningClient.createProgressUpdate(any())).thenReturn(new PlanningProgressUpdateRefDto());
-
-        Task t = rootTask(TaskStatus.DONE);
-        bridge.afterRootTaskStatusChanged(t);
-
-        ArgumentCaptor<PlanningProgressUpdateCreateDto> cap = ArgumentCaptor.forClass(PlanningProgressUpdateCreateDto.class);
-        verify(planningClient).createProgressUpdate(cap.capture());
-        assertThat(cap.getValue().getProgressPercentage()).isEqualTo(100);
-        assertThat(cap.getValue().getFreelancerId()).isEqualTo(9L);
-        assertThat(cap.getValue().getProjectId()).isEqualTo(1L);
-    }
-
-    @Test
-    void afterRootTask_skipsWhenListFeignFails() {
-        ReflectionTestUtils.setField(bridge, "autoProgressOnStatusChange", true);
-        Request req = Request.create(
-                Request.HttpMethod.GET,
-                "/x",
-                Collections.emptyMap(),
-                null,
-                StandardCharsets.UTF_8);
-        Response resp = Response.builder().status(500).request(req).build();
-        when(planningClient.listProgressUpdatesByProject(1L))
-                .thenThrow(FeignException.errorStatus("PlanningClient#listProgressUpdatesByProject", resp));
+        ReflectionTestUtils.setField(bridge, "coalesceWindowMs", 5_000L);
 
         bridge.afterRootTaskStatusChanged(rootTask(TaskStatus.DONE));
 
-        verify(planningClient, never()).createProgressUpdate(any());
-    }
-
-    @Test
-    void afterRootTask_skipsCreateFailureWithoutThrowing() {
-        ReflectionTestUtils.setField(bridge, "autoProgressOnStatusChange", true);
-        when(planningClient.listProgressUpdatesByProject(1L)).thenReturn(List.of());
-        Request req = Request.create(
-                Request.HttpMethod.POST,
-                "/x",
-                Collections.emptyMap(),
-                null,
-                StandardCharsets.UTF_8);
-        Response resp = Response.builder().status(400).request(req).build();
-        when(planningClient.createProgressUpdate(any()))
-                .thenThrow(FeignException.errorStatus("PlanningClient#createProgressUpdate", resp));
-
-        bridge.afterRootTaskStatusChanged(rootTask(TaskStatus.IN_PROGRESS));
+        ArgumentCaptor<PlanningProgressOutbox> cap = ArgumentCaptor.forClass(PlanningProgressOutbox.class);
+        verify(outboxRepository).save(cap.capture());
+        PlanningProgressOutbox row = cap.getValue();
+        assertThat(row.getState()).isEqualTo(PlanningProgressOutboxState.PENDING);
+        assertThat(row.getStatus()).isEqualTo(TaskStatus.DONE);
+        assertThat(row.getProjectId()).isEqualTo(1L);
+        assertThat(row.getContractId()).isEqualTo(33L);
+        assertThat(row.getFreelancerId()).isEqualTo(9L);
+        assertThat(row.getTitle()).contains("Root task").contains("DONE");
+        assertThat(Duration.between(row.getCreatedAt(), row.getNextAttemptAt())).isEqualTo(Duration.ofSeconds(5));
     }
 
     @Test
@@ -123,8 +82,6 @@ class TaskStatusProgressBridgeTest {
         ReflectionTestUtils.setField(bridge, "autoProgressOnStatusChange", true);
         Task parent = rootTask(TaskStatus.TODO);
         parent.setContractId(500L);
-        when(planningClient.listProgressUpdatesByProject(1L)).thenReturn(List.of());
-        when(planningClient.createProgressUpdate(any())).thenReturn(new PlanningProgressUpdateRefDto());
 
         Subtask s = Subtask.builder()
                 .id(3L)
@@ -140,10 +97,10 @@ class TaskStatusProgressBridgeTest {
                 .build();
         bridge.afterSubtaskStatusChanged(s);
 
-        ArgumentCaptor<PlanningProgressUpdateCreateDto> cap = ArgumentCaptor.forClass(PlanningProgressUpdateCreateDto.class);
-        verify(planningClient).createProgressUpdate(cap.capture());
+        ArgumentCaptor<PlanningProgressOutbox> cap = ArgumentCaptor.forClass(PlanningProgressOutbox.class);
+        verify(outboxRepository).save(cap.capture());
         assertThat(cap.getValue().getContractId()).isEqualTo(500L);
-        assertThat(cap.getValue().getProgressPercentage()).isEqualTo(85);
+        assertThat(cap.getValue().getStatus()).isEqualTo(TaskStatus.IN_REVIEW);
     }
 
     private static Task rootTask(TaskStatus status) {
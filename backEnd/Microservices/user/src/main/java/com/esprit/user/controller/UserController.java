@@ -1,8 +1,12 @@
 package com.esprit.user.controller;
 
+import com.esprit.user.dto.UserPage;
 import com.esprit.user.dto.UserRequest;
 import com.esprit.user.dto.UserResponse;
+import com.esprit.user.dto.UserSummaryResponse;
 import com.esprit.user.dto.UserUpdateRequest;
+import com.esprit.user.entity.Role;
+import com.esprit.user.service.UserListingService;
 import com.esprit.user.service.UserService;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.Parameter;
@@ -17,7 +21,12 @@ import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.AccessDeniedException;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 import java.util.List;
 import java.util.stream.Collectors;
@@ -32,9 +41,11 @@ public class UserController {
 
     private static final Logger log = LoggerFactory.getLogger(UserController.class);
     private final UserService userService;
+    private final UserListingService userListingService;
 
-    public UserController(UserService userService) {
+    public UserController(UserService userService, UserListingService userListingService) {
         this.userService = userService;
+        this.userListingService = userListingService;
     }
 
     @Value("${welcome.message}")
@@ -45,7 +56,7 @@ public class UserController {
         return welcomeMessage;
     }
 
-    @Operation(summary = "Get all users", description = "Returns a list of all registered users.")
+    @Operation(summary = "Get all users", description = "Returns a list of all registered users. Services should use /page or /stream instead.")
     @ApiResponse(responseCode = "200", description = "Successfully retrieved list of users")
     @GetMapping(produces = MediaType.APPLICATION_JSON_VALUE)
     public List<UserResponse> getAllUsers() {
@@ -59,6 +70,45 @@ public class UserController {
         }
     }
 
+    @Operation(summary = "List users (keyset page)",
+            description = "Returns up to 'limit' users (max 1000) with id greater than 'after', in id order: id, name, role, active, "
+                    + "and email only when includeEmail=true (ADMIN only). Pass nextCursor as 'after' for the next page; it is null on the last page.")
+    @ApiResponses({
+            @ApiResponse(responseCode = "200", description = "Page of users"),
+            @ApiResponse(responseCode = "400", description = "Unknown role"),
+            @ApiResponse(responseCode = "403", description = "includeEmail=true without the ADMIN role")
+    })
+    @GetMapping(value = "/page", produces = MediaType.APPLICATION_JSON_VALUE)
+    public UserPage getUserPage(
+            @Parameter(description = "Role filter (FREELANCER, CLIENT, ADMIN)") @RequestParam(required = false) String role,
+            @Parameter(description = "Active filter") @RequestParam(required = false) Boolean active,
+            @Parameter(description = "Cursor: last id of the previous page") @RequestParam(required = false) Long after,
+            @Parameter(description = "Page size (1-1000, default 100)") @RequestParam(required = false) Integer limit,
+            @Parameter(description = "Include email addresses (ADMIN only)") @RequestParam(defaultValue = "false") boolean includeEmail) {
+        if (includeEmail && !isAdmin()) {
+            throw new AccessDeniedException("includeEmail requires the ADMIN role");
+        }
+        return userListingService.page(parseRole(role), active, after, limit, includeEmail);
+    }
+
+    @Operation(summary = "Stream users (NDJSON)",
+            description = "Streams every matching user as one JSON object per line, in id order, for internal batch consumers. "
+                    + "Same fields and filters as /page, never with emails; read in chunks so memory stays flat.")
+    @ApiResponses({
+            @ApiResponse(responseCode = "200", description = "NDJSON stream"),
+            @ApiResponse(responseCode = "400", description = "Unknown role")
+    })
+    @GetMapping(value = "/stream", produces = "application/x-ndjson")
+    public ResponseEntity<StreamingResponseBody> streamUsers(
+            @Parameter(description = "Role filter (FREELANCER, CLIENT, ADMIN)") @RequestParam(required = false) String role,
+            @Parameter(description = "Active filter") @RequestParam(required = false) Boolean active) {
+        Role r = parseRole(role);
+        StreamingResponseBody body = out -> userListingService.writeNdjson(out, r, active);
+        return ResponseEntity.ok()
+                .contentType(MediaType.parseMediaType("application/x-ndjson"))
+                .body(body);
+    }
+
     @Operation(summary = "Get user by ID", description = "Returns a single user by their unique identifier.")
     @ApiResponses({
             @ApiResponse(responseCode = "200", description = "User found"),
@@ -70,6 +120,19 @@ public class UserController {
         return UserResponse.fromEntity(userService.findById(id));
     }
 
+    @Operation(summary = "Get users by IDs",
+            description = "Returns compact display data for up to 500 users in one call, in the order requested. Unknown IDs are skipped.")
+    @ApiResponses({
+            @ApiResponse(responseCode = "200", description = "Users found"),
+            @ApiResponse(responseCode = "400", description = "More than 500 IDs")
+    })
+    @PostMapping(value = "/batch", consumes = MediaType.APPLICATION_JSON_VALUE, produces = MediaType.APPLICATION_JSON_VALUE)
+    public List<UserSummaryResponse> getUsersByIds(@RequestBody List<Long> ids) {
+        return userService.findByIds(ids).stream()
+                .map(UserSummaryResponse::fromEntity)
+                .collect(Collectors.toList());
+    }
+
     @Operation(summary = "Get user by email", description = "Returns a single user by their email address.")
     @ApiResponses({
             @ApiResponse(responseCode = "200", description = "User found"),
@@ -106,7 +169,7 @@ public class UserController {
         return UserResponse.fromEntity(userService.update(id, request));
     }
 
-    @Operation(summary = "Get users by role", description = "Returns all users with the given role (e.g. FREELANCER, CLIENT, ADMIN).")
+    @Operation(summary = "Get users by role", description = "Returns all users with the given role (e.g. FREELANCER, CLIENT, ADMIN). Services should use /page?role= or /stream?role= instead.")
     @GetMapping(value = "/by-role", produces = MediaType.APPLICATION_JSON_VALUE)
     public List<UserResponse> getUsersByRole(
             @Parameter(description = "Role name") @RequestParam String role) {
@@ -131,4 +194,21 @@ public class UserController {
             @Parameter(description = "User ID") @PathVariable Long id) {
         userService.deleteById(id);
     }
+
+    /** Keycloak realm role ADMIN, mapped to {@code ROLE_ADMIN} by {@code SecurityConfig}. */
+    private static boolean isAdmin() {
+        Authentication auth = SecurityContextHolder.getContext().getAuthentication();
+        return auth != null && auth.getAuthorities().stream().anyMatch(a -> "ROLE_ADMIN".equals(a.getAuthority()));
+    }
+
+    private static Role parseRole(String role) {
+        if (role == null || role.isBlank()) {
+            return null;
+        }
+        try {
+            return Role.valueOf(role.trim().toUpperCase());
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("Unknown role: " + role);
+        }
+    }
 }
@@ -0,0 +1,80 @@
+package com.esprit.user.dto;
+
+import com.esprit.user.entity.Role;
+import com.fasterxml.jackson.annotation.JsonInclude;
+
+/**
+ * Row of the paged / streamed user listing: identity, name, role and status only. The email is filled in
+ * only when an admin asks for it on the paged listing ({@code includeEmail=true}) and omitted from the JSON otherwise.
+ */
+public class UserListItem {
+
+    private Long id;
+    private String firstName;
+    private String lastName;
+    private Role role;
+    private Boolean isActive;
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    private String email;
+
+    public UserListItem() {
+    }
+
+    /** Used by the JPQL constructor expression in {@link com.esprit.user.repository.UserRepository}. */
+    public UserListItem(Long id, String firstName, String lastName, Role role, Boolean isActive, String email) {
+        this.id = id;
+        this.firstName = firstName;
+        this.lastName = lastName;
+        this.role = role;
+        this.isActive = isActive;
+        this.email = email;
+    }
+
+    public Long getId() {
+        return id;
+    }
+
+    public void setId(Long id) {
+        this.id = id;
+    }
+
+    public String getFirstName() {
+        return firstName;
+    }
+
+    public void setFirstName(String firstName) {
+        this.firstName = firstName;
+    }
+
+    public String getLastName() {
+        return lastName;
+    }
+
+    public void setLastName(String lastName) {
+        this.lastName = lastName;
+    }
+
+    public Role getRole() {
+        return role;
+    }
+
+    public void setRole(Role role) {
+        this.role = role;
+    }
+
+    public Boolean getIsActive() {
+        return isActive;
+    }
+
+    public void setIsActive(Boolean isActive) {
+        this.isActive = isActive;
+    }
+
+    public String getEmail() {
+        return email;
+    }
+
+    public void setEmail(String email) {
+        this.email = email;
+    }
+}
@@ -0,0 +1,37 @@
+package com.esprit.user.dto;
+
+import java.util.List;
+
+/**
+ * One keyset page of {@link UserListItem}s, in ascending id order. Pass {@code nextCursor} as {@code after}
+ * to read the next page; it is null on the last page.
+ */
+public class UserPage {
+
+    private List<UserListItem> items;
+    private Long nextCursor;
+
+    public UserPage() {
+    }
+
+    public UserPage(List<UserListItem> items, Long nextCursor) {
+        this.items = items;
+        this.nextCursor = nextCursor;
+    }
+
+    public List<UserListItem> getItems() {
+        return items;
+    }
+
+    public void setItems(List<UserListItem> items) {
+        this.items = items;
+    }
+
+    public Long getNextCursor() {
+        return nextCursor;
+    }
+
+    public void setNextCursor(Long nextCursor) {
+        this.nextCursor = nextCursor;
+    }
+}
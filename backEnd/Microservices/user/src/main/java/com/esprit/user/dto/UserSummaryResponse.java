@@ -0,0 +1,80 @@
+package com.esprit.user.dto;
+
+import com.esprit.user.entity.Role;
+
+/**
+ * Compact user projection for bulk lookups (POST /api/users/batch): only what other services need to
+ * display or contact a user.
+ */
+public class UserSummaryResponse {
+
+    private Long id;
+    private String email;
+    private String firstName;
+    private String lastName;
+    private Role role;
+    private String avatarUrl;
+
+    public static UserSummaryResponse fromEntity(com.esprit.user.entity.User u) {
+        if (u == null) return null;
+        UserSummaryResponse response = new UserSummaryResponse();
+        response.setId(u.getId());
+        response.setEmail(u.getEmail());
+        response.setFirstName(u.getFirstName());
+        response.setLastName(u.getLastName());
+        response.setRole(u.getRole());
+        response.setAvatarUrl(u.getAvatarUrl() != null ? u.getAvatarUrl() : "");
+        return response;
+    }
+
+    public UserSummaryResponse() {
+    }
+
+    public Long getId() {
+        return id;
+    }
+
+    public void setId(Long id) {
+        this.id = id;
+    }
+
+    public String getEmail() {
+        return email;
+    }
+
+    public void setEmail(String email) {
+        this.email = email;
+    }
+
+    public String getFirstName() {
+        return firstName;
+    }
+
+    public void setFirstName(String firstName) {
+        this.firstName = firstName;
+    }
+
+    public String getLastName() {
+        return lastName;
+    }
+
+    public void setLastName(String lastName) {
+        this.lastName = lastName;
+    }
+
+    public Role getRole() {
+        return role;
+    }
+
+    public void setRole(Role role) {
+        this.role = role;
+    }
+
+    public String getAvatarUrl() {
+        return avatarUrl;
+    }
+
+    public void setAvatarUrl(String avatarUrl) {
+        this.avatarUrl = avatarUrl;
+    }
+}
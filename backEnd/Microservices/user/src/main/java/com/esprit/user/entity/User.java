@@ -14,7 +14,10 @@ import java.time.LocalDateTime;
  * Represents a user account with profile and authentication data.
  */
 @Entity
-@Table(name = "users")
+@Table(name = "users", indexes = {
+        // Keyset listing by role (GET /api/users/page?role=..., /api/users/stream?role=...)
+        @Index(name = "idx_users_role_id", columnList = "role, id")
+})
 public class User {
 
     @Id
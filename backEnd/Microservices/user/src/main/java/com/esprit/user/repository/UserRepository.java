@@ -1,8 +1,12 @@
 package com.esprit.user.repository;
 
+import com.esprit.user.dto.UserListItem;
 import com.esprit.user.entity.Role;
 import com.esprit.user.entity.User;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.util.List;
@@ -23,4 +27,15 @@ public interface UserRepository extends JpaRepository<User, Long> {
     List<User> findByRole(Role role);
 
     List<User> findByIsActive(Boolean isActive);
+
+    /** Keyset page of listing rows with id &gt; {@code afterId}, ascending; walks the primary key. */
+    @Query("SELECT new com.esprit.user.dto.UserListItem(u.id, u.firstName, u.lastName, u.role, u.isActive, u.email) "
+            + "FROM User u WHERE u.id > :afterId AND (:active IS NULL OR u.isActive = :active) ORDER BY u.id")
+    List<UserListItem> findListPage(@Param("afterId") long afterId, @Param("active") Boolean active, Pageable pageable);
+
+    /** Same as {@link #findListPage} restricted to one role; served by the (role, id) index. */
+    @Query("SELECT new com.esprit.user.dto.UserListItem(u.id, u.firstName, u.lastName, u.role, u.isActive, u.email) "
+            + "FROM User u WHERE u.role = :role AND u.id > :afterId AND (:active IS NULL OR u.isActive = :active) ORDER BY u.id")
+    List<UserListItem> findListPageByRole(@Param("role") Role role, @Param("afterId") long afterId,
+                                          @Param("active") Boolean active, Pageable pageable);
 }
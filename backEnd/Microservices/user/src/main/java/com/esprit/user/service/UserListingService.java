@@ -0,0 +1,125 @@
+package com.esprit.user.service;
+
+import com.esprit.user.dto.UserListItem;
+import com.esprit.user.dto.UserPage;
+import com.esprit.user.entity.Role;
+import com.esprit.user.repository.UserRepository;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+
+/**
+ * Keyset-paginated, projected user listing for other services, replacing the full {@code GET /api/users} and
+ * {@code /by-role} dumps. Rows carry id, name, role and status (email only on request, for admins) and are read by
+ * {@code id > cursor} so every page costs the same however deep the caller is.
+ * <p>
+ * {@link #writeNdjson} streams the whole selection as one JSON object per line, reading
+ * {@code user.listing.chunk-size} rows at a time, so batch consumers can walk every freelancer with flat memory. The
+ * stream never carries emails.
+ */
+@Service
+public class UserListingService {
+
+    public static final int DEFAULT_PAGE_SIZE = 100;
+    public static final int MAX_PAGE_SIZE = 1000;
+
+    private final UserRepository userRepository;
+    private final int chunkSize;
+
+    public UserListingService(UserRepository userRepository,
+                              @Value("${user.listing.chunk-size:500}") int chunkSize) {
+        this.userRepository = userRepository;
+        this.chunkSize = Math.max(1, chunkSize);
+    }
+
+    /**
+     * Up to {@code limit} users (clamped to 1..{@value #MAX_PAGE_SIZE}) with id &gt; {@code afterId}, in id order.
+     * {@code role} and {@code active} are optional filters.
+     */
+    @Transactional(readOnly = true)
+    public UserPage page(Role role, Boolean active, Long afterId, Integer limit, boolean includeEmail) {
+        int size = limit == null ? DEFAULT_PAGE_SIZE : Math.max(1, Math.min(MAX_PAGE_SIZE, limit));
+        List<UserListItem> items = fetch(role, active, afterId != null ? afterId : 0L, size, includeEmail);
+        Long nextCursor = items.size() == size ? items.get(items.size() - 1).getId() : null;
+        return new UserPage(items, nextCursor);
+    }
+
+    /** Writes every matching user as NDJSON, in id order, one chunk query at a time, without emails. */
+    public void writeNdjson(OutputStream out, Role role, Boolean active) throws IOException {
+        Writer writer = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8));
+        long afterId = 0L;
+        while (true) {
+            List<UserListItem> chunk = fetch(role, active, afterId, chunkSize, false);
+            for (UserListItem item : chunk) {
+                writeJsonLine(writer, item);
+            }
+            writer.flush();
+            if (chunk.size() < chunkSize) {
+                break;
+            }
+            afterId = chunk.get(chunk.size() - 1).getId();
+        }
+    }
+
+    private List<UserListItem> fetch(Role role, Boolean active, long afterId, int size, boolean includeEmail) {
+        PageRequest firstRows = PageRequest.of(0, size);
+        List<UserListItem> items = role != null
+                ? userRepository.findListPageByRole(role, afterId, active, firstRows)
+                : userRepository.findListPage(afterId, active, firstRows);
+        if (!includeEmail) {
+            items.forEach(item -> item.setEmail(null));
+        }
+        return items;
+    }
+
+    private static void writeJsonLine(Writer w, UserListItem u) throws IOException {
+        w.write("{\"id\":" + json(u.getId()));
+        w.write(",\"firstName\":" + json(u.getFirstName()));
+        w.write(",\"lastName\":" + json(u.getLastName()));
+        w.write(",\"role\":" + json(u.getRole() != null ? u.getRole().name() : null));
+        w.write(",\"isActive\":" + json(u.getIsActive()));
+        if (u.getEmail() != null) {
+            w.write(",\"email\":" + json(u.getEmail()));
+        }
+        w.write("}\n");
+    }
+
+    /** JSON literal for numbers/booleans; quoted and escaped string otherwise. */
+    static String json(Object value) {
+        if (value == null) {
+            return "null";
+        }
+        if (value instanceof Number || value instanceof Boolean) {
+            return String.valueOf(value);
+        }
+        String str = String.valueOf(value);
+        StringBuilder sb = new StringBuilder(str.length() + 2).append('"');
+        for (int i = 0; i < str.length(); i++) {
+            char c = str.charAt(i);
+            switch (c) {
+                case '"' -> sb.append("\\\"");
+                case '\\' -> sb.append("\\\\");
+                case '\n' -> sb.append("\\n");
+                case '\r' -> sb.append("\\r");
+                case '\t' -> sb.append("\\t");
+                default -> {
+                    if (c < 0x20) {
+                        sb.append(String.format("\\u%04x", (int) c));
+                    } else {
+                        sb.append(c);
+                    }
+                }
+            }
+        }
+        return sb.append('"').toString();
+    }
+}
@@ -10,7 +10,14 @@ import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.util.Collection;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.stream.Collectors;
 
 /**
  * Service layer for User operations in the Gestion User microservice.
@@ -19,6 +26,9 @@ import java.util.List;
 @Service
 public class UserService {
 
+    /** Upper bound on ids per bulk lookup; callers split larger sets. */
+    public static final int MAX_BATCH_IDS = 500;
+
     private final UserRepository userRepository;
     private final PasswordEncoder passwordEncoder;
     private final KeycloakAuthClient keycloakAuthClient;
@@ -40,6 +50,23 @@ public class UserService {
                 .orElseThrow(() -> new RuntimeException("User not found with id: " + id));
     }
 
+    /**
+     * Users with the given ids, in the order requested (duplicates and nulls ignored). Unknown ids are skipped.
+     */
+    @Transactional(readOnly = true)
+    public List<User> findByIds(Collection<Long> ids) {
+        Set<Long> distinct = ids.stream().filter(Objects::nonNull).collect(Collectors.toCollection(LinkedHashSet::new));
+        if (distinct.size() > MAX_BATCH_IDS) {
+            throw new IllegalArgumentException("At most " + MAX_BATCH_IDS + " ids per batch");
+        }
+        if (distinct.isEmpty()) {
+            return List.of();
+        }
+        Map<Long, User> byId = userRepository.findAllById(distinct).stream()
+                .collect(Collectors.toMap(User::getId, Function.identity()));
+        return distinct.stream().map(byId::get).filter(Objects::nonNull).collect(Collectors.toList());
+    }
+
     @Transactional(readOnly = true)
     public List<User> findByRole(Role role) {
         return userRepository.findByRole(role);
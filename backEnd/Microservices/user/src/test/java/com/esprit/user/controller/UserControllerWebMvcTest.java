@@ -2,16 +2,23 @@ package com.esprit.user.controller;
 
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.isNull;
 import static org.mockito.Mockito.when;
+import static org.mockito.Mockito.doAnswer;
 import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.put;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.delete;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
 import java.util.List;
 
 import org.junit.jupiter.api.Test;
@@ -20,15 +27,21 @@ import org.springframework.boot.security.autoconfigure.SecurityAutoConfiguration
 import org.springframework.boot.security.oauth2.server.resource.autoconfigure.servlet.OAuth2ResourceServerAutoConfiguration;
 import org.springframework.boot.webmvc.test.autoconfigure.WebMvcTest;
 import org.springframework.http.MediaType;
+import org.springframework.security.authentication.TestingAuthenticationToken;
+import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.test.context.TestPropertySource;
 import org.springframework.test.context.bean.override.mockito.MockitoBean;
 import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.esprit.user.dto.UserRequest;
 import com.esprit.user.dto.UserUpdateRequest;
 import com.esprit.user.entity.Role;
 import com.esprit.user.entity.User;
+import com.esprit.user.dto.UserListItem;
+import com.esprit.user.dto.UserPage;
+import com.esprit.user.service.UserListingService;
 import com.esprit.user.service.UserService;
 
 @WebMvcTest(
@@ -50,6 +63,9 @@ class UserControllerWebMvcTest {
     @MockitoBean
     private UserService userService;
 
+    @MockitoBean
+    private UserListingService userListingService;
+
     @Test
     void welcome() throws Exception {
         mockMvc.perform(get("/api/users/welcome"))
@@ -79,6 +95,98 @@ class UserControllerWebMvcTest {
                 .andExpect(jsonPath("$.id").value(1));
     }
 
+    @Test
+    void getUsersByIds() throws Exception {
+        User u = new User();
+        u.setId(4L);
+        u.setEmail("d@e.com");
+        u.setFirstName("D");
+        u.setLastName("E");
+        u.setRole(Role.FREELANCER);
+        when(userService.findByIds(List.of(4L, 5L))).thenReturn(List.of(u));
+        mockMvc.perform(post("/api/users/batch")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("[4,5]"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.length()").value(1))
+                .andExpect(jsonPath("$[0].firstName").value("D"))
+                .andExpect(jsonPath("$[0].role").value("FREELANCER"));
+    }
+
+    @Test
+    void getUsersByIdsTooManyIdsIsBadRequest() throws Exception {
+        when(userService.findByIds(any())).thenThrow(new IllegalArgumentException("At most 500 ids per batch"));
+        mockMvc.perform(post("/api/users/batch")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("[1]"))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.error").value("At most 500 ids per batch"));
+    }
+
+    @Test
+    void getUserPage() throws Exception {
+        UserListItem item = new UserListItem(7L, "A", "B", Role.FREELANCER, true, null);
+        when(userListingService.page(Role.FREELANCER, true, 5L, 1, false)).thenReturn(new UserPage(List.of(item), 7L));
+        mockMvc.perform(get("/api/users/page")
+                        .param("role", "freelancer")
+                        .param("active", "true")
+                        .param("after", "5")
+                        .param("limit", "1"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.items[0].id").value(7))
+                .andExpect(jsonPath("$.items[0].email").doesNotExist())
+                .andExpect(jsonPath("$.nextCursor").value(7));
+    }
+
+    @Test
+    void getUserPageWithEmailIsForbiddenWithoutAdminRole() throws Exception {
+        SecurityContextHolder.getContext().setAuthentication(new TestingAuthenticationToken("u", null, "ROLE_FREELANCER"));
+        try {
+            mockMvc.perform(get("/api/users/page").param("includeEmail", "true"))
+                    .andExpect(status().isForbidden())
+                    .andExpect(jsonPath("$.error").value("includeEmail requires the ADMIN role"));
+        } finally {
+            SecurityContextHolder.clearContext();
+        }
+        verifyNoInteractions(userListingService);
+    }
+
+    @Test
+    void getUserPageWithEmailForAdmin() throws Exception {
+        UserListItem item = new UserListItem(7L, "A", "B", Role.FREELANCER, true, "a@b.com");
+        when(userListingService.page(null, null, null, null, true)).thenReturn(new UserPage(List.of(item), null));
+        SecurityContextHolder.getContext().setAuthentication(new TestingAuthenticationToken("admin", null, "ROLE_ADMIN"));
+        try {
+            mockMvc.perform(get("/api/users/page").param("includeEmail", "true"))
+                    .andExpect(status().isOk())
+                    .andExpect(jsonPath("$.items[0].email").value("a@b.com"));
+        } finally {
+            SecurityContextHolder.clearContext();
+        }
+    }
+
+    @Test
+    void getUserPageUnknownRoleIsBadRequest() throws Exception {
+        mockMvc.perform(get("/api/users/page").param("role", "WIZARD"))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.error").value("Unknown role: WIZARD"));
+    }
+
+    @Test
+    void streamUsers() throws Exception {
+        doAnswer(inv -> {
+            inv.<OutputStream>getArgument(0).write("{\"id\":1}\n".getBytes(StandardCharsets.UTF_8));
+            return null;
+        }).when(userListingService).writeNdjson(any(), eq(Role.FREELANCER), isNull());
+        MvcResult result = mockMvc.perform(get("/api/users/stream").param("role", "FREELANCER"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+        mockMvc.perform(asyncDispatch(result))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType("application/x-ndjson"))
+                .andExpect(content().string("{\"id\":1}\n"));
+    }
+
     @Test
     void getUserByEmail() throws Exception {
         User u = new User();
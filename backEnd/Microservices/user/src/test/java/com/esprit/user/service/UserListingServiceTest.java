@@ -0,0 +1,84 @@
+package com.esprit.user.service;
+
+import com.esprit.user.dto.UserListItem;
+import com.esprit.user.dto.UserPage;
+import com.esprit.user.entity.Role;
+import com.esprit.user.repository.UserRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.PageRequest;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class UserListingServiceTest {
+
+    @Mock
+    private UserRepository userRepository;
+
+    private UserListingService listingService;
+
+    @BeforeEach
+    void setUp() {
+        listingService = new UserListingService(userRepository, 2);
+    }
+
+    private static List<UserListItem> rows(long... ids) {
+        List<UserListItem> rows = new ArrayList<>();
+        for (long id : ids) {
+            rows.add(new UserListItem(id, "F" + id, "L\"" + id, Role.FREELANCER, true, "u" + id + "@mail.com"));
+        }
+        return rows;
+    }
+
+    @Test
+    void pageReturnsCursorWhenFullAndDropsEmailByDefault() {
+        when(userRepository.findListPageByRole(Role.FREELANCER, 10L, true, PageRequest.of(0, 2))).thenReturn(rows(11, 12));
+
+        UserPage page = listingService.page(Role.FREELANCER, true, 10L, 2, false);
+
+        assertEquals(2, page.getItems().size());
+        assertEquals(12L, page.getNextCursor());
+        assertNull(page.getItems().get(0).getEmail());
+        verify(userRepository, never()).findListPage(anyLong(), any(), any());
+    }
+
+    @Test
+    void pageClampsLimitAndEndsOnShortPage() {
+        when(userRepository.findListPage(0L, null, PageRequest.of(0, UserListingService.MAX_PAGE_SIZE))).thenReturn(rows(1));
+
+        UserPage page = listingService.page(null, null, null, 50_000, true);
+
+        assertNull(page.getNextCursor());
+        assertEquals("u1@mail.com", page.getItems().get(0).getEmail());
+    }
+
+    @Test
+    void writeNdjsonWalksChunksByKeyset() throws IOException {
+        when(userRepository.findListPageByRole(Role.FREELANCER, 0L, null, PageRequest.of(0, 2))).thenReturn(rows(1, 2));
+        when(userRepository.findListPageByRole(Role.FREELANCER, 2L, null, PageRequest.of(0, 2))).thenReturn(rows(5));
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+        listingService.writeNdjson(out, Role.FREELANCER, null);
+
+        String[] lines = out.toString(StandardCharsets.UTF_8).split("\n");
+        assertEquals(3, lines.length);
+        assertEquals("{\"id\":1,\"firstName\":\"F1\",\"lastName\":\"L\\\"1\",\"role\":\"FREELANCER\",\"isActive\":true}", lines[0]);
+        assertEquals("{\"id\":5,\"firstName\":\"F5\",\"lastName\":\"L\\\"5\",\"role\":\"FREELANCER\",\"isActive\":true}", lines[2]);
+    }
+}
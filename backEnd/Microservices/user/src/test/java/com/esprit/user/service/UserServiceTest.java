@@ -83,6 +83,27 @@ class UserServiceTest {
         verify(keycloakAuthClient, never()).deleteUserByEmail(any(String.class));
     }
 
+    @Test
+    void findByIdsKeepsRequestOrderAndSkipsUnknownIds() {
+        User first = new User();
+        first.setId(1L);
+        User third = new User();
+        third.setId(3L);
+        when(userRepository.findAllById(any())).thenReturn(List.of(first, third));
+
+        List<User> users = userService.findByIds(java.util.Arrays.asList(3L, 2L, null, 1L, 3L));
+
+        assertEquals(List.of(3L, 1L), users.stream().map(User::getId).toList());
+    }
+
+    @Test
+    void findByIdsRejectsOversizedBatch() {
+        List<Long> ids = java.util.stream.LongStream.rangeClosed(1, UserService.MAX_BATCH_IDS + 1).boxed().toList();
+
+        assertThrows(IllegalArgumentException.class, () -> userService.findByIds(ids));
+        verify(userRepository, never()).findAllById(any());
+    }
+
     @Test
     void findMethodsDelegateToRepository() {
         User user = new User();
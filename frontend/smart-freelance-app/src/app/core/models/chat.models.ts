@@ -13,6 +13,14 @@ export interface TypingEvent {
   typing: boolean;
 }
 
+export interface ReadReceipt {
+  readerId: number;
+  senderId: number;
+  upToMessageId: number;
+  count: number;
+  seenAt: string;
+}
+
 export interface UserStatus {
   userId: number;
   status: 'ONLINE' | 'OFFLINE';
@@ -3,7 +3,7 @@ import { HttpClient } from '@angular/common/http';
 import { Subject, BehaviorSubject, Observable } from 'rxjs';
 import { Client, IFrame, IMessage } from '@stomp/stompjs';
 import SockJS from 'sockjs-client';
-import { ChatMessage, TypingEvent, UserStatus, ConversationSummary, PagedMessages } from '../models/chat.models';
+import { ChatMessage, TypingEvent, UserStatus, ConversationSummary, PagedMessages, ReadReceipt } from '../models/chat.models';
 import { environment } from '../../../environments/environment';
 
 @Injectable({ providedIn: 'root' })
@@ -14,6 +14,9 @@ export class ChatService {
   messages$ = new Subject<ChatMessage>();
   typing$ = new Subject<TypingEvent>();
   seen$ = new Subject<ChatMessage>();
+  readReceipts$ = new Subject<ReadReceipt>();
+  /** Messages the server accepted but could not store; sent to both the sender and the receiver. */
+  failed$ = new Subject<ChatMessage>();
   status$ = new Subject<UserStatus>();
 
   constructor(private readonly http: HttpClient) {}
@@ -39,8 +42,16 @@ export class ChatService {
         this.client.subscribe('/user/queue/seen', (msg: IMessage) => {
           this.seen$.next(JSON.parse(msg.body) as ChatMessage);
         });
+        this.client.subscribe('/user/queue/read-receipts', (msg: IMessage) => {
+          this.readReceipts$.next(JSON.parse(msg.body) as ReadReceipt);
+        });
+        this.client.subscribe('/user/queue/message-failed', (msg: IMessage) => {
+          this.failed$.next(JSON.parse(msg.body) as ChatMessage);
+        });
         this.client.subscribe('/topic/user-status', (msg: IMessage) => {
-          this.status$.next(JSON.parse(msg.body) as UserStatus);
+          // status changes arrive batched (a list per broadcast window)
+          const body = JSON.parse(msg.body) as UserStatus | UserStatus[];
+          (Array.isArray(body) ? body : [body]).forEach((s) => this.status$.next(s));
         });
       },
       onDisconnect: () => {
@@ -96,6 +107,17 @@ export class ChatService {
     } catch { /* ignore */ }
   }
 
+  /** One receipt for every message from senderId up to upToMessageId; the server debounces and batches them. */
+  markSeenUpTo(senderId: number, upToMessageId: number): void {
+    if (!this.isConnected) return;
+    try {
+      this.client.publish({
+        destination: '/app/seen-up-to',
+        body: JSON.stringify({ senderId, upToMessageId }),
+      });
+    } catch { /* ignore */ }
+  }
+
   getConversation(user1: number, user2: number, page = 0, size = 20): Observable<PagedMessages> {
     return this.http.get<PagedMessages>(
       `${environment.apiGatewayUrl}/chat/api/messages/conversation/${user1}/${user2}?page=${page}&size=${size}`
@@ -1,9 +1,11 @@
 import { Injectable } from '@angular/core';
-import { HttpClient } from '@angular/common/http';
+import { HttpClient, HttpParams } from '@angular/common/http';
 import { Observable, catchError, map, of } from 'rxjs';
 import { environment } from '../../../environments/environment';
 
 const NOTIFICATION_API = `${environment.apiGatewayUrl}/notification/api/notifications`;
+const STREAM_RETRY_MIN_MS = 2_000;
+const STREAM_RETRY_MAX_MS = 60_000;
 
 /** Single notification from the Notification microservice (Firestore). */
 export interface NotificationItem {
@@ -17,19 +19,97 @@ export interface NotificationItem {
   data?: Record<string, string>;
 }
 
+/** Cursor page from GET /user/{userId}/page. */
+export interface NotificationPage {
+  items: NotificationItem[];
+  nextCursor: string | null;
+  hasMore: boolean;
+}
+
 @Injectable({ providedIn: 'root' })
 export class NotificationService {
   constructor(private http: HttpClient) {}
 
-  /** List all notifications for a user (newest first). */
-  getByUserId(userId: string | number): Observable<NotificationItem[]> {
+  /** Newest notifications for a user (newest first, at most `limit`, server max 200). */
+  getByUserId(userId: string | number, limit = 50, unreadOnly = false): Observable<NotificationItem[]> {
     const id = typeof userId === 'number' ? String(userId) : userId;
-    return this.http.get<NotificationItem[]>(`${NOTIFICATION_API}/user/${id}`).pipe(
+    const params = new HttpParams().set('limit', limit).set('unreadOnly', unreadOnly);
+    return this.http.get<NotificationItem[]>(`${NOTIFICATION_API}/user/${id}`, { params }).pipe(
       map((list) => Array.isArray(list) ? list : []),
       catchError(() => of([]))
     );
   }
 
+  /** One page of notifications; pass the previous page's nextCursor to get older ones. */
+  getPage(userId: string | number, cursor?: string | null, limit = 20, unreadOnly = false): Observable<NotificationPage> {
+    let params = new HttpParams().set('limit', limit).set('unreadOnly', unreadOnly);
+    if (cursor) params = params.set('cursor', cursor);
+    return this.http.get<NotificationPage>(`${NOTIFICATION_API}/user/${userId}/page`, { params }).pipe(
+      catchError(() => of({ items: [], nextCursor: null, hasMore: false }))
+    );
+  }
+
+  /**
+   * Live notifications for a user (server-sent events). Uses fetch rather than EventSource so the JWT can be sent;
+   * reconnects with backoff and Last-Event-ID, so notifications created while disconnected are still delivered.
+   * When more were missed than the server replays, it sends a `reset` event instead and `onReset` is called so the
+   * caller reloads its list and count.
+   */
+  stream(userId: string | number, onReset?: () => void): Observable<NotificationItem> {
+    return new Observable<NotificationItem>((subscriber) => {
+      const controller = new AbortController();
+      let lastEventId: string | null = null;
+      let retryMs = STREAM_RETRY_MIN_MS;
+      let retryTimer: ReturnType<typeof setTimeout> | undefined;
+
+      const connect = async () => {
+        const token = localStorage.getItem('access_token') || sessionStorage.getItem('access_token');
+        const headers: Record<string, string> = { Accept: 'text/event-stream' };
+        if (token) headers['Authorization'] = `Bearer ${token}`;
+        if (lastEventId) headers['Last-Event-ID'] = lastEventId;
+        try {
+          const res = await fetch(`${NOTIFICATION_API}/user/${userId}/stream`, { headers, signal: controller.signal });
+          if (!res.ok || !res.body) throw new Error(`stream ${res.status}`);
+          retryMs = STREAM_RETRY_MIN_MS;
+          const reader = res.body.pipeThrough(new TextDecoderStream()).getReader();
+          let buffer = '';
+          for (;;) {
+            const { value, done } = await reader.read();
+            if (done) break;
+            buffer += value;
+            let end: number;
+            while ((end = buffer.indexOf('\n\n')) >= 0) {
+              const block = buffer.slice(0, end);
+              buffer = buffer.slice(end + 2);
+              let id: string | null = null;
+              let event = 'message';
+              let data = '';
+              for (const line of block.split('\n')) {
+                if (line.startsWith('id:')) id = line.slice(3).trim();
+                else if (line.startsWith('event:')) event = line.slice(6).trim();
+                else if (line.startsWith('data:')) data += line.slice(5);
+              }
+              if (!data) continue;
+              if (id) lastEventId = id;
+              if (event === 'reset') onReset?.();
+              else subscriber.next(JSON.parse(data) as NotificationItem);
+            }
+          }
+        } catch {
+          if (controller.signal.aborted) return;
+          retryMs = Math.min(retryMs * 2, STREAM_RETRY_MAX_MS);
+        }
+        if (!controller.signal.aborted) retryTimer = setTimeout(connect, retryMs);
+      };
+
+      connect();
+      return () => {
+        controller.abort();
+        if (retryTimer) clearTimeout(retryTimer);
+      };
+    });
+  }
+
   /** Mark a notification as read. */
   markRead(id: string): Observable<NotificationItem | null> {
     return this.http.patch<NotificationItem>(`${NOTIFICATION_API}/${id}/read`, {}).pipe(
@@ -45,10 +125,19 @@ export class NotificationService {
     );
   }
 
-  /** Unread count for a user (derived from list). */
+  /** Unread count for a user (server-side counter). */
   getUnreadCount(userId: string | number): Observable<number> {
-    return this.getByUserId(userId).pipe(
-      map((list) => list.filter((n) => !n.read).length)
+    return this.http.get<{ unread: number }>(`${NOTIFICATION_API}/user/${userId}/unread-count`).pipe(
+      map((res) => res?.unread ?? 0),
+      catchError(() => of(0))
+    );
+  }
+
+  /** Mark all of a user's notifications as read; returns how many were updated. */
+  markAllRead(userId: string | number): Observable<number> {
+    return this.http.patch<{ updated: number }>(`${NOTIFICATION_API}/user/${userId}/read-all`, {}).pipe(
+      map((res) => res?.updated ?? 0),
+      catchError(() => of(0))
     );
   }
 
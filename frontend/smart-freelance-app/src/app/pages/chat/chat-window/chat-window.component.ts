@@ -18,7 +18,7 @@ import { filter } from 'rxjs/operators';
 import { ChatService } from '../../../core/services/chat.service';
 import { UserService } from '../../../core/services/user.service';
 import { TranslationService, Language } from '../../../core/services/translation.service';
-import { ChatMessage, TypingEvent, UserStatus } from '../../../core/models/chat.models';
+import { ChatMessage, ReadReceipt, TypingEvent, UserStatus } from '../../../core/models/chat.models';
 
 @Component({
   selector: 'app-chat-window',
@@ -119,7 +119,7 @@ export class ChatWindowComponent implements OnInit, OnChanges, AfterViewChecked,
         this.messages.push(msg);
         this.shouldScrollToBottom = true;
         if (msg.senderId === this.partnerId && msg.id) {
-          this.chatService.markSeen(msg.id);
+          this.chatService.markSeenUpTo(this.partnerId, msg.id);
           // Auto-translate if translate mode is on
           if (this.translateEnabled) {
             this.translateMessage(msg);
@@ -142,6 +142,33 @@ export class ChatWindowComponent implements OnInit, OnChanges, AfterViewChecked,
     });
     this.subscriptions.push(seenSub);
 
+    const receiptSub = this.chatService.readReceipts$
+      .pipe(filter((r: ReadReceipt) => r.readerId === this.partnerId))
+      .subscribe((r: ReadReceipt) => {
+        this.messages
+          .filter((m) => m.senderId === this.currentUserId && m.id && m.id <= r.upToMessageId)
+          .forEach((m) => (m.status = 'SEEN'));
+      });
+    this.subscriptions.push(receiptSub);
+
+    // sent to both users: drop the message either way, but only the sender is asked to resend
+    const failedSub = this.chatService.failed$
+      .pipe(
+        filter(
+          (m: ChatMessage) =>
+            (m.senderId === this.currentUserId && m.receiverId === this.partnerId) ||
+            (m.senderId === this.partnerId && m.receiverId === this.currentUserId),
+        ),
+      )
+      .subscribe((m: ChatMessage) => {
+        this.messages = this.messages.filter((existing) => existing.id !== m.id);
+        if (m.senderId === this.currentUserId) {
+          this.sendError = 'A message could not be delivered. Please send it again.';
+          setTimeout(() => this.sendError = null, 4000);
+        }
+      });
+    this.subscriptions.push(failedSub);
+
     const statusSub = this.chatService.status$
       .pipe(filter((s: UserStatus) => s.userId === this.partnerId))
       .subscribe((s: UserStatus) => {
@@ -335,9 +362,9 @@ export class ChatWindowComponent implements OnInit, OnChanges, AfterViewChecked,
   }
 
   markMessagesAsSeen(): void {
-    this.messages
-      .filter((m) => m.senderId === this.partnerId && m.status !== 'SEEN' && m.id)
-      .forEach((m) => this.chatService.markSeen(m.id!));
+    const unseen = this.messages.filter((m) => m.senderId === this.partnerId && m.status !== 'SEEN' && m.id);
+    if (unseen.length === 0) return;
+    this.chatService.markSeenUpTo(this.partnerId, Math.max(...unseen.map((m) => m.id!)));
   }
 
   isMine(msg: ChatMessage): boolean {
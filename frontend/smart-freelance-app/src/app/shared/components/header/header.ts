@@ -1,6 +1,7 @@
 import { Component, Input, OnInit, signal, HostListener, OnDestroy } from '@angular/core';
 import { RouterLink, RouterLinkActive, Router, NavigationEnd } from '@angular/router';
 import { CommonModule } from '@angular/common';
+import { Subscription } from 'rxjs';
 import { filter } from 'rxjs/operators';
 import { AuthService } from '../../../core/services/auth.service';
 import { UserService } from '../../../core/services/user.service';
@@ -9,7 +10,7 @@ import { ProfileViewService } from '../../../core/services/profile-view.service'
 import { Button } from '../button/button';
 import { LiveSearch } from '../live-search/live-search.component';
 
-const POLL_INTERVAL_MS = 15_000;
+const POLL_INTERVAL_MS = 60_000;
 const TOAST_AUTO_DISMISS_MS = 5_000;
 
 @Component({
@@ -48,6 +49,7 @@ export class Header implements OnInit, OnDestroy {
 
   private routerSub?: ReturnType<typeof Router.prototype.events.subscribe>;
   private pollTimer?: ReturnType<typeof setInterval>;
+  private notificationStream?: Subscription;
   private toastTimer?: ReturnType<typeof setTimeout>;
   private lastUnreadCount = 0;
 
@@ -78,7 +80,20 @@ export class Header implements OnInit, OnDestroy {
             this.refreshProfileViewCount();
           }
         });
-      // Poll for real-time unread count when on dashboard
+      // New notifications are pushed; the poll only keeps the count in sync with reads from other tabs
+      const userId = this.auth.getUserId();
+      if (userId != null) {
+        const reload = () => {
+          this.refreshNotificationCount(true);
+          this.loadNotificationList();
+        };
+        this.notificationStream = this.notificationService.stream(userId, reload).subscribe((n) => {
+          this.notificationUnreadCount.update((c) => c + 1);
+          this.lastUnreadCount = this.notificationUnreadCount();
+          this.notificationList.update((list) => [n, ...list.filter((item) => item.id !== n.id)].slice(0, 10));
+          this.showToastSignal();
+        });
+      }
       this.pollTimer = setInterval(() => {
         this.refreshNotificationCount(false);
         this.refreshProfileViewCount();
@@ -88,6 +103,7 @@ export class Header implements OnInit, OnDestroy {
 
   ngOnDestroy(): void {
     this.routerSub?.unsubscribe();
+    this.notificationStream?.unsubscribe();
     if (this.pollTimer) clearInterval(this.pollTimer);
     if (this.toastTimer) clearTimeout(this.toastTimer);
   }
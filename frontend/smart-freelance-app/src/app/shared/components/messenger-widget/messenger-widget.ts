@@ -21,6 +21,7 @@ import { UserService } from '../../../core/services/user.service';
 import {
   ChatMessage,
   ConversationSummary,
+  ReadReceipt,
   TypingEvent,
   UserStatus,
 } from '../../../core/models/chat.models';
@@ -267,14 +268,13 @@ export class MessengerWidget implements OnInit, AfterViewChecked, OnDestroy {
   // ── Seen / scroll ──────────────────────────────────────────────────────────
 
   private markSeen(): void {
-    this.messages
-      .filter(
-        (m) =>
-          m.senderId === this.selectedPartnerId &&
-          m.status !== 'SEEN' &&
-          m.id,
-      )
-      .forEach((m) => this.chatService.markSeen(m.id!));
+    const partnerId = this.selectedPartnerId;
+    if (partnerId == null) return;
+    const unseen = this.messages.filter(
+      (m) => m.senderId === partnerId && m.status !== 'SEEN' && m.id,
+    );
+    if (unseen.length === 0) return;
+    this.chatService.markSeenUpTo(partnerId, Math.max(...unseen.map((m) => m.id!)));
   }
 
   private scrollToBottom(): void {
@@ -312,7 +312,7 @@ export class MessengerWidget implements OnInit, AfterViewChecked, OnDestroy {
           this.messages.push(msg);
           this.shouldScroll = true;
           if (msg.senderId === partnerId && msg.id) {
-            this.chatService.markSeen(msg.id);
+            this.chatService.markSeenUpTo(partnerId, msg.id);
           }
         }
 
@@ -365,6 +365,15 @@ export class MessengerWidget implements OnInit, AfterViewChecked, OnDestroy {
       }),
     );
 
+    this.subs.push(
+      this.chatService.readReceipts$.subscribe((r: ReadReceipt) => {
+        if (r.readerId !== this.selectedPartnerId) return;
+        this.messages
+          .filter((m) => m.senderId === r.senderId && m.id && m.id <= r.upToMessageId)
+          .forEach((m) => (m.status = 'SEEN'));
+      }),
+    );
+
     // Online status
     this.subs.push(
       this.chatService.status$.subscribe((ev: UserStatus) => {